@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.bolt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.bolt.v1.packstream.PackOutput;
+import org.neo4j.bolt.v1.packstream.PackStream;
+import org.neo4j.bolt.v1.packstream.PackedInputArray;
+
+/**
+ * Pack and unpack throughput of {@link PackStream}, for a record of {@code fields} values shaped like a typical
+ * Bolt result row: a mix of integers of various magnitudes, floats, short strings and a small list.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"} )
+public class PackStreamBenchmark
+{
+    @Param( {"10", "100"} )
+    public int fields;
+
+    @Param( {"42"} )
+    public long seed;
+
+    private long[] longs;
+    private double[] doubles;
+    private String[] strings;
+    private ArrayPackOutput output;
+    private PackStream.Packer packer;
+    private byte[] packed;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        SplittableRandom random = new SplittableRandom( seed );
+        longs = new long[fields];
+        doubles = new double[fields];
+        strings = new String[fields];
+        for ( int i = 0; i < fields; i++ )
+        {
+            longs[i] = random.nextLong() >> random.nextInt( 64 );
+            doubles[i] = random.nextDouble();
+            strings[i] = "value-" + random.nextInt( 1_000_000 );
+        }
+        output = new ArrayPackOutput( 64 * 1024 );
+        packer = new PackStream.Packer( output );
+        packRecord();
+        packed = output.bytes();
+    }
+
+    @Benchmark
+    public int pack() throws IOException
+    {
+        output.reset();
+        packRecord();
+        return output.position();
+    }
+
+    @Benchmark
+    public void unpack( Blackhole blackhole ) throws IOException
+    {
+        PackStream.Unpacker unpacker = new PackStream.Unpacker( new PackedInputArray( packed ) );
+        long size = unpacker.unpackListHeader();
+        for ( long i = 0; i < size; i += 4 )
+        {
+            blackhole.consume( unpacker.unpackLong() );
+            blackhole.consume( unpacker.unpackDouble() );
+            blackhole.consume( unpacker.unpackString() );
+            long listSize = unpacker.unpackListHeader();
+            for ( long j = 0; j < listSize; j++ )
+            {
+                blackhole.consume( unpacker.unpackLong() );
+            }
+        }
+    }
+
+    private void packRecord() throws IOException
+    {
+        packer.packListHeader( fields * 4 );
+        for ( int i = 0; i < fields; i++ )
+        {
+            packer.pack( longs[i] );
+            packer.pack( doubles[i] );
+            packer.pack( strings[i] );
+            packer.packListHeader( 3 );
+            packer.pack( i );
+            packer.pack( longs[i] >> 32 );
+            packer.pack( longs[(i + 1) % fields] );
+        }
+        packer.flush();
+    }
+
+    /**
+     * Reusable, fixed size output so that buffer growth and allocation don't skew the numbers.
+     */
+    private static class ArrayPackOutput implements PackOutput
+    {
+        private final ByteBuffer buffer;
+
+        ArrayPackOutput( int capacity )
+        {
+            buffer = ByteBuffer.allocate( capacity );
+        }
+
+        void reset()
+        {
+            buffer.clear();
+        }
+
+        int position()
+        {
+            return buffer.position();
+        }
+
+        byte[] bytes()
+        {
+            return Arrays.copyOf( buffer.array(), buffer.position() );
+        }
+
+        @Override
+        public PackOutput flush()
+        {
+            return this;
+        }
+
+        @Override
+        public PackOutput writeByte( byte value )
+        {
+            buffer.put( value );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeBytes( ByteBuffer data )
+        {
+            buffer.put( data );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeBytes( byte[] data, int offset, int amountToWrite )
+        {
+            buffer.put( data, offset, amountToWrite );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeShort( short value )
+        {
+            buffer.putShort( value );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeInt( int value )
+        {
+            buffer.putInt( value );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeLong( long value )
+        {
+            buffer.putLong( value );
+            return this;
+        }
+
+        @Override
+        public PackOutput writeDouble( double value )
+        {
+            buffer.putDouble( value );
+            return this;
+        }
+    }
+}
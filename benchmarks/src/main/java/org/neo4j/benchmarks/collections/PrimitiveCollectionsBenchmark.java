@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.collections;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongLongMap;
+import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+
+/**
+ * Build and lookup throughput of the hopscotch based primitive collections, on and off heap. The build benchmarks
+ * fill a fresh collection with {@code size} random keys, the lookup benchmarks probe a pre-built one with keys of
+ * which roughly half are present.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"} )
+public class PrimitiveCollectionsBenchmark
+{
+    @Param( {"1000", "1000000"} )
+    public int size;
+
+    @Param( {"42"} )
+    public long seed;
+
+    private long[] keys;
+    private long[] probes;
+    private PrimitiveLongSet set;
+    private PrimitiveLongSet offHeapSet;
+    private PrimitiveLongObjectMap<Object> objectMap;
+    private PrimitiveLongLongMap offHeapLongMap;
+
+    @Setup
+    public void setUp()
+    {
+        SplittableRandom random = new SplittableRandom( seed );
+        keys = new long[size];
+        probes = new long[size];
+        for ( int i = 0; i < size; i++ )
+        {
+            keys[i] = random.nextLong( Long.MAX_VALUE );
+            probes[i] = random.nextBoolean() ? keys[random.nextInt( i + 1 )] : random.nextLong( Long.MAX_VALUE );
+        }
+        set = fill( Primitive.longSet() );
+        offHeapSet = fill( Primitive.offHeapLongSet() );
+        objectMap = Primitive.longObjectMap();
+        offHeapLongMap = Primitive.offHeapLongLongMap();
+        for ( long key : keys )
+        {
+            objectMap.put( key, Boolean.TRUE );
+            offHeapLongMap.put( key, key );
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        set.close();
+        offHeapSet.close();
+        objectMap.close();
+        offHeapLongMap.close();
+    }
+
+    @Benchmark
+    public int buildLongSet()
+    {
+        try ( PrimitiveLongSet set = fill( Primitive.longSet() ) )
+        {
+            return set.size();
+        }
+    }
+
+    @Benchmark
+    public int buildOffHeapLongSet()
+    {
+        try ( PrimitiveLongSet set = fill( Primitive.offHeapLongSet() ) )
+        {
+            return set.size();
+        }
+    }
+
+    @Benchmark
+    public int containsLongSet()
+    {
+        return contains( set );
+    }
+
+    @Benchmark
+    public int containsOffHeapLongSet()
+    {
+        return contains( offHeapSet );
+    }
+
+    @Benchmark
+    public int getLongObjectMap()
+    {
+        int found = 0;
+        for ( long probe : probes )
+        {
+            if ( objectMap.get( probe ) != null )
+            {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public long getOffHeapLongLongMap()
+    {
+        long sum = 0;
+        for ( long probe : probes )
+        {
+            sum += offHeapLongMap.get( probe );
+        }
+        return sum;
+    }
+
+    private PrimitiveLongSet fill( PrimitiveLongSet set )
+    {
+        for ( long key : keys )
+        {
+            set.add( key );
+        }
+        return set;
+    }
+
+    private int contains( PrimitiveLongSet set )
+    {
+        int found = 0;
+        for ( long probe : probes )
+        {
+            if ( set.contains( probe ) )
+            {
+                found++;
+            }
+        }
+        return found;
+    }
+}
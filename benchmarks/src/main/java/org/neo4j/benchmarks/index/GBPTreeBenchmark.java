@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.index;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Header;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.impl.muninn.StandalonePageCacheFactory;
+
+/**
+ * Insert and seek throughput of {@link GBPTree}, with {@code long} keys and values. The tree is pre-populated
+ * with {@code initialKeys} keys, spaced out so that random inserts land between existing entries and cause splits.
+ *
+ * {@link GBPTree} only allows a single writer at a time, so the insert benchmark is single threaded. Seeks can be
+ * run concurrently with {@code -t}.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"} )
+public class GBPTreeBenchmark
+{
+    private static final int KEY_SPACING = 16;
+    private static final Header.Reader NO_HEADER = ( cursor, length ) ->
+    {
+    };
+
+    @State( Scope.Benchmark )
+    public static class Tree
+    {
+        @Param( {"1000000"} )
+        public int initialKeys;
+
+        @Param( {"42"} )
+        public long seed;
+
+        File directory;
+        FileSystemAbstraction fs;
+        PageCache pageCache;
+        GBPTree<MutableLong,MutableLong> tree;
+
+        @Setup
+        public void setUp() throws IOException
+        {
+            directory = Files.createTempDirectory( "gbptree-benchmark" ).toFile();
+            fs = new DefaultFileSystemAbstraction();
+            pageCache = StandalonePageCacheFactory.createPageCache( fs );
+            tree = new GBPTree<>( pageCache, new File( directory, "tree" ), new LongLayout(), 0,
+                    GBPTree.NO_MONITOR, NO_HEADER );
+            MutableLong key = new MutableLong();
+            MutableLong value = new MutableLong();
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer() )
+            {
+                for ( long i = 0; i < initialKeys; i++ )
+                {
+                    key.setValue( i * KEY_SPACING );
+                    value.setValue( i );
+                    writer.put( key, value );
+                }
+            }
+            tree.checkpoint( IOLimiter.unlimited() );
+        }
+
+        @TearDown
+        public void tearDown() throws IOException
+        {
+            tree.close();
+            pageCache.close();
+            fs.close();
+            FileUtils.deleteRecursively( directory );
+        }
+
+        long randomExistingKey( SplittableRandom random )
+        {
+            return random.nextInt( initialKeys ) * (long) KEY_SPACING;
+        }
+    }
+
+    @State( Scope.Thread )
+    public static class Inserter
+    {
+        SplittableRandom random;
+        Writer<MutableLong,MutableLong> writer;
+        final MutableLong key = new MutableLong();
+        final MutableLong value = new MutableLong();
+
+        @Setup( Level.Iteration )
+        public void setUp( Tree tree ) throws IOException
+        {
+            if ( random == null )
+            {
+                random = new SplittableRandom( tree.seed );
+            }
+            writer = tree.tree.writer();
+        }
+
+        @TearDown( Level.Iteration )
+        public void tearDown() throws IOException
+        {
+            // The writer must be released between iterations, checkpoints and seeks wait for it
+            writer.close();
+        }
+    }
+
+    @State( Scope.Thread )
+    public static class Seeker
+    {
+        @Param( {"100"} )
+        public int rangeSize;
+
+        SplittableRandom random;
+        final MutableLong from = new MutableLong();
+        final MutableLong to = new MutableLong();
+
+        @Setup
+        public void setUp( Tree tree, ThreadParams threadParams )
+        {
+            random = new SplittableRandom( tree.seed + threadParams.getThreadIndex() );
+        }
+    }
+
+    @Benchmark
+    @Threads( 1 )
+    public void insertRandom( Tree tree, Inserter inserter ) throws IOException
+    {
+        long key = tree.randomExistingKey( inserter.random ) + 1 + inserter.random.nextInt( KEY_SPACING - 1 );
+        inserter.key.setValue( key );
+        inserter.value.setValue( key );
+        inserter.writer.put( inserter.key, inserter.value );
+    }
+
+    @Benchmark
+    public long seekExact( Tree tree, Seeker seeker ) throws IOException
+    {
+        long key = tree.randomExistingKey( seeker.random );
+        seeker.from.setValue( key );
+        seeker.to.setValue( key + 1 );
+        return count( tree, seeker );
+    }
+
+    @Benchmark
+    public long seekRange( Tree tree, Seeker seeker ) throws IOException
+    {
+        long key = tree.randomExistingKey( seeker.random );
+        seeker.from.setValue( key );
+        seeker.to.setValue( key + (long) seeker.rangeSize * KEY_SPACING );
+        return count( tree, seeker );
+    }
+
+    private static long count( Tree tree, Seeker seeker ) throws IOException
+    {
+        long sum = 0;
+        try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> cursor = tree.tree.seek( seeker.from, seeker.to ) )
+        {
+            while ( cursor.next() )
+            {
+                sum += cursor.get().value().longValue();
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.locking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.enterprise.lock.forseti.ForsetiLockManager;
+import org.neo4j.kernel.impl.locking.LockTracer;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.ResourceTypes;
+import org.neo4j.time.Clocks;
+
+/**
+ * Acquire/release throughput of {@link ForsetiLockManager} under contention. Every thread has its own client and
+ * locks one node at a time, picked among {@code resources} nodes. Few resources means high contention, many means
+ * mostly uncontended lock map traffic. Each operation takes and releases a single lock, so it can never deadlock.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"} )
+@Threads( 4 )
+public class ForsetiLockManagerBenchmark
+{
+    @State( Scope.Benchmark )
+    public static class LockManager
+    {
+        @Param( {"1", "64", "1000000"} )
+        public int resources;
+
+        @Param( {"42"} )
+        public long seed;
+
+        ForsetiLockManager locks;
+
+        @Setup
+        public void setUp()
+        {
+            locks = new ForsetiLockManager( Config.defaults(), Clocks.systemClock(), ResourceTypes.values() );
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            locks.close();
+        }
+    }
+
+    @State( Scope.Thread )
+    public static class Client
+    {
+        Locks.Client client;
+        SplittableRandom random;
+
+        @Setup
+        public void setUp( LockManager lockManager, ThreadParams threadParams )
+        {
+            client = lockManager.locks.newClient();
+            random = new SplittableRandom( lockManager.seed + threadParams.getThreadIndex() );
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            client.close();
+        }
+
+        long nextResource( int resources )
+        {
+            return random.nextInt( resources );
+        }
+    }
+
+    @Benchmark
+    public void exclusive( LockManager lockManager, Client client )
+    {
+        long resource = client.nextResource( lockManager.resources );
+        client.client.acquireExclusive( LockTracer.NONE, ResourceTypes.NODE, resource );
+        client.client.releaseExclusive( ResourceTypes.NODE, resource );
+    }
+
+    @Benchmark
+    public void shared( LockManager lockManager, Client client )
+    {
+        long resource = client.nextResource( lockManager.resources );
+        client.client.acquireShared( LockTracer.NONE, ResourceTypes.NODE, resource );
+        client.client.releaseShared( ResourceTypes.NODE, resource );
+    }
+}
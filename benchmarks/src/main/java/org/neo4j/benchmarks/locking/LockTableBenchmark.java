@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.locking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.kernel.impl.enterprise.lock.forseti.LockTable;
+
+/**
+ * Compares the {@link LockTable} used by Forseti with the {@code ConcurrentHashMap<Long,Lock>} it replaced, by
+ * replaying the map traffic of lock acquisition: a lookup, an insert if no one holds the resource, and a removal on
+ * release. Every thread uses its own lock object, the way every Forseti client has its own exclusive lock.
+ * Few resources means high contention on the same entries, many means mostly uncontended inserts and removals.
+ * Run with {@code -prof gc} to compare allocation rates as well as throughput.
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"} )
+@Threads( 4 )
+public class LockTableBenchmark
+{
+    @State( Scope.Benchmark )
+    public static class Table
+    {
+        @Param( {"LockTable", "ConcurrentHashMap"} )
+        public String implementation;
+
+        @Param( {"64", "1000000"} )
+        public int resources;
+
+        @Param( {"42"} )
+        public long seed;
+
+        LockMap map;
+
+        @Setup
+        public void setUp()
+        {
+            map = "LockTable".equals( implementation ) ? new LockTableMap() : new ConcurrentHashMapMap();
+        }
+    }
+
+    @State( Scope.Thread )
+    public static class Client
+    {
+        final Object lock = new Object();
+        SplittableRandom random;
+
+        @Setup
+        public void setUp( Table table, ThreadParams threadParams )
+        {
+            random = new SplittableRandom( table.seed + threadParams.getThreadIndex() );
+        }
+    }
+
+    @Benchmark
+    public Object acquireAndRelease( Table table, Client client )
+    {
+        long resourceId = client.random.nextInt( table.resources );
+        LockMap map = table.map;
+        Object existing = map.get( resourceId );
+        if ( existing == null && (existing = map.putIfAbsent( resourceId, client.lock )) == null )
+        {
+            map.remove( resourceId );
+            return client.lock;
+        }
+        return existing;
+    }
+
+    @Benchmark
+    public Object lookup( Table table, Client client )
+    {
+        return table.map.get( client.random.nextInt( table.resources ) );
+    }
+
+    private interface LockMap
+    {
+        Object get( long resourceId );
+
+        Object putIfAbsent( long resourceId, Object lock );
+
+        Object remove( long resourceId );
+    }
+
+    private static class LockTableMap implements LockMap
+    {
+        private final LockTable<Object> table = new LockTable<>();
+
+        @Override
+        public Object get( long resourceId )
+        {
+            return table.get( resourceId );
+        }
+
+        @Override
+        public Object putIfAbsent( long resourceId, Object lock )
+        {
+            return table.putIfAbsent( resourceId, lock );
+        }
+
+        @Override
+        public Object remove( long resourceId )
+        {
+            return table.remove( resourceId );
+        }
+    }
+
+    private static class ConcurrentHashMapMap implements LockMap
+    {
+        // Configured the way ForsetiLockManager used to configure its lock maps
+        private final ConcurrentMap<Long,Object> map = new ConcurrentHashMap<>( 16, 0.6f, 512 );
+
+        @Override
+        public Object get( long resourceId )
+        {
+            return map.get( resourceId );
+        }
+
+        @Override
+        public Object putIfAbsent( long resourceId, Object lock )
+        {
+            return map.putIfAbsent( resourceId, lock );
+        }
+
+        @Override
+        public Object remove( long resourceId )
+        {
+            return map.remove( resourceId );
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.pagecache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * Pin/unpin and page fault throughput of {@link MuninnPageCache}.
+ *
+ * With {@code filePages} no larger than {@code cachePages} every page stays resident and the random access
+ * benchmarks measure the cost of pinning and unpinning alone. With a file larger than the cache, most accesses
+ * fault, and the same benchmarks measure eviction and fault throughput. Use {@code -t} to add contention.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"} )
+public class PageCacheBenchmark
+{
+    private static final int PAGE_SIZE = 8192;
+
+    @Param( {"4096"} )
+    public int cachePages;
+
+    @Param( {"2048", "65536"} )
+    public int filePages;
+
+    @Param( {"42"} )
+    public long seed;
+
+    private File directory;
+    private FileSystemAbstraction fs;
+    private PageCache pageCache;
+    private PagedFile pagedFile;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        directory = Files.createTempDirectory( "page-cache-benchmark" ).toFile();
+        fs = new DefaultFileSystemAbstraction();
+        SingleFilePageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.open( fs, Configuration.EMPTY );
+        pageCache = new MuninnPageCache( swapperFactory, cachePages, PAGE_SIZE, PageCacheTracer.NULL,
+                PageCursorTracerSupplier.NULL );
+        pagedFile = pageCache.map( new File( directory, "data" ), PAGE_SIZE, CREATE );
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+        {
+            for ( long pageId = 0; pageId < filePages; pageId++ )
+            {
+                cursor.next( pageId );
+                cursor.putLong( pageId );
+            }
+        }
+        pagedFile.flushAndForce();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        pagedFile.close();
+        pageCache.close();
+        fs.close();
+        FileUtils.deleteRecursively( directory );
+    }
+
+    @State( Scope.Thread )
+    public static class Accessor
+    {
+        private SplittableRandom random;
+
+        @Setup
+        public void setUp( PageCacheBenchmark benchmark, ThreadParams threadParams )
+        {
+            random = new SplittableRandom( benchmark.seed + threadParams.getThreadIndex() );
+        }
+
+        long nextPageId( int filePages )
+        {
+            return random.nextInt( filePages );
+        }
+    }
+
+    @Benchmark
+    public long pinUnpinSamePage() throws IOException
+    {
+        return readPage( 0 );
+    }
+
+    @Benchmark
+    public long readRandomPage( Accessor accessor ) throws IOException
+    {
+        return readPage( accessor.nextPageId( filePages ) );
+    }
+
+    @Benchmark
+    public void writeRandomPage( Accessor accessor ) throws IOException
+    {
+        long pageId = accessor.nextPageId( filePages );
+        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK ) )
+        {
+            if ( cursor.next() )
+            {
+                cursor.putLong( pageId );
+            }
+        }
+    }
+
+    private long readPage( long pageId ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK ) )
+        {
+            long value = 0;
+            if ( cursor.next() )
+            {
+                do
+                {
+                    value = cursor.getLong( 0 );
+                }
+                while ( cursor.shouldRetry() );
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.store;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.muninn.StandalonePageCacheFactory;
+import org.neo4j.kernel.impl.store.format.RecordFormat;
+import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.highlimit.HighLimit;
+import org.neo4j.kernel.impl.store.format.standard.Standard;
+import org.neo4j.kernel.impl.store.id.IdSequence;
+import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.kernel.impl.store.NoStoreHeader.NO_STORE_HEADER;
+
+/**
+ * Read and write throughput of the node and relationship {@link RecordFormat}s of the standard and high limit
+ * formats. Every operation reads or writes a full page of records, and the reported scores are pages per time unit.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"} )
+public class RecordFormatBenchmark
+{
+    private static final IdSequence NO_SECONDARY_UNITS = () ->
+    {
+        throw new IllegalStateException( "Benchmark records are expected to fit in a single record unit" );
+    };
+
+    @Param( {Standard.LATEST_NAME, HighLimit.NAME} )
+    public String format;
+
+    @Param( {"42"} )
+    public long seed;
+
+    private File directory;
+    private FileSystemAbstraction fs;
+    private PageCache pageCache;
+    private PagedFile nodePage;
+    private PagedFile relationshipPage;
+    private RecordFormat<NodeRecord> nodeFormat;
+    private RecordFormat<RelationshipRecord> relationshipFormat;
+    private NodeRecord[] nodes;
+    private RelationshipRecord[] relationships;
+    private int nodeRecordSize;
+    private int relationshipRecordSize;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        RecordFormats formats = Standard.LATEST_NAME.equals( format ) ? Standard.LATEST_RECORD_FORMATS
+                                                                      : HighLimit.RECORD_FORMATS;
+        nodeFormat = formats.node();
+        relationshipFormat = formats.relationship();
+        nodeRecordSize = nodeFormat.getRecordSize( NO_STORE_HEADER );
+        relationshipRecordSize = relationshipFormat.getRecordSize( NO_STORE_HEADER );
+
+        directory = Files.createTempDirectory( "record-format-benchmark" ).toFile();
+        fs = new DefaultFileSystemAbstraction();
+        pageCache = StandalonePageCacheFactory.createPageCache( fs );
+        nodePage = map( "nodes", nodeRecordSize );
+        relationshipPage = map( "relationships", relationshipRecordSize );
+
+        SplittableRandom random = new SplittableRandom( seed );
+        nodes = new NodeRecord[nodePage.pageSize() / nodeRecordSize];
+        for ( int i = 0; i < nodes.length; i++ )
+        {
+            nodes[i] = new NodeRecord( i ).initialize( true, randomReference( random ), random.nextBoolean(),
+                    randomReference( random ), random.nextInt( Integer.MAX_VALUE ) );
+            nodeFormat.prepare( nodes[i], nodeRecordSize, NO_SECONDARY_UNITS );
+        }
+        relationships = new RelationshipRecord[relationshipPage.pageSize() / relationshipRecordSize];
+        for ( int i = 0; i < relationships.length; i++ )
+        {
+            relationships[i] = new RelationshipRecord( i ).initialize( true, randomReference( random ),
+                    randomReference( random ), randomReference( random ), random.nextInt( 1 << 16 ),
+                    randomReference( random ), randomReference( random ), randomReference( random ),
+                    randomReference( random ), random.nextBoolean(), random.nextBoolean() );
+            relationshipFormat.prepare( relationships[i], relationshipRecordSize, NO_SECONDARY_UNITS );
+        }
+        writeNodes();
+        writeRelationships();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        nodePage.close();
+        relationshipPage.close();
+        pageCache.close();
+        fs.close();
+        FileUtils.deleteRecursively( directory );
+    }
+
+    @Benchmark
+    public void writeNodes() throws IOException
+    {
+        write( nodePage, nodeFormat, nodes, nodeRecordSize );
+    }
+
+    @Benchmark
+    public long readNodes() throws IOException
+    {
+        return read( nodePage, nodeFormat, nodeFormat.newRecord(), nodes.length, nodeRecordSize );
+    }
+
+    @Benchmark
+    public void writeRelationships() throws IOException
+    {
+        write( relationshipPage, relationshipFormat, relationships, relationshipRecordSize );
+    }
+
+    @Benchmark
+    public long readRelationships() throws IOException
+    {
+        return read( relationshipPage, relationshipFormat, relationshipFormat.newRecord(), relationships.length,
+                relationshipRecordSize );
+    }
+
+    private PagedFile map( String name, int recordSize ) throws IOException
+    {
+        int pageSize = pageCache.pageSize() - pageCache.pageSize() % recordSize;
+        return pageCache.map( new File( directory, name ), pageSize, CREATE );
+    }
+
+    private static <RECORD extends AbstractBaseRecord> void write( PagedFile pagedFile, RecordFormat<RECORD> format,
+            RECORD[] records, int recordSize ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+        {
+            cursor.next();
+            for ( int i = 0; i < records.length; i++ )
+            {
+                cursor.setOffset( i * recordSize );
+                format.write( records[i], cursor, recordSize );
+            }
+        }
+    }
+
+    private static <RECORD extends AbstractBaseRecord> long read( PagedFile pagedFile, RecordFormat<RECORD> format,
+            RECORD record, int recordCount, int recordSize ) throws IOException
+    {
+        long sum = 0;
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+        {
+            cursor.next();
+            for ( int i = 0; i < recordCount; i++ )
+            {
+                record.setId( i );
+                do
+                {
+                    cursor.setOffset( i * recordSize );
+                    format.read( record, cursor, RecordLoad.NORMAL, recordSize );
+                }
+                while ( cursor.shouldRetry() );
+                sum += format.getNextRecordReference( record );
+            }
+        }
+        return sum;
+    }
+
+    private static long randomReference( SplittableRandom random )
+    {
+        // Keep references well within what fits in a single record unit in both formats
+        return random.nextInt( 1 << 30 );
+    }
+}
@@ -50,6 +50,7 @@ import org.neo4j.bolt.v1.runtime.BoltFactoryImpl;
 import org.neo4j.bolt.v1.runtime.BoltWorker;
 import org.neo4j.bolt.v1.runtime.MonitoredWorkerFactory;
 import org.neo4j.bolt.v1.runtime.WorkerFactory;
+import org.neo4j.bolt.v1.runtime.concurrent.PooledWorkerFactory;
 import org.neo4j.bolt.v1.runtime.concurrent.ThreadedWorkerFactory;
 import org.neo4j.bolt.v1.transport.BoltProtocolV1;
 import org.neo4j.configuration.Description;
@@ -80,9 +81,13 @@ import org.neo4j.udc.UsageData;
 
 import static java.lang.String.format;
 import static java.util.stream.Collectors.toList;
+import static org.neo4j.kernel.configuration.Settings.BOOLEAN;
+import static org.neo4j.kernel.configuration.Settings.FALSE;
+import static org.neo4j.kernel.configuration.Settings.INTEGER;
 import static org.neo4j.kernel.configuration.Settings.PATH;
 import static org.neo4j.kernel.configuration.Settings.derivedSetting;
 import static org.neo4j.kernel.configuration.Settings.pathSetting;
+import static org.neo4j.kernel.configuration.Settings.setting;
 import static org.neo4j.kernel.impl.util.JobScheduler.Groups.boltNetworkIO;
 
 /**
@@ -108,6 +113,19 @@ public class BoltKernelExtension extends KernelExtensionFactory<BoltKernelExtens
         public static final Setting<File> tls_key_file =
                 derivedSetting( "unsupported.dbms.security.tls_key_file", certificates_directory,
                         ( certificates ) -> new File( certificates, "neo4j.key" ), PATH );
+
+        @Internal
+        @Description( "Whether Bolt sessions should share a bounded pool of worker threads, rather than each " +
+                      "session being given a dedicated thread. A pooled session only holds a thread while it has " +
+                      "requests to process or an explicit transaction open." )
+        public static final Setting<Boolean> worker_pool_enabled =
+                setting( "unsupported.dbms.bolt.worker_pool.enabled", BOOLEAN, FALSE );
+
+        @Internal
+        @Description( "Maximum number of threads in the shared Bolt worker pool. This must comfortably exceed the " +
+                      "number of explicit transactions expected to be open at the same time." )
+        public static final Setting<Integer> worker_pool_size =
+                setting( "unsupported.dbms.bolt.worker_pool.size", INTEGER, "400" );
     }
 
     public interface Dependencies
@@ -160,7 +178,8 @@ public class BoltKernelExtension extends KernelExtensionFactory<BoltKernelExtens
 
         BoltFactory boltFactory = life.add( new BoltFactoryImpl( api, dependencies.usageData(),
                 logService, dependencies.txBridge(), authentication, dependencies.sessionTracker(), config ) );
-        WorkerFactory workerFactory = createWorkerFactory( boltFactory, scheduler, dependencies, logService, clock );
+        WorkerFactory workerFactory =
+                createWorkerFactory( boltFactory, scheduler, dependencies, logService, clock, life );
 
         List<ProtocolInitializer> connectors = config.enabledBoltConnectors().stream()
                 .map( ( connConfig ) ->
@@ -218,10 +237,14 @@ public class BoltKernelExtension extends KernelExtensionFactory<BoltKernelExtens
     }
 
     protected WorkerFactory createWorkerFactory( BoltFactory boltFactory, JobScheduler scheduler,
-            Dependencies dependencies, LogService logService, Clock clock )
+            Dependencies dependencies, LogService logService, Clock clock, LifeSupport life )
     {
-        WorkerFactory threadedWorkerFactory = new ThreadedWorkerFactory( boltFactory, scheduler, logService, clock );
-        return new MonitoredWorkerFactory( dependencies.monitors(), threadedWorkerFactory, clock );
+        Config config = dependencies.config();
+        WorkerFactory workerFactory = config.get( Settings.worker_pool_enabled )
+                ? life.add( new PooledWorkerFactory( boltFactory, scheduler, logService, clock,
+                        dependencies.monitors(), config.get( Settings.worker_pool_size ) ) )
+                : new ThreadedWorkerFactory( boltFactory, scheduler, logService, clock );
+        return new MonitoredWorkerFactory( dependencies.monitors(), workerFactory, clock );
     }
 
     private SslContext createSslContext( Config config, Log log, AdvertisedSocketAddress address )
@@ -279,6 +279,15 @@ public class BoltStateMachine implements AutoCloseable, ManagedBoltStateMachine
         return ctx.closed;
     }
 
+    /**
+     * @return {@code true} if an explicit transaction is currently open in this session. Should only be called
+     * from the thread processing messages for this session.
+     */
+    public boolean hasTransaction()
+    {
+        return ctx.statementProcessor.hasTransaction();
+    }
+
     @Override
     public void close()
     {
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v1.runtime.concurrent;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.neo4j.bolt.v1.runtime.BoltConnectionAuthFatality;
+import org.neo4j.bolt.v1.runtime.BoltConnectionFatality;
+import org.neo4j.bolt.v1.runtime.BoltProtocolBreachFatality;
+import org.neo4j.bolt.v1.runtime.BoltStateMachine;
+import org.neo4j.bolt.v1.runtime.BoltWorker;
+import org.neo4j.bolt.v1.runtime.Job;
+import org.neo4j.kernel.impl.logging.LogService;
+import org.neo4j.logging.Log;
+
+/**
+ * Executes incoming Bolt requests for a given connection on a shared {@link Executor}. The worker hands itself
+ * to the executor when requests arrive, and gives the thread back once its queue is drained, unless an explicit
+ * transaction is open, in which case it keeps the thread and waits for the next request.
+ */
+class PooledBoltWorker implements Runnable, BoltWorker
+{
+    private static final int workQueueSize = Integer.getInteger( "org.neo4j.bolt.workQueueSize", 100 );
+
+    private final BlockingQueue<Job> jobQueue = new ArrayBlockingQueue<>( workQueueSize );
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final BoltStateMachine machine;
+    private final Executor executor;
+    private final Clock clock;
+    private final PooledWorkerFactory.Monitor monitor;
+    private final Log log;
+    private final Log userLog;
+
+    private volatile boolean keepRunning = true;
+    private volatile boolean stopped;
+    private volatile long scheduledAt;
+
+    PooledBoltWorker( BoltStateMachine machine, Executor executor, LogService logging, Clock clock,
+            PooledWorkerFactory.Monitor monitor )
+    {
+        this.machine = machine;
+        this.executor = executor;
+        this.clock = clock;
+        this.monitor = monitor;
+        this.log = logging.getInternalLog( getClass() );
+        this.userLog = logging.getUserLog( getClass() );
+    }
+
+    /**
+     * Accept a command to be executed at some point in the future. This will get queued, and this worker handed
+     * to the executor unless it is already scheduled or running.
+     *
+     * @param job an operation to be performed on the session
+     */
+    @Override
+    public void enqueue( Job job )
+    {
+        try
+        {
+            jobQueue.put( job );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( "Worker interrupted while queueing request, the session may have been " +
+                                        "forcibly closed, or the database may be shutting down." );
+        }
+        schedule();
+    }
+
+    @Override
+    public void run()
+    {
+        monitor.workerStarted( clock.millis() - scheduledAt );
+        boolean yielded = false;
+        try
+        {
+            yielded = executeJobs();
+        }
+        catch ( BoltConnectionAuthFatality e )
+        {
+            // this is logged in the SecurityLog
+        }
+        catch ( BoltProtocolBreachFatality e )
+        {
+            log.error( "Bolt protocol breach in session '" + machine.key() + "'", e );
+        }
+        catch ( Throwable t )
+        {
+            userLog.error( "Worker for session '" + machine.key() + "' crashed.", t );
+        }
+        finally
+        {
+            if ( !yielded )
+            {
+                stopped = true;
+                closeStateMachine();
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the thread was given back to the executor with the session still alive, or
+     * {@code false} if this worker has been halted and the state machine should be closed.
+     */
+    private boolean executeJobs() throws BoltConnectionFatality, InterruptedException
+    {
+        List<Job> batch = new ArrayList<>( workQueueSize );
+        while ( keepRunning )
+        {
+            boolean inTransaction = machine.hasTransaction();
+            Job job = inTransaction ? jobQueue.poll( 10, TimeUnit.SECONDS ) : jobQueue.poll();
+            if ( job != null )
+            {
+                execute( job );
+
+                for ( int jobCount = jobQueue.drainTo( batch ); keepRunning && jobCount > 0;
+                      jobCount = jobQueue.drainTo( batch ) )
+                {
+                    executeBatch( batch );
+                }
+            }
+            else if ( !inTransaction )
+            {
+                scheduled.set( false );
+                // A job queued, or a halt issued, after the poll above but before the flag was cleared will not have
+                // scheduled this worker again, so we must carry on ourselves unless someone else got there first.
+                if ( (keepRunning && jobQueue.isEmpty()) || !scheduled.compareAndSet( false, true ) )
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void executeBatch( List<Job> batch ) throws BoltConnectionFatality
+    {
+        for ( int i = 0; keepRunning && i < batch.size(); i++ )
+        {
+            execute( batch.get( i ) );
+        }
+        batch.clear();
+    }
+
+    private void execute( Job job ) throws BoltConnectionFatality
+    {
+        job.perform( machine );
+    }
+
+    private void schedule()
+    {
+        if ( !stopped && scheduled.compareAndSet( false, true ) )
+        {
+            scheduledAt = clock.millis();
+            monitor.workerScheduled();
+            try
+            {
+                executor.execute( this );
+            }
+            catch ( RejectedExecutionException e )
+            {
+                // The pool is stopping, so no thread will pick this session up. Nobody else owns the state machine
+                // now, so close it here to release its transaction and locks.
+                stopped = true;
+                closeStateMachine();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void interrupt()
+    {
+        machine.interrupt();
+    }
+
+    @Override
+    public void halt()
+    {
+        try
+        {
+            // Notify the state machine that it should terminate.
+            // We can't close it here because this method can be called from a different thread.
+            // State machine will be closed by the pool thread that observes the halt.
+            machine.terminate();
+        }
+        finally
+        {
+            keepRunning = false;
+            schedule();
+        }
+    }
+
+    private void closeStateMachine()
+    {
+        try
+        {
+            // Attempt to close the state machine, as an effort to release locks and other resources
+            machine.close();
+        }
+        catch ( Throwable t )
+        {
+            log.error( "Unable to close Bolt session '" + machine.key() + "'", t );
+        }
+    }
+}
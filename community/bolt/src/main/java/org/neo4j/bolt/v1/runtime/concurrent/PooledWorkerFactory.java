@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v1.runtime.concurrent;
+
+import java.time.Clock;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.neo4j.bolt.v1.runtime.BoltConnectionDescriptor;
+import org.neo4j.bolt.v1.runtime.BoltFactory;
+import org.neo4j.bolt.v1.runtime.BoltStateMachine;
+import org.neo4j.bolt.v1.runtime.BoltWorker;
+import org.neo4j.bolt.v1.runtime.WorkerFactory;
+import org.neo4j.kernel.impl.logging.LogService;
+import org.neo4j.kernel.impl.util.CappedLogger;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.kernel.monitoring.Monitors;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.neo4j.kernel.impl.util.JobScheduler.Groups.sessionWorker;
+
+/**
+ * A {@link WorkerFactory} implementation that multiplexes sessions onto a bounded pool of threads, as opposed to
+ * {@link ThreadedWorkerFactory} which dedicates one thread to every session.
+ *
+ * A session only occupies a pool thread while it has requests queued, or while it has an explicit transaction
+ * open. Idle sessions, which is what most pooled driver connections are most of the time, cost no thread at all.
+ * The flip side is that sessions holding open transactions keep their threads, so the pool must be sized larger
+ * than the number of concurrently open explicit transactions, otherwise a session that needs to commit in order to
+ * release locks may be left waiting for a thread that is held by a session waiting for those very locks. Such a
+ * session cannot give its thread back, since its transaction is bound to it, so when a session has to wait because
+ * all threads are busy a warning is logged, at most once a minute, pointing at the pool size.
+ *
+ * The pool is started and stopped with the Bolt extension. Stopping it interrupts the sessions running on it.
+ */
+public class PooledWorkerFactory extends LifecycleAdapter implements WorkerFactory
+{
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static final long STOP_TIMEOUT_SECONDS = 30;
+
+    private final BoltFactory connector;
+    private final JobScheduler scheduler;
+    private final LogService logging;
+    private final Clock clock;
+    private final Monitor monitor;
+    private final int maxThreads;
+    private final CappedLogger saturationLog;
+
+    private volatile ThreadPoolExecutor pool;
+
+    public PooledWorkerFactory( BoltFactory connector, JobScheduler scheduler, LogService logging, Clock clock,
+            Monitors monitors, int maxThreads )
+    {
+        this.connector = connector;
+        this.scheduler = scheduler;
+        this.logging = logging;
+        this.clock = clock;
+        this.monitor = monitors.newMonitor( Monitor.class );
+        this.maxThreads = maxThreads;
+        this.saturationLog = new CappedLogger( logging.getUserLog( getClass() ) ).setTimeLimit( 1, MINUTES, clock );
+    }
+
+    @Override
+    public void start()
+    {
+        pool = new ThreadPoolExecutor( maxThreads, maxThreads, KEEP_ALIVE_SECONDS, SECONDS,
+                new LinkedBlockingQueue<>(), scheduler.threadFactory( sessionWorker ) );
+        pool.allowCoreThreadTimeOut( true );
+    }
+
+    @Override
+    public void stop() throws InterruptedException
+    {
+        ThreadPoolExecutor stopping = pool;
+        stopping.shutdownNow();
+        if ( !stopping.awaitTermination( STOP_TIMEOUT_SECONDS, SECONDS ) )
+        {
+            logging.getInternalLog( getClass() ).warn( "Bolt worker pool did not stop within %d seconds",
+                    STOP_TIMEOUT_SECONDS );
+        }
+    }
+
+    @Override
+    public BoltWorker newWorker( BoltConnectionDescriptor connectionDescriptor, Runnable onClose )
+    {
+        BoltStateMachine machine = connector.newMachine( connectionDescriptor, onClose, clock );
+        return new PooledBoltWorker( machine, this::execute, logging, clock, monitor );
+    }
+
+    private void execute( Runnable worker )
+    {
+        ThreadPoolExecutor executor = pool;
+        if ( executor.getActiveCount() >= maxThreads )
+        {
+            monitor.poolSaturated();
+            saturationLog.warn( "All " + maxThreads + " Bolt worker threads are busy, so sessions have to wait for " +
+                    "a thread. Sessions with open explicit transactions keep their threads, and if there are as " +
+                    "many of them as there are threads, a session may be unable to commit. Consider increasing " +
+                    "unsupported.dbms.bolt.worker_pool.size." );
+        }
+        executor.execute( worker );
+    }
+
+    /**
+     * For monitoring the shared worker pool, implementing and registering this monitor allows tracking how long
+     * sessions with pending requests wait before a pool thread picks them up.
+     */
+    public interface Monitor
+    {
+        /**
+         * Called when a session with pending requests is handed to the pool, waiting for a thread.
+         */
+        void workerScheduled();
+
+        /**
+         * Called when a pool thread starts processing requests for a session.
+         * @param schedulingLatency time between {@link #workerScheduled()} and this call, in milliseconds
+         */
+        void workerStarted( long schedulingLatency );
+
+        /**
+         * Called when a session with pending requests is handed to the pool while all of its threads are busy.
+         */
+        void poolSaturated();
+    }
+}
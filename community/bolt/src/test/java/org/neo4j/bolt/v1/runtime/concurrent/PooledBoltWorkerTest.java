@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v1.runtime.concurrent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.neo4j.bolt.v1.runtime.BoltProtocolBreachFatality;
+import org.neo4j.bolt.v1.runtime.BoltStateMachine;
+import org.neo4j.kernel.impl.logging.LogService;
+import org.neo4j.kernel.impl.logging.NullLogService;
+import org.neo4j.logging.AssertableLogProvider;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.logging.AssertableLogProvider.inLog;
+
+public class PooledBoltWorkerTest
+{
+    private final CapturingExecutor executor = new CapturingExecutor();
+    private final PooledWorkerFactory.Monitor monitor = mock( PooledWorkerFactory.Monitor.class );
+    private AssertableLogProvider internalLog;
+    private LogService logService;
+    private BoltStateMachine machine;
+
+    @Before
+    public void setup()
+    {
+        internalLog = new AssertableLogProvider();
+        logService = mock( LogService.class );
+        when( logService.getInternalLogProvider() ).thenReturn( internalLog );
+        when( logService.getInternalLog( PooledBoltWorker.class ) )
+                .thenReturn( internalLog.getLog( PooledBoltWorker.class ) );
+        when( logService.getUserLog( PooledBoltWorker.class ) )
+                .thenReturn( internalLog.getLog( PooledBoltWorker.class ) );
+        machine = mock( BoltStateMachine.class );
+        when( machine.key() ).thenReturn( "test-session" );
+    }
+
+    @Test
+    public void shouldOnlyScheduleOnceForManyQueuedJobs() throws Throwable
+    {
+        // Given
+        PooledBoltWorker worker = newWorker( NullLogService.getInstance() );
+
+        // When
+        worker.enqueue( s -> s.run( "RETURN 1", null, null ) );
+        worker.enqueue( s -> s.run( "RETURN 2", null, null ) );
+
+        // Then
+        assertEquals( 1, executor.submitted.size() );
+        verify( monitor ).workerScheduled();
+
+        // When
+        executor.runAll();
+
+        // Then
+        verify( machine ).run( "RETURN 1", null, null );
+        verify( machine ).run( "RETURN 2", null, null );
+        verify( machine, never() ).close();
+    }
+
+    @Test
+    public void shouldGiveBackThreadWhenIdleAndRescheduleOnNewJob() throws Throwable
+    {
+        // Given
+        PooledBoltWorker worker = newWorker( NullLogService.getInstance() );
+        worker.enqueue( s -> s.run( "RETURN 1", null, null ) );
+        executor.runAll();
+
+        // When
+        worker.enqueue( s -> s.run( "RETURN 2", null, null ) );
+
+        // Then
+        assertEquals( 1, executor.submitted.size() );
+        executor.runAll();
+        verify( machine ).run( "RETURN 2", null, null );
+        verify( machine, never() ).close();
+    }
+
+    @Test
+    public void shouldKeepThreadWhileTransactionIsOpen() throws Throwable
+    {
+        // Given
+        PooledBoltWorker worker = newWorker( NullLogService.getInstance() );
+        when( machine.hasTransaction() ).thenReturn( true );
+        List<String> executed = new ArrayList<>();
+        worker.enqueue( s -> executed.add( "BEGIN" ) );
+        worker.enqueue( s ->
+        {
+            executed.add( "COMMIT" );
+            when( machine.hasTransaction() ).thenReturn( false );
+        } );
+
+        // When
+        executor.runAll();
+
+        // Then
+        assertEquals( 2, executed.size() );
+        verify( monitor ).workerStarted( 0L );
+        verify( machine, never() ).close();
+    }
+
+    @Test
+    public void haltShouldScheduleWorkerToCloseStateMachine()
+    {
+        // Given
+        PooledBoltWorker worker = newWorker( logService );
+
+        // When
+        worker.halt();
+
+        // Then
+        verify( machine ).terminate();
+        verify( machine, never() ).close();
+        assertEquals( 1, executor.submitted.size() );
+
+        // When
+        executor.runAll();
+
+        // Then
+        verify( machine ).close();
+    }
+
+    @Test
+    public void stateMachineIsClosedOnExit()
+    {
+        PooledBoltWorker worker = newWorker( logService );
+
+        worker.enqueue( machine1 ->
+        {
+            worker.halt();
+            worker.enqueue( machine2 -> fail( "Should not be executed" ) );
+        } );
+
+        executor.runAll();
+
+        verify( machine ).close();
+    }
+
+    @Test
+    public void shouldNotScheduleAfterCrash()
+    {
+        // Given
+        BoltProtocolBreachFatality error = new BoltProtocolBreachFatality( "protocol breach fatality" );
+        PooledBoltWorker worker = newWorker( logService );
+        worker.enqueue( s ->
+        {
+            throw error;
+        } );
+
+        // When
+        executor.runAll();
+        worker.enqueue( s -> fail( "Should not be executed" ) );
+
+        // Then
+        assertTrue( executor.submitted.isEmpty() );
+        verify( machine ).close();
+        internalLog.assertExactly( inLog( PooledBoltWorker.class )
+                .error( equalTo( "Bolt protocol breach in session 'test-session'" ), equalTo( error ) ) );
+    }
+
+    private PooledBoltWorker newWorker( LogService logging )
+    {
+        Clock clock = mock( Clock.class );
+        return new PooledBoltWorker( machine, executor, logging, clock, monitor );
+    }
+
+    private static class CapturingExecutor implements Executor
+    {
+        final List<Runnable> submitted = new ArrayList<>();
+
+        @Override
+        public void execute( Runnable command )
+        {
+            submitted.add( command );
+        }
+
+        void runAll()
+        {
+            while ( !submitted.isEmpty() )
+            {
+                submitted.remove( 0 ).run();
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.v1.runtime.concurrent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.util.concurrent.CountDownLatch;
+
+import org.neo4j.bolt.v1.runtime.BoltFactory;
+import org.neo4j.bolt.v1.runtime.BoltStateMachine;
+import org.neo4j.bolt.v1.runtime.BoltWorker;
+import org.neo4j.kernel.impl.logging.SimpleLogService;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.logging.AssertableLogProvider;
+import org.neo4j.logging.NullLogProvider;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.impl.util.JobScheduler.Groups.sessionWorker;
+
+public class PooledWorkerFactoryTest
+{
+    private final AssertableLogProvider userLog = new AssertableLogProvider();
+    private final BoltFactory connector = mock( BoltFactory.class );
+    private final JobScheduler scheduler = mock( JobScheduler.class );
+    private final CountDownLatch release = new CountDownLatch( 1 );
+    private PooledWorkerFactory factory;
+
+    @Before
+    public void setup()
+    {
+        when( scheduler.threadFactory( sessionWorker ) ).thenReturn( Thread::new );
+    }
+
+    @After
+    public void stopFactory() throws Exception
+    {
+        release.countDown();
+        if ( factory != null )
+        {
+            factory.stop();
+        }
+    }
+
+    @Test
+    public void shouldRunCommitOfOneSessionWhileAnotherSessionHoldsAThread() throws Exception
+    {
+        // Given
+        startFactory( 2 );
+        CountDownLatch holding = new CountDownLatch( 1 );
+        newWorker( true ).enqueue( s -> awaitQuietly( holding, release ) );
+        assertTrue( holding.await( 10, SECONDS ) );
+
+        // When
+        CountDownLatch committed = new CountDownLatch( 1 );
+        newWorker( false ).enqueue( s -> committed.countDown() );
+
+        // Then
+        assertTrue( committed.await( 10, SECONDS ) );
+        userLog.assertNoLoggingOccurred();
+    }
+
+    @Test
+    public void shouldWarnWhenAllThreadsAreHeldBySessions() throws Exception
+    {
+        // Given
+        startFactory( 1 );
+        CountDownLatch holding = new CountDownLatch( 1 );
+        newWorker( true ).enqueue( s -> awaitQuietly( holding, release ) );
+        assertTrue( holding.await( 10, SECONDS ) );
+
+        // When
+        newWorker( false ).enqueue( s -> {} );
+
+        // Then
+        userLog.assertContainsMessageContaining( "All 1 Bolt worker threads are busy" );
+    }
+
+    @Test
+    public void stopShouldInterruptSessionsAndCloseTheirStateMachines() throws Exception
+    {
+        // Given
+        startFactory( 1 );
+        BoltStateMachine machine = newMachine( true );
+        CountDownLatch begun = new CountDownLatch( 1 );
+        factory.newWorker( null, null ).enqueue( s -> begun.countDown() );
+        assertTrue( begun.await( 10, SECONDS ) );
+
+        // When
+        factory.stop();
+        factory = null;
+
+        // Then
+        verify( machine, timeout( 10_000 ) ).close();
+    }
+
+    private void startFactory( int maxThreads )
+    {
+        factory = new PooledWorkerFactory( connector, scheduler,
+                new SimpleLogService( userLog, NullLogProvider.getInstance() ), Clock.systemUTC(), new Monitors(),
+                maxThreads );
+        factory.start();
+    }
+
+    private BoltWorker newWorker( boolean inTransaction )
+    {
+        newMachine( inTransaction );
+        return factory.newWorker( null, null );
+    }
+
+    private BoltStateMachine newMachine( boolean inTransaction )
+    {
+        BoltStateMachine machine = mock( BoltStateMachine.class );
+        when( machine.key() ).thenReturn( "test-session" );
+        when( machine.hasTransaction() ).thenReturn( inTransaction );
+        when( connector.newMachine( any(), any(), any() ) ).thenReturn( machine );
+        return machine;
+    }
+
+    private static void awaitQuietly( CountDownLatch started, CountDownLatch release )
+    {
+        started.countDown();
+        try
+        {
+            release.await();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -22,7 +22,7 @@ package org.neo4j.cypher.internal.compiler.v3_3
 import org.neo4j.cypher.internal.compiler.v3_3.executionplan.{PipeInfo, _}
 import org.neo4j.cypher.internal.compiler.v3_3.phases._
 import org.neo4j.cypher.internal.compiler.v3_3.pipes.Pipe
-import org.neo4j.cypher.internal.compiler.v3_3.planner.execution.{PipeExecutionBuilderContext, PipeExecutionPlanBuilder}
+import org.neo4j.cypher.internal.compiler.v3_3.planner.execution.{PipeBuilderFactory, PipeExecutionBuilderContext, PipeExecutionPlanBuilder}
 import org.neo4j.cypher.internal.compiler.v3_3.planner.logical.LogicalPlanIdentificationBuilder
 import org.neo4j.cypher.internal.compiler.v3_3.profiler.Profiler
 import org.neo4j.cypher.internal.compiler.v3_3.spi.{GraphStatistics, PlanContext, QueryContext, UpdateCountingQueryContext}
@@ -38,17 +38,22 @@ object BuildInterpretedExecutionPlan extends Phase[CompilerContext, CompilationS
 
   override def postConditions = Set(CompilationContains[ExecutionPlan])
 
-  override def process(from: CompilationState, context: CompilerContext): CompilationState = {
+  override def process(from: CompilationState, context: CompilerContext): CompilationState =
+    from.copy(maybeExecutionPlan = Some(createExecutionPlan(from, context, PipeBuilderFactory(), InterpretedRuntimeName)))
+
+  def createExecutionPlan(from: CompilationState, context: CompilerContext, pipeBuilderFactory: PipeBuilderFactory,
+                          runtimeName: RuntimeName): ExecutionPlan = {
     val logicalPlan = from.logicalPlan
     val idMap = LogicalPlanIdentificationBuilder(logicalPlan)
-    val executionPlanBuilder = new PipeExecutionPlanBuilder(context.clock, context.monitors)
+    val executionPlanBuilder = new PipeExecutionPlanBuilder(context.clock, context.monitors, pipeBuilderFactory)
     val pipeBuildContext = PipeExecutionBuilderContext(context.metrics.cardinality, from.semanticTable, from.plannerName)
     val pipeInfo = executionPlanBuilder.build(from.periodicCommit, logicalPlan, idMap)(pipeBuildContext, context.planContext)
     val PipeInfo(pipe, updating, periodicCommitInfo, fp, planner) = pipeInfo
     val columns = from.statement.returnColumns
-    val resultBuilderFactory = DefaultExecutionResultBuilderFactory(pipeInfo, columns, context.typeConverter, logicalPlan, idMap)
+    val resultBuilderFactory = DefaultExecutionResultBuilderFactory(pipeInfo, columns, context.typeConverter, logicalPlan, idMap,
+                                                                    context.config.queryMemoryBudget)
     val func = getExecutionPlanFunction(periodicCommitInfo, from.queryText, updating, resultBuilderFactory, context.notificationLogger)
-    val execPlan = new ExecutionPlan {
+    new ExecutionPlan {
       private val fingerprint = context.createFingerprintReference(fp)
 
       override def run(queryContext: QueryContext, planType: ExecutionMode, params: Map[String, Any]) =
@@ -60,14 +65,12 @@ object BuildInterpretedExecutionPlan extends Phase[CompilerContext, CompilationS
 
       override def isStale(lastTxId: () => Long, statistics: GraphStatistics) = fingerprint.isStale(lastTxId, statistics)
 
-      override def runtimeUsed = InterpretedRuntimeName
+      override def runtimeUsed = runtimeName
 
       override def notifications(planContext: PlanContext) = checkForNotifications(pipe, planContext, context.config)
 
       override def plannedIndexUsage = logicalPlan.indexUsage
     }
-
-    from.copy(maybeExecutionPlan = Some(execPlan))
   }
 
   private def checkForNotifications(pipe: Pipe, planContext: PlanContext, config: CypherCompilerConfiguration): Seq[InternalNotification] = {
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3
+
+import org.neo4j.cypher.internal.compiler.v3_3.parallel.{MorselExecution, ParallelSegment}
+import org.neo4j.cypher.internal.compiler.v3_3.phases._
+import org.neo4j.cypher.internal.compiler.v3_3.planner.execution.ParallelPipeBuilderFactory
+import org.neo4j.cypher.internal.frontend.v3_3.phases.CompilationPhaseTracer.CompilationPhase.PIPE_BUILDING
+import org.neo4j.cypher.internal.frontend.v3_3.phases.Phase
+
+/*
+Builds an execution plan where the scan and the streaming operators above it run on several worker threads, up to the
+configured maximum per query, on the threads of the worker pool shared by all queries. If the plan has no part that can run in parallel, no execution plan is produced and it
+is up to the runtime builder to fall back.
+ */
+object BuildParallelExecutionPlan extends Phase[CompilerContext, CompilationState, CompilationState] {
+  override def phase = PIPE_BUILDING
+
+  override def description = "create parallel execution plan"
+
+  override def postConditions = Set.empty
+
+  override def process(from: CompilationState, context: CompilerContext): CompilationState =
+    ParallelSegment.find(from.logicalPlan) match {
+      case Some(segment) if from.periodicCommit.isEmpty =>
+        val pipeBuilderFactory = new ParallelPipeBuilderFactory(segment, context.config.parallelWorkerPool,
+                                                                context.config.parallelRuntimeMaxWorkers,
+                                                                MorselExecution.DEFAULT_MORSEL_SIZE)
+        val executionPlan = BuildInterpretedExecutionPlan.createExecutionPlan(from, context, pipeBuilderFactory,
+                                                                             ParallelRuntimeName)
+        from.copy(maybeExecutionPlan = Some(executionPlan))
+
+      case _ =>
+        from
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3
+
+import org.neo4j.cypher.internal.compiler.v3_3.phases._
+import org.neo4j.cypher.internal.compiler.v3_3.planner.execution.SlottedPipeBuilderFactory
+import org.neo4j.cypher.internal.compiler.v3_3.slotted.SlotAllocation
+import org.neo4j.cypher.internal.frontend.v3_3.phases.CompilationPhaseTracer.CompilationPhase.PIPE_BUILDING
+import org.neo4j.cypher.internal.frontend.v3_3.phases.Phase
+
+/*
+Builds an execution plan where rows are kept in slots instead of maps. If the logical plan contains operators that are
+not supported by the slotted pipes, no execution plan is produced and it is up to the runtime builder to fall back.
+ */
+object BuildSlottedExecutionPlan extends Phase[CompilerContext, CompilationState, CompilationState] {
+  override def phase = PIPE_BUILDING
+
+  override def description = "create slotted execution plan"
+
+  override def postConditions = Set.empty
+
+  override def process(from: CompilationState, context: CompilerContext): CompilationState =
+    SlotAllocation.allocate(from.logicalPlan) match {
+      case Some(pipeline) =>
+        val executionPlan = BuildInterpretedExecutionPlan.createExecutionPlan(from, context,
+          new SlottedPipeBuilderFactory(pipeline), SlottedRuntimeName)
+        from.copy(maybeExecutionPlan = Some(executionPlan))
+
+      case None =>
+        from
+    }
+}
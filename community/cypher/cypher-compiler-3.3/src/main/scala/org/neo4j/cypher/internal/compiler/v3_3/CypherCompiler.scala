@@ -24,6 +24,7 @@ import java.time.Clock
 import org.neo4j.cypher.internal.compiler.v3_3.executionplan._
 import org.neo4j.cypher.internal.compiler.v3_3.executionplan.procs.ProcedureCallOrSchemaCommandPlanBuilder
 import org.neo4j.cypher.internal.compiler.v3_3.helpers.RuntimeTypeConverter
+import org.neo4j.cypher.internal.compiler.v3_3.parallel.WorkerPool
 import org.neo4j.cypher.internal.compiler.v3_3.phases.{CompilerContext, _}
 import org.neo4j.cypher.internal.compiler.v3_3.planner.logical._
 import org.neo4j.cypher.internal.compiler.v3_3.planner.logical.plans.LogicalPlan
@@ -154,7 +155,10 @@ case class CypherCompilerConfiguration(queryCacheSize: Int,
                                        errorIfShortestPathFallbackUsedAtRuntime: Boolean,
                                        errorIfShortestPathHasCommonNodesAtRuntime: Boolean,
                                        legacyCsvQuoteEscaping: Boolean,
-                                       nonIndexedLabelWarningThreshold: Long)
+                                       nonIndexedLabelWarningThreshold: Long,
+                                       queryMemoryBudget: Long,
+                                       parallelRuntimeMaxWorkers: Int,
+                                       parallelWorkerPool: WorkerPool)
 
 
 trait CypherCacheFlushingMonitor[T] {
@@ -39,7 +39,7 @@ case class ExecutionContext(m: MutableMap[String, Any] = MutableMaps.empty)
 
   override def size = m.size
 
-  def ++(other: ExecutionContext): ExecutionContext = copy(m = m ++ other.m)
+  def ++(other: ExecutionContext): ExecutionContext = copy(m = m ++ other)
 
   override def foreach[U](f: ((String, Any)) => U) {
     m.foreach(f)
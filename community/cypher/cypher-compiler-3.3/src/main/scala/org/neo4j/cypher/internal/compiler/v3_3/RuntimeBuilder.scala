@@ -22,7 +22,7 @@ package org.neo4j.cypher.internal.compiler.v3_3
 import org.neo4j.cypher.internal.compiler.v3_3.phases._
 import org.neo4j.cypher.internal.frontend.v3_3.InvalidArgumentException
 import org.neo4j.cypher.internal.frontend.v3_3.notification.RuntimeUnsupportedNotification
-import org.neo4j.cypher.internal.frontend.v3_3.phases.{Do, Transformer}
+import org.neo4j.cypher.internal.frontend.v3_3.phases.{Do, If, Transformer}
 
 trait RuntimeBuilder[T <: Transformer[_, _, _]] {
   def create(runtimeName: Option[RuntimeName], useErrorsOverWarnings: Boolean): T
@@ -34,6 +34,12 @@ object CommunityRuntimeBuilder extends RuntimeBuilder[Transformer[CompilerContex
     case None | Some(InterpretedRuntimeName) =>
       BuildInterpretedExecutionPlan
 
+    case Some(SlottedRuntimeName) =>
+      withInterpretedFallback(BuildSlottedExecutionPlan, useErrorsOverWarnings)
+
+    case Some(ParallelRuntimeName) =>
+      withInterpretedFallback(BuildParallelExecutionPlan, useErrorsOverWarnings)
+
     case Some(x) if useErrorsOverWarnings =>
       throw new InvalidArgumentException(s"This version of Neo4j does not support requested runtime: $x")
 
@@ -41,4 +47,18 @@ object CommunityRuntimeBuilder extends RuntimeBuilder[Transformer[CompilerContex
       Do((_: CompilerContext).notificationLogger.log(RuntimeUnsupportedNotification)) andThen
         BuildInterpretedExecutionPlan
   }
+
+  private def withInterpretedFallback(buildPlan: Transformer[CompilerContext, CompilationState, CompilationState],
+                                      useErrorsOverWarnings: Boolean) =
+    if (useErrorsOverWarnings)
+      buildPlan andThen
+      If[CompilerContext, CompilationState, CompilationState](_.maybeExecutionPlan.isEmpty)(
+        Do(_ => throw new InvalidArgumentException("The given query is not currently supported in the selected runtime"))
+      )
+    else
+      buildPlan andThen
+      If[CompilerContext, CompilationState, CompilationState](_.maybeExecutionPlan.isEmpty)(
+        Do((_: CompilerContext).notificationLogger.log(RuntimeUnsupportedNotification)) andThen
+        BuildInterpretedExecutionPlan
+      )
 }
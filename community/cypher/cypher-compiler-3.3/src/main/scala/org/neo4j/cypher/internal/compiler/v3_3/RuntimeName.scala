@@ -32,6 +32,14 @@ case object CompiledRuntimeName extends RuntimeName {
   override val name = "COMPILED"
 }
 
+case object SlottedRuntimeName extends RuntimeName {
+  override val name = "SLOTTED"
+}
+
+case object ParallelRuntimeName extends RuntimeName {
+  override val name = "PARALLEL"
+}
+
 case object ProcedureRuntimeName extends RuntimeName {
   override val name = "PROCEDURE"
 }
@@ -41,8 +49,11 @@ object RuntimeName {
   def apply(name: String): RuntimeName = name.toUpperCase match {
     case InterpretedRuntimeName.name => InterpretedRuntimeName
     case CompiledRuntimeName.name => CompiledRuntimeName
+    case SlottedRuntimeName.name => SlottedRuntimeName
+    case ParallelRuntimeName.name => ParallelRuntimeName
 
     case n => throw new IllegalArgumentException(
-      s"$n is not a valid runtime, valid options are ${InterpretedRuntimeName.name} and ${CompiledRuntimeName.name}")
+      s"$n is not a valid runtime, valid options are ${InterpretedRuntimeName.name}, ${CompiledRuntimeName.name}, " +
+        s"${SlottedRuntimeName.name} and ${ParallelRuntimeName.name}")
   }
 }
@@ -26,17 +26,16 @@ import org.neo4j.cypher.internal.compiler.v3_3.mutation.{GraphElementPropertyFun
 import org.neo4j.cypher.internal.compiler.v3_3.pipes.QueryState
 import org.neo4j.cypher.internal.frontend.v3_3.helpers.SeqCombiner.combine
 import org.neo4j.cypher.internal.frontend.v3_3.{CypherTypeException, InternalException}
-import org.neo4j.graphdb.Node
 
 import scala.collection.GenTraversableOnce
 
 object indexQuery extends GraphElementPropertyFunctions {
-  def apply(queryExpression: QueryExpression[Expression],
-            m: ExecutionContext,
-            state: QueryState,
-            index: Seq[Any] => GenTraversableOnce[Node],
-            labelName: String,
-            propertyNames: Seq[String]): Iterator[Node] = queryExpression match {
+  def apply[T](queryExpression: QueryExpression[Expression],
+               m: ExecutionContext,
+               state: QueryState,
+               index: Seq[Any] => GenTraversableOnce[T],
+               labelName: String,
+               propertyNames: Seq[String]): Iterator[T] = queryExpression match {
 
     // Index exact value seek on single value
     case SingleQueryExpression(inner) =>
@@ -64,7 +63,7 @@ object indexQuery extends GraphElementPropertyFunctions {
       if (results.size == 1)
         results.head
       else
-        new IteratorOfIterarors[Node](results)
+        new IteratorOfIterarors[T](results)
 
     // Index range seek over range of values
     case RangeQueryExpression(rangeWrapper) =>
@@ -78,7 +77,7 @@ object indexQuery extends GraphElementPropertyFunctions {
       index(Seq(range)).toIterator
   }
 
-  private def lookupNodes(values: Seq[Any], index: Seq[Any] => GenTraversableOnce[Node]): Iterator[Node] = {
+  private def lookupNodes[T](values: Seq[Any], index: Seq[Any] => GenTraversableOnce[T]): Iterator[T] = {
     // If any of the values we are searching for is null, the whole expression that this index seek represents
     // collapses into a null value, which will not match any nodes.
     if (values.contains(null))
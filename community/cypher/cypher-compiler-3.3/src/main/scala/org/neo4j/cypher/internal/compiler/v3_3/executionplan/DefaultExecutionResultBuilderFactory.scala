@@ -35,7 +35,8 @@ case class DefaultExecutionResultBuilderFactory(pipeInfo: PipeInfo,
                                                 columns: List[String],
                                                 typeConverter: RuntimeTypeConverter,
                                                 logicalPlan: LogicalPlan,
-                                                idMap: Map[LogicalPlan, Id]) extends ExecutionResultBuilderFactory {
+                                                idMap: Map[LogicalPlan, Id],
+                                                queryMemoryBudget: Long) extends ExecutionResultBuilderFactory {
   def create(): ExecutionResultBuilder =
     ExecutionWorkflowBuilder()
 
@@ -67,9 +68,11 @@ case class DefaultExecutionResultBuilderFactory(pipeInfo: PipeInfo,
     def build(queryId: AnyRef, planType: ExecutionMode, params: Map[String, Any], notificationLogger: InternalNotificationLogger): InternalExecutionResult = {
       taskCloser.addTask(queryContext.transactionalContext.close)
       taskCloser.addTask(queryContext.resources.close)
+      val memoryTracker = new QueryMemoryTracker(queryMemoryBudget)
+      taskCloser.addTask(_ => memoryTracker.close())
       val state = new QueryState(queryContext, externalResource, params, pipeDecorator, queryId = queryId,
                                  triadicState = mutable.Map.empty, repeatableReads = mutable.Map.empty,
-                                 typeConverter = typeConverter)
+                                 typeConverter = typeConverter, memoryTracker = memoryTracker)
       try {
         try {
           createResults(state, planType, notificationLogger)
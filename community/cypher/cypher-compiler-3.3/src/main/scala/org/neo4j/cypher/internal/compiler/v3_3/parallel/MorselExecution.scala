@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.parallel
+
+import java.util.concurrent.LinkedBlockingQueue
+
+import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.parallel.MorselExecution._
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.{Pipe, QueryState}
+import org.neo4j.graphdb.Node
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Runs a pipeline over morsels of node ids on a number of worker threads, each with a transaction of its own, and
+ * returns the rows they produce in the order they arrive.
+ *
+ * The workers run on the threads of a [[WorkerPool]] shared by all queries, so an execution may get fewer workers
+ * than it asks for. The query thread cuts the scan into morsels lazily, keeping at most two morsels per worker in
+ * flight, so a query that is only partially consumed does not scan more than it needs to. Failures on a worker are
+ * rethrown on the query thread. Closing the execution, which happens when the resources of the query are closed,
+ * makes the workers stop after the row they are currently producing.
+ */
+class MorselExecution(scan: Iterator[ExecutionContext], ident: String, pipeline: Pipe, morselSize: Int,
+                      state: QueryState) extends Iterator[ExecutionContext] with AutoCloseable {
+
+  private val morsels = new LinkedBlockingQueue[Array[Long]]()
+  private val output = new LinkedBlockingQueue[WorkerMessage]()
+  private var workers = 0
+  private var morselsInFlight = 0
+  @volatile private var closed = false
+  private var current: Iterator[ExecutionContext] = Iterator.empty
+
+  override def hasNext: Boolean = {
+    while (!current.hasNext && !closed) {
+      nextBatch() match {
+        case Some(rows) => current = rows.iterator
+        case None => close()
+      }
+    }
+    current.hasNext
+  }
+
+  override def next(): ExecutionContext =
+    if (hasNext) current.next() else Iterator.empty.next()
+
+  /**
+   * Starts up to maxWorkers workers on the pool.
+   *
+   * @return whether any worker was started. If not, the execution cannot produce any rows and must not be used.
+   */
+  def start(workerPool: WorkerPool, maxWorkers: Int): Boolean = {
+    workers = workerPool.start(maxWorkers)(() => work())
+    workers > 0
+  }
+
+  override def close(): Unit =
+    if (!closed) {
+      closed = true
+      morsels.clear()
+      (1 to workers).foreach(_ => morsels.put(NO_MORE_MORSELS))
+    }
+
+  private def nextBatch(): Option[Array[ExecutionContext]] = {
+    while (true) {
+      while (morselsInFlight < workers * 2 && scan.hasNext) {
+        morsels.put(cutMorsel())
+        morselsInFlight += 1
+      }
+      if (morselsInFlight == 0)
+        return None
+
+      output.take() match {
+        case Rows(rows) =>
+          return Some(rows)
+        case MorselDone =>
+          morselsInFlight -= 1
+        case Failed(t) =>
+          close()
+          throw t
+      }
+    }
+    None
+  }
+
+  private def cutMorsel(): Array[Long] = {
+    val morsel = new Array[Long](morselSize)
+    var size = 0
+    while (size < morselSize && scan.hasNext) {
+      morsel(size) = scan.next()(ident).asInstanceOf[Node].getId
+      size += 1
+    }
+    if (size == morselSize) morsel else java.util.Arrays.copyOf(morsel, size)
+  }
+
+  private def work(): Unit =
+    try {
+      state.query.withWorkerQueryContext { query =>
+        val workerState = new QueryState(query, state.resources, state.params, timeReader = state.timeReader,
+                                         queryId = state.queryId, typeConverter = state.typeConverter)
+        var morsel = morsels.take()
+        while (morsel ne NO_MORE_MORSELS) {
+          val rows = morsel.iterator.map(nodeId => ExecutionContext.empty.newWith1(ident, query.nodeById(nodeId)))
+          val results = pipeline.createResults(workerState.withMorsel(rows))
+          val batch = new ArrayBuffer[ExecutionContext](BATCH_SIZE)
+          while (!closed && results.hasNext) {
+            batch += results.next()
+            if (batch.size == BATCH_SIZE) {
+              output.put(Rows(batch.toArray))
+              batch.clear()
+            }
+          }
+          if (batch.nonEmpty)
+            output.put(Rows(batch.toArray))
+          output.put(MorselDone)
+          morsel = morsels.take()
+        }
+      }
+    } catch {
+      case t: Throwable => output.put(Failed(t))
+    }
+}
+
+object MorselExecution {
+  val DEFAULT_MORSEL_SIZE = 1024
+
+  private val BATCH_SIZE = 128
+
+  private val NO_MORE_MORSELS = new Array[Long](0)
+
+  private sealed trait WorkerMessage
+
+  private case class Rows(rows: Array[ExecutionContext]) extends WorkerMessage
+
+  private case object MorselDone extends WorkerMessage
+
+  private case class Failed(t: Throwable) extends WorkerMessage
+}
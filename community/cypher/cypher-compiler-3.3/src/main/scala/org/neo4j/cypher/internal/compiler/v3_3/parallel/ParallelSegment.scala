@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.parallel
+
+import org.neo4j.cypher.internal.compiler.v3_3.ast.NestedPlanExpression
+import org.neo4j.cypher.internal.compiler.v3_3.planner.logical.plans._
+import org.neo4j.cypher.internal.frontend.v3_3.Foldable._
+
+/*
+The part of a plan that the parallel runtime runs on worker threads: a node scan and the streaming operators directly
+on top of it. Morsels of the scanned nodes are pushed through the operators from the leaf up to and including the top
+plan, and everything above the top plan runs on the query thread over the merged rows of all workers.
+ */
+case class ParallelSegment(leaf: LogicalPlan, top: LogicalPlan)
+
+object ParallelSegment {
+
+  /*
+  Only read-only plans that are a single chain of operators are supported. Aggregations, sorts, distincts and anything
+  else that needs to see all rows are boundaries, and the segment is the longest run of streaming operators below the
+  lowest boundary. Plans without at least one streaming operator on top of the scan have nothing worth parallelizing.
+   */
+  def find(plan: LogicalPlan): Option[ParallelSegment] =
+    if (!plan.solved.readOnly || plan.treeExists { case _: NestedPlanExpression => true })
+      None
+    else
+      linearChain(plan).flatMap {
+        case chain if isMorselLeaf(chain.last) =>
+          chain.init.reverse.takeWhile(isStreaming).lastOption.map(top => ParallelSegment(chain.last, top))
+        case _ =>
+          None
+      }
+
+  private def linearChain(plan: LogicalPlan): Option[Seq[LogicalPlan]] = (plan.lhs, plan.rhs) match {
+    case (None, None) => Some(Seq(plan))
+    case (Some(source), None) => linearChain(source).map(plan +: _)
+    case _ => None
+  }
+
+  private def isMorselLeaf(plan: LogicalPlan) = plan match {
+    case AllNodesScan(_, argumentIds) => argumentIds.isEmpty
+    case NodeByLabelScan(_, _, argumentIds) => argumentIds.isEmpty
+    case NodeIndexScan(_, _, _, argumentIds) => argumentIds.isEmpty
+    case _ => false
+  }
+
+  private def isStreaming(plan: LogicalPlan) = plan match {
+    case _: Selection => true
+    case _: Projection => true
+    case Expand(_, _, _, _, _, _, ExpandAll) => true
+    case _ => false
+  }
+}
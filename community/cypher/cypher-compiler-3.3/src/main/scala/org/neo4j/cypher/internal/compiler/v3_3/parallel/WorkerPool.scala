@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.parallel
+
+import java.util.concurrent.{Executor, RejectedExecutionException, Semaphore}
+
+/**
+ * The threads that the workers of parallel queries run on. A single pool is shared by all queries of a database, and
+ * at most maxThreads workers run on it at any time, across all of those queries. The executor belongs to the database,
+ * which stops handing out threads when it shuts down.
+ */
+class WorkerPool(executor: Executor, maxThreads: Int) {
+
+  private val threads = new Semaphore(maxThreads)
+
+  /**
+   * Starts up to the wanted number of workers, as many as there are free threads for, without waiting for more
+   * threads to become free.
+   *
+   * @return the number of workers started, which is zero if all threads are busy.
+   */
+  def start(wanted: Int)(work: () => Unit): Int = {
+    var started = 0
+    while (started < wanted && threads.tryAcquire() && submit(work))
+      started += 1
+    started
+  }
+
+  private def submit(work: () => Unit): Boolean =
+    try {
+      executor.execute(new Runnable {
+        override def run(): Unit = try work() finally threads.release()
+      })
+      true
+    } catch {
+      case _: RejectedExecutionException =>
+        threads.release()
+        false
+    }
+}
+
+object WorkerPool {
+  /**
+   * A pool without threads, which makes parallel queries run on the query thread.
+   */
+  val none = new WorkerPool(new Executor {
+    override def execute(command: Runnable): Unit = throw new RejectedExecutionException("No worker threads")
+  }, 0)
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.parallel.pipes
+
+import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.parallel.{MorselExecution, WorkerPool}
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.{Pipe, PipeMonitor, PipeWithSource, QueryState}
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
+
+/**
+ * Runs a pipeline that starts with a [[MorselPipe]] over the nodes produced by the scan, on up to maxWorkers threads
+ * of the worker pool, and merges the rows of all workers into a single stream in no particular order. The workers are
+ * stopped when the resources of the query are closed.
+ *
+ * Worker transactions cannot see changes made by the query's own transaction, so if there are any the pipeline is
+ * run on the query thread instead, directly over the rows of the scan. The same goes if the pool has no free threads.
+ */
+case class GatherPipe(scan: Pipe, ident: String, pipeline: Pipe, workerPool: WorkerPool, maxWorkers: Int,
+                      morselSize: Int)
+                     (val id: Id = new Id)
+                     (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(scan, pipeMonitor) {
+
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    lazy val execution = new MorselExecution(input, ident, pipeline, morselSize, state)
+    if (maxWorkers > 1 && !state.query.hasTransactionState && execution.start(workerPool, maxWorkers)) {
+      state.query.resources.trace(execution)
+      execution
+    } else
+      pipeline.createResults(state.withMorsel(input))
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.parallel.pipes
+
+import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.{Pipe, PipeMonitor, QueryState}
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
+import org.neo4j.cypher.internal.frontend.v3_3.InternalException
+
+/**
+ * Takes the place of the node scan at the bottom of a pipeline that runs on parallel workers, producing the rows of the
+ * morsel the worker is currently processing.
+ */
+case class MorselPipe()(val id: Id = new Id)(implicit pipeMonitor: PipeMonitor) extends Pipe {
+
+  protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] =
+    state.morsel.getOrElse(throw new InternalException("Morsel pipe executed without a morsel"))
+
+  override def monitor = pipeMonitor
+}
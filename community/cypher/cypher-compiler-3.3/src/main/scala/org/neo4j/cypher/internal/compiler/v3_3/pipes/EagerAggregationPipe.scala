@@ -23,6 +23,7 @@ import org.neo4j.cypher.internal.compiler.v3_3._
 import org.neo4j.cypher.internal.compiler.v3_3.commands.expressions.AggregationExpression
 import org.neo4j.cypher.internal.compiler.v3_3.commands.predicates.Equivalent
 import org.neo4j.cypher.internal.compiler.v3_3.pipes.aggregation.AggregationFunction
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.spill.{CompletionIterator, SpilledPartitions, SpilledRowFormat}
 import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
 
 import scala.collection.mutable.{Map => MutableMap}
@@ -86,26 +87,89 @@ case class EagerAggregationPipe(source: Pipe, keyExpressions: Set[String], aggre
       ExecutionContext(newMap)
     }
 
-    input.foreach(ctx => {
-      val groupValues: Equals = keyNamesSize match {
-        case 1 => Equivalent(ctx(keyNames.head))
-        case 2 => (Equivalent(ctx(keyNames.head)),Equivalent(ctx(keyNames.last)))
-        case 3 => (Equivalent(ctx(keyNames.head)),Equivalent(ctx(keyNames.tail.head)),Equivalent(ctx(keyNames.last)))
-        case _ => keyNames.map( k => Equivalent(ctx(k)))
-      }
-      val functions = result.getOrElseUpdate(groupValues, {
-        val aggregateFunctions: Seq[AggregationFunction] = aggregations.map(_._2.createAggregationFunction).toIndexedSeq
-        aggregateFunctions
+    def groupingKey(ctx: ExecutionContext): Equals = keyNamesSize match {
+      case 1 => Equivalent(ctx(keyNames.head))
+      case 2 => (Equivalent(ctx(keyNames.head)),Equivalent(ctx(keyNames.last)))
+      case 3 => (Equivalent(ctx(keyNames.head)),Equivalent(ctx(keyNames.tail.head)),Equivalent(ctx(keyNames.last)))
+      case _ => keyNames.map( k => Equivalent(ctx(k)))
+    }
+
+    def createAggregationFunctions(): Seq[AggregationFunction] =
+      aggregations.map(_._2.createAggregationFunction).toIndexedSeq
+
+    // Hybrid hash aggregation: once the query is over its memory budget, rows that would start a new group are
+    // partitioned to disk and aggregated one partition at a time, after the groups kept in memory have been emitted.
+    def aggregateWithSpilling(input: Iterator[ExecutionContext], depth: Int): Iterator[ExecutionContext] = {
+      val tracker = state.memoryTracker
+      val groups = MutableMap[Equals, Seq[AggregationFunction]]()
+      var groupBytes = 0L
+      var partitions: SpilledPartitions = null
+
+      input.foreach(ctx => {
+        val groupValues = groupingKey(ctx)
+        val functions = groups.getOrElse(groupValues, {
+          if (partitions != null) {
+            partitions.add(SpilledPartitions.partitionOf(groupValues, depth, partitions.count), ctx)
+            null
+          } else {
+            val size = estimateGroupSize(ctx, keyNames)
+            tracker.allocate(id, size)
+            groupBytes += size
+            if (tracker.isOverBudget && depth < SpilledPartitions.DEFAULT_MAX_DEPTH)
+              partitions = new SpilledPartitions(id, tracker, state.query, SpilledPartitions.DEFAULT_PARTITIONS)
+            val aggregateFunctions = createAggregationFunctions()
+            groups.put(groupValues, aggregateFunctions)
+            aggregateFunctions
+          }
+        })
+        if (functions != null)
+          functions.foreach(func => func(ctx)(state))
       })
-      functions.foreach(func => func(ctx)(state))
-    })
 
-    if (result.isEmpty && keyNames.isEmpty) {
-      createEmptyResult(state.params)
-    } else {
-      result.map {
+      val inMemory = new CompletionIterator(groups.iterator.map {
         case (key, aggregator) => createResults(key, aggregator)
-      }.toIterator
+      }, () => tracker.release(id, groupBytes))
+
+      if (partitions == null)
+        inMemory
+      else {
+        val spilled = partitions
+        spilled.finish()
+        inMemory ++ Iterator.range(0, spilled.count).flatMap { i =>
+          new CompletionIterator(aggregateWithSpilling(spilled.rows(i), depth + 1), () => spilled.delete(i))
+        }
+      }
     }
+
+    if (keyNames.nonEmpty && state.memoryTracker.isSpillingEnabled) {
+      aggregateWithSpilling(input, 0)
+    } else {
+      input.foreach(ctx => {
+        val groupValues: Equals = groupingKey(ctx)
+        val functions = result.getOrElseUpdate(groupValues, createAggregationFunctions())
+        functions.foreach(func => func(ctx)(state))
+      })
+
+      if (result.isEmpty && keyNames.isEmpty) {
+        createEmptyResult(state.params)
+      } else {
+        result.map {
+          case (key, aggregator) => createResults(key, aggregator)
+        }.toIterator
+      }
+    }
+  }
+
+  // rough heap estimates used for memory accounting while spilling
+  private val GROUP_OVERHEAD = 64L
+  private val AGGREGATION_FUNCTION_SIZE = 48L
+  private val UNKNOWN_VALUE_SIZE = 64L
+
+  private def estimateGroupSize(ctx: ExecutionContext, keyNames: Seq[String]): Long = {
+    val keySize = keyNames.map { k =>
+      val size = SpilledRowFormat.estimateSize(ctx(k))
+      if (size == SpilledRowFormat.UNSUPPORTED) UNKNOWN_VALUE_SIZE else size
+    }.sum
+    GROUP_OVERHEAD + keySize + aggregations.size * AGGREGATION_FUNCTION_SIZE
   }
 }
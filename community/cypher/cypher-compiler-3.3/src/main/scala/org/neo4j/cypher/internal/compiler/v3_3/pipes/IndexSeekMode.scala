@@ -21,7 +21,7 @@ package org.neo4j.cypher.internal.compiler.v3_3.pipes
 
 import org.neo4j.cypher.internal.compiler.v3_3.IndexDescriptor
 import org.neo4j.cypher.internal.compiler.v3_3.commands.{QueryExpression, RangeQueryExpression}
-import org.neo4j.cypher.internal.compiler.v3_3.pipes.IndexSeekMode.{MultipleValueQuery, assertSingleValue}
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.IndexSeekMode.{MultipleValueQuery, MultipleValueQueryWithValues, assertSingleValue}
 import org.neo4j.cypher.internal.frontend.v3_3.InternalException
 import org.neo4j.graphdb.Node
 
@@ -37,6 +37,7 @@ case class IndexSeekModeFactory(unique: Boolean, readOnly: Boolean) {
 
 object IndexSeekMode {
   type MultipleValueQuery = (QueryState) => (Seq[Any]) => Iterator[Node]
+  type MultipleValueQueryWithValues = (QueryState) => (Seq[Any]) => Iterator[(Node, Any)]
 
   def assertSingleValue(values: Seq[Any]): Any = {
     if(values.size != 1)
@@ -48,6 +49,12 @@ object IndexSeekMode {
 sealed trait IndexSeekMode {
   def indexFactory(descriptor: IndexDescriptor): MultipleValueQuery
 
+  // Whether this mode can return the indexed value along with each node, see indexWithValuesFactory
+  def providesValues: Boolean = false
+
+  def indexWithValuesFactory(descriptor: IndexDescriptor): MultipleValueQueryWithValues =
+    throw new InternalException(s"$name does not provide indexed values")
+
   def name: String
 }
 
@@ -55,6 +62,11 @@ sealed trait ExactSeek {
   self: IndexSeekMode =>
   override def indexFactory(descriptor: IndexDescriptor): MultipleValueQuery =
     (state: QueryState) => (values: Seq[Any]) => state.query.indexSeek(descriptor, values)
+
+  override def providesValues: Boolean = true
+
+  override def indexWithValuesFactory(descriptor: IndexDescriptor): MultipleValueQueryWithValues =
+    (state: QueryState) => (values: Seq[Any]) => state.query.indexSeekWithValues(descriptor, values)
 }
 
 case object IndexSeek extends IndexSeekMode with ExactSeek {
@@ -79,6 +91,11 @@ sealed trait SeekByRange {
   self: IndexSeekMode =>
   override def indexFactory(descriptor: IndexDescriptor): MultipleValueQuery =
     (state: QueryState) => (x: Seq[Any]) => state.query.indexSeekByRange(descriptor, assertSingleValue(x))
+
+  override def providesValues: Boolean = true
+
+  override def indexWithValuesFactory(descriptor: IndexDescriptor): MultipleValueQueryWithValues =
+    (state: QueryState) => (x: Seq[Any]) => state.query.indexSeekByRangeWithValues(descriptor, assertSingleValue(x))
 }
 
 case object IndexSeekByRange extends IndexSeekMode with SeekByRange {
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v3_3.pipes
 
 import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.spill.GraceHashJoin
 import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
 import org.neo4j.cypher.internal.frontend.v3_3.CypherTypeException
 import org.neo4j.graphdb.Node
@@ -40,6 +41,9 @@ case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
     if (rhsIterator.isEmpty)
       return Iterator.empty
 
+    if (state.memoryTracker.isSpillingEnabled)
+      return new GraceHashJoin(id, state.memoryTracker, state.query, computeKey, computeKey).join(input, rhsIterator)
+
     val table = buildProbeTable(input)
 
     if (table.isEmpty)
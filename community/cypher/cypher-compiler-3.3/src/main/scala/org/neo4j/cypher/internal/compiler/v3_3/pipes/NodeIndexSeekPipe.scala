@@ -29,7 +29,8 @@ case class NodeIndexSeekPipe(ident: String,
                              label: LabelToken,
                              propertyKeys: Seq[PropertyKeyToken],
                              valueExpr: QueryExpression[Expression],
-                             indexMode: IndexSeekMode = IndexSeek)
+                             indexMode: IndexSeekMode = IndexSeek,
+                             indexedValueKey: Option[String] = None)
                             (val id: Id = new Id)
                             (implicit pipeMonitor: PipeMonitor)
   extends Pipe {
@@ -40,13 +41,23 @@ case class NodeIndexSeekPipe(ident: String,
 
   private val indexFactory = indexMode.indexFactory(descriptor)
 
+  // When set, the value of the indexed property is taken from the index and put in the row under this key
+  private val indexWithValuesFactory = indexedValueKey.map(_ => indexMode.indexWithValuesFactory(descriptor))
+
   valueExpr.expressions.foreach(_.registerOwningPipe(this))
 
   protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] = {
-    val index = indexFactory(state)
     val baseContext = state.createOrGetInitialContext()
-    val resultNodes = indexQuery(valueExpr, baseContext, state, index, label.name, propertyKeys.map(_.name))
-    resultNodes.map(node => baseContext.newWith1(ident, node))
+    (indexedValueKey, indexWithValuesFactory) match {
+      case (Some(valueKey), Some(factory)) =>
+        val index = factory(state)
+        val resultNodes = indexQuery(valueExpr, baseContext, state, index, label.name, propertyKeys.map(_.name))
+        resultNodes.map { case (node, value) => baseContext.newWith2(ident, node, valueKey, value) }
+      case _ =>
+        val index = indexFactory(state)
+        val resultNodes = indexQuery(valueExpr, baseContext, state, index, label.name, propertyKeys.map(_.name))
+        resultNodes.map(node => baseContext.newWith1(ident, node))
+    }
   }
 
   override def monitor = pipeMonitor
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.pipes
+
+import java.io.File
+
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
+
+import scala.collection.mutable
+
+/**
+  * Accounts for the heap used by operators that buffer rows for a single query, and owns the temporary files those
+  * operators spill to once the query goes over its memory budget. A budget of zero means that operators never spill.
+  */
+class QueryMemoryTracker(val budget: Long) {
+  private var used = 0L
+  private val statistics = mutable.Map.empty[Id, OperatorMemoryStatistics]
+  private val spillFiles = mutable.Set.empty[File]
+  private val resources = mutable.ArrayBuffer.empty[AutoCloseable]
+
+  def isSpillingEnabled: Boolean = budget > 0
+
+  def isOverBudget: Boolean = isSpillingEnabled && used > budget
+
+  def memoryUsed: Long = used
+
+  def allocate(id: Id, bytes: Long): Unit = {
+    used += bytes
+    statisticsFor(id).allocate(bytes)
+  }
+
+  def release(id: Id, bytes: Long): Unit = {
+    used -= bytes
+    statisticsFor(id).release(bytes)
+  }
+
+  def newSpillFile(id: Id): File = {
+    val file = File.createTempFile("cypher-spill-", ".tmp")
+    file.deleteOnExit()
+    spillFiles += file
+    statisticsFor(id).spillFiles += 1
+    file
+  }
+
+  def spilled(id: Id, bytes: Long): Unit = statisticsFor(id).spilledBytes += bytes
+
+  def deleteSpillFile(file: File): Unit = {
+    spillFiles -= file
+    file.delete()
+  }
+
+  def register(resource: AutoCloseable): Unit = resources += resource
+
+  def statisticsOf(id: Id): Option[OperatorMemoryStatistics] = statistics.get(id)
+
+  def close(): Unit = {
+    resources.foreach(_.close())
+    resources.clear()
+    spillFiles.foreach(_.delete())
+    spillFiles.clear()
+  }
+
+  private def statisticsFor(id: Id) = statistics.getOrElseUpdate(id, new OperatorMemoryStatistics)
+}
+
+object QueryMemoryTracker {
+  def unbounded = new QueryMemoryTracker(0)
+}
+
+class OperatorMemoryStatistics {
+  private var current = 0L
+  var peakMemory = 0L
+  var spilledBytes = 0L
+  var spillFiles = 0L
+
+  def allocate(bytes: Long): Unit = {
+    current += bytes
+    peakMemory = math.max(peakMemory, current)
+  }
+
+  def release(bytes: Long): Unit = current -= bytes
+}
@@ -42,7 +42,9 @@ class QueryState(val query: QueryContext,
                  val repeatableReads: mutable.Map[Pipe, Seq[ExecutionContext]] = mutable.Map.empty,
                  val typeConverter: RuntimeTypeConverter = IdentityTypeConverter,
                  val cachedIn: SingleThreadedLRUCache[Any, InCheckContainer] =
-                   new SingleThreadedLRUCache(maxSize = 16)) {
+                   new SingleThreadedLRUCache(maxSize = 16),
+                 val memoryTracker: QueryMemoryTracker = QueryMemoryTracker.unbounded,
+                 val morsel: Option[Iterator[ExecutionContext]] = None) {
   private var _pathValueBuilder: PathValueBuilder = _
 
   def createOrGetInitialContext(): ExecutionContext = initialContext.getOrElse(ExecutionContext.empty)
@@ -62,13 +64,16 @@ class QueryState(val query: QueryContext,
   def getStatistics: InternalQueryStatistics = query.getOptStatistics.getOrElse(QueryState.defaultStatistics)
 
   def withDecorator(decorator: PipeDecorator) =
-    new QueryState(query, resources, params, decorator, timeReader, initialContext, queryId, triadicState, repeatableReads, typeConverter, cachedIn)
+    new QueryState(query, resources, params, decorator, timeReader, initialContext, queryId, triadicState, repeatableReads, typeConverter, cachedIn, memoryTracker, morsel)
 
   def withInitialContext(initialContext: ExecutionContext) =
-    new QueryState(query, resources, params, decorator, timeReader, Some(initialContext), queryId, triadicState, repeatableReads, typeConverter, cachedIn)
+    new QueryState(query, resources, params, decorator, timeReader, Some(initialContext), queryId, triadicState, repeatableReads, typeConverter, cachedIn, memoryTracker, morsel)
 
   def withQueryContext(query: QueryContext) =
-    new QueryState(query, resources, params, decorator, timeReader, initialContext, queryId, triadicState, repeatableReads, typeConverter, cachedIn)
+    new QueryState(query, resources, params, decorator, timeReader, initialContext, queryId, triadicState, repeatableReads, typeConverter, cachedIn, memoryTracker, morsel)
+
+  def withMorsel(morsel: Iterator[ExecutionContext]) =
+    new QueryState(query, resources, params, decorator, timeReader, initialContext, queryId, triadicState, repeatableReads, typeConverter, cachedIn, memoryTracker, Some(morsel))
 }
 
 object QueryState {
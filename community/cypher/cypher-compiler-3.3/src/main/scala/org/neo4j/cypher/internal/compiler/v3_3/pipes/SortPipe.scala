@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v3_3.pipes
 
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.spill.ExternalSort
 import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
 import org.neo4j.cypher.internal.compiler.v3_3.{Comparer, ExecutionContext}
 
@@ -27,9 +28,14 @@ case class SortPipe(source: Pipe, orderBy: Seq[SortDescription])
                    (implicit monitor: PipeMonitor)
   extends PipeWithSource(source, monitor) {
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
-    val array = input.toArray
-    java.util.Arrays.sort(array, new InnerOrdering(orderBy)(state))
-    array.toIterator
+    val ordering = new InnerOrdering(orderBy)(state)
+    if (state.memoryTracker.isSpillingEnabled)
+      new ExternalSort(id, ordering, state.memoryTracker, state.query).sort(input)
+    else {
+      val array = input.toArray
+      java.util.Arrays.sort(array, ordering)
+      array.toIterator
+    }
   }
 }
 
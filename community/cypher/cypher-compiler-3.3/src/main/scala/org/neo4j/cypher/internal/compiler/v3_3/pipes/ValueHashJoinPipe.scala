@@ -22,6 +22,7 @@ package org.neo4j.cypher.internal.compiler.v3_3.pipes
 import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
 import org.neo4j.cypher.internal.compiler.v3_3.commands.expressions.Expression
 import org.neo4j.cypher.internal.compiler.v3_3.commands.predicates.Equivalent
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.spill.GraceHashJoin
 import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
 
 import scala.collection.mutable
@@ -41,6 +42,13 @@ case class ValueHashJoinPipe(lhsExpression: Expression, rhsExpression: Expressio
     if (rhsIterator.isEmpty)
       return Iterator.empty
 
+    if (state.memoryTracker.isSpillingEnabled) {
+      val join = new GraceHashJoin[Equivalent](id, state.memoryTracker, state.query,
+                                               row => Option(lhsExpression(row)).map(Equivalent(_)),
+                                               row => Option(rhsExpression(row)).map(Equivalent(_)))
+      return join.join(input, rhsIterator)
+    }
+
     val table = buildProbeTable(input)
 
     if (table.isEmpty)
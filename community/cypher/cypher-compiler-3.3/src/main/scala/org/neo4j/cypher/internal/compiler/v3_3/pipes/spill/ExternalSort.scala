@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.pipes.spill
+
+import java.io.File
+import java.util.{Comparator, PriorityQueue}
+
+import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.QueryMemoryTracker
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_3.spi.QueryContext
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+  * Sorts rows using a bounded amount of heap. Rows are buffered until the query goes over its memory budget, at which
+  * point the buffer is sorted and written to disk as a run. The runs and the rows left in memory are then merged
+  * lazily while the result is consumed. The sort is stable, just like the in-memory sort.
+  *
+  * If a row holds a value that can not be spilled, no further runs are written and the remaining rows are sorted in
+  * memory.
+  */
+class ExternalSort(id: Id, ordering: Ordering[ExecutionContext], tracker: QueryMemoryTracker, query: QueryContext,
+                   maxMergeWidth: Int = ExternalSort.DEFAULT_MAX_MERGE_WIDTH) {
+  require(maxMergeWidth > 1)
+
+  def sort(input: Iterator[ExecutionContext]): Iterator[ExecutionContext] = {
+    val runs = new ArrayBuffer[File]()
+    val buffer = new ArrayBuffer[ExecutionContext]()
+    var bufferedBytes = 0L
+    var spillable = true
+
+    while (input.hasNext) {
+      val row = input.next()
+      buffer += row
+      if (spillable) {
+        val size = SpilledRowFormat.estimateSize(row)
+        if (size == SpilledRowFormat.UNSUPPORTED) {
+          spillable = false
+        } else {
+          tracker.allocate(id, size)
+          bufferedBytes += size
+          if (tracker.isOverBudget) {
+            runs += writeRun(sorted(buffer).iterator)
+            buffer.clear()
+            tracker.release(id, bufferedBytes)
+            bufferedBytes = 0
+          }
+        }
+      }
+    }
+
+    while (runs.size > maxMergeWidth) {
+      val merged = writeRun(merge(runs.take(maxMergeWidth)))
+      runs.remove(0, maxMergeWidth)
+      runs.insert(0, merged)
+    }
+
+    val inMemory = sorted(buffer).iterator
+    buffer.clear()
+    val remainingBytes = bufferedBytes
+    new MergingIterator(runs.map(openRun) :+ inMemory, () => {
+      runs.foreach(tracker.deleteSpillFile)
+      tracker.release(id, remainingBytes)
+    })
+  }
+
+  private def sorted(rows: ArrayBuffer[ExecutionContext]): Array[ExecutionContext] = {
+    val array = rows.toArray
+    java.util.Arrays.sort(array, ordering)
+    array
+  }
+
+  private def merge(runs: Seq[File]): Iterator[ExecutionContext] =
+    new MergingIterator(runs.map(openRun), () => runs.foreach(tracker.deleteSpillFile))
+
+  private def openRun(file: File): Iterator[ExecutionContext] = {
+    val reader = new SpilledRowReader(file, query)
+    tracker.register(reader)
+    reader
+  }
+
+  private def writeRun(rows: Iterator[ExecutionContext]): File = {
+    val file = tracker.newSpillFile(id)
+    val writer = new SpilledRowWriter(file)
+    try {
+      rows.foreach(writer.write)
+    } finally {
+      writer.close()
+    }
+    tracker.spilled(id, file.length())
+    file
+  }
+
+  /*
+  Merges sorted sources. Ties are broken on the position of the source, which keeps the merge stable as long as
+  earlier sources hold earlier rows.
+   */
+  private class MergingIterator(sources: Seq[Iterator[ExecutionContext]], onExhausted: () => Unit)
+    extends Iterator[ExecutionContext] {
+
+    private val heads = new PriorityQueue[Head](math.max(sources.size, 1), new Comparator[Head] {
+      override def compare(a: Head, b: Head): Int = {
+        val cmp = ordering.compare(a.row, b.row)
+        if (cmp != 0) cmp else Integer.compare(a.source, b.source)
+      }
+    })
+    private var exhausted = false
+
+    sources.indices.foreach(advance)
+
+    override def hasNext: Boolean = {
+      if (heads.isEmpty && !exhausted) {
+        exhausted = true
+        onExhausted()
+      }
+      !heads.isEmpty
+    }
+
+    override def next(): ExecutionContext = {
+      if (!hasNext)
+        Iterator.empty.next()
+      val head = heads.poll()
+      advance(head.source)
+      head.row
+    }
+
+    private def advance(index: Int): Unit = {
+      val source = sources(index)
+      if (source.hasNext)
+        heads.add(Head(source.next(), index))
+    }
+  }
+
+  private case class Head(row: ExecutionContext, source: Int)
+}
+
+object ExternalSort {
+  val DEFAULT_MAX_MERGE_WIDTH = 64
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.pipes.spill
+
+import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.QueryMemoryTracker
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_3.spi.QueryContext
+
+import scala.collection.mutable
+
+/**
+  * Hash join that builds its table on the heap for as long as the query stays within its memory budget. Once the
+  * budget is exceeded, both the build and the probe side are partitioned to disk by the hash of their join key, and
+  * every partition is joined on its own, splitting it further if it still does not fit.
+  *
+  * Join keys must not be null; rows without a key are expected to be filtered out by the key functions returning
+  * None. Output rows are the probe row combined with the matching build row.
+  */
+class GraceHashJoin[K](id: Id, tracker: QueryMemoryTracker, query: QueryContext,
+                       buildKey: ExecutionContext => Option[K], probeKey: ExecutionContext => Option[K],
+                       partitions: Int = SpilledPartitions.DEFAULT_PARTITIONS,
+                       maxDepth: Int = SpilledPartitions.DEFAULT_MAX_DEPTH) {
+
+  def join(build: Iterator[ExecutionContext], probe: Iterator[ExecutionContext]): Iterator[ExecutionContext] =
+    join(build, probe, 0)
+
+  private def join(build: Iterator[ExecutionContext], probe: Iterator[ExecutionContext],
+                   depth: Int): Iterator[ExecutionContext] = {
+    val table = new mutable.HashMap[K, mutable.ArrayBuffer[ExecutionContext]]
+    var tableBytes = 0L
+    var spillable = depth < maxDepth
+
+    while (build.hasNext) {
+      val row = build.next()
+      buildKey(row) match {
+        case Some(key) =>
+          table.getOrElseUpdate(key, new mutable.ArrayBuffer[ExecutionContext]()) += row
+          val size = SpilledRowFormat.estimateSize(row)
+          if (size == SpilledRowFormat.UNSUPPORTED) {
+            spillable = false
+          } else {
+            tracker.allocate(id, size)
+            tableBytes += size
+            if (spillable && tracker.isOverBudget)
+              return partitioned(table, tableBytes, build, probe, depth)
+          }
+        case None =>
+      }
+    }
+
+    if (table.isEmpty)
+      return Iterator.empty
+
+    val result = probe.flatMap { row =>
+      probeKey(row) match {
+        case Some(key) => table.get(key).map(_.iterator.map(row ++ _)).getOrElse(Iterator.empty)
+        case None => Iterator.empty
+      }
+    }
+    new CompletionIterator(result, () => tracker.release(id, tableBytes))
+  }
+
+  private def partitioned(table: mutable.HashMap[K, mutable.ArrayBuffer[ExecutionContext]], tableBytes: Long,
+                          build: Iterator[ExecutionContext], probe: Iterator[ExecutionContext],
+                          depth: Int): Iterator[ExecutionContext] = {
+    val buildPartitions = new SpilledPartitions(id, tracker, query, partitions)
+    table.foreach {
+      case (key, rows) => rows.foreach(buildPartitions.add(partitionOf(key, depth), _))
+    }
+    table.clear()
+    tracker.release(id, tableBytes)
+    partition(build, buildKey, buildPartitions, depth)
+
+    val probePartitions = new SpilledPartitions(id, tracker, query, partitions)
+    partition(probe, probeKey, probePartitions, depth)
+
+    Iterator.range(0, partitions).flatMap { i =>
+      val joined = join(buildPartitions.rows(i), probePartitions.rows(i), depth + 1)
+      new CompletionIterator(joined, () => {
+        buildPartitions.delete(i)
+        probePartitions.delete(i)
+      })
+    }
+  }
+
+  private def partition(rows: Iterator[ExecutionContext], key: ExecutionContext => Option[K],
+                        partitions: SpilledPartitions, depth: Int): Unit = {
+    rows.foreach { row =>
+      key(row) match {
+        case Some(k) => partitions.add(partitionOf(k, depth), row)
+        case None =>
+      }
+    }
+    partitions.finish()
+  }
+
+  private def partitionOf(key: K, depth: Int) = SpilledPartitions.partitionOf(key, depth, partitions)
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.pipes.spill
+
+import java.io.File
+
+import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.QueryMemoryTracker
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_3.spi.QueryContext
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+  * Rows split into partitions on disk by the hash of a key, as used by grace hash join and hash aggregation. Rows
+  * holding values that can not be spilled are kept in memory with their partition instead.
+  */
+class SpilledPartitions(id: Id, tracker: QueryMemoryTracker, query: QueryContext, val count: Int) {
+  private val files: Array[File] = Array.fill(count)(tracker.newSpillFile(id))
+  private val writers = files.map(new SpilledRowWriter(_, SpilledPartitions.BUFFER_SIZE))
+  private val inMemory = Array.fill(count)(new ArrayBuffer[ExecutionContext]())
+
+  def add(partition: Int, row: ExecutionContext): Unit =
+    if (SpilledRowFormat.estimateSize(row) == SpilledRowFormat.UNSUPPORTED)
+      inMemory(partition) += row
+    else
+      writers(partition).write(row)
+
+  def finish(): Unit = {
+    writers.foreach(_.close())
+    files.foreach(file => tracker.spilled(id, file.length()))
+  }
+
+  def rows(partition: Int): Iterator[ExecutionContext] = {
+    val reader = new SpilledRowReader(files(partition), query)
+    tracker.register(reader)
+    reader ++ inMemory(partition).iterator
+  }
+
+  def delete(partition: Int): Unit = {
+    tracker.deleteSpillFile(files(partition))
+    inMemory(partition).clear()
+  }
+}
+
+object SpilledPartitions {
+  val DEFAULT_PARTITIONS = 16
+  val DEFAULT_MAX_DEPTH = 4
+
+  private val BUFFER_SIZE = 1 << 13
+
+  /**
+    * Picks the partition of a key. Every level of recursion mixes the hash differently, so that keys which ended up
+    * in the same partition are spread out again when that partition is split.
+    */
+  def partitionOf(key: Any, depth: Int, partitions: Int): Int = {
+    var h = key.hashCode() ^ (depth * 0x9E3779B9)
+    h ^= h >>> 16
+    h *= 0x85EBCA6B
+    h ^= h >>> 13
+    h *= 0xC2B2AE35
+    h ^= h >>> 16
+    Math.floorMod(h, partitions)
+  }
+}
+
+/*
+Calls back once the wrapped iterator has been exhausted.
+ */
+class CompletionIterator[T](inner: Iterator[T], onCompletion: () => Unit) extends Iterator[T] {
+  private var completed = false
+
+  override def hasNext: Boolean = {
+    val result = inner.hasNext
+    if (!result && !completed) {
+      completed = true
+      onCompletion()
+    }
+    result
+  }
+
+  override def next(): T = inner.next()
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.pipes.spill
+
+import java.io._
+import java.nio.charset.StandardCharsets.UTF_8
+
+import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.MutableMaps
+import org.neo4j.cypher.internal.compiler.v3_3.spi.QueryContext
+import org.neo4j.graphdb.{Node, Relationship}
+
+import scala.collection.mutable
+
+/*
+Compact binary format for rows that are spilled to disk. Every file keeps its own dictionary of column names, so that a
+name is written once and then referred to by number. Nodes and relationships are written as their ids and are
+looked up again when read back. Values are tagged with a single byte, and integers use variable length encoding.
+ */
+object SpilledRowFormat {
+  private[spill] final val NULL = 0
+  private[spill] final val TRUE = 1
+  private[spill] final val FALSE = 2
+  private[spill] final val BYTE = 3
+  private[spill] final val SHORT = 4
+  private[spill] final val INT = 5
+  private[spill] final val LONG = 6
+  private[spill] final val FLOAT = 7
+  private[spill] final val DOUBLE = 8
+  private[spill] final val CHAR = 9
+  private[spill] final val STRING = 10
+  private[spill] final val NODE = 11
+  private[spill] final val RELATIONSHIP = 12
+  private[spill] final val LIST = 13
+  private[spill] final val MAP = 14
+
+  private final val ROW_OVERHEAD = 64
+  private final val ENTRY_OVERHEAD = 32
+  private final val REFERENCE_SIZE = 8
+
+  final val UNSUPPORTED: Long = -1
+
+  /**
+    * Estimates how much heap the row uses, or returns UNSUPPORTED if the row holds a value that can not be spilled.
+    */
+  def estimateSize(row: ExecutionContext): Long = {
+    var size: Long = ROW_OVERHEAD
+    val iterator = row.iterator
+    while (iterator.hasNext) {
+      val valueSize = estimateSize(iterator.next()._2)
+      if (valueSize == UNSUPPORTED)
+        return UNSUPPORTED
+      size += ENTRY_OVERHEAD + valueSize
+    }
+    size
+  }
+
+  def estimateSize(value: Any): Long = value match {
+    case null | _: Boolean => REFERENCE_SIZE
+    case _: Byte | _: Short | _: Int | _: Float | _: Char => 16
+    case _: Long | _: Double => 24
+    case s: String => 40 + 2L * s.length
+    case _: Node | _: Relationship => 32
+    case s: Seq[_] => sumOf(48, s.iterator)
+    case m: Map[_, _] if m.keysIterator.forall(_.isInstanceOf[String]) =>
+      sumOf(48, m.iterator.flatMap { case (k, v) => Iterator(k, v) })
+    case _ => UNSUPPORTED
+  }
+
+  private def sumOf(overhead: Long, values: Iterator[Any]): Long = {
+    var size = overhead
+    while (values.hasNext) {
+      val valueSize = estimateSize(values.next())
+      if (valueSize == UNSUPPORTED)
+        return UNSUPPORTED
+      size += REFERENCE_SIZE + valueSize
+    }
+    size
+  }
+}
+
+class SpilledRowWriter(file: File, bufferSize: Int = 1 << 16) extends AutoCloseable {
+  import SpilledRowFormat._
+
+  private val out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), bufferSize))
+  private val keys = mutable.Map.empty[String, Int]
+
+  def write(row: ExecutionContext): Unit = {
+    writeUnsigned(row.size)
+    row.foreach {
+      case (key, value) =>
+        keys.get(key) match {
+          case Some(index) =>
+            writeUnsigned(index + 1)
+          case None =>
+            writeUnsigned(0)
+            writeString(key)
+            keys.put(key, keys.size)
+        }
+        writeValue(value)
+    }
+  }
+
+  def close(): Unit = out.close()
+
+  private def writeValue(value: Any): Unit = value match {
+    case null => out.writeByte(NULL)
+    case true => out.writeByte(TRUE)
+    case false => out.writeByte(FALSE)
+    case b: Byte => out.writeByte(BYTE); out.writeByte(b)
+    case s: Short => out.writeByte(SHORT); writeSigned(s)
+    case i: Int => out.writeByte(INT); writeSigned(i)
+    case l: Long => out.writeByte(LONG); writeSigned(l)
+    case f: Float => out.writeByte(FLOAT); out.writeFloat(f)
+    case d: Double => out.writeByte(DOUBLE); out.writeDouble(d)
+    case c: Char => out.writeByte(CHAR); out.writeChar(c)
+    case s: String => out.writeByte(STRING); writeString(s)
+    case n: Node => out.writeByte(NODE); writeUnsigned(n.getId)
+    case r: Relationship => out.writeByte(RELATIONSHIP); writeUnsigned(r.getId)
+    case s: Seq[_] =>
+      out.writeByte(LIST)
+      writeUnsigned(s.size)
+      s.foreach(writeValue)
+    case m: Map[_, _] =>
+      out.writeByte(MAP)
+      writeUnsigned(m.size)
+      m.foreach {
+        case (k, v) =>
+          writeString(k.asInstanceOf[String])
+          writeValue(v)
+      }
+    case x => throw new IllegalArgumentException(s"Can not spill values of type ${x.getClass.getName}")
+  }
+
+  private def writeString(s: String): Unit = {
+    val bytes = s.getBytes(UTF_8)
+    writeUnsigned(bytes.length)
+    out.write(bytes)
+  }
+
+  private def writeSigned(value: Long): Unit = writeUnsigned((value << 1) ^ (value >> 63))
+
+  private def writeUnsigned(value: Long): Unit = {
+    var remaining = value
+    while ((remaining & ~0x7FL) != 0) {
+      out.writeByte(((remaining & 0x7F) | 0x80).toInt)
+      remaining >>>= 7
+    }
+    out.writeByte(remaining.toInt)
+  }
+}
+
+class SpilledRowReader(file: File, query: QueryContext) extends Iterator[ExecutionContext] with AutoCloseable {
+  import SpilledRowFormat._
+
+  private val in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))
+  private val keys = mutable.ArrayBuffer.empty[String]
+  private var nextRow: ExecutionContext = fetch()
+
+  override def hasNext: Boolean = nextRow != null
+
+  override def next(): ExecutionContext = {
+    if (nextRow == null)
+      Iterator.empty.next()
+    val row = nextRow
+    nextRow = fetch()
+    row
+  }
+
+  def close(): Unit = in.close()
+
+  private def fetch(): ExecutionContext = {
+    val first = in.read()
+    if (first == -1) {
+      close()
+      null
+    } else {
+      val size = readUnsigned(first).toInt
+      val map = MutableMaps.create(size)
+      var i = 0
+      while (i < size) {
+        val index = readUnsigned().toInt
+        val key =
+          if (index == 0) {
+            val newKey = readString()
+            keys += newKey
+            newKey
+          } else keys(index - 1)
+        map.put(key, readValue())
+        i += 1
+      }
+      ExecutionContext(map)
+    }
+  }
+
+  private def readValue(): Any = in.readByte().toInt match {
+    case NULL => null
+    case TRUE => true
+    case FALSE => false
+    case BYTE => in.readByte()
+    case SHORT => readSigned().toShort
+    case INT => readSigned().toInt
+    case LONG => readSigned()
+    case FLOAT => in.readFloat()
+    case DOUBLE => in.readDouble()
+    case CHAR => in.readChar()
+    case STRING => readString()
+    case NODE => query.nodeById(readUnsigned())
+    case RELATIONSHIP => query.relationshipById(readUnsigned())
+    case LIST =>
+      val size = readUnsigned().toInt
+      val builder = List.newBuilder[Any]
+      var i = 0
+      while (i < size) {
+        builder += readValue()
+        i += 1
+      }
+      builder.result()
+    case MAP =>
+      val size = readUnsigned().toInt
+      val builder = Map.newBuilder[String, Any]
+      var i = 0
+      while (i < size) {
+        builder += readString() -> readValue()
+        i += 1
+      }
+      builder.result()
+    case tag => throw new IllegalStateException(s"Unknown value tag $tag in spill file $file")
+  }
+
+  private def readString(): String = {
+    val bytes = new Array[Byte](readUnsigned().toInt)
+    in.readFully(bytes)
+    new String(bytes, UTF_8)
+  }
+
+  private def readSigned(): Long = {
+    val value = readUnsigned()
+    (value >>> 1) ^ -(value & 1)
+  }
+
+  private def readUnsigned(): Long = readUnsigned(in.readUnsignedByte())
+
+  private def readUnsigned(firstByte: Int): Long = {
+    var b = firstByte
+    var value = (b & 0x7F).toLong
+    var shift = 7
+    while ((b & 0x80) != 0) {
+      b = in.readUnsignedByte()
+      value |= (b & 0x7FL) << shift
+      shift += 7
+    }
+    value
+  }
+}
@@ -78,6 +78,9 @@ object InternalPlanDescription {
     case class DbHits(value: Long) extends Argument
     case class PageCacheHits(value: Long) extends Argument
     case class PageCacheMisses(value: Long) extends Argument
+    case class PeakMemory(value: Long) extends Argument
+    case class SpilledBytes(value: Long) extends Argument
+    case class SpillFiles(value: Long) extends Argument
     case class ColumnsLeft(value: Seq[String]) extends Argument
     case class Expression(value: ast.Expression) extends Argument
     case class Expressions(expressions: Map[String, ast.Expression]) extends Argument
@@ -211,6 +214,9 @@ final case class CompactedPlanDescription(similar: Seq[InternalPlanDescription])
     var dbHits: Option[Long] = None
     var pageCacheHits: Option[Long] = None
     var pageCacheMisses: Option[Long] = None
+    var peakMemory: Option[Long] = None
+    var spilledBytes: Option[Long] = None
+    var spillFiles: Option[Long] = None
     var time: Option[Long] = None
     var rows: Option[Long] = None
 
@@ -220,12 +226,16 @@ final case class CompactedPlanDescription(similar: Seq[InternalPlanDescription])
           case DbHits(v) => dbHits = Some(dbHits.map(_ + v).getOrElse(v)); false
           case PageCacheHits(v) => pageCacheHits = Some(pageCacheHits.map(_ + v).getOrElse(v)); false
           case PageCacheMisses(v) => pageCacheMisses = Some(pageCacheMisses.map(_ + v).getOrElse(v)); false
+          case PeakMemory(v) => peakMemory = Some(peakMemory.map(o => Math.max(o, v)).getOrElse(v)); false
+          case SpilledBytes(v) => spilledBytes = Some(spilledBytes.map(_ + v).getOrElse(v)); false
+          case SpillFiles(v) => spillFiles = Some(spillFiles.map(_ + v).getOrElse(v)); false
           case Time(v) => time = Some(time.map(_ + v).getOrElse(v)); false
           case Rows(v) => rows = Some(rows.map(o => Math.max(o, v)).getOrElse(v)); false
           case _ => true
         }
         acc ++ args
-    }.toIndexedSeq ++ dbHits.map(DbHits.apply) ++ pageCacheHits.map(PageCacheHits.apply) ++ pageCacheMisses.map(PageCacheMisses.apply) ++ time.map(Time.apply) ++ rows.map(Rows.apply)
+    }.toIndexedSeq ++ dbHits.map(DbHits.apply) ++ pageCacheHits.map(PageCacheHits.apply) ++ pageCacheMisses.map(PageCacheMisses.apply) ++
+      peakMemory.map(PeakMemory.apply) ++ spilledBytes.map(SpilledBytes.apply) ++ spillFiles.map(SpillFiles.apply) ++ time.map(Time.apply) ++ rows.map(Rows.apply)
   }
 
   override def find(name: String): Seq[InternalPlanDescription] = similar.last.find(name)
@@ -48,6 +48,9 @@ object PlanDescriptionArgumentSerializer {
       case DbHits(value) => Long.box(value)
       case PageCacheHits(value) => Long.box(value)
       case PageCacheMisses(value) => Long.box(value)
+      case PeakMemory(value) => Long.box(value)
+      case SpilledBytes(value) => Long.box(value)
+      case SpillFiles(value) => Long.box(value)
       case _: EntityByIdRhs => arg.toString
       case Rows(value) => Long.box(value)
       case Time(value) => Long.box(value)
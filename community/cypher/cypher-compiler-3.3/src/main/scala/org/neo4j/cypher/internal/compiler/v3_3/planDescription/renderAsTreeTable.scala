@@ -31,11 +31,15 @@ object renderAsTreeTable extends (InternalPlanDescription => String) {
   private val HITS = "DB Hits"
   private val PAGE_CACHE_HITS = "Page Cache Hits"
   private val PAGE_CACHE_MISSES = "Page Cache Misses"
+  private val PEAK_MEMORY = "Memory (Bytes)"
+  private val SPILLED_BYTES = "Spilled Bytes"
+  private val SPILL_FILES = "Spill Files"
   private val TIME = "Time (ms)"
   val VARIABLES = "Variables"
   val MAX_VARIABLE_COLUMN_WIDTH = 100
   private val OTHER = "Other"
-  private val HEADERS = Seq(OPERATOR, ESTIMATED_ROWS, ROWS, HITS, PAGE_CACHE_HITS, PAGE_CACHE_MISSES, TIME, VARIABLES, OTHER)
+  private val HEADERS = Seq(OPERATOR, ESTIMATED_ROWS, ROWS, HITS, PAGE_CACHE_HITS, PAGE_CACHE_MISSES, PEAK_MEMORY, SPILLED_BYTES, SPILL_FILES, TIME,
+    VARIABLES, OTHER)
   private val newLine = System.lineSeparator()
 
   def apply(plan: InternalPlanDescription): String = {
@@ -134,6 +138,9 @@ object renderAsTreeTable extends (InternalPlanDescription => String) {
     case DbHits(count) => mapping(HITS, Right(count.toString))
     case PageCacheHits(count) => mapping(PAGE_CACHE_HITS, Right(count.toString))
     case PageCacheMisses(count) => mapping(PAGE_CACHE_MISSES, Right(count.toString))
+    case PeakMemory(bytes) => mapping(PEAK_MEMORY, Right(bytes.toString))
+    case SpilledBytes(count) => mapping(SPILLED_BYTES, Right(count.toString))
+    case SpillFiles(count) => mapping(SPILL_FILES, Right(count.toString))
     case Time(nanos) => mapping(TIME, Right("%.3f".format(nanos/1000000.0)))
     case _ => None
   }.toMap + (
@@ -154,6 +161,9 @@ object renderAsTreeTable extends (InternalPlanDescription => String) {
         !x.isInstanceOf[DbHits] &&
         !x.isInstanceOf[PageCacheHits] &&
         !x.isInstanceOf[PageCacheMisses] &&
+        !x.isInstanceOf[PeakMemory] &&
+        !x.isInstanceOf[SpilledBytes] &&
+        !x.isInstanceOf[SpillFiles] &&
         !x.isInstanceOf[EstimatedRows] &&
         !x.isInstanceOf[Planner] &&
         !x.isInstanceOf[PlannerImpl] &&
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.planner.execution
+
+import org.neo4j.cypher.internal.compiler.v3_3.parallel.{ParallelSegment, WorkerPool}
+import org.neo4j.cypher.internal.compiler.v3_3.parallel.pipes.{GatherPipe, MorselPipe}
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.{Pipe, PipeMonitor}
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_3.planner.logical.plans._
+import org.neo4j.cypher.internal.compiler.v3_3.spi.PlanContext
+import org.neo4j.cypher.internal.frontend.v3_3.phases.Monitors
+
+class ParallelPipeBuilderFactory(segment: ParallelSegment, workerPool: WorkerPool, maxWorkers: Int, morselSize: Int)
+  extends PipeBuilderFactory {
+  override def apply(monitors: Monitors, recurse: LogicalPlan => Pipe, readOnly: Boolean, idMap: Map[LogicalPlan, Id])
+                    (implicit context: PipeExecutionBuilderContext, planContext: PlanContext): PipeBuilder =
+    ParallelPipeBuilder(ActualPipeBuilder(monitors, recurse, readOnly, idMap), segment, workerPool, maxWorkers, morselSize,
+                        monitors, idMap)
+}
+
+/**
+ * Builds the usual pipes, except that the scan at the bottom of the parallel segment is replaced by a [[MorselPipe]],
+ * and the top of the segment is wrapped in a [[GatherPipe]] that runs the segment on worker threads. The gather takes
+ * over the id of the top plan, so that rows are reported for it when profiling.
+ */
+case class ParallelPipeBuilder(fallback: ActualPipeBuilder, segment: ParallelSegment, workerPool: WorkerPool,
+                               maxWorkers: Int, morselSize: Int, monitors: Monitors, idMap: Map[LogicalPlan, Id])
+                              (implicit context: PipeExecutionBuilderContext, planContext: PlanContext)
+  extends PipeBuilder {
+
+  implicit private val monitor = monitors.newMonitor[PipeMonitor]()
+
+  override def build(plan: LogicalPlan): Pipe =
+    if (plan eq segment.leaf)
+      MorselPipe()()
+    else
+      fallback.build(plan)
+
+  override def build(plan: LogicalPlan, source: Pipe): Pipe = (plan, segment.leaf) match {
+    case (top, leaf: NodeLogicalLeafPlan) if top eq segment.top =>
+      val pipeline = fallback.copy(idMap = idMap - top).build(top, source)
+      GatherPipe(fallback.build(leaf), leaf.idName.name, pipeline, workerPool, maxWorkers, morselSize)(
+        id = idMap.getOrElse(top, new Id))
+
+    case _ =>
+      fallback.build(plan, source)
+  }
+
+  override def build(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe =
+    fallback.build(plan, lhs, rhs)
+}
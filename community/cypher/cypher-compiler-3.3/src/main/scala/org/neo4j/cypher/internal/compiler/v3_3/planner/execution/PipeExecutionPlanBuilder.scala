@@ -26,7 +26,7 @@ import org.neo4j.cypher.internal.compiler.v3_3.ast.convert.commands.ExpressionCo
 import org.neo4j.cypher.internal.compiler.v3_3.ast.convert.commands.PatternConverters._
 import org.neo4j.cypher.internal.compiler.v3_3.ast.convert.commands.StatementConverters
 import org.neo4j.cypher.internal.compiler.v3_3.commands.EntityProducerFactory
-import org.neo4j.cypher.internal.compiler.v3_3.commands.expressions.{AggregationExpression, Literal, Expression => CommandExpression}
+import org.neo4j.cypher.internal.compiler.v3_3.commands.expressions.{AggregationExpression, Literal, Expression => CommandExpression, Variable => CommandVariable}
 import org.neo4j.cypher.internal.compiler.v3_3.commands.predicates.{True, _}
 import org.neo4j.cypher.internal.compiler.v3_3.executionplan._
 import org.neo4j.cypher.internal.compiler.v3_3.executionplan.builders.prepare.KeyTokenResolver
@@ -239,7 +239,18 @@ case class ActualPipeBuilder(monitors: Monitors, recurse: LogicalPlan => Pipe, r
     val id = idMap.getOrElse(plan, new Id)
     plan match {
       case Projection(_, expressions) =>
-        ProjectionPipe(source, Eagerly.immutableMapValues(expressions, buildExpression))(id = id)
+        source match {
+          // Read the projected property of the seeked node from the index, rather than from the property store
+          case seek@NodeIndexSeekPipe(ident, _, Seq(propertyKey), _, indexMode, None)
+            if readOnly && indexMode.providesValues && expressions.values.exists(isProperty(ident, propertyKey.name)) =>
+            val valueKey = s"  INDEXED $ident.${propertyKey.name}"
+            val commandExpressions = Eagerly.immutableMapValues(expressions, (expression: Expression) =>
+              if (isProperty(ident, propertyKey.name)(expression)) CommandVariable(valueKey) else buildExpression(expression))
+            ProjectionPipe(seek.copy(indexedValueKey = Some(valueKey))(id = seek.id), commandExpressions)(id = id)
+
+          case _ =>
+            ProjectionPipe(source, Eagerly.immutableMapValues(expressions, buildExpression))(id = id)
+        }
 
       case ProjectEndpoints(_, rel, start, startInScope, end, endInScope, types, directed, length) =>
         ProjectEndpointsPipe(source, rel.name,
@@ -532,7 +543,12 @@ case class ActualPipeBuilder(monitors: Monitors, recurse: LogicalPlan => Pipe, r
     override def apply(that: AnyRef): AnyRef = instance.apply(that)
   }
 
-  private def buildExpression(expr: ast.Expression)(implicit planContext: PlanContext): CommandExpression = {
+  private def isProperty(variable: String, propertyKey: String)(expression: Expression): Boolean = expression match {
+    case Property(Variable(`variable`), PropertyKeyName(`propertyKey`)) => true
+    case _ => false
+  }
+
+  private[execution] def buildExpression(expr: ast.Expression)(implicit planContext: PlanContext): CommandExpression = {
     val rewrittenExpr = expr.endoRewrite(buildPipeExpressions) // TODO
 
     toCommandExpression(rewrittenExpr).rewrite(resolver.resolveExpressions(_, planContext))
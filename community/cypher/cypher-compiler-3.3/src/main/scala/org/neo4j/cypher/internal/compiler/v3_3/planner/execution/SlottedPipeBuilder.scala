@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.planner.execution
+
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.{LazyLabel, LazyTypes, Pipe, PipeMonitor}
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_3.planner.logical.plans._
+import org.neo4j.cypher.internal.compiler.v3_3.slotted.pipes._
+import org.neo4j.cypher.internal.compiler.v3_3.slotted.{PipelineInformation, RefSlot}
+import org.neo4j.cypher.internal.compiler.v3_3.spi.PlanContext
+import org.neo4j.cypher.internal.frontend.v3_3.SemanticTable
+import org.neo4j.cypher.internal.frontend.v3_3.phases.Monitors
+import org.neo4j.cypher.internal.ir.v3_3.IdName
+
+class SlottedPipeBuilderFactory(pipeline: PipelineInformation) extends PipeBuilderFactory {
+  override def apply(monitors: Monitors, recurse: LogicalPlan => Pipe, readOnly: Boolean, idMap: Map[LogicalPlan, Id])
+                    (implicit context: PipeExecutionBuilderContext, planContext: PlanContext): PipeBuilder =
+    SlottedPipeBuilder(ActualPipeBuilder(monitors, recurse, readOnly, idMap), pipeline, monitors, idMap)
+}
+
+/**
+ * Builds pipes that read and write rows by slot offset, as laid out by the given pipeline. Operators that simply pass
+ * rows along, such as Selection, Skip and Limit, are handed to the map based pipe builder.
+ */
+case class SlottedPipeBuilder(fallback: ActualPipeBuilder, pipeline: PipelineInformation, monitors: Monitors,
+                              idMap: Map[LogicalPlan, Id])
+                             (implicit context: PipeExecutionBuilderContext, planContext: PlanContext)
+  extends PipeBuilder {
+
+  implicit private val monitor = monitors.newMonitor[PipeMonitor]()
+  implicit private val table: SemanticTable = context.semanticTable
+
+  override def build(plan: LogicalPlan): Pipe = {
+    val id = idMap.getOrElse(plan, new Id)
+    plan match {
+      case AllNodesScan(IdName(ident), _) =>
+        AllNodesScanSlottedPipe(ident, pipeline)(id = id)
+
+      case NodeByLabelScan(IdName(ident), label, _) =>
+        NodesByLabelScanSlottedPipe(ident, LazyLabel(label), pipeline)(id = id)
+
+      case _ =>
+        fallback.build(plan)
+    }
+  }
+
+  override def build(plan: LogicalPlan, source: Pipe): Pipe = {
+    val id = idMap.getOrElse(plan, new Id)
+    plan match {
+      case Projection(_, expressions) =>
+        val expressionsByOffset = expressions.collect {
+          case (name, expression) if pipeline(name).isInstanceOf[RefSlot] =>
+            pipeline(name).offset -> fallback.buildExpression(expression)
+        }
+        ProjectionSlottedPipe(source, expressionsByOffset)(id = id)
+
+      case Expand(_, IdName(from), dir, types, IdName(to), IdName(relName), ExpandAll) =>
+        ExpandAllSlottedPipe(source, pipeline.getLongOffsetFor(from), pipeline.getLongOffsetFor(relName),
+                             pipeline.getLongOffsetFor(to), dir, LazyTypes(types))(id = id)
+
+      case ProduceResult(columns, _) =>
+        ProduceResultsSlottedPipe(source, columns.map(column => column -> pipeline(column)))(id = id)
+
+      case _ =>
+        fallback.build(plan, source)
+    }
+  }
+
+  override def build(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe =
+    fallback.build(plan, lhs, rhs)
+}
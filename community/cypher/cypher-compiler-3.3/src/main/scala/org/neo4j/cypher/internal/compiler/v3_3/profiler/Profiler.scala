@@ -20,7 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v3_3.profiler
 
 import org.neo4j.cypher.internal.compiler.v3_3._
-import org.neo4j.cypher.internal.compiler.v3_3.pipes.{Pipe, PipeDecorator, QueryState}
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.{Pipe, PipeDecorator, QueryMemoryTracker, QueryState}
 import org.neo4j.cypher.internal.compiler.v3_3.planDescription.InternalPlanDescription.Arguments
 import org.neo4j.cypher.internal.compiler.v3_3.planDescription.{Id, InternalPlanDescription}
 import org.neo4j.cypher.internal.compiler.v3_3.spi._
@@ -37,6 +37,7 @@ class Profiler(databaseInfo: DatabaseInfo = DatabaseInfo.COMMUNITY) extends Pipe
   val dbHitsStats: mutable.Map[Id, ProfilingPipeQueryContext] = mutable.Map.empty
   val rowStats: mutable.Map[Id, ProfilingIterator] = mutable.Map.empty
   private var parentPipe: Option[Pipe] = None
+  private var memoryTracker: Option[QueryMemoryTracker] = None
 
 
   def decorate(pipe: Pipe, iter: Iterator[ExecutionContext]): Iterator[ExecutionContext] = {
@@ -50,6 +51,7 @@ class Profiler(databaseInfo: DatabaseInfo = DatabaseInfo.COMMUNITY) extends Pipe
   }
 
   def decorate(pipe: Pipe, state: QueryState): QueryState = {
+    memoryTracker = Some(state.memoryTracker)
     val decoratedContext = dbHitsStats.getOrElseUpdate(pipe.id, state.query match {
       case p: ProfilingPipeQueryContext => new ProfilingPipeQueryContext(p.inner, pipe)
       case _ => new ProfilingPipeQueryContext(state.query, pipe)
@@ -83,11 +85,22 @@ class Profiler(databaseInfo: DatabaseInfo = DatabaseInfo.COMMUNITY) extends Pipe
         val dbHits = dbHitsStats.get(input.id).map(_.count).getOrElse(0L)
         val pageCacheStatistic: (Long, Long) = pageCacheStats.getOrElse(input.id, (0, 0))
 
-        input
+        val profiled = input
           .addArgument(Arguments.Rows(rows))
           .addArgument(Arguments.DbHits(dbHits))
           .addArgument(Arguments.PageCacheHits(pageCacheStatistic._1))
           .addArgument(Arguments.PageCacheMisses(pageCacheStatistic._2))
+
+        memoryTracker.flatMap(_.statisticsOf(input.id)) match {
+          case Some(memory) if memory.spillFiles > 0 =>
+            profiled
+              .addArgument(Arguments.PeakMemory(memory.peakMemory))
+              .addArgument(Arguments.SpilledBytes(memory.spilledBytes))
+              .addArgument(Arguments.SpillFiles(memory.spillFiles))
+          case Some(memory) =>
+            profiled.addArgument(Arguments.PeakMemory(memory.peakMemory))
+          case None => profiled
+        }
     }
   }
 
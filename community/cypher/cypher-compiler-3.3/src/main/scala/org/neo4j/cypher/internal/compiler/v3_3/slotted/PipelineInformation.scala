@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.slotted
+
+import org.neo4j.cypher.internal.frontend.v3_3.InternalException
+import org.neo4j.cypher.internal.frontend.v3_3.symbols.CypherType
+
+/*
+A pipeline describes the layout of the rows flowing through a slotted plan. Every variable is given a fixed offset,
+either in the primitive long array (node and relationship ids) or in the reference array (any other value).
+ */
+case class PipelineInformation(slots: Map[String, Slot], numberOfLongs: Int, numberOfReferences: Int) {
+
+  def get(name: String): Option[Slot] = slots.get(name)
+
+  def apply(name: String): Slot =
+    slots.getOrElse(name, throw new InternalException(s"Variable `$name` has not been given a slot"))
+
+  def getLongOffsetFor(name: String): Int = apply(name) match {
+    case LongSlot(offset, _) => offset
+    case slot => throw new InternalException(s"Expected `$name` to be a long slot but was $slot")
+  }
+
+  def getReferenceOffsetFor(name: String): Int = apply(name) match {
+    case RefSlot(offset) => offset
+    case slot => throw new InternalException(s"Expected `$name` to be a reference slot but was $slot")
+  }
+
+  def newLong(name: String, typ: CypherType): PipelineInformation = {
+    assertNotAllocated(name)
+    copy(slots = slots + (name -> LongSlot(numberOfLongs, typ)), numberOfLongs = numberOfLongs + 1)
+  }
+
+  def newReference(name: String): PipelineInformation = {
+    assertNotAllocated(name)
+    copy(slots = slots + (name -> RefSlot(numberOfReferences)), numberOfReferences = numberOfReferences + 1)
+  }
+
+  private def assertNotAllocated(name: String): Unit =
+    if (slots.contains(name))
+      throw new InternalException(s"Variable `$name` has already been given a slot")
+}
+
+object PipelineInformation {
+  val empty = PipelineInformation(Map.empty, 0, 0)
+}
+
+sealed trait Slot {
+  def offset: Int
+}
+
+case class LongSlot(offset: Int, typ: CypherType) extends Slot
+
+case class RefSlot(offset: Int) extends Slot
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.slotted
+
+import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.MutableMaps
+import org.neo4j.cypher.internal.compiler.v3_3.spi.QueryContext
+import org.neo4j.cypher.internal.frontend.v3_3.symbols.{CTNode, CTRelationship, CypherType}
+import org.neo4j.graphdb.{Node, Relationship}
+
+import scala.collection.mutable.{Map => MutableMap}
+import scala.collection.{Iterator, immutable}
+
+object PrimitiveExecutionContext {
+  val NULL: Long = -1L
+
+  def apply(pipeline: PipelineInformation, query: QueryContext): PrimitiveExecutionContext = {
+    val longs = new Array[Long](pipeline.numberOfLongs)
+    java.util.Arrays.fill(longs, NULL)
+    new PrimitiveExecutionContext(pipeline, query, longs, new Array[Any](pipeline.numberOfReferences), null)
+  }
+}
+
+/*
+A row backed by a primitive long array holding node and relationship ids, and a reference array for all other values.
+Slotted pipes read and write by offset. Access by name is still supported so that the command expressions, and the
+map based pipes that are reused as is, keep working: entity ids are turned into proxies when read by name, and values
+for names without a slot of a fitting type (e.g. variables introduced inside list comprehensions) are kept in a
+small overflow map.
+ */
+class PrimitiveExecutionContext private(val pipeline: PipelineInformation,
+                                        query: QueryContext,
+                                        longs: Array[Long],
+                                        refs: Array[Any],
+                                        private var overflow: MutableMap[String, Any])
+  extends ExecutionContext(null) {
+
+  import PrimitiveExecutionContext.NULL
+
+  def getLongAt(offset: Int): Long = longs(offset)
+
+  def setLongAt(offset: Int, value: Long): Unit = longs(offset) = value
+
+  def getRefAt(offset: Int): Any = refs(offset)
+
+  def setRefAt(offset: Int, value: Any): Unit = refs(offset) = value
+
+  def copyRow(): PrimitiveExecutionContext =
+    new PrimitiveExecutionContext(pipeline, query, longs.clone(), refs.clone(),
+                                  if (overflow == null) null else overflow.clone())
+
+  def entityAt(offset: Int, typ: CypherType): Any = {
+    val id = longs(offset)
+    if (id == NULL) null
+    else if (typ == CTNode) query.nodeById(id)
+    else query.relationshipById(id)
+  }
+
+  override def get(key: String): Option[Any] = overflowValue(key) match {
+    case None => pipeline.get(key).map(valueOf)
+    case value => value
+  }
+
+  override def iterator: Iterator[(String, Any)] = {
+    val slotted = pipeline.slots.iterator.collect {
+      case (key, slot) if overflowValue(key).isEmpty => key -> valueOf(slot)
+    }
+    if (overflow == null) slotted else slotted ++ overflow.iterator
+  }
+
+  override def size: Int =
+    if (overflow == null) pipeline.slots.size
+    else pipeline.slots.size + overflow.keys.count(key => !pipeline.slots.contains(key))
+
+  override def ++(other: ExecutionContext): ExecutionContext = ExecutionContext(MutableMaps.create(this) ++= other)
+
+  override def foreach[U](f: ((String, Any)) => U): Unit = iterator.foreach(f)
+
+  override def +=(kv: (String, Any)): this.type = {
+    set(kv._1, kv._2)
+    this
+  }
+
+  override def -=(key: String): this.type = {
+    if (overflow != null)
+      overflow -= key
+    pipeline.get(key) match {
+      case Some(LongSlot(offset, _)) => longs(offset) = NULL
+      case Some(RefSlot(offset)) => refs(offset) = null
+      case None =>
+    }
+    this
+  }
+
+  override def toMap[T, U](implicit ev: (String, Any) <:< (T, U)): immutable.Map[T, U] = iterator.toMap(ev)
+
+  override def newWith(newEntries: Seq[(String, Any)]): ExecutionContext = copyRow() ++= newEntries
+
+  override def newWith(newEntries: scala.collection.Map[String, Any]): ExecutionContext = copyRow() ++= newEntries
+
+  override def newWith(newEntry: (String, Any)): ExecutionContext = copyRow() += newEntry
+
+  override def newWith1(key1: String, value1: Any): ExecutionContext = {
+    val row = copyRow()
+    row.set(key1, value1)
+    row
+  }
+
+  override def newWith2(key1: String, value1: Any, key2: String, value2: Any): ExecutionContext = {
+    val row = copyRow()
+    row.set(key1, value1)
+    row.set(key2, value2)
+    row
+  }
+
+  override def newWith3(key1: String, value1: Any, key2: String, value2: Any, key3: String, value3: Any): ExecutionContext = {
+    val row = copyRow()
+    row.set(key1, value1)
+    row.set(key2, value2)
+    row.set(key3, value3)
+    row
+  }
+
+  override def clone(): ExecutionContext = copyRow()
+
+  private def set(key: String, value: Any): Unit = pipeline.get(key) match {
+    case Some(LongSlot(offset, typ)) => value match {
+      case n: Node if typ == CTNode => setEntity(key, offset, n.getId)
+      case r: Relationship if typ == CTRelationship => setEntity(key, offset, r.getId)
+      case null => setEntity(key, offset, NULL)
+      case _ => setOverflow(key, value)
+    }
+
+    case Some(RefSlot(offset)) =>
+      refs(offset) = value
+      clearOverflow(key)
+
+    case None =>
+      setOverflow(key, value)
+  }
+
+  private def setEntity(key: String, offset: Int, id: Long): Unit = {
+    longs(offset) = id
+    clearOverflow(key)
+  }
+
+  private def setOverflow(key: String, value: Any): Unit = {
+    if (overflow == null)
+      overflow = MutableMaps.create(4)
+    overflow.put(key, value)
+  }
+
+  private def clearOverflow(key: String): Unit =
+    if (overflow != null)
+      overflow -= key
+
+  private def overflowValue(key: String): Option[Any] =
+    if (overflow == null) None else overflow.get(key)
+
+  private def valueOf(slot: Slot): Any = slot match {
+    case LongSlot(offset, typ) => entityAt(offset, typ)
+    case RefSlot(offset) => refs(offset)
+  }
+}
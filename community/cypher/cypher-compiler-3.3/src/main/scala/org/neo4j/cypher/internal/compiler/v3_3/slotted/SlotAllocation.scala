@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.slotted
+
+import org.neo4j.cypher.internal.compiler.v3_3.ast.NestedPlanExpression
+import org.neo4j.cypher.internal.compiler.v3_3.planner.logical.plans._
+import org.neo4j.cypher.internal.frontend.v3_3.Foldable._
+import org.neo4j.cypher.internal.frontend.v3_3.ast.{Expression, Variable}
+import org.neo4j.cypher.internal.frontend.v3_3.symbols.{CTNode, CTRelationship}
+import org.neo4j.cypher.internal.ir.v3_3.IdName
+
+/*
+Assigns every variable introduced by a logical plan a slot in the row layout. Only linear plans built from the
+operators the slotted pipes know about are supported; for anything else no pipeline is returned and the caller is
+expected to fall back to the map based runtime for the whole plan.
+ */
+object SlotAllocation {
+
+  def allocate(plan: LogicalPlan): Option[PipelineInformation] =
+    if (plan.treeExists { case _: NestedPlanExpression => true })
+      None
+    else
+      allocateFor(plan)
+
+  private def allocateFor(plan: LogicalPlan): Option[PipelineInformation] = plan match {
+    case AllNodesScan(IdName(name), argumentIds) if argumentIds.isEmpty =>
+      Some(PipelineInformation.empty.newLong(name, CTNode))
+
+    case NodeByLabelScan(IdName(name), _, argumentIds) if argumentIds.isEmpty =>
+      Some(PipelineInformation.empty.newLong(name, CTNode))
+
+    case Expand(source, _, _, _, IdName(to), IdName(relName), ExpandAll) =>
+      allocateFor(source).collect {
+        case pipeline if !pipeline.slots.contains(to) && !pipeline.slots.contains(relName) =>
+          pipeline.newLong(relName, CTRelationship).newLong(to, CTNode)
+      }
+
+    case Projection(source, expressions) =>
+      expressions.foldLeft(allocateFor(source)) {
+        case (maybePipeline, (name, expression)) => maybePipeline.flatMap(allocateProjection(_, name, expression))
+      }
+
+    case Selection(_, source) =>
+      allocateFor(source)
+
+    case Skip(source, _) =>
+      allocateFor(source)
+
+    case Limit(source, _, DoNotIncludeTies) =>
+      allocateFor(source)
+
+    case ProduceResult(_, source) =>
+      allocateFor(source)
+
+    case _ =>
+      None
+  }
+
+  private def allocateProjection(pipeline: PipelineInformation, name: String, expression: Expression) =
+    pipeline.get(name) match {
+      case None => Some(pipeline.newReference(name))
+      case Some(_: RefSlot) => Some(pipeline)
+      case Some(_: LongSlot) if isVariable(expression, name) => Some(pipeline)
+      case Some(_: LongSlot) => None
+    }
+
+  private def isVariable(expression: Expression, name: String) = expression match {
+    case Variable(variableName) => variableName == name
+    case _ => false
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.slotted.pipes
+
+import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.{Pipe, PipeMonitor, QueryState}
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_3.slotted.{PipelineInformation, PrimitiveExecutionContext}
+
+case class AllNodesScanSlottedPipe(ident: String, pipeline: PipelineInformation)
+                                  (val id: Id = new Id)
+                                  (implicit pipeMonitor: PipeMonitor) extends Pipe {
+
+  private val offset = pipeline.getLongOffsetFor(ident)
+
+  protected def internalCreateResults(state: QueryState): Iterator[ExecutionContext] =
+    state.query.nodeOps.all.map { n =>
+      val row = PrimitiveExecutionContext(pipeline, state.query)
+      row.setLongAt(offset, n.getId)
+      row
+    }
+
+  override def monitor = pipeMonitor
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.slotted.pipes
+
+import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.{LazyTypes, Pipe, PipeMonitor, PipeWithSource, QueryState}
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_3.slotted.PrimitiveExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.slotted.PrimitiveExecutionContext.NULL
+import org.neo4j.cypher.internal.frontend.v3_3.SemanticDirection
+
+case class ExpandAllSlottedPipe(source: Pipe,
+                                fromOffset: Int,
+                                relOffset: Int,
+                                toOffset: Int,
+                                dir: SemanticDirection,
+                                types: LazyTypes)
+                               (val id: Id = new Id)
+                               (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) {
+
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    input.flatMap {
+      case row: PrimitiveExecutionContext =>
+        val fromId = row.getLongAt(fromOffset)
+        if (fromId == NULL)
+          Iterator.empty
+        else {
+          val fromNode = state.query.nodeById(fromId)
+          state.query.getRelationshipsForIds(fromNode, dir, types.types(state.query)).map { r =>
+            val newRow = row.copyRow()
+            newRow.setLongAt(relOffset, r.getId)
+            newRow.setLongAt(toOffset, r.getOtherNodeId(fromId))
+            newRow
+          }
+        }
+    }
+  }
+
+  def typeNames = types.names
+}
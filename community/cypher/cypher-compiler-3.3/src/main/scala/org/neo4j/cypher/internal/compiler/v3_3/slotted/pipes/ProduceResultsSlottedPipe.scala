@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.slotted.pipes
+
+import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.{MutableMaps, Pipe, PipeMonitor, PipeWithSource, QueryState}
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_3.slotted.{LongSlot, PrimitiveExecutionContext, RefSlot, Slot}
+
+/*
+Turns slotted rows back into the map based rows the result builders expect, materializing node and relationship ids.
+ */
+case class ProduceResultsSlottedPipe(source: Pipe, columns: Seq[(String, Slot)])
+                                    (val id: Id = new Id)
+                                    (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) {
+
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) = {
+    input.map {
+      case row: PrimitiveExecutionContext =>
+        val m = MutableMaps.create(columns.size)
+        columns.foreach {
+          case (name, LongSlot(offset, typ)) => m.put(name, row.entityAt(offset, typ))
+          case (name, RefSlot(offset)) => m.put(name, row.getRefAt(offset))
+        }
+
+        ExecutionContext(m)
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.slotted.pipes
+
+import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.commands.expressions.Expression
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.{Pipe, PipeMonitor, PipeWithSource, QueryState}
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
+import org.neo4j.cypher.internal.compiler.v3_3.slotted.PrimitiveExecutionContext
+
+/*
+Evaluates expressions and stores their values in reference slots of the incoming row, which is modified in place.
+ */
+case class ProjectionSlottedPipe(source: Pipe, expressions: Map[Int, Expression])
+                                (val id: Id = new Id)
+                                (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) {
+
+  expressions.values.foreach(_.registerOwningPipe(this))
+
+  protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState): Iterator[ExecutionContext] = {
+    input.map {
+      case row: PrimitiveExecutionContext =>
+        expressions.foreach {
+          case (offset, expression) =>
+            row.setRefAt(offset, expression(row)(state))
+        }
+
+        row
+    }
+  }
+}
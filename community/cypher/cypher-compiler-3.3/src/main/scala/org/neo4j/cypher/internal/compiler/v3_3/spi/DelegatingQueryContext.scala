@@ -38,7 +38,7 @@ class DelegatingQueryContext(val inner: QueryContext) extends QueryContext {
 
   type EntityAccessor = inner.EntityAccessor
 
-  override def resources: CloseableResource = inner.resources
+  override def resources: QueryResources = inner.resources
 
   override def transactionalContext: QueryTransactionalContext = inner.transactionalContext
 
@@ -70,6 +70,10 @@ class DelegatingQueryContext(val inner: QueryContext) extends QueryContext {
   override def getRelationshipsForIds(node: Node, dir: SemanticDirection, types: Option[Seq[Int]]): Iterator[Relationship] =
   manyDbHits(inner.getRelationshipsForIds(node, dir, types))
 
+  override def nodeById(id: Long): Node = inner.nodeById(id)
+
+  override def relationshipById(id: Long): Relationship = inner.relationshipById(id)
+
   override def nodeOps = inner.nodeOps
 
   override def relationshipOps = inner.relationshipOps
@@ -101,6 +105,12 @@ class DelegatingQueryContext(val inner: QueryContext) extends QueryContext {
   override def indexSeekByRange(index: IndexDescriptor, value: Any): Iterator[Node] =
     manyDbHits(inner.indexSeekByRange(index, value))
 
+  override def indexSeekWithValues(index: IndexDescriptor, values: Seq[Any]): Iterator[(Node, Any)] =
+    manyDbHits(inner.indexSeekWithValues(index, values))
+
+  override def indexSeekByRangeWithValues(index: IndexDescriptor, value: Any): Iterator[(Node, Any)] =
+    manyDbHits(inner.indexSeekByRangeWithValues(index, value))
+
   override def indexScan(index: IndexDescriptor): Iterator[Node] = manyDbHits(inner.indexScan(index))
 
   override def indexScanByContains(index: IndexDescriptor, value: String): scala.Iterator[Node] =
@@ -140,6 +150,10 @@ class DelegatingQueryContext(val inner: QueryContext) extends QueryContext {
 
   override def withAnyOpenQueryContext[T](work: (QueryContext) => T): T = inner.withAnyOpenQueryContext(work)
 
+  override def withWorkerQueryContext[T](work: (QueryContext) => T): T = inner.withWorkerQueryContext(work)
+
+  override def hasTransactionState: Boolean = inner.hasTransactionState
+
   override def lockingUniqueIndexSeek(index: IndexDescriptor, values: Seq[Any]): Option[Node] =
     singleDbHit(inner.lockingUniqueIndexSeek(index, values))
 
@@ -50,7 +50,7 @@ trait QueryContext extends TokenContext {
 
   def entityAccessor: EntityAccessor
 
-  def resources: CloseableResource
+  def resources: QueryResources
 
   def transactionalContext: QueryTransactionalContext
 
@@ -68,6 +68,11 @@ trait QueryContext extends TokenContext {
 
   def getRelationshipsForIds(node: Node, dir: SemanticDirection, types: Option[Seq[Int]]): Iterator[Relationship]
 
+  // Only creates the proxy, without checking that the entity exists
+  def nodeById(id: Long): Node
+
+  def relationshipById(id: Long): Relationship
+
   def getOrCreateLabelId(labelName: String): Int
 
   def getLabelsForNode(node: Long): Iterator[Int]
@@ -92,6 +97,14 @@ trait QueryContext extends TokenContext {
 
   def indexSeekByRange(index: IndexDescriptor, value: Any): Iterator[Node]
 
+  /*
+  The *WithValues variants return the value of the indexed property along with each node, taking it from the index
+  instead of the property store where the index holds it. The index must be on a single property.
+   */
+  def indexSeekWithValues(index: IndexDescriptor, values: Seq[Any]): Iterator[(Node, Any)]
+
+  def indexSeekByRangeWithValues(index: IndexDescriptor, value: Any): Iterator[(Node, Any)]
+
   def indexScanByContains(index: IndexDescriptor, value: String): Iterator[Node]
 
   def indexScanByEndsWith(index: IndexDescriptor, value: String): Iterator[Node]
@@ -133,6 +146,14 @@ trait QueryContext extends TokenContext {
    */
   def withAnyOpenQueryContext[T](work: (QueryContext) => T): T
 
+  /**
+   * Runs the work on the calling thread in a new transaction with the same security context as the current one. The
+   * new transaction does not see changes made by the current transaction.
+   */
+  def withWorkerQueryContext[T](work: (QueryContext) => T): T
+
+  def hasTransactionState: Boolean
+
   def relationshipStartNode(rel: Relationship): Node
 
   def relationshipEndNode(rel: Relationship): Node
@@ -237,3 +258,10 @@ trait CloseableResource {
   def close(success: Boolean)
 }
 
+trait QueryResources extends CloseableResource {
+  /**
+   * Makes sure that the resource is closed when the query is closed.
+   */
+  def trace(resource: AutoCloseable): Unit
+}
+
@@ -26,7 +26,7 @@ import org.neo4j.cypher.internal.compiler.v3_3.helpers.IdentityTypeConverter
 import org.neo4j.cypher.internal.compiler.v3_3.pipes.Pipe
 import org.neo4j.cypher.internal.compiler.v3_3.planner.execution.FakeIdMap
 import org.neo4j.cypher.internal.compiler.v3_3.planner.logical.plans.SingleRow
-import org.neo4j.cypher.internal.compiler.v3_3.spi.{CloseableResource, QueryContext, QueryTransactionalContext}
+import org.neo4j.cypher.internal.compiler.v3_3.spi.{QueryContext, QueryResources, QueryTransactionalContext}
 import org.neo4j.cypher.internal.frontend.v3_3.phases.devNullLogger
 import org.neo4j.cypher.internal.frontend.v3_3.test_helpers.CypherFunSuite
 import org.neo4j.cypher.internal.ir.v3_3.{Cardinality, CardinalityEstimation, PlannerQuery}
@@ -42,10 +42,10 @@ class ExecutionWorkflowBuilderTest extends CypherFunSuite {
     when(pipe.createResults(any())).thenReturn(Iterator.empty)
     val context = mock[QueryContext]
     when(context.transactionalContext).thenReturn(mock[QueryTransactionalContext])
-    when(context.resources).thenReturn(mock[CloseableResource])
+    when(context.resources).thenReturn(mock[QueryResources])
 
     val pipeInfo = PipeInfo(pipe, updating = true, None, None, PlannerName)
-    val builderFactory = DefaultExecutionResultBuilderFactory(pipeInfo, List.empty, IdentityTypeConverter, logicalPlan, new FakeIdMap)
+    val builderFactory = DefaultExecutionResultBuilderFactory(pipeInfo, List.empty, IdentityTypeConverter, logicalPlan, new FakeIdMap, 0)
 
     // WHEN
     val builder = builderFactory.create()
@@ -63,7 +63,7 @@ class ExecutionWorkflowBuilderTest extends CypherFunSuite {
     when(pipe.createResults(any())).thenReturn(Iterator.empty)
     val context = mock[QueryContext]
     val pipeInfo = PipeInfo(pipe, updating = false, None, None, PlannerName)
-    val builderFactory = DefaultExecutionResultBuilderFactory(pipeInfo, List.empty, IdentityTypeConverter, logicalPlan, new FakeIdMap)
+    val builderFactory = DefaultExecutionResultBuilderFactory(pipeInfo, List.empty, IdentityTypeConverter, logicalPlan, new FakeIdMap, 0)
 
     // WHEN
     val builder = builderFactory.create()
@@ -81,9 +81,9 @@ class ExecutionWorkflowBuilderTest extends CypherFunSuite {
     when(pipe.createResults(any())).thenReturn(Iterator.empty)
     val context = mock[QueryContext]
     when(context.transactionalContext).thenReturn(mock[QueryTransactionalContext])
-    when(context.resources).thenReturn(mock[CloseableResource])
+    when(context.resources).thenReturn(mock[QueryResources])
     val pipeInfo = PipeInfo(pipe, updating = false, None, None, PlannerName)
-    val builderFactory = DefaultExecutionResultBuilderFactory(pipeInfo, List.empty, IdentityTypeConverter, logicalPlan, new FakeIdMap)
+    val builderFactory = DefaultExecutionResultBuilderFactory(pipeInfo, List.empty, IdentityTypeConverter, logicalPlan, new FakeIdMap, 0)
 
     // WHEN
     val builder = builderFactory.create()
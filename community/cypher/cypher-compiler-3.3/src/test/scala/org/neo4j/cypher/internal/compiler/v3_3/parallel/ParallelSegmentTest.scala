@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.parallel
+
+import org.neo4j.cypher.internal.compiler.v3_3.planner.LogicalPlanningTestSupport
+import org.neo4j.cypher.internal.compiler.v3_3.planner.logical.plans._
+import org.neo4j.cypher.internal.frontend.v3_3.SemanticDirection
+import org.neo4j.cypher.internal.frontend.v3_3.ast.{CountStar, LabelName}
+import org.neo4j.cypher.internal.frontend.v3_3.test_helpers.CypherFunSuite
+import org.neo4j.cypher.internal.ir.v3_3.IdName
+
+class ParallelSegmentTest extends CypherFunSuite with LogicalPlanningTestSupport {
+
+  test("streaming operators on top of a scan form the segment") {
+    // given
+    val scan = NodeByLabelScan(IdName("x"), LabelName("L")(pos), Set.empty)(solved)
+    val expand = Expand(scan, IdName("x"), SemanticDirection.OUTGOING, Seq.empty, IdName("z"), IdName("r"), ExpandAll)(solved)
+    val selection = Selection(Seq(propEquality("z", "prop", 42)), expand)(solved)
+    val projection = Projection(selection, Map("x" -> varFor("x"), "p" -> prop("z", "prop")))(solved)
+    val plan = ProduceResult(Seq("x", "p"), projection)
+
+    // when
+    val segment = ParallelSegment.find(plan)
+
+    // then
+    segment should equal(Some(ParallelSegment(scan, projection)))
+  }
+
+  test("the segment ends below the lowest boundary") {
+    // given
+    val scan = AllNodesScan(IdName("x"), Set.empty)(solved)
+    val selection = Selection(Seq(propEquality("x", "prop", 42)), scan)(solved)
+    val aggregation = Aggregation(selection, Map.empty, Map("c" -> CountStar()(pos)))(solved)
+    val projection = Projection(aggregation, Map("c" -> varFor("c")))(solved)
+    val plan = ProduceResult(Seq("c"), projection)
+
+    // when
+    val segment = ParallelSegment.find(plan)
+
+    // then
+    segment should equal(Some(ParallelSegment(scan, selection)))
+  }
+
+  test("a scan without streaming operators on top is not parallelized") {
+    // given
+    val scan = AllNodesScan(IdName("x"), Set.empty)(solved)
+    val plan = ProduceResult(Seq("x"), scan)
+
+    // when
+    val segment = ParallelSegment.find(plan)
+
+    // then
+    segment should equal(None)
+  }
+
+  test("plans that are not a single chain are not parallelized") {
+    // given
+    val lhs = AllNodesScan(IdName("x"), Set.empty)(solved)
+    val rhs = AllNodesScan(IdName("y"), Set.empty)(solved)
+    val product = CartesianProduct(lhs, rhs)(solved)
+    val plan = Selection(Seq(propEquality("x", "prop", 42)), product)(solved)
+
+    // when
+    val segment = ParallelSegment.find(plan)
+
+    // then
+    segment should equal(None)
+  }
+}
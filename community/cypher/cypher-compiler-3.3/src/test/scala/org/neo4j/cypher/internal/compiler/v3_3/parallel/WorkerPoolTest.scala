@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.parallel
+
+import java.util.concurrent.{CountDownLatch, ExecutorService, Executors, TimeUnit}
+
+import org.neo4j.cypher.internal.frontend.v3_3.test_helpers.CypherFunSuite
+
+class WorkerPoolTest extends CypherFunSuite {
+
+  private var executor: ExecutorService = _
+
+  override protected def initTest(): Unit = {
+    super.initTest()
+    executor = Executors.newCachedThreadPool()
+  }
+
+  override protected def stopTest(): Unit = {
+    executor.shutdownNow()
+    super.stopTest()
+  }
+
+  test("starts no more workers than there are threads, across all callers") {
+    // given
+    val pool = new WorkerPool(executor, 3)
+    val done = new CountDownLatch(1)
+    val work = () => done.await()
+
+    // when
+    val first = pool.start(2)(work)
+    val second = pool.start(2)(work)
+    val third = pool.start(2)(work)
+
+    // then
+    first should equal(2)
+    second should equal(1)
+    third should equal(0)
+    done.countDown()
+  }
+
+  test("gives threads back when workers finish") {
+    // given
+    val pool = new WorkerPool(executor, 1)
+    val finished = new CountDownLatch(1)
+    pool.start(1)(() => finished.countDown()) should equal(1)
+    finished.await(10, TimeUnit.SECONDS) should equal(true)
+
+    // when
+    var started = 0
+    val deadline = System.currentTimeMillis() + 10000
+    while (started == 0 && System.currentTimeMillis() < deadline)
+      started = pool.start(1)(() => ())
+
+    // then
+    started should equal(1)
+  }
+
+  test("starts no workers once the executor rejects them") {
+    // given
+    val shutDown = Executors.newSingleThreadExecutor()
+    shutDown.shutdown()
+    val pool = new WorkerPool(shutDown, 2)
+
+    // when
+    val started = pool.start(2)(() => ())
+
+    // then
+    started should equal(0)
+  }
+
+  test("the empty pool starts no workers") {
+    WorkerPool.none.start(4)(() => ()) should equal(0)
+  }
+}
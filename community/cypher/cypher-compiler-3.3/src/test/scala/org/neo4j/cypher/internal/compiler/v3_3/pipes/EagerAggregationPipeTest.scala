@@ -143,6 +143,23 @@ class EagerAggregationPipeTest extends CypherFunSuite {
     getResults(aggregationPipe) should equal(List(Map("count(name)" -> 3)))
   }
 
+  test("should aggregate groups that were spilled to disk") {
+    val source = new FakePipe((1 to 1000).map(i => Map[String, Any]("name" -> s"n${i % 300}", "age" -> i)),
+      "name" -> CTString, "age" -> CTInteger)
+    val aggregation = Map("count(*)" -> CountStar(), "max(age)" -> Max(Variable("age")))
+    val aggregationPipe = EagerAggregationPipe(source, createReturnItemsFor("name"), aggregation)()
+    val tracker = new QueryMemoryTracker(5000)
+
+    val result = aggregationPipe.createResults(QueryStateHelper.emptyWith(memoryTracker = tracker)).map(_.m.toMap).toList
+
+    result should contain theSameElementsAs (0 until 300).map { i =>
+      val ages = (1 to 1000).filter(_ % 300 == i)
+      Map[String, Any]("name" -> s"n$i", "count(*)" -> ages.size, "max(age)" -> ages.max)
+    }
+    tracker.statisticsOf(aggregationPipe.id).get.spillFiles should be > 0L
+    tracker.memoryUsed should equal(0)
+  }
+
   private def createSymbolTableFor(name: String): (String, CypherType) = name -> CTNode
 
   private def getResults(p: Pipe) = p.createResults(QueryStateHelper.empty).map(_.m.toMap).toList
@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal.compiler.v3_3.pipes
 
 import org.mockito.Matchers._
 import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.spi.QueryContext
 import org.neo4j.cypher.internal.compiler.v3_3.symbols.SymbolTable
 import org.neo4j.cypher.internal.compiler.v3_3.test_helpers.TestableIterator
 import org.neo4j.cypher.internal.frontend.v3_3.symbols._
@@ -209,6 +210,31 @@ class NodeHashJoinPipeTest extends CypherFunSuite {
     lhsIterator.fetched should equal(0)
   }
 
+  test("should join nodes that were spilled to disk") {
+    // given
+    val nodes = (0 until 200).map(newMockedNode)
+    val query = mock[QueryContext]
+    nodes.zipWithIndex.foreach { case (node, id) => when(query.nodeById(id)).thenReturn(node) }
+    val tracker = new QueryMemoryTracker(3000)
+    val queryState = QueryStateHelper.emptyWith(query = query, memoryTracker = tracker)
+
+    val lhsRows = nodes.map(n => row("b" -> n, "x" -> n.getId))
+    val left = newMockedPipe(SymbolTable(Map("b" -> CTNode)))
+    when(left.createResults(queryState)).thenReturn(lhsRows.iterator)
+
+    val rhsRows = nodes.filter(_.getId % 2 == 0).map(n => row("b" -> n))
+    val right = newMockedPipe(SymbolTable(Map("b" -> CTNode)))
+    when(right.createResults(queryState)).thenReturn(rhsRows.iterator)
+
+    // when
+    val pipe = NodeHashJoinPipe(Set("b"), left, right)()
+    val result = pipe.createResults(queryState).toList
+
+    // then
+    result.map(r => (r("b"), r("x"))) should contain theSameElementsAs nodes.filter(_.getId % 2 == 0).map(n => (n, n.getId))
+    tracker.statisticsOf(pipe.id).get.spillFiles should be > 0L
+  }
+
   private def row(values: (String, Any)*) = ExecutionContext.from(values: _*)
 
   private def newMockedNode(id: Int) = {
@@ -243,6 +243,23 @@ class NodeIndexSeekPipeTest extends CypherFunSuite with AstConstructionTestSuppo
     result.map(_("n")).toList should equal(List(node))
   }
 
+  test("should put the indexed values next to the nodes when asked to") {
+    // given
+    val query = mock[QueryContext]
+    when(query.indexSeekWithValues(any(), any())).thenReturn(Iterator.empty)
+    when(query.indexSeekWithValues(any(), Matchers.eq(Seq(42)))).thenReturn(Iterator(node -> 42, node2 -> 42L))
+    val queryState = QueryStateHelper.emptyWith(query = query)
+
+    // when
+    val pipe = NodeIndexSeekPipe("n", label, propertyKey, SingleQueryExpression(Literal(42)), IndexSeek,
+                                 Some("  INDEXED n.PropertyName"))()
+    val result = pipe.createResults(queryState)
+
+    // then
+    result.map(ctx => (ctx("n"), ctx("  INDEXED n.PropertyName"))).toList should equal(List(node -> 42, node2 -> 42L))
+    verify(query, never()).indexSeek(any(), any())
+  }
+
   private def indexFor(values: (Seq[Any], Iterator[Node])*): QueryContext = {
     val query = mock[QueryContext]
     when(query.indexSeek(any(), any())).thenReturn(Iterator.empty)
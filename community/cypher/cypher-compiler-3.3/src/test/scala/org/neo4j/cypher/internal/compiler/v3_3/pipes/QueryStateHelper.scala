@@ -29,7 +29,9 @@ object QueryStateHelper {
 
   def emptyWith(query: QueryContext = null, resources: ExternalCSVResource = null,
                 params: Map[String, Any] = Map.empty, decorator: PipeDecorator = NullPipeDecorator,
-                initialContext: Option[ExecutionContext] = None) =
+                initialContext: Option[ExecutionContext] = None,
+                memoryTracker: QueryMemoryTracker = QueryMemoryTracker.unbounded) =
     new QueryState(query = query, resources = resources, params = params, decorator = decorator,
-      initialContext = initialContext, triadicState = mutable.Map.empty, repeatableReads = mutable.Map.empty)
+      initialContext = initialContext, triadicState = mutable.Map.empty, repeatableReads = mutable.Map.empty,
+      memoryTracker = memoryTracker)
 }
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v3_3.pipes
 
 import org.junit.Assert._
+import org.neo4j.cypher.internal.compiler.v3_3.pipes.spill.ExternalSort
 import org.neo4j.cypher.internal.frontend.v3_3.symbols._
 import org.neo4j.cypher.internal.frontend.v3_3.test_helpers.CypherFunSuite
 import org.scalatest.mock.MockitoSugar
@@ -91,4 +92,56 @@ class SortPipeTest extends CypherFunSuite with MockitoSugar {
       MutableMap("y" -> 2),
       MutableMap("y" -> null)), sortPipe.createResults(QueryStateHelper.empty).toList)
   }
+
+  test("should spill to disk when over the memory budget and still sort correctly") {
+    val values = scala.util.Random.shuffle((1 to 1000).toList)
+    val source = new FakePipe(values.map(v => MutableMap[String, Any]("x" -> v, "y" -> s"value$v")), "x" -> CTNumber, "y" -> CTString)
+    val sortPipe = new SortPipe(source, List(Ascending("x")))()
+    val tracker = new QueryMemoryTracker(10000)
+
+    val result = sortPipe.createResults(QueryStateHelper.emptyWith(memoryTracker = tracker)).toList
+
+    result should equal((1 to 1000).map(v => MutableMap[String, Any]("x" -> v, "y" -> s"value$v")))
+    val statistics = tracker.statisticsOf(sortPipe.id).get
+    statistics.spillFiles should be > 1L
+    statistics.spilledBytes should be > 0L
+    tracker.memoryUsed should equal(0)
+  }
+
+  test("should keep equal rows in input order when spilling") {
+    val rows = (1 to 500).map(i => MutableMap[String, Any]("x" -> i % 3, "i" -> i))
+    val source = new FakePipe(rows, "x" -> CTNumber, "i" -> CTNumber)
+    val sortPipe = new SortPipe(source, List(Descending("x")))()
+
+    val result = sortPipe.createResults(QueryStateHelper.emptyWith(memoryTracker = new QueryMemoryTracker(2000))).toList
+
+    result should equal(rows.sortBy(row => -row("x").asInstanceOf[Int]))
+  }
+
+  test("should merge spill files in several passes when there are many runs") {
+    val values = scala.util.Random.shuffle((1 to 2000).toList)
+    val source = new FakePipe(values.map(v => MutableMap[String, Any]("x" -> v.toLong)), "x" -> CTNumber)
+    val sortPipe = new SortPipe(source, List(Descending("x")))()
+    val tracker = new QueryMemoryTracker(500)
+
+    val result = sortPipe.createResults(QueryStateHelper.emptyWith(memoryTracker = tracker)).toList
+
+    result.map(_("x")) should equal((1 to 2000).reverse.map(_.toLong))
+    tracker.statisticsOf(sortPipe.id).get.spillFiles should be > ExternalSort.DEFAULT_MAX_MERGE_WIDTH.toLong
+  }
+
+  test("should sort in memory when a row can not be spilled") {
+    val list: Seq[MutableMap[String, Any]] = List(
+      MutableMap("x" -> 3, "a" -> Array(1, 2)),
+      MutableMap("x" -> 1, "a" -> Array(3)),
+      MutableMap("x" -> 2, "a" -> Array(4)))
+    val source = new FakePipe(list, "x" -> CTNumber, "a" -> CTList(CTNumber))
+    val sortPipe = new SortPipe(source, List(Ascending("x")))()
+    val tracker = new QueryMemoryTracker(1)
+
+    val result = sortPipe.createResults(QueryStateHelper.emptyWith(memoryTracker = tracker)).toList
+
+    result.map(_("x")) should equal(List(1, 2, 3))
+    tracker.statisticsOf(sortPipe.id).map(_.spillFiles).getOrElse(0L) should equal(0)
+  }
 }
@@ -180,6 +180,28 @@ class ValueHashJoinPipeTest extends CypherFunSuite {
   }
 
 
+  test("should partition both sides to disk when over the memory budget") {
+    // given
+    val tracker = new QueryMemoryTracker(2000)
+    val queryState = QueryStateHelper.emptyWith(memoryTracker = tracker)
+
+    val left = newMockedPipe(SymbolTable(Map("a" -> CTInteger)))
+    when(left.createResults(queryState)).thenReturn((1 to 500).map(i => row("a" -> i % 250, "x" -> i)).iterator)
+
+    val right = newMockedPipe(SymbolTable(Map("b" -> CTInteger)))
+    when(right.createResults(queryState)).thenReturn((0 until 100).map(i => row("b" -> i, "y" -> s"y$i")).iterator)
+
+    // when
+    val pipe = ValueHashJoinPipe(Variable("a"), Variable("b"), left, right)()
+    val result = pipe.createResults(queryState).toList
+
+    // then
+    val expected = for (x <- 1 to 500 if x % 250 < 100) yield Map[String, Any]("a" -> x % 250, "x" -> x, "b" -> x % 250, "y" -> s"y${x % 250}")
+    result.map(_.toMap) should contain theSameElementsAs expected
+    tracker.statisticsOf(pipe.id).get.spillFiles should be > 0L
+    tracker.memoryUsed should equal(0)
+  }
+
   private def row(values: (String, Any)*) = ExecutionContext.from(values: _*)
 
   private def rows(variable: String, values: Any*): Iterator[ExecutionContext] =
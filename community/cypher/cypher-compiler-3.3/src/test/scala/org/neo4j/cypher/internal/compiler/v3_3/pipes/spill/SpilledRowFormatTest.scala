@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.pipes.spill
+
+import java.io.File
+
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.compiler.v3_3.ExecutionContext
+import org.neo4j.cypher.internal.compiler.v3_3.spi.QueryContext
+import org.neo4j.cypher.internal.frontend.v3_3.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.{Node, Relationship}
+
+class SpilledRowFormatTest extends CypherFunSuite {
+
+  test("should read back the rows that were written") {
+    // given
+    val node = mock[Node]
+    when(node.getId).thenReturn(42L)
+    val relationship = mock[Relationship]
+    when(relationship.getId).thenReturn(Long.MaxValue)
+    val query = mock[QueryContext]
+    when(query.nodeById(42L)).thenReturn(node)
+    when(query.relationshipById(Long.MaxValue)).thenReturn(relationship)
+
+    val rows = Seq(
+      ExecutionContext.from("n" -> node, "r" -> relationship, "s" -> "hällo", "missing" -> null),
+      ExecutionContext.from("n" -> -1L, "b" -> true, "f" -> false, "i" -> Int.MinValue, "d" -> 1.5, "c" -> 'x'),
+      ExecutionContext.from("list" -> List(1L, "two", List(3.0)), "map" -> Map("a" -> 1L, "b" -> Map("c" -> null))),
+      ExecutionContext.from("byte" -> 7.toByte, "short" -> (-300).toShort, "float" -> 0.25f, "long" -> Long.MinValue),
+      ExecutionContext.empty)
+
+    // when
+    val file = File.createTempFile("spill", ".tmp")
+    try {
+      val writer = new SpilledRowWriter(file)
+      rows.foreach(writer.write)
+      writer.close()
+      val read = new SpilledRowReader(file, query).toList
+
+      // then
+      read should equal(rows)
+    } finally {
+      file.delete()
+    }
+  }
+
+  test("should estimate the size of rows and refuse values that can not be spilled") {
+    SpilledRowFormat.estimateSize(ExecutionContext.from("x" -> 1L, "y" -> "abc")) should be > 0L
+    SpilledRowFormat.estimateSize(ExecutionContext.from("x" -> List(1L, Map("a" -> "b")))) should be > 0L
+
+    SpilledRowFormat.estimateSize(ExecutionContext.from("x" -> Array(1, 2))) should equal(SpilledRowFormat.UNSUPPORTED)
+    SpilledRowFormat.estimateSize(ExecutionContext.from("x" -> List(new Object))) should equal(SpilledRowFormat.UNSUPPORTED)
+    SpilledRowFormat.estimateSize(ExecutionContext.from("x" -> Map(1 -> 2))) should equal(SpilledRowFormat.UNSUPPORTED)
+  }
+}
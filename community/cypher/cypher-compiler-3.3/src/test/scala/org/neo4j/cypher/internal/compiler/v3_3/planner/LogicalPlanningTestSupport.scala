@@ -24,6 +24,7 @@ import org.mockito.Mockito._
 import org.neo4j.cypher.internal.compiler.v3_3._
 import org.neo4j.cypher.internal.compiler.v3_3.ast.rewriters.{namePatternPredicatePatternElements, _}
 import org.neo4j.cypher.internal.compiler.v3_3.ast.rewriters._
+import org.neo4j.cypher.internal.compiler.v3_3.parallel.WorkerPool
 import org.neo4j.cypher.internal.compiler.v3_3.phases._
 import org.neo4j.cypher.internal.compiler.v3_3.planner.execution.PipeExecutionBuilderContext
 import org.neo4j.cypher.internal.compiler.v3_3.planner.logical.Metrics._
@@ -172,7 +173,10 @@ trait LogicalPlanningTestSupport extends CypherTestSupport with AstConstructionT
     errorIfShortestPathFallbackUsedAtRuntime = false,
     errorIfShortestPathHasCommonNodesAtRuntime = true,
     legacyCsvQuoteEscaping = false,
-    nonIndexedLabelWarningThreshold = 10000
+    nonIndexedLabelWarningThreshold = 10000,
+    queryMemoryBudget = 0,
+    parallelRuntimeMaxWorkers = 1,
+    parallelWorkerPool = WorkerPool.none
   )
 
   def buildPlannerQuery(query: String, lookup: Option[QualifiedName => ProcedureSignature] = None) = {
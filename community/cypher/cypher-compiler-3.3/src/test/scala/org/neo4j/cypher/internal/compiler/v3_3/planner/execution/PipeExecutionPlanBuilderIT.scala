@@ -27,14 +27,14 @@ import org.neo4j.cypher.internal.compiler.v3_3.commands.expressions.Literal
 import org.neo4j.cypher.internal.compiler.v3_3.commands.predicates.True
 import org.neo4j.cypher.internal.compiler.v3_3.commands.values.KeyToken.Resolved
 import org.neo4j.cypher.internal.compiler.v3_3.commands.values.TokenType
-import org.neo4j.cypher.internal.compiler.v3_3.commands.{expressions => legacy}
+import org.neo4j.cypher.internal.compiler.v3_3.commands.{SingleQueryExpression, expressions => legacy}
 import org.neo4j.cypher.internal.compiler.v3_3.executionplan.PipeInfo
 import org.neo4j.cypher.internal.compiler.v3_3.pipes._
 import org.neo4j.cypher.internal.compiler.v3_3.planDescription.Id
 import org.neo4j.cypher.internal.compiler.v3_3.planner._
 import org.neo4j.cypher.internal.compiler.v3_3.planner.logical.plans._
 import org.neo4j.cypher.internal.compiler.v3_3.spi.PlanContext
-import org.neo4j.cypher.internal.frontend.v3_3.SemanticDirection
+import org.neo4j.cypher.internal.frontend.v3_3.{LabelId, PropertyKeyId, SemanticDirection}
 import org.neo4j.cypher.internal.frontend.v3_3.ast._
 import org.neo4j.cypher.internal.frontend.v3_3.test_helpers.CypherFunSuite
 import org.neo4j.cypher.internal.ir.v3_3._
@@ -215,6 +215,26 @@ class PipeExecutionPlanBuilderIT extends CypherFunSuite with LogicalPlanningTest
         Map("n.prop" -> legacy.Property(legacy.Variable("n"),
           Resolved("prop", token, TokenType.PropertyKey))))())
   }
+
+  test("Projection of the indexed property on top of an index seek => value read from the index") {
+    // GIVEN
+    val label = LabelToken("Foo", LabelId(1))
+    val propertyKey = PropertyKeyToken("prop", PropertyKeyId(2))
+    val seek = NodeIndexSeek(IdName("n"), label, Seq(propertyKey),
+      SingleQueryExpression(SignedDecimalIntegerLiteral("42")(pos)), Set.empty)(solved)
+    val expressions = Map("n.prop" -> Property(Variable("n")(pos), PropertyKeyName("prop")(pos))(pos))
+    val projection = Projection(seek, expressions) _
+
+    // WHEN
+    val pipe = build(projection).pipe
+
+    // THEN
+    pipe should equal(
+      ProjectionPipe(
+        NodeIndexSeekPipe("n", label, Seq(propertyKey), SingleQueryExpression(Literal(42)), IndexSeek,
+          Some("  INDEXED n.prop"))(),
+        Map("n.prop" -> legacy.Variable("  INDEXED n.prop")))())
+  }
 }
 
 class FakeIdMap extends Map[LogicalPlan, Id] {
@@ -23,7 +23,7 @@ import org.mockito.Mockito.when
 import org.neo4j.cypher.internal.compiler.v3_3._
 import org.neo4j.cypher.internal.compiler.v3_3.commands.expressions.{NestedPipeExpression, ProjectedPath}
 import org.neo4j.cypher.internal.compiler.v3_3.pipes._
-import org.neo4j.cypher.internal.compiler.v3_3.planDescription.InternalPlanDescription.Arguments.{DbHits, PageCacheHits, PageCacheMisses, Rows}
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.InternalPlanDescription.Arguments.{DbHits, PageCacheHits, PageCacheMisses, PeakMemory, Rows, SpillFiles, SpilledBytes}
 import org.neo4j.cypher.internal.compiler.v3_3.planDescription._
 import org.neo4j.cypher.internal.compiler.v3_3.spi.{EmptyKernelStatisticProvider, KernelStatisticProvider, QueryContext, QueryTransactionalContext}
 import org.neo4j.cypher.internal.frontend.v3_3.test_helpers.CypherFunSuite
@@ -280,6 +280,27 @@ class ProfilerTest extends CypherFunSuite {
       profiled2.query.asInstanceOf[ProfilingPipeQueryContext].count should equal(1)
     }
 
+  test("should report memory and spill statistics for operators that buffer rows") {
+    //GIVEN
+    val source = new FakePipe((1 to 200).map(i => Map[String, Any]("x" -> (200 - i))).iterator)
+    val sort = SortPipe(source, List(Ascending("x")))()
+    val tracker = new QueryMemoryTracker(1000)
+    val profiler = new Profiler
+    val queryState = QueryStateHelper.emptyWith(query = prepareQueryContext(), decorator = profiler, memoryTracker = tracker)
+    val planDescription = createPlanDescription("source" -> source, "sort" -> sort)
+
+    //WHEN
+    materialize(sort.createResults(queryState))
+    val decoratedResult = profiler.decorate(planDescription, isProfileReady = true)
+
+    //THEN
+    val sortArgs = decoratedResult.find("sort").flatMap(_.arguments)
+    sortArgs.collectFirst { case PeakMemory(bytes) => bytes }.get should be > 1000L
+    sortArgs.collectFirst { case SpilledBytes(bytes) => bytes }.get should be > 0L
+    sortArgs.collectFirst { case SpillFiles(files) => files }.get should be > 0L
+    decoratedResult.find("source").flatMap(_.arguments).collect { case x: PeakMemory => x } shouldBe empty
+  }
+
   private def prepareQueryContext(statisticProvider: KernelStatisticProvider = EmptyKernelStatisticProvider) = {
     val queryContext = mock[QueryContext]
     val transactionalContext = mock[QueryTransactionalContext]
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.slotted
+
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.compiler.v3_3.spi.QueryContext
+import org.neo4j.cypher.internal.frontend.v3_3.symbols.{CTNode, CTRelationship}
+import org.neo4j.cypher.internal.frontend.v3_3.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.{Node, Relationship}
+
+class PrimitiveExecutionContextTest extends CypherFunSuite {
+
+  private val pipeline = PipelineInformation.empty.newLong("n", CTNode).newLong("r", CTRelationship).newReference("x")
+
+  test("entities are stored by id and read back as proxies") {
+    // given
+    val query = mock[QueryContext]
+    val node = mock[Node]
+    when(node.getId).thenReturn(42L)
+    when(query.nodeById(42L)).thenReturn(node)
+    val row = PrimitiveExecutionContext(pipeline, query)
+
+    // when
+    row += "n" -> node
+
+    // then
+    row.getLongAt(pipeline.getLongOffsetFor("n")) should equal(42L)
+    row("n") should equal(node)
+  }
+
+  test("unset entity slots read as null") {
+    val row = PrimitiveExecutionContext(pipeline, mock[QueryContext])
+
+    row("r") should equal(null.asInstanceOf[Relationship])
+    row.getLongAt(pipeline.getLongOffsetFor("r")) should equal(PrimitiveExecutionContext.NULL)
+  }
+
+  test("newWith copies the row and leaves the original untouched") {
+    // given
+    val row = PrimitiveExecutionContext(pipeline, mock[QueryContext])
+    row += "x" -> "original"
+
+    // when
+    val newRow = row.newWith1("x", "changed")
+
+    // then
+    row("x") should equal("original")
+    newRow("x") should equal("changed")
+  }
+
+  test("values without a fitting slot shadow the slot until it is written again") {
+    // given
+    val row = PrimitiveExecutionContext(pipeline, mock[QueryContext])
+    row.setLongAt(pipeline.getLongOffsetFor("n"), 1L)
+
+    // when
+    val shadowed = row.newWith2("n", 17, "y", "extra")
+
+    // then
+    shadowed("n") should equal(17)
+    shadowed("y") should equal("extra")
+    shadowed.get("y") should equal(Some("extra"))
+    row.get("y") should equal(None)
+    shadowed.toMap.keySet should equal(Set("n", "r", "x", "y"))
+  }
+}
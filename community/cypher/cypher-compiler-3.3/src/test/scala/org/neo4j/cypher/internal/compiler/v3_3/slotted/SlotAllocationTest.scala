@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v3_3.slotted
+
+import org.neo4j.cypher.internal.compiler.v3_3.planner.LogicalPlanningTestSupport
+import org.neo4j.cypher.internal.compiler.v3_3.planner.logical.plans._
+import org.neo4j.cypher.internal.frontend.v3_3.SemanticDirection
+import org.neo4j.cypher.internal.frontend.v3_3.ast.LabelName
+import org.neo4j.cypher.internal.frontend.v3_3.symbols.{CTNode, CTRelationship}
+import org.neo4j.cypher.internal.frontend.v3_3.test_helpers.CypherFunSuite
+import org.neo4j.cypher.internal.ir.v3_3.IdName
+
+class SlotAllocationTest extends CypherFunSuite with LogicalPlanningTestSupport {
+
+  test("only single all nodes scan") {
+    // given
+    val plan = AllNodesScan(IdName("x"), Set.empty)(solved)
+
+    // when
+    val allocation = SlotAllocation.allocate(plan)
+
+    // then
+    allocation should equal(Some(PipelineInformation(Map("x" -> LongSlot(0, CTNode)), 1, 0)))
+  }
+
+  test("expand, projection, selection and limit share one pipeline") {
+    // given
+    val scan = NodeByLabelScan(IdName("x"), LabelName("L")(pos), Set.empty)(solved)
+    val expand = Expand(scan, IdName("x"), SemanticDirection.OUTGOING, Seq.empty, IdName("z"), IdName("r"), ExpandAll)(solved)
+    val selection = Selection(Seq(propEquality("z", "prop", 42)), expand)(solved)
+    val projection = Projection(selection, Map("x" -> varFor("x"), "p" -> prop("z", "prop")))(solved)
+    val limit = Limit(projection, literalInt(10), DoNotIncludeTies)(solved)
+    val plan = ProduceResult(Seq("x", "p"), limit)
+
+    // when
+    val allocation = SlotAllocation.allocate(plan)
+
+    // then
+    allocation should equal(Some(PipelineInformation(Map(
+      "x" -> LongSlot(0, CTNode),
+      "r" -> LongSlot(1, CTRelationship),
+      "z" -> LongSlot(2, CTNode),
+      "p" -> RefSlot(0)), 3, 1)))
+  }
+
+  test("projecting a new value over a node variable is not supported") {
+    // given
+    val scan = AllNodesScan(IdName("x"), Set.empty)(solved)
+    val plan = Projection(scan, Map("x" -> literalInt(1)))(solved)
+
+    // when
+    val allocation = SlotAllocation.allocate(plan)
+
+    // then
+    allocation should equal(None)
+  }
+
+  test("plans with unsupported operators are not allocated") {
+    // given
+    val lhs = AllNodesScan(IdName("x"), Set.empty)(solved)
+    val rhs = AllNodesScan(IdName("y"), Set.empty)(solved)
+    val plan = CartesianProduct(lhs, rhs)(solved)
+
+    // when
+    val allocation = SlotAllocation.allocate(plan)
+
+    // then
+    allocation should equal(None)
+  }
+}
@@ -32,7 +32,7 @@ trait QueryContextAdaptation {
 
   override type EntityAccessor = this.type
 
-  override def resources: CloseableResource = ???
+  override def resources: QueryResources = ???
 
   override def indexScanByContains(index: IndexDescriptor, value: String): scala.Iterator[Node] = ???
 
@@ -61,6 +61,10 @@ trait QueryContextAdaptation {
     */
   override def withAnyOpenQueryContext[T](work: (QueryContext) => T): T = ???
 
+  override def withWorkerQueryContext[T](work: (QueryContext) => T): T = ???
+
+  override def hasTransactionState: Boolean = ???
+
   // Legacy dependency between kernel and compiler
   override def variableLengthPathExpand(node: PatternNode, realNode: Node, minHops: Option[Int], maxHops: Option[Int], direction: SemanticDirection, relTypes: Seq[String]): scala.Iterator[Path] = ???
 
@@ -78,6 +82,10 @@ trait QueryContextAdaptation {
 
   override def getRelationshipsForIds(node: Node, dir: SemanticDirection, types: Option[Seq[Int]]): scala.Iterator[Relationship] = ???
 
+  override def nodeById(id: Long): Node = ???
+
+  override def relationshipById(id: Long): Relationship = ???
+
   override def relationshipStartNode(rel: Relationship): Node = ???
 
   override def getLabelsForNode(node: Long): scala.Iterator[Int] = ???
@@ -111,6 +119,10 @@ trait QueryContextAdaptation {
 
   override def indexSeekByRange(index: IndexDescriptor, value: Any): scala.Iterator[Node] = ???
 
+  override def indexSeekWithValues(index: IndexDescriptor, values: Seq[Any]): scala.Iterator[(Node, Any)] = ???
+
+  override def indexSeekByRangeWithValues(index: IndexDescriptor, value: Any): scala.Iterator[(Node, Any)] = ???
+
   override def setLabelsOnNode(node: Long, labelIds: scala.Iterator[Int]): Int = ???
 
   override def createRelationshipPropertyExistenceConstraint(relTypeId: Int, propertyKeyId: Int): Boolean = ???
@@ -23,6 +23,7 @@ import java.time.Clock
 
 import org.neo4j.cypher.internal.compatibility.v3_3.exceptionHandler
 import org.neo4j.cypher.internal.compiler.v3_3.CypherCompilerConfiguration
+import org.neo4j.cypher.internal.compiler.v3_3.parallel.WorkerPool
 import org.neo4j.cypher.internal.frontend.{v3_2, v3_3}
 import org.neo4j.cypher.internal.frontend.v3_3.InputPosition
 import org.neo4j.cypher.internal.frontend.v3_3.helpers.fixedPoint
@@ -33,6 +34,7 @@ import org.neo4j.graphdb.impl.notification.NotificationCode.{CREATE_UNIQUE_UNAVA
 import org.neo4j.kernel.GraphDatabaseQueryService
 import org.neo4j.kernel.api.KernelAPI
 import org.neo4j.kernel.configuration.Config
+import org.neo4j.kernel.impl.util.JobScheduler
 import org.neo4j.kernel.monitoring.{Monitors => KernelMonitors}
 import org.neo4j.logging.{Log, LogProvider}
 
@@ -42,6 +44,9 @@ object CompilerEngineDelegator {
   val CLOCK: Clock = Clock.systemUTC()
   val DEFAULT_STATISTICS_DIVERGENCE_THRESHOLD = 0.5
   val DEFAULT_NON_INDEXED_LABEL_WARNING_THRESHOLD = 10000
+  val DEFAULT_QUERY_MEMORY_BUDGET: Long = 0
+  val DEFAULT_PARALLEL_RUNTIME_MAX_WORKERS: Int = Runtime.getRuntime.availableProcessors()
+  val DEFAULT_PARALLEL_RUNTIME_MAX_THREADS: Int = Runtime.getRuntime.availableProcessors()
 }
 
 case class PreParsedQuery(statement: String, rawStatement: String, version: CypherVersion,
@@ -100,10 +105,16 @@ class CompilerEngineDelegator(graph: GraphDatabaseQueryService,
     errorIfShortestPathFallbackUsedAtRuntime = errorIfShortestPathFallbackUsedAtRuntime,
     errorIfShortestPathHasCommonNodesAtRuntime = errorIfShortestPathHasCommonNodesAtRuntime,
     legacyCsvQuoteEscaping = legacyCsvQuoteEscaping,
-    nonIndexedLabelWarningThreshold = getNonIndexedLabelWarningThreshold
+    nonIndexedLabelWarningThreshold = getNonIndexedLabelWarningThreshold,
+    queryMemoryBudget = getQueryMemoryBudget,
+    parallelRuntimeMaxWorkers = getParallelRuntimeMaxWorkers,
+    parallelWorkerPool = createParallelWorkerPool
   )
 
-  private final val ILLEGAL_PLANNER_RUNTIME_COMBINATIONS: Set[(CypherPlanner, CypherRuntime)] = Set((CypherPlanner.rule, CypherRuntime.compiled))
+  private final val ILLEGAL_PLANNER_RUNTIME_COMBINATIONS: Set[(CypherPlanner, CypherRuntime)] = Set(
+    (CypherPlanner.rule, CypherRuntime.compiled),
+    (CypherPlanner.rule, CypherRuntime.slotted),
+    (CypherPlanner.rule, CypherRuntime.parallel))
 
   @throws(classOf[SyntaxException])
   def preParseQuery(queryText: String): PreParsedQuery = exceptionHandler.runSafely {
@@ -236,6 +247,27 @@ class CompilerEngineDelegator(graph: GraphDatabaseQueryService,
     getSetting(graph, setting, DEFAULT_NON_INDEXED_LABEL_WARNING_THRESHOLD)
   }
 
+  private def getQueryMemoryBudget: Long = {
+    val setting: (Config) => Long = config => config.get(GraphDatabaseSettings.cypher_query_memory_budget).longValue()
+    getSetting(graph, setting, DEFAULT_QUERY_MEMORY_BUDGET)
+  }
+
+  private def getParallelRuntimeMaxWorkers: Int = {
+    val setting: (Config) => Int = config => config.get(GraphDatabaseSettings.cypher_parallel_runtime_max_workers).intValue()
+    getSetting(graph, setting, DEFAULT_PARALLEL_RUNTIME_MAX_WORKERS)
+  }
+
+  private def getParallelRuntimeMaxThreads: Int = {
+    val setting: (Config) => Int = config => config.get(GraphDatabaseSettings.cypher_parallel_runtime_max_threads).intValue()
+    getSetting(graph, setting, DEFAULT_PARALLEL_RUNTIME_MAX_THREADS)
+  }
+
+  // Workers run on threads of the database's job scheduler, which stops handing them out when the database shuts down
+  private def createParallelWorkerPool: WorkerPool = {
+    val scheduler = graph.getDependencyResolver.resolveDependency(classOf[JobScheduler])
+    new WorkerPool(scheduler.executor(JobScheduler.Groups.cypherWorker), getParallelRuntimeMaxThreads)
+  }
+
   private def getMinimumTimeBeforeReplanning: Long = {
     val setting: (Config) => Long = config => config.get(GraphDatabaseSettings.cypher_min_replan_interval).longValue()
     getSetting(graph, setting, DEFAULT_QUERY_PLAN_TTL)
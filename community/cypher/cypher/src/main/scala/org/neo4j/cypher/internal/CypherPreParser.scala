@@ -55,6 +55,8 @@ case object CypherPreParser extends Parser with Base {
   def RuntimeOption = rule("runtime option")(
     option("runtime", "interpreted") ~ push(InterpretedRuntimeOption)
       | option("runtime", "compiled") ~ push(CompiledRuntimeOption)
+      | option("runtime", "slotted") ~ push(SlottedRuntimeOption)
+      | option("runtime", "parallel") ~ push(ParallelRuntimeOption)
   )
 
   def StrategyOption = rule("strategy option")(
@@ -51,6 +51,8 @@ case class CostCompatibility(graph: GraphDatabaseQueryService,
       case CypherRuntime.default => None
       case CypherRuntime.interpreted => Some(InterpretedRuntimeName)
       case CypherRuntime.compiled => Some(CompiledRuntimeName)
+      case CypherRuntime.slotted => throw new IllegalArgumentException("Slotted runtime is not supported in Cypher 3.1")
+      case CypherRuntime.parallel => throw new IllegalArgumentException("Parallel runtime is not supported in Cypher 3.1")
     }
     val updateStrategy = strategy match {
       case CypherUpdateStrategy.eager => Some(eagerUpdateStrategy)
@@ -53,6 +53,8 @@ case class CostCompatibility[C <: CompilerContext, T <: Transformer[C, Compilati
       case CypherRuntime.default => None
       case CypherRuntime.interpreted => Some(InterpretedRuntimeName)
       case CypherRuntime.compiled => Some(CompiledRuntimeName)
+      case CypherRuntime.slotted => throw new IllegalArgumentException("Slotted runtime is not supported in Cypher 3.2")
+      case CypherRuntime.parallel => throw new IllegalArgumentException("Parallel runtime is not supported in Cypher 3.2")
     }
 
     val maybeUpdateStrategy = updateStrategy match {
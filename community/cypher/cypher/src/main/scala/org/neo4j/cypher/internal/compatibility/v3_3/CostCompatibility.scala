@@ -53,6 +53,8 @@ case class CostCompatibility[C <: CompilerContext, T <: Transformer[C, Compilati
       case CypherRuntime.default => None
       case CypherRuntime.interpreted => Some(InterpretedRuntimeName)
       case CypherRuntime.compiled => Some(CompiledRuntimeName)
+      case CypherRuntime.slotted => Some(SlottedRuntimeName)
+      case CypherRuntime.parallel => Some(ParallelRuntimeName)
     }
 
     val maybeUpdateStrategy = updateStrategy match {
@@ -36,7 +36,7 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
 
   override def entityAccessor = inner.entityAccessor
 
-  override def resources: CloseableResource = inner.resources
+  override def resources: QueryResources = inner.resources
 
   override def transactionalContext =
     new ExceptionTranslatingTransactionalContext(inner.transactionalContext)
@@ -166,6 +166,15 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
         work(new ExceptionTranslatingQueryContext(qc))
       ))
 
+  override def withWorkerQueryContext[T](work: (QueryContext) => T): T =
+    inner.withWorkerQueryContext(qc =>
+      translateException(
+        work(new ExceptionTranslatingQueryContext(qc))
+      ))
+
+  override def hasTransactionState: Boolean =
+    translateException(inner.hasTransactionState)
+
   override def isLabelSetOnNode(label: Int, node: Long): Boolean =
     translateException(inner.isLabelSetOnNode(label, node))
 
@@ -196,9 +205,21 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
   override def getRelationshipsForIds(node: Node, dir: SemanticDirection, types: Option[Seq[Int]]) =
     translateException(inner.getRelationshipsForIds(node, dir, types))
 
+  override def nodeById(id: Long) =
+    translateException(inner.nodeById(id))
+
+  override def relationshipById(id: Long) =
+    translateException(inner.relationshipById(id))
+
   override def indexSeekByRange(index: IndexDescriptor, value: Any) =
     translateException(inner.indexSeekByRange(index, value))
 
+  override def indexSeekWithValues(index: IndexDescriptor, values: Seq[Any]) =
+    translateException(inner.indexSeekWithValues(index, values))
+
+  override def indexSeekByRangeWithValues(index: IndexDescriptor, value: Any) =
+    translateException(inner.indexSeekByRangeWithValues(index, value))
+
   override def indexScanByContains(index: IndexDescriptor, value: String) =
     translateException(inner.indexScanByContains(index, value))
 
@@ -22,13 +22,13 @@ package org.neo4j.cypher.internal.spi
 import java.util
 import java.util.Collections.newSetFromMap
 
-import org.neo4j.cypher.internal.compiler.v3_3.spi.CloseableResource
+import org.neo4j.cypher.internal.compiler.v3_3.spi.QueryResources
 import org.neo4j.helpers.Exceptions
 
-class ResourceManager extends CloseableResource {
+class ResourceManager extends QueryResources {
   private val resources: util.Set[AutoCloseable] = newSetFromMap(new util.IdentityHashMap[AutoCloseable, java.lang.Boolean]())
 
-  def trace(resource: AutoCloseable): Unit =
+  override def trace(resource: AutoCloseable): Unit =
     if (!resources.add(resource)) {
       throw new IllegalStateException(s"$resource is already in the resource set $resources")
     }
@@ -24,7 +24,6 @@ import java.util.function.Predicate
 
 import org.neo4j.collection.RawIterator
 import org.neo4j.collection.primitive.PrimitiveLongIterator
-import org.neo4j.collection.primitive.base.Empty.EMPTY_PRIMITIVE_LONG_COLLECTION
 import org.neo4j.cypher.internal.compiler.v3_3.MinMaxOrdering._
 import org.neo4j.cypher.internal.compiler.v3_3._
 import org.neo4j.cypher.internal.compiler.v3_3.ast.convert.commands.DirectionConverter.toGraphDb
@@ -55,7 +54,11 @@ import org.neo4j.kernel.api.proc.{QualifiedName => KernelQualifiedName}
 import org.neo4j.kernel.api.schema.constaints.ConstraintDescriptorFactory
 import org.neo4j.kernel.api.schema.{IndexQuery, SchemaDescriptorFactory}
 import org.neo4j.kernel.impl.core.NodeManager
+import org.neo4j.kernel.impl.coreapi.PropertyContainerLocker
 import org.neo4j.kernel.impl.locking.ResourceTypes
+import org.neo4j.kernel.impl.query.Neo4jTransactionalContextFactory
+import org.neo4j.kernel.impl.query.clientconnection.ClientConnectionInfo
+import org.neo4j.storageengine.api.schema.NodeValueIterator
 
 import scala.collection.Iterator
 import scala.collection.JavaConverters._
@@ -90,6 +93,29 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
     }
   }
 
+  override def withWorkerQueryContext[T](work: (QueryContext) => T): T = {
+    val graph = transactionalContext.graph
+    val query = transactionalContext.tc.executingQuery()
+    val transaction = graph.beginTransaction(KernelTransaction.Type.`implicit`, transactionalContext.securityContext)
+    val context = TransactionalContextWrapper(workerContextFactory.newContext(
+      ClientConnectionInfo.EMBEDDED_CONNECTION, transaction, query.queryText(), query.queryParameters()))
+    val queryContext = new TransactionBoundQueryContext(context)
+    var success = false
+    try {
+      val result = work(queryContext)
+      success = true
+      result
+    } finally {
+      queryContext.resources.close(success)
+      context.close(success)
+    }
+  }
+
+  private lazy val workerContextFactory =
+    Neo4jTransactionalContextFactory.create(transactionalContext.graph, new PropertyContainerLocker)
+
+  override def hasTransactionState: Boolean = transactionalContext.stateView.readableTxState().hasChanges
+
   override def createNode(): Node =
     transactionalContext.graph.createNode()
 
@@ -136,6 +162,10 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
     new BeansAPIRelationshipIterator(relationships, entityAccessor, resources)
   }
 
+  override def nodeById(id: Long): Node = entityAccessor.newNodeProxyById(id)
+
+  override def relationshipById(id: Long): Relationship = entityAccessor.newRelationshipProxyById(id)
+
   override def indexSeek(index: IndexDescriptor, values: Seq[Any]) = {
     indexSearchMonitor.indexSeek(index, values)
     val predicates = index.properties.zip(values).map(p => IndexQuery.exact(p._1, p._2))
@@ -143,18 +173,37 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
     JavaConversionSupport.mapToScalaENFXSafe(indexResult)(nodeOps.getById)
   }
 
-  override def indexSeekByRange(index: IndexDescriptor, value: Any) = value match {
+  override def indexSeekWithValues(index: IndexDescriptor, values: Seq[Any]) = {
+    indexSearchMonitor.indexSeek(index, values)
+    val predicates = index.properties.zip(values).map(p => IndexQuery.exact(p._1, p._2))
+    nodesWithValues(transactionalContext.statement.readOperations().indexQueryWithValues(index, predicates: _*))
+  }
 
-    case PrefixRange(prefix: String) =>
-      indexSeekByPrefixRange(index, prefix)
-    case range: InequalitySeekRange[Any] =>
-      indexSeekByPrefixRange(index, range)
+  override def indexSeekByRange(index: IndexDescriptor, value: Any) =
+    indexSeekByRange(index, value, predicate =>
+      mapToScalaENFXSafe(transactionalContext.statement.readOperations().indexQuery(index, predicate))(nodeOps.getById))
 
-    case range =>
-      throw new InternalException(s"Unsupported index seek by range: $range")
-  }
+  override def indexSeekByRangeWithValues(index: IndexDescriptor, value: Any) =
+    indexSeekByRange(index, value, predicate =>
+      nodesWithValues(transactionalContext.statement.readOperations().indexQueryWithValues(index, predicate)))
 
-  private def indexSeekByPrefixRange(index: IndexDescriptor, range: InequalitySeekRange[Any]): scala.Iterator[Node] = {
+  // The value of a node is read as soon as the node is, since it is only valid until the iterator moves on
+  private def nodesWithValues(indexResult: NodeValueIterator): Iterator[(Node, Any)] =
+    mapToScalaENFXSafe(indexResult)(id => (nodeOps.getById(id), indexResult.value()))
+
+  private def indexSeekByRange[T](index: IndexDescriptor, value: Any, seek: IndexQuery => Iterator[T]): Iterator[T] =
+    value match {
+      case PrefixRange(prefix: String) =>
+        seek(IndexQuery.stringPrefix(index.property, prefix))
+      case range: InequalitySeekRange[Any] =>
+        indexSeekByInequalityRange(index, range, seek)
+
+      case range =>
+        throw new InternalException(s"Unsupported index seek by range: $range")
+    }
+
+  private def indexSeekByInequalityRange[T](index: IndexDescriptor, range: InequalitySeekRange[Any],
+                                            seek: IndexQuery => Iterator[T]): Iterator[T] = {
     val groupedRanges = range.groupBy { (bound: Bound[Any]) =>
       bound.endPoint match {
         case n: Number => classOf[Number]
@@ -175,8 +224,8 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
         }.getOrElse(Iterator.empty)
       } else {
         (optNumericRange, optStringRange) match {
-          case (Some(numericRange), None) => indexSeekByNumericalRange(index, numericRange)
-          case (None, Some(stringRange)) => indexSeekByStringRange(index, stringRange)
+          case (Some(numericRange), None) => seekOrEmpty(numericalRangePredicate(index, numericRange), seek)
+          case (None, Some(stringRange)) => seekOrEmpty(stringRangePredicate(index, stringRange), seek)
 
           case (Some(numericRange), Some(stringRange)) =>
             // Consider MATCH (n:Person) WHERE n.prop < 1 AND n.prop > "London":
@@ -188,8 +237,8 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
             //
             // Below we simulate this behaviour:
             //
-            if (indexSeekByNumericalRange( index, numericRange ).isEmpty
-                || indexSeekByStringRange(index, stringRange).isEmpty) {
+            if (seekOrEmpty(numericalRangePredicate(index, numericRange), seek).isEmpty
+                || seekOrEmpty(stringRangePredicate(index, stringRange), seek).isEmpty) {
               Iterator.empty
             } else {
               throw new IllegalArgumentException(s"Cannot compare a property against both numbers and strings. They are incomparable.")
@@ -202,66 +251,51 @@ final class TransactionBoundQueryContext(val transactionalContext: Transactional
       }
   }
 
-  private def indexSeekByPrefixRange(index: IndexDescriptor, prefix: String): scala.Iterator[Node] = {
-    val indexedNodes = transactionalContext.statement.readOperations().indexQuery(index, IndexQuery.stringPrefix(index.property, prefix))
-    JavaConversionSupport.mapToScalaENFXSafe(indexedNodes)(nodeOps.getById)
-  }
+  private def seekOrEmpty[T](predicate: Option[IndexQuery], seek: IndexQuery => Iterator[T]): Iterator[T] =
+    predicate.map(seek).getOrElse(Iterator.empty)
 
-  private def indexSeekByNumericalRange(index: IndexDescriptor, range: InequalitySeekRange[Number]): scala.Iterator[Node] = {
-    val readOps = transactionalContext.statement.readOperations()
-    val matchingNodes: PrimitiveLongIterator = (range match {
+  private def numericalRangePredicate(index: IndexDescriptor, range: InequalitySeekRange[Number]): Option[IndexQuery] =
+    range match {
 
       case rangeLessThan: RangeLessThan[Number] =>
         rangeLessThan.limit(BY_NUMBER).map { limit =>
-          val rangePredicate = IndexQuery.range(index.property, null, false, limit.endPoint, limit.isInclusive)
-          readOps.indexQuery(index, rangePredicate)
+          IndexQuery.range(index.property, null, false, limit.endPoint, limit.isInclusive)
         }
 
       case rangeGreaterThan: RangeGreaterThan[Number] =>
         rangeGreaterThan.limit(BY_NUMBER).map { limit =>
-          val rangePredicate = IndexQuery.range(index.property, limit.endPoint, limit.isInclusive, null, false)
-          readOps.indexQuery(index, rangePredicate)
+          IndexQuery.range(index.property, limit.endPoint, limit.isInclusive, null, false)
         }
 
       case RangeBetween(rangeGreaterThan, rangeLessThan) =>
         rangeGreaterThan.limit(BY_NUMBER).flatMap { greaterThanLimit =>
           rangeLessThan.limit(BY_NUMBER).map { lessThanLimit =>
-            val rangePredicate = IndexQuery.range(index.property, greaterThanLimit.endPoint, greaterThanLimit.isInclusive, lessThanLimit.endPoint, lessThanLimit.isInclusive)
-            readOps.indexQuery(index, rangePredicate)
+            IndexQuery.range(index.property, greaterThanLimit.endPoint, greaterThanLimit.isInclusive, lessThanLimit.endPoint, lessThanLimit.isInclusive)
           }
         }
-    }).getOrElse(EMPTY_PRIMITIVE_LONG_COLLECTION.iterator)
-    JavaConversionSupport.mapToScalaENFXSafe(matchingNodes)(nodeOps.getById)
-  }
+    }
 
-  private def indexSeekByStringRange(index: IndexDescriptor, range: InequalitySeekRange[String]): scala.Iterator[Node] = {
-    val readOps = transactionalContext.statement.readOperations()
-    val matchingNodes: PrimitiveLongIterator = range match {
+  private def stringRangePredicate(index: IndexDescriptor, range: InequalitySeekRange[String]): Option[IndexQuery] =
+    range match {
 
       case rangeLessThan: RangeLessThan[String] =>
         rangeLessThan.limit(BY_STRING).map { limit =>
-          val rangePredicate = IndexQuery.range(index.property, null, false, limit.endPoint.asInstanceOf[String], limit.isInclusive)
-          readOps.indexQuery(index, rangePredicate)
-        }.getOrElse(EMPTY_PRIMITIVE_LONG_COLLECTION.iterator)
+          IndexQuery.range(index.property, null, false, limit.endPoint.asInstanceOf[String], limit.isInclusive)
+        }
 
       case rangeGreaterThan: RangeGreaterThan[String] =>
         rangeGreaterThan.limit(BY_STRING).map { limit =>
-          val rangePredicate = IndexQuery.range(index.property, limit.endPoint.asInstanceOf[String], limit.isInclusive, null, false);
-          readOps.indexQuery(index, rangePredicate)
-        }.getOrElse(EMPTY_PRIMITIVE_LONG_COLLECTION.iterator)
+          IndexQuery.range(index.property, limit.endPoint.asInstanceOf[String], limit.isInclusive, null, false)
+        }
 
       case RangeBetween(rangeGreaterThan, rangeLessThan) =>
         rangeGreaterThan.limit(BY_STRING).flatMap { greaterThanLimit =>
           rangeLessThan.limit(BY_STRING).map { lessThanLimit =>
-            val rangePredicate = IndexQuery.range(index.property, greaterThanLimit.endPoint.asInstanceOf[String], greaterThanLimit.isInclusive, lessThanLimit.endPoint.asInstanceOf[String], lessThanLimit.isInclusive)
-            readOps.indexQuery(index, rangePredicate)
+            IndexQuery.range(index.property, greaterThanLimit.endPoint.asInstanceOf[String], greaterThanLimit.isInclusive, lessThanLimit.endPoint.asInstanceOf[String], lessThanLimit.isInclusive)
           }
-        }.getOrElse(EMPTY_PRIMITIVE_LONG_COLLECTION.iterator)
+        }
     }
 
-    JavaConversionSupport.mapToScalaENFXSafe(matchingNodes)(nodeOps.getById)
-  }
-
   override def indexScan(index: IndexDescriptor) =
     mapToScalaENFXSafe(transactionalContext.statement.readOperations().indexQuery(index, IndexQuery.exists(index.property)))(nodeOps.getById)
 
@@ -26,6 +26,7 @@ import org.mockito.Mockito.{verify, _}
 import org.neo4j.cypher.internal.compatibility.v3_3.{StringInfoLogger, WrappedMonitors}
 import org.neo4j.cypher.internal.compiler.v3_3._
 import org.neo4j.cypher.internal.compiler.v3_3.helpers.IdentityTypeConverter
+import org.neo4j.cypher.internal.compiler.v3_3.parallel.WorkerPool
 import org.neo4j.cypher.internal.compiler.v3_3.phases.CompilerContext
 import org.neo4j.cypher.internal.frontend.v3_3.InputPosition
 import org.neo4j.cypher.internal.frontend.v3_3.helpers.rewriting.RewriterStepSequencer
@@ -108,7 +109,10 @@ class CartesianProductNotificationAcceptanceTest extends CypherFunSuite with Gra
         errorIfShortestPathFallbackUsedAtRuntime = false,
         errorIfShortestPathHasCommonNodesAtRuntime = true,
         legacyCsvQuoteEscaping = false,
-        nonIndexedLabelWarningThreshold = 10000L
+        nonIndexedLabelWarningThreshold = 10000L,
+        queryMemoryBudget = 0,
+        parallelRuntimeMaxWorkers = 1,
+        parallelWorkerPool = WorkerPool.none
       ),
       Clock.systemUTC(),
       WrappedMonitors(kernelMonitors),
@@ -21,6 +21,7 @@ package org.neo4j.cypher
 
 import org.mockito.Mockito.when
 import org.neo4j.cypher.internal.compiler.v3_3.CypherCompilerConfiguration
+import org.neo4j.cypher.internal.compiler.v3_3.parallel.WorkerPool
 import org.neo4j.cypher.internal.compiler.v3_3.planner.logical.idp.DefaultIDPSolverConfig
 import org.neo4j.cypher.internal.compiler.v3_3.spi.PlanContext
 import org.neo4j.cypher.internal.frontend.v3_3.phases.devNullLogger
@@ -284,7 +285,10 @@ trait GraphDatabaseTestSupport extends CypherTestSupport with GraphIcing {
     idpIterationDuration = DefaultIDPSolverConfig.iterationDurationLimit,
     errorIfShortestPathFallbackUsedAtRuntime = false,
     errorIfShortestPathHasCommonNodesAtRuntime = true,
-    legacyCsvQuoteEscaping = false
+    legacyCsvQuoteEscaping = false,
+    queryMemoryBudget = 0,
+    parallelRuntimeMaxWorkers = 1,
+    parallelWorkerPool = WorkerPool.none
   )
 
   case class haveConstraints(expectedConstraints: String*) extends Matcher[GraphDatabaseQueryService] {
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.InternalPlanDescription.Arguments.DbHits
+import org.neo4j.graphdb.config.Setting
+import org.neo4j.graphdb.factory.GraphDatabaseSettings
+import org.neo4j.graphdb.factory.GraphDatabaseSettings.SchemaIndex
+
+class IndexedValuesAcceptanceTest extends ExecutionEngineFunSuite {
+
+  override def databaseConfig(): Map[Setting[_], String] =
+    Map(GraphDatabaseSettings.default_schema_provider -> SchemaIndex.NATIVE10.providerName())
+
+  test("should project indexed numbers as stored, without touching the property store") {
+    // given
+    graph.createIndex("Person", "age")
+    createLabeledNode(Map("age" -> 42), "Person")
+    createLabeledNode(Map("age" -> 42L), "Person")
+    createLabeledNode(Map("age" -> 43.5), "Person")
+
+    // when
+    val result = profile("CYPHER runtime=interpreted MATCH (n:Person) WHERE n.age >= 42 RETURN n.age AS age")
+
+    // then
+    result.toList.map(_("age")) should contain theSameElementsAs List(42, 42L, 43.5)
+    val projection = result.executionPlanDescription().find("Projection").head
+    projection.arguments.collectFirst { case DbHits(hits) => hits } should equal(Some(0))
+  }
+
+  test("should project indexed strings found by an exact seek") {
+    // given
+    graph.createIndex("Person", "name")
+    val node = createLabeledNode(Map("name" -> "Smith"), "Person")
+    createLabeledNode(Map("name" -> "Jones"), "Person")
+
+    // when
+    val result = execute("CYPHER runtime=interpreted MATCH (n:Person) WHERE n.name = 'Smith' RETURN n, n.name AS name")
+
+    // then
+    result.toList should equal(List(Map("n" -> node, "name" -> "Smith")))
+  }
+
+  test("should see property changes made earlier in the same transaction") {
+    // given
+    graph.createIndex("Person", "age")
+    val node = createLabeledNode(Map("age" -> 42), "Person")
+
+    // when
+    val result = graph.inTx {
+      node.setProperty("age", 44)
+      execute("CYPHER runtime=interpreted MATCH (n:Person) WHERE n.age > 40 RETURN n.age AS age").toList
+    }
+
+    // then
+    result should equal(List(Map("age" -> 44)))
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.InternalPlanDescription.Arguments.Runtime
+import org.neo4j.graphdb.config.Setting
+import org.neo4j.graphdb.factory.GraphDatabaseSettings
+
+class ParallelRuntimeAcceptanceTest extends ExecutionEngineFunSuite {
+
+  override def databaseConfig(): Map[Setting[_], String] =
+    Map(GraphDatabaseSettings.cypher_parallel_runtime_max_workers -> "4")
+
+  test("should return the same rows as the interpreted runtime") {
+    // given
+    execute("UNWIND range(1, 3000) AS i CREATE (:Person {id: i})-[:KNOWS]->(:Animal {id: i * 2})")
+    graph.createIndex("Person", "id")
+
+    val queries = Seq(
+      "MATCH (n) WHERE n.id % 3 = 0 RETURN n.id AS id",
+      "MATCH (n:Person)-[r:KNOWS]->(m) WHERE m.id % 7 = 0 RETURN n.id AS from, type(r) AS type, m.id AS to",
+      "MATCH (n:Person) WHERE exists(n.id) RETURN n.id + 1 AS id",
+      "MATCH (n:Person)-->(m) RETURN count(*) AS count, sum(m.id) AS sum",
+      "MATCH (n:Person)-->(m) WITH m.id % 10 AS key RETURN DISTINCT key",
+      "MATCH (n:Person)-->(m) RETURN m.id AS id ORDER BY id DESC LIMIT 5",
+      "MATCH (n:Missing)-->(m) RETURN m.id AS id")
+
+    queries.foreach { query =>
+      // when
+      val parallel = execute(s"CYPHER runtime=parallel $query")
+      val parallelRows = parallel.toList
+      val interpreted = execute(s"CYPHER runtime=interpreted $query").toList
+
+      // then
+      withClue(query) {
+        parallel.executionPlanDescription().arguments should contain(Runtime("PARALLEL"))
+        parallelRows.map(_.toString).sorted should equal(interpreted.map(_.toString).sorted)
+      }
+    }
+  }
+
+  test("should stop the workers when the result is not consumed") {
+    // given
+    execute("UNWIND range(1, 5000) AS i CREATE (:Person {id: i})")
+
+    // when
+    val result = execute("CYPHER runtime=parallel MATCH (n:Person) WHERE n.id > 0 RETURN n.id AS id LIMIT 3").toList
+
+    // then
+    result should have size 3
+  }
+
+  test("should rethrow failures from the workers") {
+    // given
+    execute("UNWIND range(1, 3000) AS i CREATE (:Person {id: i})")
+
+    // when
+    val query = "CYPHER runtime=parallel MATCH (n:Person) RETURN n.id / (n.id - 2500) AS x"
+
+    // then
+    an[ArithmeticException] should be thrownBy execute(query).toList
+  }
+
+  test("should see changes made earlier in the same transaction") {
+    // given
+    execute("UNWIND range(1, 3000) AS i CREATE (:Person {id: i})")
+
+    // when
+    val count = graph.inTx {
+      execute("CREATE (:Person {id: 0})")
+      execute("CYPHER runtime=parallel MATCH (n:Person) WHERE n.id < 10 RETURN count(*) AS count").columnAs[Long]("count").next()
+    }
+
+    // then
+    count should equal(10)
+  }
+}
@@ -19,7 +19,7 @@
  */
 package org.neo4j.cypher
 
-import org.neo4j.cypher.internal.compiler.v3_3.{CostBasedPlannerName, InterpretedRuntimeName, RuntimeName}
+import org.neo4j.cypher.internal.compiler.v3_3.{CostBasedPlannerName, InterpretedRuntimeName, ParallelRuntimeName, RuntimeName, SlottedRuntimeName}
 import org.neo4j.cypher.internal.frontend.v3_3.PlannerName
 import org.neo4j.cypher.internal.javacompat.PlanDescription
 
@@ -37,6 +37,34 @@ class RootPlanAcceptanceTest extends ExecutionEngineFunSuite {
       .shouldHaveRuntime(InterpretedRuntimeName)
   }
 
+  test("slotted runtime should be used when asked for and the query is supported") {
+    given("match (n)-[r]->(m) where m.prop = 42 return n, m.prop as prop")
+      .withCypherVersion(CypherVersion.v3_3)
+      .withRuntime(SlottedRuntimeName)
+      .shouldHaveRuntime(SlottedRuntimeName)
+  }
+
+  test("slotted runtime should fall back to interpreted for unsupported operators") {
+    given("match (n) return count(n)")
+      .withCypherVersion(CypherVersion.v3_3)
+      .withRuntime(SlottedRuntimeName)
+      .shouldHaveRuntime(InterpretedRuntimeName)
+  }
+
+  test("parallel runtime should be used when asked for and the query is supported") {
+    given("match (n)-[r]->(m) where m.prop = 42 return count(n)")
+      .withCypherVersion(CypherVersion.v3_3)
+      .withRuntime(ParallelRuntimeName)
+      .shouldHaveRuntime(ParallelRuntimeName)
+  }
+
+  test("parallel runtime should fall back to interpreted when there is nothing to run in parallel") {
+    given("match (n) return n")
+      .withCypherVersion(CypherVersion.v3_3)
+      .withRuntime(ParallelRuntimeName)
+      .shouldHaveRuntime(InterpretedRuntimeName)
+  }
+
   test("should use cost for varlength in 3.3") {
     given("match (a)-[r:T1*]->(b) return a,r,b")
       .withCypherVersion(CypherVersion.v3_3)
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+class SlottedRuntimeAcceptanceTest extends ExecutionEngineFunSuite {
+
+  test("should return the same rows as the interpreted runtime") {
+    // given
+    val a = createLabeledNode(Map("name" -> "a"), "Person")
+    val b = createLabeledNode(Map("name" -> "b"), "Person")
+    val c = createNode("name" -> "c")
+    relate(a, b, "KNOWS")
+    relate(a, c, "KNOWS")
+    relate(b, c, "LIKES")
+
+    val queries = Seq(
+      "MATCH (n) RETURN n",
+      "MATCH (n:Person)-[r:KNOWS]->(m) RETURN n.name AS from, type(r) AS type, m.name AS to",
+      "MATCH (n:Person)-->(m) WHERE m.name <> 'c' RETURN n, m",
+      "MATCH (n)<-[r]-(m) RETURN n.name AS name, r, [x IN [1, 2] | x + size(m.name)] AS list SKIP 1 LIMIT 2",
+      "MATCH (n:Missing)-->(m) RETURN m")
+
+    queries.foreach { query =>
+      // when
+      val slotted = execute(s"CYPHER runtime=slotted $query").toList
+      val interpreted = execute(s"CYPHER runtime=interpreted $query").toList
+
+      // then
+      slotted should equal(interpreted)
+    }
+  }
+
+  test("should allow list comprehensions to shadow slotted variables") {
+    // given
+    val n = createNode("name" -> "n")
+    relate(n, createNode())
+
+    // when
+    val result = execute("CYPHER runtime=slotted MATCH (n)-->(m) RETURN [n IN [1, 2] | n * 2] AS list, n").toList
+
+    // then
+    result should equal(List(Map("list" -> List(2, 4), "n" -> n)))
+  }
+}
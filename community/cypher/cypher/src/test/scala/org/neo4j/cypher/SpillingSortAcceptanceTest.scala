@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import org.neo4j.cypher.internal.compiler.v3_3.planDescription.InternalPlanDescription.Arguments.{SpillFiles, SpilledBytes}
+import org.neo4j.graphdb.config.Setting
+import org.neo4j.graphdb.factory.GraphDatabaseSettings
+
+class SpillingSortAcceptanceTest extends ExecutionEngineFunSuite {
+
+  override def databaseConfig(): Map[Setting[_], String] = Map(GraphDatabaseSettings.cypher_query_memory_budget -> "4k")
+
+  test("should sort rows that do not fit in the memory budget") {
+    // given
+    val names = scala.util.Random.shuffle((1 to 300).toList).map(i => f"n$i%03d")
+    val nodes = names.map(name => name -> createNode("name" -> name))
+
+    // when
+    val result = execute("MATCH (n) RETURN n, n.name AS name ORDER BY name").toList
+
+    // then
+    result should equal(nodes.sortBy(_._1).map { case (name, n) => Map("n" -> n, "name" -> name) })
+  }
+
+  test("should show spill statistics in the profile") {
+    // given
+    (1 to 300).foreach(i => createNode("name" -> s"n$i"))
+
+    // when
+    val result = profile("MATCH (n) RETURN n.name AS name ORDER BY name")
+    result.toList
+
+    // then
+    val arguments = result.executionPlanDescription().find("Sort").head.arguments
+    arguments.collectFirst { case SpilledBytes(bytes) => bytes }.get should be > 0L
+    arguments.collectFirst { case SpillFiles(files) => files }.get should be > 0L
+  }
+}
@@ -25,6 +25,7 @@ import org.neo4j.cypher.GraphDatabaseTestSupport
 import org.neo4j.cypher.internal.compatibility.v3_3.{StringInfoLogger, WrappedMonitors}
 import org.neo4j.cypher.internal.compiler.v3_3.executionplan.ExecutionPlan
 import org.neo4j.cypher.internal.compiler.v3_3.helpers.IdentityTypeConverter
+import org.neo4j.cypher.internal.compiler.v3_3.parallel.WorkerPool
 import org.neo4j.cypher.internal.compiler.v3_3.phases.CompilerContext
 import org.neo4j.cypher.internal.frontend.v3_3.ast.Statement
 import org.neo4j.cypher.internal.frontend.v3_3.helpers.rewriting.RewriterStepSequencer
@@ -52,7 +53,10 @@ class CypherCompilerAstCacheAcceptanceTest extends CypherFunSuite with GraphData
         errorIfShortestPathFallbackUsedAtRuntime = false,
         errorIfShortestPathHasCommonNodesAtRuntime = true,
         legacyCsvQuoteEscaping = false,
-        nonIndexedLabelWarningThreshold = 10000L
+        nonIndexedLabelWarningThreshold = 10000L,
+        queryMemoryBudget = 0,
+        parallelRuntimeMaxWorkers = 1,
+        parallelWorkerPool = WorkerPool.none
       ),
       clock,
       WrappedMonitors(kernelMonitors),
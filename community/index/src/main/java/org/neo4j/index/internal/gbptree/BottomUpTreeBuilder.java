@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+
+import static org.neo4j.index.internal.gbptree.PageCursorUtil.checkOutOfBounds;
+import static org.neo4j.index.internal.gbptree.TreeNode.NO_NODE_FLAG;
+
+/**
+ * Builds a tree bottom-up from keys arriving in ascending order, used by {@link BulkLoader}.
+ * <p>
+ * Each level of the tree keeps one node open for appending. When a node at some level is full a new node
+ * is allocated to its right, sibling pointers between the two are written, and the new node is added as a child
+ * to the level above, with its first key as separator. The level above is created when the level below gets its
+ * second node, so the top level always consists of a single node, which becomes the root when building is done.
+ * <p>
+ * An internal node must have at least one key. So rather than starting a new internal node for a single child,
+ * a child arriving at a full internal node is held back until a sibling arrives, at which point a new node is
+ * started for the two of them. A child still held back when building is done is appended to the current node
+ * of its level, which is why internal nodes are never filled beyond one key less than their max.
+ *
+ * @param <KEY> type of keys
+ * @param <VALUE> type of values
+ */
+class BottomUpTreeBuilder<KEY,VALUE>
+{
+    private final PagedFile pagedFile;
+    private final TreeNode<KEY,VALUE> bTreeNode;
+    private final Layout<KEY,VALUE> layout;
+    private final IdProvider idProvider;
+    private final long stableGeneration;
+    private final long unstableGeneration;
+    private final int internalFill;
+    private final List<Level> levels = new ArrayList<>();
+    private final KEY previousKey;
+    private boolean hasPreviousKey;
+
+    BottomUpTreeBuilder( PagedFile pagedFile, TreeNode<KEY,VALUE> bTreeNode, Layout<KEY,VALUE> layout,
+            IdProvider idProvider, double fillFactor, long stableGeneration, long unstableGeneration )
+    {
+        this.pagedFile = pagedFile;
+        this.bTreeNode = bTreeNode;
+        this.layout = layout;
+        this.idProvider = idProvider;
+        this.stableGeneration = stableGeneration;
+        this.unstableGeneration = unstableGeneration;
+        this.previousKey = layout.newKey();
+        this.internalFill = fill( bTreeNode.internalMaxKeyCount() - 1, fillFactor );
+        levels.add( new Level( true, fill( bTreeNode.leafMaxKeyCount(), fillFactor ) ) );
+    }
+
+    private static int fill( int maxKeyCount, double fillFactor )
+    {
+        return Math.max( 1, Math.min( maxKeyCount, (int) (maxKeyCount * fillFactor) ) );
+    }
+
+    void add( KEY key, VALUE value ) throws IOException
+    {
+        if ( hasPreviousKey && layout.compare( previousKey, key ) >= 0 )
+        {
+            throw new IllegalArgumentException( "Keys must be added in strictly ascending order, but got " + key +
+                    " after " + previousKey );
+        }
+        layout.copyKey( key, previousKey );
+        hasPreviousKey = true;
+
+        Level leaves = levels.get( 0 );
+        if ( leaves.cursor == null )
+        {
+            startFirstNode( leaves );
+        }
+        else if ( leaves.keyCount == leaves.fill )
+        {
+            startNextNode( 0, key );
+        }
+        bTreeNode.setKeyAt( leaves.cursor, key, leaves.keyCount );
+        bTreeNode.setValueAt( leaves.cursor, value, leaves.keyCount );
+        leaves.keyCount++;
+    }
+
+    /**
+     * Completes all levels of the tree.
+     *
+     * @return id of the root of the built tree, or {@link TreeNode#NO_NODE_FLAG} if nothing was added.
+     * @throws IOException on page cache error.
+     */
+    long finish() throws IOException
+    {
+        if ( levels.get( 0 ).cursor == null )
+        {
+            return NO_NODE_FLAG;
+        }
+
+        for ( Level level : levels )
+        {
+            if ( level.pendingChild != NO_NODE_FLAG )
+            {
+                appendChild( level, level.pendingKey, level.pendingChild );
+                level.pendingChild = NO_NODE_FLAG;
+            }
+            TreeNode.setKeyCount( level.cursor, level.keyCount );
+            checkOutOfBounds( level.cursor );
+        }
+        return levels.get( levels.size() - 1 ).nodeId;
+    }
+
+    void close()
+    {
+        for ( Level level : levels )
+        {
+            if ( level.cursor != null )
+            {
+                level.cursor.close();
+                level.cursor = null;
+            }
+        }
+    }
+
+    private void startFirstNode( Level level ) throws IOException
+    {
+        level.cursor = pagedFile.io( 0L /*ignored*/, PagedFile.PF_SHARED_WRITE_LOCK );
+        level.nodeId = idProvider.acquireNewId( stableGeneration, unstableGeneration );
+        PageCursorUtil.goTo( level.cursor, "first node", level.nodeId );
+        level.initialize();
+    }
+
+    /**
+     * Completes the current node of the level and starts a new one to the right of it.
+     *
+     * @param levelIndex level to start a new node on, 0 being the leaves.
+     * @param separator the lowest key which will be found in the subtree of the new node.
+     */
+    private void startNextNode( int levelIndex, KEY separator ) throws IOException
+    {
+        Level level = levels.get( levelIndex );
+        long previousId = level.nodeId;
+        long id = idProvider.acquireNewId( stableGeneration, unstableGeneration );
+
+        TreeNode.setKeyCount( level.cursor, level.keyCount );
+        TreeNode.setRightSibling( level.cursor, id, stableGeneration, unstableGeneration );
+        checkOutOfBounds( level.cursor );
+
+        PageCursorUtil.goTo( level.cursor, "next node", id );
+        level.initialize();
+        TreeNode.setLeftSibling( level.cursor, previousId, stableGeneration, unstableGeneration );
+        level.nodeId = id;
+        level.keyCount = 0;
+
+        addChild( levelIndex + 1, separator, id, previousId );
+    }
+
+    private void addChild( int levelIndex, KEY separator, long child, long leftSiblingOfChild ) throws IOException
+    {
+        if ( levelIndex == levels.size() )
+        {
+            Level newLevel = new Level( false, internalFill );
+            levels.add( newLevel );
+            startFirstNode( newLevel );
+            bTreeNode.setChildAt( newLevel.cursor, leftSiblingOfChild, 0, stableGeneration, unstableGeneration );
+        }
+
+        Level level = levels.get( levelIndex );
+        if ( level.keyCount < level.fill )
+        {
+            appendChild( level, separator, child );
+        }
+        else if ( level.pendingChild == NO_NODE_FLAG )
+        {
+            layout.copyKey( separator, level.pendingKey );
+            level.pendingChild = child;
+        }
+        else
+        {
+            startNextNode( levelIndex, level.pendingKey );
+            bTreeNode.setChildAt( level.cursor, level.pendingChild, 0, stableGeneration, unstableGeneration );
+            level.pendingChild = NO_NODE_FLAG;
+            appendChild( level, separator, child );
+        }
+    }
+
+    private void appendChild( Level level, KEY separator, long child )
+    {
+        bTreeNode.setKeyAt( level.cursor, separator, level.keyCount );
+        bTreeNode.setChildAt( level.cursor, child, level.keyCount + 1, stableGeneration, unstableGeneration );
+        level.keyCount++;
+    }
+
+    private class Level
+    {
+        private final boolean leaf;
+        private final int fill;
+        private final KEY pendingKey;
+        private PageCursor cursor;
+        private long nodeId;
+        private int keyCount;
+        private long pendingChild = NO_NODE_FLAG;
+
+        Level( boolean leaf, int fill )
+        {
+            this.leaf = leaf;
+            this.fill = fill;
+            this.pendingKey = leaf ? null : layout.newKey();
+        }
+
+        void initialize()
+        {
+            if ( leaf )
+            {
+                TreeNode.initializeLeaf( cursor, stableGeneration, unstableGeneration );
+            }
+            else
+            {
+                TreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+            }
+        }
+    }
+}
@@ -428,6 +428,56 @@ public class GBPTree<KEY,VALUE> implements Closeable
         clean = true;
     }
 
+    /**
+     * Reads the header data of the latest checkpoint of an existing tree, without opening the tree itself.
+     * This can be done while the tree is open elsewhere, since it only reads the state pages.
+     *
+     * @param pageCache {@link PageCache} to use to map index file
+     * @param indexFile {@link File} containing the actual index
+     * @param headerReader reads header data, previously written using {@link #checkpoint(IOLimiter, Consumer)}
+     * or {@link #close()}
+     * @throws IOException on page cache error, or {@link NoSuchFileException} if there's no such tree
+     */
+    public static void readHeader( PageCache pageCache, File indexFile, Header.Reader headerReader )
+            throws IOException
+    {
+        int pageSize;
+        try ( PagedFile pagedFile = pageCache.map( indexFile, pageCache.pageSize() );
+              PageCursor metaCursor = openMetaPageCursor( pagedFile, PagedFile.PF_SHARED_READ_LOCK ) )
+        {
+            do
+            {
+                metaCursor.getInt(); // format version
+                pageSize = metaCursor.getInt();
+            }
+            while ( metaCursor.shouldRetry() );
+            checkOutOfBounds( metaCursor );
+        }
+        if ( pageSize > pageCache.pageSize() )
+        {
+            throw new MetadataMismatchException( "Tree in " + indexFile.getAbsolutePath() +
+                    " was created with page size:" + pageSize +
+                    ", but page cache used to open it this time has a smaller page size:" +
+                    pageCache.pageSize() + " so cannot be opened" );
+        }
+
+        try ( PagedFile pagedFile = pageCache.map( indexFile, pageSize ) )
+        {
+            TreeState state = TreeStatePair.selectNewestValidState( readStatePages( pagedFile ) );
+            try ( PageCursor cursor = pagedFile.io( state.pageId(), PagedFile.PF_SHARED_READ_LOCK ) )
+            {
+                PageCursorUtil.goTo( cursor, "header data", state.pageId() );
+                do
+                {
+                    TreeState.read( cursor );
+                    int length = cursor.getInt();
+                    headerReader.read( cursor, length );
+                }
+                while ( cursor.shouldRetry() );
+            }
+        }
+    }
+
     private PagedFile openOrCreate( PageCache pageCache, File indexFile,
             int pageSizeForCreation, Layout<KEY,VALUE> layout ) throws IOException
     {
@@ -851,6 +901,52 @@ public class GBPTree<KEY,VALUE> implements Closeable
         return writer;
     }
 
+    /**
+     * Returns a {@link BulkLoader} able to build the contents of this tree from key/value pairs in ascending key
+     * order, which is much faster than inserting them through a {@link Writer}. Leaves are filled up to
+     * {@code fillFactor} of their capacity, leaving room for future inserts before they need to be split.
+     * <p>
+     * Bulk loading is only possible into an empty tree. The loader holds the {@link #writer() writer} until it's
+     * {@link BulkLoader#close() closed}, which means that {@link #checkpoint(IOLimiter) checkpoints} will wait
+     * for it. The built tree becomes visible, and is made durable by the next checkpoint, after the loader is closed.
+     *
+     * @param fillFactor ratio, greater than 0 and at most 1, of how full to make each tree node.
+     * @return a {@link BulkLoader} for this tree. The returned loader must be {@link BulkLoader#close() closed}
+     * before the writer can be acquired again.
+     * @throws IOException on error accessing the index.
+     * @throws IllegalStateException if this tree isn't empty, or if the writer is already acquired.
+     */
+    public BulkLoader<KEY,VALUE> bulkLoader( double fillFactor ) throws IOException
+    {
+        if ( fillFactor <= 0 || fillFactor > 1 )
+        {
+            throw new IllegalArgumentException( "Fill factor must be greater than 0 and at most 1, was " + fillFactor );
+        }
+
+        writer.initialize();
+        boolean success = false;
+        try
+        {
+            if ( !TreeNode.isLeaf( writer.cursor ) || TreeNode.keyCount( writer.cursor ) != 0 )
+            {
+                throw new IllegalStateException( "Bulk loading is only possible into an empty tree, " + this +
+                        " has entries" );
+            }
+            changesSinceLastCheckpoint = true;
+            BulkLoader<KEY,VALUE> bulkLoader = new SingleBulkLoader( new BottomUpTreeBuilder<>( pagedFile, bTreeNode,
+                    layout, freeList, fillFactor, writer.stableGeneration, writer.unstableGeneration ) );
+            success = true;
+            return bulkLoader;
+        }
+        finally
+        {
+            if ( !success )
+            {
+                writer.close();
+            }
+        }
+    }
+
     private void setRoot( long rootId, long rootGeneration )
     {
         this.root = new Root( rootId, rootGeneration );
@@ -1127,4 +1223,55 @@ public class GBPTree<KEY,VALUE> implements Closeable
             }
         }
     }
+
+    /**
+     * Bulk loads into an empty tree while holding the {@link SingleWriter}, replacing the empty root with the root
+     * of the built tree when closed.
+     */
+    private class SingleBulkLoader implements BulkLoader<KEY,VALUE>
+    {
+        private final BottomUpTreeBuilder<KEY,VALUE> builder;
+        private boolean closed;
+
+        SingleBulkLoader( BottomUpTreeBuilder<KEY,VALUE> builder )
+        {
+            this.builder = builder;
+        }
+
+        @Override
+        public void add( KEY key, VALUE value ) throws IOException
+        {
+            if ( closed )
+            {
+                throw new IllegalStateException( "Bulk loader of " + GBPTree.this + " is already closed" );
+            }
+            builder.add( key, value );
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            if ( closed )
+            {
+                throw new IllegalStateException( "Tried to close bulk loader of " + GBPTree.this +
+                        ", but it is already closed." );
+            }
+            closed = true;
+            try
+            {
+                long newRootId = builder.finish();
+                if ( newRootId != TreeNode.NO_NODE_FLAG )
+                {
+                    long emptyRootId = root.id();
+                    setRoot( newRootId, writer.unstableGeneration );
+                    freeList.releaseId( writer.stableGeneration, writer.unstableGeneration, emptyRootId );
+                }
+            }
+            finally
+            {
+                builder.close();
+                writer.close();
+            }
+        }
+    }
 }
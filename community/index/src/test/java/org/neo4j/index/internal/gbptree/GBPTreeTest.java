@@ -585,6 +585,32 @@ public class GBPTreeTest
         assertArrayEquals( expectedHeader, readHeader );
     }
 
+    @Test
+    public void shouldReadHeaderOfLatestCheckpointWhileTreeIsOpen() throws Exception
+    {
+        // GIVEN
+        PageCache pageCache = createPageCache( 256 );
+        byte[] expectedHeader = new byte[12];
+        ThreadLocalRandom.current().nextBytes( expectedHeader );
+        try ( GBPTree<MutableLong,MutableLong> index = index().with( pageCache ).build() )
+        {
+            index.checkpoint( unlimited(), cursor -> cursor.putBytes( expectedHeader ) );
+
+            // WHEN
+            byte[] readHeader = new byte[expectedHeader.length];
+            AtomicInteger length = new AtomicInteger();
+            GBPTree.readHeader( pageCache, indexFile, ( cursor, len ) ->
+            {
+                length.set( len );
+                cursor.getBytes( readHeader );
+            } );
+
+            // THEN
+            assertEquals( expectedHeader.length, length.get() );
+            assertArrayEquals( expectedHeader, readHeader );
+        }
+    }
+
     /* Check-pointing tests */
 
     @Test( timeout = 5_000L )
@@ -1148,6 +1174,180 @@ public class GBPTreeTest
         }
     }
 
+    /* Bulk load tests */
+
+    @Test
+    public void shouldBulkLoadAndSeekAllEntries() throws Exception
+    {
+        for ( double fillFactor : new double[] {0.01, 0.5, 0.9, 1.0} )
+        {
+            // GIVEN
+            fs.get().deleteFile( indexFile );
+            int count = 5_000 + random.nextInt( 5_000 );
+            try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+            {
+                // WHEN
+                bulkLoad( index, fillFactor, 0, count, 3 );
+
+                // THEN
+                assertTrue( index.consistencyCheck() );
+                assertRange( index, 0, count * 3, 3 );
+                index.checkpoint( unlimited() );
+            }
+
+            // and WHEN reopening
+            try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+            {
+                // THEN
+                assertTrue( index.consistencyCheck() );
+                assertRange( index, 0, count * 3, 3 );
+            }
+        }
+    }
+
+    @Test
+    public void shouldAcceptWritesAfterBulkLoad() throws Exception
+    {
+        // GIVEN
+        int count = 2_000;
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            bulkLoad( index, 1.0, 0, count, 2 );
+
+            // WHEN filling the gaps, which causes splits all over the full tree
+            try ( Writer<MutableLong,MutableLong> writer = index.writer() )
+            {
+                for ( long key = 1; key < count * 2; key += 2 )
+                {
+                    writer.put( new MutableLong( key ), new MutableLong( key ) );
+                }
+            }
+
+            // THEN
+            assertTrue( index.consistencyCheck() );
+            assertRange( index, 0, count * 2, 1 );
+        }
+    }
+
+    @Test
+    public void shouldKeepTreeEmptyAfterEmptyBulkLoad() throws Exception
+    {
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            // WHEN
+            try ( BulkLoader<MutableLong,MutableLong> ignored = index.bulkLoader( 1.0 ) )
+            {   // add nothing
+            }
+
+            // THEN
+            assertTrue( index.consistencyCheck() );
+            assertRange( index, 0, 0, 1 );
+            insert( index, 1, 1 );
+            assertRange( index, 1, 2, 1 );
+        }
+    }
+
+    @Test
+    public void shouldNotBulkLoadIntoNonEmptyTree() throws Exception
+    {
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            // GIVEN
+            insert( index, 1, 1 );
+
+            // WHEN
+            try ( BulkLoader<MutableLong,MutableLong> ignored = index.bulkLoader( 1.0 ) )
+            {
+                fail( "Should not be able to bulk load into a tree with entries" );
+            }
+            catch ( IllegalStateException e )
+            {
+                // THEN good
+            }
+
+            // and the writer should have been released
+            insert( index, 2, 2 );
+        }
+    }
+
+    @Test
+    public void shouldNotBulkLoadKeysOutOfOrder() throws Exception
+    {
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            try ( BulkLoader<MutableLong,MutableLong> bulkLoader = index.bulkLoader( 1.0 ) )
+            {
+                bulkLoader.add( new MutableLong( 2 ), new MutableLong( 2 ) );
+
+                // WHEN
+                bulkLoader.add( new MutableLong( 2 ), new MutableLong( 2 ) );
+                fail( "Should not accept keys which aren't in strictly ascending order" );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                // THEN good
+            }
+
+            // and what was added before the bad key is there
+            assertTrue( index.consistencyCheck() );
+            assertRange( index, 2, 3, 1 );
+        }
+    }
+
+    @Test
+    public void shouldNotSeeBulkLoadedEntriesAfterCrashBeforeCheckpoint() throws Exception
+    {
+        // GIVEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            bulkLoad( index, 1.0, 0, 1_000, 1 );
+            // no checkpoint
+        }
+
+        // WHEN
+        try ( GBPTree<MutableLong,MutableLong> index = index().build() )
+        {
+            // THEN
+            assertTrue( index.consistencyCheck() );
+            assertRange( index, 0, 0, 1 );
+            bulkLoad( index, 1.0, 0, 1_000, 1 );
+            assertRange( index, 0, 1_000, 1 );
+        }
+    }
+
+    private static void bulkLoad( GBPTree<MutableLong,MutableLong> index, double fillFactor, long from, long count,
+            long step ) throws IOException
+    {
+        MutableLong key = new MutableLong();
+        MutableLong value = new MutableLong();
+        try ( BulkLoader<MutableLong,MutableLong> bulkLoader = index.bulkLoader( fillFactor ) )
+        {
+            for ( long i = 0; i < count; i++ )
+            {
+                key.setValue( from + i * step );
+                value.setValue( key.longValue() );
+                bulkLoader.add( key, value );
+            }
+        }
+    }
+
+    private static void assertRange( GBPTree<MutableLong,MutableLong> index, long fromInclusive, long toExclusive,
+            long step ) throws IOException
+    {
+        long expected = fromInclusive;
+        try ( RawCursor<Hit<MutableLong,MutableLong>,IOException> cursor =
+                      index.seek( new MutableLong( Long.MIN_VALUE ), new MutableLong( Long.MAX_VALUE ) ) )
+        {
+            while ( cursor.next() )
+            {
+                assertEquals( expected, cursor.get().key().longValue() );
+                assertEquals( expected, cursor.get().value().longValue() );
+                expected += step;
+            }
+        }
+        assertEquals( toExclusive, expected );
+    }
+
     /* IO failure on close */
 
     @Test
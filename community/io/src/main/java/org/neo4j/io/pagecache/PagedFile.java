@@ -63,17 +63,33 @@ public interface PagedFile extends AutoCloseable
     int PF_NO_GROW = 1 << 2;
     /**
      * Read-ahead hint for sequential forward scanning.
+     * <p>
+     * When a cursor with this flag is observed to move forward through the file one page at a time, the page cache
+     * will start asynchronously loading the pages ahead of the cursor, using large vectored reads, such that the
+     * cursor will find them already in memory when it gets to them. Read-ahead only uses free pages, and never evicts
+     * anything to make room.
      */
-    int PF_READ_AHEAD = 1 << 3; // TBD
+    int PF_READ_AHEAD = 1 << 3;
     /**
-     * Do not load in the page if it is not loaded already. Only useful with
-     * exclusive locking when you want to overwrite the whole page anyway.
+     * Do not load in the page if it is not loaded already. The methods {@link PageCursor#next()} and
+     * {@link PageCursor#next(long)} will always return {@code true} for pages that are within the range of the file,
+     * but the {@link PageCursor#getCurrentPageId()} will return {@link PageCursor#UNBOUND_PAGE_ID} for pages that are
+     * not in memory. The current page id <em>must</em> be checked on every {@link PageCursor#shouldRetry()} loop
+     * iteration, in case the page was evicted concurrently with a read page access.
+     * <p>
+     * This is useful for cheaply probing the pages that are already in memory, without disturbing the cache.
+     * <p>
+     * This implies {@link #PF_NO_GROW}, since a page fault is necessary to be able to extend a file.
      */
-    int PF_NO_FAULT = 1 << 4; // TBD
+    int PF_NO_FAULT = 1 << 4;
     /**
      * Do not update page access statistics.
+     * <p>
+     * Pages that are pinned by a cursor with this flag will not have their usage counters raised, and pages that are
+     * faulted in by such a cursor will be placed at the cold end of the eviction order. This is useful for large
+     * one-off scans, that would otherwise push the working set out of memory.
      */
-    int PF_TRANSIENT = 1 << 5; // TBD
+    int PF_TRANSIENT = 1 << 5;
 
     /**
      * Initiate an IO interaction with the contents of the paged file.
@@ -163,6 +179,22 @@ public interface PagedFile extends AutoCloseable
      */
     long getLastPageId() throws IOException;
 
+    /**
+     * Load the given range of file pages into memory, without pinning them.
+     * <p>
+     * Runs of consecutive pages are loaded with large vectored reads. Pages that are already in memory are skipped.
+     * Pre-loading never evicts any pages, so it will stop loading pages if the page cache runs out of free pages.
+     * It is a best-effort operation, and the pages that could not be loaded will be faulted in as usual, when a
+     * cursor gets to them. The loaded pages are assumed to be frequently used, so page cache implementations with a
+     * scan-resistant replacement policy should protect them from eviction, as if they had already been used.
+     *
+     * @param startFilePageId The file page id of the first page in the range to load.
+     * @param pageCount The number of pages in the range.
+     * @return The number of pages that were loaded into memory by this call.
+     * @throws IllegalStateException if this file has been unmapped
+     */
+    long preload( long startFilePageId, long pageCount ) throws IOException;
+
     /**
      * Release a handle to a paged file.
      * <p>
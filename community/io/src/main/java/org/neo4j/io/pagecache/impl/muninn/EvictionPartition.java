@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.neo4j.io.pagecache.tracing.EvictionEvent;
+import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+/**
+ * A contiguous range of the pages in a {@link MuninnPageCache}, with its own freelist and its own eviction thread.
+ * <p>
+ * Every page belongs to exactly one partition, decided by its index in the page array. The eviction thread of a
+ * partition only sweeps the pages in its own range, and only puts the pages it evicts on its own freelist. This way,
+ * eviction can run on as many threads as there are partitions, and the page faulting threads spread their contention
+ * on the freelists out over all the partitions.
+ */
+final class EvictionPartition
+{
+    // The field offset to unsafely access the freelist field.
+    private static final long freelistOffset =
+            UnsafeUtil.getFieldOffset( EvictionPartition.class, "freelist" );
+
+    // This is used as a poison-pill signal in the freelist, to inform any
+    // page faulting thread that it is now no longer possible to queue up and
+    // wait for more pages to be evicted, because the page cache has been shut
+    // down.
+    private static final FreePage shutdownSignal = new FreePage( null );
+
+    final int index;
+    private final MuninnPageCache pageCache;
+    private final MuninnPage[] pages;
+    private final int startIndex;
+    private final int endIndex;
+    private final int keepFree;
+
+    // The freelist is a thread-safe linked-list of 2 types of objects. A link
+    // can either be a MuninnPage or a FreePage.
+    // Initially, most of the links are MuninnPages that are ready for the
+    // taking. Then towards the end, we have the last bunch of pages linked
+    // through FreePage objects. We make this transition because, once a
+    // MuninnPage has been removed from the list, it cannot be added back. The
+    // reason is that the MuninnPages are reused, and adding them back into the
+    // freelist would expose us to the ABA-problem, which can cause cycles to
+    // form. The FreePage objects, however, are single-use such that they don't
+    // exhibit the ABA-problem. In other words, eviction will never add
+    // MuninnPages to the freelist; it will only add free pages through a new
+    // FreePage object.
+    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
+    private volatile Object freelist;
+
+    // The thread that runs the eviction algorithm for this partition. We unpark this when we've run out of free pages
+    // to grab.
+    private volatile Thread evictionThread;
+    // True if the eviction thread is currently parked, without someone having
+    // signalled it to wake up. This is used as a weak guard for unparking the
+    // eviction thread, because calling unpark too much (from many page
+    // faulting threads) can cause contention on the locks protecting that
+    // threads scheduling meta-data in the OS kernel.
+    private volatile boolean evictorParked;
+
+    /**
+     * Create a partition of the pages from {@code startIndex}, inclusive, to {@code endIndex}, exclusive, and put all
+     * of them on the freelist of the partition. The pages must already be exclusively locked.
+     */
+    EvictionPartition( int index, MuninnPageCache pageCache, MuninnPage[] pages, int startIndex, int endIndex,
+            int pagesToKeepFree )
+    {
+        this.index = index;
+        this.pageCache = pageCache;
+        this.pages = pages;
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+        this.keepFree = Math.min( pagesToKeepFree, (endIndex - startIndex) / 2 );
+
+        Object pageList = null;
+        int pageIndex = endIndex;
+        while ( pageIndex-- > startIndex )
+        {
+            MuninnPage page = pages[pageIndex];
+            if ( pageList == null )
+            {
+                FreePage freePage = new FreePage( page );
+                freePage.setNext( null );
+                pageList = freePage;
+            }
+            else if ( pageList instanceof FreePage
+                    && ((FreePage) pageList).count < keepFree )
+            {
+                FreePage freePage = new FreePage( page );
+                freePage.setNext( (FreePage) pageList );
+                pageList = freePage;
+            }
+            else
+            {
+                page.nextFree = pageList;
+                pageList = page;
+            }
+        }
+        UnsafeUtil.putObjectVolatile( this, freelistOffset, pageList );
+    }
+
+    /**
+     * Take a free and exclusively locked page off the freelist of this partition.
+     * <p>
+     * Review the comment on the freelist field before making changes to this part of the code.
+     *
+     * @return The free page, or {@code null} if the freelist is empty, or if the page cache has been shut down.
+     */
+    MuninnPage grabFreePage()
+    {
+        // Whatever the case, we're going to the head-pointer of the freelist,
+        // and in doing so, we can discover a number of things.
+        // We can discover a MuninnPage object, in which case we can try to
+        // CAS the freelist pointer to the value of the MuninnPage.nextFree
+        // pointer, and if this succeeds then we've grabbed that page.
+        // We can discover a FreePage object, in which case we'll do a similar
+        // dance by attempting to CAS the freelist to the FreePage objects next
+        // pointer, and again, if we succeed then we've grabbed the MuninnPage
+        // given by the FreePage object.
+        // We can discover a null-pointer, in which case the freelist has just
+        // been emptied for whatever it contained before. New FreePage objects
+        // are eventually going to be added to the freelist, but we are not
+        // going to wait around for that to happen.
+        // If we find a FreePage object on the freelist, then it is important
+        // to check and see if it is the shutdownSignal instance. If that's the
+        // case, then the page cache has been shut down, and there are no pages
+        // to be had.
+        Object current;
+        for (;;)
+        {
+            current = getFreelistHead();
+            if ( current == null )
+            {
+                return null;
+            }
+            else if ( current instanceof MuninnPage )
+            {
+                MuninnPage page = (MuninnPage) current;
+                if ( compareAndSetFreelistHead( page, page.nextFree ) )
+                {
+                    return page;
+                }
+            }
+            else if ( current instanceof FreePage )
+            {
+                FreePage freePage = (FreePage) current;
+                if ( freePage == shutdownSignal )
+                {
+                    return null;
+                }
+
+                if ( compareAndSetFreelistHead( freePage, freePage.next ) )
+                {
+                    return freePage.page;
+                }
+            }
+        }
+    }
+
+    boolean contains( int pageIndex )
+    {
+        return startIndex <= pageIndex && pageIndex < endIndex;
+    }
+
+    /**
+     * @return {@code true} if the freelist of this partition is not empty. This includes the case where the page cache
+     * has been shut down.
+     */
+    boolean hasFreePages()
+    {
+        return getFreelistHead() != null;
+    }
+
+    /**
+     * @return {@code true} if the eviction thread of this partition has signalled that the page cache is shut down.
+     */
+    boolean isShutDown()
+    {
+        return getFreelistHead() == shutdownSignal;
+    }
+
+    void unparkEvictor()
+    {
+        if ( evictorParked )
+        {
+            evictorParked = false;
+            LockSupport.unpark( evictionThread );
+        }
+    }
+
+    private void parkEvictor( long parkNanos )
+    {
+        // Only called from the background eviction thread!
+        evictorParked = true;
+        LockSupport.parkNanos( this, parkNanos );
+        evictorParked = false;
+    }
+
+    void interruptEvictor()
+    {
+        Thread thread = evictionThread;
+        if ( thread != null )
+        {
+            thread.interrupt();
+        }
+        evictionThread = null;
+    }
+
+    private Object getFreelistHead()
+    {
+        return UnsafeUtil.getObjectVolatile( this, freelistOffset );
+    }
+
+    private boolean compareAndSetFreelistHead( Object expected, Object update )
+    {
+        return UnsafeUtil.compareAndSwapObject(
+                this, freelistOffset, expected, update );
+    }
+
+    private Object getAndSetFreelistHead( Object newFreelistHead )
+    {
+        return UnsafeUtil.getAndSetObject(
+                this, freelistOffset, newFreelistHead );
+    }
+
+    /**
+     * Scan through the pages of this partition, one by one, and decrement their usage stamps.
+     * If a usage reaches zero, we try-write-locking it, and if we get that lock,
+     * we evict the page. If we don't, we move on to the next page.
+     * Once we have enough free pages, we park our thread. Page-faulting will
+     * unpark our thread as needed.
+     */
+    void continuouslySweepPages()
+    {
+        evictionThread = Thread.currentThread();
+        int clockArm = startIndex;
+
+        while ( !pageCache.isClosed() )
+        {
+            int pageCountToEvict = parkUntilEvictionRequired( keepFree );
+            try ( EvictionRunEvent evictionRunEvent = pageCache.pageCacheTracer().beginPageEvictions(
+                    pageCountToEvict ) )
+            {
+                clockArm = evictPages( pageCountToEvict, clockArm, evictionRunEvent );
+            }
+        }
+
+        // The last thing we do, is signalling the shutdown of the cache via
+        // the freelist. This signal is looked out for in grabFreePage.
+        getAndSetFreelistHead( shutdownSignal );
+    }
+
+    private int parkUntilEvictionRequired( int keepFree )
+    {
+        // Park until we're either interrupted, or the number of free pages drops
+        // bellow keepFree.
+        long parkNanos = TimeUnit.MILLISECONDS.toNanos( 10 );
+        for (;;)
+        {
+            parkEvictor( parkNanos );
+            if ( Thread.interrupted() || pageCache.isClosed() )
+            {
+                return 0;
+            }
+
+            Object freelistHead = getFreelistHead();
+
+            if ( freelistHead == null )
+            {
+                return keepFree;
+            }
+            else if ( freelistHead.getClass() == FreePage.class )
+            {
+                int availablePages = ((FreePage) freelistHead).count;
+                if ( availablePages < keepFree )
+                {
+                    return keepFree - availablePages;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sweep the clock arm over the pages of this partition, until the given number of pages have been evicted.
+     *
+     * @param pageCountToEvict The number of pages to evict.
+     * @param clockArm The index into the page array where the sweep should start. This must be within the range of
+     * this partition.
+     * @param evictionRunEvent The trace event for this eviction run.
+     * @return The index into the page array where the next sweep should continue.
+     */
+    int evictPages( int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
+    {
+        while ( pageCountToEvict > 0 && !pageCache.isClosed() )
+        {
+            if ( clockArm == endIndex )
+            {
+                clockArm = startIndex;
+            }
+            MuninnPage page = pages[clockArm];
+
+            if ( page == null )
+            {
+                // The page cache has been shut down.
+                return startIndex;
+            }
+
+            if ( page.isLoaded() && page.decrementUsage() )
+            {
+                if ( page.tryExclusiveLock() )
+                {
+                    // We got the lock.
+                    // Assume that the eviction is going to succeed, so that we
+                    // always make some kind of progress. This means that, if
+                    // we have a temporary outage of the storage system, for
+                    // instance if the drive is full, then we won't spin in
+                    // this forever. Instead, we'll eventually make our way
+                    // back out to the main loop, where we have a chance to
+                    // sleep for a little while in `parkUntilEvictionRequired`.
+                    // This reduces the CPU load and power usage in such a
+                    // scenario.
+                    pageCountToEvict--;
+                    boolean pageEvicted = false;
+
+                    try ( EvictionEvent evictionEvent = evictionRunEvent.beginEviction() )
+                    {
+                        pageEvicted = page.isLoaded() && pageCache.evictPage( page, evictionEvent );
+                        if ( pageEvicted )
+                        {
+                            Object current;
+                            FreePage freePage = new FreePage( page );
+                            do
+                            {
+                                current = getFreelistHead();
+                                freePage.setNext( (FreePage) current );
+                            }
+                            while ( !compareAndSetFreelistHead(
+                                    current, freePage ) );
+                        }
+                    }
+                    finally
+                    {
+                        if ( !pageEvicted )
+                        {
+                            // Pages we put into the free-list remain exclusively locked until a page fault unlocks
+                            // them. If we somehow failed to evict the page, then we need to make sure that we release
+                            // the exclusive lock.
+                            page.unlockExclusive();
+                        }
+                    }
+                }
+            }
+
+            clockArm++;
+        }
+
+        return clockArm;
+    }
+}
@@ -20,22 +20,32 @@
 package org.neo4j.io.pagecache.impl.muninn;
 
 /**
- * This Runnable runs the eviction algorithm. Only one is expected for each page cache.
+ * This Runnable runs the eviction algorithm for one eviction partition. Only one is expected for each partition of
+ * each page cache.
  *
  * Interrupting the thread running this runnable, will be interpreted as a shutdown signal.
  *
- * @see MuninnPageCache#continuouslySweepPages()
+ * @see EvictionPartition#continuouslySweepPages()
  */
 final class EvictionTask extends BackgroundTask
 {
-    EvictionTask( MuninnPageCache pageCache )
+    private final EvictionPartition partition;
+
+    EvictionTask( MuninnPageCache pageCache, EvictionPartition partition )
     {
         super( pageCache );
+        this.partition = partition;
+    }
+
+    @Override
+    protected String taskName()
+    {
+        return super.taskName() + "-" + partition.index;
     }
 
     @Override
     protected void run( MuninnPageCache pageCache )
     {
-        pageCache.continuouslySweepPages();
+        partition.continuouslySweepPages();
     }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.neo4j.io.pagecache.PageSwapper;
+
+/**
+ * A table of the file pages that were recently evicted from the page cache, used by the {@link ReplacementPolicy}
+ * to recognise pages that are loaded again shortly after being evicted.
+ * <p>
+ * The table is direct mapped, and only stores a hash of the swapper and file page id of each entry. Entries are
+ * overwritten by newer evictions that hash to the same slot, and a hash collision can produce a false positive.
+ * This is fine, since the table only influences which pages we prefer to keep in memory. All access to the table is
+ * lock-free.
+ */
+final class GhostTable
+{
+    private static final long EMPTY = 0;
+
+    private final AtomicLongArray entries;
+    private final int mask;
+
+    GhostTable( int capacity )
+    {
+        int size = Integer.highestOneBit( Math.max( 1, capacity - 1 ) ) << 1;
+        this.entries = new AtomicLongArray( size );
+        this.mask = size - 1;
+    }
+
+    /**
+     * Remember that the given file page has been evicted.
+     */
+    void add( PageSwapper swapper, long filePageId )
+    {
+        long key = key( swapper, filePageId );
+        entries.lazySet( slot( key ), key );
+    }
+
+    /**
+     * Forget the given file page, and return {@code true} if it was in the table.
+     */
+    boolean remove( PageSwapper swapper, long filePageId )
+    {
+        long key = key( swapper, filePageId );
+        int slot = slot( key );
+        return entries.get( slot ) == key && entries.compareAndSet( slot, key, EMPTY );
+    }
+
+    private int slot( long key )
+    {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    private static long key( PageSwapper swapper, long filePageId )
+    {
+        long key = filePageId * 0x9E3779B97F4A7C15L + System.identityHashCode( swapper );
+        key ^= key >>> 29;
+        key *= 0xBF58476D1CE4E5B9L;
+        key ^= key >>> 32;
+        return key == EMPTY ? 1 : key;
+    }
+}
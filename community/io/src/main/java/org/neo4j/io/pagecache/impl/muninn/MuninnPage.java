@@ -47,6 +47,10 @@ final class MuninnPage extends SequenceLock implements Page
 
     private long pointer;
 
+    // Usage counter bit that marks pages in the probationary segment of the TWO_QUEUE replacement policy.
+    // The flag is greater than the max usage count, so incrementUsage naturally leaves such pages alone.
+    private static final byte PROBATIONARY = 0x10;
+
     // Optimistically incremented; occasionally truncated to a max of 4.
     // accessed through unsafe
     @SuppressWarnings( "unused" )
@@ -60,6 +64,10 @@ final class MuninnPage extends SequenceLock implements Page
     private PageSwapper swapper;
     private long filePageId = PageCursor.UNBOUND_PAGE_ID;
 
+    // True if this page was loaded by read-ahead, and has not yet been pinned by any cursor.
+    // Set while holding the exclusive page lock, but cleared benignly racy by pinning cursors.
+    private boolean readAhead;
+
     MuninnPage( int cachePageSize, MemoryManager memoryManager )
     {
         this.cachePageHeader = (byte) (31 - Integer.numberOfLeadingZeros( cachePageSize ));
@@ -102,12 +110,12 @@ final class MuninnPage extends SequenceLock implements Page
         cachePageHeader &= 0x7F;
     }
 
-    /** Increment the usage stamp to at most 4. */
+    /** Increment the usage stamp to at most 4. Probationary pages do not count their usage. */
     public void incrementUsage()
     {
         // This is intentionally left benignly racy for performance.
         byte usage = getUsageCounter();
-        if ( usage < 4 ) // avoid cache sloshing by not doing a write if counter is already maxed out
+        if ( usage < 4 ) // avoid cache sloshing by not doing a write if counter is already maxed out, or probationary
         {
             usage <<= 1;
             usage++; // Raise at least one bit in case it was all zeros.
@@ -116,16 +124,36 @@ final class MuninnPage extends SequenceLock implements Page
         }
     }
 
-    /** Decrement the usage stamp. Returns true if it reaches 0. */
+    /** Decrement the usage stamp. Returns true if it reaches 0, or if the page is probationary. */
     public boolean decrementUsage()
     {
         // This is intentionally left benignly racy for performance.
         byte usage = getUsageCounter();
+        if ( usage == PROBATIONARY )
+        {
+            return true;
+        }
         usage >>>= 1;
         UnsafeUtil.putByteVolatile( this, usageStampOffset, usage );
         return usage == 0;
     }
 
+    /**
+     * Reset the usage stamp of a newly loaded page, and place it in either the probationary or the protected segment
+     * of the replacement policy.
+     * <p>
+     * NOTE: This method MUST be called while holding the exclusive page lock.
+     */
+    public void initUsage( boolean probationary )
+    {
+        UnsafeUtil.putByteVolatile( this, usageStampOffset, probationary ? PROBATIONARY : 0 );
+    }
+
+    public boolean isProbationary()
+    {
+        return getUsageCounter() == PROBATIONARY;
+    }
+
     private byte getUsageCounter()
     {
         return UnsafeUtil.getByteVolatile( this, usageStampOffset );
@@ -171,15 +199,7 @@ final class MuninnPage extends SequenceLock implements Page
             long filePageId,
             PageFaultEvent faultEvent ) throws IOException
     {
-        if ( this.swapper != null || this.filePageId != PageCursor.UNBOUND_PAGE_ID )
-        {
-            String msg = format(
-                    "Cannot fault page {filePageId = %s, swapper = %s} into " +
-                    "cache page %s. Already bound to {filePageId = " +
-                    "%s, swapper = %s}.",
-                    filePageId, swapper, getCachePageId(), this.filePageId, this.swapper );
-            throw new IllegalStateException( msg );
-        }
+        assertUnbound( swapper, filePageId );
 
         // Note: It is important that we assign the filePageId before we swap
         // the page in. If the swapping fails, the page will be considered
@@ -195,6 +215,60 @@ final class MuninnPage extends SequenceLock implements Page
         this.swapper = swapper; // Page now considered isBoundTo( swapper, filePageId )
     }
 
+    /**
+     * Prepare this page for being loaded as part of a vectored read-ahead. The contents of the page will be read in
+     * by the caller, after which {@link #completeReadAhead(PageSwapper)} must be called to bind the page.
+     * <p>
+     * Like with {@link #fault(PageSwapper, long, PageFaultEvent)}, the page is considered loaded, but not bound,
+     * from this point on, so a failed read-ahead will leave the page for eviction to clean up.
+     * <p>
+     * NOTE: This method MUST be called while holding the exclusive page lock.
+     */
+    public void beginReadAhead( PageSwapper swapper, long filePageId )
+    {
+        assertUnbound( swapper, filePageId );
+        this.filePageId = filePageId; // Page now considered isLoaded()
+    }
+
+    /**
+     * Bind this page to the given swapper, once its contents have been read in by a vectored read-ahead.
+     * <p>
+     * NOTE: This method MUST be called while holding the exclusive page lock.
+     */
+    public void completeReadAhead( PageSwapper swapper )
+    {
+        this.swapper = swapper; // Page now considered isBoundTo( swapper, filePageId )
+        this.readAhead = true;
+    }
+
+    /**
+     * Clear the read-ahead mark on this page, if any. Returns true if the page was loaded by read-ahead and has not
+     * been pinned since.
+     */
+    public boolean clearReadAhead()
+    {
+        // This is intentionally left benignly racy for performance. We avoid the write if the mark is already clear.
+        if ( readAhead )
+        {
+            readAhead = false;
+            return true;
+        }
+        return false;
+    }
+
+    private void assertUnbound( PageSwapper swapper, long filePageId )
+    {
+        if ( this.swapper != null || this.filePageId != PageCursor.UNBOUND_PAGE_ID )
+        {
+            String msg = format(
+                    "Cannot fault page {filePageId = %s, swapper = %s} into " +
+                    "cache page %s. Already bound to {filePageId = " +
+                    "%s, swapper = %s}.",
+                    filePageId, swapper, getCachePageId(), this.filePageId, this.swapper );
+            throw new IllegalStateException( msg );
+        }
+    }
+
     /**
      * NOTE: This method MUST be called while holding the page write lock.
      */
@@ -244,6 +318,11 @@ final class MuninnPage extends SequenceLock implements Page
         return filePageId;
     }
 
+    public PageSwapper getSwapper()
+    {
+        return swapper;
+    }
+
     @Override
     public String toString()
     {
@@ -27,17 +27,19 @@ import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Stream;
 
 import org.neo4j.io.pagecache.FileHandle;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCacheOpenOptions;
+import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.impl.FileIsMappedException;
@@ -108,32 +110,45 @@ public class MuninnPageCache implements PageCache
     public static final byte ZERO_BYTE =
             (byte) (flag( MuninnPageCache.class, "brandedZeroByte", false ) ? 0x0f : 0);
 
-    // Keep this many pages free and ready for use in faulting.
+    // Keep this many pages free and ready for use in faulting, in every eviction partition.
     // This will be truncated to be no more than half of the number of pages
-    // in the cache.
+    // in the partition.
     private static final int pagesToKeepFree = getInteger(
             MuninnPageCache.class, "pagesToKeepFree", 30 );
 
+    // The page array is split into this many eviction partitions, each with its own freelist and eviction thread,
+    // unless that would make the partitions smaller than minPagesPerEvictionPartition.
+    private static final int evictionPartitions = getInteger(
+            MuninnPageCache.class, "evictionPartitions",
+            Math.max( 1, Runtime.getRuntime().availableProcessors() / 8 ) );
+
+    // Caches are never split into eviction partitions that are smaller than this many pages.
+    private static final int minPagesPerEvictionPartition = getInteger(
+            MuninnPageCache.class, "minPagesPerEvictionPartition", 4096 );
+
+    // The replacement policy decides which pages the clock arm evicts. See ReplacementPolicy for the options.
+    private static final ReplacementPolicy defaultReplacementPolicy = flag(
+            MuninnPageCache.class, "replacementPolicy", ReplacementPolicy.CLOCK );
+
     // This is how many times that, during cooperative eviction, we'll iterate through the entire set of pages looking
     // for a page to evict, before we give up and throw CacheLiveLockException. This MUST be greater than 1.
     private static final int cooperativeEvictionLiveLockThreshold = getInteger(
             MuninnPageCache.class, "cooperativeEvictionLiveLockThreshold", 100 );
 
+    // The maximum number of read-ahead requests that can be queued up, waiting for the read-ahead thread. Requests
+    // beyond this limit are dropped, since read-ahead is only an optimisation.
+    private static final int readAheadQueueSize = getInteger(
+            MuninnPageCache.class, "readAheadQueueSize", 64 );
+
+    // Read-ahead is limited to this fraction of the cache size per request, so that small caches are not flooded.
+    private static final int readAheadCacheFractionDivisor = getInteger(
+            MuninnPageCache.class, "readAheadCacheFractionDivisor", 8 );
+
     // This is a pre-allocated constant, so we can throw it without allocating any objects:
     @SuppressWarnings( "ThrowableInstanceNeverThrown" )
     private static final IOException oomException = new IOException(
             "OutOfMemoryError encountered in the page cache background eviction thread" );
 
-    // The field offset to unsafely access the freelist field.
-    private static final long freelistOffset =
-            UnsafeUtil.getFieldOffset( MuninnPageCache.class, "freelist" );
-
-    // This is used as a poison-pill signal in the freelist, to inform any
-    // page faulting thread that it is now no longer possible to queue up and
-    // wait for more pages to be evicted, because the page cache has been shut
-    // down.
-    private static final FreePage shutdownSignal = new FreePage( null );
-
     // A counter used to identify which background threads belong to which page cache.
     private static final AtomicInteger pageCacheIdCounter = new AtomicInteger();
 
@@ -151,42 +166,25 @@ public class MuninnPageCache implements PageCache
     private final int pageCacheId;
     private final PageSwapperFactory swapperFactory;
     private final int cachePageSize;
-    private final int keepFree;
     private final PageCacheTracer pageCacheTracer;
     private final MuninnPage[] pages;
+    private final EvictionPartition[] partitions;
+    private final ReplacementPolicy replacementPolicy;
+    private final GhostTable ghosts;
     // All PageCursors are initialised with their pointers pointing to the victim page. This way, we can do branch-free
     // bounds checking of page accesses without fear of segfaulting newly allocated cursors.
     final long victimPage;
 
-    // The freelist is a thread-safe linked-list of 2 types of objects. A link
-    // can either be a MuninnPage or a FreePage.
-    // Initially, most of the links are MuninnPages that are ready for the
-    // taking. Then towards the end, we have the last bunch of pages linked
-    // through FreePage objects. We make this transition because, once a
-    // MuninnPage has been removed from the list, it cannot be added back. The
-    // reason is that the MuninnPages are reused, and adding them back into the
-    // freelist would expose us to the ABA-problem, which can cause cycles to
-    // form. The FreePage objects, however, are single-use such that they don't
-    // exhibit the ABA-problem. In other words, eviction will never add
-    // MuninnPages to the freelist; it will only add free pages through a new
-    // FreePage object.
-    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
-    private volatile Object freelist;
-
     // Linked list of mappings - guarded by synchronized(this)
     private volatile FileMapping mappedFiles;
 
-    // The thread that runs the eviction algorithm. We unpark this when we've run out of
-    // free pages to grab.
-    private volatile Thread evictionThread;
-    // True if the eviction thread is currently parked, without someone having
-    // signalled it to wake up. This is used as a weak guard for unparking the
-    // eviction thread, because calling unpark too much (from many page
-    // faulting threads) can cause contention on the locks protecting that
-    // threads scheduling meta-data in the OS kernel.
-    private volatile boolean evictorParked;
     private volatile IOException evictorException;
 
+    // The thread that services read-ahead requests from sequentially scanning page cursors.
+    private volatile Thread readAheadThread;
+    private final BlockingQueue<ReadAheadRequest> readAheadQueue;
+    private final int maxReadAheadPages;
+
     // Flag for when page cache is closed - writes guarded by synchronized(this), reads can be unsynchronized
     private volatile boolean closed;
 
@@ -208,52 +206,68 @@ public class MuninnPageCache implements PageCache
      */
     public MuninnPageCache( PageSwapperFactory swapperFactory, int maxPages, int cachePageSize, PageCacheTracer pageCacheTracer,
             PageCursorTracerSupplier pageCursorTracerSupplier )
+    {
+        this( swapperFactory, maxPages, cachePageSize, pageCacheTracer, pageCursorTracerSupplier,
+                Math.max( 1, Math.min( evictionPartitions, maxPages / minPagesPerEvictionPartition ) ) );
+    }
+
+    /**
+     * Create page cache with the given number of eviction partitions
+     * @param swapperFactory page cache swapper factory
+     * @param maxPages maximum number of pages
+     * @param cachePageSize page cache size
+     * @param pageCacheTracer global page cache tracer
+     * @param pageCursorTracerSupplier supplier of thread local (transaction local) page cursor tracer that will provide
+     * thread local page cache statistics
+     * @param partitionCount the number of partitions to split the pages into, each with its own freelist and eviction
+     * thread
+     */
+    public MuninnPageCache( PageSwapperFactory swapperFactory, int maxPages, int cachePageSize, PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier, int partitionCount )
+    {
+        this( swapperFactory, maxPages, cachePageSize, pageCacheTracer, pageCursorTracerSupplier, partitionCount,
+                defaultReplacementPolicy );
+    }
+
+    MuninnPageCache( PageSwapperFactory swapperFactory, int maxPages, int cachePageSize, PageCacheTracer pageCacheTracer,
+            PageCursorTracerSupplier pageCursorTracerSupplier, int partitionCount,
+            ReplacementPolicy replacementPolicy )
     {
         verifyHacks();
         verifyCachePageSizeIsPowerOfTwo( cachePageSize );
         verifyMinimumPageCount( maxPages, cachePageSize );
+        verifyPartitionCount( maxPages, partitionCount );
 
         this.pageCacheId = pageCacheIdCounter.incrementAndGet();
         this.swapperFactory = swapperFactory;
         this.cachePageSize = cachePageSize;
-        this.keepFree = Math.min( pagesToKeepFree, maxPages / 2 );
         this.pageCacheTracer = pageCacheTracer;
         this.pageCursorTracerSupplier = pageCursorTracerSupplier;
         this.pages = new MuninnPage[maxPages];
         this.printExceptionsOnClose = true;
+        this.readAheadQueue = new ArrayBlockingQueue<>( readAheadQueueSize );
+        this.maxReadAheadPages = maxPages / readAheadCacheFractionDivisor;
+        this.replacementPolicy = replacementPolicy;
+        this.ghosts = new GhostTable( maxPages );
 
         long alignment = swapperFactory.getRequiredBufferAlignment();
         long expectedMaxMemory = ((long) maxPages) * cachePageSize; // cast to long prevents overflow
         MemoryManager memoryManager = new MemoryManager( expectedMaxMemory, alignment );
         this.victimPage = VictimPageReference.getVictimPage( cachePageSize );
-        Object pageList = null;
         int pageIndex = maxPages;
         while ( pageIndex-- > 0 )
         {
             MuninnPage page = new MuninnPage( cachePageSize, memoryManager );
             page.tryExclusiveLock(); // All pages in the free-list are exclusively locked, and unlocked by page fault.
             pages[pageIndex] = page;
-
-            if ( pageList == null )
-            {
-                FreePage freePage = new FreePage( page );
-                freePage.setNext( null );
-                pageList = freePage;
-            }
-            else if ( pageList instanceof FreePage
-                    && ((FreePage) pageList).count < keepFree )
-            {
-                FreePage freePage = new FreePage( page );
-                freePage.setNext( (FreePage) pageList );
-                pageList = freePage;
-            }
-            else
-            {
-                page.nextFree = pageList;
-                pageList = page;
-            }
         }
-        UnsafeUtil.putObjectVolatile( this, freelistOffset, pageList );
+        this.partitions = new EvictionPartition[partitionCount];
+        for ( int i = 0; i < partitionCount; i++ )
+        {
+            int startIndex = (int) (((long) maxPages) * i / partitionCount);
+            int endIndex = (int) (((long) maxPages) * (i + 1) / partitionCount);
+            partitions[i] = new EvictionPartition( i, this, pages, startIndex, endIndex, pagesToKeepFree );
+        }
     }
 
     private static void verifyHacks()
@@ -272,6 +286,16 @@ public class MuninnPageCache implements PageCache
         }
     }
 
+    private static void verifyPartitionCount( int maxPages, int partitionCount )
+    {
+        if ( partitionCount < 1 || partitionCount > maxPages / 2 )
+        {
+            throw new IllegalArgumentException( String.format(
+                    "Page cache must have between 1 and %s eviction partitions, but was given %s partitions.",
+                    maxPages / 2, partitionCount ) );
+        }
+    }
+
     private static void verifyMinimumPageCount( int maxPages, int cachePageSize )
     {
         int minimumPageCount = 2;
@@ -484,7 +508,11 @@ public class MuninnPageCache implements PageCache
 
         try
         {
-            backgroundThreadExecutor.execute( new EvictionTask( this ) );
+            for ( EvictionPartition partition : partitions )
+            {
+                backgroundThreadExecutor.execute( new EvictionTask( this, partition ) );
+            }
+            backgroundThreadExecutor.execute( new ReadAheadTask( this ) );
         }
         catch ( Exception e )
         {
@@ -637,8 +665,12 @@ public class MuninnPageCache implements PageCache
             pages[i] = null;
         }
 
-        interrupt( evictionThread );
-        evictionThread = null;
+        for ( EvictionPartition partition : partitions )
+        {
+            partition.interruptEvictor();
+        }
+        interrupt( readAheadThread );
+        readAheadThread = null;
 
         // Close the page swapper factory last. If this fails then we will still consider ourselves closed.
         swapperFactory.close();
@@ -694,67 +726,91 @@ public class MuninnPageCache implements PageCache
         return pageCacheId;
     }
 
+    boolean isClosed()
+    {
+        return closed;
+    }
+
+    PageCacheTracer pageCacheTracer()
+    {
+        return pageCacheTracer;
+    }
+
     MuninnPage grabFreeAndExclusivelyLockedPage( PageFaultEvent faultEvent ) throws IOException
     {
-        // Review the comment on the freelist field before making changes to
-        // this part of the code.
-        // Whatever the case, we're going to the head-pointer of the freelist,
-        // and in doing so, we can discover a number of things.
-        // We can discover a MuninnPage object, in which case we can try to
-        // CAS the freelist pointer to the value of the MuninnPage.nextFree
-        // pointer, and if this succeeds then we've grabbed that page.
-        // We can discover a FreePage object, in which case we'll do a similar
-        // dance by attempting to CAS the freelist to the FreePage objects next
-        // pointer, and again, if we succeed then we've grabbed the MuninnPage
-        // given by the FreePage object.
-        // We can discover a null-pointer, in which case the freelist has just
-        // been emptied for whatever it contained before. New FreePage objects
-        // are eventually going to be added to the freelist, but we are not
-        // going to wait around for that to happen. If the freelist is empty,
-        // then we do our own eviction to get a free page.
-        // If we find a FreePage object on the freelist, then it is important
-        // to check and see if it is the shutdownSignal instance. If that's the
-        // case, then the page cache has been shut down, and we should throw an
-        // exception from our page fault routine.
-        Object current;
+        // We first look for a free page in the partition that is local to our thread, and then in all the other
+        // partitions. Only if all the freelists are empty, do we do our own eviction to get a free page.
+        EvictionPartition localPartition = localPartition();
         for (;;)
         {
             assertHealthy();
-            current = getFreelistHead();
-            if ( current == null )
+            MuninnPage page = grabFreePage( localPartition );
+            if ( page != null )
             {
-                unparkEvictor();
-                MuninnPage page = cooperativelyEvict( faultEvent );
-                if ( page != null )
-                {
-                    return page;
-                }
+                return page;
             }
-            else if ( current instanceof MuninnPage )
+            if ( localPartition.isShutDown() )
             {
-                MuninnPage page = (MuninnPage) current;
-                if ( compareAndSetFreelistHead( page, page.nextFree ) )
-                {
-                    return page;
-                }
+                throw new IllegalStateException( "The PageCache has been shut down." );
             }
-            else if ( current instanceof FreePage )
+            page = cooperativelyEvict( localPartition, faultEvent );
+            if ( page != null )
             {
-                FreePage freePage = (FreePage) current;
-                if ( freePage == shutdownSignal )
-                {
-                    throw new IllegalStateException( "The PageCache has been shut down." );
-                }
+                return page;
+            }
+        }
+    }
 
-                if ( compareAndSetFreelistHead( freePage, freePage.next ) )
-                {
-                    return freePage.page;
-                }
+    /**
+     * Grab a free page for the purpose of read-ahead. Unlike
+     * {@link #grabFreeAndExclusivelyLockedPage(PageFaultEvent)}, this method never blocks and never evicts
+     * anything. Instead it returns {@code null} if there are no free pages immediately available, or if the page
+     * cache has been shut down.
+     */
+    MuninnPage tryGrabFreeAndExclusivelyLockedPage()
+    {
+        return grabFreePage( localPartition() );
+    }
+
+    /**
+     * Pick the eviction partition that the current thread should prefer to take its free pages from. Threads are
+     * spread out over the partitions by their thread id, so a given thread will keep going to the same partition.
+     */
+    private EvictionPartition localPartition()
+    {
+        EvictionPartition[] partitions = this.partitions;
+        return partitions[(int) (Thread.currentThread().getId() % partitions.length)];
+    }
+
+    /**
+     * Take a free page from the freelist of the given local partition, or, if that is empty, from the freelist of any
+     * of the other partitions.
+     *
+     * @return The free page, or {@code null} if all the freelists are empty, or the page cache has been shut down.
+     */
+    private MuninnPage grabFreePage( EvictionPartition localPartition )
+    {
+        MuninnPage page = localPartition.grabFreePage();
+        if ( page != null )
+        {
+            return page;
+        }
+        localPartition.unparkEvictor();
+        int partitionCount = partitions.length;
+        for ( int i = 1; i < partitionCount; i++ )
+        {
+            EvictionPartition partition = partitions[(localPartition.index + i) % partitionCount];
+            page = partition.grabFreePage();
+            if ( page != null )
+            {
+                return page;
             }
         }
+        return null;
     }
 
-    private MuninnPage cooperativelyEvict( PageFaultEvent faultEvent ) throws IOException
+    private MuninnPage cooperativelyEvict( EvictionPartition localPartition, PageFaultEvent faultEvent )
+            throws IOException
     {
         int iterations = 0;
         int clockArm = ThreadLocalRandom.current().nextInt( pages.length );
@@ -763,7 +819,7 @@ public class MuninnPageCache implements PageCache
         do
         {
             assertHealthy();
-            if ( getFreelistHead() != null )
+            if ( localPartition.hasFreePages() )
             {
                 return null;
             }
@@ -824,175 +880,116 @@ public class MuninnPageCache implements PageCache
                 "your database." );
     }
 
-    private void unparkEvictor()
-    {
-        if ( evictorParked )
-        {
-            evictorParked = false;
-            LockSupport.unpark( evictionThread );
-        }
-    }
-
-    private void parkEvictor( long parkNanos )
+    int evictionPartitionCount()
     {
-        // Only called from the background eviction thread!
-        evictorParked = true;
-        LockSupport.parkNanos( this, parkNanos );
-        evictorParked = false;
+        return partitions.length;
     }
 
-    private Object getFreelistHead()
+    ReplacementPolicy replacementPolicy()
     {
-        return UnsafeUtil.getObjectVolatile( this, freelistOffset );
+        return replacementPolicy;
     }
 
-    private boolean compareAndSetFreelistHead( Object expected, Object update )
-    {
-        return UnsafeUtil.compareAndSwapObject(
-                this, freelistOffset, expected, update );
-    }
-
-    private Object getAndSetFreelistHead( Object newFreelistHead )
+    /**
+     * Place a newly loaded page in the eviction order, according to the replacement policy. Pages that were recently
+     * evicted are counted as ghost hits, and the {@link ReplacementPolicy#TWO_QUEUE} policy puts them straight into
+     * its protected segment, along with pages that the caller already knows to be hot.
+     * <p>
+     * NOTE: This method MUST be called while holding the exclusive page lock.
+     *
+     * @param page The page that has just been loaded.
+     * @param swapper The swapper the page was loaded from.
+     * @param filePageId The file page id of the page.
+     * @param hot {@code true} if the page is known to be frequently used, for instance by page cache warmup.
+     */
+    void admitPage( MuninnPage page, PageSwapper swapper, long filePageId, boolean hot )
     {
-        return UnsafeUtil.getAndSetObject(
-                this, freelistOffset, newFreelistHead );
+        boolean ghostHit = ghosts.remove( swapper, filePageId );
+        if ( ghostHit )
+        {
+            pageCacheTracer.ghostHits( 1 );
+        }
+        page.initUsage( replacementPolicy == ReplacementPolicy.TWO_QUEUE && !ghostHit && !hot );
     }
 
     /**
-     * Scan through all the pages, one by one, and decrement their usage stamps.
-     * If a usage reaches zero, we try-write-locking it, and if we get that lock,
-     * we evict the page. If we don't, we move on to the next page.
-     * Once we have enough free pages, we park our thread. Page-faulting will
-     * unpark our thread as needed.
+     * Evict pages from the eviction partition that the given clock arm points into.
+     *
+     * @see EvictionPartition#evictPages(int, int, EvictionRunEvent)
      */
-    void continuouslySweepPages()
+    int evictPages( int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
     {
-        evictionThread = Thread.currentThread();
-        int clockArm = 0;
-
-        while ( !closed )
+        for ( EvictionPartition partition : partitions )
         {
-            int pageCountToEvict = parkUntilEvictionRequired( keepFree );
-            try ( EvictionRunEvent evictionRunEvent = pageCacheTracer.beginPageEvictions( pageCountToEvict ) )
+            if ( partition.contains( clockArm ) )
             {
-                clockArm = evictPages( pageCountToEvict, clockArm, evictionRunEvent );
+                return partition.evictPages( pageCountToEvict, clockArm, evictionRunEvent );
             }
         }
-
-        // The last thing we do, is signalling the shutdown of the cache via
-        // the freelist. This signal is looked out for in grabFreePage.
-        getAndSetFreelistHead( shutdownSignal );
+        throw new IllegalArgumentException( "Clock arm is out of bounds: " + clockArm );
     }
 
-    private int parkUntilEvictionRequired( int keepFree )
+    /**
+     * Ask the read-ahead thread to load the given range of pages from the given file. The request may be truncated,
+     * or dropped altogether if too many requests are already waiting, in which case {@code false} is returned.
+     */
+    boolean requestReadAhead( MuninnPagedFile pagedFile, long startFilePageId, int pageCount, boolean isTransient )
     {
-        // Park until we're either interrupted, or the number of free pages drops
-        // bellow keepFree.
-        long parkNanos = TimeUnit.MILLISECONDS.toNanos( 10 );
-        for (;;)
-        {
-            parkEvictor( parkNanos );
-            if ( Thread.interrupted() || closed )
-            {
-                return 0;
-            }
-
-            Object freelistHead = getFreelistHead();
-
-            if ( freelistHead == null )
-            {
-                return keepFree;
-            }
-            else if ( freelistHead.getClass() == FreePage.class )
-            {
-                int availablePages = ((FreePage) freelistHead).count;
-                if ( availablePages < keepFree )
-                {
-                    return keepFree - availablePages;
-                }
-            }
-        }
+        pageCount = Math.min( pageCount, maxReadAheadPages );
+        return pageCount > 0 && !closed &&
+               readAheadQueue.offer( new ReadAheadRequest( pagedFile, startFilePageId, pageCount, isTransient ) );
     }
 
-    int evictPages( int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
+    /**
+     * Take read-ahead requests off the queue, and load the pages they ask for, until the page cache is closed.
+     */
+    void continuouslyReadAhead()
     {
-        while ( pageCountToEvict > 0 && !closed )
+        readAheadThread = Thread.currentThread();
+        long pollMillis = 10;
+
+        while ( !closed )
         {
-            if ( clockArm == pages.length )
+            ReadAheadRequest request;
+            try
             {
-                clockArm = 0;
+                request = readAheadQueue.poll( pollMillis, TimeUnit.MILLISECONDS );
             }
-            MuninnPage page = pages[clockArm];
-
-            if ( page == null )
+            catch ( InterruptedException e )
             {
-                // The page cache has been shut down.
-                return 0;
+                break;
             }
-
-            if ( page.isLoaded() && page.decrementUsage() )
+            if ( request != null )
             {
-                if ( page.tryExclusiveLock() )
-                {
-                    // We got the lock.
-                    // Assume that the eviction is going to succeed, so that we
-                    // always make some kind of progress. This means that, if
-                    // we have a temporary outage of the storage system, for
-                    // instance if the drive is full, then we won't spin in
-                    // this forever. Instead, we'll eventually make our way
-                    // back out to the main loop, where we have a chance to
-                    // sleep for a little while in `parkUntilEvictionRequired`.
-                    // This reduces the CPU load and power usage in such a
-                    // scenario.
-                    pageCountToEvict--;
-                    boolean pageEvicted = false;
-
-                    try ( EvictionEvent evictionEvent = evictionRunEvent.beginEviction() )
-                    {
-                        pageEvicted = page.isLoaded() && evictPage( page, evictionEvent );
-                        if ( pageEvicted )
-                        {
-                            Object current;
-                            FreePage freePage = new FreePage( page );
-                            do
-                            {
-                                current = getFreelistHead();
-                                freePage.setNext( (FreePage) current );
-                            }
-                            while ( !compareAndSetFreelistHead(
-                                    current, freePage ) );
-                        }
-                    }
-                    finally
-                    {
-                        if ( !pageEvicted )
-                        {
-                            // Pages we put into the free-list remain exclusively locked until a page fault unlocks
-                            // them. If we somehow failed to evict the page, then we need to make sure that we release
-                            // the exclusive lock.
-                            page.unlockExclusive();
-                        }
-                    }
-                }
+                request.pagedFile.readAhead( request.startFilePageId, request.pageCount, request.isTransient, false );
             }
-
-            clockArm++;
         }
 
-        return clockArm;
+        readAheadQueue.clear();
     }
 
     /**
      * Evict the given page, or return {@code false} if the eviction failed for any reason.
      * This method will never throw an exception!
      */
-    private boolean evictPage( MuninnPage page, EvictionEvent evictionEvent )
+    boolean evictPage( MuninnPage page, EvictionEvent evictionEvent )
     {
         //noinspection TryWithIdenticalCatches - this warning is a false positive; bug in Intellij inspection
         try
         {
+            boolean unusedReadAhead = page.clearReadAhead();
+            PageSwapper swapper = page.getSwapper();
+            long filePageId = page.getFilePageId();
             page.evict( evictionEvent );
             clearEvictorException();
+            if ( swapper != null )
+            {
+                ghosts.add( swapper, filePageId );
+            }
+            if ( unusedReadAhead )
+            {
+                pageCacheTracer.readAheadMisses( 1 );
+            }
             return true;
         }
         catch ( IOException ioException )
@@ -27,13 +27,18 @@ import org.neo4j.concurrent.BinaryLatch;
 import org.neo4j.io.pagecache.CursorException;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
 import org.neo4j.io.pagecache.tracing.PinEvent;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.unsafe.impl.internal.dragons.FeatureToggles.flag;
+import static org.neo4j.unsafe.impl.internal.dragons.FeatureToggles.getInteger;
 
 abstract class MuninnPageCursor extends PageCursor
 {
@@ -45,6 +50,14 @@ abstract class MuninnPageCursor extends PageCursor
 
     private static final boolean boundsCheck = flag( MuninnPageCursor.class, "boundsCheck", true );
 
+    // The number of consecutive forward page movements a PF_READ_AHEAD cursor must make, before we consider it to be
+    // sequentially scanning, and start reading ahead.
+    private static final int readAheadTrigger = getInteger( MuninnPageCursor.class, "readAheadTrigger", 3 );
+
+    // The number of pages to ask for in each read-ahead request. A new request is issued when the cursor gets within
+    // half of this distance to the end of what has already been requested.
+    private static final int readAheadPages = getInteger( MuninnPageCursor.class, "readAheadPages", 32 );
+
     // Size of the respective primitive types in bytes.
     private static final int SIZE_OF_BYTE = Byte.BYTES;
     private static final int SIZE_OF_SHORT = Short.BYTES;
@@ -68,6 +81,15 @@ abstract class MuninnPageCursor extends PageCursor
     private int offset;
     private boolean outOfBounds;
     private boolean isLinkedCursor;
+    private boolean readAhead;
+    private boolean noFault;
+    private boolean isTransient;
+    private long noFaultPins;
+    private long noFaultMisses;
+    private long transientPins;
+    private long lastPinnedPageId;
+    private int sequentialPins;
+    private long readAheadHorizon;
     // This is a String with the exception message if usePreciseCursorErrorStackTraces is false, otherwise it is a
     // CursorExceptionWithPreciseStackTrace with the message and stack trace pointing more or less directly at the
     // offending code.
@@ -91,6 +113,10 @@ abstract class MuninnPageCursor extends PageCursor
         this.pageId = pageId;
         this.pf_flags = pf_flags;
         this.filePageSize = pagedFile.filePageSize;
+        this.noFault = (pf_flags & PF_NO_FAULT) != 0;
+        this.isTransient = (pf_flags & PF_TRANSIENT) != 0;
+        // Reading ahead would mean faulting pages in, which is exactly what no-fault cursors want to avoid.
+        this.readAhead = (pf_flags & PF_READ_AHEAD) != 0 && !noFault;
     }
 
     @Override
@@ -98,6 +124,9 @@ abstract class MuninnPageCursor extends PageCursor
     {
         nextPageId = pageId;
         currentPageId = UNBOUND_PAGE_ID;
+        lastPinnedPageId = UNBOUND_PAGE_ID;
+        sequentialPins = 0;
+        readAheadHorizon = 0;
     }
 
     public final void reset( MuninnPage page )
@@ -142,6 +171,7 @@ abstract class MuninnPageCursor extends PageCursor
         while ( cursor != null && cursor.pagedFile != null )
         {
             cursor.unpinCurrentPage();
+            cursor.reportPinModeCounts();
             // We null out the pagedFile field to allow it and its (potentially big) translation table to be garbage
             // collected when the file is unmapped, since the cursors can stick around in thread local caches, etc.
             cursor.pagedFile = null;
@@ -149,6 +179,26 @@ abstract class MuninnPageCursor extends PageCursor
         }
     }
 
+    private void reportPinModeCounts()
+    {
+        PageCacheTracer pageCacheTracer = pagedFile.pageCacheTracer;
+        if ( noFaultPins > 0 )
+        {
+            pageCacheTracer.noFaultPins( noFaultPins );
+            noFaultPins = 0;
+        }
+        if ( noFaultMisses > 0 )
+        {
+            pageCacheTracer.noFaultMisses( noFaultMisses );
+            noFaultMisses = 0;
+        }
+        if ( transientPins > 0 )
+        {
+            pageCacheTracer.transientPins( transientPins );
+            transientPins = 0;
+        }
+    }
+
     private void closeLinkedCursorIfAny()
     {
         if ( linkedCursor != null )
@@ -212,13 +262,25 @@ abstract class MuninnPageCursor extends PageCursor
 
     /**
      * Pin the desired file page to this cursor, page faulting it into memory if it isn't there already.
+     * <p>
+     * If this cursor was opened with {@link org.neo4j.io.pagecache.PagedFile#PF_NO_FAULT}, and the page is not in
+     * memory, then the cursor is left unbound instead.
      * @param filePageId The file page id we want to pin this cursor to.
      * @param writeLock 'true' if we will be taking a write lock on the page as part of the pin.
+     * @return {@code true} if the cursor is now bound to the page, or {@code false} if it was left unbound.
      * @throws IOException if anything goes wrong with the pin, most likely during a page fault.
      */
-    protected void pin( long filePageId, boolean writeLock ) throws IOException
+    protected boolean pin( long filePageId, boolean writeLock ) throws IOException
     {
         pinEvent = tracer.beginPin( writeLock, filePageId, swapper );
+        if ( noFault )
+        {
+            noFaultPins++;
+        }
+        if ( isTransient )
+        {
+            transientPins++;
+        }
         int chunkId = MuninnPagedFile.computeChunkId( filePageId );
         // The chunkOffset is the addressing offset into the chunk array object for the relevant array slot. Using
         // this, we can access the array slot with Unsafe.
@@ -252,7 +314,11 @@ abstract class MuninnPageCursor extends PageCursor
                 {
                     pinCursorToPage( page, filePageId, swapper );
                     pinEvent.hit();
-                    return;
+                    if ( page.clearReadAhead() )
+                    {
+                        pagedFile.pageCacheTracer.readAheadHits( 1 );
+                    }
+                    return true;
                 }
                 if ( locked )
                 {
@@ -260,6 +326,15 @@ abstract class MuninnPageCursor extends PageCursor
                 }
                 item = null;
             }
+            else if ( noFault )
+            {
+                // The page is either not in memory, or someone else is in the middle of faulting it in. Either way,
+                // we are not allowed to wait for a page fault, so we leave the cursor unbound.
+                noFaultMisses++;
+                pinEvent.done();
+                clearPageState();
+                return false;
+            }
             else
             {
                 item = uncommonPin( item, filePageId, chunkOffset, chunk );
@@ -267,6 +342,57 @@ abstract class MuninnPageCursor extends PageCursor
         }
         while ( item == null );
         pinCursorToPage( (MuninnPage) item, filePageId, swapper );
+        return true;
+    }
+
+    /**
+     * Raise the usage counter of the given page, unless this cursor was opened with
+     * {@link org.neo4j.io.pagecache.PagedFile#PF_TRANSIENT}.
+     */
+    final void incrementUsage( MuninnPage page )
+    {
+        if ( !isTransient )
+        {
+            page.incrementUsage();
+        }
+    }
+
+    /**
+     * Detect if this cursor, opened with {@link org.neo4j.io.pagecache.PagedFile#PF_READ_AHEAD}, is scanning forward
+     * through the file, and if so, ask the page cache to asynchronously load the pages ahead of the cursor, before it
+     * gets to them.
+     * @param filePageId The file page id that we are about to pin.
+     * @param lastPageId The id of the last page in the file.
+     */
+    final void maybeReadAhead( long filePageId, long lastPageId )
+    {
+        if ( !readAhead )
+        {
+            return;
+        }
+        if ( filePageId == lastPinnedPageId + 1 )
+        {
+            if ( sequentialPins < readAheadTrigger )
+            {
+                sequentialPins++;
+            }
+        }
+        else
+        {
+            sequentialPins = 0;
+            readAheadHorizon = filePageId + 1;
+        }
+        lastPinnedPageId = filePageId;
+
+        if ( sequentialPins >= readAheadTrigger && readAheadHorizon - filePageId <= readAheadPages / 2 )
+        {
+            long start = Math.max( readAheadHorizon, filePageId + 1 );
+            int count = (int) Math.min( readAheadPages, lastPageId + 1 - start );
+            if ( count > 0 && pagedFile.requestReadAhead( start, count, isTransient ) )
+            {
+                readAheadHorizon = start + count;
+            }
+        }
     }
 
     private Object[][] expandTranslationTableCapacity( int chunkId )
@@ -348,6 +474,7 @@ abstract class MuninnPageCursor extends PageCursor
             assertPagedFileStillMappedAndGetIdOfLastPage();
             page.initBuffer();
             page.fault( swapper, filePageId, faultEvent );
+            pagedFile.pageCache.admitPage( page, swapper, filePageId, false );
         }
         catch ( Throwable throwable )
         {
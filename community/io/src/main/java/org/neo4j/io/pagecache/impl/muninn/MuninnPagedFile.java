@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 
+import org.neo4j.concurrent.BinaryLatch;
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageEvictionCallback;
@@ -38,9 +39,12 @@ import org.neo4j.io.pagecache.tracing.FlushEventOpportunity;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.PageFaultEvent;
+import org.neo4j.io.pagecache.tracing.ReadAheadEvent;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
 import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
+import static org.neo4j.unsafe.impl.internal.dragons.FeatureToggles.getInteger;
+
 final class MuninnPagedFile implements PagedFile, Flushable
 {
     private static final int translationTableChunkSizePower = Integer.getInteger(
@@ -57,6 +61,10 @@ final class MuninnPagedFile implements PagedFile, Flushable
     private static final long headerStateRefCountMask = 0x7FFF_0000_0000_0000L;
     private static final long headerStateLastPageIdMask = 0x8000_FFFF_FFFF_FFFFL;
 
+    // The largest number of pages we will read with a single vectored read, when pre-loading pages.
+    private static final int preloadMaxVectorLength = getInteger(
+            MuninnPagedFile.class, "preloadMaxVectorLength", 128 );
+
     final MuninnPageCache pageCache;
     final int filePageSize;
     final PageCacheTracer pageCacheTracer;
@@ -488,6 +496,19 @@ final class MuninnPagedFile implements PagedFile, Flushable
         return state & headerStateLastPageIdMask;
     }
 
+    @Override
+    public long preload( long startFilePageId, long pageCount )
+    {
+        long endFilePageId = Math.min( startFilePageId + pageCount, getLastPageId() + 1 );
+        long pagesLoaded = 0;
+        for ( long filePageId = startFilePageId; filePageId < endFilePageId; filePageId += preloadMaxVectorLength )
+        {
+            int length = (int) Math.min( preloadMaxVectorLength, endFilePageId - filePageId );
+            pagesLoaded += readAhead( filePageId, length, false, true );
+        }
+        return pagesLoaded;
+    }
+
     private long getHeaderState()
     {
         return UnsafeUtil.getLongVolatile( this, headerStateOffset );
@@ -599,6 +620,165 @@ final class MuninnPagedFile implements PagedFile, Flushable
         return pageCache.grabFreeAndExclusivelyLockedPage( faultEvent );
     }
 
+    /**
+     * Ask the page cache to asynchronously load the given range of pages, ahead of a sequentially scanning cursor.
+     * @param isTransient {@code true} if the pages should be loaded at the cold end of the eviction order, because the
+     * requesting cursor was opened with {@link #PF_TRANSIENT}.
+     * @return {@code true} if the request was accepted, otherwise {@code false}.
+     */
+    boolean requestReadAhead( long startFilePageId, int pageCount, boolean isTransient )
+    {
+        return pageCache.requestReadAhead( this, startFilePageId, pageCount, isTransient );
+    }
+
+    /**
+     * Load up to the given number of pages, starting from the given file page id, into free cache pages. Runs of
+     * consecutive pages are read in with a single vectored read. Pages that are already in memory, or are currently
+     * being faulted in by someone else, are skipped.
+     * <p>
+     * Read-ahead never evicts pages, and stops early if the page cache runs out of free pages. It also never throws.
+     * Failures are instead reported to the {@link ReadAheadEvent}, and the pages will then be faulted in the normal
+     * way, if and when a cursor gets to them.
+     * @param hot {@code true} if the pages are known to be frequently used, and should be protected from eviction by
+     * the replacement policy, rather than go through its probationary segment.
+     * @return The number of pages that were loaded.
+     */
+    int readAhead( long startFilePageId, int pageCount, boolean isTransient, boolean hot )
+    {
+        long lastPageId;
+        try
+        {
+            lastPageId = getLastPageId();
+        }
+        catch ( IllegalStateException e )
+        {
+            // The file has been unmapped since the read-ahead was requested.
+            return 0;
+        }
+        long endFilePageId = Math.min( startFilePageId + pageCount, lastPageId + 1 );
+        if ( endFilePageId <= startFilePageId )
+        {
+            return 0;
+        }
+
+        int maxVectorLength = (int) (endFilePageId - startFilePageId);
+        MuninnPage[] pages = new MuninnPage[maxVectorLength];
+        BinaryLatch[] latches = new BinaryLatch[maxVectorLength];
+        ReadAheadEvent event = pageCacheTracer.beginReadAhead( swapper );
+        long vectorStart = startFilePageId;
+        int vectorLength = 0;
+        int pagesLoaded = 0;
+        for ( long filePageId = startFilePageId; filePageId < endFilePageId; filePageId++ )
+        {
+            int chunkId = computeChunkId( filePageId );
+            long chunkOffset = computeChunkOffset( filePageId );
+            Object[][] tt = translationTable;
+            if ( tt.length <= chunkId )
+            {
+                tt = expandCapacity( chunkId );
+            }
+            Object[] chunk = tt[chunkId];
+
+            // Just like a page fault, we must first inject a latch into the translation table slot, to gain the right
+            // to load the page. If the slot is not empty, then the page is either already in memory, or someone else
+            // is faulting it in, so we end our current vector and skip over this page.
+            BinaryLatch latch = new BinaryLatch();
+            if ( UnsafeUtil.getObjectVolatile( chunk, chunkOffset ) != null ||
+                 !UnsafeUtil.compareAndSwapObject( chunk, chunkOffset, null, latch ) )
+            {
+                if ( !readAheadVector( vectorStart, pages, latches, vectorLength, isTransient, hot, event ) )
+                {
+                    return pagesLoaded;
+                }
+                pagesLoaded += vectorLength;
+                vectorLength = 0;
+                continue;
+            }
+
+            MuninnPage page = pageCache.tryGrabFreeAndExclusivelyLockedPage();
+            if ( page == null )
+            {
+                // No free pages, so we give up on the rest of the range, rather than compete with page faults.
+                UnsafeUtil.putObjectVolatile( chunk, chunkOffset, null );
+                latch.release();
+                break;
+            }
+            page.beginReadAhead( swapper, filePageId );
+            if ( vectorLength == 0 )
+            {
+                vectorStart = filePageId;
+            }
+            pages[vectorLength] = page;
+            latches[vectorLength] = latch;
+            vectorLength++;
+        }
+        if ( readAheadVector( vectorStart, pages, latches, vectorLength, isTransient, hot, event ) )
+        {
+            pagesLoaded += vectorLength;
+            event.done();
+        }
+        return pagesLoaded;
+    }
+
+    private boolean readAheadVector( long startFilePageId, MuninnPage[] pages, BinaryLatch[] latches, int length,
+            boolean isTransient, boolean hot, ReadAheadEvent event )
+    {
+        if ( length == 0 )
+        {
+            return true;
+        }
+        boolean success = false;
+        try
+        {
+            // Check if we're racing with unmapping. We hold the exclusive locks on the pages, so the unmapping would
+            // have already happened. We do this check before the read, because that would otherwise reopen the file
+            // channel.
+            getLastPageId();
+            for ( int i = 0; i < length; i++ )
+            {
+                pages[i].initBuffer();
+            }
+            long bytesRead = swapper.read( startFilePageId, pages, 0, length );
+            for ( int i = 0; i < length; i++ )
+            {
+                MuninnPage page = pages[i];
+                page.completeReadAhead( swapper );
+                pageCache.admitPage( page, swapper, startFilePageId + i, hot );
+                if ( !isTransient )
+                {
+                    // Give the page a chance to survive a sweep by the eviction thread, before the cursor gets to it.
+                    page.incrementUsage();
+                }
+            }
+            event.addBytesRead( bytesRead );
+            event.addPagesRead( length );
+            success = true;
+        }
+        catch ( Throwable throwable )
+        {
+            event.done( throwable );
+        }
+        finally
+        {
+            for ( int i = 0; i < length; i++ )
+            {
+                MuninnPage page = pages[i];
+                long filePageId = startFilePageId + i;
+                Object[] chunk = translationTable[computeChunkId( filePageId )];
+                long chunkOffset = computeChunkOffset( filePageId );
+                // Publish the page before we unlock it, as we could otherwise race with eviction, which expects to
+                // find the MuninnPage object in the table. If the read failed, we clear the slot instead, and leave
+                // the page, which is loaded but not bound, for eviction to clean up.
+                UnsafeUtil.putObjectVolatile( chunk, chunkOffset, success ? page : null );
+                page.unlockExclusive();
+                latches[i].release();
+                pages[i] = null;
+                latches[i] = null;
+            }
+        }
+        return success;
+    }
+
     /**
      * Remove the mapping of the given filePageId from the translation table, and return the evicted page object.
      * @param filePageId The id of the file page to evict.
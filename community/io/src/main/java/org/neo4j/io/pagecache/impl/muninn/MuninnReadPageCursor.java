@@ -58,8 +58,11 @@ final class MuninnReadPageCursor extends MuninnPageCursor
         {
             return false;
         }
-        pin( nextPageId, false );
-        currentPageId = nextPageId;
+        maybeReadAhead( nextPageId, lastPageId );
+        if ( pin( nextPageId, false ) )
+        {
+            currentPageId = nextPageId;
+        }
         nextPageId++;
         return true;
     }
@@ -80,7 +83,7 @@ final class MuninnReadPageCursor extends MuninnPageCursor
     protected void pinCursorToPage( MuninnPage page, long filePageId, PageSwapper swapper )
     {
         reset( page );
-        page.incrementUsage();
+        incrementUsage( page );
     }
 
     @Override
@@ -132,7 +135,8 @@ final class MuninnReadPageCursor extends MuninnPageCursor
             // is closed; we don't want unpinCurrentPage() to try unlocking
             // this page.
             page = null;
-            // Then try pin again.
+            // Then try pin again. If this is a PF_NO_FAULT cursor, and the page is no longer in memory, then the
+            // cursor will be left unbound, and the current page id will be reset to UNBOUND_PAGE_ID.
             pin( currentPageId, false );
         }
     }
@@ -61,7 +61,7 @@ final class MuninnWritePageCursor extends MuninnPageCursor
         }
         if ( nextPageId > lastPageId )
         {
-            if ( (pf_flags & PagedFile.PF_NO_GROW) != 0 )
+            if ( (pf_flags & (PagedFile.PF_NO_GROW | PagedFile.PF_NO_FAULT)) != 0 )
             {
                 return false;
             }
@@ -70,8 +70,11 @@ final class MuninnWritePageCursor extends MuninnPageCursor
                 pagedFile.increaseLastPageIdTo( nextPageId );
             }
         }
-        pin( nextPageId, true );
-        currentPageId = nextPageId;
+        maybeReadAhead( nextPageId, lastPageId );
+        if ( pin( nextPageId, true ) )
+        {
+            currentPageId = nextPageId;
+        }
         nextPageId++;
         return true;
     }
@@ -100,7 +103,7 @@ final class MuninnWritePageCursor extends MuninnPageCursor
         // after the reset() call, which means that if we throw, the cursor will
         // be closed and the page lock will be released.
         assertPagedFileStillMappedAndGetIdOfLastPage();
-        page.incrementUsage();
+        incrementUsage( page );
     }
 
     @Override
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * The replacement policies that the {@link MuninnPageCache} can use for deciding which pages to evict.
+ * <p>
+ * Both policies sweep the page array with a clock arm, and both policies remember the pages that were recently
+ * evicted in a {@link GhostTable}, so their hit ratios can be compared through the
+ * {@link org.neo4j.io.pagecache.monitoring.PageCacheCounters#ghostHits() ghost hits} counter.
+ */
+enum ReplacementPolicy
+{
+    /**
+     * Every pin raises the usage counter of the page, and the clock arm evicts the pages whose counter it brings down
+     * to zero. This tracks recency, but cannot tell a page that is used often apart from a page that is touched many
+     * times by a single scan, so a large scan can push the entire working set out of memory.
+     */
+    CLOCK,
+
+    /**
+     * A 2Q style policy, where pages are loaded into a probationary segment and only become protected if they are
+     * loaded again shortly after being evicted, which is detected with the {@link GhostTable}. Probationary pages do
+     * not count their pins, and are evicted when the clock arm reaches them, so a scan only cycles through the
+     * probationary pages. Protected pages use the usage counter like {@link #CLOCK} does.
+     */
+    TWO_QUEUE
+}
@@ -79,4 +79,59 @@ public interface PageCacheCounters
      * @return The number of page evictions that have thrown exceptions thus far.
      */
     long evictionExceptions();
+
+    /**
+     * @return The number of pages that have been loaded by read-ahead thus far.
+     */
+    long readAheadPages();
+
+    /**
+     * @return The number of read-ahead pages that were pinned by a page cursor before being evicted, thus far.
+     */
+    long readAheadHits();
+
+    /**
+     * @return The number of read-ahead pages that were evicted without ever being pinned, thus far.
+     */
+    long readAheadMisses();
+
+    /**
+     * @return The number of page pins made by cursors opened with {@link org.neo4j.io.pagecache.PagedFile#PF_NO_FAULT}
+     * thus far.
+     */
+    long noFaultPins();
+
+    /**
+     * @return The number of {@link org.neo4j.io.pagecache.PagedFile#PF_NO_FAULT} page pins that found the page not in
+     * memory, and left the cursor unbound, thus far.
+     */
+    long noFaultMisses();
+
+    /**
+     * @return The number of page pins made by cursors opened with
+     * {@link org.neo4j.io.pagecache.PagedFile#PF_TRANSIENT} thus far.
+     */
+    long transientPins();
+
+    /**
+     * @return The number of pages loaded into memory by page cache warmup, thus far.
+     */
+    long warmupPagesLoaded();
+
+    /**
+     * @return The number of milliseconds spent on page cache warmup, thus far.
+     */
+    long warmupMillis();
+
+    /**
+     * @return The number of pages loaded into memory, that had recently been evicted from the page cache, thus far.
+     * These are the page faults that a better replacement policy, or a bigger page cache, could have avoided.
+     */
+    long ghostHits();
+
+    /**
+     * @return The ratio of page pins that found their page already in memory, to all page pins that needed to
+     * either find or fault in a page, thus far. This is 0 if no pages have been pinned.
+     */
+    double hitRatio();
 }
@@ -41,6 +41,15 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final LongAdder filesMapped = new LongAdder();
     protected final LongAdder filesUnmapped = new LongAdder();
     protected final LongAdder evictionExceptions = new LongAdder();
+    protected final LongAdder readAheadPages = new LongAdder();
+    protected final LongAdder readAheadHits = new LongAdder();
+    protected final LongAdder readAheadMisses = new LongAdder();
+    protected final LongAdder noFaultPins = new LongAdder();
+    protected final LongAdder noFaultMisses = new LongAdder();
+    protected final LongAdder transientPins = new LongAdder();
+    protected final LongAdder warmupPagesLoaded = new LongAdder();
+    protected final LongAdder warmupMillis = new LongAdder();
+    protected final LongAdder ghostHits = new LongAdder();
 
     private final FlushEvent flushEvent = new FlushEvent()
     {
@@ -134,6 +143,31 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         }
     };
 
+    private final ReadAheadEvent readAheadEvent = new ReadAheadEvent()
+    {
+        @Override
+        public void addBytesRead( long bytes )
+        {
+            bytesRead.add( bytes );
+        }
+
+        @Override
+        public void addPagesRead( int pageCount )
+        {
+            readAheadPages.add( pageCount );
+        }
+
+        @Override
+        public void done()
+        {
+        }
+
+        @Override
+        public void done( Throwable throwable )
+        {
+        }
+    };
+
     @Override
     public void mappedFile( File file )
     {
@@ -164,6 +198,12 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return majorFlushEvent;
     }
 
+    @Override
+    public ReadAheadEvent beginReadAhead( PageSwapper swapper )
+    {
+        return readAheadEvent;
+    }
+
     @Override
     public long faults()
     {
@@ -230,6 +270,68 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return evictionExceptions.sum();
     }
 
+    @Override
+    public long readAheadPages()
+    {
+        return readAheadPages.sum();
+    }
+
+    @Override
+    public long readAheadHits()
+    {
+        return readAheadHits.sum();
+    }
+
+    @Override
+    public long readAheadMisses()
+    {
+        return readAheadMisses.sum();
+    }
+
+    @Override
+    public long noFaultPins()
+    {
+        return noFaultPins.sum();
+    }
+
+    @Override
+    public long noFaultMisses()
+    {
+        return noFaultMisses.sum();
+    }
+
+    @Override
+    public long transientPins()
+    {
+        return transientPins.sum();
+    }
+
+    @Override
+    public long warmupPagesLoaded()
+    {
+        return warmupPagesLoaded.sum();
+    }
+
+    @Override
+    public long warmupMillis()
+    {
+        return warmupMillis.sum();
+    }
+
+    @Override
+    public long ghostHits()
+    {
+        return ghostHits.sum();
+    }
+
+    @Override
+    public double hitRatio()
+    {
+        long hits = hits();
+        long total = hits + faults();
+        return total == 0 ? 0 : ((double) hits) / total;
+    }
+
     @Override
     public void pins( long pins )
     {
@@ -283,4 +385,52 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     {
         this.flushes.add( flushes );
     }
+
+    @Override
+    public void readAheadHits( long readAheadHits )
+    {
+        this.readAheadHits.add( readAheadHits );
+    }
+
+    @Override
+    public void readAheadMisses( long readAheadMisses )
+    {
+        this.readAheadMisses.add( readAheadMisses );
+    }
+
+    @Override
+    public void noFaultPins( long noFaultPins )
+    {
+        this.noFaultPins.add( noFaultPins );
+    }
+
+    @Override
+    public void noFaultMisses( long noFaultMisses )
+    {
+        this.noFaultMisses.add( noFaultMisses );
+    }
+
+    @Override
+    public void transientPins( long transientPins )
+    {
+        this.transientPins.add( transientPins );
+    }
+
+    @Override
+    public void warmupPagesLoaded( long warmupPagesLoaded )
+    {
+        this.warmupPagesLoaded.add( warmupPagesLoaded );
+    }
+
+    @Override
+    public void warmupMillis( long warmupMillis )
+    {
+        this.warmupMillis.add( warmupMillis );
+    }
+
+    @Override
+    public void ghostHits( long ghostHits )
+    {
+        this.ghostHits.add( ghostHits );
+    }
 }
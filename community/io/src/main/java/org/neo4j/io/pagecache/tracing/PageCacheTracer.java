@@ -64,6 +64,12 @@ public interface PageCacheTracer extends PageCacheCounters
             return MajorFlushEvent.NULL;
         }
 
+        @Override
+        public ReadAheadEvent beginReadAhead( PageSwapper swapper )
+        {
+            return ReadAheadEvent.NULL;
+        }
+
         @Override
         public long faults()
         {
@@ -130,6 +136,66 @@ public interface PageCacheTracer extends PageCacheCounters
             return 0;
         }
 
+        @Override
+        public long readAheadPages()
+        {
+            return 0;
+        }
+
+        @Override
+        public long readAheadHits()
+        {
+            return 0;
+        }
+
+        @Override
+        public long readAheadMisses()
+        {
+            return 0;
+        }
+
+        @Override
+        public long noFaultPins()
+        {
+            return 0;
+        }
+
+        @Override
+        public long noFaultMisses()
+        {
+            return 0;
+        }
+
+        @Override
+        public long transientPins()
+        {
+            return 0;
+        }
+
+        @Override
+        public long warmupPagesLoaded()
+        {
+            return 0;
+        }
+
+        @Override
+        public long warmupMillis()
+        {
+            return 0;
+        }
+
+        @Override
+        public long ghostHits()
+        {
+            return 0;
+        }
+
+        @Override
+        public double hitRatio()
+        {
+            return 0;
+        }
+
         @Override
         public void pins( long pins )
         {
@@ -175,6 +241,46 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void readAheadHits( long readAheadHits )
+        {
+        }
+
+        @Override
+        public void readAheadMisses( long readAheadMisses )
+        {
+        }
+
+        @Override
+        public void noFaultPins( long noFaultPins )
+        {
+        }
+
+        @Override
+        public void noFaultMisses( long noFaultMisses )
+        {
+        }
+
+        @Override
+        public void transientPins( long transientPins )
+        {
+        }
+
+        @Override
+        public void warmupPagesLoaded( long warmupPagesLoaded )
+        {
+        }
+
+        @Override
+        public void warmupMillis( long warmupMillis )
+        {
+        }
+
+        @Override
+        public void ghostHits( long ghostHits )
+        {
+        }
+
         @Override
         public String toString()
         {
@@ -211,6 +317,12 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     MajorFlushEvent beginCacheFlush();
 
+    /**
+     * A range of pages in the file represented by the given swapper is being read ahead of a sequentially scanning
+     * page cursor. Called from the background read-ahead thread.
+     */
+    ReadAheadEvent beginReadAhead( PageSwapper swapper );
+
     /**
      * Report number of observed pins
      * @param pins number of pins
@@ -264,4 +376,52 @@ public interface PageCacheTracer extends PageCacheCounters
      * @param flushes number of flushes
      */
     void flushes( long flushes );
+
+    /**
+     * Report number of pages loaded by read-ahead, that were subsequently pinned
+     * @param readAheadHits number of read-ahead hits
+     */
+    void readAheadHits( long readAheadHits );
+
+    /**
+     * Report number of pages loaded by read-ahead, that were evicted without ever being pinned
+     * @param readAheadMisses number of read-ahead misses
+     */
+    void readAheadMisses( long readAheadMisses );
+
+    /**
+     * Report number of page pins made by cursors opened with {@link org.neo4j.io.pagecache.PagedFile#PF_NO_FAULT}
+     * @param noFaultPins number of no-fault pins
+     */
+    void noFaultPins( long noFaultPins );
+
+    /**
+     * Report number of no-fault page pins that found the page not in memory
+     * @param noFaultMisses number of no-fault misses
+     */
+    void noFaultMisses( long noFaultMisses );
+
+    /**
+     * Report number of page pins made by cursors opened with {@link org.neo4j.io.pagecache.PagedFile#PF_TRANSIENT}
+     * @param transientPins number of transient pins
+     */
+    void transientPins( long transientPins );
+
+    /**
+     * Report number of pages loaded into memory by page cache warmup
+     * @param warmupPagesLoaded number of pages loaded by warmup
+     */
+    void warmupPagesLoaded( long warmupPagesLoaded );
+
+    /**
+     * Report time spent on page cache warmup
+     * @param warmupMillis number of milliseconds spent on warmup
+     */
+    void warmupMillis( long warmupMillis );
+
+    /**
+     * Report number of pages loaded into memory, that had recently been evicted
+     * @param ghostHits number of ghost hits
+     */
+    void ghostHits( long ghostHits );
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.tracing;
+
+/**
+ * Begin loading a range of pages ahead of a sequentially scanning page cursor, using a single vectored read.
+ */
+public interface ReadAheadEvent
+{
+    /**
+     * A ReadAheadEvent that does nothing.
+     */
+    ReadAheadEvent NULL = new ReadAheadEvent()
+    {
+        @Override
+        public void addBytesRead( long bytes )
+        {
+        }
+
+        @Override
+        public void addPagesRead( int pageCount )
+        {
+        }
+
+        @Override
+        public void done()
+        {
+        }
+
+        @Override
+        public void done( Throwable throwable )
+        {
+        }
+    };
+
+    /**
+     * Add up a number of bytes that has been read from the backing file into the pages being read ahead.
+     */
+    void addBytesRead( long bytes );
+
+    /**
+     * Add up a number of pages that has been loaded and bound by this read-ahead.
+     */
+    void addPagesRead( int pageCount );
+
+    /**
+     * The read-ahead completed successfully.
+     */
+    void done();
+
+    /**
+     * The read-ahead did not complete successfully, but instead caused the given Throwable to be thrown.
+     */
+    void done( Throwable throwable );
+}
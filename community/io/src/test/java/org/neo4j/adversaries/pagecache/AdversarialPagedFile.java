@@ -97,6 +97,13 @@ public class AdversarialPagedFile implements PagedFile
         return delegate.getLastPageId();
     }
 
+    @Override
+    public long preload( long startFilePageId, long pageCount ) throws IOException
+    {
+        adversary.injectFailure( IllegalStateException.class );
+        return delegate.preload( startFilePageId, pageCount );
+    }
+
     @Override
     public void close() throws IOException
     {
@@ -47,6 +47,12 @@ public class DelegatingPagedFile implements PagedFile
         return delegate.getLastPageId();
     }
 
+    @Override
+    public long preload( long startFilePageId, long pageCount ) throws IOException
+    {
+        return delegate.preload( startFilePageId, pageCount );
+    }
+
     public int pageSize()
     {
         return delegate.pageSize();
@@ -924,6 +924,95 @@ public abstract class PageCacheTest<T extends PageCache> extends PageCacheTestSu
         }
     }
 
+    @Test( timeout = SHORT_TIMEOUT_MILLIS )
+    public void noFaultReadCursorMustLeaveCursorUnboundForPagesNotInMemory() throws IOException
+    {
+        generateFileWithRecords( file( "a" ), recordsPerFilePage * 2, recordSize );
+        PageCache cache = createStandardPageCache();
+        try ( PagedFile pagedFile = cache.map( file( "a" ), filePageSize ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 1, PF_SHARED_READ_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+            }
+
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+            {
+                assertTrue( cursor.next() );
+                assertThat( cursor.getCurrentPageId(), is( PageCursor.UNBOUND_PAGE_ID ) );
+                assertTrue( cursor.next() );
+                assertThat( cursor.getCurrentPageId(), is( 1L ) );
+                verifyRecordsMatchExpected( cursor );
+                assertFalse( cursor.next() );
+            }
+
+            // The no-fault cursor must not have brought page 0 into memory
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+            {
+                assertTrue( cursor.next() );
+                assertThat( cursor.getCurrentPageId(), is( PageCursor.UNBOUND_PAGE_ID ) );
+            }
+        }
+    }
+
+    @Test( timeout = SHORT_TIMEOUT_MILLIS )
+    public void noFaultWriteCursorMustNotGrowFile() throws IOException
+    {
+        generateFileWithRecords( file( "a" ), recordsPerFilePage, recordSize );
+        PageCache cache = createStandardPageCache();
+        try ( PagedFile pagedFile = cache.map( file( "a" ), filePageSize ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK | PF_NO_FAULT ) )
+            {
+                assertTrue( cursor.next() );
+                assertThat( cursor.getCurrentPageId(), is( PageCursor.UNBOUND_PAGE_ID ) );
+                assertFalse( cursor.next() );
+            }
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+            }
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK | PF_NO_FAULT ) )
+            {
+                assertTrue( cursor.next() );
+                assertThat( cursor.getCurrentPageId(), is( 0L ) );
+                writeRecords( cursor );
+                assertFalse( cursor.next() );
+            }
+            assertThat( pagedFile.getLastPageId(), is( 0L ) );
+        }
+    }
+
+    @Test( timeout = SHORT_TIMEOUT_MILLIS )
+    public void preloadMustLoadPagesIntoMemory() throws IOException
+    {
+        generateFileWithRecords( file( "a" ), recordsPerFilePage * 4, recordSize );
+        PageCache cache = createStandardPageCache();
+        try ( PagedFile pagedFile = cache.map( file( "a" ), filePageSize ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 2, PF_SHARED_READ_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+            }
+
+            // Page 2 is already in memory, and the range extends beyond the end of the file
+            assertThat( pagedFile.preload( 1, 10 ), is( 2L ) );
+
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+            {
+                assertTrue( cursor.next() );
+                assertThat( cursor.getCurrentPageId(), is( PageCursor.UNBOUND_PAGE_ID ) );
+                for ( long pageId = 1; pageId < 4; pageId++ )
+                {
+                    assertTrue( cursor.next() );
+                    assertThat( cursor.getCurrentPageId(), is( pageId ) );
+                    verifyRecordsMatchExpected( cursor );
+                }
+                assertFalse( cursor.next() );
+            }
+        }
+    }
+
     @Test( timeout = SHORT_TIMEOUT_MILLIS )
     public void mustNotPinPagesAfterNextReturnsFalse() throws Exception
     {
@@ -64,6 +64,12 @@ public class StubPagedFile implements PagedFile
         return (lastPageId + 1) * pageSize();
     }
 
+    @Override
+    public long preload( long startFilePageId, long pageCount ) throws IOException
+    {
+        return 0;
+    }
+
     @Override
     public void flushAndForce() throws IOException
     {
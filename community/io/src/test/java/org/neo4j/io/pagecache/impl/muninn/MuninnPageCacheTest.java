@@ -24,17 +24,24 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
 
+import org.neo4j.graphdb.config.Configuration;
 import org.neo4j.graphdb.mockfs.DelegatingFileSystemAbstraction;
 import org.neo4j.graphdb.mockfs.DelegatingStoreChannel;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.io.pagecache.PageCacheTest;
 import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.tracing.ConfigurablePageCursorTracerSupplier;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.DelegatingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
@@ -44,6 +51,7 @@ import org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer.Fault;
 
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -51,9 +59,12 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
 import static org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer.Evict;
 
 public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
@@ -349,4 +360,318 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
             }
         }
     }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void mustReadAheadPagesForSequentiallyScanningCursor() throws Exception
+    {
+        int filePages = 100;
+        generateFileWithRecords( file( "a" ), filePages * recordsPerFilePage, recordSize );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        MuninnPageCache pageCache = getPageCache( fs, 1024, pageCachePageSize, tracer,
+                DefaultPageCursorTracerSupplier.INSTANCE );
+
+        int pagesScanned = 0;
+        try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+        {
+            // Move forward far enough for the cursor to be considered sequentially scanning
+            for ( int i = 0; i < 3; i++ )
+            {
+                assertTrue( cursor.next() );
+                verifyRecordsMatchExpected( cursor );
+                pagesScanned++;
+            }
+            while ( tracer.readAheadPages() == 0 )
+            {
+                Thread.sleep( 1 );
+            }
+            while ( cursor.next() )
+            {
+                verifyRecordsMatchExpected( cursor );
+                pagesScanned++;
+            }
+        }
+
+        assertThat( pagesScanned, is( filePages ) );
+        assertThat( tracer.readAheadHits(), greaterThan( 0L ) );
+        assertThat( tracer.readAheadMisses(), is( 0L ) );
+    }
+
+    @Test
+    public void mustNotReadAheadForRandomlyAccessingCursor() throws Exception
+    {
+        int filePages = 100;
+        generateFileWithRecords( file( "a" ), filePages * recordsPerFilePage, recordSize );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        MuninnPageCache pageCache = getPageCache( fs, 1024, pageCachePageSize, tracer,
+                DefaultPageCursorTracerSupplier.INSTANCE );
+
+        try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+        {
+            for ( long pageId = 0; pageId < filePages; pageId += 2 )
+            {
+                assertTrue( cursor.next( pageId ) );
+                verifyRecordsMatchExpected( cursor );
+            }
+        }
+
+        assertThat( tracer.readAheadPages(), is( 0L ) );
+    }
+
+    @Test
+    public void transientCursorMustNotRaisePageUsage() throws Exception
+    {
+        writeInitialDataTo( file( "a" ) );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        MuninnPageCache pageCache = createPageCache( fs, 4, 8, blockCacheFlush( tracer ),
+                DefaultPageCursorTracerSupplier.INSTANCE );
+        PagedFile pagedFile = pageCache.map( file( "a" ), 8 );
+
+        // Page 0 is hot, and gets pinned over and over.
+        for ( int i = 0; i < 3; i++ )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+            }
+        }
+        // Page 1 is pinned just as many times, but only by transient cursors.
+        for ( int i = 0; i < 3; i++ )
+        {
+            try ( PageCursor cursor = pagedFile.io( 1, PF_SHARED_READ_LOCK | PF_TRANSIENT ) )
+            {
+                assertTrue( cursor.next() );
+            }
+        }
+        assertThat( tracer.transientPins(), is( 3L ) );
+
+        // So page 1 must be the first to go, when we sweep the clock.
+        pageCache.evictPages( 1, 0, tracer.beginPageEvictions( 1 ) );
+
+        try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+        {
+            assertTrue( cursor.next() );
+            assertThat( cursor.getCurrentPageId(), is( 0L ) );
+            assertTrue( cursor.next() );
+            assertThat( cursor.getCurrentPageId(), is( PageCursor.UNBOUND_PAGE_ID ) );
+            assertFalse( cursor.next() );
+        }
+        assertThat( tracer.noFaultPins(), is( 2L ) );
+        assertThat( tracer.noFaultMisses(), is( 1L ) );
+        pagedFile.close();
+    }
+
+    @Test
+    public void mustRejectInvalidEvictionPartitionCounts() throws Exception
+    {
+        PageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.open( fs, Configuration.EMPTY );
+        for ( int partitionCount : new int[]{0, 5} )
+        {
+            try
+            {
+                new MuninnPageCache( swapperFactory, 8, pageCachePageSize, PageCacheTracer.NULL,
+                        DefaultPageCursorTracerSupplier.INSTANCE, partitionCount );
+                fail( "Should not have accepted " + partitionCount + " eviction partitions for 8 pages" );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                // Good
+            }
+        }
+    }
+
+    @Test( timeout = SEMI_LONG_TIMEOUT_MILLIS )
+    public void mustTakeFreePagesFromOtherPartitionsWhenLocalPartitionIsEmpty() throws Exception
+    {
+        generateFileWithRecords( file( "a" ), recordsPerFilePage * 8, recordSize );
+        PageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.open( fs, Configuration.EMPTY );
+        MuninnPageCache pageCache = new MuninnPageCache( swapperFactory, 8, pageCachePageSize,
+                PageCacheTracer.NULL, DefaultPageCursorTracerSupplier.INSTANCE, 4 );
+        assertThat( pageCache.evictionPartitionCount(), is( 4 ) );
+        List<PageCursor> cursors = new ArrayList<>();
+        try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize ) )
+        {
+            // Keep all the pages in the cache write locked at the same time. Our local partition only has 2 of them,
+            // and they can't be evicted while we hold them, so the rest must be taken from the other partitions.
+            for ( int pageId = 0; pageId < 8; pageId++ )
+            {
+                PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK );
+                cursors.add( cursor );
+                assertTrue( cursor.next() );
+                verifyRecordsMatchExpected( cursor );
+            }
+            for ( PageCursor cursor : cursors )
+            {
+                cursor.close();
+            }
+        }
+        finally
+        {
+            pageCache.close();
+        }
+    }
+
+    @Test
+    public void mustFaultAndEvictConcurrentlyThroughMultipleEvictionPartitions() throws Exception
+    {
+        int filePages = 200;
+        generateFileWithRecords( file( "a" ), recordsPerFilePage * filePages, recordSize );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        PageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.open( fs, Configuration.EMPTY );
+        MuninnPageCache pageCache = new MuninnPageCache( swapperFactory, 40, pageCachePageSize, tracer,
+                DefaultPageCursorTracerSupplier.INSTANCE, 4 );
+        try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize ) )
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for ( int t = 0; t < 8; t++ )
+            {
+                futures.add( executor.submit( () ->
+                {
+                    ThreadLocalRandom rng = ThreadLocalRandom.current();
+                    for ( int i = 0; i < 1000; i++ )
+                    {
+                        try ( PageCursor cursor = pagedFile.io( rng.nextInt( filePages ), PF_SHARED_READ_LOCK ) )
+                        {
+                            assertTrue( cursor.next() );
+                            verifyRecordsMatchExpected( cursor );
+                        }
+                    }
+                    return null;
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            pageCache.close();
+        }
+        assertThat( tracer.evictions(), greaterThan( 0L ) );
+    }
+
+    @Test
+    public void clockMustBeTheDefaultReplacementPolicy() throws Exception
+    {
+        MuninnPageCache pageCache = getPageCache( fs, 8, pageCachePageSize, PageCacheTracer.NULL,
+                DefaultPageCursorTracerSupplier.INSTANCE );
+        assertThat( pageCache.replacementPolicy(), is( ReplacementPolicy.CLOCK ) );
+    }
+
+    @Test
+    public void mustCountGhostHitsForRecentlyEvictedPages() throws Exception
+    {
+        generateFileWithRecords( file( "a" ), recordsPerFilePage * 2, recordSize );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        MuninnPageCache pageCache = createPageCache( ReplacementPolicy.CLOCK, tracer );
+        try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize ) )
+        {
+            pinPage( pagedFile, 0, 0 );
+            pinPage( pagedFile, 1, 0 );
+            pageCache.evictPages( 1, 0, tracer.beginPageEvictions( 1 ) );
+            assertThat( tracer.ghostHits(), is( 0L ) );
+
+            // Only the evicted page is faulted back in, and it is recognised as recently evicted.
+            pinPage( pagedFile, 0, 0 );
+            pinPage( pagedFile, 1, 0 );
+            assertThat( tracer.ghostHits(), is( 1L ) );
+        }
+        finally
+        {
+            pageCache.close();
+        }
+    }
+
+    @Test
+    public void twoQueuePolicyMustEvictProbationaryPagesBeforeProtectedPages() throws Exception
+    {
+        generateFileWithRecords( file( "a" ), recordsPerFilePage * 3, recordSize );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        MuninnPageCache pageCache = createPageCache( ReplacementPolicy.TWO_QUEUE, tracer );
+        try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize ) )
+        {
+            // Pages are loaded into the probationary segment, where their pins don't count, so a single sweep of the
+            // clock evicts them both.
+            pinPage( pagedFile, 0, 3 );
+            pinPage( pagedFile, 1, 3 );
+            pageCache.evictPages( 2, 0, tracer.beginPageEvictions( 2 ) );
+            assertFalse( isInMemory( pagedFile, 0 ) );
+            assertFalse( isInMemory( pagedFile, 1 ) );
+
+            // Loading page 0 again so soon after being evicted, makes it a protected page.
+            pinPage( pagedFile, 0, 2 );
+            assertThat( tracer.ghostHits(), is( 1L ) );
+
+            // Page 2 is pinned many times, as it would be by a scan, but it is still probationary.
+            pinPage( pagedFile, 2, 10 );
+
+            // So page 2 is the one to go, when we sweep the clock.
+            pageCache.evictPages( 1, 0, tracer.beginPageEvictions( 1 ) );
+            assertTrue( isInMemory( pagedFile, 0 ) );
+            assertFalse( isInMemory( pagedFile, 2 ) );
+        }
+        finally
+        {
+            pageCache.close();
+        }
+    }
+
+    @Test
+    public void twoQueuePolicyMustProtectPreloadedPages() throws Exception
+    {
+        generateFileWithRecords( file( "a" ), recordsPerFilePage * 2, recordSize );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        MuninnPageCache pageCache = createPageCache( ReplacementPolicy.TWO_QUEUE, tracer );
+        try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize ) )
+        {
+            assertThat( pagedFile.preload( 0, 1 ), is( 1L ) );
+            pinPage( pagedFile, 0, 1 );
+            pinPage( pagedFile, 1, 1 );
+
+            pageCache.evictPages( 1, 0, tracer.beginPageEvictions( 1 ) );
+            assertTrue( isInMemory( pagedFile, 0 ) );
+            assertFalse( isInMemory( pagedFile, 1 ) );
+        }
+        finally
+        {
+            pageCache.close();
+        }
+    }
+
+    private MuninnPageCache createPageCache( ReplacementPolicy replacementPolicy, PageCacheTracer tracer )
+    {
+        // With 4 pages, the eviction thread keeps 2 of them free, so the 2 pages that these tests keep in memory are
+        // only ever evicted when the test asks for it.
+        PageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.open( fs, Configuration.EMPTY );
+        return new MuninnPageCache( swapperFactory, 4, pageCachePageSize, tracer,
+                DefaultPageCursorTracerSupplier.INSTANCE, 1, replacementPolicy );
+    }
+
+    private void pinPage( PagedFile pagedFile, long pageId, int extraPins ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK ) )
+        {
+            assertTrue( cursor.next() );
+            verifyRecordsMatchExpected( cursor );
+            for ( int i = 0; i < extraPins; i++ )
+            {
+                assertTrue( cursor.next( pageId ) );
+            }
+        }
+    }
+
+    private boolean isInMemory( PagedFile pagedFile, long pageId ) throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+        {
+            assertTrue( cursor.next() );
+            return cursor.getCurrentPageId() == pageId;
+        }
+    }
 }
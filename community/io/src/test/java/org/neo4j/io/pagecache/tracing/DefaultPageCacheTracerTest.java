@@ -110,6 +110,17 @@ public class DefaultPageCacheTracerTest
         assertCounts( 0, 0, 0, 0, 0, 0, 6, 0, 0, 0, 0 );
     }
 
+    @Test
+    public void mustComputeHitRatioFromHitsAndFaults()
+    {
+        assertThat( tracer.hitRatio(), is( 0.0 ) );
+
+        tracer.hits( 3 );
+        tracer.faults( 1 );
+
+        assertThat( tracer.hitRatio(), is( 0.75 ) );
+    }
+
     private void assertCounts( long pins, long unpins, long hits, long faults, long evictions, long evictionExceptions,
             long flushes, long bytesRead, long bytesWritten, long filesMapped, long filesUnmapped )
     {
@@ -171,4 +171,118 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
     {
         return delegate.evictions();
     }
+
+    @Override
+    public ReadAheadEvent beginReadAhead( PageSwapper swapper )
+    {
+        return delegate.beginReadAhead( swapper );
+    }
+
+    @Override
+    public long readAheadPages()
+    {
+        return delegate.readAheadPages();
+    }
+
+    @Override
+    public long readAheadHits()
+    {
+        return delegate.readAheadHits();
+    }
+
+    @Override
+    public long readAheadMisses()
+    {
+        return delegate.readAheadMisses();
+    }
+
+    @Override
+    public void readAheadHits( long readAheadHits )
+    {
+        delegate.readAheadHits( readAheadHits );
+    }
+
+    @Override
+    public void readAheadMisses( long readAheadMisses )
+    {
+        delegate.readAheadMisses( readAheadMisses );
+    }
+
+    @Override
+    public long noFaultPins()
+    {
+        return delegate.noFaultPins();
+    }
+
+    @Override
+    public long noFaultMisses()
+    {
+        return delegate.noFaultMisses();
+    }
+
+    @Override
+    public long transientPins()
+    {
+        return delegate.transientPins();
+    }
+
+    @Override
+    public void noFaultPins( long noFaultPins )
+    {
+        delegate.noFaultPins( noFaultPins );
+    }
+
+    @Override
+    public void noFaultMisses( long noFaultMisses )
+    {
+        delegate.noFaultMisses( noFaultMisses );
+    }
+
+    @Override
+    public void transientPins( long transientPins )
+    {
+        delegate.transientPins( transientPins );
+    }
+
+    @Override
+    public long warmupPagesLoaded()
+    {
+        return delegate.warmupPagesLoaded();
+    }
+
+    @Override
+    public long warmupMillis()
+    {
+        return delegate.warmupMillis();
+    }
+
+    @Override
+    public void warmupPagesLoaded( long warmupPagesLoaded )
+    {
+        delegate.warmupPagesLoaded( warmupPagesLoaded );
+    }
+
+    @Override
+    public void warmupMillis( long warmupMillis )
+    {
+        delegate.warmupMillis( warmupMillis );
+    }
+
+    @Override
+    public long ghostHits()
+    {
+        return delegate.ghostHits();
+    }
+
+    @Override
+    public double hitRatio()
+    {
+        return delegate.hitRatio();
+    }
+
+    @Override
+    public void ghostHits( long ghostHits )
+    {
+        delegate.ghostHits( ghostHits );
+    }
 }
@@ -25,6 +25,7 @@ import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.MajorFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.ReadAheadEvent;
 
 import static org.neo4j.io.pagecache.tracing.linear.HEvents.EvictionRunHEvent;
 import static org.neo4j.io.pagecache.tracing.linear.HEvents.MajorFlushHEvent;
@@ -188,4 +189,110 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     public void flushes( long flushes )
     {
     }
+
+    @Override
+    public ReadAheadEvent beginReadAhead( PageSwapper swapper )
+    {
+        return ReadAheadEvent.NULL;
+    }
+
+    @Override
+    public long readAheadPages()
+    {
+        return 0;
+    }
+
+    @Override
+    public long readAheadHits()
+    {
+        return 0;
+    }
+
+    @Override
+    public long readAheadMisses()
+    {
+        return 0;
+    }
+
+    @Override
+    public void readAheadHits( long readAheadHits )
+    {
+    }
+
+    @Override
+    public void readAheadMisses( long readAheadMisses )
+    {
+    }
+
+    @Override
+    public long noFaultPins()
+    {
+        return 0;
+    }
+
+    @Override
+    public long noFaultMisses()
+    {
+        return 0;
+    }
+
+    @Override
+    public long transientPins()
+    {
+        return 0;
+    }
+
+    @Override
+    public void noFaultPins( long noFaultPins )
+    {
+    }
+
+    @Override
+    public void noFaultMisses( long noFaultMisses )
+    {
+    }
+
+    @Override
+    public void transientPins( long transientPins )
+    {
+    }
+
+    @Override
+    public long warmupPagesLoaded()
+    {
+        return 0;
+    }
+
+    @Override
+    public long warmupMillis()
+    {
+        return 0;
+    }
+
+    @Override
+    public void warmupPagesLoaded( long warmupPagesLoaded )
+    {
+    }
+
+    @Override
+    public void warmupMillis( long warmupMillis )
+    {
+    }
+
+    @Override
+    public long ghostHits()
+    {
+        return 0;
+    }
+
+    @Override
+    public double hitRatio()
+    {
+        return 0;
+    }
+
+    @Override
+    public void ghostHits( long ghostHits )
+    {
+    }
 }
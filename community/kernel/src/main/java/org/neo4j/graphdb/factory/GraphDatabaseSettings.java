@@ -179,7 +179,7 @@ public class GraphDatabaseSettings implements LoadableConfig
     @Internal
     public static final Setting<String> cypher_runtime = setting(
             "unsupported.cypher.runtime",
-            options( "INTERPRETED", "COMPILED", DEFAULT ), DEFAULT );
+            options( "INTERPRETED", "COMPILED", "SLOTTED", "PARALLEL", DEFAULT ), DEFAULT );
 
     @Description( "Enable tracing of compilation in cypher." )
     @Internal
@@ -196,6 +196,25 @@ public class GraphDatabaseSettings implements LoadableConfig
             "cypher.statistics_divergence_threshold", DOUBLE, "0.75", min( 0.0 ), max(
                     1.0 ) );
 
+    @Description( "The amount of heap a single Cypher query may use for buffering rows, for example when sorting, " +
+                  "before it starts spilling them to temporary files. A value of 0 disables spilling." )
+    @Internal
+    public static final Setting<Long> cypher_query_memory_budget = setting(
+            "unsupported.cypher.query_memory_budget", BYTES, "0", min( 0L ) );
+
+    @Description( "The maximum number of worker threads a single query may use when run with the parallel runtime." )
+    @Internal
+    public static final Setting<Integer> cypher_parallel_runtime_max_workers = setting(
+            "unsupported.cypher.parallel_runtime.max_workers", INTEGER,
+            String.valueOf( Runtime.getRuntime().availableProcessors() ), min( 1 ) );
+
+    @Description( "The maximum number of worker threads that all queries run with the parallel runtime may use " +
+                  "together. Queries that find no free worker thread run on their own thread only." )
+    @Internal
+    public static final Setting<Integer> cypher_parallel_runtime_max_threads = setting(
+            "unsupported.cypher.parallel_runtime.max_threads", INTEGER,
+            String.valueOf( Runtime.getRuntime().availableProcessors() ), min( 1 ) );
+
     @Description( "The threshold when a warning is generated if a label scan is done after a load csv " +
                   "where the label has no index" )
     @Internal
@@ -242,6 +261,13 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Long> transaction_start_timeout =
             setting( "unsupported.dbms.transaction_start_timeout", DURATION, "1s" );
 
+    @Description( "Whether transactions committed concurrently should be grouped together and committed as a " +
+                  "single batch by one of the committing threads, i.e. with one append to the transaction log " +
+                  "and one application to the store for the whole group." )
+    @Internal
+    public static final Setting<Boolean> group_commit_enabled =
+            setting( "unsupported.dbms.group_commit.enabled", BOOLEAN, FALSE );
+
     @Internal
     @Description( "Please use dbms.transaction.timeout instead." )
     @Deprecated
@@ -253,6 +279,13 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Long> transaction_timeout =
             setting( "dbms.transaction.timeout", DURATION, String.valueOf( UNSPECIFIED_TIMEOUT ) );
 
+    @Description( "The estimated heap usage of the state of a single transaction past which the ids of the nodes " +
+                  "and relationships it deletes are kept off-heap. A value of 0 keeps all transaction state on " +
+                  "the heap." )
+    @Internal
+    public static final Setting<Long> tx_state_off_heap_threshold = setting(
+            "unsupported.dbms.tx_state.off_heap_threshold", BYTES, "0", min( 0L ) );
+
     @Description( "The maximum time interval within which lock should be acquired." )
     public static final Setting<Long> lock_acquisition_timeout = setting( "dbms.lock.acquisition.timeout", DURATION,
             String.valueOf( UNSPECIFIED_TIMEOUT ) );
@@ -326,6 +359,13 @@ public class GraphDatabaseSettings implements LoadableConfig
                   "Set this to -1 to disable the IOPS limit." )
     public static final Setting<Integer> check_point_iops_limit = setting( "dbms.checkpoint.iops.limit", INTEGER, "300" );
 
+    @Description( "The number of threads used for applying the store changes of recovered transactions, when the " +
+                  "database is recovering after a crash. Changes to the same store page are always applied by the " +
+                  "same thread, and in transaction order. Index and counts updates are always applied in " +
+                  "transaction order. The default is '1', which applies all changes sequentially." )
+    public static final Setting<Integer> recovery_parallelism =
+            setting( "dbms.recovery.parallelism", INTEGER, "1", min( 1 ) );
+
     // Auto Indexing
     @Description( "Controls the auto indexing feature for nodes. Setting it to `false` shuts it down, " +
             "while `true` enables it by default for properties listed in the dbms.auto_index.nodes.keys setting." )
@@ -389,6 +429,53 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Boolean> multi_threaded_schema_index_population_enabled =
             setting( "unsupported.dbms.multi_threaded_schema_index_population_enabled", BOOLEAN, TRUE );
 
+    @Description( "How often a background job makes pending writes to Lucene schema indexes visible to readers. " +
+            "With the default of 0 every committing transaction refreshes the index itself. With a positive " +
+            "interval commits no longer wait for the refresh; instead a new index reader waits for a refresh " +
+            "covering the writes committed before it was opened, which coalesces refreshes across transactions." )
+    @Internal
+    public static final Setting<Long> lucene_schema_index_refresh_interval =
+            setting( "unsupported.dbms.index.lucene.refresh_interval", DURATION, "0" );
+
+    @Description( "Additionally index trigrams and the reversed value of string properties in newly populated " +
+            "Lucene schema indexes, so that CONTAINS and ENDS WITH are answered with term lookups instead of " +
+            "scanning all indexed terms. Existing indexes keep the layout they were populated with until they " +
+            "are recreated." )
+    @Internal
+    public static final Setting<Boolean> lucene_schema_index_substring_terms =
+            setting( "unsupported.dbms.index.lucene.substring_terms", BOOLEAN, FALSE );
+
+    public enum SchemaIndex
+    {
+        /**
+         * Schema indexes backed entirely by Lucene.
+         */
+        LUCENE10( "lucene-1.0" ),
+
+        /**
+         * Native indexes for numbers and short strings, with Lucene for all other values and composite indexes.
+         */
+        NATIVE10( "lucene+native-1.0" );
+
+        private final String providerName;
+
+        SchemaIndex( String providerName )
+        {
+            this.providerName = providerName;
+        }
+
+        public String providerName()
+        {
+            return providerName;
+        }
+    }
+
+    @Description( "Index provider to use when creating new schema indexes. Existing indexes keep using the provider " +
+                  "they were created with." )
+    public static final Setting<String> default_schema_provider = setting( "dbms.index.default_schema_provider",
+            options( SchemaIndex.LUCENE10.providerName(), SchemaIndex.NATIVE10.providerName() ),
+            SchemaIndex.LUCENE10.providerName() );
+
     // Store settings
     @Description( "Make Neo4j keep the logical transaction logs for being able to backup the database. " +
             "Can be used for specifying the threshold to prune logical logs after. For example \"10 days\" will " +
@@ -411,6 +498,13 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Boolean> rebuild_idgenerators_fast =
             setting( "unsupported.dbms.id_generator_fast_rebuild_enabled", BOOLEAN, TRUE );
 
+    @Description( "Use id generators which let threads allocate ids from ranges reserved per thread, and reuse " +
+                  "freed ids from lock-free queues, instead of synchronizing all id allocation in a store. " +
+                  "Ids allocated by concurrent threads will not be strictly increasing." )
+    @Internal
+    public static final Setting<Boolean> concurrent_id_generators_enabled =
+            setting( "unsupported.dbms.id_generator.concurrent_enabled", BOOLEAN, FALSE );
+
     // Store memory settings
     @Description( "Target size for pages of mapped memory. If set to 0, then a reasonable default is chosen, " +
                  "depending on the storage device used." )
@@ -605,6 +699,13 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Boolean> archive_failed_index = setting(
             "unsupported.dbms.index.archive_failed", BOOLEAN, "false" );
 
+    @Description( "Apply schema index updates of committed transactions on a dedicated background thread, in commit " +
+            "order, instead of on the committing thread. Index reads wait for all previously committed updates " +
+            "to have been applied before opening a reader, so reads stay consistent with committed data." )
+    @Internal
+    public static final Setting<Boolean> async_index_updates = setting(
+            "unsupported.dbms.index.async_updates", BOOLEAN, FALSE );
+
     // Needed to validate config, accessed via reflection
     @SuppressWarnings( "unused" )
     public static final BoltConnectorValidator boltValidator = new BoltConnectorValidator();
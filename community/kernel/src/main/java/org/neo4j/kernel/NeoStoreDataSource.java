@@ -45,7 +45,7 @@ import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.api.legacyindex.AutoIndexing;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.extension.dependency.DeleteStoresFromOtherLabelScanStoreProviders;
-import org.neo4j.kernel.extension.dependency.HighestSelectionStrategy;
+import org.neo4j.kernel.extension.dependency.AllByPrioritySelectionStrategy;
 import org.neo4j.kernel.extension.dependency.NamedLabelScanStoreSelectionStrategy;
 import org.neo4j.kernel.guard.Guard;
 import org.neo4j.kernel.impl.api.CommitProcessFactory;
@@ -68,6 +68,7 @@ import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionHooks;
 import org.neo4j.kernel.impl.api.UpdateableSchemaState;
 import org.neo4j.kernel.impl.api.index.IndexingService;
+import org.neo4j.kernel.impl.api.index.SchemaIndexProviderMap;
 import org.neo4j.kernel.impl.api.operations.QueryRegistrationOperations;
 import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider;
 import org.neo4j.kernel.impl.api.state.ConstraintIndexCreator;
@@ -133,6 +134,7 @@ import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruningImpl;
 import org.neo4j.kernel.impl.transaction.log.rotation.LogRotation;
 import org.neo4j.kernel.impl.transaction.log.rotation.LogRotationImpl;
+import org.neo4j.kernel.impl.transaction.state.DefaultSchemaIndexProviderMap;
 import org.neo4j.kernel.impl.transaction.state.NeoStoreFileListing;
 import org.neo4j.kernel.impl.util.Dependencies;
 import org.neo4j.kernel.impl.util.JobScheduler;
@@ -273,6 +275,7 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
     private Dependencies dependencies;
     private LifeSupport life;
     private SchemaIndexProvider schemaIndexProvider;
+    private SchemaIndexProviderMap schemaIndexProviderMap;
     private LabelScanStoreProvider labelScanStoreProvider;
     private File storeDir;
     private boolean readOnly;
@@ -408,8 +411,12 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
         dependencies = new Dependencies();
         life = new LifeSupport();
 
+        AllByPrioritySelectionStrategy<SchemaIndexProvider> indexProviderSelection =
+                new AllByPrioritySelectionStrategy<>();
         schemaIndexProvider = dependencyResolver.resolveDependency( SchemaIndexProvider.class,
-                HighestSelectionStrategy.getInstance() );
+                indexProviderSelection );
+        schemaIndexProviderMap = new DefaultSchemaIndexProviderMap( schemaIndexProvider,
+                indexProviderSelection.lowerPrioritizedCandidates() );
 
         labelScanStoreProvider = dependencyResolver.resolveDependency( LabelScanStoreProvider.class,
                 new NamedLabelScanStoreSelectionStrategy( config ) );
@@ -580,7 +587,7 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
                 new RecordStorageEngine( storeDir, config, idGeneratorFactory, eligibleForReuse,
                         idTypeConfigurationProvider, pageCache, fs, logProvider, propertyKeyTokenHolder, labelTokens,
                         relationshipTypeTokens, schemaStateChangeCallback, constraintSemantics,
-                        scheduler, tokenNameLookup, lockService, schemaIndexProvider, indexingServiceMonitor,
+                        scheduler, tokenNameLookup, lockService, schemaIndexProviderMap, indexingServiceMonitor,
                         databaseHealth, labelScanStoreProvider, legacyIndexProviderLookup, indexConfigStore,
                         legacyIndexTransactionOrdering, transactionSnapshotSupplier, progressionFactory );
 
@@ -743,7 +750,8 @@ public class NeoStoreDataSource implements Lifecycle, IndexProviders
         KernelTransactions kernelTransactions = life.add( new KernelTransactions( statementLocksFactory,
                 constraintIndexCreator, statementOperationContainer, schemaWriteGuard, transactionHeaderInformationFactory,
                 transactionCommitProcess, indexConfigStore, legacyIndexProviderLookup, hooks, transactionMonitor,
-                availabilityGuard, tracers, storageEngine, procedures, transactionIdStore, clock, accessCapability ) );
+                availabilityGuard, tracers, storageEngine, procedures, transactionIdStore, clock, accessCapability,
+                config.get( GraphDatabaseSettings.tx_state_off_heap_threshold ) ) );
 
         final Kernel kernel = new Kernel( kernelTransactions, hooks, databaseHealth, transactionMonitor, procedures,
                 config );
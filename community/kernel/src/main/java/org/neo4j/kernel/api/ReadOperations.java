@@ -56,6 +56,7 @@ import org.neo4j.storageengine.api.PropertyItem;
 import org.neo4j.storageengine.api.RelationshipItem;
 import org.neo4j.storageengine.api.Token;
 import org.neo4j.storageengine.api.lock.ResourceType;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 import org.neo4j.storageengine.api.schema.PopulationProgress;
 
 /**
@@ -127,6 +128,19 @@ public interface ReadOperations
     PrimitiveLongIterator indexQuery( IndexDescriptor index, IndexQuery... predicates )
             throws IndexNotFoundKernelException, IndexNotApplicableKernelException;
 
+    /**
+     * Queries the given index with the given index query, returning the indexed property value of each matching
+     * node along with its id. Values come straight from the index where it holds them, otherwise they are
+     * read from the nodes.
+     *
+     * @param index the index to query against, which must be on a single property.
+     * @param predicates array of the {@link IndexQuery} predicates to query for.
+     * @return ids of the matching nodes, with their values of the indexed property
+     * @throws org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException if no such index is found.
+     */
+    NodeValueIterator indexQueryWithValues( IndexDescriptor index, IndexQuery... predicates )
+            throws IndexNotFoundKernelException, IndexNotApplicableKernelException;
+
     /**
      * @return an iterator over all nodes in the database.
      */
@@ -24,6 +24,7 @@ import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
 import org.neo4j.kernel.api.schema.IndexQuery;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 
 public class DelegatingIndexReader implements IndexReader
 {
@@ -52,6 +53,18 @@ public class DelegatingIndexReader implements IndexReader
         return delegate.query( predicates );
     }
 
+    @Override
+    public boolean mayReturnFalsePositives( IndexQuery... predicates )
+    {
+        return delegate.mayReturnFalsePositives( predicates );
+    }
+
+    @Override
+    public NodeValueIterator queryWithValues( IndexQuery... predicates ) throws IndexNotApplicableKernelException
+    {
+        return delegate.queryWithValues( predicates );
+    }
+
     @Override
     public void close()
     {
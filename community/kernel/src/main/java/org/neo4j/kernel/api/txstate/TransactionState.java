@@ -32,4 +32,14 @@ import org.neo4j.storageengine.api.txstate.WritableTransactionState;
  */
 public interface TransactionState extends ReadableTransactionState, WritableTransactionState
 {
+    /**
+     * @return an estimate, in bytes, of the heap used by this transaction state.
+     */
+    long estimatedHeapUsage();
+
+    /**
+     * Releases the off-heap memory held by this transaction state, if any. Called when the transaction is done
+     * with its state.
+     */
+    void close();
 }
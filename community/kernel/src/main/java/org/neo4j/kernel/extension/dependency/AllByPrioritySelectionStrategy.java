@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.extension.dependency;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.neo4j.graphdb.DependencyResolver;
+import org.neo4j.helpers.collection.Iterables;
+import org.neo4j.kernel.extension.KernelExtensions;
+
+import static org.neo4j.kernel.extension.KernelExtensionUtil.servicesClassPathEntryInformation;
+
+/**
+ * SelectionStrategy for {@link KernelExtensions kernel extensions loading} which, like
+ * {@link HighestSelectionStrategy}, selects the candidate with highest natural order, but also remembers
+ * the other candidates so that they can be used as well, e.g. for serving data created by them earlier.
+ *
+ * @param <T> type of the candidates, which must be {@link Comparable}.
+ * @see Comparable
+ */
+public class AllByPrioritySelectionStrategy<T extends Comparable<T>> implements DependencyResolver.SelectionStrategy
+{
+    private List<T> lowerPrioritizedCandidates = Collections.emptyList();
+
+    @SuppressWarnings( "unchecked" )
+    @Override
+    public <R> R select( Class<R> type, Iterable<R> candidates ) throws IllegalArgumentException
+    {
+        List<T> all = new ArrayList<>( (List<T>) Iterables.asList( candidates ) );
+        if ( all.isEmpty() )
+        {
+            throw new IllegalArgumentException( "Could not resolve dependency of type: " +
+                                                type.getName() + ". " + servicesClassPathEntryInformation() );
+        }
+        Collections.sort( all );
+        T highest = all.remove( all.size() - 1 );
+        lowerPrioritizedCandidates = all;
+        return (R) highest;
+    }
+
+    /**
+     * @return the candidates not selected by the last call to {@link #select(Class, Iterable)}.
+     */
+    public Iterable<T> lowerPrioritizedCandidates()
+    {
+        return lowerPrioritizedCandidates;
+    }
+}
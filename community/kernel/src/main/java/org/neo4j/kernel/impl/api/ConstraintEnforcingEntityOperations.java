@@ -77,6 +77,7 @@ import org.neo4j.storageengine.api.Direction;
 import org.neo4j.storageengine.api.NodeItem;
 import org.neo4j.storageengine.api.PropertyItem;
 import org.neo4j.storageengine.api.RelationshipItem;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 
 import static java.lang.String.format;
 import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_NODE;
@@ -366,6 +367,14 @@ public class ConstraintEnforcingEntityOperations implements EntityOperations, Sc
         return entityReadOperations.indexQuery( statement, index, predicates );
     }
 
+    @Override
+    public NodeValueIterator indexQueryWithValues( KernelStatement statement, IndexDescriptor index,
+            IndexQuery[] predicates )
+            throws IndexNotFoundKernelException, IndexNotApplicableKernelException
+    {
+        return entityReadOperations.indexQueryWithValues( statement, index, predicates );
+    }
+
     @Override
     public long nodeGetFromUniqueIndexSeek(
             KernelStatement state,
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.neo4j.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+
+import static org.neo4j.kernel.api.exceptions.Status.Transaction.TransactionCommitFailed;
+
+/**
+ * {@link TransactionCommitProcess} which groups transactions committed concurrently by different threads into
+ * a single batch, which is then committed by one of the threads, the leader, in one go through the delegate commit
+ * process. This means one append to the transaction log, with a single flush and force, and one pass through
+ * the storage engine appliers for the whole group, instead of one per committing thread.
+ * <p>
+ * Committers push themselves onto a stack. The first committer to acquire the leader lock takes all committers
+ * currently on the stack, links their transactions together in arrival order and commits them. Meanwhile the other
+ * committers, the followers, park until their transactions have been committed by the leader, or until they get
+ * the chance to become leader themselves, if the previous leader didn't pick their transactions up. The size of
+ * a group is therefore bounded by the number of concurrently committing threads.
+ * <p>
+ * Only transactions committed in {@link TransactionApplicationMode#INTERNAL} mode are grouped, all other commits
+ * go straight to the delegate. If the commit of a group fails then all transactions in that group fail.
+ */
+public class GroupCommitProcess implements TransactionCommitProcess
+{
+    private final TransactionCommitProcess delegate;
+    private final AtomicReference<Committer> committersHead = new AtomicReference<>( Committer.END );
+    private final Lock leaderLock = new ReentrantLock();
+
+    public GroupCommitProcess( TransactionCommitProcess delegate )
+    {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public long commit( TransactionToApply batch, CommitEvent commitEvent, TransactionApplicationMode mode )
+            throws TransactionFailureException
+    {
+        if ( mode != TransactionApplicationMode.INTERNAL )
+        {
+            return delegate.commit( batch, commitEvent, mode );
+        }
+
+        // There's a benign race here, where we add our committer before we update our next pointer.
+        // This is okay, however, because the leader spins when it sees a null next pointer.
+        Committer committer = new Committer( batch, Thread.currentThread() );
+        committer.next = committersHead.getAndSet( committer );
+        do
+        {
+            if ( leaderLock.tryLock() )
+            {
+                try
+                {
+                    if ( !committer.done )
+                    {
+                        commitGroup( commitEvent );
+                    }
+                }
+                finally
+                {
+                    leaderLock.unlock();
+
+                    // We've released the lock, so unpark anyone who might have decided to park while we were
+                    // working, so that it can lead the next group.
+                    committersHead.get().unpark();
+                }
+            }
+            else
+            {
+                LockSupport.parkNanos( this, TimeUnit.MILLISECONDS.toNanos( 10 ) );
+            }
+        }
+        while ( !committer.done );
+
+        return committer.result();
+    }
+
+    private void commitGroup( CommitEvent commitEvent )
+    {
+        Committer group = reverse( committersHead.getAndSet( Committer.END ) );
+        try
+        {
+            // Chain the batches of all committers in the group together, in the order they arrived
+            TransactionToApply first = group.batch;
+            for ( Committer committer = group; committer != null; committer = committer.next )
+            {
+                committer.last.next( committer.next != null ? committer.next.batch : null );
+            }
+
+            Throwable failure = null;
+            try
+            {
+                delegate.commit( first, commitEvent, TransactionApplicationMode.INTERNAL );
+            }
+            catch ( Throwable e )
+            {
+                failure = e;
+            }
+            for ( Committer committer = group; committer != null; committer = committer.next )
+            {
+                committer.last.next( null );
+                committer.transactionId = committer.last.transactionId();
+                committer.failure = failure;
+            }
+        }
+        finally
+        {
+            for ( Committer committer = group; committer != null; committer = committer.next )
+            {
+                committer.done = true;
+                committer.unpark();
+            }
+        }
+    }
+
+    /**
+     * Reverses the stack of committers, which is in reverse arrival order and terminated by {@link Committer#END},
+     * into a list in arrival order, terminated by {@code null}.
+     */
+    private static Committer reverse( Committer head )
+    {
+        Committer reversed = null;
+        while ( head != Committer.END )
+        {
+            Committer next;
+            do
+            {
+                // Spin because of the race:y update when consing.
+                next = head.next;
+            }
+            while ( next == null );
+            head.next = reversed;
+            reversed = head;
+            head = next;
+        }
+        return reversed;
+    }
+
+    private static class Committer
+    {
+        static final Committer END = new Committer( null, null );
+
+        final TransactionToApply batch;
+        final TransactionToApply last;
+        final Thread thread;
+        volatile Committer next;
+        volatile boolean done;
+        long transactionId;
+        Throwable failure;
+
+        Committer( TransactionToApply batch, Thread thread )
+        {
+            this.batch = batch;
+            this.last = last( batch );
+            this.thread = thread;
+        }
+
+        private static TransactionToApply last( TransactionToApply batch )
+        {
+            TransactionToApply last = batch;
+            while ( last != null && last.next() != null )
+            {
+                last = last.next();
+            }
+            return last;
+        }
+
+        void unpark()
+        {
+            if ( thread != null )
+            {
+                LockSupport.unpark( thread );
+            }
+        }
+
+        long result() throws TransactionFailureException
+        {
+            if ( failure == null )
+            {
+                return transactionId;
+            }
+            if ( failure instanceof TransactionFailureException )
+            {
+                TransactionFailureException cause = (TransactionFailureException) failure;
+                throw new TransactionFailureException( cause.status(), cause, "%s", cause.getMessage() );
+            }
+            throw new TransactionFailureException( TransactionCommitFailed, failure,
+                    "Could not commit the group of transactions this transaction was part of" );
+        }
+    }
+}
@@ -44,6 +44,7 @@ import org.neo4j.storageengine.api.Direction;
 import org.neo4j.storageengine.api.NodeItem;
 import org.neo4j.storageengine.api.PropertyItem;
 import org.neo4j.storageengine.api.RelationshipItem;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 
 public class GuardingStatementOperations implements
         EntityWriteOperations,
@@ -184,6 +185,15 @@ public class GuardingStatementOperations implements
         return entityReadDelegate.indexQuery( statement, index, predicates );
     }
 
+    @Override
+    public NodeValueIterator indexQueryWithValues( KernelStatement statement, IndexDescriptor index,
+            IndexQuery[] predicates )
+            throws IndexNotFoundKernelException, IndexNotApplicableKernelException
+    {
+        guard.check( statement );
+        return entityReadDelegate.indexQueryWithValues( statement, index, predicates );
+    }
+
     @Override
     public long nodeGetFromUniqueIndexSeek( KernelStatement statement, IndexDescriptor index, IndexQuery.ExactPredicate... predicates )
             throws IndexNotFoundKernelException, IndexBrokenKernelException, IndexNotApplicableKernelException
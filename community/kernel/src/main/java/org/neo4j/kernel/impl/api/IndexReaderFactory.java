@@ -40,10 +40,20 @@ public interface IndexReaderFactory
     {
         private Map<IndexDescriptor,IndexReader> indexReaders;
         private final IndexingService indexingService;
+        private final Runnable beforeNewReader;
 
         public Caching( IndexingService indexingService )
+        {
+            this( indexingService, () -> {} );
+        }
+
+        /**
+         * @param beforeNewReader called before each new reader is opened, e.g. to wait for pending index updates.
+         */
+        public Caching( IndexingService indexingService, Runnable beforeNewReader )
         {
             this.indexingService = indexingService;
+            this.beforeNewReader = beforeNewReader;
         }
 
         @Override
@@ -67,6 +77,7 @@ public interface IndexReaderFactory
         public IndexReader newUnCachedReader( IndexDescriptor descriptor ) throws IndexNotFoundKernelException
         {
             IndexProxy index = indexingService.getIndexProxy( descriptor.schema() );
+            beforeNewReader.run();
             return index.newReader();
         }
 
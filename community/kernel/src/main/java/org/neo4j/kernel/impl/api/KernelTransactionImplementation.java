@@ -108,6 +108,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     private final PageCursorTracerSupplier cursorTracerSupplier;
     private final StoreReadLayer storeLayer;
     private final Clock clock;
+    private final long txStateOffHeapThreshold;
 
     // State that needs to be reset between uses. Most of these should be cleared or released in #release(),
     // whereas others, such as timestamp or txId when transaction starts, even locks, needs to be set in #initialize().
@@ -162,7 +163,8 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
                                             LockTracer lockTracer,
                                             PageCursorTracerSupplier cursorTracerSupplier,
                                             StorageEngine storageEngine,
-                                            AccessCapability accessCapability )
+                                            AccessCapability accessCapability,
+                                            long txStateOffHeapThreshold )
     {
         this.operationContainer = operationContainer;
         this.schemaWriteGuard = schemaWriteGuard;
@@ -176,6 +178,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         this.legacyIndexTxStateSupplier = legacyIndexTxStateSupplier;
         this.pool = pool;
         this.clock = clock;
+        this.txStateOffHeapThreshold = txStateOffHeapThreshold;
         this.transactionTracer = transactionTracer;
         this.cursorTracerSupplier = cursorTracerSupplier;
         this.schemaResources = storeLayer.schemaResources();
@@ -385,11 +388,22 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         if ( txState == null )
         {
             transactionMonitor.upgradeToWriteTransaction();
-            txState = new TxState();
+            txState = new TxState( txStateOffHeapThreshold );
         }
         return txState;
     }
 
+    /**
+     * @return an estimate, in bytes, of the heap used by the state of this transaction, or {@code 0} if it has
+     * no transaction state.
+     * @see TransactionState#estimatedHeapUsage()
+     */
+    public long estimatedTxStateHeapUsage()
+    {
+        TransactionState state = txState;
+        return state == null ? 0 : state.estimatedHeapUsage();
+    }
+
     @Override
     public LegacyIndexTransactionState legacyIndexTxState()
     {
@@ -715,7 +729,11 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
             securityContext = null;
             transactionEvent = null;
             legacyIndexTransactionState = null;
-            txState = null;
+            if ( txState != null )
+            {
+                txState.close();
+                txState = null;
+            }
             hooksState = null;
             currentTransactionOperations = null;
             closeListeners.clear();
@@ -78,6 +78,7 @@ public class KernelTransactions extends LifecycleAdapter implements Supplier<Ker
     private final Procedures procedures;
     private final TransactionIdStore transactionIdStore;
     private final AccessCapability accessCapability;
+    private final long txStateOffHeapThreshold;
     private final Supplier<LegacyIndexTransactionState> legacyIndexTxStateSupplier;
     private final Clock clock;
     private final ReentrantReadWriteLock newTransactionsLock = new ReentrantReadWriteLock();
@@ -123,7 +124,7 @@ public class KernelTransactions extends LifecycleAdapter implements Supplier<Ker
                                StorageEngine storageEngine,
                                Procedures procedures,
                                TransactionIdStore transactionIdStore,
-                               Clock clock, AccessCapability accessCapability )
+                               Clock clock, AccessCapability accessCapability, long txStateOffHeapThreshold )
     {
         this.statementLocksFactory = statementLocksFactory;
         this.constraintIndexCreator = constraintIndexCreator;
@@ -139,6 +140,7 @@ public class KernelTransactions extends LifecycleAdapter implements Supplier<Ker
         this.procedures = procedures;
         this.transactionIdStore = transactionIdStore;
         this.accessCapability = accessCapability;
+        this.txStateOffHeapThreshold = txStateOffHeapThreshold;
         this.legacyIndexTxStateSupplier = () -> new CachingLegacyIndexTransactionState(
                 new LegacyIndexTransactionStateImpl( indexConfigStore, legacyIndexProviderLookup ) );
         this.clock = clock;
@@ -325,7 +327,7 @@ public class KernelTransactions extends LifecycleAdapter implements Supplier<Ker
                             constraintIndexCreator, procedures, transactionHeaderInformationFactory,
                             transactionCommitProcess, transactionMonitor, legacyIndexTxStateSupplier, localTxPool,
                             clock, tracers.transactionTracer, tracers.lockTracer, tracers.pageCursorTracerSupplier,
-                            storageEngine, accessCapability );
+                            storageEngine, accessCapability, txStateOffHeapThreshold );
             this.transactions.add( tx );
             return tx;
         }
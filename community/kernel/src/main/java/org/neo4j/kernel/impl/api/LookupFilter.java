@@ -30,6 +30,8 @@ import org.neo4j.kernel.api.index.PropertyAccessor;
 import org.neo4j.kernel.api.schema.IndexQuery;
 import org.neo4j.kernel.impl.api.operations.EntityOperations;
 import org.neo4j.storageengine.api.NodeItem;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 
 /**
  * When looking up nodes by a property value, we have to do a two-stage check.
@@ -91,29 +93,31 @@ public class LookupFilter
     }
 
     /**
-     * used in "normal" operation
+     * used in "normal" operation. Numeric matches are always verified, other matches only if the reader lacks full
+     * value precision for their predicate.
      */
     public static PrimitiveLongIterator exactIndexMatches( EntityOperations operations, KernelStatement state,
-                                                           PrimitiveLongIterator indexedNodeIds, IndexQuery... predicates )
+            IndexReader reader, PrimitiveLongIterator indexedNodeIds, IndexQuery... predicates )
     {
         if ( !indexedNodeIds.hasNext() )
         {
             return indexedNodeIds;
         }
 
-        IndexQuery[] numericPredicates =
+        IndexQuery[] predicatesToVerify =
                 Arrays.stream( predicates )
-                        .filter( LookupFilter::isNumericPredicate )
+                        .filter( predicate -> isNumericPredicate( predicate ) ||
+                                              reader.mayReturnFalsePositives( predicate ) )
                         .toArray( IndexQuery[]::new );
 
-        if ( numericPredicates.length > 0 )
+        if ( predicatesToVerify.length > 0 )
         {
             LongPredicate combinedPredicate = nodeId ->
             {
                 try ( Cursor<NodeItem> node = operations.nodeCursorById( state, nodeId ) )
                 {
                     NodeItem nodeItem = node.get();
-                    for ( IndexQuery predicate : numericPredicates )
+                    for ( IndexQuery predicate : predicatesToVerify )
                     {
                         int propertyKeyId = predicate.propertyKeyId();
                         Object value = operations.nodeGetProperty( state, nodeItem, propertyKeyId );
@@ -135,6 +139,31 @@ public class LookupFilter
         return indexedNodeIds;
     }
 
+    /**
+     * used when the index provides the values of the nodes it returns. Matches that need verifying are checked
+     * against those values, rather than against the property store.
+     */
+    public static NodeValueIterator exactIndexMatches( IndexReader reader, NodeValueIterator indexedNodes,
+            IndexQuery... predicates )
+    {
+        if ( !indexedNodes.hasNext() )
+        {
+            return indexedNodes;
+        }
+
+        IndexQuery[] predicatesToVerify =
+                Arrays.stream( predicates )
+                        .filter( predicate -> isNumericPredicate( predicate ) ||
+                                              reader.mayReturnFalsePositives( predicate ) )
+                        .toArray( IndexQuery[]::new );
+
+        if ( predicatesToVerify.length > 0 )
+        {
+            return new ValueFilteringIterator( indexedNodes, predicatesToVerify );
+        }
+        return indexedNodes;
+    }
+
     private static boolean isNumericPredicate( IndexQuery predicate )
     {
 
@@ -157,4 +186,52 @@ public class LookupFilter
     {
         return value instanceof Number || value.getClass().isArray();
     }
+
+    private static class ValueFilteringIterator extends PrimitiveLongCollections.PrimitiveLongBaseIterator
+            implements NodeValueIterator
+    {
+        private final NodeValueIterator source;
+        private final IndexQuery[] predicates;
+        private Object value;
+
+        ValueFilteringIterator( NodeValueIterator source, IndexQuery[] predicates )
+        {
+            this.source = source;
+            this.predicates = predicates;
+        }
+
+        @Override
+        protected boolean fetchNext()
+        {
+            while ( source.hasNext() )
+            {
+                long nodeId = source.next();
+                Object candidate = source.value();
+                if ( matches( candidate ) )
+                {
+                    value = candidate;
+                    return next( nodeId );
+                }
+            }
+            return false;
+        }
+
+        private boolean matches( Object candidate )
+        {
+            for ( IndexQuery predicate : predicates )
+            {
+                if ( !predicate.test( candidate ) )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Object value()
+        {
+            return value;
+        }
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.cursor.Cursor;
+import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
+import org.neo4j.kernel.impl.api.operations.EntityReadOperations;
+import org.neo4j.storageengine.api.NodeItem;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
+
+/**
+ * {@link NodeValueIterator} for indexes that don't provide values, reading the value of each node from the node
+ * itself. Nodes that have been deleted since the index reported them are skipped.
+ */
+class PropertyLoadingNodeValueIterator extends PrimitiveLongCollections.PrimitiveLongBaseIterator
+        implements NodeValueIterator
+{
+    private final EntityReadOperations operations;
+    private final KernelStatement statement;
+    private final PrimitiveLongIterator nodeIds;
+    private final int propertyKeyId;
+    private Object value;
+
+    PropertyLoadingNodeValueIterator( EntityReadOperations operations, KernelStatement statement,
+            PrimitiveLongIterator nodeIds, int propertyKeyId )
+    {
+        this.operations = operations;
+        this.statement = statement;
+        this.nodeIds = nodeIds;
+        this.propertyKeyId = propertyKeyId;
+    }
+
+    @Override
+    protected boolean fetchNext()
+    {
+        while ( nodeIds.hasNext() )
+        {
+            long nodeId = nodeIds.next();
+            try ( Cursor<NodeItem> node = operations.nodeCursorById( statement, nodeId ) )
+            {
+                value = operations.nodeGetProperty( statement, node.get(), propertyKeyId );
+                return next( nodeId );
+            }
+            catch ( EntityNotFoundException ignored )
+            {
+                // The node has been deleted but was still reported from the index
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Object value()
+    {
+        return value;
+    }
+}
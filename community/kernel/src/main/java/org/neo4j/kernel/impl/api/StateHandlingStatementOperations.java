@@ -99,6 +99,7 @@ import org.neo4j.storageengine.api.StorageProperty;
 import org.neo4j.storageengine.api.StoreReadLayer;
 import org.neo4j.storageengine.api.Token;
 import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 import org.neo4j.storageengine.api.schema.PopulationProgress;
 import org.neo4j.storageengine.api.txstate.NodeState;
 import org.neo4j.storageengine.api.txstate.ReadableDiffSets;
@@ -686,7 +687,8 @@ public class StateHandlingStatementOperations
          * a fresh reader that isn't associated with the current transaction and hence will not be
          * automatically closed. */
         PrimitiveLongResourceIterator committed = resourceIterator( reader.query( query ), reader );
-        PrimitiveLongIterator exactMatches = LookupFilter.exactIndexMatches( this, statement, committed, query );
+        PrimitiveLongIterator exactMatches =
+                LookupFilter.exactIndexMatches( this, statement, reader, committed, query );
         PrimitiveLongIterator changesFiltered =
                 filterIndexStateChangesForSeek( statement, exactMatches, index, OrderedPropertyValues.of( query ) );
         return single( resourceIterator( changesFiltered, committed ), NO_SUCH_NODE );
@@ -698,7 +700,8 @@ public class StateHandlingStatementOperations
     {
         IndexReader reader = storeLayer.indexGetReader( statement.schemaResources(), index );
         PrimitiveLongIterator committed = reader.query( predicates );
-        PrimitiveLongIterator exactMatches = LookupFilter.exactIndexMatches( this, statement, committed, predicates );
+        PrimitiveLongIterator exactMatches =
+                LookupFilter.exactIndexMatches( this, statement, reader, committed, predicates );
 
         IndexQuery firstPredicate = predicates[0];
         switch ( firstPredicate.type() )
@@ -737,6 +740,31 @@ public class StateHandlingStatementOperations
         }
     }
 
+    @Override
+    public NodeValueIterator indexQueryWithValues( KernelStatement statement, IndexDescriptor index,
+            IndexQuery... predicates ) throws IndexNotFoundKernelException, IndexNotApplicableKernelException
+    {
+        int[] propertyKeyIds = index.schema().getPropertyIds();
+        if ( propertyKeyIds.length != 1 )
+        {
+            throw new IllegalArgumentException( "Values can only be returned from single property indexes, got " +
+                                                index.userDescription( SchemaUtil.idTokenNameLookup ) );
+        }
+
+        if ( !statement.readableTxState().hasChanges() )
+        {
+            IndexReader reader = storeLayer.indexGetReader( statement.schemaResources(), index );
+            NodeValueIterator indexedNodes = reader.queryWithValues( predicates );
+            if ( indexedNodes != null )
+            {
+                return LookupFilter.exactIndexMatches( reader, indexedNodes, predicates );
+            }
+        }
+        // The index can't tell us the values, or the transaction may have changed them, so read them from the nodes
+        return new PropertyLoadingNodeValueIterator( this, statement, indexQuery( statement, index, predicates ),
+                propertyKeyIds[0] );
+    }
+
     private IndexQuery.ExactPredicate[] assertOnlyExactPredicates( IndexQuery[] predicates )
     {
         IndexQuery.ExactPredicate[] exactPredicates;
@@ -37,6 +37,7 @@ import org.neo4j.storageengine.api.Direction;
 import org.neo4j.storageengine.api.NodeItem;
 import org.neo4j.storageengine.api.PropertyItem;
 import org.neo4j.storageengine.api.RelationshipItem;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 
 public interface EntityReadOperations
 {
@@ -58,6 +59,19 @@ public interface EntityReadOperations
     PrimitiveLongIterator indexQuery( KernelStatement statement, IndexDescriptor index, IndexQuery... predicates )
             throws IndexNotFoundKernelException, IndexNotApplicableKernelException;
 
+    /**
+     * Queries the given single property index with the given index query, returning the indexed property value
+     * of each matching node along with its id.
+     *
+     * @param statement the KernelStatement to use.
+     * @param index the index to query against.
+     * @param predicates the {@link IndexQuery} predicates to query for.
+     * @return ids of the matching nodes, with their values of the indexed property
+     * @throws IndexNotFoundKernelException if no such index is found.
+     */
+    NodeValueIterator indexQueryWithValues( KernelStatement statement, IndexDescriptor index,
+            IndexQuery... predicates ) throws IndexNotFoundKernelException, IndexNotApplicableKernelException;
+
     /**
      * Returns the id of the matched node, or {@link StatementConstants#NO_SUCH_NODE} if no node was found.
      *
@@ -64,12 +64,12 @@ public abstract class LabelState
         }
     }
 
-    abstract static class Defaults extends StateDefaults<Integer, LabelState, Mutable>
+    abstract static class Defaults extends StateDefaults<LabelState, Mutable>
     {
         @Override
-        Mutable createValue( Integer key, TxState state )
+        Mutable createValue( long key, TxState state )
         {
-            return new Mutable( key );
+            return new Mutable( (int) key );
         }
 
         @Override
@@ -96,6 +96,25 @@ public class NodeStateImpl extends PropertyContainerStateImpl implements NodeSta
         relationshipsRemoved.addRelationship( relId, typeId, direction );
     }
 
+    @Override
+    int changeCount()
+    {
+        int count = super.changeCount();
+        if ( labelDiffSets != null )
+        {
+            count += labelDiffSets.getAdded().size() + labelDiffSets.getRemoved().size();
+        }
+        if ( relationshipsAdded != null )
+        {
+            count += relationshipsAdded.size();
+        }
+        if ( relationshipsRemoved != null )
+        {
+            count += relationshipsRemoved.size();
+        }
+        return count;
+    }
+
     @Override
     public void clear()
     {
@@ -243,10 +262,10 @@ public class NodeStateImpl extends PropertyContainerStateImpl implements NodeSta
             PrimitiveLongCollections.emptyIterator();
     }
 
-    public abstract static class Defaults extends StateDefaults<Long, NodeState, NodeStateImpl>
+    public abstract static class Defaults extends StateDefaults<NodeState, NodeStateImpl>
     {
         @Override
-        final NodeStateImpl createValue( Long id, TxState state )
+        final NodeStateImpl createValue( long id, TxState state )
         {
             return new NodeStateImpl( id, state );
         }
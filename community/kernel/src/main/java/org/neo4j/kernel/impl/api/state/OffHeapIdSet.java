@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.state;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+
+/**
+ * {@link java.util.Set} of entity ids kept in an {@link Primitive#offHeapLongSet(int) off-heap long set}, for
+ * {@link org.neo4j.kernel.impl.util.diffsets.DiffSets diff sets} holding ids of many entities.
+ * <p>
+ * The memory must be released by {@link #close() closing} the set, after which it is empty.
+ * Unlike the sets diff sets use by default, it does not allow modification while iterating over it.
+ */
+class OffHeapIdSet extends AbstractSet<Long> implements AutoCloseable
+{
+    private PrimitiveLongSet ids;
+
+    OffHeapIdSet( int initialCapacity )
+    {
+        this.ids = Primitive.offHeapLongSet( initialCapacity );
+    }
+
+    @Override
+    public boolean contains( Object o )
+    {
+        return o instanceof Long && ids.contains( (Long) o );
+    }
+
+    @Override
+    public boolean add( Long id )
+    {
+        return ids.add( id );
+    }
+
+    @Override
+    public boolean remove( Object o )
+    {
+        return o instanceof Long && ids.remove( (Long) o );
+    }
+
+    @Override
+    public Iterator<Long> iterator()
+    {
+        return PrimitiveLongCollections.toIterator( ids.iterator() );
+    }
+
+    @Override
+    public int size()
+    {
+        return ids.size();
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return ids.isEmpty();
+    }
+
+    @Override
+    public void clear()
+    {
+        ids.clear();
+    }
+
+    @Override
+    public void close()
+    {
+        ids.close();
+        ids = PrimitiveLongCollections.emptySet();
+    }
+}
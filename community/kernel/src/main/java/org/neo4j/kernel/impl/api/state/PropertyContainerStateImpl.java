@@ -78,6 +78,19 @@ public class PropertyContainerStateImpl implements PropertyContainerState
         }
     }
 
+    /**
+     * @return the number of properties added, changed or removed, i.e. the number of entries held by this state.
+     */
+    int changeCount()
+    {
+        return size( addedProperties ) + size( changedProperties ) + size( removedProperties );
+    }
+
+    private static int size( VersionedHashMap<Integer, StorageProperty> properties )
+    {
+        return properties == null ? 0 : properties.size();
+    }
+
     public void changeProperty( DefinedProperty property )
     {
         if ( addedProperties != null )
@@ -378,6 +378,14 @@ public class RelationshipChangesForNode
         return types;
     }
 
+    /**
+     * @return the number of relationships held by this instance, over all types and directions.
+     */
+    int size()
+    {
+        return totalOutgoing + totalIncoming + totalLoops;
+    }
+
     public void clear()
     {
         if ( outgoing != null )
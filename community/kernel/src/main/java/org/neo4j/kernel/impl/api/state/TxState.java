@@ -29,6 +29,7 @@ import java.util.TreeMap;
 import org.neo4j.collection.primitive.Primitive;
 import org.neo4j.collection.primitive.PrimitiveIntSet;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
 import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.kernel.api.exceptions.schema.ConstraintValidationException;
@@ -57,6 +58,7 @@ import org.neo4j.storageengine.api.txstate.ReadableDiffSets;
 import org.neo4j.storageengine.api.txstate.ReadableRelationshipDiffSets;
 import org.neo4j.storageengine.api.txstate.ReadableTransactionState;
 import org.neo4j.storageengine.api.txstate.RelationshipState;
+import org.neo4j.storageengine.api.txstate.SuperReadableDiffSets;
 import org.neo4j.storageengine.api.txstate.TxStateVisitor;
 
 import static org.neo4j.helpers.collection.Iterables.map;
@@ -76,47 +78,56 @@ import static org.neo4j.kernel.impl.api.PropertyValueComparison.SuperType.STRING
  */
 public final class TxState implements TransactionState, RelationshipVisitor.Home
 {
-    private Map<Integer/*Label ID*/, LabelState.Mutable> labelStatesMap;
+    // Approximate heap cost of the parts making up the state, including their share of the tables holding them,
+    // used for estimating heap usage: an entry in a boxed hash map or set, such as an added node or a changed
+    // property, an entry in a primitive hash set, and the state object of a node, relationship or label.
+    static final long BOXED_ENTRY_BYTES = 64;
+    static final long PRIMITIVE_ENTRY_BYTES = 16;
+    static final long STATE_OBJECT_BYTES = 80;
+    // Number of deleted entities at which the heap usage is first compared to the off-heap threshold
+    static final int FIRST_OFF_HEAP_CHECK = 1 << 10;
+
+    private PrimitiveLongObjectMap<LabelState.Mutable> labelStatesMap; // keyed by label id
     private static final LabelState.Defaults LABEL_STATE = new LabelState.Defaults()
     {
         @Override
-        Map<Integer, LabelState.Mutable> getMap( TxState state )
+        PrimitiveLongObjectMap<LabelState.Mutable> getMap( TxState state )
         {
             return state.labelStatesMap;
         }
 
         @Override
-        void setMap( TxState state, Map<Integer, LabelState.Mutable> map )
+        void setMap( TxState state, PrimitiveLongObjectMap<LabelState.Mutable> map )
         {
             state.labelStatesMap = map;
         }
     };
-    private Map<Long/*Node ID*/, NodeStateImpl> nodeStatesMap;
+    private PrimitiveLongObjectMap<NodeStateImpl> nodeStatesMap; // keyed by node id
     private static final NodeStateImpl.Defaults NODE_STATE = new NodeStateImpl.Defaults()
     {
         @Override
-        Map<Long, NodeStateImpl> getMap( TxState state )
+        PrimitiveLongObjectMap<NodeStateImpl> getMap( TxState state )
         {
             return state.nodeStatesMap;
         }
 
         @Override
-        void setMap( TxState state, Map<Long, NodeStateImpl> map )
+        void setMap( TxState state, PrimitiveLongObjectMap<NodeStateImpl> map )
         {
             state.nodeStatesMap = map;
         }
     };
-    private Map<Long/*Relationship ID*/, RelationshipStateImpl> relationshipStatesMap;
+    private PrimitiveLongObjectMap<RelationshipStateImpl> relationshipStatesMap; // keyed by relationship id
     private static final RelationshipStateImpl.Defaults RELATIONSHIP_STATE = new RelationshipStateImpl.Defaults()
     {
         @Override
-        Map<Long, RelationshipStateImpl> getMap( TxState state )
+        PrimitiveLongObjectMap<RelationshipStateImpl> getMap( TxState state )
         {
             return state.relationshipStatesMap;
         }
 
         @Override
-        void setMap( TxState state, Map<Long, RelationshipStateImpl> map )
+        void setMap( TxState state, PrimitiveLongObjectMap<RelationshipStateImpl> map )
         {
             state.relationshipStatesMap = map;
         }
@@ -146,6 +157,17 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
     private PrimitiveLongSet nodesDeletedInTx;
     private PrimitiveLongSet relationshipsDeletedInTx;
 
+    /**
+     * Transactions deleting many entities mostly hold ids of deleted nodes and relationships, which we move into
+     * off-heap sets once the estimated heap usage goes past {@link #offHeapThreshold}. The sets are released
+     * on {@link #close()}.
+     */
+    private final long offHeapThreshold;
+    private long nextOffHeapCheck = FIRST_OFF_HEAP_CHECK;
+    private boolean offHeap;
+    private OffHeapIdSet nodesRemovedOffHeap;
+    private OffHeapIdSet relationshipsRemovedOffHeap;
+
     private Map<IndexBackedConstraintDescriptor, Long> createdConstraintIndexesByConstraint;
 
     private Map<LabelSchemaDescriptor, Map<OrderedPropertyValues, DiffSets<Long>>> indexUpdates;
@@ -153,6 +175,20 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
     private boolean hasChanges;
     private boolean hasDataChanges;
 
+    public TxState()
+    {
+        this( 0 );
+    }
+
+    /**
+     * @param offHeapThreshold estimated heap usage, in bytes, past which the ids of deleted nodes and relationships
+     * are kept off-heap, or {@code 0} for keeping all state on the heap.
+     */
+    public TxState( long offHeapThreshold )
+    {
+        this.offHeapThreshold = offHeapThreshold;
+    }
+
     @Override
     public void accept( final TxStateVisitor visitor )
             throws ConstraintValidationException, CreateConstraintFailureException
@@ -1177,6 +1213,134 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
         return hasDataChanges;
     }
 
+    /**
+     * Estimates the heap used by this transaction state by counting the entries it holds: added and removed
+     * nodes and relationships, and for each changed node and relationship its changed properties, labels and
+     * relationships. Ids kept off-heap are not counted. Each kind of entry is given an approximate cost, and
+     * property values are not looked at, so this is an estimate which is linear in the number of changed entities.
+     */
+    @Override
+    public long estimatedHeapUsage()
+    {
+        long usage = BOXED_ENTRY_BYTES * (added( nodes ) + added( relationships ));
+        if ( !offHeap )
+        {
+            usage += BOXED_ENTRY_BYTES * (removed( nodes ) + removed( relationships )) +
+                     PRIMITIVE_ENTRY_BYTES * (size( nodesDeletedInTx ) + size( relationshipsDeletedInTx ));
+        }
+        if ( nodeStatesMap != null )
+        {
+            for ( NodeStateImpl nodeState : nodeStatesMap.values() )
+            {
+                usage += STATE_OBJECT_BYTES + BOXED_ENTRY_BYTES * nodeState.changeCount();
+            }
+        }
+        if ( relationshipStatesMap != null )
+        {
+            for ( RelationshipStateImpl relationshipState : relationshipStatesMap.values() )
+            {
+                usage += STATE_OBJECT_BYTES + BOXED_ENTRY_BYTES * relationshipState.changeCount();
+            }
+        }
+        if ( labelStatesMap != null )
+        {
+            for ( LabelState labelState : labelStatesMap.values() )
+            {
+                ReadableDiffSets<Long> nodeDiffSets = labelState.nodeDiffSets();
+                usage += STATE_OBJECT_BYTES + BOXED_ENTRY_BYTES * (added( nodeDiffSets ) + removed( nodeDiffSets ));
+            }
+        }
+        return usage;
+    }
+
+    /**
+     * Releases the off-heap sets holding ids of deleted nodes and relationships, if the state has been moved
+     * off-heap. The state no longer knows about deleted entities afterwards.
+     */
+    @Override
+    public void close()
+    {
+        if ( offHeap )
+        {
+            offHeap = false;
+            nodesDeletedInTx.close();
+            nodesDeletedInTx = null;
+            relationshipsDeletedInTx.close();
+            relationshipsDeletedInTx = null;
+            nodesRemovedOffHeap.close();
+            relationshipsRemovedOffHeap.close();
+        }
+    }
+
+    boolean isOffHeap()
+    {
+        return offHeap;
+    }
+
+    /**
+     * Moves the ids of deleted nodes and relationships off-heap if the estimated heap usage has gone past the
+     * threshold. Estimating visits the state of all changed entities, so it is only done each time the number of
+     * deleted entities has doubled.
+     */
+    private void considerMovingOffHeap()
+    {
+        if ( offHeapThreshold == 0 || offHeap )
+        {
+            return;
+        }
+        long deleted = size( nodesDeletedInTx ) + size( relationshipsDeletedInTx );
+        if ( deleted >= nextOffHeapCheck )
+        {
+            nextOffHeapCheck = deleted * 2;
+            if ( estimatedHeapUsage() > offHeapThreshold )
+            {
+                moveOffHeap();
+            }
+        }
+    }
+
+    private void moveOffHeap()
+    {
+        nodesDeletedInTx = offHeapCopy( nodesDeletedInTx );
+        relationshipsDeletedInTx = offHeapCopy( relationshipsDeletedInTx );
+        nodesRemovedOffHeap = new OffHeapIdSet( offHeapCapacity( removed( nodes ) ) );
+        nodes().moveRemovedTo( nodesRemovedOffHeap );
+        relationshipsRemovedOffHeap = new OffHeapIdSet( offHeapCapacity( removed( relationships ) ) );
+        relationships().moveRemovedTo( relationshipsRemovedOffHeap );
+        offHeap = true;
+    }
+
+    private static PrimitiveLongSet offHeapCopy( PrimitiveLongSet set )
+    {
+        PrimitiveLongSet copy = Primitive.offHeapLongSet( offHeapCapacity( size( set ) ) );
+        if ( set != null )
+        {
+            copy.addAll( set.iterator() );
+            set.close();
+        }
+        return copy;
+    }
+
+    private static int offHeapCapacity( long size )
+    {
+        return (int) Math.max( size * 2, FIRST_OFF_HEAP_CHECK );
+    }
+
+    private static long added( SuperReadableDiffSets<?,?> diffSets )
+    {
+        return diffSets == null ? 0 : diffSets.getAdded().size();
+    }
+
+    private static long removed( SuperReadableDiffSets<?,?> diffSets )
+    {
+        return diffSets == null ? 0 : diffSets.getRemoved().size();
+    }
+
+    private static long size( PrimitiveLongSet set )
+    {
+        return set == null ? 0 : set.size();
+    }
+
     private void recordNodeDeleted( long id )
     {
         if ( nodesDeletedInTx == null )
@@ -1184,6 +1348,7 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
             nodesDeletedInTx = Primitive.longSet();
         }
         nodesDeletedInTx.add( id );
+        considerMovingOffHeap();
     }
 
     private void recordRelationshipDeleted( long id )
@@ -1193,5 +1358,6 @@ public final class TxState implements TransactionState, RelationshipVisitor.Home
             relationshipsDeletedInTx = Primitive.longSet();
         }
         relationshipsDeletedInTx.add( id );
+        considerMovingOffHeap();
     }
 }
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.factory;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.CommitProcessFactory;
+import org.neo4j.kernel.impl.api.GroupCommitProcess;
 import org.neo4j.kernel.impl.api.ReadOnlyTransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionCommitProcess;
 import org.neo4j.kernel.impl.api.TransactionRepresentationCommitProcess;
@@ -38,6 +39,11 @@ public class CommunityCommitProcessFactory implements CommitProcessFactory
         {
             return new ReadOnlyTransactionCommitProcess();
         }
-        return new TransactionRepresentationCommitProcess( appender, storageEngine );
+        TransactionCommitProcess commitProcess = new TransactionRepresentationCommitProcess( appender, storageEngine );
+        if ( config.get( GraphDatabaseSettings.group_commit_enabled ) )
+        {
+            return new GroupCommitProcess( commitProcess );
+        }
+        return commitProcess;
     }
 }
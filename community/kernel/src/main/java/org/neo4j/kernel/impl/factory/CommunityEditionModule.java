@@ -56,6 +56,7 @@ import org.neo4j.kernel.impl.locking.StatementLocksFactory;
 import org.neo4j.kernel.impl.locking.community.CommunityLockManger;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.impl.store.id.ConcurrentIdGeneratorFactory;
 import org.neo4j.kernel.impl.store.id.DefaultIdGeneratorFactory;
 import org.neo4j.kernel.impl.store.id.IdGeneratorFactory;
 import org.neo4j.kernel.impl.store.id.IdReuseEligibility;
@@ -105,7 +106,8 @@ public class CommunityEditionModule extends EditionModule
         statementLocksFactory = createStatementLocksFactory( lockManager, config, logging );
 
         idTypeConfigurationProvider = createIdTypeConfigurationProvider( config );
-        idGeneratorFactory = dependencies.satisfyDependency( createIdGeneratorFactory( fileSystem, idTypeConfigurationProvider ) );
+        idGeneratorFactory = dependencies.satisfyDependency(
+                createIdGeneratorFactory( fileSystem, idTypeConfigurationProvider, config ) );
 
         propertyKeyTokenHolder = life.add( dependencies.satisfyDependency( new DelegatingPropertyKeyTokenHolder(
                 createPropertyKeyCreator( config, dataSourceManager, idGeneratorFactory ) ) ) );
@@ -221,8 +223,12 @@ public class CommunityEditionModule extends EditionModule
     }
 
     protected IdGeneratorFactory createIdGeneratorFactory( FileSystemAbstraction fs,
-            IdTypeConfigurationProvider idTypeConfigurationProvider )
+            IdTypeConfigurationProvider idTypeConfigurationProvider, Config config )
     {
+        if ( config.get( GraphDatabaseSettings.concurrent_id_generators_enabled ) )
+        {
+            return new ConcurrentIdGeneratorFactory( fs, idTypeConfigurationProvider );
+        }
         return new DefaultIdGeneratorFactory( fs, idTypeConfigurationProvider );
     }
 
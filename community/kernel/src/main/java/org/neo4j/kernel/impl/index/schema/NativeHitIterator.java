@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Predicate;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
+
+/**
+ * {@link NodeValueIterator} over the entity ids and values of the hits of a seek in a native schema index,
+ * optionally filtering the hits on their values. The seek cursor is closed by whoever opened it, not by this iterator.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+class NativeHitIterator<KEY extends NativeSchemaKey> extends PrimitiveLongCollections.PrimitiveLongBaseIterator
+        implements NodeValueIterator
+{
+    private final RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seeker;
+    private final Predicate<Object> filter;
+
+    /**
+     * @param seeker cursor of the seek.
+     * @param filter predicate on the values of the hits, or {@code null} to accept all hits.
+     */
+    NativeHitIterator( RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seeker, Predicate<Object> filter )
+    {
+        this.seeker = seeker;
+        this.filter = filter;
+    }
+
+    @Override
+    protected boolean fetchNext()
+    {
+        try
+        {
+            while ( seeker.next() )
+            {
+                KEY key = seeker.get().key();
+                if ( filter == null || filter.test( key.asValue() ) )
+                {
+                    return next( key.entityId );
+                }
+            }
+            return false;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public Object value()
+    {
+        return seeker.get().key().asValue();
+    }
+}
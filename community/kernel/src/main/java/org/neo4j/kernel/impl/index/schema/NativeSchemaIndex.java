@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Header;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Base class for the populator and the accessor of a native schema index, which is a single {@link GBPTree} file.
+ * The state of the index, i.e. whether it is populating, online or failed, is kept in the header of the tree.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+abstract class NativeSchemaIndex<KEY extends NativeSchemaKey>
+{
+    static final byte BYTE_FAILED = 0;
+    static final byte BYTE_ONLINE = 1;
+    static final byte BYTE_POPULATING = 2;
+
+    static final Header.Reader NO_HEADER_READER = ( cursor, length ) ->
+    {
+    };
+
+    final PageCache pageCache;
+    final FileSystemAbstraction fs;
+    final File storeFile;
+    final SchemaLayout<KEY> layout;
+
+    GBPTree<KEY,NativeSchemaValue> tree;
+
+    NativeSchemaIndex( PageCache pageCache, FileSystemAbstraction fs, File storeFile, SchemaLayout<KEY> layout )
+    {
+        this.pageCache = pageCache;
+        this.fs = fs;
+        this.storeFile = storeFile;
+        this.layout = layout;
+    }
+
+    void instantiateTree() throws IOException
+    {
+        fs.mkdirs( storeFile.getParentFile() );
+        tree = new GBPTree<>( pageCache, storeFile, layout, 0, GBPTree.NO_MONITOR, NO_HEADER_READER );
+    }
+
+    void closeTree() throws IOException
+    {
+        if ( tree != null )
+        {
+            tree.close();
+            tree = null;
+        }
+    }
+
+    static Consumer<PageCursor> stateHeader( byte state )
+    {
+        return cursor -> cursor.putByte( state );
+    }
+
+    static Consumer<PageCursor> failureHeader( byte[] failureBytes )
+    {
+        return cursor ->
+        {
+            cursor.putByte( BYTE_FAILED );
+            cursor.putShort( (short) failureBytes.length );
+            cursor.putBytes( failureBytes );
+        };
+    }
+
+    /**
+     * Reads the state, and possibly failure message, that the populator of an index left in its tree header.
+     */
+    static class HeaderReader implements Header.Reader
+    {
+        byte state = BYTE_POPULATING;
+        String failureMessage;
+
+        @Override
+        public void read( PageCursor from, int length )
+        {
+            if ( length == 0 )
+            {
+                // Nothing written yet, the populator hasn't gotten very far
+                state = BYTE_POPULATING;
+                return;
+            }
+            state = from.getByte();
+            if ( state == BYTE_FAILED && length >= Byte.BYTES + Short.BYTES )
+            {
+                int failureLength = Math.min( from.getShort() & 0xFFFF, length - Byte.BYTES - Short.BYTES );
+                byte[] failureBytes = new byte[failureLength];
+                from.getBytes( failureBytes );
+                failureMessage = new String( failureBytes, UTF_8 );
+            }
+        }
+    }
+}
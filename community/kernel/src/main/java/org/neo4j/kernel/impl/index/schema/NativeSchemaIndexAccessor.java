@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.helpers.collection.BoundedIterable;
+import org.neo4j.helpers.collection.PrefetchingIterator;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.PropertyAccessor;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.storageengine.api.schema.IndexReader;
+
+import static org.neo4j.helpers.collection.Iterators.asResourceIterator;
+import static org.neo4j.helpers.collection.Iterators.iterator;
+
+/**
+ * {@link IndexAccessor} for an online native schema index. Only a single {@link IndexUpdater} may be open at any
+ * given time, which is fine since index updates are applied by one thread at a time.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+class NativeSchemaIndexAccessor<KEY extends NativeSchemaKey> extends NativeSchemaIndex<KEY> implements IndexAccessor
+{
+    /**
+     * Creates {@link NativeSchemaIndexReader readers} for a specific type of key.
+     */
+    interface ReaderFactory<KEY extends NativeSchemaKey>
+    {
+        NativeSchemaIndexReader<KEY> newReader( GBPTree<KEY,NativeSchemaValue> tree, SchemaLayout<KEY> layout,
+                IndexDescriptor descriptor );
+    }
+
+    private final IndexDescriptor descriptor;
+    private final ReaderFactory<KEY> readerFactory;
+    private final NativeSchemaIndexUpdater<KEY> singleUpdater;
+
+    NativeSchemaIndexAccessor( PageCache pageCache, FileSystemAbstraction fs, File storeFile, SchemaLayout<KEY> layout,
+            IndexDescriptor descriptor, ReaderFactory<KEY> readerFactory ) throws IOException
+    {
+        super( pageCache, fs, storeFile, layout );
+        this.descriptor = descriptor;
+        this.readerFactory = readerFactory;
+        this.singleUpdater = new NativeSchemaIndexUpdater<>( layout );
+        instantiateTree();
+    }
+
+    @Override
+    public void drop() throws IOException
+    {
+        closeTree();
+        fs.deleteFile( storeFile );
+    }
+
+    @Override
+    public IndexUpdater newUpdater( IndexUpdateMode mode )
+    {
+        try
+        {
+            return singleUpdater.initialize( tree, tree.writer(), true );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public void flush() throws IOException
+    {   // readers see changes as soon as they are written
+    }
+
+    @Override
+    public void force() throws IOException
+    {
+        tree.checkpoint( IOLimiter.unlimited() );
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        closeTree();
+    }
+
+    @Override
+    public IndexReader newReader()
+    {
+        return readerFactory.newReader( tree, layout, descriptor );
+    }
+
+    @Override
+    public BoundedIterable<Long> newAllEntriesReader()
+    {
+        return new BoundedIterable<Long>()
+        {
+            private RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seeker;
+
+            @Override
+            public long maxCount()
+            {
+                try
+                {
+                    return NativeSchemaIndexes.count( tree, layout );
+                }
+                catch ( IOException e )
+                {
+                    throw new UncheckedIOException( e );
+                }
+            }
+
+            @Override
+            public Iterator<Long> iterator()
+            {
+                try
+                {
+                    close();
+                    seeker = NativeSchemaIndexes.seekAll( tree, layout );
+                }
+                catch ( IOException e )
+                {
+                    throw new UncheckedIOException( e );
+                }
+                return new PrefetchingIterator<Long>()
+                {
+                    @Override
+                    protected Long fetchNextOrNull()
+                    {
+                        try
+                        {
+                            return seeker.next() ? seeker.get().key().entityId : null;
+                        }
+                        catch ( IOException e )
+                        {
+                            throw new UncheckedIOException( e );
+                        }
+                    }
+                };
+            }
+
+            @Override
+            public void close() throws IOException
+            {
+                if ( seeker != null )
+                {
+                    seeker.close();
+                    seeker = null;
+                }
+            }
+        };
+    }
+
+    @Override
+    public ResourceIterator<File> snapshotFiles() throws IOException
+    {
+        return asResourceIterator( iterator( storeFile ) );
+    }
+
+    @Override
+    public void verifyDeferredConstraints( PropertyAccessor propertyAccessor )
+            throws IndexEntryConflictException, IOException
+    {
+        if ( descriptor.type() == IndexDescriptor.Type.UNIQUE )
+        {
+            NativeSchemaIndexes.verifyUniqueness( tree, layout );
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[" + storeFile + "]";
+    }
+}
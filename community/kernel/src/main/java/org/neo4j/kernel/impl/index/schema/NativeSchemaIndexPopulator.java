@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.IOLimiter;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.PropertyAccessor;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.storageengine.api.schema.IndexSample;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * {@link IndexPopulator} for a native schema index. A single tree writer is held for the duration of the population,
+ * which is shared by batched {@link #add(Collection) additions} and {@link #newPopulatingUpdater(PropertyAccessor)
+ * concurrent updates}. Sampling is done by scanning the whole tree once population is complete. The writer is
+ * released for the duration of such scans, since a seek can't pass pages write locked by it.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+class NativeSchemaIndexPopulator<KEY extends NativeSchemaKey> extends NativeSchemaIndex<KEY> implements IndexPopulator
+{
+    private final IndexDescriptor descriptor;
+    private final KEY treeKey;
+    private final NativeSchemaIndexUpdater<KEY> singleUpdater;
+    private Writer<KEY,NativeSchemaValue> singleTreeWriter;
+    private byte[] failureBytes;
+    private boolean dropped;
+
+    NativeSchemaIndexPopulator( PageCache pageCache, FileSystemAbstraction fs, File storeFile, SchemaLayout<KEY> layout,
+            IndexDescriptor descriptor )
+    {
+        super( pageCache, fs, storeFile, layout );
+        this.descriptor = descriptor;
+        this.treeKey = layout.newKey();
+        this.singleUpdater = new NativeSchemaIndexUpdater<>( layout );
+    }
+
+    @Override
+    public synchronized void create() throws IOException
+    {
+        fs.deleteFile( storeFile );
+        instantiateTree();
+        tree.checkpoint( IOLimiter.unlimited(), stateHeader( BYTE_POPULATING ) );
+        singleTreeWriter = tree.writer();
+    }
+
+    @Override
+    public synchronized void drop() throws IOException
+    {
+        try
+        {
+            closeWriter();
+            closeTree();
+            fs.deleteFile( storeFile );
+        }
+        finally
+        {
+            dropped = true;
+        }
+    }
+
+    @Override
+    public synchronized void add( Collection<? extends IndexEntryUpdate<?>> updates ) throws IOException
+    {
+        // Insert the batch in key order, which makes consecutive insertions land in the same tree nodes
+        List<KEY> keys = new ArrayList<>( updates.size() );
+        for ( IndexEntryUpdate<?> update : updates )
+        {
+            KEY key = layout.newKey();
+            key.from( update.getEntityId(), update.values()[0] );
+            keys.add( key );
+        }
+        keys.sort( layout );
+        for ( KEY key : keys )
+        {
+            singleTreeWriter.put( key, NativeSchemaValue.INSTANCE );
+        }
+    }
+
+    @Override
+    public synchronized void add( IndexEntryUpdate<?> update ) throws IOException
+    {
+        treeKey.from( update.getEntityId(), update.values()[0] );
+        singleTreeWriter.put( treeKey, NativeSchemaValue.INSTANCE );
+    }
+
+    @Override
+    public synchronized void verifyDeferredConstraints( PropertyAccessor propertyAccessor )
+            throws IndexEntryConflictException, IOException
+    {
+        if ( descriptor.type() == IndexDescriptor.Type.UNIQUE )
+        {
+            closeWriter();
+            try
+            {
+                NativeSchemaIndexes.verifyUniqueness( tree, layout );
+            }
+            finally
+            {
+                singleTreeWriter = tree.writer();
+            }
+        }
+    }
+
+    @Override
+    public IndexUpdater newPopulatingUpdater( PropertyAccessor accessor ) throws IOException
+    {
+        return new IndexUpdater()
+        {
+            @Override
+            public void process( IndexEntryUpdate update ) throws IOException
+            {
+                synchronized ( NativeSchemaIndexPopulator.this )
+                {
+                    try ( NativeSchemaIndexUpdater<KEY> updater =
+                                  singleUpdater.initialize( tree, singleTreeWriter, false ) )
+                    {
+                        updater.process( update );
+                    }
+                }
+            }
+
+            @Override
+            public void remove( PrimitiveLongSet nodeIds ) throws IOException
+            {
+                synchronized ( NativeSchemaIndexPopulator.this )
+                {
+                    closeWriter();
+                    List<KEY> toRemove;
+                    try
+                    {
+                        toRemove = NativeSchemaIndexes.entriesOf( tree, layout, nodeIds );
+                    }
+                    finally
+                    {
+                        singleTreeWriter = tree.writer();
+                    }
+                    for ( KEY key : toRemove )
+                    {
+                        singleTreeWriter.remove( key );
+                    }
+                }
+            }
+
+            @Override
+            public void close() throws IOException
+            {
+            }
+        };
+    }
+
+    @Override
+    public synchronized void close( boolean populationCompletedSuccessfully ) throws IOException
+    {
+        if ( dropped || tree == null )
+        {
+            return;
+        }
+        try
+        {
+            closeWriter();
+            if ( populationCompletedSuccessfully )
+            {
+                tree.checkpoint( IOLimiter.unlimited(), stateHeader( BYTE_ONLINE ) );
+            }
+            else if ( failureBytes != null )
+            {
+                tree.checkpoint( IOLimiter.unlimited(), failureHeader( failureBytes ) );
+            }
+            else
+            {
+                tree.checkpoint( IOLimiter.unlimited(), stateHeader( BYTE_POPULATING ) );
+            }
+        }
+        finally
+        {
+            closeTree();
+        }
+    }
+
+    @Override
+    public synchronized void markAsFailed( String failure ) throws IOException
+    {
+        byte[] bytes = failure.getBytes( UTF_8 );
+        // Leave room in the tree header page for the tree state
+        failureBytes = Arrays.copyOf( bytes, Math.min( bytes.length, pageCache.pageSize() / 2 ) );
+        if ( tree != null )
+        {
+            // Make the failure visible to the provider right away, a checkpoint requires the writer to be released
+            boolean writerOpen = singleTreeWriter != null;
+            closeWriter();
+            tree.checkpoint( IOLimiter.unlimited(), failureHeader( failureBytes ) );
+            if ( writerOpen )
+            {
+                singleTreeWriter = tree.writer();
+            }
+        }
+    }
+
+    @Override
+    public void includeSample( IndexEntryUpdate update )
+    {   // sampled from the tree in sampleResult()
+    }
+
+    @Override
+    public void configureSampling( boolean onlineSampling )
+    {   // sampled from the tree in sampleResult()
+    }
+
+    @Override
+    public synchronized IndexSample sampleResult()
+    {
+        try
+        {
+            boolean writerOpen = singleTreeWriter != null;
+            closeWriter();
+            try
+            {
+                return NativeSchemaIndexes.sample( tree, layout, descriptor );
+            }
+            finally
+            {
+                if ( writerOpen )
+                {
+                    singleTreeWriter = tree.writer();
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    private void closeWriter() throws IOException
+    {
+        if ( singleTreeWriter != null )
+        {
+            singleTreeWriter.close();
+            singleTreeWriter = null;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.InternalIndexState;
+import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider;
+import org.neo4j.kernel.impl.storemigration.StoreMigrationParticipant;
+
+/**
+ * {@link SchemaIndexProvider} of schema indexes backed by {@link GBPTree}, one tree file per index. These indexes
+ * can only store values of a single kind, e.g. numbers, so they are meant to be used as parts of a
+ * {@link org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider}, which sends other values elsewhere.
+ * Only single property indexes are supported.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+public abstract class NativeSchemaIndexProvider<KEY extends NativeSchemaKey> extends SchemaIndexProvider
+{
+    private final PageCache pageCache;
+    private final FileSystemAbstraction fs;
+    private final File storeDir;
+    private final boolean readOnly;
+
+    NativeSchemaIndexProvider( Descriptor descriptor, int priority, PageCache pageCache, FileSystemAbstraction fs,
+            File storeDir, boolean readOnly )
+    {
+        super( descriptor, priority );
+        this.pageCache = pageCache;
+        this.fs = fs;
+        this.storeDir = storeDir;
+        this.readOnly = readOnly;
+    }
+
+    abstract SchemaLayout<KEY> layout();
+
+    abstract NativeSchemaIndexAccessor.ReaderFactory<KEY> readerFactory();
+
+    @Override
+    public IndexPopulator getPopulator( long indexId, IndexDescriptor descriptor, IndexSamplingConfig samplingConfig )
+    {
+        if ( readOnly )
+        {
+            throw new UnsupportedOperationException( "Can't create populator for read only index" );
+        }
+        return new NativeSchemaIndexPopulator<>( pageCache, fs, indexFile( indexId ), layout(), descriptor );
+    }
+
+    @Override
+    public IndexAccessor getOnlineAccessor( long indexId, IndexDescriptor descriptor,
+            IndexSamplingConfig samplingConfig ) throws IOException
+    {
+        return new NativeSchemaIndexAccessor<>( pageCache, fs, indexFile( indexId ), layout(), descriptor,
+                readerFactory() );
+    }
+
+    @Override
+    public String getPopulationFailure( long indexId ) throws IllegalStateException
+    {
+        try
+        {
+            String failure = readHeader( indexId ).failureMessage;
+            if ( failure == null )
+            {
+                throw new IllegalStateException( "Index " + indexId + " isn't failed" );
+            }
+            return failure;
+        }
+        catch ( NoSuchFileException e )
+        {
+            throw new IllegalStateException( "Index " + indexId + " doesn't exist", e );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public InternalIndexState getInitialState( long indexId, IndexDescriptor descriptor )
+    {
+        try
+        {
+            switch ( readHeader( indexId ).state )
+            {
+            case NativeSchemaIndex.BYTE_FAILED:
+                return InternalIndexState.FAILED;
+            case NativeSchemaIndex.BYTE_ONLINE:
+                return InternalIndexState.ONLINE;
+            default:
+                return InternalIndexState.POPULATING;
+            }
+        }
+        catch ( NoSuchFileException e )
+        {
+            return InternalIndexState.POPULATING;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public StoreMigrationParticipant storeMigrationParticipant( FileSystemAbstraction fs, PageCache pageCache,
+            LabelScanStoreProvider labelScanStoreProvider )
+    {
+        // Native schema indexes are newer than any store format that can be migrated from
+        return StoreMigrationParticipant.NOT_PARTICIPATING;
+    }
+
+    private NativeSchemaIndex.HeaderReader readHeader( long indexId ) throws IOException
+    {
+        File indexFile = indexFile( indexId );
+        if ( !fs.fileExists( indexFile ) )
+        {
+            throw new NoSuchFileException( indexFile.getAbsolutePath() );
+        }
+        NativeSchemaIndex.HeaderReader headerReader = new NativeSchemaIndex.HeaderReader();
+        GBPTree.readHeader( pageCache, indexFile, headerReader );
+        return headerReader;
+    }
+
+    private File indexFile( long indexId )
+    {
+        File indexDirectory = new File( getSchemaIndexStoreDirectory( storeDir ), Long.toString( indexId ) );
+        return new File( indexDirectory, "index-" + indexId );
+    }
+}
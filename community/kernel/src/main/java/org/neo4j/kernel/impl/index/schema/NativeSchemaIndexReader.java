@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedList;
+import java.util.Queue;
+
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
+import org.neo4j.kernel.api.schema.IndexQuery;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
+
+/**
+ * {@link IndexReader} for a native schema index. Exact and exists queries are answered the same way for all types
+ * of keys, whereas range queries are translated into seeks by subclasses for their specific type of key.
+ * <p>
+ * Keys hold the whole indexed values, so this reader always {@link #queryWithValues(IndexQuery...) provides values}.
+ * <p>
+ * Seek cursors from a query are closed when the next query is made, or when this reader is closed.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+abstract class NativeSchemaIndexReader<KEY extends NativeSchemaKey> implements IndexReader
+{
+    final GBPTree<KEY,NativeSchemaValue> tree;
+    final SchemaLayout<KEY> layout;
+    private final IndexDescriptor descriptor;
+    private final Queue<RawCursor<Hit<KEY,NativeSchemaValue>,IOException>> openSeekers = new LinkedList<>();
+
+    NativeSchemaIndexReader( GBPTree<KEY,NativeSchemaValue> tree, SchemaLayout<KEY> layout,
+            IndexDescriptor descriptor )
+    {
+        this.tree = tree;
+        this.layout = layout;
+        this.descriptor = descriptor;
+    }
+
+    /**
+     * @return whether or not the given value can be stored in this index.
+     */
+    abstract boolean supports( Object value );
+
+    /**
+     * Answers a range, prefix, suffix or contains query, typically by initializing {@code from} and {@code to}
+     * and {@link #seek(NativeSchemaKey, NativeSchemaKey, IndexQuery) seeking}.
+     */
+    abstract NodeValueIterator rangeQuery( KEY from, KEY to, IndexQuery predicate )
+            throws IndexNotApplicableKernelException;
+
+    @Override
+    public long countIndexedNodes( long nodeId, Object... propertyValues )
+    {
+        if ( !supports( propertyValues[0] ) )
+        {
+            return 0;
+        }
+        KEY from = layout.newKey();
+        KEY to = layout.newKey();
+        from.from( nodeId, propertyValues[0] );
+        to.from( nodeId + 1, propertyValues[0] );
+        try ( RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seeker = tree.seek( from, to ) )
+        {
+            long count = 0;
+            while ( seeker.next() )
+            {
+                count++;
+            }
+            return count;
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public IndexSampler createSampler()
+    {
+        return () ->
+        {
+            try
+            {
+                return NativeSchemaIndexes.sample( tree, layout, descriptor );
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+        };
+    }
+
+    @Override
+    public PrimitiveLongIterator query( IndexQuery... predicates ) throws IndexNotApplicableKernelException
+    {
+        return queryWithValues( predicates );
+    }
+
+    @Override
+    public NodeValueIterator queryWithValues( IndexQuery... predicates ) throws IndexNotApplicableKernelException
+    {
+        if ( predicates.length != 1 )
+        {
+            throw new IndexNotApplicableKernelException(
+                    "Native schema indexes only support queries on a single property, got " + predicates.length );
+        }
+        ensureOpenSeekersClosed();
+
+        IndexQuery predicate = predicates[0];
+        KEY from = layout.newKey();
+        KEY to = layout.newKey();
+        switch ( predicate.type() )
+        {
+        case exists:
+            from.initAsLowest();
+            to.initAsHighest();
+            return seek( from, to, null );
+        case exact:
+            Object value = ((IndexQuery.ExactPredicate) predicate).value();
+            if ( !supports( value ) )
+            {
+                return NodeValueIterator.emptyIterator();
+            }
+            from.from( Long.MIN_VALUE, value );
+            to.from( Long.MAX_VALUE, value );
+            return seek( from, to, null );
+        default:
+            return rangeQuery( from, to, predicate );
+        }
+    }
+
+    /**
+     * Seeks from {@code from} (inclusive) to {@code to} (exclusive), in ascending order.
+     *
+     * @param filter predicate to filter the values of the hits with, or {@code null} for no filtering.
+     */
+    NodeValueIterator seek( KEY from, KEY to, IndexQuery filter )
+    {
+        if ( layout.compare( from, to ) > 0 )
+        {
+            // The tree would seek backwards here, but the range is really empty
+            return NodeValueIterator.emptyIterator();
+        }
+        try
+        {
+            RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seeker = tree.seek( from, to );
+            openSeekers.offer( seeker );
+            return new NativeHitIterator<>( seeker, filter );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        ensureOpenSeekersClosed();
+    }
+
+    private void ensureOpenSeekersClosed()
+    {
+        try
+        {
+            RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seeker;
+            while ( (seeker = openSeekers.poll()) != null )
+            {
+                seeker.close();
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+    }
+}
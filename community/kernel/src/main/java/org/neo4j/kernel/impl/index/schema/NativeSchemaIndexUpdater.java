@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexUpdater;
+
+/**
+ * {@link IndexUpdater} for a native schema index, which writes updates straight into the tree through a
+ * {@link Writer}. Additions and removals are idempotent, since the entity id is part of each key, which makes
+ * this updater fit for applying recovered updates too.
+ *
+ * @param <KEY> type of {@link NativeSchemaKey}.
+ */
+class NativeSchemaIndexUpdater<KEY extends NativeSchemaKey> implements IndexUpdater
+{
+    private final SchemaLayout<KEY> layout;
+    private final KEY treeKey;
+    private GBPTree<KEY,NativeSchemaValue> tree;
+    private Writer<KEY,NativeSchemaValue> writer;
+    private boolean manageClosingOfWriter;
+    private boolean closed = true;
+
+    NativeSchemaIndexUpdater( SchemaLayout<KEY> layout )
+    {
+        this.layout = layout;
+        this.treeKey = layout.newKey();
+    }
+
+    NativeSchemaIndexUpdater<KEY> initialize( GBPTree<KEY,NativeSchemaValue> tree,
+            Writer<KEY,NativeSchemaValue> writer, boolean manageClosingOfWriter )
+    {
+        if ( !closed )
+        {
+            throw new IllegalStateException( "Updater still open" );
+        }
+        this.tree = tree;
+        this.writer = writer;
+        this.manageClosingOfWriter = manageClosingOfWriter;
+        this.closed = false;
+        return this;
+    }
+
+    @Override
+    public void process( IndexEntryUpdate update ) throws IOException
+    {
+        assertOpen();
+        switch ( update.updateMode() )
+        {
+        case ADDED:
+            treeKey.from( update.getEntityId(), update.values()[0] );
+            writer.put( treeKey, NativeSchemaValue.INSTANCE );
+            break;
+        case CHANGED:
+            treeKey.from( update.getEntityId(), update.beforeValues()[0] );
+            writer.remove( treeKey );
+            treeKey.from( update.getEntityId(), update.values()[0] );
+            writer.put( treeKey, NativeSchemaValue.INSTANCE );
+            break;
+        case REMOVED:
+            treeKey.from( update.getEntityId(), update.values()[0] );
+            writer.remove( treeKey );
+            break;
+        default:
+            throw new IllegalArgumentException( "Unknown update mode " + update.updateMode() );
+        }
+    }
+
+    /**
+     * Removes all entries of the given entities, which is only used when applying recovered updates.
+     * The tree is scanned for the entries with the writer released, so this requires that this updater
+     * manages the writer.
+     */
+    @Override
+    public void remove( PrimitiveLongSet nodeIds ) throws IOException
+    {
+        assertOpen();
+        if ( !manageClosingOfWriter )
+        {
+            throw new UnsupportedOperationException( "Can not release a writer not managed by this updater" );
+        }
+        writer.close();
+        List<KEY> toRemove = NativeSchemaIndexes.entriesOf( tree, layout, nodeIds );
+        writer = tree.writer();
+        for ( KEY key : toRemove )
+        {
+            writer.remove( key );
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if ( closed )
+        {
+            return;
+        }
+        closed = true;
+        if ( manageClosingOfWriter )
+        {
+            writer.close();
+        }
+        writer = null;
+    }
+
+    private void assertOpen()
+    {
+        if ( closed )
+        {
+            throw new IllegalStateException( "Updater has been closed" );
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+
+import org.neo4j.cursor.RawCursor;
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Hit;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.storageengine.api.schema.IndexSample;
+
+/**
+ * Full scans over native schema index trees. Since entries are ordered by value, entries with equal values
+ * are always next to each other, which makes both uniqueness verification and counting of unique values
+ * a matter of comparing each entry with the one before it.
+ * <p>
+ * A seek can't get past a page which is write locked by an open tree {@link org.neo4j.index.internal.gbptree.Writer},
+ * so none of these scans may be done by a thread which holds the writer of the same tree.
+ */
+class NativeSchemaIndexes
+{
+    private NativeSchemaIndexes()
+    {
+    }
+
+    static <KEY extends NativeSchemaKey> void verifyUniqueness( GBPTree<KEY,NativeSchemaValue> tree,
+            SchemaLayout<KEY> layout ) throws IOException, IndexEntryConflictException
+    {
+        KEY previous = layout.newKey();
+        boolean first = true;
+        try ( RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seeker = seekAll( tree, layout ) )
+        {
+            while ( seeker.next() )
+            {
+                KEY key = seeker.get().key();
+                if ( !first && layout.compareValue( previous, key ) == 0 )
+                {
+                    throw new IndexEntryConflictException( previous.entityId, key.entityId, key.asValue() );
+                }
+                layout.copyKey( key, previous );
+                first = false;
+            }
+        }
+    }
+
+    static <KEY extends NativeSchemaKey> IndexSample sample( GBPTree<KEY,NativeSchemaValue> tree,
+            SchemaLayout<KEY> layout, IndexDescriptor descriptor ) throws IOException
+    {
+        KEY previous = layout.newKey();
+        long indexSize = 0;
+        long uniqueValues = 0;
+        try ( RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seeker = seekAll( tree, layout ) )
+        {
+            while ( seeker.next() )
+            {
+                KEY key = seeker.get().key();
+                if ( indexSize == 0 || layout.compareValue( previous, key ) != 0 )
+                {
+                    uniqueValues++;
+                    layout.copyKey( key, previous );
+                }
+                indexSize++;
+            }
+        }
+        return descriptor.type() == IndexDescriptor.Type.UNIQUE
+               ? new IndexSample( indexSize, indexSize, indexSize )
+               : new IndexSample( indexSize, uniqueValues, indexSize );
+    }
+
+    static <KEY extends NativeSchemaKey> long count( GBPTree<KEY,NativeSchemaValue> tree, SchemaLayout<KEY> layout )
+            throws IOException
+    {
+        long count = 0;
+        try ( RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seeker = seekAll( tree, layout ) )
+        {
+            while ( seeker.next() )
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return copies of all keys of the given entities. The values of the entries aren't known up front,
+     * so this scans the whole tree.
+     */
+    static <KEY extends NativeSchemaKey> List<KEY> entriesOf( GBPTree<KEY,NativeSchemaValue> tree,
+            SchemaLayout<KEY> layout, PrimitiveLongSet entityIds ) throws IOException
+    {
+        List<KEY> entries = new ArrayList<>();
+        try ( RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seeker = seekAll( tree, layout ) )
+        {
+            while ( seeker.next() )
+            {
+                KEY key = seeker.get().key();
+                if ( entityIds.contains( key.entityId ) )
+                {
+                    entries.add( layout.copyKey( key, layout.newKey() ) );
+                }
+            }
+        }
+        return entries;
+    }
+
+    static <KEY extends NativeSchemaKey> RawCursor<Hit<KEY,NativeSchemaValue>,IOException> seekAll(
+            GBPTree<KEY,NativeSchemaValue> tree, SchemaLayout<KEY> layout ) throws IOException
+    {
+        KEY from = layout.newKey();
+        KEY to = layout.newKey();
+        from.initAsLowest();
+        to.initAsHighest();
+        return tree.seek( from, to );
+    }
+}
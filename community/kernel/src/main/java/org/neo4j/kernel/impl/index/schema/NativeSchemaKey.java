@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+
+/**
+ * Key in a native schema index {@link GBPTree}, i.e. an indexed property value and the id of the entity
+ * which has that value. The entity id is part of the key, which makes all keys in a tree unique, also for
+ * non-unique indexes.
+ */
+abstract class NativeSchemaKey
+{
+    long entityId;
+
+    /**
+     * Initializes this key with the given {@code entityId} and {@code value}.
+     *
+     * @param entityId id of the entity having the value.
+     * @param value property value, which must be supported by this type of key.
+     */
+    abstract void from( long entityId, Object value );
+
+    /**
+     * Initializes this key to be lower than any other key, for use as a lower bound when seeking.
+     */
+    abstract void initAsLowest();
+
+    /**
+     * Initializes this key to be higher than any other key, for use as a upper bound when seeking.
+     */
+    abstract void initAsHighest();
+
+    /**
+     * @return the property value in this key.
+     */
+    abstract Object asValue();
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * {@link SchemaLayout} for numbers, with fixed width {@link NumberSchemaKey keys}.
+ */
+class NumberLayout extends SchemaLayout<NumberSchemaKey>
+{
+    NumberLayout()
+    {
+        super( "NSNI", 0, 1 );
+    }
+
+    @Override
+    int compareValue( NumberSchemaKey o1, NumberSchemaKey o2 )
+    {
+        return o1.compareValueTo( o2 );
+    }
+
+    @Override
+    public NumberSchemaKey newKey()
+    {
+        return new NumberSchemaKey();
+    }
+
+    @Override
+    public NumberSchemaKey copyKey( NumberSchemaKey key, NumberSchemaKey into )
+    {
+        into.type = key.type;
+        into.valueType = key.valueType;
+        into.rawValueBits = key.rawValueBits;
+        into.entityId = key.entityId;
+        return into;
+    }
+
+    @Override
+    public int keySize()
+    {
+        return NumberSchemaKey.SIZE;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, NumberSchemaKey key )
+    {
+        cursor.putByte( (byte) (key.type | key.valueType << 4) );
+        cursor.putLong( key.rawValueBits );
+        cursor.putLong( key.entityId );
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, NumberSchemaKey into )
+    {
+        byte typeByte = cursor.getByte();
+        into.type = (byte) (typeByte & 0x0F);
+        into.valueType = (byte) ((typeByte >>> 4) & 0x0F);
+        into.rawValueBits = cursor.getLong();
+        into.entityId = cursor.getLong();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.kernel.api.schema.IndexQuery;
+import org.neo4j.kernel.api.schema.IndexQuery.NumberRangePredicate;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
+
+/**
+ * {@link NativeSchemaIndexReader} for numbers. Numeric range queries translate to a single seek, using the
+ * entity id part of the bounds to make them inclusive or exclusive.
+ */
+class NumberSchemaIndexReader extends NativeSchemaIndexReader<NumberSchemaKey>
+{
+    NumberSchemaIndexReader( GBPTree<NumberSchemaKey,NativeSchemaValue> tree, SchemaLayout<NumberSchemaKey> layout,
+            IndexDescriptor descriptor )
+    {
+        super( tree, layout, descriptor );
+    }
+
+    @Override
+    boolean supports( Object value )
+    {
+        return NumberSchemaKey.supports( value );
+    }
+
+    @Override
+    NodeValueIterator rangeQuery( NumberSchemaKey from, NumberSchemaKey to, IndexQuery predicate )
+    {
+        if ( predicate.type() != IndexQuery.IndexQueryType.rangeNumeric )
+        {
+            // No strings in here
+            return NodeValueIterator.emptyIterator();
+        }
+
+        NumberRangePredicate range = (NumberRangePredicate) predicate;
+        if ( range.from() == null )
+        {
+            from.initAsLowest();
+        }
+        else
+        {
+            from.from( range.fromInclusive() ? Long.MIN_VALUE : Long.MAX_VALUE, range.from() );
+        }
+        if ( range.to() == null )
+        {
+            to.initAsHighest();
+        }
+        else
+        {
+            to.from( range.toInclusive() ? Long.MAX_VALUE : Long.MIN_VALUE, range.to() );
+        }
+        return seek( from, to, null );
+    }
+}
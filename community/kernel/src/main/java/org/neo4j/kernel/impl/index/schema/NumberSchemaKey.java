@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.helpers.MathUtil;
+
+/**
+ * {@link NativeSchemaKey} for numbers. Integral numbers are stored as their {@code long} value and floating point
+ * numbers as the raw bits of their {@code double} value, so that every number fits in a fixed width key.
+ * Numbers of the two kinds are compared to each other by value, like the rest of the kernel does.
+ * <p>
+ * The Java type of the indexed number is kept in the key too, so that {@link #asValue()} returns the number
+ * as it was stored in the property. It takes no part in comparison.
+ */
+class NumberSchemaKey extends NativeSchemaKey
+{
+    static final int SIZE =
+            Byte.BYTES + /* type and value type */
+            Long.BYTES + /* value bits */
+            Long.BYTES;  /* entityId */
+
+    static final byte LOWEST = 0;
+    static final byte INTEGRAL = 1;
+    static final byte FLOATING = 2;
+    static final byte HIGHEST = 3;
+
+    static final byte UNKNOWN_VALUE_TYPE = 0;
+    static final byte BYTE = 1;
+    static final byte SHORT = 2;
+    static final byte INT = 3;
+    static final byte LONG = 4;
+    static final byte FLOAT = 5;
+    static final byte DOUBLE = 6;
+
+    byte type;
+    byte valueType;
+    long rawValueBits;
+
+    static boolean supports( Object value )
+    {
+        return value instanceof Long || value instanceof Integer || value instanceof Short ||
+               value instanceof Byte || value instanceof Double || value instanceof Float;
+    }
+
+    @Override
+    void from( long entityId, Object value )
+    {
+        if ( value instanceof Double || value instanceof Float )
+        {
+            type = FLOATING;
+            valueType = value instanceof Float ? FLOAT : DOUBLE;
+            rawValueBits = Double.doubleToLongBits( ((Number) value).doubleValue() );
+        }
+        else if ( supports( value ) )
+        {
+            type = INTEGRAL;
+            valueType = value instanceof Long ? LONG
+                      : value instanceof Integer ? INT
+                      : value instanceof Short ? SHORT : BYTE;
+            rawValueBits = ((Number) value).longValue();
+        }
+        else
+        {
+            throw new IllegalArgumentException( "Unsupported value " + value );
+        }
+        this.entityId = entityId;
+    }
+
+    @Override
+    void initAsLowest()
+    {
+        type = LOWEST;
+        valueType = UNKNOWN_VALUE_TYPE;
+        rawValueBits = 0;
+        entityId = Long.MIN_VALUE;
+    }
+
+    @Override
+    void initAsHighest()
+    {
+        type = HIGHEST;
+        valueType = UNKNOWN_VALUE_TYPE;
+        rawValueBits = 0;
+        entityId = Long.MAX_VALUE;
+    }
+
+    @Override
+    Object asValue()
+    {
+        switch ( valueType )
+        {
+        case BYTE:
+            return (byte) rawValueBits;
+        case SHORT:
+            return (short) rawValueBits;
+        case INT:
+            return (int) rawValueBits;
+        case LONG:
+            return rawValueBits;
+        case FLOAT:
+            return (float) Double.longBitsToDouble( rawValueBits );
+        case DOUBLE:
+            return Double.longBitsToDouble( rawValueBits );
+        default:
+            // Lowest and highest bound keys carry no value type
+            return type == FLOATING ? (Object) Double.longBitsToDouble( rawValueBits ) : (Object) rawValueBits;
+        }
+    }
+
+    /**
+     * Compares the values of this key and the {@code other} key, ignoring entity ids.
+     *
+     * @param other key to compare with.
+     * @return negative, zero or positive if the value of this key is lower than, equal to or higher than
+     * that of the {@code other} key.
+     */
+    int compareValueTo( NumberSchemaKey other )
+    {
+        int boundComparison = Integer.compare( bound( type ), bound( other.type ) );
+        if ( boundComparison != 0 || type == LOWEST || type == HIGHEST )
+        {
+            return boundComparison;
+        }
+
+        if ( type == INTEGRAL )
+        {
+            return other.type == INTEGRAL
+                   ? Long.compare( rawValueBits, other.rawValueBits )
+                   : MathUtil.compareLongAgainstDouble( rawValueBits, Double.longBitsToDouble( other.rawValueBits ) );
+        }
+        double value = Double.longBitsToDouble( rawValueBits );
+        return other.type == FLOATING
+               ? Double.compare( value, Double.longBitsToDouble( other.rawValueBits ) )
+               : MathUtil.compareDoubleAgainstLong( value, other.rawValueBits );
+    }
+
+    private static int bound( byte type )
+    {
+        return type == LOWEST ? -1 : type == HIGHEST ? 1 : 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "type=" + type + ",value=" + asValue() + ",entityId=" + entityId;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * {@link SchemaLayout} for short strings, with fixed width {@link StringSchemaKey keys}.
+ */
+class StringLayout extends SchemaLayout<StringSchemaKey>
+{
+    StringLayout()
+    {
+        super( "NSSI", 0, 1 );
+    }
+
+    @Override
+    int compareValue( StringSchemaKey o1, StringSchemaKey o2 )
+    {
+        return o1.compareValueTo( o2 );
+    }
+
+    @Override
+    public StringSchemaKey newKey()
+    {
+        return new StringSchemaKey();
+    }
+
+    @Override
+    public StringSchemaKey copyKey( StringSchemaKey key, StringSchemaKey into )
+    {
+        System.arraycopy( key.bytes, 0, into.bytes, 0, key.length );
+        into.length = key.length;
+        into.entityId = key.entityId;
+        return into;
+    }
+
+    @Override
+    public int keySize()
+    {
+        return StringSchemaKey.SIZE;
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, StringSchemaKey key )
+    {
+        cursor.putByte( (byte) key.length );
+        cursor.putBytes( key.bytes );
+        cursor.putLong( key.entityId );
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, StringSchemaKey into )
+    {
+        // Guard against reading garbage in an inconsistent read, which the tree will retry anyway
+        into.length = Math.min( cursor.getByte() & 0xFF, StringSchemaKey.MAX_BYTES );
+        cursor.getBytes( into.bytes );
+        into.entityId = cursor.getLong();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import java.io.File;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+
+/**
+ * {@link NativeSchemaIndexProvider} for strings short enough to fit in a {@link StringSchemaKey}.
+ */
+public class StringSchemaIndexProvider extends NativeSchemaIndexProvider<StringSchemaKey>
+{
+    public static final String KEY = "native-string";
+    public static final Descriptor NATIVE_STRING_PROVIDER_DESCRIPTOR = new Descriptor( KEY, "1.0" );
+
+    public StringSchemaIndexProvider( PageCache pageCache, FileSystemAbstraction fs, File storeDir, boolean readOnly )
+    {
+        super( NATIVE_STRING_PROVIDER_DESCRIPTOR, 0, pageCache, fs, storeDir, readOnly );
+    }
+
+    /**
+     * @return whether or not the given value can be stored in an index of this provider.
+     */
+    public static boolean supports( Object value )
+    {
+        return StringSchemaKey.supports( value );
+    }
+
+    @Override
+    SchemaLayout<StringSchemaKey> layout()
+    {
+        return new StringLayout();
+    }
+
+    @Override
+    NativeSchemaIndexAccessor.ReaderFactory<StringSchemaKey> readerFactory()
+    {
+        return StringSchemaIndexReader::new;
+    }
+}
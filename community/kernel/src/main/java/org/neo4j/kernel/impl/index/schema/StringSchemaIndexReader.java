@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.kernel.api.schema.IndexQuery;
+import org.neo4j.kernel.api.schema.IndexQuery.StringPrefixPredicate;
+import org.neo4j.kernel.api.schema.IndexQuery.StringRangePredicate;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
+
+/**
+ * {@link NativeSchemaIndexReader} for short strings. Range bounds may be longer than what fits in a key, in which
+ * case the seek is widened to the prefix that fits and the hits are filtered on their values. Prefix queries seek
+ * exactly the keys having the prefix. Suffix and contains queries scan the whole tree.
+ */
+class StringSchemaIndexReader extends NativeSchemaIndexReader<StringSchemaKey>
+{
+    StringSchemaIndexReader( GBPTree<StringSchemaKey,NativeSchemaValue> tree, SchemaLayout<StringSchemaKey> layout,
+            IndexDescriptor descriptor )
+    {
+        super( tree, layout, descriptor );
+    }
+
+    @Override
+    boolean supports( Object value )
+    {
+        return StringSchemaKey.supports( value );
+    }
+
+    @Override
+    NodeValueIterator rangeQuery( StringSchemaKey from, StringSchemaKey to, IndexQuery predicate )
+    {
+        switch ( predicate.type() )
+        {
+        case rangeString:
+            StringRangePredicate range = (StringRangePredicate) predicate;
+            if ( range.from() == null )
+            {
+                from.initAsLowest();
+            }
+            else
+            {
+                from.fromPrefix( Long.MIN_VALUE, range.from() );
+            }
+            if ( range.to() == null )
+            {
+                to.initAsHighest();
+            }
+            else if ( !to.fromPrefix( Long.MAX_VALUE, range.to() ) )
+            {
+                to.toPrefixSuccessor();
+            }
+            return seek( from, to, predicate );
+        case stringPrefix:
+            String prefix = ((StringPrefixPredicate) predicate).prefix();
+            if ( !from.fromPrefix( Long.MIN_VALUE, prefix ) )
+            {
+                // No string in here is long enough to have this prefix
+                return NodeValueIterator.emptyIterator();
+            }
+            if ( from.length == 0 )
+            {
+                to.initAsHighest();
+            }
+            else
+            {
+                layout.copyKey( from, to );
+                to.toPrefixSuccessor();
+            }
+            return seek( from, to, null );
+        case stringSuffix:
+        case stringContains:
+            from.initAsLowest();
+            to.initAsHighest();
+            return seek( from, to, predicate );
+        default:
+            // No numbers in here
+            return NodeValueIterator.emptyIterator();
+        }
+    }
+}
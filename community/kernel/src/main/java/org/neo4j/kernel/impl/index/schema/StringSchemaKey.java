@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+/**
+ * {@link NativeSchemaKey} for short strings, encoded into a fixed width key of at most {@link #MAX_BYTES} bytes.
+ * <p>
+ * Each {@code char} of the string is encoded on its own, using the same 1, 2 or 3 byte sequences as UTF-8 does.
+ * Comparing two encoded strings byte by byte, unsigned, with a shorter string sorting before any longer string
+ * it is a prefix of, therefore gives the same order as {@link String#compareTo(String)}. All strings with a given
+ * prefix end up next to each other in the tree, which makes prefix seeks cheap.
+ * <p>
+ * Strings that don't fit must be indexed elsewhere, see {@link #supports(Object)}.
+ */
+class StringSchemaKey extends NativeSchemaKey
+{
+    static final int MAX_BYTES = 55;
+
+    static final int SIZE =
+            Byte.BYTES + /* length */
+            MAX_BYTES +  /* encoded string */
+            Long.BYTES;  /* entityId */
+
+    /**
+     * Encoded strings never contain this byte, so a key consisting of only this byte is higher than any string.
+     */
+    private static final byte HIGHEST_BYTE = (byte) 0xFF;
+
+    final byte[] bytes = new byte[MAX_BYTES];
+    int length;
+
+    static boolean supports( Object value )
+    {
+        return value instanceof String && encodedLength( (String) value ) <= MAX_BYTES;
+    }
+
+    @Override
+    void from( long entityId, Object value )
+    {
+        String string = (String) value;
+        if ( encode( string ) != string.length() )
+        {
+            throw new IllegalArgumentException( "String too long to be stored in native index: " + string );
+        }
+        this.entityId = entityId;
+    }
+
+    /**
+     * Initializes this key with as many of the leading characters of the given {@code string} as will fit.
+     *
+     * @param entityId id of the entity.
+     * @param string string to encode the prefix of.
+     * @return whether or not the whole string fit.
+     */
+    boolean fromPrefix( long entityId, String string )
+    {
+        this.entityId = entityId;
+        return encode( string ) == string.length();
+    }
+
+    /**
+     * Makes this key the lowest key which is higher than all keys that have this key as prefix.
+     */
+    void toPrefixSuccessor()
+    {
+        // The last byte of an encoded string is never 0xFF, so incrementing it can't overflow
+        bytes[length - 1]++;
+        entityId = Long.MIN_VALUE;
+    }
+
+    @Override
+    void initAsLowest()
+    {
+        length = 0;
+        entityId = Long.MIN_VALUE;
+    }
+
+    @Override
+    void initAsHighest()
+    {
+        bytes[0] = HIGHEST_BYTE;
+        length = 1;
+        entityId = Long.MAX_VALUE;
+    }
+
+    @Override
+    Object asValue()
+    {
+        char[] chars = new char[length];
+        int count = 0;
+        for ( int i = 0; i < length; count++ )
+        {
+            int b = bytes[i++] & 0xFF;
+            if ( b < 0x80 )
+            {
+                chars[count] = (char) b;
+            }
+            else if ( b < 0xE0 )
+            {
+                chars[count] = (char) (((b & 0x1F) << 6) | (bytes[i++] & 0x3F));
+            }
+            else
+            {
+                int b2 = bytes[i++] & 0x3F;
+                chars[count] = (char) (((b & 0x0F) << 12) | (b2 << 6) | (bytes[i++] & 0x3F));
+            }
+        }
+        return new String( chars, 0, count );
+    }
+
+    int compareValueTo( StringSchemaKey other )
+    {
+        int commonLength = Math.min( length, other.length );
+        for ( int i = 0; i < commonLength; i++ )
+        {
+            int comparison = Integer.compare( bytes[i] & 0xFF, other.bytes[i] & 0xFF );
+            if ( comparison != 0 )
+            {
+                return comparison;
+            }
+        }
+        return Integer.compare( length, other.length );
+    }
+
+    /**
+     * Encodes as many leading characters of the given {@code string} as will fit into {@link #bytes}.
+     *
+     * @return number of encoded characters.
+     */
+    private int encode( String string )
+    {
+        int position = 0;
+        int count = 0;
+        for ( ; count < string.length(); count++ )
+        {
+            char c = string.charAt( count );
+            int size = encodedLength( c );
+            if ( position + size > MAX_BYTES )
+            {
+                break;
+            }
+            if ( size == 1 )
+            {
+                bytes[position++] = (byte) c;
+            }
+            else if ( size == 2 )
+            {
+                bytes[position++] = (byte) (0xC0 | (c >>> 6));
+                bytes[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+            else
+            {
+                bytes[position++] = (byte) (0xE0 | (c >>> 12));
+                bytes[position++] = (byte) (0x80 | ((c >>> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        length = position;
+        return count;
+    }
+
+    private static int encodedLength( String string )
+    {
+        int length = 0;
+        for ( int i = 0; i < string.length() && length <= MAX_BYTES; i++ )
+        {
+            length += encodedLength( string.charAt( i ) );
+        }
+        return length;
+    }
+
+    private static int encodedLength( char c )
+    {
+        return c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "value=" + asValue() + ",entityId=" + entityId;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema.fusion;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.helpers.collection.BoundedIterable;
+import org.neo4j.helpers.collection.Iterators;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.PropertyAccessor;
+import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.storageengine.api.schema.IndexReader;
+
+import static java.util.Arrays.asList;
+
+class FusionIndexAccessor implements IndexAccessor
+{
+    private final IndexAccessor numberAccessor;
+    private final IndexAccessor stringAccessor;
+    private final IndexAccessor fallbackAccessor;
+
+    FusionIndexAccessor( IndexAccessor numberAccessor, IndexAccessor stringAccessor,
+            IndexAccessor fallbackAccessor )
+    {
+        this.numberAccessor = numberAccessor;
+        this.stringAccessor = stringAccessor;
+        this.fallbackAccessor = fallbackAccessor;
+    }
+
+    @Override
+    public void drop() throws IOException
+    {
+        numberAccessor.drop();
+        stringAccessor.drop();
+        fallbackAccessor.drop();
+    }
+
+    @Override
+    public IndexUpdater newUpdater( IndexUpdateMode mode )
+    {
+        return new FusionIndexUpdater( numberAccessor.newUpdater( mode ), stringAccessor.newUpdater( mode ),
+                fallbackAccessor.newUpdater( mode ) );
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        numberAccessor.flush();
+        stringAccessor.flush();
+        fallbackAccessor.flush();
+    }
+
+    @Override
+    public void force() throws IOException
+    {
+        numberAccessor.force();
+        stringAccessor.force();
+        fallbackAccessor.force();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            numberAccessor.close();
+        }
+        finally
+        {
+            try
+            {
+                stringAccessor.close();
+            }
+            finally
+            {
+                fallbackAccessor.close();
+            }
+        }
+    }
+
+    @Override
+    public IndexReader newReader()
+    {
+        return new FusionIndexReader( numberAccessor.newReader(), stringAccessor.newReader(),
+                fallbackAccessor.newReader() );
+    }
+
+    @Override
+    public BoundedIterable<Long> newAllEntriesReader()
+    {
+        BoundedIterable<Long> numberAllEntries = numberAccessor.newAllEntriesReader();
+        BoundedIterable<Long> stringAllEntries = stringAccessor.newAllEntriesReader();
+        BoundedIterable<Long> fallbackAllEntries = fallbackAccessor.newAllEntriesReader();
+        return new BoundedIterable<Long>()
+        {
+            @Override
+            public long maxCount()
+            {
+                return numberAllEntries.maxCount() + stringAllEntries.maxCount() + fallbackAllEntries.maxCount();
+            }
+
+            @Override
+            public void close() throws Exception
+            {
+                try
+                {
+                    numberAllEntries.close();
+                }
+                finally
+                {
+                    try
+                    {
+                        stringAllEntries.close();
+                    }
+                    finally
+                    {
+                        fallbackAllEntries.close();
+                    }
+                }
+            }
+
+            @SuppressWarnings( "unchecked" )
+            @Override
+            public Iterator<Long> iterator()
+            {
+                return Iterators.concat( numberAllEntries.iterator(), stringAllEntries.iterator(),
+                        fallbackAllEntries.iterator() );
+            }
+        };
+    }
+
+    @Override
+    public ResourceIterator<File> snapshotFiles() throws IOException
+    {
+        return Iterators.concatResourceIterators( asList( numberAccessor.snapshotFiles(),
+                stringAccessor.snapshotFiles(), fallbackAccessor.snapshotFiles() ).iterator() );
+    }
+
+    @Override
+    public void verifyDeferredConstraints( PropertyAccessor propertyAccessor )
+            throws IndexEntryConflictException, IOException
+    {
+        numberAccessor.verifyDeferredConstraints( propertyAccessor );
+        stringAccessor.verifyDeferredConstraints( propertyAccessor );
+        fallbackAccessor.verifyDeferredConstraints( propertyAccessor );
+    }
+}
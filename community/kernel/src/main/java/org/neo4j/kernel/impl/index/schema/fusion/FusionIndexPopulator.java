@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema.fusion;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.PropertyAccessor;
+import org.neo4j.storageengine.api.schema.IndexSample;
+
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionIndexSampler.combineSamples;
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.select;
+
+class FusionIndexPopulator implements IndexPopulator
+{
+    private final IndexPopulator numberPopulator;
+    private final IndexPopulator stringPopulator;
+    private final IndexPopulator fallbackPopulator;
+
+    FusionIndexPopulator( IndexPopulator numberPopulator, IndexPopulator stringPopulator,
+            IndexPopulator fallbackPopulator )
+    {
+        this.numberPopulator = numberPopulator;
+        this.stringPopulator = stringPopulator;
+        this.fallbackPopulator = fallbackPopulator;
+    }
+
+    @Override
+    public void create() throws IOException
+    {
+        numberPopulator.create();
+        stringPopulator.create();
+        fallbackPopulator.create();
+    }
+
+    @Override
+    public void drop() throws IOException
+    {
+        numberPopulator.drop();
+        stringPopulator.drop();
+        fallbackPopulator.drop();
+    }
+
+    @Override
+    public void add( Collection<? extends IndexEntryUpdate<?>> updates )
+            throws IndexEntryConflictException, IOException
+    {
+        List<IndexEntryUpdate<?>> numberBatch = new ArrayList<>();
+        List<IndexEntryUpdate<?>> stringBatch = new ArrayList<>();
+        List<IndexEntryUpdate<?>> fallbackBatch = new ArrayList<>();
+        for ( IndexEntryUpdate<?> update : updates )
+        {
+            select( numberBatch, stringBatch, fallbackBatch, update.values() ).add( update );
+        }
+        numberPopulator.add( numberBatch );
+        stringPopulator.add( stringBatch );
+        fallbackPopulator.add( fallbackBatch );
+    }
+
+    @Override
+    public void add( IndexEntryUpdate<?> update ) throws IndexEntryConflictException, IOException
+    {
+        select( numberPopulator, stringPopulator, fallbackPopulator, update.values() ).add( update );
+    }
+
+    @Override
+    public void verifyDeferredConstraints( PropertyAccessor propertyAccessor )
+            throws IndexEntryConflictException, IOException
+    {
+        numberPopulator.verifyDeferredConstraints( propertyAccessor );
+        stringPopulator.verifyDeferredConstraints( propertyAccessor );
+        fallbackPopulator.verifyDeferredConstraints( propertyAccessor );
+    }
+
+    @Override
+    public IndexUpdater newPopulatingUpdater( PropertyAccessor accessor ) throws IOException
+    {
+        return new FusionIndexUpdater(
+                numberPopulator.newPopulatingUpdater( accessor ),
+                stringPopulator.newPopulatingUpdater( accessor ),
+                fallbackPopulator.newPopulatingUpdater( accessor ) );
+    }
+
+    @Override
+    public void close( boolean populationCompletedSuccessfully ) throws IOException
+    {
+        try
+        {
+            numberPopulator.close( populationCompletedSuccessfully );
+        }
+        finally
+        {
+            try
+            {
+                stringPopulator.close( populationCompletedSuccessfully );
+            }
+            finally
+            {
+                fallbackPopulator.close( populationCompletedSuccessfully );
+            }
+        }
+    }
+
+    @Override
+    public void markAsFailed( String failure ) throws IOException
+    {
+        numberPopulator.markAsFailed( failure );
+        stringPopulator.markAsFailed( failure );
+        fallbackPopulator.markAsFailed( failure );
+    }
+
+    @Override
+    public void includeSample( IndexEntryUpdate update )
+    {
+        select( numberPopulator, stringPopulator, fallbackPopulator, update.values() ).includeSample( update );
+    }
+
+    @Override
+    public void configureSampling( boolean onlineSampling )
+    {
+        numberPopulator.configureSampling( onlineSampling );
+        stringPopulator.configureSampling( onlineSampling );
+        fallbackPopulator.configureSampling( onlineSampling );
+    }
+
+    @Override
+    public IndexSample sampleResult()
+    {
+        return combineSamples( numberPopulator.sampleResult(), stringPopulator.sampleResult(),
+                fallbackPopulator.sampleResult() );
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema.fusion;
+
+import java.util.Arrays;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.kernel.api.exceptions.index.IndexNotApplicableKernelException;
+import org.neo4j.kernel.api.schema.IndexQuery;
+import org.neo4j.kernel.api.schema.IndexQuery.ExactPredicate;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.IndexSampler;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
+
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.select;
+
+/**
+ * Sends each query to the parts which may hold matching values: exact lookups to the single part the value
+ * selects, numeric ranges to the number part, string queries to the string and fallback parts, since strings
+ * too long for the native index live in the fallback, and existence queries to all parts.
+ */
+class FusionIndexReader implements IndexReader
+{
+    private final IndexReader numberReader;
+    private final IndexReader stringReader;
+    private final IndexReader fallbackReader;
+
+    FusionIndexReader( IndexReader numberReader, IndexReader stringReader, IndexReader fallbackReader )
+    {
+        this.numberReader = numberReader;
+        this.stringReader = stringReader;
+        this.fallbackReader = fallbackReader;
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            numberReader.close();
+        }
+        finally
+        {
+            try
+            {
+                stringReader.close();
+            }
+            finally
+            {
+                fallbackReader.close();
+            }
+        }
+    }
+
+    @Override
+    public long countIndexedNodes( long nodeId, Object... propertyValues )
+    {
+        return select( numberReader, stringReader, fallbackReader, propertyValues )
+                .countIndexedNodes( nodeId, propertyValues );
+    }
+
+    @Override
+    public IndexSampler createSampler()
+    {
+        return new FusionIndexSampler( numberReader.createSampler(), stringReader.createSampler(),
+                fallbackReader.createSampler() );
+    }
+
+    @Override
+    public PrimitiveLongIterator query( IndexQuery... predicates ) throws IndexNotApplicableKernelException
+    {
+        if ( predicates.length > 1 )
+        {
+            return fallbackReader.query( predicates );
+        }
+
+        IndexQuery predicate = predicates[0];
+        switch ( predicate.type() )
+        {
+        case exact:
+            Object value = ((ExactPredicate) predicate).value();
+            return select( numberReader, stringReader, fallbackReader, value ).query( predicates );
+        case rangeNumeric:
+            return numberReader.query( predicates );
+        case rangeString:
+        case stringPrefix:
+        case stringSuffix:
+        case stringContains:
+            return PrimitiveLongCollections.concat( Arrays.asList(
+                    stringReader.query( predicates ), fallbackReader.query( predicates ) ) );
+        case exists:
+            return PrimitiveLongCollections.concat( Arrays.asList( numberReader.query( predicates ),
+                    stringReader.query( predicates ), fallbackReader.query( predicates ) ) );
+        default:
+            return fallbackReader.query( predicates );
+        }
+    }
+
+    @Override
+    public boolean mayReturnFalsePositives( IndexQuery... predicates )
+    {
+        if ( predicates.length > 1 )
+        {
+            return fallbackReader.mayReturnFalsePositives( predicates );
+        }
+
+        IndexQuery predicate = predicates[0];
+        switch ( predicate.type() )
+        {
+        case exact:
+            Object value = ((ExactPredicate) predicate).value();
+            return select( numberReader, stringReader, fallbackReader, value ).mayReturnFalsePositives( predicates );
+        case rangeNumeric:
+            return numberReader.mayReturnFalsePositives( predicates );
+        case rangeString:
+        case stringPrefix:
+        case stringSuffix:
+        case stringContains:
+            return stringReader.mayReturnFalsePositives( predicates ) ||
+                   fallbackReader.mayReturnFalsePositives( predicates );
+        case exists:
+            return numberReader.mayReturnFalsePositives( predicates ) ||
+                   stringReader.mayReturnFalsePositives( predicates ) ||
+                   fallbackReader.mayReturnFalsePositives( predicates );
+        default:
+            return fallbackReader.mayReturnFalsePositives( predicates );
+        }
+    }
+
+    @Override
+    public NodeValueIterator queryWithValues( IndexQuery... predicates ) throws IndexNotApplicableKernelException
+    {
+        if ( predicates.length > 1 )
+        {
+            return fallbackReader.queryWithValues( predicates );
+        }
+
+        IndexQuery predicate = predicates[0];
+        switch ( predicate.type() )
+        {
+        case exact:
+            Object value = ((ExactPredicate) predicate).value();
+            return select( numberReader, stringReader, fallbackReader, value ).queryWithValues( predicates );
+        case rangeNumeric:
+            return numberReader.queryWithValues( predicates );
+        case rangeString:
+        case stringPrefix:
+        case stringSuffix:
+        case stringContains:
+            return concatWithValues( predicates, fallbackReader, stringReader );
+        case exists:
+            return concatWithValues( predicates, fallbackReader, numberReader, stringReader );
+        default:
+            return fallbackReader.queryWithValues( predicates );
+        }
+    }
+
+    /**
+     * Queries all the given readers for values, in order, and concatenates the results, unless any of them
+     * cannot provide values. The fallback reader goes first, since it is the one unlikely to provide values.
+     */
+    private static NodeValueIterator concatWithValues( IndexQuery[] predicates, IndexReader... readers )
+            throws IndexNotApplicableKernelException
+    {
+        NodeValueIterator[] parts = new NodeValueIterator[readers.length];
+        for ( int i = 0; i < readers.length; i++ )
+        {
+            parts[i] = readers[i].queryWithValues( predicates );
+            if ( parts[i] == null )
+            {
+                return null;
+            }
+        }
+        return new ConcatNodeValueIterator( parts );
+    }
+
+    private static class ConcatNodeValueIterator extends PrimitiveLongCollections.PrimitiveLongBaseIterator
+            implements NodeValueIterator
+    {
+        private final NodeValueIterator[] parts;
+        private int current;
+
+        ConcatNodeValueIterator( NodeValueIterator... parts )
+        {
+            this.parts = parts;
+        }
+
+        @Override
+        protected boolean fetchNext()
+        {
+            for ( ; current < parts.length; current++ )
+            {
+                if ( parts[current].hasNext() )
+                {
+                    return next( parts[current].next() );
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Object value()
+        {
+            return parts[current].value();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema.fusion;
+
+import java.io.IOException;
+
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexUpdater;
+
+import static org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider.select;
+
+/**
+ * Routes each update to the part its values select. A change which moves a value from one part to another
+ * is applied as a removal from the old part and an addition to the new.
+ */
+class FusionIndexUpdater implements IndexUpdater
+{
+    private final IndexUpdater numberUpdater;
+    private final IndexUpdater stringUpdater;
+    private final IndexUpdater fallbackUpdater;
+
+    FusionIndexUpdater( IndexUpdater numberUpdater, IndexUpdater stringUpdater, IndexUpdater fallbackUpdater )
+    {
+        this.numberUpdater = numberUpdater;
+        this.stringUpdater = stringUpdater;
+        this.fallbackUpdater = fallbackUpdater;
+    }
+
+    @Override
+    public void process( IndexEntryUpdate update ) throws IOException, IndexEntryConflictException
+    {
+        switch ( update.updateMode() )
+        {
+        case ADDED:
+        case REMOVED:
+            select( numberUpdater, stringUpdater, fallbackUpdater, update.values() ).process( update );
+            break;
+        case CHANGED:
+            IndexUpdater from = select( numberUpdater, stringUpdater, fallbackUpdater, update.beforeValues() );
+            IndexUpdater to = select( numberUpdater, stringUpdater, fallbackUpdater, update.values() );
+            if ( from == to )
+            {
+                from.process( update );
+            }
+            else
+            {
+                from.process( IndexEntryUpdate.remove(
+                        update.getEntityId(), update.indexKey(), update.beforeValues() ) );
+                to.process( IndexEntryUpdate.add( update.getEntityId(), update.indexKey(), update.values() ) );
+            }
+            break;
+        default:
+            throw new IllegalArgumentException( "Unknown update mode " + update.updateMode() );
+        }
+    }
+
+    @Override
+    public void remove( PrimitiveLongSet nodeIds ) throws IOException
+    {
+        numberUpdater.remove( nodeIds );
+        stringUpdater.remove( nodeIds );
+        fallbackUpdater.remove( nodeIds );
+    }
+
+    @Override
+    public void close() throws IOException, IndexEntryConflictException
+    {
+        try
+        {
+            numberUpdater.close();
+        }
+        finally
+        {
+            try
+            {
+                stringUpdater.close();
+            }
+            finally
+            {
+                fallbackUpdater.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema.fusion;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.InternalIndexState;
+import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider;
+import org.neo4j.kernel.impl.index.schema.NumberSchemaIndexProvider;
+import org.neo4j.kernel.impl.index.schema.StringSchemaIndexProvider;
+import org.neo4j.kernel.impl.storemigration.StoreMigrationParticipant;
+
+/**
+ * {@link SchemaIndexProvider} which splits each single property index into three parts: numbers and short strings
+ * go into native indexes, everything else into a fallback index, typically Lucene. Composite indexes are handled
+ * by the fallback alone.
+ * <p>
+ * Each value lives in exactly one of the parts, so updates only touch the part(s) their values select, and queries
+ * go to the parts which can have matching values, concatenating the results where needed.
+ */
+public class FusionSchemaIndexProvider extends SchemaIndexProvider
+{
+    private final SchemaIndexProvider numberProvider;
+    private final SchemaIndexProvider stringProvider;
+    private final SchemaIndexProvider fallbackProvider;
+
+    public FusionSchemaIndexProvider( Descriptor descriptor, int priority, NumberSchemaIndexProvider numberProvider,
+            StringSchemaIndexProvider stringProvider, SchemaIndexProvider fallbackProvider )
+    {
+        super( descriptor, priority );
+        this.numberProvider = numberProvider;
+        this.stringProvider = stringProvider;
+        this.fallbackProvider = fallbackProvider;
+    }
+
+    /**
+     * Selects the part which the given property values belong in.
+     */
+    static <T> T select( T numberInstance, T stringInstance, T fallbackInstance, Object... values )
+    {
+        if ( values.length == 1 )
+        {
+            if ( NumberSchemaIndexProvider.supports( values[0] ) )
+            {
+                return numberInstance;
+            }
+            if ( StringSchemaIndexProvider.supports( values[0] ) )
+            {
+                return stringInstance;
+            }
+        }
+        return fallbackInstance;
+    }
+
+    private static boolean isComposite( IndexDescriptor descriptor )
+    {
+        return descriptor.schema().getPropertyIds().length > 1;
+    }
+
+    @Override
+    public IndexPopulator getPopulator( long indexId, IndexDescriptor descriptor, IndexSamplingConfig samplingConfig )
+    {
+        IndexPopulator fallbackPopulator = fallbackProvider.getPopulator( indexId, descriptor, samplingConfig );
+        if ( isComposite( descriptor ) )
+        {
+            return fallbackPopulator;
+        }
+        return new FusionIndexPopulator(
+                numberProvider.getPopulator( indexId, descriptor, samplingConfig ),
+                stringProvider.getPopulator( indexId, descriptor, samplingConfig ),
+                fallbackPopulator );
+    }
+
+    @Override
+    public IndexAccessor getOnlineAccessor( long indexId, IndexDescriptor descriptor,
+            IndexSamplingConfig samplingConfig ) throws IOException
+    {
+        IndexAccessor fallbackAccessor = fallbackProvider.getOnlineAccessor( indexId, descriptor, samplingConfig );
+        if ( isComposite( descriptor ) )
+        {
+            return fallbackAccessor;
+        }
+        return new FusionIndexAccessor(
+                numberProvider.getOnlineAccessor( indexId, descriptor, samplingConfig ),
+                stringProvider.getOnlineAccessor( indexId, descriptor, samplingConfig ),
+                fallbackAccessor );
+    }
+
+    @Override
+    public String getPopulationFailure( long indexId ) throws IllegalStateException
+    {
+        // A population failure is normally marked on all parts alike, in which case it's reported once
+        Map<String,String> failures = new LinkedHashMap<>();
+        collectFailure( "number", failures, numberProvider, indexId );
+        collectFailure( "string", failures, stringProvider, indexId );
+        collectFailure( "fallback", failures, fallbackProvider, indexId );
+        if ( failures.isEmpty() )
+        {
+            throw new IllegalStateException( "Index " + indexId + " isn't failed" );
+        }
+        Set<String> distinctFailures = new HashSet<>( failures.values() );
+        if ( distinctFailures.size() == 1 )
+        {
+            return distinctFailures.iterator().next();
+        }
+        return failures.entrySet().stream()
+                .map( failure -> failure.getKey() + ": " + failure.getValue() )
+                .collect( Collectors.joining( ", " ) );
+    }
+
+    private static void collectFailure( String partName, Map<String,String> failures, SchemaIndexProvider provider,
+            long indexId )
+    {
+        try
+        {
+            failures.put( partName, provider.getPopulationFailure( indexId ) );
+        }
+        catch ( IllegalStateException e )
+        {   // This part isn't failed
+        }
+    }
+
+    @Override
+    public InternalIndexState getInitialState( long indexId, IndexDescriptor descriptor )
+    {
+        InternalIndexState fallbackState = fallbackProvider.getInitialState( indexId, descriptor );
+        if ( isComposite( descriptor ) )
+        {
+            return fallbackState;
+        }
+        InternalIndexState numberState = numberProvider.getInitialState( indexId, descriptor );
+        InternalIndexState stringState = stringProvider.getInitialState( indexId, descriptor );
+        if ( numberState == InternalIndexState.FAILED || stringState == InternalIndexState.FAILED ||
+             fallbackState == InternalIndexState.FAILED )
+        {
+            return InternalIndexState.FAILED;
+        }
+        if ( numberState == InternalIndexState.POPULATING || stringState == InternalIndexState.POPULATING ||
+             fallbackState == InternalIndexState.POPULATING )
+        {
+            return InternalIndexState.POPULATING;
+        }
+        return InternalIndexState.ONLINE;
+    }
+
+    @Override
+    public StoreMigrationParticipant storeMigrationParticipant( FileSystemAbstraction fs, PageCache pageCache,
+            LabelScanStoreProvider labelScanStoreProvider )
+    {
+        // The native parts are newer than any store format that can be migrated from
+        return fallbackProvider.storeMigrationParticipant( fs, pageCache, labelScanStoreProvider );
+    }
+
+    @Override
+    public ResourceIterator<File> snapshotMetaFiles()
+    {
+        return fallbackProvider.snapshotMetaFiles();
+    }
+
+    @Override
+    public void init() throws Throwable
+    {
+        fallbackProvider.init();
+    }
+
+    @Override
+    public void start() throws Throwable
+    {
+        fallbackProvider.start();
+    }
+
+    @Override
+    public void stop() throws Throwable
+    {
+        fallbackProvider.stop();
+    }
+
+    @Override
+    public void shutdown() throws Throwable
+    {
+        fallbackProvider.shutdown();
+    }
+}
@@ -37,7 +37,6 @@ import org.neo4j.kernel.api.TokenNameLookup;
 import org.neo4j.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.kernel.api.exceptions.schema.ConstraintValidationException;
 import org.neo4j.kernel.api.exceptions.schema.CreateConstraintFailureException;
-import org.neo4j.kernel.api.index.SchemaIndexProvider;
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.api.labelscan.LabelScanWriter;
 import org.neo4j.kernel.api.txstate.TransactionCountingStateVisitor;
@@ -57,6 +56,7 @@ import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.kernel.impl.api.index.IndexingServiceFactory;
 import org.neo4j.kernel.impl.api.index.IndexingUpdateService;
 import org.neo4j.kernel.impl.api.index.PropertyPhysicalToLogicalConverter;
+import org.neo4j.kernel.impl.api.index.SchemaIndexProviderMap;
 import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider;
 import org.neo4j.kernel.impl.api.store.GlobalCursorPools;
 import org.neo4j.kernel.impl.api.store.SchemaCache;
@@ -84,13 +84,14 @@ import org.neo4j.kernel.impl.store.id.IdGeneratorFactory;
 import org.neo4j.kernel.impl.store.id.IdReuseEligibility;
 import org.neo4j.kernel.impl.store.id.configuration.IdTypeConfigurationProvider;
 import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+import org.neo4j.kernel.impl.transaction.command.AsyncIndexUpdatesApplier;
 import org.neo4j.kernel.impl.transaction.command.CacheInvalidationBatchTransactionApplier;
 import org.neo4j.kernel.impl.transaction.command.HighIdBatchTransactionApplier;
 import org.neo4j.kernel.impl.transaction.command.IndexBatchTransactionApplier;
 import org.neo4j.kernel.impl.transaction.command.IndexUpdatesWork;
 import org.neo4j.kernel.impl.transaction.command.LabelUpdateWork;
 import org.neo4j.kernel.impl.transaction.command.NeoStoreBatchTransactionApplier;
-import org.neo4j.kernel.impl.transaction.state.DefaultSchemaIndexProviderMap;
+import org.neo4j.kernel.impl.transaction.command.ParallelNeoStoreBatchTransactionApplier;
 import org.neo4j.kernel.impl.transaction.state.IntegrityValidator;
 import org.neo4j.kernel.impl.transaction.state.Loaders;
 import org.neo4j.kernel.impl.transaction.state.PropertyCreator;
@@ -147,17 +148,19 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final IntegrityValidator integrityValidator;
     private final CacheAccessBackDoor cacheAccess;
     private final LabelScanStore labelScanStore;
-    private final DefaultSchemaIndexProviderMap schemaIndexProviderMap;
+    private final SchemaIndexProviderMap schemaIndexProviderMap;
     private final LegacyIndexApplierLookup legacyIndexApplierLookup;
     private final Runnable schemaStateChangeCallback;
     private final SchemaStorage schemaStorage;
     private final ConstraintSemantics constraintSemantics;
     private final IdOrderingQueue legacyIndexTransactionOrdering;
     private final JobScheduler scheduler;
+    private final int recoveryParallelism;
     private final LockService lockService;
     private final WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> labelScanStoreSync;
     private final CommandReaderFactory commandReaderFactory;
     private final WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync;
+    private final AsyncIndexUpdatesApplier asyncIndexUpdates;
     private final NeoStoreIndexStoreView indexStoreView;
     private final LegacyIndexProviderLookup legacyIndexProviderLookup;
     private final PropertyPhysicalToLogicalConverter indexUpdatesConverter;
@@ -188,7 +191,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             JobScheduler scheduler,
             TokenNameLookup tokenNameLookup,
             LockService lockService,
-            SchemaIndexProvider indexProvider,
+            SchemaIndexProviderMap indexProviderMap,
             IndexingService.Monitor indexingServiceMonitor,
             DatabaseHealth databaseHealth,
             LabelScanStoreProvider labelScanStoreProvider,
@@ -209,6 +212,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         this.indexConfigStore = indexConfigStore;
         this.constraintSemantics = constraintSemantics;
         this.legacyIndexTransactionOrdering = legacyIndexTransactionOrdering;
+        this.recoveryParallelism = config.get( GraphDatabaseSettings.recovery_parallelism );
 
         this.idController = createStorageIdController( idGeneratorFactory, eligibleForReuse,
             idTypeConfigurationProvider, transactionsSnapshotSupplier );
@@ -223,13 +227,17 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
 
             labelScanStore = labelScanStoreProvider.getLabelScanStore();
 
-            schemaIndexProviderMap = new DefaultSchemaIndexProviderMap( indexProvider );
+            schemaIndexProviderMap = indexProviderMap;
             indexStoreView = new DynamicIndexStoreView( labelScanStore, lockService, neoStores, logProvider );
             indexingService = IndexingServiceFactory.createIndexingService( config, scheduler, schemaIndexProviderMap,
                     indexStoreView, tokenNameLookup,
                     Iterators.asList( new SchemaStorage( neoStores.getSchemaStore() ).indexesGetAll() ), logProvider,
                     indexingServiceMonitor, schemaStateChangeCallback );
 
+            indexUpdatesSync = new WorkSync<>( indexingService );
+            asyncIndexUpdates = config.get( GraphDatabaseSettings.async_index_updates )
+                                ? new AsyncIndexUpdatesApplier( indexUpdatesSync, scheduler, databaseHealth ) : null;
+
             integrityValidator = new IntegrityValidator( neoStores, indexingService );
             cacheAccess = new BridgingCacheAccess( schemaCache, schemaStateChangeCallback,
                     propertyKeyTokenHolder, relationshipTypeTokens, labelTokens );
@@ -244,7 +252,6 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             labelScanStoreSync = new WorkSync<>( labelScanStore::newWriter );
 
             commandReaderFactory = new RecordStorageCommandReaderFactory();
-            indexUpdatesSync = new WorkSync<>( indexingService );
 
             // Immutable state for creating/applying commands
             loaders = new Loaders( neoStores );
@@ -266,8 +273,9 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
 
     private Supplier<SchemaResources> createSchemaResources()
     {
-        Supplier<IndexReaderFactory> indexReaderFactorySupplier =
-                () -> new IndexReaderFactory.Caching( indexingService );
+        Supplier<IndexReaderFactory> indexReaderFactorySupplier = asyncIndexUpdates == null
+                ? () -> new IndexReaderFactory.Caching( indexingService )
+                : () -> new IndexReaderFactory.Caching( indexingService, asyncIndexUpdates::awaitApplied );
         return () -> new StoreSchemaResources( indexReaderFactorySupplier, labelScanStore::newReader );
     }
 
@@ -375,7 +383,15 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         ArrayList<BatchTransactionApplier> appliers = new ArrayList<>();
         // Graph store application. The order of the decorated store appliers is irrelevant
-        appliers.add( new NeoStoreBatchTransactionApplier( neoStores, cacheAccess, lockService ) );
+        if ( mode == TransactionApplicationMode.RECOVERY && recoveryParallelism > 1 )
+        {
+            appliers.add( new ParallelNeoStoreBatchTransactionApplier( neoStores, cacheAccess, lockService, scheduler,
+                    recoveryParallelism ) );
+        }
+        else
+        {
+            appliers.add( new NeoStoreBatchTransactionApplier( neoStores, cacheAccess, lockService ) );
+        }
         if ( mode.needsHighIdTracking() )
         {
             appliers.add( new HighIdBatchTransactionApplier( neoStores ) );
@@ -389,9 +405,12 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         appliers.add( new CountsStoreBatchTransactionApplier( neoStores.getCounts(), mode ) );
 
         // Schema index application
+        // Recovery always applies index updates synchronously, it runs before the asynchronous applier is started
+        boolean asyncIndexApplication = mode == TransactionApplicationMode.INTERNAL ||
+                                        mode == TransactionApplicationMode.EXTERNAL;
         appliers.add( new IndexBatchTransactionApplier( indexingService, labelScanStoreSync, indexUpdatesSync,
                 neoStores.getNodeStore(),
-                indexUpdatesConverter, mode ) );
+                indexUpdatesConverter, mode, asyncIndexApplication ? asyncIndexUpdates : null ) );
 
         // Legacy index application
         appliers.add(
@@ -441,6 +460,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         indexingService.start();
         labelScanStore.start();
         idController.start();
+        if ( asyncIndexUpdates != null )
+        {
+            asyncIndexUpdates.start();
+        }
     }
 
     @Override
@@ -459,6 +482,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public void stop() throws Throwable
     {
+        if ( asyncIndexUpdates != null )
+        {
+            asyncIndexUpdates.stop();
+        }
         labelScanStore.stop();
         indexingService.stop();
         idController.stop();
@@ -476,6 +503,11 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     @Override
     public void flushAndForce( IOLimiter limiter )
     {
+        if ( asyncIndexUpdates != null )
+        {
+            // Make sure the indexes contain all updates of transactions covered by this flush
+            asyncIndexUpdates.awaitApplied();
+        }
         indexingService.forceAll();
         labelScanStore.force( limiter );
         for ( IndexImplementation index : legacyIndexProviderLookup.all() )
@@ -0,0 +1,645 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.id;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.store.InvalidIdGeneratorException;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.kernel.impl.store.id.validation.IdValidator;
+
+import static java.lang.Math.max;
+import static org.neo4j.kernel.impl.store.id.FreeIdKeeper.NO_RESULT;
+import static org.neo4j.kernel.impl.store.id.IdGeneratorImpl.CLEAN_GENERATOR;
+import static org.neo4j.kernel.impl.store.id.IdGeneratorImpl.HEADER_SIZE;
+import static org.neo4j.kernel.impl.store.id.IdGeneratorImpl.STICKY_GENERATOR;
+
+/**
+ * {@link IdGenerator} which, unlike {@link IdGeneratorImpl}, doesn't serialize all threads allocating and freeing
+ * ids through a single monitor. It uses the same file format as {@link IdGeneratorImpl}, including the sticky flag
+ * that marks a generator as not cleanly shut down, so the two can be used interchangeably on the same store.
+ * <p>
+ * High ids are handed out from ranges of {@code rangeSize} ids, reserved by each thread from the shared high id
+ * with a single compare-and-set, so that a thread allocating new ids only touches the shared high id once per
+ * range. Freed ids are kept in lock-free queues, striped by thread, from which they are reused. Free ids which
+ * overflow the in-memory queues are handed to a {@link FreeIdKeeper}, which stores them in the id file, just like
+ * {@link IdGeneratorImpl} does. Only these overflows, reading back overflowed ids and closing are done under a lock.
+ * <p>
+ * When closing, the unused remainders of the ranges reserved by threads are either given back by lowering the high
+ * id, if they are at the top of the id space, or written out as free ids. This means ids allocated by different
+ * threads are not strictly increasing over time, but no id is lost across a clean shutdown. Ranges reserved by
+ * threads which have since died are reclaimed the same way whenever a new range is reserved, so that a generator
+ * used by many short lived threads doesn't accumulate ranges nobody will allocate from.
+ * If the high id is changed using {@link #setHighId(long)} all ranges currently reserved by threads are discarded.
+ */
+public class ConcurrentIdGenerator implements IdGenerator
+{
+    private static final int STRIPES = Integer.highestOneBit( Runtime.getRuntime().availableProcessors() * 2 - 1 );
+    private static final int STRIPE_MASK = STRIPES - 1;
+
+    private final File file;
+    private final FileSystemAbstraction fs;
+    private final int grabSize;
+    private final long max;
+    private final boolean aggressiveReuse;
+    private final int rangeSize;
+
+    private final AtomicLong highId = new AtomicLong( -1 );
+    private final AtomicInteger rangeEpoch = new AtomicInteger();
+    private final ThreadLocal<LocalRange> localRange = new ThreadLocal<>();
+    // All ranges reserved by threads, so that their unused ids can be reclaimed on close or when their thread dies
+    private final Queue<LocalRange> ranges = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean reclaiming = new AtomicBoolean();
+
+    // Freed ids available for reuse in this session, only used with aggressive reuse
+    private final Queue<Long>[] reusableIds;
+    private final AtomicLong reusableIdCount = new AtomicLong();
+    // Freed ids not available for reuse until next session, waiting to be written to the keeper in batches
+    private final Queue<Long> releasedIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong releasedIdCount = new AtomicLong();
+
+    // Guarded by this
+    private StoreChannel fileChannel;
+    private FreeIdKeeper keeper;
+    private volatile boolean keeperMayHaveIds;
+    private volatile boolean closed;
+
+    /**
+     * Opens the id generator represented by {@code file}. See
+     * {@link IdGeneratorImpl#IdGeneratorImpl(FileSystemAbstraction, File, int, long, boolean, long)} for a
+     * description of the parameters not specific to this generator.
+     *
+     * @param rangeSize number of high ids each thread reserves at a time.
+     */
+    @SuppressWarnings( "unchecked" )
+    public ConcurrentIdGenerator( FileSystemAbstraction fs, File file, int grabSize, long max, boolean aggressiveReuse,
+            long highId, int rangeSize )
+    {
+        if ( grabSize < 1 )
+        {
+            throw new IllegalArgumentException( "Illegal grabSize: " + grabSize );
+        }
+        if ( rangeSize < 1 )
+        {
+            throw new IllegalArgumentException( "Illegal rangeSize: " + rangeSize );
+        }
+        this.fs = fs;
+        this.file = file;
+        this.grabSize = grabSize;
+        this.max = max;
+        this.aggressiveReuse = aggressiveReuse;
+        this.rangeSize = rangeSize;
+        this.reusableIds = new Queue[STRIPES];
+        for ( int i = 0; i < STRIPES; i++ )
+        {
+            reusableIds[i] = new ConcurrentLinkedQueue<>();
+        }
+        initGenerator();
+        this.highId.set( max( this.highId.get(), highId ) );
+    }
+
+    private synchronized void initGenerator()
+    {
+        try
+        {
+            fileChannel = fs.open( file, "rw" );
+            ByteBuffer buffer = readHeader();
+            IdGeneratorImpl.markAsSticky( fileChannel, buffer );
+
+            fileChannel.position( HEADER_SIZE );
+            keeper = new FreeIdKeeper( fileChannel, grabSize, aggressiveReuse );
+            keeperMayHaveIds = keeper.getCount() > 0;
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( "Unable to init id generator " + file, e );
+        }
+    }
+
+    private ByteBuffer readHeader() throws IOException
+    {
+        try
+        {
+            ByteBuffer buffer = IdGeneratorImpl.readHighIdFromHeader( fileChannel, file );
+            highId.set( buffer.getLong() );
+            return buffer;
+        }
+        catch ( InvalidIdGeneratorException e )
+        {
+            fileChannel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public long nextId()
+    {
+        assertStillOpen();
+        long id = pollReusableId();
+        if ( id != NO_RESULT )
+        {
+            return id;
+        }
+        if ( keeperMayHaveIds )
+        {
+            id = takeIdsFromKeeper();
+            if ( id != NO_RESULT )
+            {
+                return id;
+            }
+        }
+        return nextIdFromRange();
+    }
+
+    private long nextIdFromRange()
+    {
+        LocalRange range = localRange.get();
+        while ( true )
+        {
+            if ( range == null || range.epoch != rangeEpoch.get() || range.next >= range.end )
+            {
+                range = reserveRange( range );
+            }
+            long id = range.next;
+            range.next = id + 1;
+            if ( !IdValidator.isReservedId( id ) )
+            {
+                return id;
+            }
+        }
+    }
+
+    private LocalRange reserveRange( LocalRange previous )
+    {
+        if ( previous != null )
+        {
+            ranges.remove( previous );
+        }
+        reclaimRangesOfDeadThreads();
+        int epoch = rangeEpoch.get();
+        long start;
+        long end;
+        do
+        {
+            start = highId.get();
+            assertStillOpen();
+            IdValidator.assertIdWithinCapacity( start, max );
+            long remaining = max - start;
+            end = start + (remaining < rangeSize ? remaining + 1 : rangeSize);
+        }
+        while ( !highId.compareAndSet( start, end ) );
+
+        LocalRange range = new LocalRange( start, end, epoch, Thread.currentThread() );
+        ranges.add( range );
+        localRange.set( range );
+        return range;
+    }
+
+    /**
+     * Gives back the unused ids of ranges whose threads have died, since nothing will allocate from them anymore.
+     * The high id is lowered if such a range is at the top of the id space, otherwise its unused ids are made
+     * available for reuse right away. They were never handed out, so reusing them is safe even without
+     * aggressive reuse.
+     */
+    private void reclaimRangesOfDeadThreads()
+    {
+        if ( !reclaiming.compareAndSet( false, true ) )
+        {
+            return;
+        }
+        try
+        {
+            int epoch = rangeEpoch.get();
+            for ( LocalRange range : ranges )
+            {
+                if ( !range.isOwnerAlive() && ranges.remove( range ) && range.epoch == epoch )
+                {
+                    reclaim( range );
+                }
+            }
+        }
+        finally
+        {
+            reclaiming.set( false );
+        }
+    }
+
+    private void reclaim( LocalRange range )
+    {
+        long from = range.next;
+        if ( from >= range.end || highId.compareAndSet( range.end, from ) )
+        {
+            return;
+        }
+        Queue<Long> stripe = reusableIds[stripe()];
+        for ( long id = from; id < range.end; id++ )
+        {
+            if ( !IdValidator.isReservedId( id ) )
+            {
+                stripe.offer( id );
+                reusableIdCount.incrementAndGet();
+            }
+        }
+        if ( reusableIdCount.get() > grabSize * 2L )
+        {
+            spillReusableIds();
+        }
+    }
+
+    @Override
+    public IdRange nextIdBatch( int size )
+    {
+        assertStillOpen();
+
+        long[] defragIds = new long[size];
+        int count = 0;
+        while ( count < size )
+        {
+            long id = pollReusableId();
+            if ( id == NO_RESULT && keeperMayHaveIds )
+            {
+                id = takeIdsFromKeeper();
+            }
+            if ( id == NO_RESULT )
+            {
+                break;
+            }
+            defragIds[count++] = id;
+        }
+        if ( count < size )
+        {
+            long[] tmpArray = defragIds;
+            defragIds = new long[count];
+            System.arraycopy( tmpArray, 0, defragIds, 0, count );
+        }
+
+        int sizeLeftForRange = size - count;
+        long start;
+        do
+        {
+            start = highId.get();
+            assertStillOpen();
+            IdValidator.assertIdWithinCapacity( start + sizeLeftForRange, max );
+        }
+        while ( !highId.compareAndSet( start, start + sizeLeftForRange ) );
+        return new IdRange( defragIds, start, sizeLeftForRange );
+    }
+
+    private long pollReusableId()
+    {
+        if ( reusableIdCount.get() == 0 )
+        {
+            return NO_RESULT;
+        }
+        int stripe = stripe();
+        for ( int i = 0; i < STRIPES; i++ )
+        {
+            Long id = reusableIds[(stripe + i) & STRIPE_MASK].poll();
+            if ( id != null )
+            {
+                reusableIdCount.decrementAndGet();
+                return id;
+            }
+        }
+        return NO_RESULT;
+    }
+
+    /**
+     * Takes a batch of free ids from the keeper, returning one of them and making the rest available for reuse.
+     */
+    private synchronized long takeIdsFromKeeper()
+    {
+        if ( closed )
+        {
+            return NO_RESULT;
+        }
+        long result = keeper.getId();
+        if ( result == NO_RESULT )
+        {
+            keeperMayHaveIds = false;
+            return NO_RESULT;
+        }
+        Queue<Long> stripe = reusableIds[stripe()];
+        for ( int i = 1; i < grabSize; i++ )
+        {
+            long id = keeper.getId();
+            if ( id == NO_RESULT )
+            {
+                break;
+            }
+            stripe.offer( id );
+            reusableIdCount.incrementAndGet();
+        }
+        return result;
+    }
+
+    @Override
+    public void freeId( long id )
+    {
+        if ( IdValidator.isReservedId( id ) )
+        {
+            return;
+        }
+
+        if ( closed )
+        {
+            throw new IllegalStateException( "Generator closed " + file );
+        }
+        long currentHighId = highId.get();
+        if ( id < 0 || id >= currentHighId )
+        {
+            throw new IllegalArgumentException( "Illegal id[" + id + "], highId is " + currentHighId );
+        }
+
+        if ( aggressiveReuse )
+        {
+            reusableIds[stripe()].offer( id );
+            if ( reusableIdCount.incrementAndGet() > grabSize * 2L )
+            {
+                spillReusableIds();
+            }
+        }
+        else
+        {
+            releasedIds.offer( id );
+            if ( releasedIdCount.incrementAndGet() >= grabSize )
+            {
+                writeReleasedIds();
+            }
+        }
+    }
+
+    /**
+     * Moves a batch of reusable ids over to the keeper, which will write them to the id file if they grow too many.
+     */
+    private synchronized void spillReusableIds()
+    {
+        if ( closed || reusableIdCount.get() <= grabSize * 2L )
+        {
+            return;
+        }
+        int spilled = 0;
+        for ( int i = 0; i < STRIPES && spilled < grabSize; i++ )
+        {
+            Long id;
+            while ( spilled < grabSize && (id = reusableIds[i].poll()) != null )
+            {
+                reusableIdCount.decrementAndGet();
+                keeper.freeId( id );
+                spilled++;
+            }
+        }
+        keeperMayHaveIds = true;
+    }
+
+    private synchronized void writeReleasedIds()
+    {
+        if ( closed )
+        {
+            return;
+        }
+        Long id;
+        while ( (id = releasedIds.poll()) != null )
+        {
+            releasedIdCount.decrementAndGet();
+            keeper.freeId( id );
+        }
+    }
+
+    /**
+     * Sets the next free "high" id. All ranges reserved by threads are discarded, since they may no longer
+     * be valid with the new high id.
+     *
+     * @param id The next free id returned from {@link #nextId()} if there are no existing free ids.
+     */
+    @Override
+    public void setHighId( long id )
+    {
+        IdValidator.assertIdWithinCapacity( id, max );
+        rangeEpoch.incrementAndGet();
+        ranges.clear();
+        highId.set( id );
+    }
+
+    @Override
+    public long getHighId()
+    {
+        return highId.get();
+    }
+
+    @Override
+    public long getHighestPossibleIdInUse()
+    {
+        return getHighId() - 1;
+    }
+
+    @Override
+    public long getNumberOfIdsInUse()
+    {
+        long unusedInRanges = 0;
+        int epoch = rangeEpoch.get();
+        for ( LocalRange range : ranges )
+        {
+            if ( range.epoch == epoch )
+            {
+                unusedInRanges += max( 0, range.end - range.next );
+            }
+        }
+        return highId.get() - getDefragCount() - unusedInRanges;
+    }
+
+    @Override
+    public long getDefragCount()
+    {
+        return reusableIdCount.get() + releasedIdCount.get() + keeper.getCount();
+    }
+
+    private void assertStillOpen()
+    {
+        if ( closed )
+        {
+            throw new IllegalStateException( "Closed id generator " + file );
+        }
+    }
+
+    private static int stripe()
+    {
+        return (int) Thread.currentThread().getId() & STRIPE_MASK;
+    }
+
+    /**
+     * Closes the id generator, first giving back the unused parts of all ranges reserved by threads and writing
+     * all free ids to the file, and then marking the file as clean.
+     */
+    @Override
+    public synchronized void close()
+    {
+        if ( closed )
+        {
+            return;
+        }
+
+        try
+        {
+            releaseUnusedRanges();
+            for ( Queue<Long> stripe : reusableIds )
+            {
+                Long id;
+                while ( (id = stripe.poll()) != null )
+                {
+                    reusableIdCount.decrementAndGet();
+                    keeper.freeId( id );
+                }
+            }
+            writeReleasedIds();
+            keeper.close(); // first write out free ids, then mark as clean
+
+            ByteBuffer buffer = ByteBuffer.allocate( HEADER_SIZE );
+            fileChannel.position( 0 );
+            buffer.put( STICKY_GENERATOR ).putLong( highId.get() ).flip();
+            fileChannel.write( buffer );
+            fileChannel.force( false );
+
+            buffer.clear();
+            buffer.put( CLEAN_GENERATOR ).limit( 1 ).flip();
+            fileChannel.position( 0 );
+            fileChannel.write( buffer );
+
+            closeChannel();
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( "Unable to close id generator " + file, e );
+        }
+    }
+
+    /**
+     * Lowers the high id past unused ranges at the top of the id space and frees the unused ids of all other ranges.
+     */
+    private void releaseUnusedRanges()
+    {
+        int epoch = rangeEpoch.get();
+        List<LocalRange> unused = new ArrayList<>();
+        for ( LocalRange range : ranges )
+        {
+            if ( range.epoch == epoch && range.next < range.end )
+            {
+                unused.add( range );
+            }
+        }
+        ranges.clear();
+        unused.sort( ( a, b ) -> Long.compare( b.end, a.end ) );
+        for ( LocalRange range : unused )
+        {
+            long from = range.next;
+            if ( range.end == highId.get() )
+            {
+                highId.set( from );
+            }
+            else
+            {
+                for ( long id = from; id < range.end; id++ )
+                {
+                    if ( !IdValidator.isReservedId( id ) )
+                    {
+                        keeper.freeId( id );
+                    }
+                }
+            }
+            range.next = range.end;
+        }
+    }
+
+    private void closeChannel() throws IOException
+    {
+        fileChannel.force( false );
+        fileChannel.close();
+        fileChannel = null;
+        closed = true;
+        highId.set( -1 );
+    }
+
+    @Override
+    public synchronized void delete()
+    {
+        if ( !closed )
+        {
+            try
+            {
+                closeChannel();
+            }
+            catch ( IOException e )
+            {
+                throw new UnderlyingStorageException( "Unable to safe close id generator " + file, e );
+            }
+        }
+
+        if ( !fs.deleteFile( file ) )
+        {
+            throw new UnderlyingStorageException( "Unable to delete id generator " + file );
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ConcurrentIdGenerator " + hashCode() + " [highId=" + highId + ", defragged=" + getDefragCount() +
+               ", fileName=" + file + ", max=" + max + ", aggressive=" + aggressiveReuse + "]";
+    }
+
+    /**
+     * Range of high ids reserved by, and only allocated from by, a single thread.
+     */
+    private static class LocalRange
+    {
+        private final long end;
+        private final int epoch;
+        // Weakly referenced, so that ranges don't keep dead threads around until they are reclaimed
+        private final WeakReference<Thread> owner;
+        // Written by the owning thread only, but read by other threads when closing and counting
+        private volatile long next;
+
+        LocalRange( long start, long end, int epoch, Thread owner )
+        {
+            this.next = start;
+            this.end = end;
+            this.epoch = epoch;
+            this.owner = new WeakReference<>( owner );
+        }
+
+        boolean isOwnerAlive()
+        {
+            Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+    }
+}
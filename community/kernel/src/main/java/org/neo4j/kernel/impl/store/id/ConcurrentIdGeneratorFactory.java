@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.id;
+
+import java.io.File;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.impl.store.id.configuration.IdTypeConfigurationProvider;
+
+/**
+ * {@link IdGeneratorFactory} creating {@link ConcurrentIdGenerator concurrent id generators}.
+ * <p>
+ * Token ids are allocated so rarely, and are so few, that reserving ranges of them per thread would only leave gaps,
+ * so token stores get ranges of a single id. All other stores use the range size given to this factory.
+ */
+public class ConcurrentIdGeneratorFactory extends DefaultIdGeneratorFactory
+{
+    public static final int DEFAULT_RANGE_SIZE = 64;
+
+    private final int rangeSize;
+
+    public ConcurrentIdGeneratorFactory( FileSystemAbstraction fs,
+            IdTypeConfigurationProvider idTypeConfigurationProvider )
+    {
+        this( fs, idTypeConfigurationProvider, DEFAULT_RANGE_SIZE );
+    }
+
+    public ConcurrentIdGeneratorFactory( FileSystemAbstraction fs,
+            IdTypeConfigurationProvider idTypeConfigurationProvider, int rangeSize )
+    {
+        super( fs, idTypeConfigurationProvider );
+        this.rangeSize = rangeSize;
+    }
+
+    @Override
+    protected IdGenerator instantiate( FileSystemAbstraction fs, File fileName, int grabSize, long maxValue,
+            boolean aggressiveReuse, IdType idType, long highId )
+    {
+        return new ConcurrentIdGenerator( fs, fileName, grabSize, maxValue, aggressiveReuse, highId,
+                rangeSize( idType ) );
+    }
+
+    int rangeSize( IdType idType )
+    {
+        switch ( idType )
+        {
+        case PROPERTY_KEY_TOKEN:
+        case PROPERTY_KEY_TOKEN_NAME:
+        case RELATIONSHIP_TYPE_TOKEN:
+        case RELATIONSHIP_TYPE_TOKEN_NAME:
+        case LABEL_TOKEN:
+        case LABEL_TOKEN_NAME:
+            return 1;
+        default:
+            return rangeSize;
+        }
+    }
+}
@@ -69,8 +69,8 @@ public class IdGeneratorImpl implements IdGenerator
 
     // if sticky the id generator wasn't closed properly so it has to be
     // rebuilt (go through the node, relationship, property, rel type etc files)
-    private static final byte CLEAN_GENERATOR = (byte) 0;
-    private static final byte STICKY_GENERATOR = (byte) 1;
+    static final byte CLEAN_GENERATOR = (byte) 0;
+    static final byte STICKY_GENERATOR = (byte) 1;
 
     /**
      * Invalid and reserved id value. Represents special values, f.ex. the end of a relationships/property chain.
@@ -419,7 +419,7 @@ public class IdGeneratorImpl implements IdGenerator
         }
     }
 
-    private static ByteBuffer readHighIdFromHeader( StoreChannel channel, File fileName ) throws IOException
+    static ByteBuffer readHighIdFromHeader( StoreChannel channel, File fileName ) throws IOException
     {
         ByteBuffer buffer = ByteBuffer.allocate( HEADER_SIZE );
         int read = channel.read( buffer );
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.command;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+
+import org.neo4j.concurrent.WorkSync;
+import org.neo4j.kernel.impl.api.index.IndexingUpdateService;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.kernel.impl.transaction.state.IndexUpdates;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.internal.DatabaseHealth;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+/**
+ * Applies schema index updates of committed transactions on a dedicated thread instead of on the committing thread.
+ * Updates are applied in the order they were {@link #queue(IndexUpdates) queued}, which for any single node is the
+ * commit order since entity locks are held while the transaction is applied.
+ * <p>
+ * Anything that reads index state must call {@link #awaitApplied()} first, which blocks until all updates queued up
+ * to that point have been applied. That makes index reads consistent with all transactions committed before the read.
+ */
+public class AsyncIndexUpdatesApplier extends LifecycleAdapter
+{
+    private final WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync;
+    private final JobScheduler scheduler;
+    private final DatabaseHealth databaseHealth;
+    private final Deque<IndexUpdates> queue = new ArrayDeque<>();
+
+    private volatile long queuedCount;
+    private volatile long appliedCount;
+    private volatile Throwable failure;
+    private boolean stopped;
+    private JobScheduler.JobHandle job;
+
+    public AsyncIndexUpdatesApplier( WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync,
+            JobScheduler scheduler, DatabaseHealth databaseHealth )
+    {
+        this.indexUpdatesSync = indexUpdatesSync;
+        this.scheduler = scheduler;
+        this.databaseHealth = databaseHealth;
+    }
+
+    @Override
+    public synchronized void start()
+    {
+        stopped = false;
+        job = scheduler.schedule( JobScheduler.Groups.indexUpdates, this::applyQueuedUpdates );
+    }
+
+    /**
+     * Applies all queued updates and then stops the applier thread.
+     */
+    @Override
+    public void stop() throws Throwable
+    {
+        JobScheduler.JobHandle runningJob;
+        synchronized ( this )
+        {
+            stopped = true;
+            runningJob = job;
+            job = null;
+            notifyAll();
+        }
+        if ( runningJob != null )
+        {
+            runningJob.waitTermination();
+        }
+    }
+
+    /**
+     * Hands over index updates of one or more committed transactions to the applier thread.
+     *
+     * @param updates index updates to apply.
+     */
+    public synchronized void queue( IndexUpdates updates )
+    {
+        throwIfFailed();
+        if ( job == null )
+        {
+            throw new IllegalStateException( "Index updates applier is not running" );
+        }
+        queue.addLast( updates );
+        queuedCount++;
+        notifyAll();
+    }
+
+    /**
+     * Blocks until all index updates queued before this call have been applied.
+     *
+     * @throws UnderlyingStorageException if applying queued updates failed, or the waiting thread was interrupted.
+     */
+    public void awaitApplied()
+    {
+        long target = queuedCount;
+        if ( appliedCount >= target )
+        {
+            throwIfFailed();
+            return;
+        }
+        synchronized ( this )
+        {
+            try
+            {
+                while ( appliedCount < target && failure == null )
+                {
+                    wait();
+                }
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new UnderlyingStorageException( "Interrupted while waiting for index updates to be applied", e );
+            }
+        }
+        throwIfFailed();
+    }
+
+    private void throwIfFailed()
+    {
+        Throwable cause = failure;
+        if ( cause != null )
+        {
+            throw new UnderlyingStorageException( "Failed to apply index updates", cause );
+        }
+    }
+
+    private void applyQueuedUpdates()
+    {
+        while ( true )
+        {
+            IndexUpdatesWork work = null;
+            long batchSize = 0;
+            synchronized ( this )
+            {
+                try
+                {
+                    while ( queue.isEmpty() && !stopped )
+                    {
+                        wait();
+                    }
+                }
+                catch ( InterruptedException e )
+                {
+                    fail( e );
+                    return;
+                }
+                if ( queue.isEmpty() )
+                {
+                    return;
+                }
+                // Combine everything that has piled up into one work unit, like the work sync would
+                for ( IndexUpdates updates : queue )
+                {
+                    IndexUpdatesWork next = new IndexUpdatesWork( updates );
+                    work = work == null ? next : work.combine( next );
+                    batchSize++;
+                }
+                queue.clear();
+            }
+
+            try
+            {
+                indexUpdatesSync.apply( work );
+            }
+            catch ( ExecutionException e )
+            {
+                fail( e.getCause() );
+                return;
+            }
+            catch ( RuntimeException e )
+            {
+                fail( e );
+                return;
+            }
+
+            synchronized ( this )
+            {
+                appliedCount += batchSize;
+                notifyAll();
+            }
+        }
+    }
+
+    private void fail( Throwable cause )
+    {
+        databaseHealth.panic( cause );
+        synchronized ( this )
+        {
+            failure = cause;
+            queue.clear();
+            notifyAll();
+        }
+    }
+}
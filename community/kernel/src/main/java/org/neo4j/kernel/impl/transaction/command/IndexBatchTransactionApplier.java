@@ -61,6 +61,7 @@ public class IndexBatchTransactionApplier extends BatchTransactionApplier.Adapte
     private final WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync;
     private final SingleTransactionApplier transactionApplier;
     private final PropertyPhysicalToLogicalConverter indexUpdateConverter;
+    private final AsyncIndexUpdatesApplier asyncIndexUpdates;
 
     private List<NodeLabelUpdate> labelUpdates;
     private IndexUpdates indexUpdates;
@@ -72,6 +73,22 @@ public class IndexBatchTransactionApplier extends BatchTransactionApplier.Adapte
             PropertyPhysicalToLogicalConverter indexUpdateConverter,
             TransactionApplicationMode mode )
     {
+        this( indexingService, labelScanStoreSync, indexUpdatesSync, nodeStore, indexUpdateConverter, mode, null );
+    }
+
+    /**
+     * @param asyncIndexUpdates if not {@code null}, index updates are handed over to this applier instead of
+     * being applied when this batch is closed.
+     */
+    public IndexBatchTransactionApplier( IndexingService indexingService,
+            WorkSync<Supplier<LabelScanWriter>,LabelUpdateWork> labelScanStoreSync,
+            WorkSync<IndexingUpdateService,IndexUpdatesWork> indexUpdatesSync,
+            NodeStore nodeStore,
+            PropertyPhysicalToLogicalConverter indexUpdateConverter,
+            TransactionApplicationMode mode,
+            AsyncIndexUpdatesApplier asyncIndexUpdates )
+    {
+        this.asyncIndexUpdates = asyncIndexUpdates;
         this.indexingService = indexingService;
         this.labelScanStoreSync = labelScanStoreSync;
         this.indexUpdatesSync = indexUpdatesSync;
@@ -103,6 +120,12 @@ public class IndexBatchTransactionApplier extends BatchTransactionApplier.Adapte
         }
         if ( indexUpdates != null && indexUpdates.hasUpdates() )
         {
+            if ( asyncIndexUpdates != null )
+            {
+                asyncIndexUpdates.queue( indexUpdates );
+                indexUpdates = null;
+                return;
+            }
             try
             {
                 indexUpdatesSync.apply( new IndexUpdatesWork( indexUpdates ) );
@@ -221,6 +244,11 @@ public class IndexBatchTransactionApplier extends BatchTransactionApplier.Adapte
                 // update for the node created before the index. The most straight forward solution is to
                 // apply pending index updates up to this point in this batch before index schema changes occur.
                 applyPendingLabelAndIndexUpdates();
+                if ( asyncIndexUpdates != null )
+                {
+                    // Index updates of this and earlier batches may still be on their way to the indexes
+                    asyncIndexUpdates.awaitApplied();
+                }
 
                 switch ( command.getMode() )
                 {
@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.command;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongIntMap;
+import org.neo4j.kernel.impl.api.TransactionApplier;
+import org.neo4j.kernel.impl.core.CacheAccessBackDoor;
+import org.neo4j.kernel.impl.locking.LockGroup;
+import org.neo4j.kernel.impl.locking.LockService;
+import org.neo4j.kernel.impl.store.CommonAbstractStore;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.storageengine.api.CommandsToApply;
+
+/**
+ * A {@link NeoStoreBatchTransactionApplier} for recovery, which applies the record changes of a batch of
+ * transactions to the {@link NeoStores} on several threads.
+ * <p>
+ * Node, relationship, relationship group and property commands are partitioned by the store pages of the records
+ * they write, such that all changes to any given page are applied by the same thread, in transaction order. These
+ * commands are only collected as the transactions are visited, and are then applied in parallel when the batch is
+ * closed. Commands that cannot be partitioned, like token and schema commands, and commands that would write to pages
+ * that are owned by more than one partition, act as barriers: all the commands collected so far are applied before
+ * the barrier command is applied.
+ * <p>
+ * The other appliers of the batch, for counts, indexes and so on, still see the transactions one by one, in order.
+ * This is fine, because in recovery mode they only look at the commands themselves, and never read from the store.
+ */
+public class ParallelNeoStoreBatchTransactionApplier extends NeoStoreBatchTransactionApplier
+{
+    private static final int NODE = 0;
+    private static final int DYNAMIC_LABEL = 1;
+    private static final int RELATIONSHIP = 2;
+    private static final int RELATIONSHIP_GROUP = 3;
+    private static final int PROPERTY = 4;
+    private static final int STRING = 5;
+    private static final int ARRAY = 6;
+
+    private final NeoStores neoStores;
+    private final CacheAccessBackDoor cacheAccess;
+    private final LockService lockService;
+    private final JobScheduler scheduler;
+    private final Partition[] partitions;
+    // Which partition each store page, of the pages written to by the collected commands, belongs to.
+    private final PrimitiveLongIntMap pageOwners = Primitive.longIntMap();
+    private final long[] pageKeys = new long[256];
+
+    public ParallelNeoStoreBatchTransactionApplier( NeoStores store, CacheAccessBackDoor cacheAccess,
+            LockService lockService, JobScheduler scheduler, int parallelism )
+    {
+        super( store, cacheAccess, lockService );
+        this.neoStores = store;
+        this.cacheAccess = cacheAccess;
+        this.lockService = lockService;
+        this.scheduler = scheduler;
+        this.partitions = new Partition[parallelism];
+        for ( int i = 0; i < parallelism; i++ )
+        {
+            partitions[i] = new Partition();
+        }
+    }
+
+    @Override
+    public TransactionApplier startTx( CommandsToApply transaction, LockGroup lockGroup ) throws IOException
+    {
+        return new PartitioningTransactionApplier( transaction.transactionId() );
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        applyCollectedCommands();
+    }
+
+    private void collect( Command command, long transactionId, int pageKeyCount ) throws IOException
+    {
+        int partition = -1;
+        for ( int i = 0; i < pageKeyCount; i++ )
+        {
+            int owner = pageOwners.get( pageKeys[i] );
+            if ( owner != -1 && owner != partition )
+            {
+                if ( partition != -1 )
+                {
+                    // The command spans pages from two different partitions. We can't put it in either, without
+                    // possibly reordering it with respect to commands in the other, so we must drain them both.
+                    applyCollectedCommands();
+                    partition = -1;
+                    break;
+                }
+                partition = owner;
+            }
+        }
+        if ( partition == -1 )
+        {
+            partition = (int) Math.floorMod( mix( pageKeys[0] ), (long) partitions.length );
+        }
+        for ( int i = 0; i < pageKeyCount; i++ )
+        {
+            pageOwners.put( pageKeys[i], partition );
+        }
+        partitions[partition].add( command, transactionId );
+    }
+
+    private void applyCollectedCommands() throws IOException
+    {
+        if ( pageOwners.isEmpty() )
+        {
+            return;
+        }
+        pageOwners.clear();
+
+        List<JobScheduler.JobHandle> jobs = new ArrayList<>( partitions.length );
+        Partition inline = null;
+        for ( Partition partition : partitions )
+        {
+            if ( partition.size == 0 )
+            {
+                continue;
+            }
+            if ( inline == null )
+            {
+                // One of the partitions is applied by the calling thread, since it would otherwise just be waiting.
+                inline = partition;
+            }
+            else
+            {
+                jobs.add( scheduler.schedule( JobScheduler.Groups.recovery, partition ) );
+            }
+        }
+        if ( inline != null )
+        {
+            inline.run();
+        }
+
+        Throwable failure = null;
+        for ( JobScheduler.JobHandle job : jobs )
+        {
+            try
+            {
+                job.waitTermination();
+            }
+            catch ( Throwable e )
+            {
+                failure = failure == null ? e : failure;
+            }
+        }
+        for ( Partition partition : partitions )
+        {
+            if ( partition.failure != null )
+            {
+                failure = failure == null ? partition.failure : failure;
+            }
+            partition.clear();
+        }
+        if ( failure != null )
+        {
+            throw new IOException( "Failed to apply recovered transactions to the store", failure );
+        }
+    }
+
+    private int pageKeys( int store, CommonAbstractStore<?,?> recordStore, AbstractBaseRecord record, int index )
+    {
+        pageKeys[index++] = pageKey( store, recordStore, record.getId() );
+        if ( record.hasSecondaryUnitId() )
+        {
+            pageKeys[index++] = pageKey( store, recordStore, record.getSecondaryUnitId() );
+        }
+        return index;
+    }
+
+    /**
+     * Add the page keys of the given dynamic records, or return -1 if there are too many of them.
+     */
+    private int dynamicPageKeys( int store, CommonAbstractStore<?,?> recordStore, Iterable<DynamicRecord> records,
+            int index )
+    {
+        for ( DynamicRecord record : records )
+        {
+            if ( index == -1 || index + 2 > pageKeys.length )
+            {
+                return -1;
+            }
+            index = pageKeys( store, recordStore, record, index );
+        }
+        return index;
+    }
+
+    /**
+     * Add the page keys of the given string or array property value records, or return -1 if there are too many.
+     */
+    private int valuePageKeys( Iterable<DynamicRecord> records, int index )
+    {
+        for ( DynamicRecord record : records )
+        {
+            if ( index == -1 || index + 2 > pageKeys.length )
+            {
+                return -1;
+            }
+            PropertyType type = record.getType();
+            if ( type == PropertyType.STRING )
+            {
+                index = pageKeys( STRING, neoStores.getPropertyStore().getStringStore(), record, index );
+            }
+            else if ( type == PropertyType.ARRAY )
+            {
+                index = pageKeys( ARRAY, neoStores.getPropertyStore().getArrayStore(), record, index );
+            }
+        }
+        return index;
+    }
+
+    private static long pageKey( int store, CommonAbstractStore<?,?> recordStore, long recordId )
+    {
+        return (recordId / recordStore.getRecordsPerPage()) << 3 | store;
+    }
+
+    private static long mix( long pageKey )
+    {
+        pageKey ^= pageKey >>> 33;
+        pageKey *= 0xFF51AFD7ED558CCDL;
+        pageKey ^= pageKey >>> 33;
+        return pageKey;
+    }
+
+    private class PartitioningTransactionApplier extends TransactionApplier.Adapter
+    {
+        private final long transactionId;
+
+        PartitioningTransactionApplier( long transactionId )
+        {
+            this.transactionId = transactionId;
+        }
+
+        @Override
+        public boolean visitNodeCommand( Command.NodeCommand command ) throws IOException
+        {
+            NodeRecord after = command.getAfter();
+            int count = pageKeys( NODE, neoStores.getNodeStore(), after, 0 );
+            return collectOrApply( command, dynamicPageKeys( DYNAMIC_LABEL,
+                    neoStores.getNodeStore().getDynamicLabelStore(), after.getDynamicLabelRecords(), count ) );
+        }
+
+        @Override
+        public boolean visitRelationshipCommand( Command.RelationshipCommand command ) throws IOException
+        {
+            return collectOrApply( command,
+                    pageKeys( RELATIONSHIP, neoStores.getRelationshipStore(), command.getAfter(), 0 ) );
+        }
+
+        @Override
+        public boolean visitRelationshipGroupCommand( Command.RelationshipGroupCommand command ) throws IOException
+        {
+            return collectOrApply( command,
+                    pageKeys( RELATIONSHIP_GROUP, neoStores.getRelationshipGroupStore(), command.getAfter(), 0 ) );
+        }
+
+        @Override
+        public boolean visitPropertyCommand( Command.PropertyCommand command ) throws IOException
+        {
+            PropertyRecord after = command.getAfter();
+            int count = pageKeys( PROPERTY, neoStores.getPropertyStore(), after, 0 );
+            if ( after.inUse() )
+            {
+                for ( PropertyBlock block : after )
+                {
+                    if ( !block.isLight() )
+                    {
+                        count = valuePageKeys( block.getValueRecords(), count );
+                    }
+                }
+            }
+            return collectOrApply( command, valuePageKeys( after.getDeletedRecords(), count ) );
+        }
+
+        private boolean collectOrApply( Command command, int pageKeyCount ) throws IOException
+        {
+            if ( pageKeyCount == -1 )
+            {
+                // The command writes to more pages than we care to keep track of, so we just treat it as a barrier.
+                return applyInline( command );
+            }
+            collect( command, transactionId, pageKeyCount );
+            return false;
+        }
+
+        /**
+         * Apply the given command on the calling thread, after all the collected commands. The record locks are
+         * released right away, rather than with the transaction, since the partitions applied at the next barrier
+         * may need them.
+         */
+        private boolean applyInline( Command command ) throws IOException
+        {
+            applyCollectedCommands();
+            try ( LockGroup locks = new LockGroup() )
+            {
+                return command.handle(
+                        new NeoStoreTransactionApplier( neoStores, cacheAccess, lockService, transactionId, locks ) );
+            }
+        }
+
+        @Override
+        public boolean visitRelationshipTypeTokenCommand( Command.RelationshipTypeTokenCommand command )
+                throws IOException
+        {
+            return applyInline( command );
+        }
+
+        @Override
+        public boolean visitLabelTokenCommand( Command.LabelTokenCommand command ) throws IOException
+        {
+            return applyInline( command );
+        }
+
+        @Override
+        public boolean visitPropertyKeyTokenCommand( Command.PropertyKeyTokenCommand command ) throws IOException
+        {
+            return applyInline( command );
+        }
+
+        @Override
+        public boolean visitSchemaRuleCommand( Command.SchemaRuleCommand command ) throws IOException
+        {
+            return applyInline( command );
+        }
+
+        @Override
+        public boolean visitNeoStoreCommand( Command.NeoStoreCommand command ) throws IOException
+        {
+            return applyInline( command );
+        }
+    }
+
+    /**
+     * The commands of one partition, in transaction order. Each command takes and releases its own record locks,
+     * since holding on to the locks of a whole transaction could deadlock with the other partitions.
+     */
+    private class Partition implements Runnable
+    {
+        private Command[] commands = new Command[16];
+        private long[] transactionIds = new long[16];
+        private int size;
+        private volatile Throwable failure;
+
+        void add( Command command, long transactionId )
+        {
+            if ( size == commands.length )
+            {
+                commands = Arrays.copyOf( commands, size * 2 );
+                transactionIds = Arrays.copyOf( transactionIds, size * 2 );
+            }
+            commands[size] = command;
+            transactionIds[size] = transactionId;
+            size++;
+        }
+
+        void clear()
+        {
+            Arrays.fill( commands, 0, size, null );
+            size = 0;
+            failure = null;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                for ( int i = 0; i < size; i++ )
+                {
+                    try ( LockGroup locks = new LockGroup() )
+                    {
+                        commands[i].handle( new NeoStoreTransactionApplier(
+                                neoStores, cacheAccess, lockService, transactionIds[i], locks ) );
+                    }
+                }
+            }
+            catch ( Throwable e )
+            {
+                failure = e;
+            }
+        }
+    }
+}
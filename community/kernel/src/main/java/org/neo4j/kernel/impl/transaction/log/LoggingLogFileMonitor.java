@@ -63,6 +63,15 @@ public class LoggingLogFileMonitor implements
         }
     }
 
+    @Override
+    public void transactionsReplayed( int numberOfRecoveredTransactions, long elapsedMillis )
+    {
+        long transactionsPerSecond = elapsedMillis == 0 ? numberOfRecoveredTransactions :
+                                     numberOfRecoveredTransactions * 1000L / elapsedMillis;
+        log.info( format( "Replayed %d transactions in %d ms (%d transactions/s)",
+                numberOfRecoveredTransactions, elapsedMillis, transactionsPerSecond ) );
+    }
+
     @Override
     public void startedRotating( long currentVersion )
     {
@@ -19,34 +19,56 @@
  */
 package org.neo4j.kernel.impl.transaction.state;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.neo4j.kernel.api.index.SchemaIndexProvider;
 import org.neo4j.kernel.impl.api.index.SchemaIndexProviderMap;
 
+import static java.util.Collections.emptyList;
+
 public class DefaultSchemaIndexProviderMap implements SchemaIndexProviderMap
 {
-    private final SchemaIndexProvider indexProvider;
+    private final SchemaIndexProvider defaultIndexProvider;
+    private final Map<String,SchemaIndexProvider> indexProviders = new HashMap<>();
 
-    public DefaultSchemaIndexProviderMap( SchemaIndexProvider indexProvider )
+    public DefaultSchemaIndexProviderMap( SchemaIndexProvider defaultIndexProvider )
     {
-        this.indexProvider = indexProvider;
+        this( defaultIndexProvider, emptyList() );
+    }
+
+    /**
+     * @param defaultIndexProvider provider used for new indexes.
+     * @param additionalIndexProviders other providers, still able to serve indexes created with them earlier.
+     */
+    public DefaultSchemaIndexProviderMap( SchemaIndexProvider defaultIndexProvider,
+            Iterable<SchemaIndexProvider> additionalIndexProviders )
+    {
+        this.defaultIndexProvider = defaultIndexProvider;
+        indexProviders.put( defaultIndexProvider.getProviderDescriptor().getKey(), defaultIndexProvider );
+        for ( SchemaIndexProvider provider : additionalIndexProviders )
+        {
+            indexProviders.putIfAbsent( provider.getProviderDescriptor().getKey(), provider );
+        }
     }
 
     @Override
     public SchemaIndexProvider getDefaultProvider()
     {
-        return indexProvider;
+        return defaultIndexProvider;
     }
 
     @Override
     public SchemaIndexProvider apply( SchemaIndexProvider.Descriptor descriptor )
     {
-        if ( indexProvider.getProviderDescriptor().getKey().equals( descriptor.getKey() ) )
+        SchemaIndexProvider provider = indexProviders.get( descriptor.getKey() );
+        if ( provider != null )
         {
-            return indexProvider;
+            return provider;
         }
 
         throw new IllegalArgumentException( "Tried to get index provider for an existing index with provider " +
-                descriptor + " whereas the default and only supported provider in this session is " +
-                indexProvider.getProviderDescriptor() );
+                descriptor + " whereas the supported providers in this session are " +
+                indexProviders.keySet() );
     }
 }
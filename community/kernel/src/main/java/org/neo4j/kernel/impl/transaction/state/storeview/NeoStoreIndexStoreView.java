@@ -42,6 +42,7 @@ import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.register.Register.DoubleLongRegister;
 import org.neo4j.storageengine.api.EntityType;
+import org.neo4j.unsafe.impl.internal.dragons.FeatureToggles;
 
 import static org.neo4j.kernel.impl.store.NodeLabelsField.parseLabelsField;
 import static org.neo4j.kernel.impl.store.record.RecordLoad.FORCE;
@@ -51,6 +52,17 @@ import static org.neo4j.kernel.impl.store.record.RecordLoad.FORCE;
  */
 public class NeoStoreIndexStoreView implements IndexStoreView
 {
+    /**
+     * Number of threads reading the node store when scanning all nodes for index population.
+     * With more than one thread the scan is done by {@link ParallelStoreViewNodeStoreScan}. Scans that also
+     * visit label updates, like label scan store rebuilds, are always sequential and see nodes in id order.
+     */
+    private static final int SCAN_THREADS = FeatureToggles.getInteger( NeoStoreIndexStoreView.class,
+            "scan_threads", 1 );
+    /** Number of node ids in each partition read by a single thread when scanning with multiple threads. */
+    private static final int SCAN_PARTITION_SIZE = FeatureToggles.getInteger( NeoStoreIndexStoreView.class,
+            "scan_partition_size", 1 << 16 );
+
     protected final PropertyStore propertyStore;
     protected final NodeStore nodeStore;
     protected final LockService locks;
@@ -102,6 +114,11 @@ public class NeoStoreIndexStoreView implements IndexStoreView
             final Visitor<NodeLabelUpdate, FAILURE> labelUpdateVisitor,
             boolean forceStoreScan )
     {
+        if ( SCAN_THREADS > 1 && labelUpdateVisitor == null )
+        {
+            return new ParallelStoreViewNodeStoreScan<>( nodeStore, locks, propertyStore, labelUpdateVisitor,
+                    propertyUpdatesVisitor, labelIds, propertyKeyIdFilter, SCAN_THREADS, SCAN_PARTITION_SIZE );
+        }
         return new StoreViewNodeStoreScan<>( nodeStore, locks, propertyStore, labelUpdateVisitor,
                 propertyUpdatesVisitor, labelIds, propertyKeyIdFilter );
     }
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.state.storeview;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntPredicate;
+
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.impl.api.index.MultipleIndexPopulator;
+import org.neo4j.kernel.impl.api.index.NodeUpdates;
+import org.neo4j.kernel.impl.locking.Lock;
+import org.neo4j.kernel.impl.locking.LockService;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.StoreIdIterator;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.storageengine.api.schema.PopulationProgress;
+
+import static org.neo4j.helpers.NamedThreadFactory.daemon;
+import static org.neo4j.kernel.impl.store.NodeLabelsField.parseLabelsField;
+import static org.neo4j.kernel.impl.store.record.RecordLoad.FORCE;
+
+/**
+ * A {@link StoreViewNodeStoreScan} that reads the node store with several threads. The node id space, up to the
+ * high id at the start of the scan, is split into partitions of {@code partitionSize} ids, which the scan threads
+ * take one at a time and read through their own page cursor. Nodes created beyond that high id while the scan is
+ * running are read by the thread calling {@link #run()} once all partitions are done.
+ * <p>
+ * Labels and properties are read and decoded concurrently, but the visitors are called by one thread at a time,
+ * so they, and the populators behind them, see the same single threaded stream of updates as with a sequential
+ * scan, although no longer in node id order.
+ * <p>
+ * Updates from concurrent transactions are fed to the populators through
+ * {@link #acceptUpdate(MultipleIndexPopulator.MultipleIndexUpdater, IndexEntryUpdate, long)}. A sequential scan
+ * accepts an update if its node is at or before the node currently being scanned. Here there is no single such
+ * node, so instead each partition keeps track of how far it has been scanned. That progress is published while
+ * still holding the lock of the node just visited, so a transaction changing that node, and therefore queueing an
+ * update for it, is guaranteed to see the node as scanned, and any update queued before the node was visited
+ * is already reflected in what the scan read.
+ *
+ * @param <FAILURE> type of exception thrown by the visitors.
+ */
+public class ParallelStoreViewNodeStoreScan<FAILURE extends Exception> extends StoreViewNodeStoreScan<FAILURE>
+{
+    private static final String SCAN_THREAD_NAME_PREFIX = "Index Population Scan Thread";
+    private static final int PROGRESS_REPORT_INTERVAL = 1_000;
+
+    private final int threads;
+    private final int partitionSize;
+    private final long totalCount;
+    private final AtomicLong count = new AtomicLong();
+    private final Object visitorMonitor = new Object();
+
+    private volatile boolean continueScanning;
+    private volatile boolean completed;
+    private volatile long tailStart = Long.MAX_VALUE;
+    private volatile long tailProgress = -1;
+    /** Highest node id visited in each partition, only ever increasing. */
+    private volatile AtomicLongArray partitionProgress = new AtomicLongArray( 0 );
+
+    public ParallelStoreViewNodeStoreScan( NodeStore nodeStore, LockService locks, PropertyStore propertyStore,
+            Visitor<NodeLabelUpdate,FAILURE> labelUpdateVisitor, Visitor<NodeUpdates,FAILURE> propertyUpdatesVisitor,
+            int[] labelIds, IntPredicate propertyKeyIdFilter, int threads, int partitionSize )
+    {
+        super( nodeStore, locks, propertyStore, labelUpdateVisitor, propertyUpdatesVisitor, labelIds,
+                propertyKeyIdFilter );
+        if ( threads < 1 || partitionSize < 1 )
+        {
+            throw new IllegalArgumentException( "Need at least one thread and a positive partition size, got " +
+                    threads + " threads and partition size " + partitionSize );
+        }
+        this.threads = threads;
+        this.partitionSize = partitionSize;
+        this.totalCount = nodeStore.getHighId();
+    }
+
+    @Override
+    public void run() throws FAILURE
+    {
+        continueScanning = true;
+        long highId = nodeStore.getHighId();
+        int partitions = Math.toIntExact( (highId + partitionSize - 1) / partitionSize );
+        AtomicLongArray progress = new AtomicLongArray( partitions );
+        for ( int partition = 0; partition < partitions; partition++ )
+        {
+            progress.set( partition, (long) partition * partitionSize - 1 );
+        }
+        partitionProgress = progress;
+        tailStart = highId;
+
+        scanPartitions( partitions );
+        scanTail();
+        completed = continueScanning;
+    }
+
+    private void scanPartitions( int partitions ) throws FAILURE
+    {
+        AtomicInteger nextPartition = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool( threads, daemon( SCAN_THREAD_NAME_PREFIX ) );
+        try
+        {
+            List<Future<Void>> scanners = new ArrayList<>( threads );
+            for ( int i = 0; i < threads; i++ )
+            {
+                scanners.add( executor.submit( () ->
+                {
+                    int partition;
+                    while ( continueScanning && (partition = nextPartition.getAndIncrement()) < partitions )
+                    {
+                        scanPartition( partition );
+                    }
+                    return null;
+                } ) );
+            }
+            awaitScanners( scanners );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private void awaitScanners( List<Future<Void>> scanners ) throws FAILURE
+    {
+        Throwable failure = null;
+        for ( Future<Void> scanner : scanners )
+        {
+            try
+            {
+                scanner.get();
+            }
+            catch ( ExecutionException e )
+            {
+                // Have the remaining scanners give up early, but still wait for them before throwing
+                continueScanning = false;
+                if ( failure == null )
+                {
+                    failure = e.getCause();
+                }
+                else if ( failure != e.getCause() )
+                {
+                    failure.addSuppressed( e.getCause() );
+                }
+            }
+            catch ( InterruptedException e )
+            {
+                continueScanning = false;
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException( "Interrupted while waiting for the store scan to complete", e );
+            }
+        }
+        if ( failure != null )
+        {
+            throwFailure( failure );
+        }
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private void throwFailure( Throwable failure ) throws FAILURE
+    {
+        if ( failure instanceof RuntimeException )
+        {
+            throw (RuntimeException) failure;
+        }
+        if ( failure instanceof Error )
+        {
+            throw (Error) failure;
+        }
+        throw (FAILURE) failure;
+    }
+
+    private void scanPartition( int partition ) throws FAILURE
+    {
+        long start = Math.max( (long) partition * partitionSize, nodeStore.getNumberOfReservedLowIds() );
+        long end = Math.min( start + partitionSize, tailStart );
+        NodeRecord record = nodeStore.newRecord();
+        long scanned = 0;
+        try ( PageCursor cursor = nodeStore.newPageCursor() )
+        {
+            for ( long id = start; continueScanning && id < end; id++ )
+            {
+                try ( Lock ignored = locks.acquireNodeLock( id, LockService.LockType.READ_LOCK ) )
+                {
+                    if ( nodeStore.readRecord( id, record, FORCE, cursor ).inUse() )
+                    {
+                        processConcurrently( record );
+                    }
+                    partitionProgress.lazySet( partition, id );
+                }
+                if ( ++scanned == PROGRESS_REPORT_INTERVAL )
+                {
+                    count.addAndGet( scanned );
+                    scanned = 0;
+                }
+            }
+        }
+        finally
+        {
+            count.addAndGet( scanned );
+        }
+    }
+
+    private void scanTail() throws FAILURE
+    {
+        NodeRecord record = nodeStore.newRecord();
+        PrimitiveLongIterator nodeIds = new StoreIdIterator( nodeStore, true, tailStart );
+        try ( PageCursor cursor = nodeStore.newPageCursor() )
+        {
+            while ( continueScanning && nodeIds.hasNext() )
+            {
+                long id = nodeIds.next();
+                try ( Lock ignored = locks.acquireNodeLock( id, LockService.LockType.READ_LOCK ) )
+                {
+                    count.incrementAndGet();
+                    if ( nodeStore.readRecord( id, record, FORCE, cursor ).inUse() )
+                    {
+                        processConcurrently( record );
+                    }
+                    tailProgress = id;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads labels and properties of the given node in the calling thread, then hands the result to the visitors,
+     * one thread at a time.
+     */
+    private void processConcurrently( NodeRecord node ) throws FAILURE
+    {
+        long[] labels = parseLabelsField( node ).get( nodeStore );
+        if ( labels.length == 0 )
+        {
+            // This node has no labels at all
+            return;
+        }
+
+        NodeUpdates updates = propertyUpdates( node, labels );
+        synchronized ( visitorMonitor )
+        {
+            visit( node.getId(), labels, updates );
+        }
+    }
+
+    /**
+     * Accepts the update if the scan has already visited its node, regardless of {@code currentlyIndexedNodeId},
+     * which with a partitioned scan only says which node was visited last.
+     */
+    @Override
+    public void acceptUpdate( MultipleIndexPopulator.MultipleIndexUpdater updater, IndexEntryUpdate update,
+            long currentlyIndexedNodeId )
+    {
+        if ( isScanned( update.getEntityId() ) )
+        {
+            updater.process( update );
+        }
+    }
+
+    private boolean isScanned( long nodeId )
+    {
+        if ( completed )
+        {
+            return true;
+        }
+        if ( nodeId >= tailStart )
+        {
+            return nodeId <= tailProgress;
+        }
+        AtomicLongArray progress = partitionProgress;
+        int partition = (int) (nodeId / partitionSize);
+        return partition < progress.length() && nodeId <= progress.get( partition );
+    }
+
+    @Override
+    public void stop()
+    {
+        continueScanning = false;
+    }
+
+    @Override
+    public PopulationProgress getProgress()
+    {
+        if ( totalCount > 0 )
+        {
+            return new PopulationProgress( Math.min( count.get(), totalCount ), totalCount );
+        }
+
+        // nothing to do 100% completed
+        return PopulationProgress.DONE;
+    }
+}
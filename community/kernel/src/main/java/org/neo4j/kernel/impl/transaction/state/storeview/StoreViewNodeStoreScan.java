@@ -85,37 +85,64 @@ public class StoreViewNodeStoreScan<FAILURE extends Exception> extends NodeStore
             return;
         }
 
+        visit( node.getId(), labels, propertyUpdates( node, labels ) );
+    }
+
+    /**
+     * Notifies the visitors about a scanned node.
+     *
+     * @param nodeId id of the scanned node.
+     * @param labels labels of the scanned node, never empty.
+     * @param updates property updates of the scanned node, as built by {@link #propertyUpdates(NodeRecord, long[])}.
+     */
+    protected void visit( long nodeId, long[] labels, NodeUpdates updates ) throws FAILURE
+    {
         if ( labelUpdateVisitor != null )
         {
             // Notify the label update visitor
-            labelUpdateVisitor.visit( labelChanges( node.getId(), EMPTY_LONG_ARRAY, labels ) );
+            labelUpdateVisitor.visit( labelChanges( nodeId, EMPTY_LONG_ARRAY, labels ) );
         }
 
-        if ( propertyUpdatesVisitor != null && containsAnyLabel( labelIds, labels ) )
+        if ( updates != null )
         {
             // Notify the property update visitor
-            // TODO: reuse object instead? Better in terms of speed and GC?
-            NodeUpdates.Builder updates = NodeUpdates.forNode( node.getId(), labels );
-            boolean hasRelevantProperty = false;
+            propertyUpdatesVisitor.visit( updates );
+        }
+    }
 
-            for ( PropertyBlock property : properties( node ) )
-            {
-                int propertyKeyId = property.getKeyIndexId();
-                if ( propertyKeyIdFilter.test( propertyKeyId ) )
-                {
-                    // This node has a property of interest to us
-                    Object value = valueOf( property );
-                    Validators.INDEX_VALUE_VALIDATOR.validate( value );
-                    updates.added( propertyKeyId, value );
-                    hasRelevantProperty = true;
-                }
-            }
+    /**
+     * Reads the properties of interest of the given node.
+     *
+     * @param node the node record to read properties for.
+     * @param labels labels of the node.
+     * @return updates with the properties of interest, or {@code null} if there is no property update visitor,
+     * or the node has none of the labels or properties of interest.
+     */
+    protected NodeUpdates propertyUpdates( NodeRecord node, long[] labels )
+    {
+        if ( propertyUpdatesVisitor == null || !containsAnyLabel( labelIds, labels ) )
+        {
+            return null;
+        }
 
-            if ( hasRelevantProperty )
+        // TODO: reuse object instead? Better in terms of speed and GC?
+        NodeUpdates.Builder updates = NodeUpdates.forNode( node.getId(), labels );
+        boolean hasRelevantProperty = false;
+
+        for ( PropertyBlock property : properties( node ) )
+        {
+            int propertyKeyId = property.getKeyIndexId();
+            if ( propertyKeyIdFilter.test( propertyKeyId ) )
             {
-                propertyUpdatesVisitor.visit( updates.build() );
+                // This node has a property of interest to us
+                Object value = valueOf( property );
+                Validators.INDEX_VALUE_VALIDATOR.validate( value );
+                updates.added( propertyKeyId, value );
+                hasRelevantProperty = true;
             }
         }
+
+        return hasRelevantProperty ? updates.build() : null;
     }
 
     private Iterable<PropertyBlock> properties( final NodeRecord node )
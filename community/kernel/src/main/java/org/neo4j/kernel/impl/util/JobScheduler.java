@@ -172,11 +172,36 @@ public interface JobScheduler extends Lifecycle
          */
         public static Group nativeSecurity = new Group( "NativeSecurity", POOLED );
 
+        /**
+         * Page cache warmup and profiling.
+         */
+        public static Group pageCacheWarmup = new Group( "PageCacheWarmup", POOLED );
+
+        /**
+         * Parallel application of recovered transactions.
+         */
+        public static Group recovery = new Group( "Recovery", POOLED );
+
         /**
          * File watch service group
          */
         public static Group fileWatch = new Group( "FileWatcher", NEW_THREAD );
 
+        /**
+         * Asynchronous application of schema index updates of committed transactions.
+         */
+        public static Group indexUpdates = new Group( "IndexUpdates", NEW_THREAD );
+
+        /**
+         * Background refresh of Lucene schema index searchers.
+         */
+        public static Group indexRefresh = new Group( "IndexRefresh", POOLED );
+
+        /**
+         * Workers of queries run with the parallel Cypher runtime.
+         */
+        public static Group cypherWorker = new Group( "CypherWorker", POOLED );
+
         private Groups()
         {
         }
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.util;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -29,6 +30,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
@@ -88,7 +90,10 @@ public class Neo4jJobScheduler extends LifecycleAdapter implements JobScheduler
         switch ( group.strategy() )
         {
         case POOLED:
-            return register( new PooledJobHandle( this.globalPool.submit( job ) ) );
+            RegisteredJob registeredJob = new RegisteredJob( job );
+            JobHandle handle = register( registeredJob.handle );
+            globalPool.execute( registeredJob );
+            return handle;
         case NEW_THREAD:
             Thread thread = createNewThread( group, job, metadata );
             thread.start();
@@ -170,8 +175,8 @@ public class Neo4jJobScheduler extends LifecycleAdapter implements JobScheduler
         try
         {
             // Cancel jobs which hasn't been cancelled already, this to avoid having to wait the full
-            // max wait time and then just leave them.
-            for ( JobHandle handle : jobs )
+            // max wait time and then just leave them. Cancelled jobs take themselves out of the set, so iterate a copy.
+            for ( JobHandle handle : new ArrayList<>( jobs ) )
             {
                 handle.cancel( true );
             }
@@ -234,6 +239,26 @@ public class Neo4jJobScheduler extends LifecycleAdapter implements JobScheduler
         return thread;
     }
 
+    /**
+     * A pooled job that takes its handle out of the register when it is done, so that short lived jobs
+     * don't pile up there until shutdown.
+     */
+    private class RegisteredJob extends FutureTask<Void>
+    {
+        private final PooledJobHandle handle = new PooledJobHandle( this );
+
+        RegisteredJob( Runnable job )
+        {
+            super( job, null );
+        }
+
+        @Override
+        protected void done()
+        {
+            jobs.remove( handle );
+        }
+    }
+
     private static class PooledJobHandle implements JobHandle
     {
         private final Future<?> job;
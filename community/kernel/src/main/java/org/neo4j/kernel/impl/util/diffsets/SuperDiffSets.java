@@ -206,6 +206,21 @@ abstract class SuperDiffSets<T,LONGITERATOR extends PrimitiveLongIterator>
         return coll == null ? Collections.<T>emptySet() : Collections.unmodifiableSet( coll );
     }
 
+    /**
+     * Moves the removed elements over to the given set, which then holds the removed elements from now on.
+     * Used for moving large sets of removed elements into more compact, e.g. off-heap, sets.
+     *
+     * @param target the set to hold the removed elements.
+     */
+    public void moveRemovedTo( Set<T> target )
+    {
+        if ( removedElements != null )
+        {
+            target.addAll( removedElements );
+        }
+        removedElements = target;
+    }
+
     public boolean unRemove( T item )
     {
         return removed( false ).remove( item );
@@ -46,6 +46,16 @@ public class Recovery extends LifecycleAdapter
         default void recoveryCompleted( int numberOfRecoveredTransactions )
         { // no-op by default
         }
+
+        /**
+         * Called when all the recovered transactions have been applied to the store, before the store is forced.
+         *
+         * @param numberOfRecoveredTransactions the number of transactions that were replayed.
+         * @param elapsedMillis the time it took to read and apply them.
+         */
+        default void transactionsReplayed( int numberOfRecoveredTransactions, long elapsedMillis )
+        { // no-op by default
+        }
     }
 
     public interface SPI
@@ -84,6 +94,7 @@ public class Recovery extends LifecycleAdapter
         }
 
         monitor.recoveryRequired( recoveryFromPosition );
+        long startMillis = System.currentTimeMillis();
 
         LogPosition recoveryToPosition;
         CommittedTransactionRepresentation lastTransaction = null;
@@ -107,6 +118,7 @@ public class Recovery extends LifecycleAdapter
         }
 
         spi.allTransactionsRecovered( lastTransaction, recoveryToPosition );
+        monitor.transactionsReplayed( numberOfRecoveredTransactions, System.currentTimeMillis() - startMillis );
         recoveredLog = true;
         spi.forceEverything();
     }
@@ -50,6 +50,29 @@ public interface IndexReader extends Resource
      */
     PrimitiveLongIterator query( IndexQuery... predicates ) throws IndexNotApplicableKernelException;
 
+    /**
+     * @param predicates query to determine whether or not index may return false positives for.
+     * @return whether or not {@link #query(IndexQuery...)} with the given predicates may return entities which do
+     * not match them, in which case the caller must verify the results against the actual property values.
+     */
+    default boolean mayReturnFalsePositives( IndexQuery... predicates )
+    {
+        return false;
+    }
+
+    /**
+     * Like {@link #query(IndexQuery...)}, but also gives access to the indexed value of each matching entity, so that
+     * it need not be read from the store.
+     *
+     * @param predicates the predicates to query for.
+     * @return the matching entity IDs, along with their indexed values, or {@code null} if this index cannot
+     * provide values for the given predicates, in which case {@link #query(IndexQuery...)} should be used instead.
+     */
+    default NodeValueIterator queryWithValues( IndexQuery... predicates ) throws IndexNotApplicableKernelException
+    {
+        return null;
+    }
+
     IndexReader EMPTY = new IndexReader()
     {
         // Used for checking index correctness
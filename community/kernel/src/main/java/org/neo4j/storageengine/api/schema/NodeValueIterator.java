@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api.schema;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+
+/**
+ * {@link PrimitiveLongIterator} over the ids of nodes found in an index, which also gives access to the indexed
+ * property value of each node.
+ */
+public interface NodeValueIterator extends PrimitiveLongIterator
+{
+    /**
+     * @return the indexed property value of the node last returned by {@link #next()}. Only valid until the next call
+     * to {@link #hasNext()}.
+     */
+    Object value();
+
+    static NodeValueIterator emptyIterator()
+    {
+        return new Empty();
+    }
+
+    class Empty extends PrimitiveLongCollections.PrimitiveLongBaseIterator implements NodeValueIterator
+    {
+        @Override
+        protected boolean fetchNext()
+        {
+            return false;
+        }
+
+        @Override
+        public Object value()
+        {
+            throw new IllegalStateException( "No value, since there are no nodes" );
+        }
+    }
+}
@@ -78,7 +78,7 @@ import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.extension.KernelExtensionFactory;
 import org.neo4j.kernel.extension.KernelExtensions;
 import org.neo4j.kernel.extension.UnsatisfiedDependencyStrategies;
-import org.neo4j.kernel.extension.dependency.HighestSelectionStrategy;
+import org.neo4j.kernel.extension.dependency.AllByPrioritySelectionStrategy;
 import org.neo4j.kernel.extension.dependency.NamedLabelScanStoreSelectionStrategy;
 import org.neo4j.kernel.impl.api.index.NodeUpdates;
 import org.neo4j.kernel.impl.api.index.SchemaIndexProviderMap;
@@ -285,9 +285,12 @@ public class BatchInserterImpl implements BatchInserter, IndexConfigStoreProvide
                 new SimpleKernelContext( storeDir, DatabaseInfo.UNKNOWN, deps ),
                 kernelExtensions, deps, UnsatisfiedDependencyStrategies.ignore() ) );
 
+        AllByPrioritySelectionStrategy<SchemaIndexProvider> indexProviderSelection =
+                new AllByPrioritySelectionStrategy<>();
         SchemaIndexProvider provider = extensions.resolveDependency( SchemaIndexProvider.class,
-                HighestSelectionStrategy.getInstance() );
-        schemaIndexProviders = new DefaultSchemaIndexProviderMap( provider );
+                indexProviderSelection );
+        schemaIndexProviders = new DefaultSchemaIndexProviderMap( provider,
+                indexProviderSelection.lowerPrioritizedCandidates() );
         labelScanStore = life.add( extensions.resolveDependency( LabelScanStoreProvider.class,
                 new NamedLabelScanStoreSelectionStrategy( config ) ).getLabelScanStore() );
         actions = new BatchSchemaActions();
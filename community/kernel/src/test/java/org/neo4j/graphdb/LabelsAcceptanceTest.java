@@ -757,7 +757,8 @@ public class LabelsAcceptanceTest
                                             @Override
                                             protected IdGeneratorFactory createIdGeneratorFactory(
                                                     FileSystemAbstraction fs,
-                                                    IdTypeConfigurationProvider idTypeConfigurationProvider )
+                                                    IdTypeConfigurationProvider idTypeConfigurationProvider,
+                                                    Config config )
                                             {
                                                 return idFactory;
                                             }
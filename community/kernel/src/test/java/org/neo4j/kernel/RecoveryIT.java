@@ -24,7 +24,13 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.adversaries.ClassGuardedAdversary;
 import org.neo4j.adversaries.CountingAdversary;
@@ -33,9 +39,11 @@ import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.TransactionFailureException;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.helpers.collection.Iterators;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageEngine;
@@ -44,11 +52,14 @@ import org.neo4j.kernel.impl.storemigration.LogFiles;
 import org.neo4j.kernel.impl.transaction.command.Command;
 import org.neo4j.kernel.internal.DatabaseHealth;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.kernel.recovery.Recovery;
 import org.neo4j.test.AdversarialPageCacheGraphDatabaseFactory;
 import org.neo4j.test.TestGraphDatabaseFactory;
 import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.test.rule.fs.DefaultFileSystemRule;
 
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -210,6 +221,90 @@ public class RecoveryIT
         }
     }
 
+    @Test
+    public void parallelRecoveryMustRecoverTheSameGraphAsSequentialRecovery() throws IOException
+    {
+        GraphDatabaseService database = startDatabase( directory.graphDbDir() );
+        Label[] labels = {Label.label( "A" ), Label.label( "B" ), Label.label( "C" )};
+        ThreadLocalRandom rng = ThreadLocalRandom.current();
+        List<Long> nodeIds = new ArrayList<>();
+        for ( int txIndex = 0; txIndex < 200; txIndex++ )
+        {
+            try ( Transaction transaction = database.beginTx() )
+            {
+                for ( int i = 0; i < 10; i++ )
+                {
+                    Node node = database.createNode( labels[rng.nextInt( labels.length )] );
+                    node.setProperty( "short", rng.nextInt() );
+                    if ( rng.nextInt( 4 ) == 0 )
+                    {
+                        node.setProperty( "long", createLongString() );
+                    }
+                    nodeIds.add( node.getId() );
+                }
+                for ( int i = 0; i < 10; i++ )
+                {
+                    Node start = database.getNodeById( nodeIds.get( rng.nextInt( nodeIds.size() ) ) );
+                    Node end = database.getNodeById( nodeIds.get( rng.nextInt( nodeIds.size() ) ) );
+                    start.createRelationshipTo( end, withName( "R" ) ).setProperty( "weight", rng.nextDouble() );
+                }
+                Node changed = database.getNodeById( nodeIds.get( rng.nextInt( nodeIds.size() ) ) );
+                changed.removeProperty( "long" );
+                changed.addLabel( labels[rng.nextInt( labels.length )] );
+                transaction.success();
+            }
+        }
+
+        File restoreDbStoreDir = copyTransactionLogs();
+
+        Monitors monitors = new Monitors();
+        AtomicInteger replayedTransactions = new AtomicInteger();
+        monitors.addMonitorListener( new Recovery.Monitor()
+        {
+            @Override
+            public void transactionsReplayed( int numberOfRecoveredTransactions, long elapsedMillis )
+            {
+                replayedTransactions.set( numberOfRecoveredTransactions );
+            }
+        } );
+        GraphDatabaseService recoveredDatabase = new TestGraphDatabaseFactory().setMonitors( monitors )
+                .newEmbeddedDatabaseBuilder( restoreDbStoreDir )
+                .setConfig( GraphDatabaseSettings.recovery_parallelism, "4" )
+                .newGraphDatabase();
+        try
+        {
+            assertThat( replayedTransactions.get(), greaterThanOrEqualTo( 200 ) );
+            assertEquals( describeGraph( database ), describeGraph( recoveredDatabase ) );
+        }
+        finally
+        {
+            database.shutdown();
+            recoveredDatabase.shutdown();
+        }
+    }
+
+    private static List<String> describeGraph( GraphDatabaseService db )
+    {
+        List<String> description = new ArrayList<>();
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( Node node : db.getAllNodes() )
+            {
+                List<String> labels = new ArrayList<>();
+                node.getLabels().forEach( label -> labels.add( label.name() ) );
+                Collections.sort( labels );
+                description.add( "(" + node.getId() + labels + new TreeMap<>( node.getAllProperties() ) + ")" );
+            }
+            for ( Relationship relationship : db.getAllRelationships() )
+            {
+                description.add( "[" + relationship.getId() + ":" + relationship.getStartNode().getId() + "->" +
+                        relationship.getEndNode().getId() + relationship.getAllProperties() + "]" );
+            }
+            tx.success();
+        }
+        return description;
+    }
+
     private Node findNodeByLabel( GraphDatabaseService database, Label testLabel )
     {
         try ( ResourceIterator<Node> nodes = database.findNodes( testLabel ) )
@@ -95,7 +95,7 @@ public class KernelTransactionFactory
                 NULL,
                 LockTracer.NONE,
                 PageCursorTracerSupplier.NULL,
-                storageEngine, new CanWrite() );
+                storageEngine, new CanWrite(), 0 );
 
         StatementLocks statementLocks = new SimpleStatementLocks( new NoOpClient() );
 
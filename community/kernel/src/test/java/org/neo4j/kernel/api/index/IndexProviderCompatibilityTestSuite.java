@@ -27,7 +27,9 @@ import org.junit.runners.Suite;
 import java.io.File;
 
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.test.rule.PageCacheRule;
 import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.test.rule.fs.DefaultFileSystemRule;
 import org.neo4j.test.runner.ParameterizedSuiteRunner;
@@ -46,7 +48,8 @@ import org.neo4j.test.runner.ParameterizedSuiteRunner;
 } )
 public abstract class IndexProviderCompatibilityTestSuite
 {
-    protected abstract SchemaIndexProvider createIndexProvider( FileSystemAbstraction fs, File graphDbDir );
+    protected abstract SchemaIndexProvider createIndexProvider( PageCache pageCache, FileSystemAbstraction fs,
+            File graphDbDir );
 
     public abstract static class Compatibility
     {
@@ -54,6 +57,8 @@ public abstract class IndexProviderCompatibilityTestSuite
         public final DefaultFileSystemRule fileSystemRule = new DefaultFileSystemRule();
         @Rule
         public final TestDirectory testDir = TestDirectory.testDirectory( getClass() );
+        @Rule
+        public final PageCacheRule pageCacheRule = new PageCacheRule();
 
         protected File graphDbDir;
         protected FileSystemAbstraction fs;
@@ -66,7 +71,8 @@ public abstract class IndexProviderCompatibilityTestSuite
         {
             fs = fileSystemRule.get();
             graphDbDir = testDir.graphDbDir();
-            indexProvider = testSuite.createIndexProvider( fs, graphDbDir );
+            PageCache pageCache = pageCacheRule.getPageCache( fs );
+            indexProvider = testSuite.createIndexProvider( pageCache, fs, graphDbDir );
         }
 
         public Compatibility( IndexProviderCompatibilityTestSuite testSuite, IndexDescriptor descriptor )
@@ -70,6 +70,7 @@ public class SimpleIndexPopulatorCompatibility extends IndexProviderCompatibilit
 
         // THEN
         assertEquals( failure, indexProvider.getPopulationFailure( 17 ) );
+        populator.close( false );
     }
 
     @Test
@@ -86,6 +87,7 @@ public class SimpleIndexPopulatorCompatibility extends IndexProviderCompatibilit
 
         // THEN
         assertEquals( FAILED, indexProvider.getInitialState( 17, descriptor ) );
+        populator.close( false );
     }
 
     @Test
@@ -205,6 +207,10 @@ public class SimpleIndexPopulatorCompatibility extends IndexProviderCompatibilit
                 assertEquals( OrderedPropertyValues.ofUndefined( value ), conflict.getPropertyValues() );
                 assertEquals( nodeId2, conflict.getAddedNodeId() );
             }
+            finally
+            {
+                populator.close( false );
+            }
         }
     }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.collection.Iterators;
+import org.neo4j.test.rule.DatabaseRule;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+import org.neo4j.unsafe.impl.batchimport.cache.idmapping.string.Workers;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class GroupCommitProcessIT
+{
+    private static final int THREADS = 8;
+    private static final int TRANSACTIONS_PER_THREAD = 200;
+    private static final Label LABEL = Label.label( "Label" );
+    private static final String KEY = "key";
+
+    @Rule
+    public final DatabaseRule db = new ImpermanentDatabaseRule()
+            .withSetting( GraphDatabaseSettings.group_commit_enabled, "true" );
+
+    @Test( timeout = 60_000 )
+    public void shouldCommitConcurrentTransactions() throws Exception
+    {
+        // GIVEN
+        assertThat( db.getDependencyResolver().resolveDependency( TransactionCommitProcess.class ),
+                instanceOf( GroupCommitProcess.class ) );
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().indexFor( LABEL ).on( KEY ).create();
+            tx.success();
+        }
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().awaitIndexesOnline( 1, TimeUnit.MINUTES );
+            tx.success();
+        }
+
+        // WHEN
+        Workers<Runnable> workers = new Workers<>( getClass().getSimpleName() );
+        for ( int i = 0; i < THREADS; i++ )
+        {
+            int thread = i;
+            workers.start( () ->
+            {
+                for ( int j = 0; j < TRANSACTIONS_PER_THREAD; j++ )
+                {
+                    try ( Transaction tx = db.beginTx() )
+                    {
+                        Node node = db.createNode( LABEL );
+                        node.setProperty( KEY, thread * TRANSACTIONS_PER_THREAD + j );
+                        tx.success();
+                    }
+                }
+            } );
+        }
+        workers.awaitAndThrowOnError( RuntimeException.class );
+
+        // THEN
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertEquals( THREADS * TRANSACTIONS_PER_THREAD, Iterators.count( db.findNodes( LABEL ) ) );
+            for ( int value = 0; value < THREADS * TRANSACTIONS_PER_THREAD; value++ )
+            {
+                assertEquals( 1, Iterators.count( db.findNodes( LABEL, KEY, value ) ) );
+            }
+            tx.success();
+        }
+    }
+}
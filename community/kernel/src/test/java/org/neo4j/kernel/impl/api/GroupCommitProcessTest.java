@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.neo4j.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.Commitment;
+import org.neo4j.kernel.impl.transaction.tracing.CommitEvent;
+import org.neo4j.storageengine.api.TransactionApplicationMode;
+import org.neo4j.test.OtherThreadExecutor.WorkerCommand;
+import org.neo4j.test.rule.concurrent.OtherThreadRule;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.kernel.api.exceptions.Status.Transaction.TransactionLogError;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.EXTERNAL;
+import static org.neo4j.storageengine.api.TransactionApplicationMode.INTERNAL;
+
+public class GroupCommitProcessTest
+{
+    @Rule
+    public final OtherThreadRule<Void> leader = new OtherThreadRule<>( "leader" );
+    @Rule
+    public final OtherThreadRule<Void> first = new OtherThreadRule<>( "first" );
+    @Rule
+    public final OtherThreadRule<Void> second = new OtherThreadRule<>( "second" );
+
+    private final RecordingCommitProcess delegate = new RecordingCommitProcess();
+    private final GroupCommitProcess commitProcess = new GroupCommitProcess( delegate );
+
+    @Test
+    public void shouldCommitSingleTransactionThroughDelegate() throws Exception
+    {
+        // GIVEN
+        TransactionToApply transaction = transaction();
+
+        // WHEN
+        long transactionId = commitProcess.commit( transaction, CommitEvent.NULL, INTERNAL );
+
+        // THEN
+        assertEquals( 1, transactionId );
+        assertEquals( singletonList( singletonList( transaction ) ), delegate.batches );
+    }
+
+    @Test
+    public void shouldGroupTransactionsCommittedWhileLeaderIsCommitting() throws Exception
+    {
+        // GIVEN a leader busy committing its transaction
+        delegate.blockNextCommit();
+        TransactionToApply leaderTransaction = transaction();
+        Future<Long> leaderCommit = leader.execute( commit( leaderTransaction ) );
+        delegate.awaitBlockedCommit();
+
+        // WHEN two more transactions are committed meanwhile
+        TransactionToApply firstTransaction = transaction();
+        Future<Long> firstCommit = first.execute( commit( firstTransaction ) );
+        first.get().waitUntilWaiting( details -> details.isAt( GroupCommitProcess.class, "commit" ) );
+        TransactionToApply secondTransaction = transaction();
+        Future<Long> secondCommit = second.execute( commit( secondTransaction ) );
+        second.get().waitUntilWaiting( details -> details.isAt( GroupCommitProcess.class, "commit" ) );
+        delegate.releaseBlockedCommit();
+
+        // THEN they should be committed together, in the order they arrived
+        assertEquals( 1L, leaderCommit.get().longValue() );
+        assertEquals( 2L, firstCommit.get().longValue() );
+        assertEquals( 3L, secondCommit.get().longValue() );
+        assertEquals( asList( singletonList( leaderTransaction ), asList( firstTransaction, secondTransaction ) ),
+                delegate.batches );
+
+        // and the batches of the different committers should be unlinked again afterwards
+        assertNull( firstTransaction.next() );
+        assertNull( secondTransaction.next() );
+    }
+
+    @Test
+    public void shouldKeepBatchOfMultipleTransactionsFromSameCommitterTogether() throws Exception
+    {
+        // GIVEN
+        TransactionToApply batch = transaction();
+        TransactionToApply secondInBatch = transaction();
+        batch.next( secondInBatch );
+
+        // WHEN
+        long transactionId = commitProcess.commit( batch, CommitEvent.NULL, INTERNAL );
+
+        // THEN
+        assertEquals( 2, transactionId );
+        assertEquals( singletonList( asList( batch, secondInBatch ) ), delegate.batches );
+        assertSame( secondInBatch, batch.next() );
+    }
+
+    @Test
+    public void shouldFailAllTransactionsInGroupIfCommitFails() throws Exception
+    {
+        // GIVEN a leader busy committing its transaction, and another transaction waiting
+        delegate.blockNextCommit();
+        Future<Long> leaderCommit = leader.execute( commit( transaction() ) );
+        delegate.awaitBlockedCommit();
+        Future<Long> firstCommit = first.execute( commit( transaction() ) );
+        Future<Long> secondCommit = second.execute( commit( transaction() ) );
+        first.get().waitUntilWaiting( details -> details.isAt( GroupCommitProcess.class, "commit" ) );
+        second.get().waitUntilWaiting( details -> details.isAt( GroupCommitProcess.class, "commit" ) );
+
+        // WHEN
+        delegate.failNextCommit();
+        delegate.releaseBlockedCommit();
+
+        // THEN
+        assertEquals( 1L, leaderCommit.get().longValue() );
+        assertCommitFailed( firstCommit );
+        assertCommitFailed( secondCommit );
+
+        // and subsequent commits should still go through
+        assertEquals( 2, commitProcess.commit( transaction(), CommitEvent.NULL, INTERNAL ) );
+    }
+
+    @Test
+    public void shouldNotGroupTransactionsInOtherModesThanInternal() throws Exception
+    {
+        // GIVEN a leader busy committing its transaction
+        delegate.blockNextCommit();
+        leader.execute( commit( transaction() ) );
+        delegate.awaitBlockedCommit();
+
+        // WHEN/THEN an external commit should not have to wait for the group
+        TransactionToApply transaction = transaction();
+        commitProcess.commit( transaction, CommitEvent.NULL, EXTERNAL );
+        delegate.releaseBlockedCommit();
+    }
+
+    private void assertCommitFailed( Future<Long> commit ) throws InterruptedException
+    {
+        try
+        {
+            commit.get();
+            fail( "Should have failed" );
+        }
+        catch ( ExecutionException e )
+        {
+            assertThat( e.getCause(), instanceOf( TransactionFailureException.class ) );
+            assertEquals( TransactionLogError, ((TransactionFailureException) e.getCause()).status() );
+        }
+    }
+
+    private WorkerCommand<Void,Long> commit( TransactionToApply transaction )
+    {
+        return state -> commitProcess.commit( transaction, CommitEvent.NULL, INTERNAL );
+    }
+
+    private static TransactionToApply transaction()
+    {
+        return new TransactionToApply( mock( TransactionRepresentation.class ) );
+    }
+
+    private static class RecordingCommitProcess implements TransactionCommitProcess
+    {
+        private final List<List<TransactionToApply>> batches = new CopyOnWriteArrayList<>();
+        private volatile boolean block;
+        private volatile CountDownLatch blocked;
+        private volatile CountDownLatch release;
+        private volatile boolean fail;
+        private long nextTransactionId = 1;
+
+        @Override
+        public long commit( TransactionToApply batch, CommitEvent commitEvent, TransactionApplicationMode mode )
+                throws TransactionFailureException
+        {
+            boolean failing = fail;
+            if ( block )
+            {
+                block = false;
+                blocked.countDown();
+                try
+                {
+                    release.await();
+                }
+                catch ( InterruptedException e )
+                {
+                    throw new RuntimeException( e );
+                }
+            }
+            if ( failing )
+            {
+                fail = false;
+                throw new TransactionFailureException( TransactionLogError, "Could not append" );
+            }
+
+            List<TransactionToApply> transactions = new ArrayList<>();
+            synchronized ( this )
+            {
+                for ( TransactionToApply transaction = batch; transaction != null; transaction = transaction.next() )
+                {
+                    transaction.commitment( mock( Commitment.class ), nextTransactionId++ );
+                    transactions.add( transaction );
+                }
+            }
+            batches.add( transactions );
+            return transactions.get( transactions.size() - 1 ).transactionId();
+        }
+
+        void blockNextCommit()
+        {
+            blocked = new CountDownLatch( 1 );
+            release = new CountDownLatch( 1 );
+            block = true;
+        }
+
+        void awaitBlockedCommit() throws InterruptedException
+        {
+            blocked.await();
+        }
+
+        void releaseBlockedCommit()
+        {
+            release.countDown();
+        }
+
+        void failNextCommit()
+        {
+            fail = true;
+        }
+    }
+}
@@ -618,6 +618,20 @@ public class KernelTransactionImplementationTest extends KernelTransactionTestBa
         assertFalse( tx.getReasonIfTerminated().isPresent() );
     }
 
+    @Test
+    public void shouldEstimateTxStateHeapUsage() throws Exception
+    {
+        // given
+        KernelTransactionImplementation tx = newTransaction( securityContext() );
+        assertEquals( 0L, tx.estimatedTxStateHeapUsage() );
+
+        // when
+        tx.writableTxState().nodeDoCreate( 42L );
+
+        // then
+        assertThat( tx.estimatedTxStateHeapUsage(), greaterThan( 0L ) );
+    }
+
     @Test
     public void shouldCallCloseListenerOnCloseWhenCommitting() throws Exception
     {
@@ -141,7 +141,7 @@ public class KernelTransactionTestBase
         return new KernelTransactionImplementation( operationContainer, schemaWriteGuard,
                 hooks, null, null, headerInformationFactory, commitProcess, transactionMonitor, legacyIndexStateSupplier,
                 txPool, clock, TransactionTracer.NULL, LockTracer.NONE, PageCursorTracerSupplier.NULL, storageEngine,
-                new CanWrite() );
+                new CanWrite(), 0 );
     }
 
     public class CapturingCommitProcess implements TransactionCommitProcess
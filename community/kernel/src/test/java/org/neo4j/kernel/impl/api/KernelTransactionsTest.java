@@ -557,7 +557,7 @@ public class KernelTransactionsTest
                 null, statementOperationsContianer, null, DEFAULT,
                 commitProcess, null, null, new TransactionHooks(), mock( TransactionMonitor.class ),
                 availabilityGuard,
-                tracers, storageEngine, new Procedures(), transactionIdStore, clock, new CanWrite() );
+                tracers, storageEngine, new Procedures(), transactionIdStore, clock, new CanWrite(), 0 );
     }
 
     private static TestKernelTransactions createTestTransactions( StorageEngine storageEngine,
@@ -624,7 +624,7 @@ public class KernelTransactionsTest
                     txHeaderFactory, transactionCommitProcess, indexConfigStore, legacyIndexProviderLookup, hooks,
                     transactionMonitor, availabilityGuard, tracers, storageEngine, procedures, transactionIdStore,
                     clock,
-                    accessCapability );
+                    accessCapability, 0 );
         }
 
         @Override
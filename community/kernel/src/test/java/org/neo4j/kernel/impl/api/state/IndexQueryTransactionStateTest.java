@@ -23,7 +23,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
@@ -46,6 +48,7 @@ import org.neo4j.storageengine.api.NodeItem;
 import org.neo4j.storageengine.api.SchemaResources;
 import org.neo4j.storageengine.api.StoreReadLayer;
 import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
 import org.neo4j.storageengine.api.txstate.PropertyContainerState;
 import org.neo4j.storageengine.api.txstate.ReadableTransactionState;
 
@@ -53,10 +56,15 @@ import static java.util.Arrays.asList;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyVararg;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.helpers.collection.Iterators.asSet;
+import static org.neo4j.helpers.collection.MapUtil.genericMap;
 import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_NODE;
 import static org.neo4j.kernel.api.properties.Property.intProperty;
 import static org.neo4j.kernel.api.properties.Property.stringProperty;
@@ -347,6 +355,64 @@ public class IndexQueryTransactionStateTest
         assertNoSuchNode( result );
     }
 
+    @Test
+    public void shouldTakeValuesFromIndexWithoutTransactionChanges() throws Exception
+    {
+        // Given
+        when( indexReader.queryWithValues( withValue ) ).thenReturn( nodesWithValues( value, 2L, 3L ) );
+
+        // When
+        NodeValueIterator result = txContext.indexQueryWithValues( state, indexDescriptor, withValue );
+
+        // Then
+        assertThat( asNodeValueMap( result ), equalTo( genericMap( 2L, value, 3L, value ) ) );
+        verify( store, never() ).nodeGetSingleCursor( anyLong(), any( ReadableTransactionState.class ) );
+    }
+
+    @Test
+    public void shouldReadValuesFromNodesWhenIndexDoesNotProvideThem() throws Exception
+    {
+        // Given
+        when( indexReader.queryWithValues( withValue ) ).thenReturn( null );
+        when( indexReader.query( withValue ) ).then( answerAsPrimitiveLongIteratorFrom( asList( 1L, 3L ) ) );
+        when( store.nodeGetSingleCursor( eq( 1L ), any( ReadableTransactionState.class ) ) )
+                .thenReturn( asNodeCursor( 1L, 40, labels( labelId ) ) );
+        when( store.nodeGetSingleCursor( eq( 3L ), any( ReadableTransactionState.class ) ) )
+                .thenReturn( asNodeCursor( 3L, 41, labels( labelId ) ) );
+        mockStoreProperty();
+
+        // When
+        NodeValueIterator result = txContext.indexQueryWithValues( state, indexDescriptor, withValue );
+
+        // Then
+        assertThat( asNodeValueMap( result ), equalTo( genericMap( 1L, value, 3L, value ) ) );
+    }
+
+    @Test
+    public void shouldReadValuesFromNodesWithTransactionChanges() throws Exception
+    {
+        // Given
+        long deletedNodeId = 2L;
+        when( indexReader.queryWithValues( withValue ) ).thenReturn( nodesWithValues( value, 1L, 2L, 3L ) );
+        when( indexReader.query( withValue ) ).then( answerAsPrimitiveLongIteratorFrom( asList( 1L, 2L, 3L ) ) );
+        when( store.nodeGetSingleCursor( eq( deletedNodeId ), any( ReadableTransactionState.class ) ) )
+                .thenReturn( asNodeCursor( deletedNodeId ) );
+        when( store.nodeGetSingleCursor( eq( 1L ), any( ReadableTransactionState.class ) ) )
+                .thenReturn( asNodeCursor( 1L, 40, labels( labelId ) ) );
+        when( store.nodeGetSingleCursor( eq( 3L ), any( ReadableTransactionState.class ) ) )
+                .thenReturn( asNodeCursor( 3L, 41, labels( labelId ) ) );
+        mockStoreProperty();
+
+        txContext.nodeDelete( state, deletedNodeId );
+
+        // When
+        NodeValueIterator result = txContext.indexQueryWithValues( state, indexDescriptor, withValue );
+
+        // Then
+        assertThat( asNodeValueMap( result ), equalTo( genericMap( 1L, value, 3L, value ) ) );
+        verify( indexReader, never() ).queryWithValues( anyVararg() );
+    }
+
     private void mockStoreProperty()
     {
         when( store.nodeGetProperties( any( NodeItem.class ), any( PropertyContainerState.class ) ) )
@@ -360,6 +426,42 @@ public class IndexQueryTransactionStateTest
         assertThat( node, equalTo( NO_SUCH_NODE ) );
     }
 
+    private static NodeValueIterator nodesWithValues( Object value, long... nodeIds )
+    {
+        PrimitiveLongIterator ids = PrimitiveLongCollections.iterator( nodeIds );
+        return new NodeValueIterator()
+        {
+            @Override
+            public Object value()
+            {
+                return value;
+            }
+
+            @Override
+            public boolean hasNext()
+            {
+                return ids.hasNext();
+            }
+
+            @Override
+            public long next()
+            {
+                return ids.next();
+            }
+        };
+    }
+
+    private static Map<Long,Object> asNodeValueMap( NodeValueIterator nodes )
+    {
+        Map<Long,Object> result = new HashMap<>();
+        while ( nodes.hasNext() )
+        {
+            long nodeId = nodes.next();
+            result.put( nodeId, nodes.value() );
+        }
+        return result;
+    }
+
     private static PrimitiveLongResourceIterator asPrimitiveResourceIterator( long... values )
     {
         return PrimitiveLongCollections.resourceIterator( PrimitiveLongCollections.iterator( values ), () -> {} );
@@ -42,6 +42,7 @@ import org.neo4j.kernel.api.schema.index.IndexDescriptor;
 import org.neo4j.kernel.api.schema.index.IndexDescriptorFactory;
 import org.neo4j.kernel.api.txstate.TransactionState;
 import org.neo4j.storageengine.api.Direction;
+import org.neo4j.storageengine.api.txstate.NodeState;
 import org.neo4j.storageengine.api.txstate.ReadableDiffSets;
 import org.neo4j.storageengine.api.txstate.TxStateVisitor;
 import org.neo4j.test.rule.RandomRule;
@@ -1395,6 +1396,232 @@ public class TxStateTest
 
     //endregion
 
+    //region heap usage
+
+    @Test
+    public void shouldEstimateNoHeapUsageForEmptyState() throws Exception
+    {
+        assertEquals( 0, state.estimatedHeapUsage() );
+    }
+
+    @Test
+    public void shouldEstimateHeapUsageGrowingWithNumberOfChangedEntities() throws Exception
+    {
+        // GIVEN
+        for ( long nodeId = 0; nodeId < 100; nodeId++ )
+        {
+            state.nodeDoCreate( nodeId );
+        }
+        long usageAfterCreatingNodes = state.estimatedHeapUsage();
+
+        // WHEN
+        for ( long nodeId = 0; nodeId < 100; nodeId++ )
+        {
+            state.nodeDoAddLabel( 1, nodeId );
+        }
+
+        // THEN
+        assertTrue( usageAfterCreatingNodes >= 100 * TxState.BOXED_ENTRY_BYTES );
+        assertTrue( state.estimatedHeapUsage() >= usageAfterCreatingNodes +
+                                                  100 * (TxState.STATE_OBJECT_BYTES + TxState.BOXED_ENTRY_BYTES) );
+    }
+
+    @Test
+    public void shouldEstimateHeapUsageGrowingWithNumberOfChangedProperties() throws Exception
+    {
+        // GIVEN
+        state.nodeDoAddProperty( 1, stringProperty( 1, "value" ) );
+        long usage = state.estimatedHeapUsage();
+
+        // WHEN
+        for ( int propertyKeyId = 2; propertyKeyId <= 10; propertyKeyId++ )
+        {
+            state.nodeDoAddProperty( 1, stringProperty( propertyKeyId, "value" ) );
+        }
+
+        // THEN
+        assertEquals( usage + 9 * TxState.BOXED_ENTRY_BYTES, state.estimatedHeapUsage() );
+    }
+
+    @Test
+    public void shouldMoveIdsOfDeletedEntitiesOffHeapPastThreshold() throws Exception
+    {
+        // GIVEN
+        TxState txState = new TxState( 1 );
+        try
+        {
+            int count = TxState.FIRST_OFF_HEAP_CHECK;
+            for ( long nodeId = 0; nodeId < count - 1; nodeId++ )
+            {
+                txState.nodeDoDelete( nodeId );
+            }
+            assertFalse( txState.isOffHeap() );
+            long usage = txState.estimatedHeapUsage();
+
+            // WHEN
+            txState.nodeDoDelete( count - 1 );
+
+            // THEN
+            assertTrue( txState.isOffHeap() );
+            assertTrue( txState.estimatedHeapUsage() < usage );
+            assertEquals( count, txState.addedAndRemovedNodes().getRemoved().size() );
+            for ( long nodeId = 0; nodeId < count; nodeId++ )
+            {
+                assertTrue( txState.nodeIsDeletedInThisTx( nodeId ) );
+                assertTrue( txState.addedAndRemovedNodes().isRemoved( nodeId ) );
+            }
+        }
+        finally
+        {
+            txState.close();
+        }
+    }
+
+    @Test
+    public void shouldNotMoveOffHeapBelowThreshold() throws Exception
+    {
+        // GIVEN
+        TxState txState = new TxState( Long.MAX_VALUE );
+
+        // WHEN
+        for ( long nodeId = 0; nodeId < TxState.FIRST_OFF_HEAP_CHECK * 4; nodeId++ )
+        {
+            txState.nodeDoDelete( nodeId );
+        }
+
+        // THEN
+        assertFalse( txState.isOffHeap() );
+        txState.close();
+    }
+
+    @Test
+    public void shouldSeeDeletedEntitiesInReadsAndDiffsAfterMovingOffHeap() throws Exception
+    {
+        // GIVEN
+        TxState txState = new TxState( 1 );
+        try
+        {
+            long createdNodeId = 1_000_000;
+            txState.nodeDoCreate( createdNodeId );
+            txState.relationshipDoDelete( 7, 1, 100, 101 );
+            for ( long nodeId = 0; nodeId < TxState.FIRST_OFF_HEAP_CHECK; nodeId++ )
+            {
+                txState.nodeDoDelete( nodeId );
+            }
+            assertTrue( txState.isOffHeap() );
+
+            // WHEN
+            txState.nodeDoDelete( createdNodeId );
+            txState.nodeDoDelete( 5_000 );
+            txState.relationshipDoDelete( 8, 1, 100, 101 );
+
+            // THEN
+            assertTrue( txState.nodeIsDeletedInThisTx( createdNodeId ) );
+            assertFalse( txState.nodeIsAddedInThisTx( createdNodeId ) );
+            assertTrue( txState.nodeIsDeletedInThisTx( 5_000 ) );
+            assertFalse( txState.nodeIsDeletedInThisTx( 6_000 ) );
+            assertTrue( txState.relationshipIsDeletedInThisTx( 7 ) );
+            assertTrue( txState.relationshipIsDeletedInThisTx( 8 ) );
+            assertEquals( asSet( 7L, 8L ), txState.addedAndRemovedRelationships().getRemoved() );
+
+            Set<Long> deletedNodes = new HashSet<>();
+            Set<Long> deletedRelationships = new HashSet<>();
+            txState.accept( new TxStateVisitor.Adapter()
+            {
+                @Override
+                public void visitCreatedNode( long id )
+                {
+                    fail( "Should not create any node" );
+                }
+
+                @Override
+                public void visitDeletedNode( long id )
+                {
+                    deletedNodes.add( id );
+                }
+
+                @Override
+                public void visitDeletedRelationship( long id )
+                {
+                    deletedRelationships.add( id );
+                }
+            } );
+            assertEquals( TxState.FIRST_OFF_HEAP_CHECK + 1, deletedNodes.size() );
+            assertTrue( deletedNodes.contains( 5_000L ) );
+            assertEquals( asSet( 7L, 8L ), deletedRelationships );
+        }
+        finally
+        {
+            txState.close();
+        }
+    }
+
+    @Test
+    public void shouldReleaseOffHeapStateOnClose() throws Exception
+    {
+        // GIVEN
+        TxState txState = new TxState( 1 );
+        for ( long nodeId = 0; nodeId < TxState.FIRST_OFF_HEAP_CHECK; nodeId++ )
+        {
+            txState.nodeDoDelete( nodeId );
+        }
+        assertTrue( txState.isOffHeap() );
+
+        // WHEN
+        txState.close();
+
+        // THEN
+        assertFalse( txState.isOffHeap() );
+        assertFalse( txState.nodeIsDeletedInThisTx( 0 ) );
+        assertTrue( txState.addedAndRemovedNodes().getRemoved().isEmpty() );
+    }
+
+    @Test
+    public void shouldEstimateLowerHeapUsageAfterDeletingCreatedNodes() throws Exception
+    {
+        // GIVEN
+        for ( long nodeId = 0; nodeId < 100; nodeId++ )
+        {
+            state.nodeDoCreate( nodeId );
+            state.nodeDoAddLabel( 1, nodeId );
+        }
+        long usage = state.estimatedHeapUsage();
+
+        // WHEN
+        for ( long nodeId = 0; nodeId < 100; nodeId++ )
+        {
+            state.nodeDoDelete( nodeId );
+        }
+
+        // THEN
+        assertTrue( state.estimatedHeapUsage() < usage );
+        assertFalse( state.modifiedNodes().iterator().hasNext() );
+    }
+
+    @Test
+    public void shouldSeeAllModifiedNodes() throws Exception
+    {
+        // GIVEN
+        Set<Long> expected = new HashSet<>();
+        for ( long nodeId = 0; nodeId < 1_000; nodeId += 3 )
+        {
+            state.nodeDoAddLabel( 1, nodeId );
+            expected.add( nodeId );
+        }
+
+        // WHEN
+        Set<Long> modified = new HashSet<>();
+        for ( NodeState node : state.modifiedNodes() )
+        {
+            modified.add( node.getId() );
+        }
+
+        // THEN
+        assertEquals( expected, modified );
+    }
+
+    //endregion
+
     abstract class VisitationOrder extends TxStateVisitor.Adapter
     {
         private final Set<String> visitMethods = new HashSet<>();
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexAccessor;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.index.InternalIndexState;
+import org.neo4j.kernel.api.index.PropertyAccessor;
+import org.neo4j.kernel.api.schema.IndexQuery;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.kernel.api.schema.index.IndexDescriptorFactory;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.storageengine.api.schema.IndexReader;
+import org.neo4j.storageengine.api.schema.IndexSample;
+import org.neo4j.storageengine.api.schema.NodeValueIterator;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.TestDirectory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.junit.rules.RuleChain.outerRule;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.asArray;
+
+public class NativeSchemaIndexProviderTest
+{
+    private static final long INDEX_ID = 1;
+
+    private final TestDirectory directory = TestDirectory.testDirectory( getClass() );
+    private final PageCacheRule pageCacheRule = new PageCacheRule();
+    @Rule
+    public final RuleChain rules = outerRule( directory ).around( pageCacheRule );
+
+    private final IndexDescriptor descriptor = IndexDescriptorFactory.forLabel( 0, 0 );
+    private final IndexDescriptor uniqueDescriptor = IndexDescriptorFactory.uniqueForLabel( 0, 0 );
+    private final IndexSamplingConfig samplingConfig = new IndexSamplingConfig( Config.defaults() );
+    private NumberSchemaIndexProvider numberProvider;
+    private StringSchemaIndexProvider stringProvider;
+
+    @Before
+    public void before()
+    {
+        FileSystemAbstraction fs = new DefaultFileSystemAbstraction();
+        PageCache pageCache = pageCacheRule.getPageCache( fs );
+        numberProvider = new NumberSchemaIndexProvider( pageCache, fs, directory.absolutePath(), false );
+        stringProvider = new StringSchemaIndexProvider( pageCache, fs, directory.absolutePath(), false );
+    }
+
+    @Test
+    public void shouldPopulateAndQueryNumbers() throws Exception
+    {
+        // GIVEN
+        populate( numberProvider, descriptor, 5L, 1.5d, -3, 5L, (byte) 2 );
+
+        // WHEN/THEN
+        assertEquals( InternalIndexState.ONLINE, numberProvider.getInitialState( INDEX_ID, descriptor ) );
+        try ( IndexAccessor accessor = numberProvider.getOnlineAccessor( INDEX_ID, descriptor, samplingConfig );
+              IndexReader reader = accessor.newReader() )
+        {
+            assertQuery( reader, IndexQuery.exact( 0, 5 ), 0, 3 );
+            assertQuery( reader, IndexQuery.exact( 0, 5.0d ), 0, 3 );
+            assertQuery( reader, IndexQuery.range( 0, 1.5d, true, 5, false ), 1, 4 );
+            assertQuery( reader, IndexQuery.range( 0, null, false, 2, true ), 2, 1, 4 );
+            assertQuery( reader, IndexQuery.range( 0, 5, false, 1, false ) );
+            assertQuery( reader, IndexQuery.exists( 0 ), 2, 1, 4, 0, 3 );
+            assertQuery( reader, IndexQuery.exact( 0, "5" ) );
+            assertEquals( 1, reader.countIndexedNodes( 3, 5L ) );
+            assertEquals( 0, reader.countIndexedNodes( 3, 1.5d ) );
+            assertEquals( new IndexSample( 5, 4, 5 ), reader.createSampler().sampleIndex() );
+        }
+    }
+
+    @Test
+    public void shouldPopulateAndQueryStrings() throws Exception
+    {
+        // GIVEN
+        populate( stringProvider, descriptor, "apple", "banana", "apricot", "", "b" );
+
+        // WHEN/THEN
+        try ( IndexAccessor accessor = stringProvider.getOnlineAccessor( INDEX_ID, descriptor, samplingConfig );
+              IndexReader reader = accessor.newReader() )
+        {
+            assertQuery( reader, IndexQuery.exact( 0, "banana" ), 1 );
+            assertQuery( reader, IndexQuery.stringPrefix( 0, "ap" ), 0, 2 );
+            assertQuery( reader, IndexQuery.stringPrefix( 0, "" ), 3, 0, 2, 4, 1 );
+            assertQuery( reader, IndexQuery.range( 0, "apricot", false, "banana", true ), 4, 1 );
+            assertQuery( reader, IndexQuery.stringSuffix( 0, "ana" ), 1 );
+            assertQuery( reader, IndexQuery.stringContains( 0, "ric" ), 2 );
+        }
+    }
+
+    @Test
+    public void shouldProvideIndexedValuesAsStored() throws Exception
+    {
+        // GIVEN
+        populate( numberProvider, descriptor, 5L, 1.5d, -3, (byte) 2, 2.5f );
+        populate( stringProvider, descriptor, "apple", "banana" );
+
+        // WHEN/THEN
+        try ( IndexAccessor accessor = numberProvider.getOnlineAccessor( INDEX_ID, descriptor, samplingConfig );
+              IndexReader reader = accessor.newReader() )
+        {
+            assertQueryWithValues( reader, IndexQuery.exists( 0 ),
+                    new long[]{2, 1, 3, 4, 0}, -3, 1.5d, (byte) 2, 2.5f, 5L );
+            assertQueryWithValues( reader, IndexQuery.range( 0, 2, true, 5, false ), new long[]{3, 4}, (byte) 2, 2.5f );
+        }
+        try ( IndexAccessor accessor = stringProvider.getOnlineAccessor( INDEX_ID, descriptor, samplingConfig );
+              IndexReader reader = accessor.newReader() )
+        {
+            assertQueryWithValues( reader, IndexQuery.exact( 0, "banana" ), new long[]{1}, "banana" );
+            assertQueryWithValues( reader, IndexQuery.exact( 0, 5 ), new long[0] );
+        }
+    }
+
+    @Test
+    public void shouldApplyUpdatesToOnlineIndex() throws Exception
+    {
+        // GIVEN
+        populate( numberProvider, descriptor, 1, 2, 3 );
+
+        // WHEN
+        try ( IndexAccessor accessor = numberProvider.getOnlineAccessor( INDEX_ID, descriptor, samplingConfig ) )
+        {
+            try ( IndexUpdater updater = accessor.newUpdater( IndexUpdateMode.ONLINE ) )
+            {
+                updater.process( IndexEntryUpdate.add( 3, descriptor, 4 ) );
+                updater.process( IndexEntryUpdate.change( 0, descriptor, 1, 10 ) );
+                updater.process( IndexEntryUpdate.remove( 1, descriptor, 2 ) );
+                updater.remove( PrimitiveLongCollections.setOf( 3 ) );
+            }
+
+            // THEN
+            try ( IndexReader reader = accessor.newReader() )
+            {
+                assertQuery( reader, IndexQuery.exists( 0 ), 2, 0 );
+            }
+        }
+    }
+
+    @Test
+    public void shouldDetectUniquenessViolationDuringPopulation() throws Exception
+    {
+        // GIVEN
+        IndexPopulator populator = numberProvider.getPopulator( INDEX_ID, uniqueDescriptor, samplingConfig );
+        populator.create();
+        populator.add( Arrays.asList( IndexEntryUpdate.add( 0, uniqueDescriptor, 1 ),
+                IndexEntryUpdate.add( 1, uniqueDescriptor, 2 ), IndexEntryUpdate.add( 2, uniqueDescriptor, 1.0d ) ) );
+
+        // WHEN
+        try
+        {
+            populator.verifyDeferredConstraints( mock( PropertyAccessor.class ) );
+            fail( "Should have failed" );
+        }
+        catch ( IndexEntryConflictException e )
+        {
+            // THEN
+            assertEquals( 0, e.getExistingNodeId() );
+            assertEquals( 2, e.getAddedNodeId() );
+        }
+        finally
+        {
+            populator.close( false );
+        }
+        assertEquals( InternalIndexState.POPULATING, numberProvider.getInitialState( INDEX_ID, uniqueDescriptor ) );
+    }
+
+    @Test
+    public void shouldRememberPopulationFailure() throws Exception
+    {
+        // GIVEN
+        IndexPopulator populator = numberProvider.getPopulator( INDEX_ID, descriptor, samplingConfig );
+        populator.create();
+
+        // WHEN
+        populator.markAsFailed( "Ran out of coffee" );
+        populator.close( false );
+
+        // THEN
+        assertEquals( InternalIndexState.FAILED, numberProvider.getInitialState( INDEX_ID, descriptor ) );
+        assertEquals( "Ran out of coffee", numberProvider.getPopulationFailure( INDEX_ID ) );
+    }
+
+    private void populate( NativeSchemaIndexProvider<?> provider, IndexDescriptor descriptor, Object... values )
+            throws Exception
+    {
+        IndexPopulator populator = provider.getPopulator( INDEX_ID, descriptor, samplingConfig );
+        populator.create();
+        IndexEntryUpdate<?>[] updates = new IndexEntryUpdate<?>[values.length];
+        for ( int i = 0; i < values.length; i++ )
+        {
+            updates[i] = IndexEntryUpdate.add( i, descriptor, values[i] );
+        }
+        populator.add( Arrays.asList( updates ) );
+        populator.close( true );
+    }
+
+    private static void assertQuery( IndexReader reader, IndexQuery query, long... expectedNodes ) throws Exception
+    {
+        assertArrayEquals( expectedNodes, asArray( reader.query( query ) ) );
+    }
+
+    private static void assertQueryWithValues( IndexReader reader, IndexQuery query, long[] expectedNodes,
+            Object... expectedValues ) throws Exception
+    {
+        NodeValueIterator nodes = reader.queryWithValues( query );
+        List<Long> actualNodes = new ArrayList<>();
+        List<Object> actualValues = new ArrayList<>();
+        while ( nodes.hasNext() )
+        {
+            actualNodes.add( nodes.next() );
+            actualValues.add( nodes.value() );
+        }
+        assertArrayEquals( expectedNodes, actualNodes.stream().mapToLong( Long::longValue ).toArray() );
+        assertEquals( Arrays.asList( expectedValues ), actualValues );
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.test.rule.RandomRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SchemaLayoutTest
+{
+    @Rule
+    public final RandomRule random = new RandomRule();
+
+    @Test
+    public void shouldOrderStringKeysLikeStrings() throws Exception
+    {
+        // GIVEN
+        StringLayout layout = new StringLayout();
+        List<String> strings = new ArrayList<>();
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            String string = randomString();
+            if ( StringSchemaKey.supports( string ) )
+            {
+                strings.add( string );
+            }
+        }
+
+        // WHEN/THEN
+        for ( int i = 1; i < strings.size(); i++ )
+        {
+            StringSchemaKey first = stringKey( strings.get( i - 1 ) );
+            StringSchemaKey second = stringKey( strings.get( i ) );
+            assertEquals( strings.get( i - 1 ), first.asValue() );
+            assertEquals( Integer.signum( strings.get( i - 1 ).compareTo( strings.get( i ) ) ),
+                    Integer.signum( layout.compareValue( first, second ) ) );
+        }
+    }
+
+    @Test
+    public void shouldPlaceStringPrefixSuccessorAfterAllStringsWithThatPrefix() throws Exception
+    {
+        // GIVEN
+        StringLayout layout = new StringLayout();
+        StringSchemaKey successor = layout.newKey();
+        assertTrue( successor.fromPrefix( 0, "ab" ) );
+        successor.toPrefixSuccessor();
+
+        // THEN
+        assertTrue( layout.compare( stringKey( "ab" ), successor ) < 0 );
+        assertTrue( layout.compare( stringKey( "ab\uFFFF\uFFFF" ), successor ) < 0 );
+        assertTrue( layout.compare( stringKey( "ac" ), successor ) > 0 );
+    }
+
+    @Test
+    public void shouldNotSupportTooLongStrings() throws Exception
+    {
+        StringBuilder string = new StringBuilder();
+        for ( int i = 0; i < StringSchemaKey.MAX_BYTES; i++ )
+        {
+            string.append( 'a' );
+        }
+        assertTrue( StringSchemaKey.supports( string.toString() ) );
+        assertFalse( StringSchemaKey.supports( string.append( 'a' ).toString() ) );
+        assertFalse( StringSchemaKey.supports( 10 ) );
+    }
+
+    @Test
+    public void shouldOrderMixedNumbersByValue() throws Exception
+    {
+        // GIVEN
+        NumberLayout layout = new NumberLayout();
+        Number[] ordered = {Double.NEGATIVE_INFINITY, Long.MIN_VALUE, -1.5f, (byte) -1, 0, 0.5d, (short) 1, 1.0000001d,
+                Long.MAX_VALUE - 1, Long.MAX_VALUE, Double.POSITIVE_INFINITY};
+
+        // WHEN/THEN
+        NumberSchemaKey lowest = layout.newKey();
+        lowest.initAsLowest();
+        NumberSchemaKey highest = layout.newKey();
+        highest.initAsHighest();
+        for ( int i = 0; i < ordered.length; i++ )
+        {
+            NumberSchemaKey key = numberKey( ordered[i] );
+            assertTrue( layout.compare( lowest, key ) < 0 );
+            assertTrue( layout.compare( key, highest ) < 0 );
+            assertEquals( 0, layout.compareValue( key, numberKey( ordered[i] ) ) );
+            if ( i > 0 )
+            {
+                assertTrue( ordered[i - 1] + " < " + ordered[i],
+                        layout.compareValue( numberKey( ordered[i - 1] ), key ) < 0 );
+            }
+        }
+    }
+
+    private String randomString()
+    {
+        // Mix of one, two and three byte characters
+        int[] characterRanges = {0x80, 0x800, 0x10000};
+        char[] chars = new char[random.nextInt( 15 )];
+        for ( int i = 0; i < chars.length; i++ )
+        {
+            chars[i] = (char) random.nextInt( characterRanges[random.nextInt( characterRanges.length )] );
+        }
+        return new String( chars );
+    }
+
+    private static StringSchemaKey stringKey( String string )
+    {
+        StringSchemaKey key = new StringSchemaKey();
+        key.from( 0, string );
+        return key;
+    }
+
+    private static NumberSchemaKey numberKey( Number number )
+    {
+        NumberSchemaKey key = new NumberSchemaKey();
+        key.from( 0, number );
+        return key;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema.fusion;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.index.IndexUpdater;
+import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.kernel.api.schema.index.IndexDescriptorFactory;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class FusionIndexUpdaterTest
+{
+    private final IndexDescriptor descriptor = IndexDescriptorFactory.forLabel( 0, 0 );
+    private IndexUpdater numberUpdater;
+    private IndexUpdater stringUpdater;
+    private IndexUpdater fallbackUpdater;
+    private FusionIndexUpdater fusionIndexUpdater;
+
+    @Before
+    public void setup()
+    {
+        numberUpdater = mock( IndexUpdater.class );
+        stringUpdater = mock( IndexUpdater.class );
+        fallbackUpdater = mock( IndexUpdater.class );
+        fusionIndexUpdater = new FusionIndexUpdater( numberUpdater, stringUpdater, fallbackUpdater );
+    }
+
+    @Test
+    public void addShouldGoToSelectedPart() throws Exception
+    {
+        // WHEN
+        IndexEntryUpdate<IndexDescriptor> number = IndexEntryUpdate.add( 0, descriptor, 1 );
+        IndexEntryUpdate<IndexDescriptor> string = IndexEntryUpdate.add( 1, descriptor, "string" );
+        IndexEntryUpdate<IndexDescriptor> other = IndexEntryUpdate.add( 2, descriptor, true );
+        fusionIndexUpdater.process( number );
+        fusionIndexUpdater.process( string );
+        fusionIndexUpdater.process( other );
+
+        // THEN
+        verify( numberUpdater ).process( number );
+        verify( stringUpdater ).process( string );
+        verify( fallbackUpdater ).process( other );
+    }
+
+    @Test
+    public void changeWithinPartShouldStayInThatPart() throws Exception
+    {
+        // WHEN
+        IndexEntryUpdate<IndexDescriptor> change = IndexEntryUpdate.change( 0, descriptor, 1, 2.5d );
+        fusionIndexUpdater.process( change );
+
+        // THEN
+        verify( numberUpdater ).process( change );
+        verifyZeroInteractions( stringUpdater, fallbackUpdater );
+    }
+
+    @Test
+    public void changeAcrossPartsShouldRemoveFromOldAndAddToNew() throws Exception
+    {
+        // WHEN
+        fusionIndexUpdater.process( IndexEntryUpdate.change( 0, descriptor, "string", 1 ) );
+
+        // THEN
+        verify( stringUpdater ).process( IndexEntryUpdate.remove( 0, descriptor, "string" ) );
+        verify( numberUpdater ).process( IndexEntryUpdate.add( 0, descriptor, 1 ) );
+        verifyZeroInteractions( fallbackUpdater );
+    }
+
+    @Test
+    public void closeShouldCloseAllParts() throws Exception
+    {
+        // WHEN
+        fusionIndexUpdater.close();
+
+        // THEN
+        verify( numberUpdater ).close();
+        verify( stringUpdater ).close();
+        verify( fallbackUpdater ).close();
+    }
+}
@@ -0,0 +1,487 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.id;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.neo4j.kernel.impl.store.InvalidIdGeneratorException;
+import org.neo4j.kernel.impl.store.id.configuration.CommunityIdTypeConfigurationProvider;
+import org.neo4j.kernel.impl.store.id.validation.IdCapacityExceededException;
+import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConcurrentIdGeneratorTest
+{
+    private static final int RANGE_SIZE = 10;
+
+    @Rule
+    public final EphemeralFileSystemRule fsr = new EphemeralFileSystemRule();
+    private final File file = new File( "ids" );
+
+    @Test
+    public void shouldAllocateSequentialIdsFromSingleThread() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator = open( false, 0 );
+
+        // WHEN/THEN
+        for ( long i = 0; i < RANGE_SIZE * 3 + 5; i++ )
+        {
+            assertEquals( i, idGenerator.nextId() );
+        }
+        idGenerator.close();
+    }
+
+    @Test
+    public void shouldGiveBackUnusedRangeAtTopOfIdSpaceOnClose() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator = open( false, 0 );
+        idGenerator.nextId();
+        idGenerator.nextId();
+
+        // WHEN
+        idGenerator.close();
+
+        // THEN
+        assertEquals( 2, IdGeneratorImpl.readHighId( fsr.get(), file ) );
+        IdGenerator reopened = open( false, 0 );
+        assertEquals( 0, reopened.getDefragCount() );
+        assertEquals( 2, reopened.nextId() );
+        reopened.close();
+    }
+
+    @Test
+    public void shouldFreeUnusedIdsOfRangesNotAtTopOfIdSpaceOnClose() throws Exception
+    {
+        // GIVEN a range reserved by another thread, followed by a range of this thread
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator = open( false, 0 );
+        long otherThreadId = runInOtherThread( idGenerator::nextId );
+        long id = idGenerator.nextId();
+        idGenerator.nextId();
+        assertEquals( 0, otherThreadId );
+        assertEquals( RANGE_SIZE, id );
+
+        // WHEN
+        idGenerator.close();
+
+        // THEN the other range is freed and the top range given back
+        assertEquals( RANGE_SIZE + 2, IdGeneratorImpl.readHighId( fsr.get(), file ) );
+        IdGenerator reopened = open( false, 0 );
+        assertEquals( RANGE_SIZE - 1, reopened.getDefragCount() );
+        Set<Long> ids = new HashSet<>();
+        for ( int i = 0; i < RANGE_SIZE - 1; i++ )
+        {
+            ids.add( reopened.nextId() );
+        }
+        for ( long expected = 1; expected < RANGE_SIZE; expected++ )
+        {
+            assertTrue( ids.contains( expected ) );
+        }
+        assertEquals( RANGE_SIZE + 2, reopened.nextId() );
+        reopened.close();
+    }
+
+    @Test
+    public void shouldAllocateUniqueIdsFromConcurrentThreads() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator = open( true, 0 );
+        int threads = 8;
+        int idsPerThread = 10_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        // WHEN
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for ( int t = 0; t < threads; t++ )
+            {
+                futures.add( executor.submit( () ->
+                {
+                    for ( int i = 0; i < idsPerThread; i++ )
+                    {
+                        long id = idGenerator.nextId();
+                        assertTrue( "Id " + id + " allocated twice", ids.add( id ) );
+                        if ( i % 3 == 0 )
+                        {
+                            ids.remove( id );
+                            idGenerator.freeId( id );
+                        }
+                    }
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        // THEN
+        assertEquals( ids.size(), idGenerator.getNumberOfIdsInUse() );
+        idGenerator.close();
+    }
+
+    @Test
+    public void shouldReuseFreedIdsInSameSessionWithAggressiveReuse() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator = open( true, 0 );
+        long id = idGenerator.nextId();
+        idGenerator.nextId();
+
+        // WHEN
+        idGenerator.freeId( id );
+
+        // THEN
+        assertEquals( 1, idGenerator.getDefragCount() );
+        assertEquals( id, idGenerator.nextId() );
+        assertEquals( 0, idGenerator.getDefragCount() );
+        idGenerator.close();
+    }
+
+    @Test
+    public void shouldNotReuseFreedIdsUntilReopenedWithoutAggressiveReuse() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator = open( false, 0 );
+        long id = idGenerator.nextId();
+        idGenerator.nextId();
+
+        // WHEN
+        idGenerator.freeId( id );
+
+        // THEN
+        assertNotEquals( id, idGenerator.nextId() );
+        idGenerator.close();
+        IdGenerator reopened = open( false, 0 );
+        assertEquals( id, reopened.nextId() );
+        reopened.close();
+    }
+
+    @Test
+    public void shouldKeepManyFreedIdsAcrossSessions() throws Exception
+    {
+        // GIVEN more freed ids than fit in memory
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator = open( true, 0 );
+        int count = 1_000;
+        for ( int i = 0; i < count; i++ )
+        {
+            idGenerator.nextId();
+        }
+        for ( int i = 0; i < count; i += 2 )
+        {
+            idGenerator.freeId( i );
+        }
+        assertEquals( count / 2, idGenerator.getDefragCount() );
+
+        // WHEN
+        idGenerator.close();
+        IdGenerator reopened = open( true, 0 );
+
+        // THEN
+        assertEquals( count / 2, reopened.getDefragCount() );
+        Set<Long> ids = new HashSet<>();
+        for ( int i = 0; i < count / 2; i++ )
+        {
+            long id = reopened.nextId();
+            assertEquals( 0, id % 2 );
+            assertTrue( ids.add( id ) );
+        }
+        assertEquals( count, reopened.nextId() );
+        reopened.close();
+    }
+
+    @Test
+    public void shouldBeReadableByIdGeneratorImpl() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator = open( false, 0 );
+        for ( int i = 0; i < 5; i++ )
+        {
+            idGenerator.nextId();
+        }
+        idGenerator.freeId( 3 );
+
+        // WHEN
+        idGenerator.close();
+
+        // THEN
+        IdGenerator impl = new IdGeneratorImpl( fsr.get(), file, 100, 1000, false, 0 );
+        assertEquals( 5, impl.getHighId() );
+        assertEquals( 3, impl.nextId() );
+        assertEquals( 5, impl.nextId() );
+        impl.close();
+    }
+
+    @Test
+    public void shouldBeStickyIfNotClosed() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator = open( false, 0 );
+        idGenerator.nextId();
+
+        // WHEN not closing it
+        try
+        {
+            open( false, 0 );
+            fail( "Should have failed" );
+        }
+        catch ( InvalidIdGeneratorException e )
+        {
+            // THEN good
+        }
+    }
+
+    @Test
+    public void shouldDiscardReservedRangesWhenSettingHighId() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator = open( false, 0 );
+        idGenerator.nextId();
+
+        // WHEN
+        idGenerator.setHighId( 5 );
+
+        // THEN
+        assertEquals( 5, idGenerator.nextId() );
+        idGenerator.close();
+        assertEquals( 6, IdGeneratorImpl.readHighId( fsr.get(), file ) );
+    }
+
+    @Test
+    public void shouldAllocateBatchesAfterReservedRanges() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator = open( true, 0 );
+        idGenerator.nextId();
+        idGenerator.freeId( 0 );
+
+        // WHEN
+        IdRange batch = idGenerator.nextIdBatch( 5 );
+
+        // THEN
+        assertEquals( new IdRange( new long[] {0}, RANGE_SIZE, 4 ), batch );
+        idGenerator.close();
+    }
+
+    @Test
+    public void shouldLowerHighIdPastRangeOfDeadThreadAtTopOfIdSpace() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator = open( false, 0 );
+        runInThreadThatDies( idGenerator::nextId );
+
+        // WHEN
+        long id = idGenerator.nextId();
+
+        // THEN
+        assertEquals( 1, id );
+        assertEquals( 2, idGenerator.getNumberOfIdsInUse() );
+        idGenerator.close();
+        assertEquals( 2, IdGeneratorImpl.readHighId( fsr.get(), file ) );
+    }
+
+    @Test
+    public void shouldReuseUnusedIdsOfRangeOfDeadThread() throws Exception
+    {
+        // GIVEN
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator = open( false, 0 );
+        CountDownLatch reserved = new CountDownLatch( 1 );
+        CountDownLatch exit = new CountDownLatch( 1 );
+        Thread thread = new Thread( () ->
+        {
+            idGenerator.nextId();
+            reserved.countDown();
+            awaitQuietly( exit );
+        } );
+        thread.start();
+        reserved.await();
+        for ( int i = 0; i < RANGE_SIZE; i++ )
+        {
+            idGenerator.nextId();
+        }
+        exit.countDown();
+        thread.join();
+
+        // WHEN
+        long nextRangeId = idGenerator.nextId();
+        Set<Long> reclaimedIds = new HashSet<>();
+        for ( int i = 1; i < RANGE_SIZE; i++ )
+        {
+            reclaimedIds.add( idGenerator.nextId() );
+        }
+
+        // THEN
+        assertEquals( RANGE_SIZE * 2, nextRangeId );
+        for ( long id = 1; id < RANGE_SIZE; id++ )
+        {
+            assertTrue( reclaimedIds.contains( id ) );
+        }
+        idGenerator.close();
+    }
+
+    @Test
+    public void shouldReserveSingleIdRangesForTokens() throws Exception
+    {
+        // GIVEN
+        ConcurrentIdGeneratorFactory factory =
+                new ConcurrentIdGeneratorFactory( fsr.get(), new CommunityIdTypeConfigurationProvider() );
+        factory.create( file, 0, false );
+        IdGenerator idGenerator = factory.open( file, IdType.LABEL_TOKEN, 0, 1_000 );
+        idGenerator.nextId();
+
+        // WHEN
+        long id = runInOtherThread( idGenerator::nextId );
+
+        // THEN
+        assertEquals( 1, id );
+        idGenerator.close();
+        assertEquals( 2, IdGeneratorImpl.readHighId( fsr.get(), file ) );
+    }
+
+    @Test
+    public void throwsWhenNextIdIsTooHigh()
+    {
+        long maxId = RANGE_SIZE + 5;
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator = new ConcurrentIdGenerator( fsr.get(), file, 1, maxId, false, 0, RANGE_SIZE );
+
+        for ( long i = 0; i <= maxId; i++ )
+        {
+            assertEquals( i, idGenerator.nextId() );
+        }
+
+        try
+        {
+            idGenerator.nextId();
+            fail( "Should have failed" );
+        }
+        catch ( Exception e )
+        {
+            assertThat( e, instanceOf( IdCapacityExceededException.class ) );
+        }
+    }
+
+    @Test
+    public void shouldNotAllocateReservedId()
+    {
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator =
+                new ConcurrentIdGenerator( fsr.get(), file, 1, Long.MAX_VALUE, false, 0, RANGE_SIZE );
+
+        idGenerator.setHighId( IdGeneratorImpl.INTEGER_MINUS_ONE - 1 );
+
+        assertEquals( IdGeneratorImpl.INTEGER_MINUS_ONE - 1, idGenerator.nextId() );
+        assertEquals( IdGeneratorImpl.INTEGER_MINUS_ONE + 1, idGenerator.nextId() );
+    }
+
+    @Test
+    public void shouldNotAllowUsageAfterClose()
+    {
+        IdGeneratorImpl.createGenerator( fsr.get(), file, 0, false );
+        IdGenerator idGenerator = open( false, 0 );
+        idGenerator.close();
+
+        try
+        {
+            idGenerator.nextId();
+            fail( "Should have failed" );
+        }
+        catch ( IllegalStateException e )
+        {
+            // good
+        }
+    }
+
+    private IdGenerator open( boolean aggressiveReuse, long highId )
+    {
+        return new ConcurrentIdGenerator( fsr.get(), file, 100, 1_000_000, aggressiveReuse, highId, RANGE_SIZE );
+    }
+
+    private static void runInThreadThatDies( Runnable task ) throws InterruptedException
+    {
+        Thread thread = new Thread( task );
+        thread.start();
+        thread.join();
+    }
+
+    private static void awaitQuietly( CountDownLatch latch )
+    {
+        try
+        {
+            latch.await();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long runInOtherThread( Callable<Long> task ) throws Exception
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            return executor.submit( task ).get();
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.command;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.neo4j.concurrent.WorkSync;
+import org.neo4j.helpers.collection.Iterators;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.schema.LabelSchemaDescriptor;
+import org.neo4j.kernel.impl.api.index.IndexingUpdateService;
+import org.neo4j.kernel.impl.api.index.NodeUpdates;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.kernel.impl.transaction.state.IndexUpdates;
+import org.neo4j.kernel.impl.util.Neo4jJobScheduler;
+import org.neo4j.kernel.internal.DatabaseHealth;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AsyncIndexUpdatesApplierTest
+{
+    private final Neo4jJobScheduler scheduler = new Neo4jJobScheduler();
+    private final DatabaseHealth databaseHealth = mock( DatabaseHealth.class );
+    private final RecordingIndexingUpdateService indexing = new RecordingIndexingUpdateService();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private AsyncIndexUpdatesApplier applier;
+
+    @Before
+    public void setUp()
+    {
+        scheduler.init();
+        applier = new AsyncIndexUpdatesApplier( new WorkSync<>( indexing ), scheduler, databaseHealth );
+        applier.start();
+    }
+
+    @After
+    public void tearDown() throws Throwable
+    {
+        indexing.release();
+        applier.stop();
+        scheduler.shutdown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldApplyQueuedUpdatesInQueueOrder() throws Exception
+    {
+        // GIVEN
+        List<IndexEntryUpdate<LabelSchemaDescriptor>> expected = new ArrayList<>();
+        indexing.release();
+
+        // WHEN
+        for ( int i = 0; i < 100; i++ )
+        {
+            IndexEntryUpdate<LabelSchemaDescriptor> entry = entry();
+            expected.add( entry );
+            applier.queue( updates( entry ) );
+        }
+        applier.awaitApplied();
+
+        // THEN
+        assertEquals( expected, indexing.applied );
+    }
+
+    @Test
+    public void shouldWaitForQueuedUpdatesToBeApplied() throws Exception
+    {
+        // GIVEN
+        IndexEntryUpdate<LabelSchemaDescriptor> entry = entry();
+        applier.queue( updates( entry ) );
+
+        // WHEN
+        Future<Object> await = executor.submit( () ->
+        {
+            applier.awaitApplied();
+            return null;
+        } );
+
+        // THEN
+        try
+        {
+            await.get( 100, TimeUnit.MILLISECONDS );
+            fail( "Should have waited for the updates to be applied" );
+        }
+        catch ( TimeoutException e )
+        {
+            // expected
+        }
+        indexing.release();
+        await.get( 10, TimeUnit.SECONDS );
+        assertEquals( 1, indexing.applied.size() );
+        assertSame( entry, indexing.applied.get( 0 ) );
+    }
+
+    @Test
+    public void shouldApplyQueuedUpdatesOnStop() throws Throwable
+    {
+        // GIVEN
+        applier.queue( updates( entry() ) );
+        applier.queue( updates( entry() ) );
+        indexing.release();
+
+        // WHEN
+        applier.stop();
+
+        // THEN
+        assertEquals( 2, indexing.applied.size() );
+    }
+
+    @Test
+    public void shouldPanicAndFailWaitersWhenApplyingUpdatesFails() throws Exception
+    {
+        // GIVEN
+        RuntimeException failure = new RuntimeException( "index failure" );
+        indexing.failWith( failure );
+        indexing.release();
+
+        // WHEN
+        applier.queue( updates( entry() ) );
+
+        // THEN
+        try
+        {
+            applier.awaitApplied();
+            fail( "Should have failed" );
+        }
+        catch ( UnderlyingStorageException e )
+        {
+            assertSame( failure, e.getCause() );
+        }
+        verify( databaseHealth ).panic( failure );
+        try
+        {
+            applier.queue( updates( entry() ) );
+            fail( "Should not accept more updates after a failure" );
+        }
+        catch ( UnderlyingStorageException e )
+        {
+            // expected
+        }
+        assertTrue( indexing.applied.isEmpty() );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static IndexEntryUpdate<LabelSchemaDescriptor> entry()
+    {
+        return mock( IndexEntryUpdate.class );
+    }
+
+    private static IndexUpdates updates( IndexEntryUpdate<LabelSchemaDescriptor> entry )
+    {
+        IndexUpdates updates = mock( IndexUpdates.class );
+        when( updates.hasUpdates() ).thenReturn( true );
+        when( updates.iterator() ).thenAnswer( invocation -> Iterators.iterator( entry ) );
+        return updates;
+    }
+
+    private static class RecordingIndexingUpdateService implements IndexingUpdateService
+    {
+        private final List<IndexEntryUpdate<LabelSchemaDescriptor>> applied = new ArrayList<>();
+        private final CountDownLatch released = new CountDownLatch( 1 );
+        private volatile RuntimeException failure;
+
+        @Override
+        public void apply( IndexUpdates updates )
+        {
+            try
+            {
+                released.await();
+            }
+            catch ( InterruptedException e )
+            {
+                throw new RuntimeException( e );
+            }
+            if ( failure != null )
+            {
+                throw failure;
+            }
+            for ( IndexEntryUpdate<LabelSchemaDescriptor> update : updates )
+            {
+                applied.add( update );
+            }
+        }
+
+        @Override
+        public Iterable<IndexEntryUpdate<LabelSchemaDescriptor>> convertToIndexUpdates( NodeUpdates nodeUpdates )
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        void release()
+        {
+            released.countDown();
+        }
+
+        void failWith( RuntimeException failure )
+        {
+            this.failure = failure;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.state.storeview;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.kernel.api.index.IndexEntryUpdate;
+import org.neo4j.kernel.api.schema.LabelSchemaDescriptor;
+import org.neo4j.kernel.api.schema.SchemaDescriptorFactory;
+import org.neo4j.kernel.impl.api.index.MultipleIndexPopulator.MultipleIndexUpdater;
+import org.neo4j.kernel.impl.api.index.NodeUpdates;
+import org.neo4j.kernel.impl.api.index.StoreScan;
+import org.neo4j.kernel.impl.locking.LockService;
+import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageEngine;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.rule.EmbeddedDatabaseRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class ParallelStoreViewNodeStoreScanTest
+{
+    private static final int NODES = 1_000;
+    private static final int PARTITION_SIZE = 64;
+
+    @Rule
+    public EmbeddedDatabaseRule dbRule = new EmbeddedDatabaseRule( getClass() );
+
+    private NeoStores neoStores;
+    private final int labelId = 0;
+    private final int propertyKeyId = 0;
+    private final LabelSchemaDescriptor schema = SchemaDescriptorFactory.forLabel( labelId, propertyKeyId );
+
+    @Before
+    public void createNodes()
+    {
+        GraphDatabaseAPI db = dbRule.getGraphDatabaseAPI();
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < NODES; i++ )
+            {
+                // Every third node has no label and must not show up in the scan
+                Node node = i % 3 == 0 ? db.createNode() : db.createNode( Label.label( "Person" ) );
+                node.setProperty( "name", "name" + i );
+            }
+            tx.success();
+        }
+        neoStores = db.getDependencyResolver().resolveDependency( RecordStorageEngine.class ).testAccessNeoStores();
+    }
+
+    @Test
+    public void shouldVisitSameNodesAsSequentialScan() throws Exception
+    {
+        // GIVEN
+        CollectingVisitor sequential = new CollectingVisitor();
+        CollectingVisitor parallel = new CollectingVisitor();
+
+        // WHEN
+        new StoreViewNodeStoreScan<>( neoStores.getNodeStore(), LockService.NO_LOCK_SERVICE,
+                neoStores.getPropertyStore(), null, sequential, new int[]{labelId}, id -> true ).run();
+        StoreScan<Exception> scan = scan( parallel, 4 );
+        scan.run();
+
+        // THEN
+        assertEquals( NODES - (NODES + 2) / 3, sequential.updates.size() );
+        assertEquals( new HashSet<>( sequential.updates ), new HashSet<>( parallel.updates ) );
+        assertEquals( sequential.updates.size(), parallel.updates.size() );
+        assertTrue( scan.getProgress().getCompleted() >= NODES );
+    }
+
+    @Test
+    public void shouldOnlyAcceptUpdatesForNodesAlreadyScanned() throws Exception
+    {
+        // GIVEN
+        MultipleIndexUpdater updater = mock( MultipleIndexUpdater.class );
+        IndexEntryUpdate<LabelSchemaDescriptor> scanned = IndexEntryUpdate.add( 1, schema, "a" );
+        IndexEntryUpdate<LabelSchemaDescriptor> notYetScanned = IndexEntryUpdate.add( NODES - 1, schema, "b" );
+        IndexEntryUpdate<LabelSchemaDescriptor> createdAfterScanStarted = IndexEntryUpdate.add( NODES * 2, schema, "c" );
+        List<ParallelStoreViewNodeStoreScan<Exception>> scans = new ArrayList<>();
+        Visitor<NodeUpdates,Exception> visitor = updates ->
+        {
+            if ( updates.getNodeId() == PARTITION_SIZE + 1 )
+            {
+                // A single thread scans partitions in order, so this is the first partition done and
+                // half way into the second one
+                scans.get( 0 ).acceptUpdate( updater, scanned, updates.getNodeId() );
+                scans.get( 0 ).acceptUpdate( updater, notYetScanned, updates.getNodeId() );
+                scans.get( 0 ).acceptUpdate( updater, createdAfterScanStarted, updates.getNodeId() );
+            }
+            return false;
+        };
+        ParallelStoreViewNodeStoreScan<Exception> scan = scan( visitor, 1 );
+        scans.add( scan );
+
+        // WHEN
+        scan.run();
+
+        // THEN
+        verify( updater ).process( scanned );
+        verify( updater, never() ).process( notYetScanned );
+        verify( updater, never() ).process( createdAfterScanStarted );
+    }
+
+    @Test
+    public void shouldAcceptAllUpdatesAfterCompletedScan() throws Exception
+    {
+        // GIVEN
+        MultipleIndexUpdater updater = mock( MultipleIndexUpdater.class );
+        ParallelStoreViewNodeStoreScan<Exception> scan = scan( new CollectingVisitor(), 4 );
+        IndexEntryUpdate<LabelSchemaDescriptor> update = IndexEntryUpdate.add( NODES * 2, schema, "a" );
+        scan.acceptUpdate( updater, update, Long.MAX_VALUE );
+        verify( updater, never() ).process( any() );
+
+        // WHEN
+        scan.run();
+        scan.acceptUpdate( updater, update, Long.MAX_VALUE );
+
+        // THEN
+        verify( updater ).process( update );
+    }
+
+    @Test
+    public void shouldPropagateVisitorFailure() throws Exception
+    {
+        // GIVEN
+        Exception failure = new Exception( "Visitor failure" );
+        ParallelStoreViewNodeStoreScan<Exception> scan = scan( updates ->
+        {
+            throw failure;
+        }, 4 );
+
+        try
+        {
+            // WHEN
+            scan.run();
+            fail( "Should have failed" );
+        }
+        catch ( Exception e )
+        {
+            // THEN
+            assertSame( failure, e );
+        }
+        MultipleIndexUpdater updater = mock( MultipleIndexUpdater.class );
+        scan.acceptUpdate( updater, IndexEntryUpdate.add( NODES * 2, schema, "a" ), Long.MAX_VALUE );
+        verify( updater, never() ).process( any() );
+        assertFalse( scan.getProgress().getCompleted() > NODES );
+    }
+
+    private ParallelStoreViewNodeStoreScan<Exception> scan( Visitor<NodeUpdates,Exception> visitor, int threads )
+    {
+        return new ParallelStoreViewNodeStoreScan<>( neoStores.getNodeStore(), LockService.NO_LOCK_SERVICE,
+                neoStores.getPropertyStore(), null, visitor, new int[]{labelId}, id -> id == propertyKeyId,
+                threads, PARTITION_SIZE );
+    }
+
+    private static class CollectingVisitor implements Visitor<NodeUpdates,Exception>
+    {
+        private final List<NodeUpdates> updates = new ArrayList<>();
+
+        @Override
+        public boolean visit( NodeUpdates element )
+        {
+            updates.add( element );
+            return false;
+        }
+    }
+}
@@ -25,6 +25,8 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -40,6 +42,7 @@ import static java.lang.Thread.sleep;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doThrow;
@@ -47,6 +50,7 @@ import static org.mockito.Mockito.mock;
 import static org.neo4j.helpers.Exceptions.launderedException;
 import static org.neo4j.helpers.collection.MapUtil.stringMap;
 import static org.neo4j.kernel.impl.util.JobScheduler.Group.THREAD_ID;
+import static org.neo4j.kernel.impl.util.JobScheduler.Groups.cypherWorker;
 import static org.neo4j.kernel.impl.util.JobScheduler.Groups.indexPopulation;
 import static org.neo4j.kernel.impl.util.JobScheduler.SchedulingStrategy.NEW_THREAD;
 import static org.neo4j.kernel.impl.util.JobScheduler.SchedulingStrategy.POOLED;
@@ -235,6 +239,57 @@ public class Neo4jJobSchedulerTest
         neo4jJobScheduler.shutdown();
     }
 
+    @Test
+    public void shouldInterruptRunningPooledJobsOnShutdown() throws Throwable
+    {
+        // GIVEN
+        life.start();
+        CountDownLatch started = new CountDownLatch( 1 );
+        CountDownLatch interrupted = new CountDownLatch( 1 );
+        scheduler.schedule( cypherWorker, () ->
+        {
+            started.countDown();
+            try
+            {
+                new CountDownLatch( 1 ).await();
+            }
+            catch ( InterruptedException e )
+            {
+                interrupted.countDown();
+            }
+        } );
+        started.await();
+
+        // WHEN
+        life.shutdown();
+
+        // THEN
+        assertTrue( interrupted.await( 10, TimeUnit.SECONDS ) );
+    }
+
+    @Test
+    public void shouldRunPooledJobsOnReusedThreads() throws Throwable
+    {
+        // GIVEN
+        life.start();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        // WHEN
+        for ( int i = 0; i < 100; i++ )
+        {
+            CountDownLatch done = new CountDownLatch( 1 );
+            scheduler.schedule( cypherWorker, () ->
+            {
+                threads.add( Thread.currentThread() );
+                done.countDown();
+            } );
+            done.await();
+        }
+
+        // THEN
+        assertThat( threads.size(), lessThan( 100 ) );
+    }
+
     private List<String> threadNames()
     {
         List<String> names = new ArrayList<>();
@@ -34,6 +34,7 @@ import org.neo4j.kernel.impl.api.BatchTransactionApplierFacade;
 import org.neo4j.kernel.impl.api.KernelTransactionsSnapshot;
 import org.neo4j.kernel.impl.api.LegacyIndexProviderLookup;
 import org.neo4j.kernel.impl.api.index.IndexingService;
+import org.neo4j.kernel.impl.api.index.SchemaIndexProviderMap;
 import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider;
 import org.neo4j.kernel.impl.api.store.CommunityBatchingProgressionFactory;
 import org.neo4j.kernel.impl.constraints.ConstraintSemantics;
@@ -50,6 +51,7 @@ import org.neo4j.kernel.impl.store.id.IdGeneratorFactory;
 import org.neo4j.kernel.impl.store.id.IdReuseEligibility;
 import org.neo4j.kernel.impl.store.id.configuration.CommunityIdTypeConfigurationProvider;
 import org.neo4j.kernel.impl.store.id.configuration.IdTypeConfigurationProvider;
+import org.neo4j.kernel.impl.transaction.state.DefaultSchemaIndexProviderMap;
 import org.neo4j.kernel.impl.util.IdOrderingQueue;
 import org.neo4j.kernel.impl.util.JobScheduler;
 import org.neo4j.kernel.impl.util.Neo4jJobScheduler;
@@ -118,7 +120,7 @@ public class RecordStorageEngineRule extends ExternalResource
                 mock( PropertyKeyTokenHolder.class ), mock( LabelTokenHolder.class ),
                 mock( RelationshipTypeTokenHolder.class ), () -> {}, new StandardConstraintSemantics(),
                 scheduler, mock( TokenNameLookup.class ), new ReentrantLockService(),
-                schemaIndexProvider, IndexingService.NO_MONITOR, databaseHealth,
+                new DefaultSchemaIndexProviderMap( schemaIndexProvider ), IndexingService.NO_MONITOR, databaseHealth,
                 labelScanStoreProvider, legacyIndexProviderLookup, indexConfigStore,
                 new SynchronizedArrayIdOrderingQueue( 20 ), txSnapshotSupplier, transactionApplierTransformer ) );
     }
@@ -201,7 +203,7 @@ public class RecordStorageEngineRule extends ExternalResource
                 PropertyKeyTokenHolder propertyKeyTokenHolder, LabelTokenHolder labelTokens,
                 RelationshipTypeTokenHolder relationshipTypeTokens, Runnable schemaStateChangeCallback,
                 ConstraintSemantics constraintSemantics, JobScheduler scheduler, TokenNameLookup tokenNameLookup,
-                LockService lockService, SchemaIndexProvider indexProvider,
+                LockService lockService, SchemaIndexProviderMap indexProviderMap,
                 IndexingService.Monitor indexingServiceMonitor, DatabaseHealth databaseHealth,
                 LabelScanStoreProvider labelScanStoreProvider, LegacyIndexProviderLookup legacyIndexProviderLookup,
                 IndexConfigStore indexConfigStore, IdOrderingQueue legacyIndexTransactionOrdering,
@@ -210,7 +212,7 @@ public class RecordStorageEngineRule extends ExternalResource
         {
             super( storeDir, config, idGeneratorFactory, eligibleForReuse, idTypeConfigurationProvider, pageCache, fs,
                     logProvider, propertyKeyTokenHolder, labelTokens, relationshipTypeTokens, schemaStateChangeCallback,
-                    constraintSemantics, scheduler, tokenNameLookup, lockService, indexProvider, indexingServiceMonitor,
+                    constraintSemantics, scheduler, tokenNameLookup, lockService, indexProviderMap, indexingServiceMonitor,
                     databaseHealth, labelScanStoreProvider, legacyIndexProviderLookup, indexConfigStore,
                     legacyIndexTransactionOrdering, transactionsSnapshotSupplier, new CommunityBatchingProgressionFactory() );
             this.transactionApplierTransformer = transactionApplierTransformer;
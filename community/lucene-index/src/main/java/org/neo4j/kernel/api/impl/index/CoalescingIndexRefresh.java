@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.impl.index;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Defers refreshing a lucene index until a reader needs the writes, or until {@link #refreshIfNeeded()} is called by a
+ * background job. Writers only bump a write generation, so that one refresh covers the writes of all transactions
+ * that completed before it started. A reader only waits for the refresh covering the writes completed before it was
+ * opened, and readers arriving while a refresh is in progress share the next one.
+ */
+public class CoalescingIndexRefresh implements IndexRefreshStrategy
+{
+    private final DatabaseIndex index;
+    private final AtomicLong writeGeneration = new AtomicLong();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile long refreshedGeneration;
+
+    public CoalescingIndexRefresh( DatabaseIndex index )
+    {
+        this.index = index;
+    }
+
+    @Override
+    public void written()
+    {
+        writeGeneration.incrementAndGet();
+    }
+
+    @Override
+    public void beforeRead() throws IOException
+    {
+        awaitRefreshed( writeGeneration.get() );
+    }
+
+    /**
+     * Refreshes the index if there are writes not yet visible to readers.
+     *
+     * @throws IOException on failure to refresh the index.
+     */
+    public void refreshIfNeeded() throws IOException
+    {
+        awaitRefreshed( writeGeneration.get() );
+    }
+
+    /**
+     * @return whether the index this refresh is for is still open.
+     */
+    public boolean isOpen()
+    {
+        return index.isOpen();
+    }
+
+    private void awaitRefreshed( long generation ) throws IOException
+    {
+        if ( refreshedGeneration >= generation )
+        {
+            return;
+        }
+        refreshLock.lock();
+        try
+        {
+            // Another thread may have refreshed while we waited for the lock
+            if ( refreshedGeneration < generation )
+            {
+                long refreshing = writeGeneration.get();
+                index.maybeRefreshBlocking();
+                refreshedGeneration = refreshing;
+            }
+        }
+        finally
+        {
+            refreshLock.unlock();
+        }
+    }
+}
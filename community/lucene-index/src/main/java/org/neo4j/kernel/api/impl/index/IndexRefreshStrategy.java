@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.impl.index;
+
+import java.io.IOException;
+
+/**
+ * Decides when writes to a lucene index become visible to readers of that index.
+ */
+public interface IndexRefreshStrategy
+{
+    /**
+     * Called after a batch of writes, e.g. the updates of one or more committed transactions, has been handed to the
+     * index writer.
+     *
+     * @throws IOException on failure to refresh the index.
+     */
+    void written() throws IOException;
+
+    /**
+     * Called before a new index reader is opened. When this method returns all writes that were
+     * {@link #written() completed} before it was called are visible to the new reader.
+     *
+     * @throws IOException on failure to refresh the index.
+     */
+    void beforeRead() throws IOException;
+
+    /**
+     * Refreshes the index after every batch of writes, on the writing thread.
+     */
+    class Immediate implements IndexRefreshStrategy
+    {
+        private final DatabaseIndex index;
+
+        public Immediate( DatabaseIndex index )
+        {
+            this.index = index;
+        }
+
+        @Override
+        public void written() throws IOException
+        {
+            index.maybeRefreshBlocking();
+        }
+
+        @Override
+        public void beforeRead()
+        {
+        }
+    }
+}
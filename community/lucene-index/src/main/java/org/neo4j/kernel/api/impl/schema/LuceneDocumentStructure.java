@@ -48,9 +48,12 @@ import org.apache.lucene.util.StringHelper;
 
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import org.neo4j.unsafe.impl.internal.dragons.FeatureToggles;
 
+import static org.apache.lucene.document.Field.Store.NO;
 import static org.apache.lucene.document.Field.Store.YES;
 
 public class LuceneDocumentStructure
@@ -63,6 +66,14 @@ public class LuceneDocumentStructure
     private static final ThreadLocal<DocWithId> perThreadDocument = ThreadLocal.withInitial( DocWithId::new );
     public static final String DELIMITER = "\u001F";
 
+    /**
+     * Keys of the fields holding the trigrams and the reversed value of a string property, only present in indexes
+     * {@link #documentWithSubstringTerms(long, Object...) with substring terms}.
+     */
+    static final String TRIGRAM_KEY = "string_trigram";
+    static final String REVERSED_KEY = "string_reversed";
+    public static final int TRIGRAM_LENGTH = 3;
+
     private LuceneDocumentStructure()
     {
     }
@@ -81,6 +92,35 @@ public class LuceneDocumentStructure
         return document.document;
     }
 
+    /**
+     * Like {@link #documentRepresentingProperties(long, Object...)}, but a single string value is additionally
+     * indexed as its distinct trigrams and reversed, to answer {@link #newTrigramContainsQuery(String)} and
+     * {@link #newReversedSuffixQuery(String)}.
+     */
+    public static Document documentWithSubstringTerms( long nodeId, Object... values )
+    {
+        Document document = documentRepresentingProperties( nodeId, values );
+        if ( values.length == 1 && values[0] instanceof String )
+        {
+            String value = (String) values[0];
+            document.add( new StringField( REVERSED_KEY, reverse( value ), NO ) );
+            for ( String trigram : trigrams( value ) )
+            {
+                document.add( new StringField( TRIGRAM_KEY, trigram, NO ) );
+            }
+        }
+        return document;
+    }
+
+    /**
+     * @param field name of a field in the index.
+     * @return whether the field holds terms derived from a string value, rather than the value itself.
+     */
+    public static boolean isSubstringTermField( String field )
+    {
+        return TRIGRAM_KEY.equals( field ) || REVERSED_KEY.equals( field );
+    }
+
     public static String encodedStringValuesForSampling( Object... values )
     {
         StringBuilder sb = new StringBuilder();
@@ -158,13 +198,58 @@ public class LuceneDocumentStructure
         return new WildcardQuery( term );
     }
 
+    /**
+     * Matches all values containing every trigram of the given string, which is a superset of the values containing
+     * the string itself when it is longer than {@link #TRIGRAM_LENGTH}. Only for indexes with substring terms.
+     *
+     * @param searchFor string of at least {@link #TRIGRAM_LENGTH} characters.
+     */
+    public static Query newTrigramContainsQuery( String searchFor )
+    {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder().setDisableCoord( true );
+        for ( String trigram : trigrams( searchFor ) )
+        {
+            builder.add( new TermQuery( new Term( TRIGRAM_KEY, trigram ) ), BooleanClause.Occur.FILTER );
+        }
+        return new ConstantScoreQuery( builder.build() );
+    }
+
     public static Query newRangeSeekByPrefixQuery( String prefix )
     {
-        Term term = new Term( ValueEncoding.String.key( 0 ), prefix );
+        return newPrefixQuery( new Term( ValueEncoding.String.key( 0 ), prefix ) );
+    }
+
+    /**
+     * Matches values ending with the given suffix as a prefix lookup of the reversed values. Only for indexes with
+     * substring terms.
+     */
+    public static Query newReversedSuffixQuery( String suffix )
+    {
+        return newPrefixQuery( new Term( REVERSED_KEY, reverse( suffix ) ) );
+    }
+
+    private static Query newPrefixQuery( Term term )
+    {
         return USE_LUCENE_STANDARD_PREFIX_QUERY ? new PrefixQuery( term ) :
                                      new PrefixMultiTermsQuery( term );
     }
 
+    private static Set<String> trigrams( String value )
+    {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for ( int i = 0; i + TRIGRAM_LENGTH <= value.length(); i++ )
+        {
+            trigrams.add( value.substring( i, i + TRIGRAM_LENGTH ) );
+        }
+        return trigrams;
+    }
+
+    private static String reverse( String value )
+    {
+        // StringBuilder keeps surrogate pairs in order, so the reversed value is valid unicode
+        return new StringBuilder( value ).reverse().toString();
+    }
+
     public static Query newSuffixStringQuery( String suffix )
     {
         String searchTerm = QueryParser.escape( suffix );
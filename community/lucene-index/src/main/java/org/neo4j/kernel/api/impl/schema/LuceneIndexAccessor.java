@@ -19,13 +19,17 @@
  */
 package org.neo4j.kernel.api.impl.schema;
 
+import org.apache.lucene.document.Document;
+
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.graphdb.ResourceIterator;
 import org.neo4j.helpers.collection.BoundedIterable;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.impl.index.IndexRefreshStrategy;
 import org.neo4j.kernel.api.impl.schema.reader.LuceneAllEntriesIndexAccessorReader;
 import org.neo4j.kernel.api.impl.schema.writer.LuceneIndexWriter;
 import org.neo4j.kernel.api.index.IndexAccessor;
@@ -41,11 +45,19 @@ public class LuceneIndexAccessor implements IndexAccessor
     private final LuceneIndexWriter writer;
     private final SchemaIndex luceneIndex;
     private final IndexDescriptor descriptor;
+    private final IndexRefreshStrategy refreshStrategy;
 
     public LuceneIndexAccessor( SchemaIndex luceneIndex, IndexDescriptor descriptor ) throws IOException
+    {
+        this( luceneIndex, descriptor, new IndexRefreshStrategy.Immediate( luceneIndex ) );
+    }
+
+    public LuceneIndexAccessor( SchemaIndex luceneIndex, IndexDescriptor descriptor,
+            IndexRefreshStrategy refreshStrategy ) throws IOException
     {
         this.luceneIndex = luceneIndex;
         this.descriptor = descriptor;
+        this.refreshStrategy = refreshStrategy;
         this.writer = luceneIndex.isReadOnly() ? null : luceneIndex.getIndexWriter();
     }
 
@@ -99,6 +111,7 @@ public class LuceneIndexAccessor implements IndexAccessor
     {
         try
         {
+            refreshStrategy.beforeRead();
             return luceneIndex.getIndexReader();
         }
         catch ( IOException e )
@@ -110,6 +123,14 @@ public class LuceneIndexAccessor implements IndexAccessor
     @Override
     public BoundedIterable<Long> newAllEntriesReader()
     {
+        try
+        {
+            refreshStrategy.beforeRead();
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
         return new LuceneAllEntriesIndexAccessorReader( luceneIndex.allDocumentsReader() );
     }
 
@@ -169,7 +190,7 @@ public class LuceneIndexAccessor implements IndexAccessor
         @Override
         public void close() throws IOException, IndexEntryConflictException
         {
-            luceneIndex.maybeRefreshBlocking();
+            refreshStrategy.written();
         }
 
         @Override
@@ -186,18 +207,27 @@ public class LuceneIndexAccessor implements IndexAccessor
         {
 
             writer.updateDocument( LuceneDocumentStructure.newTermForChangeOrRemove( nodeId ),
-                    LuceneDocumentStructure.documentRepresentingProperties( nodeId, values ) );
+                    updateAsDocument( nodeId, values ) );
         }
 
         private void add( long nodeId, Object[] values ) throws IOException
         {
-            writer.addDocument( LuceneDocumentStructure.documentRepresentingProperties( nodeId, values ) );
+            writer.addDocument( updateAsDocument( nodeId, values ) );
         }
 
         private void change( long nodeId, Object[] values ) throws IOException
         {
             writer.updateDocument( LuceneDocumentStructure.newTermForChangeOrRemove( nodeId ),
-                    LuceneDocumentStructure.documentRepresentingProperties( nodeId, values ) );
+                    updateAsDocument( nodeId, values ) );
+        }
+
+        private Document updateAsDocument( long nodeId, Object[] values )
+        {
+            if ( luceneIndex.hasSubstringTerms() )
+            {
+                return LuceneDocumentStructure.documentWithSubstringTerms( nodeId, values );
+            }
+            return LuceneDocumentStructure.documentRepresentingProperties( nodeId, values );
         }
 
         protected void remove( long nodeId ) throws IOException
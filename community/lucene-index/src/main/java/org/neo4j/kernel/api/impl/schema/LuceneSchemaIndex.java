@@ -24,6 +24,8 @@ import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.store.Directory;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -57,18 +59,51 @@ class LuceneSchemaIndex extends AbstractLuceneIndex
     private static final String KEY_STATUS = "status";
     private static final String ONLINE = "online";
     private static final Map<String,String> ONLINE_COMMIT_USER_DATA = singletonMap( KEY_STATUS, ONLINE );
+    private static final String KEY_SUBSTRING_TERMS = "substring_terms";
 
     private final IndexDescriptor descriptor;
     private final IndexSamplingConfig samplingConfig;
+    private boolean substringTerms;
 
     private final TaskCoordinator taskCoordinator = new TaskCoordinator( 10, TimeUnit.MILLISECONDS );
 
     LuceneSchemaIndex( PartitionedIndexStorage indexStorage, IndexDescriptor descriptor,
             IndexSamplingConfig samplingConfig, IndexPartitionFactory partitionFactory )
+    {
+        this( indexStorage, descriptor, samplingConfig, partitionFactory, false );
+    }
+
+    /**
+     * @param substringTerms whether to index substring terms, if this index is populated from scratch. An index that
+     * has been populated before keeps the layout recorded when it was marked as online.
+     */
+    LuceneSchemaIndex( PartitionedIndexStorage indexStorage, IndexDescriptor descriptor,
+            IndexSamplingConfig samplingConfig, IndexPartitionFactory partitionFactory, boolean substringTerms )
     {
         super( indexStorage, partitionFactory );
         this.descriptor = descriptor;
         this.samplingConfig = samplingConfig;
+        this.substringTerms = substringTerms;
+    }
+
+    @Override
+    public void open() throws IOException
+    {
+        super.open();
+        Map<String,String> userData = commitUserData();
+        if ( ONLINE.equals( userData.get( KEY_STATUS ) ) )
+        {
+            substringTerms = Boolean.parseBoolean( userData.get( KEY_SUBSTRING_TERMS ) );
+        }
+    }
+
+    /**
+     * @return whether string values in this index are also indexed as trigrams and reversed.
+     * @see LuceneDocumentStructure#documentWithSubstringTerms(long, Object...)
+     */
+    public boolean hasSubstringTerms()
+    {
+        return substringTerms;
     }
 
     public LuceneIndexWriter getIndexWriter( WritableDatabaseSchemaIndex writableLuceneSchemaIndex ) throws IOException
@@ -161,8 +196,27 @@ class LuceneSchemaIndex extends AbstractLuceneIndex
         }
     }
 
+    private Map<String,String> commitUserData() throws IOException
+    {
+        List<AbstractIndexPartition> partitions = getPartitions();
+        if ( partitions.isEmpty() )
+        {
+            return Collections.emptyMap();
+        }
+        Directory directory = getFirstPartition( partitions ).getDirectory();
+        if ( !DirectoryReader.indexExists( directory ) )
+        {
+            return Collections.emptyMap();
+        }
+        try ( DirectoryReader reader = DirectoryReader.open( directory ) )
+        {
+            return reader.getIndexCommit().getUserData();
+        }
+    }
+
     /**
-     * Marks index as online by including "status" -> "online" map into commit metadata of the first partition.
+     * Marks index as online by including "status" -> "online" map into commit metadata of the first partition,
+     * along with whether the index has substring terms.
      *
      * @throws IOException
      */
@@ -171,7 +225,16 @@ class LuceneSchemaIndex extends AbstractLuceneIndex
         ensureOpen();
         AbstractIndexPartition partition = getFirstPartition( getPartitions() );
         IndexWriter indexWriter = partition.getIndexWriter();
-        indexWriter.setCommitData( ONLINE_COMMIT_USER_DATA );
+        if ( substringTerms )
+        {
+            Map<String,String> userData = new HashMap<>( ONLINE_COMMIT_USER_DATA );
+            userData.put( KEY_SUBSTRING_TERMS, Boolean.TRUE.toString() );
+            indexWriter.setCommitData( userData );
+        }
+        else
+        {
+            indexWriter.setCommitData( ONLINE_COMMIT_USER_DATA );
+        }
         flush( false );
     }
 
@@ -198,7 +261,8 @@ class LuceneSchemaIndex extends AbstractLuceneIndex
     private SimpleIndexReader createSimpleReader( List<AbstractIndexPartition> partitions ) throws IOException
     {
         AbstractIndexPartition singlePartition = getFirstPartition( partitions );
-        return new SimpleIndexReader( singlePartition.acquireSearcher(), descriptor, samplingConfig, taskCoordinator );
+        return new SimpleIndexReader( singlePartition.acquireSearcher(), descriptor, samplingConfig, taskCoordinator,
+                substringTerms );
     }
 
     private UniquenessVerifier createSimpleUniquenessVerifier( List<AbstractIndexPartition> partitions ) throws IOException
@@ -211,7 +275,7 @@ class LuceneSchemaIndex extends AbstractLuceneIndex
     private PartitionedIndexReader createPartitionedReader( List<AbstractIndexPartition> partitions ) throws IOException
     {
         List<PartitionSearcher> searchers = acquireSearchers( partitions );
-        return new PartitionedIndexReader( searchers, descriptor, samplingConfig, taskCoordinator );
+        return new PartitionedIndexReader( searchers, descriptor, samplingConfig, taskCoordinator, substringTerms );
     }
 
     private UniquenessVerifier createPartitionedUniquenessVerifier( List<AbstractIndexPartition> partitions ) throws IOException
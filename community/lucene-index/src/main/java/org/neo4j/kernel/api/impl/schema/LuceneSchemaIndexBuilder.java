@@ -103,8 +103,9 @@ public class LuceneSchemaIndexBuilder extends AbstractLuceneIndexBuilder<LuceneS
         {
             Boolean archiveFailed = getConfig( GraphDatabaseSettings.archive_failed_index );
             PartitionedIndexStorage storage = storageBuilder.archivingFailed( archiveFailed ).build();
+            Boolean substringTerms = getConfig( GraphDatabaseSettings.lucene_schema_index_substring_terms );
             return new WritableDatabaseSchemaIndex( storage, descriptor, samplingConfig,
-                    new WritableIndexPartitionFactory( writerConfigFactory ) );
+                    new WritableIndexPartitionFactory( writerConfigFactory ), substringTerms );
         }
     }
 
@@ -21,10 +21,14 @@ package org.neo4j.kernel.api.impl.schema;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.impl.index.CoalescingIndexRefresh;
 import org.neo4j.kernel.api.impl.index.IndexWriterConfigs;
 import org.neo4j.kernel.api.impl.index.storage.DirectoryFactory;
 import org.neo4j.kernel.api.impl.index.storage.IndexStorageFactory;
@@ -42,6 +46,7 @@ import org.neo4j.kernel.impl.api.scan.LabelScanStoreProvider;
 import org.neo4j.kernel.impl.factory.OperationalMode;
 import org.neo4j.kernel.impl.storemigration.StoreMigrationParticipant;
 import org.neo4j.kernel.impl.storemigration.participant.SchemaIndexMigrator;
+import org.neo4j.kernel.impl.util.JobScheduler;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.LogProvider;
 
@@ -54,12 +59,30 @@ public class LuceneSchemaIndexProvider extends SchemaIndexProvider
     private Config config;
     private OperationalMode operationalMode;
     private FileSystemAbstraction fileSystem;
+    private final JobScheduler scheduler;
+    private final long refreshInterval;
+    private final Set<CoalescingIndexRefresh> deferredRefreshes = ConcurrentHashMap.newKeySet();
+    private JobScheduler.JobHandle refreshJob;
 
     public LuceneSchemaIndexProvider( FileSystemAbstraction fileSystem, DirectoryFactory directoryFactory,
                                       File storeDir, LogProvider logging, Config config,
                                       OperationalMode operationalMode )
+    {
+        this( fileSystem, directoryFactory, storeDir, logging, config, operationalMode, null );
+    }
+
+    /**
+     * @param scheduler used to refresh indexes in the background when
+     * {@link GraphDatabaseSettings#lucene_schema_index_refresh_interval} is set, may be {@code null} in which case
+     * deferred refreshes are only done by readers.
+     */
+    public LuceneSchemaIndexProvider( FileSystemAbstraction fileSystem, DirectoryFactory directoryFactory,
+                                      File storeDir, LogProvider logging, Config config,
+                                      OperationalMode operationalMode, JobScheduler scheduler )
     {
         super( LuceneSchemaIndexProviderFactory.PROVIDER_DESCRIPTOR, 1 );
+        this.scheduler = scheduler;
+        this.refreshInterval = config.get( GraphDatabaseSettings.lucene_schema_index_refresh_interval );
         File schemaIndexStoreFolder = getSchemaIndexStoreDirectory( storeDir );
         this.indexStorageFactory = buildIndexStorageFactory( fileSystem, directoryFactory, schemaIndexStoreFolder );
         this.fileSystem = fileSystem;
@@ -114,14 +137,60 @@ public class LuceneSchemaIndexProvider extends SchemaIndexProvider
                                             .withIndexStorage( getIndexStorage( indexId ) )
                                             .build();
         luceneIndex.open();
+        if ( refreshInterval > 0 && !luceneIndex.isReadOnly() )
+        {
+            CoalescingIndexRefresh refresh = new CoalescingIndexRefresh( luceneIndex );
+            deferredRefreshes.add( refresh );
+            return new LuceneIndexAccessor( luceneIndex, descriptor, refresh );
+        }
         return new LuceneIndexAccessor( luceneIndex, descriptor );
     }
 
+    @Override
+    public void start() throws Throwable
+    {
+        if ( refreshInterval > 0 && scheduler != null )
+        {
+            refreshJob = scheduler.scheduleRecurring( JobScheduler.Groups.indexRefresh, this::refreshIndexes,
+                    refreshInterval, TimeUnit.MILLISECONDS );
+        }
+    }
+
+    @Override
+    public void stop() throws Throwable
+    {
+        if ( refreshJob != null )
+        {
+            refreshJob.cancel( false );
+            refreshJob = null;
+        }
+    }
+
     @Override
     public void shutdown() throws Throwable
     {   // Nothing to shut down
     }
 
+    private void refreshIndexes()
+    {
+        deferredRefreshes.removeIf( refresh -> !refresh.isOpen() );
+        for ( CoalescingIndexRefresh refresh : deferredRefreshes )
+        {
+            try
+            {
+                refresh.refreshIfNeeded();
+            }
+            catch ( Exception e )
+            {
+                // The index may have been closed or dropped concurrently, readers will refresh it if still needed
+                if ( refresh.isOpen() )
+                {
+                    log.warn( "Failed to refresh index in the background", e );
+                }
+            }
+        }
+    }
+
     @Override
     public InternalIndexState getInitialState( long indexId, IndexDescriptor descriptor )
     {
@@ -28,6 +28,7 @@ import org.neo4j.kernel.extension.KernelExtensionFactory;
 import org.neo4j.kernel.impl.factory.GraphDatabaseFacadeFactory;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.impl.spi.KernelContext;
+import org.neo4j.kernel.impl.util.JobScheduler;
 import org.neo4j.logging.LogProvider;
 
 import static org.neo4j.kernel.api.impl.index.LuceneKernelExtensions.directoryFactory;
@@ -48,6 +49,8 @@ public class LuceneSchemaIndexProviderFactory extends
         LogService getLogging();
 
         FileSystemAbstraction fileSystem();
+
+        JobScheduler scheduler();
     }
 
     public LuceneSchemaIndexProviderFactory()
@@ -66,6 +69,6 @@ public class LuceneSchemaIndexProviderFactory extends
         DirectoryFactory directoryFactory = directoryFactory( ephemeral, fileSystem );
 
         return new LuceneSchemaIndexProvider( fileSystem, directoryFactory, context.storeDir(), logging, config,
-                context.databaseInfo().operationalMode );
+                context.databaseInfo().operationalMode, dependencies.scheduler() );
     }
 }
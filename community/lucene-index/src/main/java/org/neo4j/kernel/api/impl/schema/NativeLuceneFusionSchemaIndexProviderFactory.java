@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.impl.schema;
+
+import java.io.File;
+
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.Service;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.impl.index.storage.DirectoryFactory;
+import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.extension.KernelExtensionFactory;
+import org.neo4j.kernel.impl.factory.GraphDatabaseFacadeFactory;
+import org.neo4j.kernel.impl.index.schema.NumberSchemaIndexProvider;
+import org.neo4j.kernel.impl.index.schema.StringSchemaIndexProvider;
+import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider;
+import org.neo4j.kernel.impl.logging.LogService;
+import org.neo4j.kernel.impl.spi.KernelContext;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.logging.LogProvider;
+
+import static org.neo4j.kernel.api.impl.index.LuceneKernelExtensions.directoryFactory;
+
+/**
+ * Provides a {@link FusionSchemaIndexProvider} keeping numbers and short strings in native GBPTree indexes
+ * and everything else in Lucene. It takes precedence over the plain Lucene provider when selected by
+ * {@link GraphDatabaseSettings#default_schema_provider}.
+ */
+@Service.Implementation( KernelExtensionFactory.class )
+public class NativeLuceneFusionSchemaIndexProviderFactory
+        extends KernelExtensionFactory<NativeLuceneFusionSchemaIndexProviderFactory.Dependencies>
+{
+    public static final String KEY = LuceneSchemaIndexProviderFactory.KEY + "+native";
+
+    public static final SchemaIndexProvider.Descriptor DESCRIPTOR = new SchemaIndexProvider.Descriptor( KEY, "1.0" );
+
+    public interface Dependencies
+    {
+        PageCache pageCache();
+
+        FileSystemAbstraction fileSystem();
+
+        LogService getLogging();
+
+        Config getConfig();
+
+        JobScheduler scheduler();
+    }
+
+    public NativeLuceneFusionSchemaIndexProviderFactory()
+    {
+        super( KEY );
+    }
+
+    @Override
+    public FusionSchemaIndexProvider newInstance( KernelContext context, Dependencies dependencies ) throws Throwable
+    {
+        PageCache pageCache = dependencies.pageCache();
+        File storeDir = context.storeDir();
+        FileSystemAbstraction fs = dependencies.fileSystem();
+        LogProvider logging = dependencies.getLogging().getInternalLogProvider();
+        Config config = dependencies.getConfig();
+        boolean readOnly = config.get( GraphDatabaseSettings.read_only );
+        boolean ephemeral = config.get( GraphDatabaseFacadeFactory.Configuration.ephemeral );
+        DirectoryFactory directoryFactory = directoryFactory( ephemeral, fs );
+
+        NumberSchemaIndexProvider numberProvider = new NumberSchemaIndexProvider( pageCache, fs, storeDir, readOnly );
+        StringSchemaIndexProvider stringProvider = new StringSchemaIndexProvider( pageCache, fs, storeDir, readOnly );
+        LuceneSchemaIndexProvider luceneProvider = new LuceneSchemaIndexProvider( fs, directoryFactory, storeDir,
+                logging, config, context.databaseInfo().operationalMode, dependencies.scheduler() );
+
+        boolean selected = GraphDatabaseSettings.SchemaIndex.NATIVE10.providerName().equals(
+                config.get( GraphDatabaseSettings.default_schema_provider ) );
+        int priority = selected ? 2 : 0;
+        return new FusionSchemaIndexProvider( DESCRIPTOR, priority, numberProvider, stringProvider, luceneProvider );
+    }
+}
@@ -61,6 +61,12 @@ public class ReadOnlyDatabaseSchemaIndex extends ReadOnlyAbstractDatabaseIndex<L
         return luceneIndex.getDescriptor();
     }
 
+    @Override
+    public boolean hasSubstringTerms()
+    {
+        return luceneIndex.hasSubstringTerms();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -81,6 +81,13 @@ public interface SchemaIndex extends DatabaseIndex
      */
     void markAsOnline() throws IOException;
 
+    /**
+     * @return whether string values in this index are also indexed as trigrams and reversed, which only applies to
+     * indexes that were populated with substring terms enabled.
+     * @see LuceneDocumentStructure#documentWithSubstringTerms(long, Object...)
+     */
+    boolean hasSubstringTerms();
+
     /**
      * Writes the given failure message to the failure storage.
      *
@@ -42,7 +42,15 @@ public class WritableDatabaseSchemaIndex extends WritableAbstractDatabaseIndex<L
     public WritableDatabaseSchemaIndex( PartitionedIndexStorage storage, IndexDescriptor descriptor,
             IndexSamplingConfig samplingConfig, WritableIndexPartitionFactory writableIndexPartitionFactory )
     {
-        super( new LuceneSchemaIndex( storage, descriptor, samplingConfig, writableIndexPartitionFactory ) );
+        this( storage, descriptor, samplingConfig, writableIndexPartitionFactory, false );
+    }
+
+    public WritableDatabaseSchemaIndex( PartitionedIndexStorage storage, IndexDescriptor descriptor,
+            IndexSamplingConfig samplingConfig, WritableIndexPartitionFactory writableIndexPartitionFactory,
+            boolean substringTerms )
+    {
+        super( new LuceneSchemaIndex( storage, descriptor, samplingConfig, writableIndexPartitionFactory,
+                substringTerms ) );
     }
 
     @Override
@@ -63,6 +71,12 @@ public class WritableDatabaseSchemaIndex extends WritableAbstractDatabaseIndex<L
         return luceneIndex.getDescriptor();
     }
 
+    @Override
+    public boolean hasSubstringTerms()
+    {
+        return luceneIndex.hasSubstringTerms();
+    }
+
     /**
      * {@inheritDoc}
      */
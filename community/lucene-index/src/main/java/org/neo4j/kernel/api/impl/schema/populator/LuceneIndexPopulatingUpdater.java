@@ -40,10 +40,17 @@ import org.neo4j.kernel.impl.api.index.UpdateMode;
 public abstract class LuceneIndexPopulatingUpdater implements IndexUpdater
 {
     private final LuceneIndexWriter writer;
+    private final boolean substringTerms;
 
     public LuceneIndexPopulatingUpdater( LuceneIndexWriter writer )
+    {
+        this( writer, false );
+    }
+
+    public LuceneIndexPopulatingUpdater( LuceneIndexWriter writer, boolean substringTerms )
     {
         this.writer = writer;
+        this.substringTerms = substringTerms;
     }
 
     @Override
@@ -56,12 +63,12 @@ public abstract class LuceneIndexPopulatingUpdater implements IndexUpdater
         case ADDED:
             added( update );
             writer.updateDocument( LuceneDocumentStructure.newTermForChangeOrRemove( nodeId ),
-                    LuceneDocumentStructure.documentRepresentingProperties( nodeId, update.values() ) );
+                    updateAsDocument( nodeId, update.values() ) );
             break;
         case CHANGED:
             changed( update );
             writer.updateDocument( LuceneDocumentStructure.newTermForChangeOrRemove( nodeId ),
-                    LuceneDocumentStructure.documentRepresentingProperties( nodeId, update.values() ) );
+                    updateAsDocument( nodeId, update.values() ) );
             break;
         case REMOVED:
             removed( update );
@@ -72,6 +79,15 @@ public abstract class LuceneIndexPopulatingUpdater implements IndexUpdater
         }
     }
 
+    private Document updateAsDocument( long nodeId, Object[] values )
+    {
+        if ( substringTerms )
+        {
+            return LuceneDocumentStructure.documentWithSubstringTerms( nodeId, values );
+        }
+        return LuceneDocumentStructure.documentRepresentingProperties( nodeId, values );
+    }
+
     @Override
     public final void remove( PrimitiveLongSet nodeIds )
     {
@@ -66,7 +66,7 @@ public abstract class LuceneIndexPopulator implements IndexPopulator
         // Lucene documents stored in a ThreadLocal and reused so we can't create an eager collection of documents here
         // That is why we create a lazy Iterator and then Iterable
         writer.addDocuments( updates.size(), () -> updates.stream()
-                .map( LuceneIndexPopulator::updateAsDocument )
+                .map( this::updateAsDocument )
                 .iterator() );
     }
 
@@ -110,8 +110,12 @@ public abstract class LuceneIndexPopulator implements IndexPopulator
         return true;
     }
 
-    private static Document updateAsDocument( IndexEntryUpdate update )
+    private Document updateAsDocument( IndexEntryUpdate update )
     {
+        if ( luceneIndex.hasSubstringTerms() )
+        {
+            return LuceneDocumentStructure.documentWithSubstringTerms( update.getEntityId(), update.values() );
+        }
         return LuceneDocumentStructure.documentRepresentingProperties( update.getEntityId(), update.values() );
     }
 }
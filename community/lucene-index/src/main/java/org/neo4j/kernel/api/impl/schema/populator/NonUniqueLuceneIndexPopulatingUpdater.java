@@ -33,7 +33,13 @@ public class NonUniqueLuceneIndexPopulatingUpdater extends LuceneIndexPopulating
 
     public NonUniqueLuceneIndexPopulatingUpdater( LuceneIndexWriter writer, NonUniqueIndexSampler sampler )
     {
-        super( writer );
+        this( writer, sampler, false );
+    }
+
+    public NonUniqueLuceneIndexPopulatingUpdater( LuceneIndexWriter writer, NonUniqueIndexSampler sampler,
+            boolean substringTerms )
+    {
+        super( writer, substringTerms );
         this.sampler = sampler;
     }
 
@@ -66,7 +66,7 @@ public class NonUniqueLuceneIndexPopulator extends LuceneIndexPopulator
     public IndexUpdater newPopulatingUpdater( PropertyAccessor propertyAccessor ) throws IOException
     {
         checkSampler();
-        return new NonUniqueLuceneIndexPopulatingUpdater( writer, sampler );
+        return new NonUniqueLuceneIndexPopulatingUpdater( writer, sampler, luceneIndex.hasSubstringTerms() );
     }
 
     @Override
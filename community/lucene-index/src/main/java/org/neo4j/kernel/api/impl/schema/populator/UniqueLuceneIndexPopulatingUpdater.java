@@ -47,7 +47,14 @@ public class UniqueLuceneIndexPopulatingUpdater extends LuceneIndexPopulatingUpd
     public UniqueLuceneIndexPopulatingUpdater( LuceneIndexWriter writer, int[] propertyKeyIds,
             SchemaIndex luceneIndex, PropertyAccessor propertyAccessor, UniqueIndexSampler sampler )
     {
-        super( writer );
+        this( writer, propertyKeyIds, luceneIndex, propertyAccessor, sampler, false );
+    }
+
+    public UniqueLuceneIndexPopulatingUpdater( LuceneIndexWriter writer, int[] propertyKeyIds,
+            SchemaIndex luceneIndex, PropertyAccessor propertyAccessor, UniqueIndexSampler sampler,
+            boolean substringTerms )
+    {
+        super( writer, substringTerms );
         this.propertyKeyIds = propertyKeyIds;
         this.luceneIndex = luceneIndex;
         this.propertyAccessor = propertyAccessor;
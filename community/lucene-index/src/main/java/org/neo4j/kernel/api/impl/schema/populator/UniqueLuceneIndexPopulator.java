@@ -57,7 +57,8 @@ public class UniqueLuceneIndexPopulator extends LuceneIndexPopulator
     @Override
     public IndexUpdater newPopulatingUpdater( final PropertyAccessor accessor ) throws IOException
     {
-        return new UniqueLuceneIndexPopulatingUpdater( writer, propertyKeyIds, luceneIndex, accessor, sampler );
+        return new UniqueLuceneIndexPopulatingUpdater( writer, propertyKeyIds, luceneIndex, accessor, sampler,
+                luceneIndex.hasSubstringTerms() );
     }
 
     @Override
@@ -52,10 +52,19 @@ public class PartitionedIndexReader implements IndexReader
             IndexDescriptor descriptor,
             IndexSamplingConfig samplingConfig,
             TaskCoordinator taskCoordinator )
+    {
+        this( partitionSearchers, descriptor, samplingConfig, taskCoordinator, false );
+    }
+
+    public PartitionedIndexReader( List<PartitionSearcher> partitionSearchers,
+            IndexDescriptor descriptor,
+            IndexSamplingConfig samplingConfig,
+            TaskCoordinator taskCoordinator,
+            boolean substringTerms )
     {
         this( partitionSearchers.stream()
                 .map( partitionSearcher -> new SimpleIndexReader( partitionSearcher, descriptor,
-                        samplingConfig, taskCoordinator ) )
+                        samplingConfig, taskCoordinator, substringTerms ) )
                 .collect( Collectors.toList() ) );
     }
 
@@ -77,6 +86,12 @@ public class PartitionedIndexReader implements IndexReader
         }
     }
 
+    @Override
+    public boolean mayReturnFalsePositives( IndexQuery... predicates )
+    {
+        return indexReaders.stream().anyMatch( reader -> reader.mayReturnFalsePositives( predicates ) );
+    }
+
     private PrimitiveLongIterator innerQuery( IndexReader reader, IndexQuery[] predicates )
     {
         try
@@ -60,16 +60,27 @@ public class SimpleIndexReader implements IndexReader
     private IndexDescriptor descriptor;
     private final IndexSamplingConfig samplingConfig;
     private TaskCoordinator taskCoordinator;
+    private final boolean substringTerms;
 
     public SimpleIndexReader( PartitionSearcher partitionSearcher,
             IndexDescriptor descriptor,
             IndexSamplingConfig samplingConfig,
             TaskCoordinator taskCoordinator )
+    {
+        this( partitionSearcher, descriptor, samplingConfig, taskCoordinator, false );
+    }
+
+    public SimpleIndexReader( PartitionSearcher partitionSearcher,
+            IndexDescriptor descriptor,
+            IndexSamplingConfig samplingConfig,
+            TaskCoordinator taskCoordinator,
+            boolean substringTerms )
     {
         this.partitionSearcher = partitionSearcher;
         this.descriptor = descriptor;
         this.samplingConfig = samplingConfig;
         this.taskCoordinator = taskCoordinator;
+        this.substringTerms = substringTerms;
     }
 
     @Override
@@ -137,6 +148,19 @@ public class SimpleIndexReader implements IndexReader
         }
     }
 
+    /**
+     * Trigram lookups only match candidates for search strings longer than a single trigram, since a value can
+     * contain all trigrams of the search string without containing the search string itself.
+     */
+    @Override
+    public boolean mayReturnFalsePositives( IndexQuery... predicates )
+    {
+        IndexQuery predicate = predicates[0];
+        return substringTerms && predicate.type() == IndexQueryType.stringContains &&
+               ((IndexQuery.StringContainsPredicate) predicate).contains().length() >
+               LuceneDocumentStructure.TRIGRAM_LENGTH;
+    }
+
     private void assertNotComposite( IndexQuery[] predicates )
     {
         assert predicates.length == 1 : "composite indexes not yet supported for this operation";
@@ -170,11 +194,19 @@ public class SimpleIndexReader implements IndexReader
 
     private PrimitiveLongIterator containsString( String exactTerm )
     {
+        if ( substringTerms && exactTerm.length() >= LuceneDocumentStructure.TRIGRAM_LENGTH )
+        {
+            return query( LuceneDocumentStructure.newTrigramContainsQuery( exactTerm ) );
+        }
         return query( LuceneDocumentStructure.newWildCardStringQuery( exactTerm ) );
     }
 
     private PrimitiveLongIterator endsWith( String suffix )
     {
+        if ( substringTerms )
+        {
+            return query( LuceneDocumentStructure.newReversedSuffixQuery( suffix ) );
+        }
         return query( LuceneDocumentStructure.newSuffixStringQuery( suffix ) );
     }
 
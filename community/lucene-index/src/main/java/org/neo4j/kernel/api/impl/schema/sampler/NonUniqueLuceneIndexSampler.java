@@ -96,7 +96,8 @@ public class NonUniqueLuceneIndexSampler extends LuceneIndexSampler
         Set<String> fieldNames = new HashSet<>();
         for ( String field : fields )
         {
-            if ( !LuceneDocumentStructure.NODE_ID_KEY.equals( field ) )
+            if ( !LuceneDocumentStructure.NODE_ID_KEY.equals( field ) &&
+                 !LuceneDocumentStructure.isSubstringTermField( field ) )
             {
                 fieldNames.add( field );
             }
@@ -74,7 +74,8 @@ public class PartitionedUniquenessVerifier implements UniquenessVerifier
     {
         for ( String field : allFields() )
         {
-            if ( LuceneDocumentStructure.NODE_ID_KEY.equals( field ) )
+            if ( LuceneDocumentStructure.NODE_ID_KEY.equals( field ) ||
+                 LuceneDocumentStructure.isSubstringTermField( field ) )
             {
                 continue;
             }
@@ -68,7 +68,8 @@ public class SimpleUniquenessVerifier implements UniquenessVerifier
                 Fields fields = leafReaderContext.reader().fields();
                 for ( String field : fields )
                 {
-                    if ( LuceneDocumentStructure.NODE_ID_KEY.equals( field ) )
+                    if ( LuceneDocumentStructure.NODE_ID_KEY.equals( field ) ||
+                         LuceneDocumentStructure.isSubstringTermField( field ) )
                     {
                         continue;
                     }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.impl.index;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class CoalescingIndexRefreshTest
+{
+    private final DatabaseIndex index = mock( DatabaseIndex.class );
+    private final CoalescingIndexRefresh refresh = new CoalescingIndexRefresh( index );
+
+    @Test
+    public void shouldNotRefreshOnWrite() throws Exception
+    {
+        // WHEN
+        refresh.written();
+        refresh.written();
+
+        // THEN
+        verify( index, never() ).maybeRefreshBlocking();
+    }
+
+    @Test
+    public void shouldRefreshOnceForAllWritesBeforeRead() throws Exception
+    {
+        // GIVEN
+        refresh.written();
+        refresh.written();
+        refresh.written();
+
+        // WHEN
+        refresh.beforeRead();
+        refresh.beforeRead();
+
+        // THEN
+        verify( index, times( 1 ) ).maybeRefreshBlocking();
+    }
+
+    @Test
+    public void shouldNotRefreshWithoutWrites() throws Exception
+    {
+        // WHEN
+        refresh.beforeRead();
+        refresh.refreshIfNeeded();
+
+        // THEN
+        verify( index, never() ).maybeRefreshBlocking();
+    }
+
+    @Test
+    public void shouldNotRefreshForReadAfterBackgroundRefresh() throws Exception
+    {
+        // GIVEN
+        refresh.written();
+        refresh.refreshIfNeeded();
+
+        // WHEN
+        refresh.beforeRead();
+
+        // THEN
+        verify( index, times( 1 ) ).maybeRefreshBlocking();
+    }
+
+    @Test
+    public void shouldRefreshAgainForWritesDuringRefresh() throws Exception
+    {
+        // GIVEN
+        CountDownLatch refreshing = new CountDownLatch( 1 );
+        CountDownLatch written = new CountDownLatch( 1 );
+        doAnswer( invocation ->
+        {
+            refreshing.countDown();
+            written.await();
+            return null;
+        } ).doNothing().when( index ).maybeRefreshBlocking();
+        refresh.written();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            Future<Object> firstRead = executor.submit( () ->
+            {
+                refresh.beforeRead();
+                return null;
+            } );
+            refreshing.await();
+
+            // WHEN a write completes while the first refresh is in progress
+            refresh.written();
+            written.countDown();
+            firstRead.get( 10, TimeUnit.SECONDS );
+            refresh.beforeRead();
+
+            // THEN the later read refreshes again to see that write
+            verify( index, times( 2 ) ).maybeRefreshBlocking();
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+}
@@ -37,15 +37,19 @@ import java.util.concurrent.Future;
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.function.IOFunction;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.helpers.TaskCoordinator;
 import org.neo4j.kernel.api.exceptions.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
+import org.neo4j.kernel.api.impl.index.CoalescingIndexRefresh;
 import org.neo4j.kernel.api.impl.index.storage.DirectoryFactory;
 import org.neo4j.kernel.api.index.IndexEntryUpdate;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.schema.IndexQuery;
 import org.neo4j.kernel.api.schema.index.IndexDescriptor;
 import org.neo4j.kernel.api.schema.index.IndexDescriptorFactory;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.configuration.Settings;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.IndexSampler;
@@ -55,10 +59,12 @@ import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptySet;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.neo4j.helpers.collection.Iterators.asSet;
+import static org.neo4j.helpers.collection.MapUtil.stringMap;
 import static org.neo4j.kernel.api.schema.IndexQuery.exact;
 import static org.neo4j.kernel.api.schema.IndexQuery.range;
 import static org.neo4j.test.rule.concurrent.ThreadingRule.waitingWhileIn;
@@ -76,6 +82,8 @@ public class DatabaseIndexAccessorTest
     @Parameterized.Parameter( 0 )
     public IndexDescriptor index;
     @Parameterized.Parameter( 1 )
+    public String variant;
+    @Parameterized.Parameter( 2 )
     public IOFunction<DirectoryFactory,LuceneIndexAccessor> accessorFactory;
 
     private LuceneIndexAccessor accessor;
@@ -87,12 +95,12 @@ public class DatabaseIndexAccessorTest
     private static final IndexDescriptor GENERAL_INDEX = IndexDescriptorFactory.forLabel( 0, PROP_ID );
     private static final IndexDescriptor UNIQUE_INDEX = IndexDescriptorFactory.uniqueForLabel( 1, PROP_ID );
 
-    @Parameterized.Parameters( name = "{0}" )
+    @Parameterized.Parameters( name = "{0} {1}" )
     public static Collection<Object[]> implementations()
     {
         final File dir = new File( "dir" );
         return Arrays.asList(
-                arg( GENERAL_INDEX, dirFactory1 ->
+                arg( GENERAL_INDEX, "immediate refresh", dirFactory1 ->
                 {
                     SchemaIndex index = LuceneSchemaIndexBuilder.create( GENERAL_INDEX )
                             .withFileSystem( fileSystemRule.get() )
@@ -105,7 +113,7 @@ public class DatabaseIndexAccessorTest
                     index.open();
                     return new LuceneIndexAccessor( index, GENERAL_INDEX );
                 } ),
-                arg( UNIQUE_INDEX, dirFactory1 ->
+                arg( UNIQUE_INDEX, "immediate refresh", dirFactory1 ->
                 {
                     SchemaIndex index = LuceneSchemaIndexBuilder.create( UNIQUE_INDEX )
                             .withFileSystem( fileSystemRule.get() )
@@ -114,6 +122,60 @@ public class DatabaseIndexAccessorTest
                             .withIndexIdentifier( "testIndex" )
                             .build();
 
+                    index.create();
+                    index.open();
+                    return new LuceneIndexAccessor( index, UNIQUE_INDEX );
+                } ),
+                arg( GENERAL_INDEX, "coalescing refresh", dirFactory1 ->
+                {
+                    SchemaIndex index = LuceneSchemaIndexBuilder.create( GENERAL_INDEX )
+                            .withFileSystem( fileSystemRule.get() )
+                            .withDirectoryFactory( dirFactory1 )
+                            .withIndexRootFolder( dir )
+                            .withIndexIdentifier( "1" )
+                            .build();
+
+                    index.create();
+                    index.open();
+                    return new LuceneIndexAccessor( index, GENERAL_INDEX, new CoalescingIndexRefresh( index ) );
+                } ),
+                arg( UNIQUE_INDEX, "coalescing refresh", dirFactory1 ->
+                {
+                    SchemaIndex index = LuceneSchemaIndexBuilder.create( UNIQUE_INDEX )
+                            .withFileSystem( fileSystemRule.get() )
+                            .withDirectoryFactory( dirFactory1 )
+                            .withIndexRootFolder( dir )
+                            .withIndexIdentifier( "testIndex" )
+                            .build();
+
+                    index.create();
+                    index.open();
+                    return new LuceneIndexAccessor( index, UNIQUE_INDEX, new CoalescingIndexRefresh( index ) );
+                } ),
+                arg( GENERAL_INDEX, "substring terms", dirFactory1 ->
+                {
+                    SchemaIndex index = LuceneSchemaIndexBuilder.create( GENERAL_INDEX )
+                            .withFileSystem( fileSystemRule.get() )
+                            .withDirectoryFactory( dirFactory1 )
+                            .withIndexRootFolder( dir )
+                            .withIndexIdentifier( "1" )
+                            .withConfig( substringTermsConfig() )
+                            .build();
+
+                    index.create();
+                    index.open();
+                    return new LuceneIndexAccessor( index, GENERAL_INDEX );
+                } ),
+                arg( UNIQUE_INDEX, "substring terms", dirFactory1 ->
+                {
+                    SchemaIndex index = LuceneSchemaIndexBuilder.create( UNIQUE_INDEX )
+                            .withFileSystem( fileSystemRule.get() )
+                            .withDirectoryFactory( dirFactory1 )
+                            .withIndexRootFolder( dir )
+                            .withIndexIdentifier( "testIndex" )
+                            .withConfig( substringTermsConfig() )
+                            .build();
+
                     index.create();
                     index.open();
                     return new LuceneIndexAccessor( index, UNIQUE_INDEX );
@@ -121,11 +183,18 @@ public class DatabaseIndexAccessorTest
         );
     }
 
+    private static Config substringTermsConfig()
+    {
+        return Config.embeddedDefaults(
+                stringMap( GraphDatabaseSettings.lucene_schema_index_substring_terms.name(), Settings.TRUE ) );
+    }
+
     private static Object[] arg(
             IndexDescriptor index,
+            String variant,
             IOFunction<DirectoryFactory,LuceneIndexAccessor> foo )
     {
-        return new Object[]{index, foo};
+        return new Object[]{index, variant, foo};
     }
 
     @Before
@@ -191,6 +260,47 @@ public class DatabaseIndexAccessorTest
         assertThat( PrimitiveLongCollections.asArray( nullInclusive ), LongArrayMatcher.of( PROP_ID, 2, 3, 4 ) );
     }
 
+    @Test
+    public void indexStringContainsQuery() throws Exception
+    {
+        updateAndCommit( asList( add( 1, "abcd" ), add( 2, "bcdx" ), add( 3, "abcxbcd" ), add( 4, "xab" ),
+                add( 5, "" ) ) );
+
+        IndexReader reader = accessor.newReader();
+
+        PrimitiveLongIterator containsTrigram = reader.query( IndexQuery.stringContains( PROP_ID, "bcd" ) );
+        assertThat( PrimitiveLongCollections.asArray( containsTrigram ), LongArrayMatcher.of( 1, 2, 3 ) );
+
+        PrimitiveLongIterator containsShort = reader.query( IndexQuery.stringContains( PROP_ID, "ab" ) );
+        assertThat( PrimitiveLongCollections.asArray( containsShort ), LongArrayMatcher.of( 1, 3, 4 ) );
+
+        IndexQuery containsLong = IndexQuery.stringContains( PROP_ID, "abcd" );
+        PrimitiveLongIterator candidates = reader.query( containsLong );
+        if ( reader.mayReturnFalsePositives( containsLong ) )
+        {
+            // node 3 has all trigrams of "abcd" without containing it, and is left for the caller to filter out
+            assertThat( PrimitiveLongCollections.asArray( candidates ), LongArrayMatcher.of( 1, 3 ) );
+        }
+        else
+        {
+            assertThat( PrimitiveLongCollections.asArray( candidates ), LongArrayMatcher.of( 1 ) );
+        }
+        reader.close();
+    }
+
+    @Test
+    public void indexStringSuffixQuery() throws Exception
+    {
+        updateAndCommit( asList( add( 1, "abc" ), add( 2, "xbc" ), add( 3, "bcx" ), add( 4, "bc" ), add( 5, "" ) ) );
+
+        IndexReader reader = accessor.newReader();
+
+        IndexQuery suffix = IndexQuery.stringSuffix( PROP_ID, "bc" );
+        assertThat( PrimitiveLongCollections.asArray( reader.query( suffix ) ), LongArrayMatcher.of( 1, 2, 4 ) );
+        assertThat( reader.mayReturnFalsePositives( suffix ), equalTo( false ) );
+        reader.close();
+    }
+
     @Test
     public void indexNumberRangeQuery() throws Exception
     {
@@ -34,8 +34,10 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertThat;
 import static org.neo4j.kernel.api.impl.schema.LuceneDocumentStructure.NODE_ID_KEY;
 import static org.neo4j.kernel.api.impl.schema.LuceneDocumentStructure.newSeekQuery;
@@ -252,4 +254,65 @@ public class LuceneDocumentStructureTest
         // then
         assertThat( "Should contain term value", prefixQuery.toString(), containsString( "Prefix" ) );
     }
+
+    @Test
+    public void shouldBuildDocumentWithSubstringTermsForStringProperty() throws Exception
+    {
+        // given
+        Document document = LuceneDocumentStructure.documentWithSubstringTerms( (long) 123, "abcab" );
+
+        // then
+        assertEquals( "abcab", document.get( String.key( 0 ) ) );
+        assertEquals( "bacba", document.get( LuceneDocumentStructure.REVERSED_KEY ) );
+        assertArrayEquals( new String[]{"abc", "bca", "cab"},
+                document.getValues( LuceneDocumentStructure.TRIGRAM_KEY ) );
+    }
+
+    @Test
+    public void shouldNotAddSubstringTermsForNonStringProperty() throws Exception
+    {
+        // given
+        Document document = LuceneDocumentStructure.documentWithSubstringTerms( (long) 123, 42 );
+
+        // then
+        assertNull( document.get( LuceneDocumentStructure.REVERSED_KEY ) );
+        assertNull( document.get( LuceneDocumentStructure.TRIGRAM_KEY ) );
+    }
+
+    @Test
+    public void shouldRemoveSubstringTermsWhenDocumentIsReused() throws Exception
+    {
+        // given
+        LuceneDocumentStructure.documentWithSubstringTerms( (long) 123, "abcd" );
+        Document document = LuceneDocumentStructure.documentRepresentingProperties( (long) 123, "abcd" );
+
+        // then
+        assertNull( document.get( LuceneDocumentStructure.REVERSED_KEY ) );
+        assertNull( document.get( LuceneDocumentStructure.TRIGRAM_KEY ) );
+    }
+
+    @Test
+    public void shouldBuildTrigramContainsQuery() throws Exception
+    {
+        // given
+        ConstantScoreQuery query = (ConstantScoreQuery) LuceneDocumentStructure.newTrigramContainsQuery( "abcd" );
+        BooleanQuery trigrams = (BooleanQuery) query.getQuery();
+
+        // then
+        assertEquals( 2, trigrams.clauses().size() );
+        TermQuery first = (TermQuery) trigrams.clauses().get( 0 ).getQuery();
+        assertEquals( LuceneDocumentStructure.TRIGRAM_KEY, first.getTerm().field() );
+        assertEquals( "abc", first.getTerm().text() );
+    }
+
+    @Test
+    public void shouldBuildReversedSuffixQuery() throws Exception
+    {
+        // given
+        MultiTermQuery query = (MultiTermQuery) LuceneDocumentStructure.newReversedSuffixQuery( "Suffix" );
+
+        // then
+        assertEquals( LuceneDocumentStructure.REVERSED_KEY, query.getField() );
+        assertThat( "Should contain reversed term value", query.toString(), containsString( "xiffuS" ) );
+    }
 }
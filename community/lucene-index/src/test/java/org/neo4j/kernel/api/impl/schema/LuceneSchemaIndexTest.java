@@ -29,14 +29,18 @@ import org.junit.Test;
 import java.io.IOException;
 import java.util.UUID;
 
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.io.IOUtils;
 import org.neo4j.kernel.api.impl.index.storage.DirectoryFactory;
 import org.neo4j.kernel.api.schema.index.IndexDescriptor;
 import org.neo4j.kernel.api.schema.index.IndexDescriptorFactory;
+import org.neo4j.kernel.configuration.Config;
 import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.test.rule.fs.DefaultFileSystemRule;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.neo4j.helpers.collection.MapUtil.stringMap;
 
 public class LuceneSchemaIndexTest
 {
@@ -119,9 +123,48 @@ public class LuceneSchemaIndexTest
         assertTrue( "Should have had online status set", index.isOnline() );
     }
 
+    @Test
+    public void substringTermsAreKeptByOnlineIndex() throws IOException
+    {
+        index = createIndex( substringTermsConfig( true ) );
+        assertTrue( "Should have substring terms", index.hasSubstringTerms() );
+        index.markAsOnline();
+        index.close();
+
+        index = openIndex( substringTermsConfig( false ) );
+        assertTrue( "Should have kept substring terms", index.hasSubstringTerms() );
+    }
+
+    @Test
+    public void substringTermsAreNotAddedToOnlineIndex() throws IOException
+    {
+        index = createIndex( substringTermsConfig( false ) );
+        index.markAsOnline();
+        index.close();
+
+        index = openIndex( substringTermsConfig( true ) );
+        assertFalse( "Should not have substring terms", index.hasSubstringTerms() );
+    }
+
+    @Test
+    public void substringTermsOfIndexNotOnlineFollowConfig() throws IOException
+    {
+        index = createIndex( substringTermsConfig( false ) );
+        index.getIndexWriter().addDocument( newDocument() );
+        index.close();
+
+        index = openIndex( substringTermsConfig( true ) );
+        assertTrue( "Should have substring terms", index.hasSubstringTerms() );
+    }
+
     private SchemaIndex createIndex() throws IOException
     {
-        SchemaIndex schemaIndex = newSchemaIndex();
+        return createIndex( Config.defaults() );
+    }
+
+    private SchemaIndex createIndex( Config config ) throws IOException
+    {
+        SchemaIndex schemaIndex = newSchemaIndex( config );
         schemaIndex.create();
         schemaIndex.open();
         return schemaIndex;
@@ -129,12 +172,17 @@ public class LuceneSchemaIndexTest
 
     private SchemaIndex openIndex() throws IOException
     {
-        SchemaIndex schemaIndex = newSchemaIndex();
+        return openIndex( Config.defaults() );
+    }
+
+    private SchemaIndex openIndex( Config config ) throws IOException
+    {
+        SchemaIndex schemaIndex = newSchemaIndex( config );
         schemaIndex.open();
         return schemaIndex;
     }
 
-    private SchemaIndex newSchemaIndex()
+    private SchemaIndex newSchemaIndex( Config config )
     {
         LuceneSchemaIndexBuilder builder = LuceneSchemaIndexBuilder.create( descriptor );
         return builder
@@ -142,9 +190,16 @@ public class LuceneSchemaIndexTest
                 .withDirectoryFactory( dirFactory )
                 .withFileSystem( fs.get() )
                 .withIndexIdentifier( "testIndex" )
+                .withConfig( config )
                 .build();
     }
 
+    private static Config substringTermsConfig( boolean enabled )
+    {
+        return Config.embeddedDefaults( stringMap( GraphDatabaseSettings.lucene_schema_index_substring_terms.name(),
+                String.valueOf( enabled ) ) );
+    }
+
     private static Document newDocument()
     {
         Document doc = new Document();
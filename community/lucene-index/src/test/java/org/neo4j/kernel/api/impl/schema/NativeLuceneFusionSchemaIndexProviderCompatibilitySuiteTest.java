@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.impl.schema;
+
+import java.io.File;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.kernel.api.impl.index.storage.DirectoryFactory;
+import org.neo4j.kernel.api.index.IndexProviderCompatibilityTestSuite;
+import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.factory.OperationalMode;
+import org.neo4j.kernel.impl.index.schema.NumberSchemaIndexProvider;
+import org.neo4j.kernel.impl.index.schema.StringSchemaIndexProvider;
+import org.neo4j.kernel.impl.index.schema.fusion.FusionSchemaIndexProvider;
+import org.neo4j.logging.NullLogProvider;
+
+public class NativeLuceneFusionSchemaIndexProviderCompatibilitySuiteTest extends IndexProviderCompatibilityTestSuite
+{
+    @Override
+    protected SchemaIndexProvider createIndexProvider( PageCache pageCache, FileSystemAbstraction fs, File graphDbDir )
+    {
+        DirectoryFactory.InMemoryDirectoryFactory directoryFactory = new DirectoryFactory.InMemoryDirectoryFactory();
+        NullLogProvider logging = NullLogProvider.getInstance();
+        Config config = Config.defaults();
+        OperationalMode mode = OperationalMode.single;
+        LuceneSchemaIndexProvider luceneProvider =
+                new LuceneSchemaIndexProvider( fs, directoryFactory, graphDbDir, logging, config, mode );
+        NumberSchemaIndexProvider numberProvider = new NumberSchemaIndexProvider( pageCache, fs, graphDbDir, false );
+        StringSchemaIndexProvider stringProvider = new StringSchemaIndexProvider( pageCache, fs, graphDbDir, false );
+        return new FusionSchemaIndexProvider( NativeLuceneFusionSchemaIndexProviderFactory.DESCRIPTOR, 0,
+                numberProvider, stringProvider, luceneProvider );
+    }
+}
@@ -20,11 +20,14 @@
 package org.neo4j.kernel.api.impl.schema.reader;
 
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.MultiTermQuery;
 import org.apache.lucene.search.NumericRangeQuery;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.WildcardQuery;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -44,6 +47,8 @@ import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.storageengine.api.schema.IndexReader;
 
 import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -123,6 +128,58 @@ public class SimpleIndexReaderTest
         verify( indexSearcher ).search( any( NumericRangeQuery.class ), any( DocValuesCollector.class ) );
     }
 
+    @Test
+    public void containsQueryReachSearcher() throws Exception
+    {
+        IndexReader simpleIndexReader = getUniqueSimpleReader();
+
+        simpleIndexReader.query( IndexQuery.stringContains( 1, "bcd" ) );
+
+        verify( indexSearcher ).search( any( WildcardQuery.class ), any( DocValuesCollector.class ) );
+        assertFalse( simpleIndexReader.mayReturnFalsePositives( IndexQuery.stringContains( 1, "bcde" ) ) );
+    }
+
+    @Test
+    public void containsQueryWithSubstringTermsReachSearcher() throws Exception
+    {
+        IndexReader simpleIndexReader = getSubstringTermsSimpleReader();
+
+        simpleIndexReader.query( IndexQuery.stringContains( 1, "bcd" ) );
+
+        verify( indexSearcher ).search( any( ConstantScoreQuery.class ), any( DocValuesCollector.class ) );
+    }
+
+    @Test
+    public void shortContainsQueryWithSubstringTermsReachSearcher() throws Exception
+    {
+        IndexReader simpleIndexReader = getSubstringTermsSimpleReader();
+
+        simpleIndexReader.query( IndexQuery.stringContains( 1, "bc" ) );
+
+        verify( indexSearcher ).search( any( WildcardQuery.class ), any( DocValuesCollector.class ) );
+    }
+
+    @Test
+    public void containsQueryWithSubstringTermsMayReturnFalsePositivesBeyondOneTrigram() throws Exception
+    {
+        IndexReader simpleIndexReader = getSubstringTermsSimpleReader();
+
+        assertFalse( simpleIndexReader.mayReturnFalsePositives( IndexQuery.stringContains( 1, "bc" ) ) );
+        assertFalse( simpleIndexReader.mayReturnFalsePositives( IndexQuery.stringContains( 1, "bcd" ) ) );
+        assertTrue( simpleIndexReader.mayReturnFalsePositives( IndexQuery.stringContains( 1, "bcde" ) ) );
+        assertFalse( simpleIndexReader.mayReturnFalsePositives( IndexQuery.stringSuffix( 1, "bcde" ) ) );
+    }
+
+    @Test
+    public void suffixQueryWithSubstringTermsReachSearcher() throws Exception
+    {
+        IndexReader simpleIndexReader = getSubstringTermsSimpleReader();
+
+        simpleIndexReader.query( IndexQuery.stringSuffix( 1, "bcd" ) );
+
+        verify( indexSearcher ).search( any( MultiTermQuery.class ), any( DocValuesCollector.class ) );
+    }
+
     @Test
     public void countIndexedNodesReachSearcher() throws IOException
     {
@@ -153,6 +210,12 @@ public class SimpleIndexReaderTest
                 taskCoordinator );
     }
 
+    private SimpleIndexReader getSubstringTermsSimpleReader()
+    {
+        return new SimpleIndexReader( partitionSearcher, IndexDescriptorFactory.forLabel( 0, 0 ), samplingConfig,
+                taskCoordinator, true );
+    }
+
     private SimpleIndexReader getUniqueSimpleReader()
     {
         return new SimpleIndexReader( partitionSearcher, IndexDescriptorFactory.uniqueForLabel( 0, 0 ),
@@ -29,6 +29,11 @@ public interface PrimitiveIntObjectMap<VALUE> extends PrimitiveIntCollection
 
     VALUE remove( int key );
 
+    /**
+     * @return the values of this map. Modifying the map while iterating over the values has undefined results.
+     */
+    Iterable<VALUE> values();
+
     /**
      * Visit the entries of this map, until all have been visited or the visitor returns 'true'.
      */
@@ -29,6 +29,11 @@ public interface PrimitiveLongObjectMap<VALUE> extends PrimitiveLongCollection
 
     VALUE remove( long key );
 
+    /**
+     * @return the values of this map. Modifying the map while iterating over the values has undefined results.
+     */
+    Iterable<VALUE> values();
+
     /**
      * Visit the entries of this map, until all have been visited or the visitor returns 'true'.
      */
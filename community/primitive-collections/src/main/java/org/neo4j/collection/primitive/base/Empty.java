@@ -19,6 +19,8 @@
  */
 package org.neo4j.collection.primitive.base;
 
+import java.util.Collections;
+
 import org.neo4j.collection.primitive.PrimitiveCollection;
 import org.neo4j.collection.primitive.PrimitiveIntCollection;
 import org.neo4j.collection.primitive.PrimitiveIntCollections;
@@ -193,6 +195,12 @@ public class Empty
             return null;
         }
 
+        @Override
+        public Iterable<T> values()
+        {
+            return Collections.emptyList();
+        }
+
         @Override
         public <E extends Exception> void visitEntries( PrimitiveLongObjectVisitor<T,E> visitor ) throws E
         {   // No entries to visit
@@ -66,6 +66,12 @@ public class PrimitiveLongObjectHashMap<VALUE> extends AbstractLongHopScotchColl
         return table.size();
     }
 
+    @Override
+    public Iterable<VALUE> values()
+    {
+        return () -> new TableValueIterator<>( table );
+    }
+
     @Override
     public String toString()
     {
@@ -855,6 +855,47 @@ public class PrimitiveLongMapTest
         assertEquals( "Size after put should have been 200", 200, sizeAfter );
     }
 
+    @Test
+    public void longObjectValuesShouldSeeAllValues()
+    {
+        // GIVEN
+        PrimitiveLongObjectMap<String> map = Primitive.longObjectMap();
+        for ( int i = 0; i < 100; i++ )
+        {
+            map.put( i, "v" + i );
+        }
+        map.remove( 50 );
+
+        // WHEN
+        Set<String> values = new HashSet<>();
+        for ( String value : map.values() )
+        {
+            assertTrue( values.add( value ) );
+        }
+
+        // THEN
+        assertEquals( 99, values.size() );
+        assertFalse( values.contains( "v50" ) );
+        assertTrue( values.contains( "v99" ) );
+    }
+
+    @Test
+    public void intObjectValuesShouldSeeAllValues()
+    {
+        // GIVEN
+        PrimitiveIntObjectMap<String> map = Primitive.intObjectMap();
+        map.put( 1, "a" );
+        map.put( 2, "b" );
+
+        // WHEN
+        Set<String> values = new HashSet<>();
+        map.values().forEach( values::add );
+
+        // THEN
+        assertEquals( new HashSet<>( Arrays.asList( "a", "b" ) ), values );
+        assertFalse( Primitive.intObjectMap().values().iterator().hasNext() );
+    }
+
     @SuppressWarnings( "unchecked" )
     @Test
     public void longIntEntryVisitorShouldSeeAllEntriesIfItDoesNotBreakOut()
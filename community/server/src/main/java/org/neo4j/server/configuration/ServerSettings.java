@@ -138,6 +138,15 @@ public class ServerSettings implements LoadableConfig
     @Description( "Path to the X.509 private key to be used by Neo4j for TLS connections" )
     public static final Setting<File> tls_key_file = BoltKernelExtension.Settings.tls_key_file;
 
+    @Internal
+    @Description( "Whether Bolt sessions should share a bounded pool of worker threads, rather than each " +
+            "session being given a dedicated thread." )
+    public static final Setting<Boolean> bolt_worker_pool_enabled = BoltKernelExtension.Settings.worker_pool_enabled;
+
+    @Internal
+    @Description( "Maximum number of threads in the shared Bolt worker pool." )
+    public static final Setting<Integer> bolt_worker_pool_size = BoltKernelExtension.Settings.worker_pool_size;
+
     @Description( "Enable HTTP request logging." )
     public static final Setting<Boolean> http_logging_enabled = setting( "dbms.logs.http.enabled", BOOLEAN, FALSE );
 
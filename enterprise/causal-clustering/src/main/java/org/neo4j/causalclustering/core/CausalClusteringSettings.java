@@ -73,10 +73,32 @@ public class CausalClusteringSettings implements LoadableConfig
     public static final Setting<Integer> catchup_batch_size =
             setting( "causal_clustering.catchup_batch_size", INTEGER, "64" );
 
+    @Description( "The maximum total size of the content of a batch when catching up. A batch always contains " +
+                  "at least one entry, regardless of its size" )
+    public static final Setting<Long> catchup_batch_max_bytes =
+            setting( "causal_clustering.catchup_batch_max_bytes", BYTES, "8M", min( 0L ) );
+
+    @Description( "The maximum number of batches which may be outstanding when catching up a member" )
+    public static final Setting<Integer> catchup_window_size =
+            setting( "causal_clustering.catchup_window_size", INTEGER, "4", min( 1 ) );
+
+    @Description( "The maximum total size of the content of outstanding entries when shipping the log to a member" )
+    public static final Setting<Long> catchup_window_max_bytes =
+            setting( "causal_clustering.catchup_window_max_bytes", BYTES, "32M", min( 0L ) );
+
     @Description( "The maximum lag allowed before log shipping pauses (in unit of entries)" )
     public static final Setting<Integer> log_shipping_max_lag =
             setting( "causal_clustering.log_shipping_max_lag", INTEGER, "256" );
 
+    @Description( "The maximum number of entries in the in-flight cache of recently appended RAFT log entries" )
+    public static final Setting<Integer> in_flight_cache_max_entries =
+            setting( "causal_clustering.in_flight_cache.max_entries", INTEGER, "1024", min( 1 ) );
+
+    @Description( "The maximum total size of the content of entries in the in-flight cache of recently appended " +
+                  "RAFT log entries" )
+    public static final Setting<Long> in_flight_cache_max_bytes =
+            setting( "causal_clustering.in_flight_cache.max_bytes", BYTES, "1G", min( 0L ) );
+
     @Description( "Size of the RAFT in queue" )
     @Internal
     public static final Setting<Integer> raft_in_queue_size =
@@ -27,6 +27,7 @@ import org.neo4j.causalclustering.core.consensus.log.InMemoryRaftLog;
 import org.neo4j.causalclustering.core.consensus.log.MonitoredRaftLog;
 import org.neo4j.causalclustering.core.consensus.log.RaftLog;
 import org.neo4j.causalclustering.core.consensus.log.RaftLogEntry;
+import org.neo4j.causalclustering.core.consensus.log.monitoring.InFlightCacheMonitor;
 import org.neo4j.causalclustering.core.consensus.log.segmented.CoreLogPruningStrategy;
 import org.neo4j.causalclustering.core.consensus.log.segmented.CoreLogPruningStrategyFactory;
 import org.neo4j.causalclustering.core.consensus.log.segmented.InFlightMap;
@@ -57,7 +58,12 @@ import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.kernel.lifecycle.Lifecycle;
 import org.neo4j.logging.LogProvider;
 
+import static org.neo4j.causalclustering.core.CausalClusteringSettings.catchup_batch_max_bytes;
 import static org.neo4j.causalclustering.core.CausalClusteringSettings.catchup_batch_size;
+import static org.neo4j.causalclustering.core.CausalClusteringSettings.catchup_window_max_bytes;
+import static org.neo4j.causalclustering.core.CausalClusteringSettings.catchup_window_size;
+import static org.neo4j.causalclustering.core.CausalClusteringSettings.in_flight_cache_max_bytes;
+import static org.neo4j.causalclustering.core.CausalClusteringSettings.in_flight_cache_max_entries;
 import static org.neo4j.causalclustering.core.CausalClusteringSettings.join_catch_up_timeout;
 import static org.neo4j.causalclustering.core.CausalClusteringSettings.log_shipping_max_lag;
 import static org.neo4j.causalclustering.core.consensus.log.RaftLog.RAFT_LOG_DIRECTORY_NAME;
@@ -73,7 +79,7 @@ public class ConsensusModule
     private final RaftMachine raftMachine;
     private final DelayedRenewableTimeoutService raftTimeoutService;
     private final RaftMembershipManager raftMembershipManager;
-    private final InFlightMap<RaftLogEntry> inFlightMap = new InFlightMap<>();
+    private final InFlightMap<RaftLogEntry> inFlightMap;
 
     public ConsensusModule( MemberId myself, final PlatformModule platformModule,
             Outbound<MemberId,RaftMessages.RaftMessage> outbound, File clusterStateDirectory,
@@ -93,6 +99,10 @@ public class ConsensusModule
 
         raftLog = new MonitoredRaftLog( underlyingLog, platformModule.monitors );
 
+        inFlightMap = new InFlightMap<>( false, config.get( in_flight_cache_max_entries ),
+                config.get( in_flight_cache_max_bytes ), entry -> entry.content().size().orElse( 0 ),
+                platformModule.monitors.newMonitor( InFlightCacheMonitor.class ) );
+
         StateStorage<TermState> termState;
         StateStorage<VoteState> voteState;
         StateStorage<RaftMembershipState> raftMembershipStorage;
@@ -130,7 +140,8 @@ public class ConsensusModule
         RaftLogShippingManager logShipping =
                 new RaftLogShippingManager( outbound, logProvider, raftLog, systemClock(), myself,
                         raftMembershipManager, electionTimeout, config.get( catchup_batch_size ),
-                        config.get( log_shipping_max_lag ), inFlightMap );
+                        config.get( catchup_batch_max_bytes ), config.get( catchup_window_size ),
+                        config.get( catchup_window_max_bytes ), config.get( log_shipping_max_lag ), inFlightMap );
 
         raftTimeoutService = new DelayedRenewableTimeoutService( systemClock(), logProvider );
 
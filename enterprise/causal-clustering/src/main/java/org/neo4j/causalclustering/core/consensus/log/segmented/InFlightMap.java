@@ -19,24 +19,64 @@
  */
 package org.neo4j.causalclustering.core.consensus.log.segmented;
 
-import java.util.SortedMap;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToLongFunction;
+
+import org.neo4j.causalclustering.core.consensus.log.monitoring.InFlightCacheMonitor;
 
 import static java.lang.String.format;
 
+/**
+ * A cache of recently appended log entries, addressed by log index.
+ * <p>
+ * Entries are kept in a ring buffer of fixed capacity, so the slot of an index is a function of the index alone
+ * and lookups are lock-free. The cache is bounded both by number of entries and by the total size of the cached
+ * values, as reported by the supplied sizer. When adding an entry would exceed either bound, the entries with the
+ * lowest indexes are evicted first. Gaps between cached indexes are allowed.
+ * <p>
+ * Mutations are serialized on the map itself, while {@link #get(long)} never blocks.
+ */
 public class InFlightMap<V>
 {
-    private final SortedMap<Long,V> map = new ConcurrentSkipListMap<>();
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+    public static final long DEFAULT_MAX_BYTES = 1024L * 1024 * 1024;
+
+    private final AtomicReferenceArray<Slot<V>> slots;
+    private final int capacity;
+    private final long maxBytes;
+    private final ToLongFunction<V> sizeOf;
+    private final InFlightCacheMonitor monitor;
     private volatile boolean enabled;
 
+    // guarded by this
+    private long first = -1;
+    private long last = -1;
+    private int elementCount;
+    private long totalBytes;
+
     public InFlightMap()
     {
-        this ( false );
+        this( false );
     }
 
     public InFlightMap( boolean enabled )
     {
+        this( enabled, DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES, value -> 0, InFlightCacheMonitor.VOID );
+    }
+
+    public InFlightMap( boolean enabled, int maxEntries, long maxBytes, ToLongFunction<V> sizeOf,
+            InFlightCacheMonitor monitor )
+    {
+        if ( maxEntries <= 0 )
+        {
+            throw new IllegalArgumentException( "Max entries must be positive, was " + maxEntries );
+        }
         this.enabled = enabled;
+        this.capacity = maxEntries;
+        this.maxBytes = maxBytes;
+        this.sizeOf = sizeOf;
+        this.monitor = monitor;
+        this.slots = new AtomicReferenceArray<>( maxEntries );
     }
 
     public void enable()
@@ -45,27 +85,65 @@ public class InFlightMap<V>
     }
 
     /**
-     * Adds a new mapping.
+     * Adds a new mapping. The mapping may be dropped immediately, or evict older mappings, to stay within the
+     * bounds of the cache.
      *
      * @param key The key of the mapping
      * @param value The value corresponding to the key provided.
      * @throws IllegalArgumentException if a mapping for the key already exists
      */
-    public void put( Long key, V value )
+    public synchronized void put( long key, V value )
     {
         if ( !enabled )
         {
             return;
         }
 
-        V previousValue = map.putIfAbsent( key, value );
-
-        if ( previousValue != null )
+        Slot<V> previous = slots.get( slotOf( key ) );
+        if ( previous != null && previous.key == key )
         {
             throw new IllegalArgumentException(
                     format( "Attempted to register an already seen value to the log entry cache. " +
-                            "Key: %s; New Value: %s; Previous Value: %s", key, value, previousValue ) );
+                            "Key: %s; New Value: %s; Previous Value: %s", key, value, previous.value ) );
+        }
+
+        long size = sizeOf.applyAsLong( value );
+        if ( size > maxBytes )
+        {
+            return;
+        }
+
+        if ( elementCount > 0 && key < first )
+        {
+            if ( elementCount >= capacity || totalBytes + size > maxBytes || last - key >= capacity )
+            {
+                // older than everything we hold and there is no room for it
+                return;
+            }
+        }
+        else
+        {
+            while ( elementCount > 0 &&
+                    ( elementCount >= capacity || totalBytes + size > maxBytes || key - first >= capacity ) )
+            {
+                evict( first );
+            }
         }
+
+        slots.set( slotOf( key ), new Slot<>( key, value, size ) );
+        if ( elementCount == 0 )
+        {
+            first = key;
+            last = key;
+        }
+        else
+        {
+            first = Math.min( first, key );
+            last = Math.max( last, key );
+        }
+        elementCount++;
+        totalBytes += size;
+        reportOccupancy();
     }
 
     /**
@@ -73,9 +151,19 @@ public class InFlightMap<V>
      * @param key The key to use for retrieving the value from the map
      * @return the value for this key, otherwise null.
      */
-    public V get( Long key )
+    public V get( long key )
     {
-        return map.get( key );
+        Slot<V> slot = slots.get( slotOf( key ) );
+        if ( slot != null && slot.key == key )
+        {
+            monitor.hit();
+            return slot.value;
+        }
+        if ( enabled )
+        {
+            monitor.miss();
+        }
+        return null;
     }
 
     /**
@@ -84,9 +172,15 @@ public class InFlightMap<V>
      * @param key The object to attempt unregistering.
      * @return true if the attempt to unregister was successful, otherwise false if this object was not found.
      */
-    public boolean remove( Long key )
+    public synchronized boolean remove( long key )
     {
-        return map.remove( key ) != null;
+        if ( !isPresent( key ) )
+        {
+            return false;
+        }
+        evict( key );
+        reportOccupancy();
+        return true;
     }
 
     /**
@@ -94,14 +188,88 @@ public class InFlightMap<V>
      *
      * @param key The object to attempt unregistering.
      */
-    public void truncate( Long key )
+    public synchronized void truncate( long key )
     {
-        map.tailMap( key ).keySet().forEach( map::remove );
+        while ( elementCount > 0 && last >= key )
+        {
+            evict( last );
+        }
+        reportOccupancy();
+    }
+
+    private boolean isPresent( long key )
+    {
+        Slot<V> slot = slots.get( slotOf( key ) );
+        return slot != null && slot.key == key;
+    }
+
+    /**
+     * Removes a present entry and keeps the bounds pointing at present entries.
+     */
+    private void evict( long key )
+    {
+        int slotIndex = slotOf( key );
+        Slot<V> slot = slots.get( slotIndex );
+        slots.set( slotIndex, null );
+        elementCount--;
+        totalBytes -= slot.size;
+
+        if ( elementCount == 0 )
+        {
+            first = -1;
+            last = -1;
+            return;
+        }
+        if ( key == first )
+        {
+            do
+            {
+                first++;
+            }
+            while ( !isPresent( first ) );
+        }
+        if ( key == last )
+        {
+            do
+            {
+                last--;
+            }
+            while ( !isPresent( last ) );
+        }
+    }
+
+    private void reportOccupancy()
+    {
+        // the limits are reported along with the occupancy, since listeners may register after construction
+        monitor.setMaxElements( capacity );
+        monitor.setMaxBytes( maxBytes );
+        monitor.setElementCount( elementCount );
+        monitor.setTotalBytes( totalBytes );
+    }
+
+    private int slotOf( long key )
+    {
+        return (int) Math.floorMod( key, (long) capacity );
     }
 
     @Override
-    public String toString()
+    public synchronized String toString()
+    {
+        return format( "InFlightMap{first=%d, last=%d, elementCount=%d, totalBytes=%d, maxEntries=%d, maxBytes=%d}",
+                first, last, elementCount, totalBytes, capacity, maxBytes );
+    }
+
+    private static class Slot<V>
     {
-        return String.format( "InFlightMap{map=%s}", map );
+        private final long key;
+        private final V value;
+        private final long size;
+
+        Slot( long key, V value, long size )
+        {
+            this.key = key;
+            this.value = value;
+            this.size = size;
+        }
     }
 }
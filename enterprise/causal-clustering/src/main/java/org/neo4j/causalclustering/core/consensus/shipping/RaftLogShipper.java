@@ -21,6 +21,9 @@ package org.neo4j.causalclustering.core.consensus.shipping;
 
 import java.io.IOException;
 import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 
 import org.neo4j.causalclustering.core.consensus.schedule.DelayedRenewableTimeoutService;
 import org.neo4j.causalclustering.core.consensus.LeaderContext;
@@ -44,9 +47,7 @@ import static org.neo4j.causalclustering.core.consensus.shipping.RaftLogShipper.
 import static org.neo4j.causalclustering.core.consensus.shipping.RaftLogShipper.Timeouts.RESEND;
 
 /// Optimizations
-// TODO: Have several outstanding batches in catchup mode, to bridge the latency gap.
 // TODO: Bisect search for mismatch.
-// TODO: Maximum bound on size of batch in bytes, not just entry count.
 
 // Production ready
 // TODO: Replace sender service with something more appropriate. No need for queue and multiplex capability, in fact
@@ -85,7 +86,8 @@ public class RaftLogShipper
         /**
          * In the catchup mode we are trying to catch up the follower as quickly
          * as possible. The follower receives batches of entries in series until
-         * it is fully caught up.
+         * it is fully caught up. Several batches may be outstanding at a time,
+         * to bridge the latency between sending a batch and receiving its response.
          */
         CATCHUP,
         /**
@@ -110,9 +112,16 @@ public class RaftLogShipper
     private final MemberId leader;
     private final long retryTimeMillis;
     private final int catchupBatchSize;
+    private final long catchupBatchBytes;
+    private final int catchupWindowSize;
+    private final long catchupWindowBytes;
     private final int maxAllowedShippingLag;
     private final InFlightMap<RaftLogEntry> inFlightMap;
 
+    /* Batches sent but not yet acknowledged by the match index, oldest first. */
+    private final Deque<Batch> outstandingBatches = new ArrayDeque<>();
+    private long outstandingBytes;
+
     private DelayedRenewableTimeoutService timeoutService;
     private RenewableTimeout timeout;
     private long timeoutAbsoluteMillis;
@@ -124,10 +133,14 @@ public class RaftLogShipper
     RaftLogShipper( Outbound<MemberId, RaftMessages.RaftMessage> outbound, LogProvider logProvider,
                     ReadableRaftLog raftLog, Clock clock,
                     MemberId leader, MemberId follower, long leaderTerm, long leaderCommit, long retryTimeMillis,
-                    int catchupBatchSize, int maxAllowedShippingLag, InFlightMap<RaftLogEntry> inFlightMap )
+                    int catchupBatchSize, long catchupBatchBytes, int catchupWindowSize, long catchupWindowBytes,
+                    int maxAllowedShippingLag, InFlightMap<RaftLogEntry> inFlightMap )
     {
         this.outbound = outbound;
         this.catchupBatchSize = catchupBatchSize;
+        this.catchupBatchBytes = catchupBatchBytes;
+        this.catchupWindowSize = catchupWindowSize;
+        this.catchupWindowBytes = catchupWindowBytes;
         this.maxAllowedShippingLag = maxAllowedShippingLag;
         this.logProvider = logProvider;
         this.log = logProvider.getLog( getClass() );
@@ -199,6 +212,7 @@ public class RaftLogShipper
         if ( newMatchIndex > matchIndex )
         {
             matchIndex = newMatchIndex;
+            acknowledgeOutstanding();
         }
         else
         {
@@ -208,7 +222,7 @@ public class RaftLogShipper
         switch ( mode )
         {
             case MISMATCH:
-                if ( sendNextBatchAfterMatch( leaderContext ) )
+                if ( sendBatchesAfterMatch( matchIndex + 1, leaderContext ) )
                 {
                     log.info( "%s: caught up after mismatch, moving to PIPELINE mode", statusAsString() );
                     mode = PIPELINE;
@@ -220,13 +234,20 @@ public class RaftLogShipper
                 }
                 break;
             case CATCHUP:
-                if ( matchIndex >= lastSentIndex )
+                /* Outstanding batches are contiguous with what the follower has matched, so we can
+                 * keep filling the window after them. Otherwise we wait for the last sent entry to match. */
+                if ( !outstandingBatches.isEmpty() || matchIndex >= lastSentIndex )
                 {
-                    if ( sendNextBatchAfterMatch( leaderContext ) )
+                    long nextIndex = outstandingBatches.isEmpty() ? matchIndex + 1 : lastSentIndex + 1;
+                    if ( sendBatchesAfterMatch( nextIndex, leaderContext ) )
                     {
                         log.info( "%s: caught up, moving to PIPELINE mode", statusAsString() );
                         mode = PIPELINE;
                     }
+                    else if ( progress )
+                    {
+                        scheduleTimeout( retryTimeMillis );
+                    }
                 }
                 break;
             case PIPELINE:
@@ -254,7 +275,7 @@ public class RaftLogShipper
         {
             while ( lastSentIndex <= prevLogIndex )
             {
-                if ( prevLogIndex - matchIndex <= maxAllowedShippingLag )
+                if ( prevLogIndex - matchIndex <= maxAllowedShippingLag && outstandingBytes <= catchupWindowBytes )
                 {
                     // all sending functions update lastSentIndex
                     sendNewEntries( prevLogIndex, prevLogTerm, newLogEntries, leaderContext );
@@ -265,8 +286,8 @@ public class RaftLogShipper
                      * as soon as the follower has caught up with the last pipelined entry,
                      * or when we timeout and resend. */
                     log.info( "%s: follower has fallen behind (target prevLogIndex was %d, maxAllowedShippingLag " +
-                              "is %d), moving to CATCHUP mode", statusAsString(), prevLogIndex,
-                            maxAllowedShippingLag );
+                              "is %d, outstanding bytes %d of %d), moving to CATCHUP mode", statusAsString(),
+                            prevLogIndex, maxAllowedShippingLag, outstandingBytes, catchupWindowBytes );
                     mode = Mode.CATCHUP;
                     break;
                 }
@@ -371,26 +392,66 @@ public class RaftLogShipper
     }
 
     /**
+     * Sends consecutive batches starting at the supplied index, for as long as the window allows.
+     * The window is bounded both by the number of outstanding batches and by their total size.
+     *
      * Returns true if this sent the last batch.
      */
-    private boolean sendNextBatchAfterMatch( LeaderContext leaderContext )
+    private boolean sendBatchesAfterMatch( long nextIndex, LeaderContext leaderContext )
     {
         long lastIndex = raftLog.appendIndex();
 
-        if ( lastIndex > matchIndex )
+        if ( lastIndex < nextIndex )
         {
-            long endIndex = min( lastIndex, matchIndex + catchupBatchSize );
+            return true;
+        }
+
+        while ( nextIndex <= lastIndex && windowHasRoom() )
+        {
+            long endIndex = min( lastIndex, nextIndex + catchupBatchSize - 1 );
 
             scheduleTimeout( retryTimeMillis );
-            sendRange( matchIndex + 1, endIndex, leaderContext );
-            return endIndex == lastIndex;
+            if ( !sendRange( nextIndex, endIndex, leaderContext ) )
+            {
+                break;
+            }
+            nextIndex = lastSentIndex + 1;
         }
-        else
+        return lastSentIndex >= lastIndex;
+    }
+
+    private boolean windowHasRoom()
+    {
+        /* a single batch may always be outstanding, however small the window */
+        return outstandingBatches.isEmpty() ||
+               ( outstandingBatches.size() < catchupWindowSize && outstandingBytes < catchupWindowBytes );
+    }
+
+    private void addOutstanding( long endIndex, long bytes )
+    {
+        outstandingBatches.addLast( new Batch( endIndex, bytes ) );
+        outstandingBytes += bytes;
+    }
+
+    private void acknowledgeOutstanding()
+    {
+        while ( !outstandingBatches.isEmpty() && outstandingBatches.peekFirst().endIndex <= matchIndex )
         {
-            return true;
+            outstandingBytes -= outstandingBatches.removeFirst().bytes;
         }
     }
 
+    private void clearOutstanding()
+    {
+        outstandingBatches.clear();
+        outstandingBytes = 0;
+    }
+
+    private static long sizeOf( RaftLogEntry entry )
+    {
+        return entry.content().size().orElse( 0 );
+    }
+
     private void sendCommitUpdate( LeaderContext leaderContext )
     {
         /*
@@ -412,6 +473,13 @@ public class RaftLogShipper
 
         lastSentIndex = prevLogIndex + 1;
 
+        long bytes = 0;
+        for ( RaftLogEntry entry : newEntries )
+        {
+            bytes += sizeOf( entry );
+        }
+        addOutstanding( prevLogIndex + newEntries.length, bytes );
+
         RaftMessages.AppendEntries.Request appendRequest = new RaftMessages.AppendEntries.Request(
                 leader, leaderContext.term, prevLogIndex, prevLogTerm, newEntries, leaderContext.commitIndex
         );
@@ -425,6 +493,7 @@ public class RaftLogShipper
 
         logIndex = max( raftLog.prevIndex() + 1, logIndex );
         lastSentIndex = logIndex;
+        clearOutstanding();
 
         try
         {
@@ -455,11 +524,16 @@ public class RaftLogShipper
         }
     }
 
-    private void sendRange( long startIndex, long endIndex, LeaderContext leaderContext )
+    /**
+     * Sends the entries in the range, or a prefix of them if the range exceeds the byte budget of a batch.
+     *
+     * Returns true if the entries were sent.
+     */
+    private boolean sendRange( long startIndex, long endIndex, LeaderContext leaderContext )
     {
         if ( startIndex > endIndex )
         {
-            return;
+            return false;
         }
 
         lastSentIndex = endIndex;
@@ -468,6 +542,7 @@ public class RaftLogShipper
         {
             int batchSize = (int) (endIndex - startIndex + 1);
             RaftLogEntry[] entries = new RaftLogEntry[batchSize];
+            long batchBytes = 0;
 
             long prevLogIndex = startIndex - 1;
             long prevLogTerm = raftLog.readEntryTerm( prevLogIndex );
@@ -476,7 +551,7 @@ public class RaftLogShipper
             {
                 log.warn( "%s aborting send. Not leader anymore? %s, prevLogTerm=%d",
                         statusAsString(), leaderContext, prevLogTerm );
-                return;
+                return false;
             }
 
             boolean entryMissing = false;
@@ -484,18 +559,28 @@ public class RaftLogShipper
             {
                 for ( int offset = 0; offset < batchSize; offset++ )
                 {
-                    entries[offset] = logEntrySupplier.get( startIndex + offset );
-                    if ( entries[offset] == null )
+                    RaftLogEntry entry = logEntrySupplier.get( startIndex + offset );
+                    if ( entry == null )
                     {
                         entryMissing = true;
                         break;
                     }
-                    if ( entries[offset].term() > leaderContext.term )
+                    if ( entry.term() > leaderContext.term )
                     {
                         log.warn( "%s aborting send. Not leader anymore? %s, entryTerm=%d",
-                                statusAsString(), leaderContext, entries[offset].term() );
-                        return;
+                                statusAsString(), leaderContext, entry.term() );
+                        return false;
+                    }
+                    long entryBytes = sizeOf( entry );
+                    if ( offset > 0 && batchBytes + entryBytes > catchupBatchBytes )
+                    {
+                        /* the batch is full, the remaining entries go in the next one */
+                        entries = Arrays.copyOf( entries, offset );
+                        lastSentIndex = startIndex + offset - 1;
+                        break;
                     }
+                    entries[offset] = entry;
+                    batchBytes += entryBytes;
                 }
             }
 
@@ -510,18 +595,22 @@ public class RaftLogShipper
                     log.error( "%s: Could not send compaction info and entries were missing, but log is not behind.",
                             statusAsString() );
                 }
+                return false;
             }
             else
             {
                 RaftMessages.AppendEntries.Request appendRequest = new RaftMessages.AppendEntries.Request(
                         leader, leaderContext.term, prevLogIndex, prevLogTerm, entries, leaderContext.commitIndex );
 
+                addOutstanding( lastSentIndex, batchBytes );
                 outbound.send( follower, appendRequest );
+                return true;
             }
         }
         catch ( IOException e )
         {
             log.warn( statusAsString() + " exception during batch send", e );
+            return false;
         }
     }
 
@@ -541,7 +630,20 @@ public class RaftLogShipper
 
     private String statusAsString()
     {
-        return format( "%s[matchIndex: %d, lastSentIndex: %d, localAppendIndex: %d, mode: %s]", follower, matchIndex,
-                lastSentIndex, raftLog.appendIndex(), mode );
+        return format( "%s[matchIndex: %d, lastSentIndex: %d, localAppendIndex: %d, mode: %s, " +
+                       "outstandingBatches: %d, outstandingBytes: %d]", follower, matchIndex, lastSentIndex,
+                raftLog.appendIndex(), mode, outstandingBatches.size(), outstandingBytes );
+    }
+
+    private static class Batch
+    {
+        private final long endIndex;
+        private final long bytes;
+
+        Batch( long endIndex, long bytes )
+        {
+            this.endIndex = endIndex;
+            this.bytes = bytes;
+        }
     }
 }
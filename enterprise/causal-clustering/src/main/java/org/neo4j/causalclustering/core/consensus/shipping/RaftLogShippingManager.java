@@ -50,6 +50,9 @@ public class RaftLogShippingManager extends LifecycleAdapter implements RaftMemb
     private final RaftMembership membership;
     private final long retryTimeMillis;
     private final int catchupBatchSize;
+    private final long catchupBatchBytes;
+    private final int catchupWindowSize;
+    private final long catchupWindowBytes;
     private final int maxAllowedShippingLag;
     private final InFlightMap<RaftLogEntry> inFlightMap;
 
@@ -62,7 +65,8 @@ public class RaftLogShippingManager extends LifecycleAdapter implements RaftMemb
     public RaftLogShippingManager( Outbound<MemberId,RaftMessages.RaftMessage> outbound, LogProvider logProvider,
                                    ReadableRaftLog raftLog,
                                    Clock clock, MemberId myself, RaftMembership membership, long retryTimeMillis,
-                                   int catchupBatchSize, int maxAllowedShippingLag,
+                                   int catchupBatchSize, long catchupBatchBytes, int catchupWindowSize,
+                                   long catchupWindowBytes, int maxAllowedShippingLag,
                                    InFlightMap<RaftLogEntry> inFlightMap )
     {
         this.outbound = outbound;
@@ -73,6 +77,9 @@ public class RaftLogShippingManager extends LifecycleAdapter implements RaftMemb
         this.membership = membership;
         this.retryTimeMillis = retryTimeMillis;
         this.catchupBatchSize = catchupBatchSize;
+        this.catchupBatchBytes = catchupBatchBytes;
+        this.catchupWindowSize = catchupWindowSize;
+        this.catchupWindowBytes = catchupWindowBytes;
         this.maxAllowedShippingLag = maxAllowedShippingLag;
         this.inFlightMap = inFlightMap;
         membership.registerListener( this );
@@ -123,7 +130,7 @@ public class RaftLogShippingManager extends LifecycleAdapter implements RaftMemb
         {
             logShipper = new RaftLogShipper( outbound, logProvider, raftLog, clock, myself, member,
                     leaderContext.term, leaderContext.commitIndex, retryTimeMillis, catchupBatchSize,
-                    maxAllowedShippingLag, inFlightMap );
+                    catchupBatchBytes, catchupWindowSize, catchupWindowBytes, maxAllowedShippingLag, inFlightMap );
 
             logShippers.put( member, logShipper );
 
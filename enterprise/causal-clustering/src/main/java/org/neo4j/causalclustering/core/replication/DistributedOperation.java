@@ -20,6 +20,7 @@
 package org.neo4j.causalclustering.core.replication;
 
 import java.io.IOException;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 import org.neo4j.causalclustering.messaging.CoreReplicatedContentMarshal;
@@ -61,6 +62,12 @@ public class  DistributedOperation implements ReplicatedContent
         return content;
     }
 
+    @Override
+    public OptionalLong size()
+    {
+        return content.size();
+    }
+
     public void serialize( WritableChannel channel ) throws IOException
     {
         channel.putLong( globalSession().sessionId().getMostSignificantBits() );
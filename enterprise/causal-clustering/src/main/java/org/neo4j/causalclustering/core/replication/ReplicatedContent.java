@@ -19,9 +19,18 @@
  */
 package org.neo4j.causalclustering.core.replication;
 
+import java.util.OptionalLong;
+
 /**
  * Marker interface for types that are
  */
 public interface ReplicatedContent
 {
+    /**
+     * @return the approximate size in bytes of this content, if known.
+     */
+    default OptionalLong size()
+    {
+        return OptionalLong.empty();
+    }
 }
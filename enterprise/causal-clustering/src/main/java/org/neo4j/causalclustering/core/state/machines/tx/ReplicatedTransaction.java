@@ -20,6 +20,7 @@
 package org.neo4j.causalclustering.core.state.machines.tx;
 
 import java.util.Arrays;
+import java.util.OptionalLong;
 import java.util.function.Consumer;
 
 import org.neo4j.causalclustering.core.state.CommandDispatcher;
@@ -39,6 +40,12 @@ public class ReplicatedTransaction implements CoreReplicatedContent
         return txBytes;
     }
 
+    @Override
+    public OptionalLong size()
+    {
+        return OptionalLong.of( txBytes.length );
+    }
+
     @Override
     public void dispatch( CommandDispatcher commandDispatcher, long commandIndex, Consumer<Result> callback )
     {
@@ -73,6 +73,9 @@ public class RaftMachineBuilder
     private long catchupTimeout = 30000;
     private long retryTimeMillis = electionTimeout / 2;
     private int catchupBatchSize = 64;
+    private long catchupBatchBytes = Long.MAX_VALUE;
+    private int catchupWindowSize = 4;
+    private long catchupWindowBytes = Long.MAX_VALUE;
     private int maxAllowedShippingLag = 256;
     private StateStorage<RaftMembershipState> raftMembership =
             new InMemoryStateStorage<>( new RaftMembershipState() );
@@ -96,7 +99,8 @@ public class RaftMachineBuilder
         membershipManager.setRecoverFromIndexSupplier( () -> 0 );
         RaftLogShippingManager logShipping =
                 new RaftLogShippingManager( outbound, logProvider, raftLog, shippingClock, member, membershipManager,
-                        retryTimeMillis, catchupBatchSize, maxAllowedShippingLag, inFlightMap );
+                        retryTimeMillis, catchupBatchSize, catchupBatchBytes, catchupWindowSize, catchupWindowBytes,
+                        maxAllowedShippingLag, inFlightMap );
         RaftMachine raft = new RaftMachine( member, termState, voteState, raftLog, electionTimeout,
                 heartbeatInterval, renewableTimeoutService, outbound, logProvider,
                 membershipManager, logShipping, inFlightMap, false, monitors, clock );
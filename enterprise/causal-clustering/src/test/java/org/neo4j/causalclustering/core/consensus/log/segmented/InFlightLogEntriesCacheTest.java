@@ -24,9 +24,14 @@ import org.junit.Test;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.neo4j.causalclustering.core.consensus.log.monitoring.InFlightCacheMonitor;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class InFlightLogEntriesCacheTest
 {
@@ -104,4 +109,101 @@ public class InFlightLogEntriesCacheTest
             assertEquals( first, cache.get( 1L ) );
         }
     }
+
+    @Test
+    public void shouldEvictLowestEntriesWhenFull() throws Exception
+    {
+        InFlightMap<String> cache = new InFlightMap<>( true, 3, Long.MAX_VALUE, value -> 0, InFlightCacheMonitor.VOID );
+
+        for ( long i = 0; i < 5; i++ )
+        {
+            cache.put( i, "entry" + i );
+        }
+
+        assertNull( cache.get( 0L ) );
+        assertNull( cache.get( 1L ) );
+        assertEquals( "entry2", cache.get( 2L ) );
+        assertEquals( "entry3", cache.get( 3L ) );
+        assertEquals( "entry4", cache.get( 4L ) );
+    }
+
+    @Test
+    public void shouldEvictLowestEntriesWhenOverByteLimit() throws Exception
+    {
+        InFlightMap<String> cache = new InFlightMap<>( true, 10, 10, String::length, InFlightCacheMonitor.VOID );
+
+        cache.put( 0L, "aaaa" );
+        cache.put( 1L, "bbbb" );
+        cache.put( 2L, "cccc" );
+
+        assertNull( cache.get( 0L ) );
+        assertEquals( "bbbb", cache.get( 1L ) );
+        assertEquals( "cccc", cache.get( 2L ) );
+    }
+
+    @Test
+    public void shouldNotCacheValuesLargerThanByteLimit() throws Exception
+    {
+        InFlightMap<String> cache = new InFlightMap<>( true, 10, 3, String::length, InFlightCacheMonitor.VOID );
+
+        cache.put( 0L, "abc" );
+        cache.put( 1L, "abcd" );
+
+        assertEquals( "abc", cache.get( 0L ) );
+        assertNull( cache.get( 1L ) );
+    }
+
+    @Test
+    public void shouldEvictEntriesOutsideOfWindowAcrossGaps() throws Exception
+    {
+        InFlightMap<String> cache = new InFlightMap<>( true, 4, Long.MAX_VALUE, value -> 0, InFlightCacheMonitor.VOID );
+
+        cache.put( 0L, "zero" );
+        cache.put( 2L, "two" );
+        cache.put( 5L, "five" );
+
+        assertNull( cache.get( 0L ) );
+        assertEquals( "two", cache.get( 2L ) );
+        assertEquals( "five", cache.get( 5L ) );
+        assertNull( cache.get( 1L ) );
+    }
+
+    @Test
+    public void shouldTruncateAndReuseSlots() throws Exception
+    {
+        InFlightMap<String> cache = new InFlightMap<>( true, 4, Long.MAX_VALUE, value -> 0, InFlightCacheMonitor.VOID );
+
+        cache.put( 0L, "zero" );
+        cache.put( 1L, "one" );
+        cache.put( 2L, "two" );
+        cache.truncate( 1L );
+        cache.put( 1L, "ONE" );
+
+        assertEquals( "zero", cache.get( 0L ) );
+        assertEquals( "ONE", cache.get( 1L ) );
+        assertNull( cache.get( 2L ) );
+    }
+
+    @Test
+    public void shouldReportHitsMissesAndOccupancy() throws Exception
+    {
+        InFlightCacheMonitor monitor = mock( InFlightCacheMonitor.class );
+        InFlightMap<String> cache = new InFlightMap<>( true, 4, 100, String::length, monitor );
+
+        cache.put( 0L, "abc" );
+        cache.put( 1L, "de" );
+        cache.get( 0L );
+        cache.get( 7L );
+        cache.remove( 0L );
+
+        verify( monitor ).hit();
+        verify( monitor ).miss();
+        verify( monitor ).setTotalBytes( 3L );
+        verify( monitor ).setTotalBytes( 5L );
+        verify( monitor ).setTotalBytes( 2L );
+        verify( monitor, times( 2 ) ).setElementCount( 1 );
+        verify( monitor ).setElementCount( 2 );
+        verify( monitor, times( 3 ) ).setMaxElements( 4 );
+        verify( monitor, times( 3 ) ).setMaxBytes( 100L );
+    }
 }
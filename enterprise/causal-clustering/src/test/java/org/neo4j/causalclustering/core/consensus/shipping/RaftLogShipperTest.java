@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.neo4j.causalclustering.core.consensus.LeaderContext;
 import org.neo4j.causalclustering.core.consensus.OutboundMessageCollector;
@@ -38,6 +39,7 @@ import org.neo4j.causalclustering.core.consensus.log.InMemoryRaftLog;
 import org.neo4j.causalclustering.core.consensus.log.RaftLog;
 import org.neo4j.causalclustering.core.consensus.log.RaftLogEntry;
 import org.neo4j.causalclustering.core.consensus.log.segmented.InFlightMap;
+import org.neo4j.causalclustering.core.state.machines.tx.ReplicatedTransaction;
 import org.neo4j.causalclustering.identity.MemberId;
 import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.logging.Log;
@@ -66,6 +68,9 @@ public class RaftLogShipperTest
     private long leaderCommit;
     private long retryTimeMillis;
     private int catchupBatchSize = 64;
+    private long catchupBatchBytes = Long.MAX_VALUE;
+    private int catchupWindowSize = 4;
+    private long catchupWindowBytes = Long.MAX_VALUE;
     private int maxAllowedShippingLag = 256;
     private LogProvider logProvider;
     private Log log;
@@ -107,7 +112,8 @@ public class RaftLogShipperTest
     private void startLogShipper()
     {
         logShipper = new RaftLogShipper( outbound, logProvider, raftLog, clock, leader, follower, leaderTerm, leaderCommit,
-                        retryTimeMillis, catchupBatchSize, maxAllowedShippingLag, new InFlightMap<>() );
+                        retryTimeMillis, catchupBatchSize, catchupBatchBytes, catchupWindowSize, catchupWindowBytes,
+                        maxAllowedShippingLag, new InFlightMap<>() );
         logShipper.start();
     }
 
@@ -363,4 +369,164 @@ public class RaftLogShipperTest
 
         assertThat( outbound.sentTo( follower ), Matchers.hasRaftLogEntries( asList( entry1, entry2, entry3 ) ) );
     }
+
+    @Test
+    public void shouldKeepSeveralBatchesOutstandingWhenCatchingUp() throws Throwable
+    {
+        // given
+        catchupBatchSize = 2;
+        catchupWindowSize = 3;
+        appendEntries( 10, 0 );
+        startLogShipper();
+        logShipper.onMismatch( 0, new LeaderContext( 0, 0 ) );
+
+        // when
+        outbound.clear();
+        logShipper.onMatch( 0, new LeaderContext( 0, 0 ) );
+
+        // then
+        assertEquals( asList( 0L, 2L, 4L ), sentPrevLogIndexes() );
+
+        // when
+        outbound.clear();
+        logShipper.onMatch( 2, new LeaderContext( 0, 0 ) );
+
+        // then
+        assertEquals( asList( 6L ), sentPrevLogIndexes() );
+    }
+
+    @Test
+    public void shouldBoundBatchByBytes() throws Throwable
+    {
+        // given
+        catchupBatchBytes = 25;
+        catchupWindowSize = 1;
+        appendEntries( 5, 10 );
+        startLogShipper();
+        logShipper.onMismatch( 0, new LeaderContext( 0, 0 ) );
+
+        // when
+        outbound.clear();
+        logShipper.onMatch( 0, new LeaderContext( 0, 0 ) );
+
+        // then
+        List<RaftMessages.RaftMessage> sent = outbound.sentTo( follower );
+        assertEquals( 1, sent.size() );
+        assertEquals( 2, ((AppendEntries.Request) sent.get( 0 )).entries().length );
+    }
+
+    @Test
+    public void shouldSendSingleEntryLargerThanBatchBudget() throws Throwable
+    {
+        // given
+        catchupBatchBytes = 5;
+        catchupWindowSize = 1;
+        appendEntries( 3, 10 );
+        startLogShipper();
+        logShipper.onMismatch( 0, new LeaderContext( 0, 0 ) );
+
+        // when
+        outbound.clear();
+        logShipper.onMatch( 0, new LeaderContext( 0, 0 ) );
+
+        // then
+        List<RaftMessages.RaftMessage> sent = outbound.sentTo( follower );
+        assertEquals( 1, sent.size() );
+        assertEquals( 1, ((AppendEntries.Request) sent.get( 0 )).entries().length );
+    }
+
+    @Test
+    public void shouldBoundOutstandingBatchesByBytes() throws Throwable
+    {
+        // given
+        catchupBatchSize = 1;
+        catchupWindowSize = 10;
+        catchupWindowBytes = 25;
+        appendEntries( 10, 10 );
+        startLogShipper();
+        logShipper.onMismatch( 0, new LeaderContext( 0, 0 ) );
+
+        // when
+        outbound.clear();
+        logShipper.onMatch( 0, new LeaderContext( 0, 0 ) );
+
+        // then
+        assertEquals( asList( 0L, 1L, 2L ), sentPrevLogIndexes() );
+
+        // when
+        outbound.clear();
+        logShipper.onMatch( 1, new LeaderContext( 0, 0 ) );
+
+        // then
+        assertEquals( asList( 3L ), sentPrevLogIndexes() );
+    }
+
+    @Test
+    public void shouldCatchUpInFewerRoundTripsWithLargerWindow() throws Throwable
+    {
+        // given
+        int entryCount = catchupBatchSize * 16;
+        appendEntries( entryCount, 0 );
+
+        // when
+        catchupWindowSize = 1;
+        int serialRoundTrips = roundTripsToCatchUp( entryCount );
+        logShipper.stop();
+
+        outbound.clear();
+        catchupWindowSize = 4;
+        int windowedRoundTrips = roundTripsToCatchUp( entryCount );
+
+        // then
+        assertEquals( 16, serialRoundTrips );
+        assertEquals( 4, windowedRoundTrips );
+    }
+
+    private void appendEntries( int count, int contentBytes ) throws IOException
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            raftLog.append( new RaftLogEntry( 0, contentBytes > 0 ? new ReplicatedTransaction( new byte[contentBytes] )
+                                                                  : ReplicatedInteger.valueOf( i ) ) );
+        }
+    }
+
+    private List<Long> sentPrevLogIndexes()
+    {
+        List<Long> prevLogIndexes = new ArrayList<>();
+        for ( RaftMessages.RaftMessage message : outbound.sentTo( follower ) )
+        {
+            prevLogIndexes.add( ((AppendEntries.Request) message).prevLogIndex() );
+        }
+        return prevLogIndexes;
+    }
+
+    /**
+     * Simulates a network where every response arrives one round trip after its request, by
+     * answering all requests sent in one round only at the start of the next round.
+     */
+    private int roundTripsToCatchUp( int entryCount )
+    {
+        startLogShipper();
+        logShipper.onMismatch( 0, new LeaderContext( 0, 0 ) );
+        outbound.clear();
+        logShipper.onMatch( 0, new LeaderContext( 0, 0 ) );
+
+        int roundTrips = 0;
+        long matchIndex = 0;
+        while ( outbound.hasAnyEntriesTo( follower ) )
+        {
+            roundTrips++;
+            List<RaftMessages.RaftMessage> inFlight = new ArrayList<>( outbound.sentTo( follower ) );
+            outbound.clear();
+            for ( RaftMessages.RaftMessage message : inFlight )
+            {
+                AppendEntries.Request request = (AppendEntries.Request) message;
+                matchIndex = request.prevLogIndex() + request.entries().length;
+                logShipper.onMatch( matchIndex, new LeaderContext( 0, 0 ) );
+            }
+        }
+        assertEquals( entryCount - 1, matchIndex );
+        return roundTrips;
+    }
 }
@@ -27,7 +27,11 @@ import org.neo4j.graphdb.config.Setting;
 import org.neo4j.configuration.Internal;
 import org.neo4j.kernel.impl.store.id.IdType;
 
+import static org.neo4j.kernel.configuration.Settings.BOOLEAN;
+import static org.neo4j.kernel.configuration.Settings.DURATION;
+import static org.neo4j.kernel.configuration.Settings.FALSE;
 import static org.neo4j.kernel.configuration.Settings.STRING;
+import static org.neo4j.kernel.configuration.Settings.TRUE;
 import static org.neo4j.kernel.configuration.Settings.list;
 import static org.neo4j.kernel.configuration.Settings.optionsIgnoreCase;
 import static org.neo4j.kernel.configuration.Settings.setting;
@@ -47,6 +51,23 @@ public class EnterpriseEditionSettings implements LoadableConfig
             "dbms.ids.reuse.types.override", list( ",", optionsIgnoreCase( NODE, RELATIONSHIP ) ),
             String.join( ",", IdType.RELATIONSHIP.name(), IdType.NODE.name() ) );
 
+    @Description( "Page cache can be configured to periodically record which pages are in memory, and to load " +
+                  "those pages back in when the database starts up, thereby avoiding the period of poor performance " +
+                  "that follows a restart while the page cache is cold." )
+    public static final Setting<Boolean> pagecache_warmup_enabled = setting(
+            "dbms.memory.pagecache.warmup.enable", BOOLEAN, TRUE );
+
+    @Description( "The interval at which the profile of the pages that are in memory is written to disk. The profile " +
+                  "is also written when the database shuts down." )
+    public static final Setting<Long> pagecache_warmup_profiling_interval = setting(
+            "dbms.memory.pagecache.warmup.profile.interval", DURATION, "1m" );
+
+    @Description( "Load the profiled pages into the page cache in the background, rather than doing so before the " +
+                  "database becomes available. The database then starts up faster, but will be slower until the " +
+                  "warmup has completed." )
+    public static final Setting<Boolean> pagecache_warmup_background = setting(
+            "dbms.memory.pagecache.warmup.background", BOOLEAN, FALSE );
+
     @Internal
     public static final Setting<String> security_module = setting( "unsupported.dbms.security.module", STRING,
             ENTERPRISE_SECURITY_MODULE_ID );
@@ -22,7 +22,7 @@ package org.neo4j.kernel.impl.enterprise.lock.forseti;
 import java.time.Clock;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.IntFunction;
 import java.util.stream.Stream;
 
@@ -68,7 +68,7 @@ public class ForsetiClient implements Locks.Client
     private final int clientId;
 
     /** resourceType -> lock map. These are the global lock maps, shared across all clients. */
-    private final ConcurrentMap<Long,ForsetiLockManager.Lock>[] lockMaps;
+    private final LockTable<ForsetiLockManager.Lock>[] lockMaps;
 
     /** resourceType -> wait strategy */
     private final WaitStrategy<AcquireLockTimeoutException>[] waitStrategies;
@@ -118,9 +118,17 @@ public class ForsetiClient implements Locks.Client
      */
     private final ExclusiveLock myExclusiveLock = new ExclusiveLock( this );
 
+    /**
+     * A shared lock created by this client which never made it into the global lock map, because another client put
+     * its lock there first. Since no one else has seen it, it can be used the next time this client needs a new
+     * shared lock. Shared locks that have been in the lock map are never reused, since other clients may still hold
+     * references to them.
+     */
+    private final AtomicReference<SharedLock> spareSharedLock = new AtomicReference<>();
+
     private volatile boolean hasLocks;
 
-    public ForsetiClient( int id, ConcurrentMap<Long,ForsetiLockManager.Lock>[] lockMaps,
+    public ForsetiClient( int id, LockTable<ForsetiLockManager.Lock>[] lockMaps,
             WaitStrategy<AcquireLockTimeoutException>[] waitStrategies, Pool<ForsetiClient> clientPool,
             DeadlockResolutionStrategy deadlockResolutionStrategy, IntFunction<ForsetiClient> clientById,
             long lockAcquisitionTimeoutMillis, Clock clock )
@@ -161,7 +169,7 @@ public class ForsetiClient implements Locks.Client
         try
         {
             // Grab the global lock map we will be using
-            ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable<ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
 
             // And grab our local lock maps
             PrimitiveLongIntMap heldShareLocks = sharedLockCounts[resourceType.typeId()];
@@ -210,12 +218,13 @@ public class ForsetiClient implements Locks.Client
                             // Try to create a new shared lock
                             if ( mySharedLock == null )
                             {
-                                mySharedLock = new SharedLock( this );
+                                mySharedLock = newSharedLock();
                             }
 
                             if ( lockMap.putIfAbsent( resourceId, mySharedLock ) == null )
                             {
                                 // Success, we now hold the shared lock.
+                                mySharedLock = null;
                                 break;
                             }
                             else
@@ -256,6 +265,11 @@ public class ForsetiClient implements Locks.Client
                 }
                 finally
                 {
+                    if ( mySharedLock != null )
+                    {
+                        // Someone else got their lock into the map first, keep ours around for next time
+                        spareSharedLock.set( mySharedLock );
+                    }
                     if ( waitEvent != null )
                     {
                         waitEvent.close();
@@ -283,7 +297,7 @@ public class ForsetiClient implements Locks.Client
 
         try
         {
-            ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable<ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
             PrimitiveLongIntMap heldLocks = exclusiveLockCounts[resourceType.typeId()];
 
             for ( long resourceId : resourceIds )
@@ -355,7 +369,7 @@ public class ForsetiClient implements Locks.Client
 
         try
         {
-            ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable<ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
             PrimitiveLongIntMap heldLocks = exclusiveLockCounts[resourceType.typeId()];
 
             int heldCount = heldLocks.get( resourceId );
@@ -407,7 +421,7 @@ public class ForsetiClient implements Locks.Client
 
         try
         {
-            ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable<ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
             PrimitiveLongIntMap heldShareLocks = sharedLockCounts[resourceType.typeId()];
             PrimitiveLongIntMap heldExclusiveLocks = exclusiveLockCounts[resourceType.typeId()];
 
@@ -436,11 +450,13 @@ public class ForsetiClient implements Locks.Client
                 if ( existingLock == null )
                 {
                     // Try to create a new shared lock
-                    if ( lockMap.putIfAbsent( resourceId, new SharedLock( this ) ) == null )
+                    SharedLock mySharedLock = newSharedLock();
+                    if ( lockMap.putIfAbsent( resourceId, mySharedLock ) == null )
                     {
                         // Success!
                         break;
                     }
+                    spareSharedLock.set( mySharedLock );
                 }
                 else if ( existingLock instanceof SharedLock )
                 {
@@ -570,7 +586,7 @@ public class ForsetiClient implements Locks.Client
                 return;
             }
 
-            ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable<ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
             if ( sharedLockCounts[resourceType.typeId()].containsKey( resourceId ) )
             {
                 // We are still holding a shared lock, so we will release it to be reused
@@ -591,7 +607,7 @@ public class ForsetiClient implements Locks.Client
                 else
                 {
                     // in case if current lock is exclusive we swap it to new shared lock
-                    SharedLock sharedLock = new SharedLock( this );
+                    SharedLock sharedLock = newSharedLock();
                     lockMap.put( resourceId, sharedLock );
                 }
             }
@@ -795,8 +811,14 @@ public class ForsetiClient implements Locks.Client
         return String.format( "ForsetiClient[%d]", clientId );
     }
 
+    private SharedLock newSharedLock()
+    {
+        SharedLock sharedLock = spareSharedLock.getAndSet( null );
+        return sharedLock != null ? sharedLock : new SharedLock( this );
+    }
+
     /** Release a lock from the global pool. */
-    private void releaseGlobalLock( ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap, long resourceId )
+    private void releaseGlobalLock( LockTable<ForsetiLockManager.Lock> lockMap, long resourceId )
     {
         ForsetiLockManager.Lock lock = lockMap.get( resourceId );
         if ( lock instanceof ExclusiveLock )
@@ -837,7 +859,7 @@ public class ForsetiClient implements Locks.Client
             LockTracer tracer,
             LockWaitEvent waitEvent,
             ResourceType resourceType,
-            ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap,
+            LockTable<ForsetiLockManager.Lock> lockMap,
             long resourceId,
             SharedLock sharedLock,
             long waitStartMillis )
@@ -1053,9 +1075,9 @@ public class ForsetiClient implements Locks.Client
      */
     private class ReleaseSharedDontCheckExclusiveVisitor implements PrimitiveLongVisitor<RuntimeException>
     {
-        private ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap;
+        private LockTable<ForsetiLockManager.Lock> lockMap;
 
-        private PrimitiveLongVisitor<RuntimeException> initialize( ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap )
+        private PrimitiveLongVisitor<RuntimeException> initialize( LockTable<ForsetiLockManager.Lock> lockMap )
         {
             this.lockMap = lockMap;
             return this;
@@ -1076,10 +1098,10 @@ public class ForsetiClient implements Locks.Client
     private class ReleaseExclusiveLocksAndClearSharedVisitor implements PrimitiveLongVisitor<RuntimeException>
     {
         private PrimitiveLongIntMap sharedLockCounts;
-        private ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap;
+        private LockTable<ForsetiLockManager.Lock> lockMap;
 
         private PrimitiveLongVisitor<RuntimeException> initialize( PrimitiveLongIntMap sharedLockCounts,
-                                                                   ConcurrentMap<Long,ForsetiLockManager.Lock> lockMap )
+                                                                   LockTable<ForsetiLockManager.Lock> lockMap )
         {
             this.sharedLockCounts = sharedLockCounts;
             this.lockMap = lockMap;
@@ -20,7 +20,6 @@
 package org.neo4j.kernel.impl.enterprise.lock.forseti;
 
 import java.time.Clock;
-import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -93,9 +92,6 @@ import org.neo4j.storageengine.api.lock.WaitStrategy;
  * We have at least one type of lock (SchemaLock) that can be held concurrently by several hundred transactions. It may
  * be worth investigating fat locks, or in any case optimize the current way SharedLock adds and removes clients from
  * its holder list.
- * <p/>
- * The maps used by Forseti should be replaced by faster concurrent maps, perhaps a striped hopscotch map or something
- * similar.
  */
 public class ForsetiLockManager implements Locks
 {
@@ -165,7 +161,7 @@ public class ForsetiLockManager implements Locks
     }
 
     /** Pointers to lock maps, one array per resource type. */
-    private final ConcurrentMap<Long,ForsetiLockManager.Lock>[] lockMaps;
+    private final LockTable<ForsetiLockManager.Lock>[] lockMaps;
 
     /** Reverse lookup resource types by id, used for introspection */
     private final ResourceType[] resourceTypes;
@@ -179,7 +175,7 @@ public class ForsetiLockManager implements Locks
     public ForsetiLockManager( Config config, Clock clock, ResourceType... resourceTypes )
     {
         int maxResourceId = findMaxResourceId( resourceTypes );
-        this.lockMaps = new ConcurrentMap[maxResourceId];
+        this.lockMaps = new LockTable[maxResourceId];
         this.resourceTypes = new ResourceType[maxResourceId];
 
         /* Wait strategies per resource type */
@@ -187,7 +183,7 @@ public class ForsetiLockManager implements Locks
 
         for ( ResourceType type : resourceTypes )
         {
-            this.lockMaps[type.typeId()] = new ConcurrentHashMap<>( 16, 0.6f, 512 );
+            this.lockMaps[type.typeId()] = new LockTable<>();
             waitStrategies[type.typeId()] = type.waitStrategy();
             this.resourceTypes[type.typeId()] = type;
         }
@@ -226,11 +222,11 @@ public class ForsetiLockManager implements Locks
             if ( lockMaps[i] != null )
             {
                 ResourceType type = resourceTypes[i];
-                for ( Map.Entry<Long,Lock> entry : lockMaps[i].entrySet() )
+                lockMaps[i].visitEntries( ( resourceId, lock ) ->
                 {
-                    Lock lock = entry.getValue();
-                    out.visit( type, entry.getKey(), lock.describeWaitList(), 0, System.identityHashCode( lock ) );
-                }
+                    out.visit( type, resourceId, lock.describeWaitList(), 0, System.identityHashCode( lock ) );
+                    return false;
+                } );
             }
         }
     }
@@ -263,11 +259,11 @@ public class ForsetiLockManager implements Locks
         private final ConcurrentMap<Integer,ForsetiClient> clientsById = new ConcurrentHashMap<>();
         private final Config config;
         private final Clock clock;
-        private final ConcurrentMap<Long,ForsetiLockManager.Lock>[] lockMaps;
+        private final LockTable<ForsetiLockManager.Lock>[] lockMaps;
         private final WaitStrategy<AcquireLockTimeoutException>[] waitStrategies;
         private final DeadlockResolutionStrategy deadlockResolutionStrategy = DeadlockStrategies.DEFAULT;
 
-        ForsetiClientFlyweightPool( Config config, Clock clock, ConcurrentMap<Long,Lock>[] lockMaps,
+        ForsetiClientFlyweightPool( Config config, Clock clock, LockTable<Lock>[] lockMaps,
                 WaitStrategy<AcquireLockTimeoutException>[] waitStrategies )
         {
             super( 128 );
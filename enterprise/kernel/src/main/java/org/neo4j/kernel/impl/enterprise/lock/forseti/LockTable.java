@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.enterprise.lock.forseti;
+
+import java.util.concurrent.locks.StampedLock;
+
+import org.neo4j.collection.primitive.PrimitiveLongObjectVisitor;
+
+/**
+ * Concurrent map from primitive {@code long} resource ids to the locks currently held on them, used by
+ * {@link ForsetiLockManager} in place of {@code ConcurrentHashMap<Long,Lock>}, which boxes every resource id and
+ * allocates a map node for every lock that gets taken.
+ * <p>
+ * The table is split into a fixed number of segments, picked by the high bits of the hashed resource id. Each segment
+ * is an open addressing table with linear probing, kept as two parallel arrays of keys and values, so that inserting
+ * and removing entries does not allocate anything unless the segment needs to grow. Removal uses backward shift
+ * deletion, which means there are no tombstones and a segment never has to be rehashed only to get rid of them.
+ * <p>
+ * Writes take the exclusive lock of their segment. Reads are optimistic: they probe the segment without any locking
+ * and only retry under the read lock if a write to the same segment happened concurrently. The common case of looking
+ * up a lock is therefore free from writes to shared memory.
+ *
+ * @param <LOCK> type of locks stored in this table.
+ */
+public class LockTable<LOCK>
+{
+    private static final int SEGMENT_BITS = 7;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final int INITIAL_SEGMENT_CAPACITY = 8;
+
+    private final Segment<LOCK>[] segments;
+
+    @SuppressWarnings( "unchecked" )
+    public LockTable()
+    {
+        segments = new Segment[SEGMENTS];
+        for ( int i = 0; i < SEGMENTS; i++ )
+        {
+            segments[i] = new Segment<>( INITIAL_SEGMENT_CAPACITY );
+        }
+    }
+
+    /**
+     * @param resourceId id of the resource to look up the lock for.
+     * @return the lock currently in the table for the given resource, or {@code null} if there is none.
+     */
+    public LOCK get( long resourceId )
+    {
+        long hash = hash( resourceId );
+        return segmentFor( hash ).get( resourceId, (int) hash );
+    }
+
+    /**
+     * Puts the given lock in the table, unless there already is a lock for the given resource.
+     *
+     * @param resourceId id of the resource to put the lock for.
+     * @param lock lock to put.
+     * @return the lock already in the table for the given resource, or {@code null} if the given lock was put.
+     */
+    public LOCK putIfAbsent( long resourceId, LOCK lock )
+    {
+        long hash = hash( resourceId );
+        return segmentFor( hash ).put( resourceId, (int) hash, lock, true );
+    }
+
+    /**
+     * Puts the given lock in the table, replacing any lock already there for the given resource.
+     *
+     * @param resourceId id of the resource to put the lock for.
+     * @param lock lock to put.
+     * @return the lock previously in the table for the given resource, or {@code null} if there was none.
+     */
+    public LOCK put( long resourceId, LOCK lock )
+    {
+        long hash = hash( resourceId );
+        return segmentFor( hash ).put( resourceId, (int) hash, lock, false );
+    }
+
+    /**
+     * @param resourceId id of the resource to remove the lock for.
+     * @return the removed lock, or {@code null} if there was no lock for the given resource.
+     */
+    public LOCK remove( long resourceId )
+    {
+        long hash = hash( resourceId );
+        return segmentFor( hash ).remove( resourceId, (int) hash );
+    }
+
+    /**
+     * @return number of locks in the table. Not a snapshot, segments are counted one at a time.
+     */
+    public int size()
+    {
+        int size = 0;
+        for ( Segment<LOCK> segment : segments )
+        {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Visits all locks in the table. Each segment is visited under its read lock, so the visitor must not modify
+     * the table. Visiting stops if the visitor returns {@code true}.
+     *
+     * @param visitor visitor receiving resource ids and their locks.
+     */
+    public <E extends Exception> void visitEntries( PrimitiveLongObjectVisitor<LOCK,E> visitor ) throws E
+    {
+        for ( Segment<LOCK> segment : segments )
+        {
+            if ( segment.visitEntries( visitor ) )
+            {
+                return;
+            }
+        }
+    }
+
+    private Segment<LOCK> segmentFor( long hash )
+    {
+        return segments[(int) (hash >>> (Long.SIZE - SEGMENT_BITS))];
+    }
+
+    /**
+     * Resource ids are often sequential, so they are spread with the 64-bit finalizer of MurmurHash3 before being used
+     * to pick segment and slot.
+     */
+    private static long hash( long resourceId )
+    {
+        long h = resourceId;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * A single open addressing table. Extending {@link StampedLock} rather than referencing one saves an object and
+     * an indirection per segment. A slot is free when its value is {@code null}, since any {@code long} is a valid
+     * resource id.
+     */
+    private static class Segment<LOCK> extends StampedLock
+    {
+        private static final float MAX_LOAD_FACTOR = 0.6f;
+
+        private long[] keys;
+        private Object[] values;
+        private int size;
+
+        Segment( int capacity )
+        {
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+
+        LOCK get( long resourceId, int hash )
+        {
+            long stamp = tryOptimisticRead();
+            if ( stamp != 0 )
+            {
+                Object lock = find( keys, values, resourceId, hash );
+                if ( validate( stamp ) )
+                {
+                    return cast( lock );
+                }
+            }
+
+            stamp = readLock();
+            try
+            {
+                return cast( find( keys, values, resourceId, hash ) );
+            }
+            finally
+            {
+                unlockRead( stamp );
+            }
+        }
+
+        LOCK put( long resourceId, int hash, LOCK lock, boolean onlyIfAbsent )
+        {
+            long stamp = writeLock();
+            try
+            {
+                int mask = values.length - 1;
+                int slot = hash & mask;
+                Object existing;
+                while ( (existing = values[slot]) != null )
+                {
+                    if ( keys[slot] == resourceId )
+                    {
+                        if ( !onlyIfAbsent )
+                        {
+                            values[slot] = lock;
+                        }
+                        return cast( existing );
+                    }
+                    slot = (slot + 1) & mask;
+                }
+
+                keys[slot] = resourceId;
+                values[slot] = lock;
+                if ( ++size > values.length * MAX_LOAD_FACTOR )
+                {
+                    grow();
+                }
+                return null;
+            }
+            finally
+            {
+                unlockWrite( stamp );
+            }
+        }
+
+        LOCK remove( long resourceId, int hash )
+        {
+            long stamp = writeLock();
+            try
+            {
+                int mask = values.length - 1;
+                int slot = hash & mask;
+                Object existing;
+                while ( (existing = values[slot]) != null )
+                {
+                    if ( keys[slot] == resourceId )
+                    {
+                        shiftBackwards( slot, mask );
+                        size--;
+                        return cast( existing );
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                return null;
+            }
+            finally
+            {
+                unlockWrite( stamp );
+            }
+        }
+
+        int size()
+        {
+            long stamp = readLock();
+            try
+            {
+                return size;
+            }
+            finally
+            {
+                unlockRead( stamp );
+            }
+        }
+
+        <E extends Exception> boolean visitEntries( PrimitiveLongObjectVisitor<LOCK,E> visitor ) throws E
+        {
+            long stamp = readLock();
+            try
+            {
+                for ( int i = 0; i < values.length; i++ )
+                {
+                    Object lock = values[i];
+                    if ( lock != null && visitor.visited( keys[i], cast( lock ) ) )
+                    {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            finally
+            {
+                unlockRead( stamp );
+            }
+        }
+
+        /**
+         * Empties the given slot and moves following entries of the same probe sequence back into it, so that no
+         * lookup will stop at the emptied slot before finding the entry it is looking for.
+         */
+        private void shiftBackwards( int emptied, int mask )
+        {
+            int slot = emptied;
+            while ( true )
+            {
+                slot = (slot + 1) & mask;
+                Object lock = values[slot];
+                if ( lock == null )
+                {
+                    break;
+                }
+                int home = (int) hash( keys[slot] ) & mask;
+                // Move the entry only if its home slot is not cyclically within (emptied, slot]
+                if ( ((slot - home) & mask) >= ((slot - emptied) & mask) )
+                {
+                    keys[emptied] = keys[slot];
+                    values[emptied] = lock;
+                    emptied = slot;
+                }
+            }
+            values[emptied] = null;
+        }
+
+        private void grow()
+        {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            long[] newKeys = new long[oldValues.length << 1];
+            Object[] newValues = new Object[newKeys.length];
+            int mask = newValues.length - 1;
+            for ( int i = 0; i < oldValues.length; i++ )
+            {
+                if ( oldValues[i] != null )
+                {
+                    int slot = (int) hash( oldKeys[i] ) & mask;
+                    while ( newValues[slot] != null )
+                    {
+                        slot = (slot + 1) & mask;
+                    }
+                    newKeys[slot] = oldKeys[i];
+                    newValues[slot] = oldValues[i];
+                }
+            }
+            keys = newKeys;
+            values = newValues;
+        }
+
+        /**
+         * Probes for the given resource id. May run concurrently with a write when reading optimistically, in which
+         * case the result is thrown away, but the probe must still terminate, hence the bound on the number of slots
+         * visited.
+         */
+        private static Object find( long[] keys, Object[] values, long resourceId, int hash )
+        {
+            int capacity = Math.min( keys.length, values.length );
+            int mask = capacity - 1;
+            int slot = hash & mask;
+            for ( int i = 0; i < capacity; i++ )
+            {
+                Object lock = values[slot];
+                if ( lock == null )
+                {
+                    return null;
+                }
+                if ( keys[slot] == resourceId )
+                {
+                    return lock;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        @SuppressWarnings( "unchecked" )
+        private static <LOCK> LOCK cast( Object lock )
+        {
+            return (LOCK) lock;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.util.JobScheduler;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
+
+/**
+ * The page cache warmer keeps track of which pages are in memory, and loads them back in after a restart.
+ * <p>
+ * A profile of the pages in memory is kept for every mapped store file, in a file next to the store file itself. The
+ * profile is a gzipped bitmap, with one bit per file page, which is set if the page was in memory when the profile was
+ * taken. Profiling uses {@link PagedFile#PF_NO_FAULT} and {@link PagedFile#PF_TRANSIENT} cursors, so it neither
+ * faults in pages, nor disturbs the eviction order of the pages that are already in memory.
+ * <p>
+ * Warming up the page cache loads the profiled pages back in through {@link PagedFile#preload(long, long)}, which
+ * reads runs of consecutive pages with large vectored reads. The store files are warmed up in parallel.
+ */
+public class PageCacheWarmer
+{
+    static final String SUFFIX_CACHEPROF = ".cacheprof";
+    private static final String SUFFIX_CACHEPROF_TMP = ".cacheprof.tmp";
+
+    private final FileSystemAbstraction fs;
+    private final PageCache pageCache;
+    private final JobScheduler scheduler;
+    private final PageCacheTracer tracer;
+    private volatile boolean stopped;
+
+    public PageCacheWarmer( FileSystemAbstraction fs, PageCache pageCache, JobScheduler scheduler,
+            PageCacheTracer tracer )
+    {
+        this.fs = fs;
+        this.pageCache = pageCache;
+        this.scheduler = scheduler;
+        this.tracer = tracer;
+    }
+
+    /**
+     * Allow warmup to run, after a previous {@link #stop()}.
+     */
+    public void start()
+    {
+        stopped = false;
+    }
+
+    /**
+     * Stop any ongoing, and prevent any future, warmup. Profiling is not affected, so the profile can still be brought
+     * up to date before shutting down.
+     */
+    public void stop()
+    {
+        stopped = true;
+    }
+
+    /**
+     * Load the profiled pages of the given store files into the page cache. Store files that are not mapped, or that
+     * have no profile, are ignored.
+     *
+     * @param storeFiles The store files to warm up.
+     * @return The number of pages that were loaded into memory.
+     */
+    public synchronized long reheat( Iterable<File> storeFiles ) throws IOException
+    {
+        long startMillis = System.currentTimeMillis();
+        AtomicLong pagesLoaded = new AtomicLong();
+        List<JobScheduler.JobHandle> handles = new ArrayList<>();
+        List<IOException> failures = new ArrayList<>();
+        for ( File storeFile : storeFiles )
+        {
+            File profile = profileFile( storeFile );
+            if ( stopped || !fs.fileExists( profile ) )
+            {
+                continue;
+            }
+            Optional<PagedFile> mapping = pageCache.getExistingMapping( storeFile );
+            if ( !mapping.isPresent() )
+            {
+                continue;
+            }
+            handles.add( scheduler.schedule( JobScheduler.Groups.pageCacheWarmup, () ->
+            {
+                try ( PagedFile pagedFile = mapping.get() )
+                {
+                    pagesLoaded.addAndGet( reheat( pagedFile, profile ) );
+                }
+                catch ( IOException e )
+                {
+                    synchronized ( failures )
+                    {
+                        failures.add( e );
+                    }
+                }
+            } ) );
+        }
+        awaitTermination( handles );
+        tracer.warmupMillis( System.currentTimeMillis() - startMillis );
+        if ( !failures.isEmpty() )
+        {
+            IOException exception = new IOException( "Page cache warmup failed for " + failures.size() + " files" );
+            failures.forEach( exception::addSuppressed );
+            throw exception;
+        }
+        return pagesLoaded.get();
+    }
+
+    private long reheat( PagedFile pagedFile, File profile ) throws IOException
+    {
+        long pagesLoaded = 0;
+        try ( InputStream input = new GZIPInputStream( new BufferedInputStream( fs.openAsInputStream( profile ) ) ) )
+        {
+            long filePageId = 0;
+            long runStart = -1;
+            int bits;
+            while ( !stopped && (bits = input.read()) != -1 )
+            {
+                for ( int i = 0; i < Byte.SIZE; i++, filePageId++ )
+                {
+                    if ( (bits & (1 << i)) != 0 )
+                    {
+                        if ( runStart == -1 )
+                        {
+                            runStart = filePageId;
+                        }
+                    }
+                    else if ( runStart != -1 )
+                    {
+                        pagesLoaded += preload( pagedFile, runStart, filePageId - runStart );
+                        runStart = -1;
+                    }
+                }
+            }
+            if ( !stopped && runStart != -1 )
+            {
+                pagesLoaded += preload( pagedFile, runStart, filePageId - runStart );
+            }
+        }
+        return pagesLoaded;
+    }
+
+    private long preload( PagedFile pagedFile, long startFilePageId, long pageCount ) throws IOException
+    {
+        long pagesLoaded = pagedFile.preload( startFilePageId, pageCount );
+        tracer.warmupPagesLoaded( pagesLoaded );
+        return pagesLoaded;
+    }
+
+    /**
+     * Record which pages of the given store files are currently in memory. Store files that are not mapped are
+     * ignored.
+     *
+     * @param storeFiles The store files to profile.
+     * @return The number of pages that were found to be in memory.
+     */
+    public synchronized long profile( Iterable<File> storeFiles ) throws IOException
+    {
+        long pagesInMemory = 0;
+        for ( File storeFile : storeFiles )
+        {
+            Optional<PagedFile> mapping = pageCache.getExistingMapping( storeFile );
+            if ( mapping.isPresent() )
+            {
+                try ( PagedFile pagedFile = mapping.get() )
+                {
+                    pagesInMemory += profile( pagedFile, storeFile );
+                }
+            }
+        }
+        return pagesInMemory;
+    }
+
+    private long profile( PagedFile pagedFile, File storeFile ) throws IOException
+    {
+        File tmpProfile = new File( storeFile.getParentFile(), storeFile.getName() + SUFFIX_CACHEPROF_TMP );
+        long pagesInMemory = 0;
+        try ( OutputStream output = new GZIPOutputStream(
+                      new BufferedOutputStream( fs.openAsOutputStream( tmpProfile, false ) ) );
+              PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT | PF_TRANSIENT ) )
+        {
+            int bits = 0;
+            int bit = 0;
+            while ( cursor.next() )
+            {
+                if ( cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID )
+                {
+                    bits |= 1 << bit;
+                    pagesInMemory++;
+                }
+                bit++;
+                if ( bit == Byte.SIZE )
+                {
+                    output.write( bits );
+                    bits = 0;
+                    bit = 0;
+                }
+            }
+            if ( bit > 0 )
+            {
+                output.write( bits );
+            }
+        }
+        // Replace the old profile in one go, so we never try to warm up from a partially written profile.
+        fs.renameFile( tmpProfile, profileFile( storeFile ), REPLACE_EXISTING );
+        return pagesInMemory;
+    }
+
+    static File profileFile( File storeFile )
+    {
+        return new File( storeFile.getParentFile(), storeFile.getName() + SUFFIX_CACHEPROF );
+    }
+
+    private static void awaitTermination( List<JobScheduler.JobHandle> handles ) throws IOException
+    {
+        for ( JobScheduler.JobHandle handle : handles )
+        {
+            try
+            {
+                handle.waitTermination();
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException( "Interrupted while waiting for page cache warmup to complete", e );
+            }
+            catch ( ExecutionException e )
+            {
+                throw new IOException( "Page cache warmup failed", e.getCause() );
+            }
+        }
+    }
+}
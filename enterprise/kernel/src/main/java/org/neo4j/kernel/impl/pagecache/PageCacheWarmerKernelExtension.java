@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.kernel.NeoStoreDataSource;
+import org.neo4j.kernel.impl.transaction.state.DataSourceManager;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.storageengine.api.StoreFileMetadata;
+
+/**
+ * Warms up the page cache when the database starts, and keeps the page cache profiles up to date while it runs.
+ * <p>
+ * This extension is started after the {@link NeoStoreDataSource}, so the store files are mapped by then, but before the
+ * database is made available. Unless the warmup has been configured to run in the background, the database thus
+ * only becomes available once the page cache has been warmed up.
+ */
+class PageCacheWarmerKernelExtension extends LifecycleAdapter
+{
+    private final PageCacheWarmer warmer;
+    private final DataSourceManager dataSourceManager;
+    private final JobScheduler scheduler;
+    private final Log log;
+    private final long profilingIntervalMillis;
+    private final boolean background;
+    private JobScheduler.JobHandle warmupJob;
+    private JobScheduler.JobHandle profilingJob;
+
+    PageCacheWarmerKernelExtension( PageCacheWarmer warmer, DataSourceManager dataSourceManager,
+            JobScheduler scheduler, Log log, long profilingIntervalMillis, boolean background )
+    {
+        this.warmer = warmer;
+        this.dataSourceManager = dataSourceManager;
+        this.scheduler = scheduler;
+        this.log = log;
+        this.profilingIntervalMillis = profilingIntervalMillis;
+        this.background = background;
+    }
+
+    @Override
+    public void start() throws Throwable
+    {
+        warmer.start();
+        if ( background )
+        {
+            warmupJob = scheduler.schedule( JobScheduler.Groups.pageCacheWarmup, this::reheat );
+        }
+        else
+        {
+            reheat();
+        }
+        profilingJob = scheduler.scheduleRecurring( JobScheduler.Groups.pageCacheWarmup, this::profile,
+                profilingIntervalMillis, profilingIntervalMillis, TimeUnit.MILLISECONDS );
+    }
+
+    @Override
+    public void stop() throws Throwable
+    {
+        profilingJob.cancel( false );
+        warmer.stop();
+        if ( warmupJob != null )
+        {
+            warmupJob.waitTermination();
+        }
+        // Take a last profile, so the next start warms up with the pages that were in memory right before shutdown.
+        profile();
+    }
+
+    private void reheat()
+    {
+        long startMillis = System.currentTimeMillis();
+        try
+        {
+            long pagesLoaded = warmer.reheat( storeFiles() );
+            if ( pagesLoaded > 0 )
+            {
+                log.info( "Page cache warmup completed. %d pages loaded in %d ms.",
+                        pagesLoaded, System.currentTimeMillis() - startMillis );
+            }
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Page cache warmup failed.", e );
+        }
+    }
+
+    private void profile()
+    {
+        try
+        {
+            warmer.profile( storeFiles() );
+        }
+        catch ( IOException | IllegalStateException e )
+        {
+            log.debug( "Page cache profiling failed.", e );
+        }
+    }
+
+    private List<File> storeFiles() throws IOException
+    {
+        List<File> files = new ArrayList<>();
+        NeoStoreDataSource dataSource = dataSourceManager.getDataSource();
+        if ( dataSource != null )
+        {
+            try ( ResourceIterator<StoreFileMetadata> storeFiles = dataSource.listStoreFiles( false ) )
+            {
+                storeFiles.forEachRemaining( metadata -> files.add( metadata.file() ) );
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.enterprise.lock.forseti;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class LockTableTest
+{
+    private final LockTable<String> table = new LockTable<>();
+
+    @Test
+    public void shouldPutIfAbsent() throws Exception
+    {
+        // WHEN
+        assertNull( table.putIfAbsent( 1, "a" ) );
+        String existing = table.putIfAbsent( 1, "b" );
+
+        // THEN
+        assertEquals( "a", existing );
+        assertEquals( "a", table.get( 1 ) );
+        assertEquals( 1, table.size() );
+    }
+
+    @Test
+    public void shouldReplaceOnPut() throws Exception
+    {
+        // GIVEN
+        table.putIfAbsent( -1, "a" );
+
+        // WHEN
+        String previous = table.put( -1, "b" );
+
+        // THEN
+        assertEquals( "a", previous );
+        assertEquals( "b", table.get( -1 ) );
+    }
+
+    @Test
+    public void shouldRemove() throws Exception
+    {
+        // GIVEN
+        table.putIfAbsent( Long.MIN_VALUE, "a" );
+        table.putIfAbsent( Long.MAX_VALUE, "b" );
+
+        // WHEN
+        String removed = table.remove( Long.MIN_VALUE );
+
+        // THEN
+        assertEquals( "a", removed );
+        assertNull( table.get( Long.MIN_VALUE ) );
+        assertNull( table.remove( Long.MIN_VALUE ) );
+        assertEquals( "b", table.get( Long.MAX_VALUE ) );
+        assertEquals( 1, table.size() );
+    }
+
+    @Test
+    public void shouldGrowAndShrinkLikeAMap() throws Exception
+    {
+        // GIVEN
+        Map<Long,String> expected = new HashMap<>();
+        Random random = new Random( 42 );
+
+        // WHEN
+        for ( int i = 0; i < 200_000; i++ )
+        {
+            long resourceId = random.nextInt( 50_000 );
+            String lock = String.valueOf( i );
+            switch ( random.nextInt( 3 ) )
+            {
+            case 0:
+                assertEquals( expected.putIfAbsent( resourceId, lock ), table.putIfAbsent( resourceId, lock ) );
+                break;
+            case 1:
+                assertEquals( expected.put( resourceId, lock ), table.put( resourceId, lock ) );
+                break;
+            default:
+                assertEquals( expected.remove( resourceId ), table.remove( resourceId ) );
+                break;
+            }
+        }
+
+        // THEN
+        assertEquals( expected.size(), table.size() );
+        Map<Long,String> visited = new HashMap<>();
+        table.visitEntries( ( resourceId, lock ) ->
+        {
+            assertNull( visited.put( resourceId, lock ) );
+            return false;
+        } );
+        assertEquals( expected, visited );
+    }
+
+    @Test
+    public void shouldGiveEachResourceToOneClientAtATime() throws Exception
+    {
+        // GIVEN
+        int threads = 8;
+        int resources = 16;
+        AtomicInteger[] holders = new AtomicInteger[resources];
+        for ( int i = 0; i < resources; i++ )
+        {
+            holders[i] = new AtomicInteger();
+        }
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+
+        try
+        {
+            // WHEN
+            Future<?>[] futures = new Future[threads];
+            for ( int t = 0; t < threads; t++ )
+            {
+                String me = "client-" + t;
+                int seed = t;
+                futures[t] = executor.submit( () ->
+                {
+                    Random random = new Random( seed );
+                    for ( int i = 0; i < 20_000; i++ )
+                    {
+                        int resourceId = random.nextInt( resources );
+                        if ( table.putIfAbsent( resourceId, me ) == null )
+                        {
+                            assertEquals( 1, holders[resourceId].incrementAndGet() );
+                            assertSame( me, table.get( resourceId ) );
+                            holders[resourceId].decrementAndGet();
+                            assertSame( me, table.remove( resourceId ) );
+                        }
+                    }
+                } );
+            }
+
+            // THEN
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+            assertEquals( 0, table.size() );
+        }
+        finally
+        {
+            executor.shutdown();
+            executor.awaitTermination( 1, TimeUnit.MINUTES );
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.impl.util.Neo4jJobScheduler;
+import org.neo4j.test.rule.PageCacheRule;
+import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+public class PageCacheWarmerTest
+{
+    private final EphemeralFileSystemRule fs = new EphemeralFileSystemRule();
+    private final PageCacheRule pageCacheRule =
+            new PageCacheRule( PageCacheRule.config().withInconsistentReads( false ) );
+
+    @Rule
+    public RuleChain rules = RuleChain.outerRule( fs ).around( pageCacheRule );
+
+    private Neo4jJobScheduler scheduler;
+    private File file;
+    private List<File> storeFiles;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        scheduler = new Neo4jJobScheduler();
+        scheduler.init();
+        File dir = new File( "/db" );
+        fs.mkdirs( dir );
+        file = new File( dir, "store" );
+        storeFiles = singletonList( file );
+    }
+
+    @After
+    public void tearDown()
+    {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void mustLoadProfiledPagesIntoMemory() throws Exception
+    {
+        PageCache pageCache = pageCacheRule.getPageCache( fs );
+        try ( PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), CREATE ) )
+        {
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_WRITE_LOCK ) )
+            {
+                for ( int i = 0; i < 20; i++ )
+                {
+                    assertTrue( cursor.next() );
+                    cursor.putLong( i );
+                }
+            }
+        }
+
+        pageCache = pageCacheRule.getPageCache( fs );
+        PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, scheduler, PageCacheTracer.NULL );
+        try ( PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            touch( pagedFile, 1, 3, 10, 11, 12 );
+            assertThat( warmer.profile( storeFiles ), is( 5L ) );
+        }
+        assertTrue( fs.fileExists( PageCacheWarmer.profileFile( file ) ) );
+
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        pageCache = pageCacheRule.getPageCache( fs, PageCacheRule.config().withTracer( tracer ) );
+        warmer = new PageCacheWarmer( fs, pageCache, scheduler, tracer );
+        try ( PagedFile pagedFile = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            assertThat( warmer.reheat( storeFiles ), is( 5L ) );
+            assertThat( tracer.warmupPagesLoaded(), is( 5L ) );
+
+            try ( PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+            {
+                for ( long pageId = 0; pageId < 20; pageId++ )
+                {
+                    assertTrue( cursor.next() );
+                    boolean profiled = pageId == 1 || pageId == 3 || (pageId >= 10 && pageId <= 12);
+                    assertThat( "page " + pageId, cursor.getCurrentPageId() == pageId, is( profiled ) );
+                    if ( profiled )
+                    {
+                        assertThat( cursor.getLong(), is( pageId ) );
+                    }
+                }
+                assertFalse( cursor.next() );
+            }
+        }
+    }
+
+    @Test
+    public void mustIgnoreFilesWithoutProfileOrMapping() throws Exception
+    {
+        PageCache pageCache = pageCacheRule.getPageCache( fs );
+        PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, scheduler, PageCacheTracer.NULL );
+        assertThat( warmer.profile( storeFiles ), is( 0L ) );
+        assertThat( warmer.reheat( storeFiles ), is( 0L ) );
+        assertFalse( fs.fileExists( PageCacheWarmer.profileFile( file ) ) );
+
+        try ( PagedFile ignore = pageCache.map( file, pageCache.pageSize(), CREATE ) )
+        {
+            assertThat( warmer.reheat( storeFiles ), is( 0L ) );
+        }
+    }
+
+    @Test
+    public void mustNotWarmUpAfterStop() throws Exception
+    {
+        PageCache pageCache = pageCacheRule.getPageCache( fs );
+        PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, scheduler, PageCacheTracer.NULL );
+        try ( PagedFile pagedFile = pageCache.map( file, pageCache.pageSize(), CREATE ) )
+        {
+            touch( pagedFile, 0, 1 );
+            assertThat( warmer.profile( storeFiles ), is( 2L ) );
+        }
+
+        pageCache = pageCacheRule.getPageCache( fs );
+        warmer = new PageCacheWarmer( fs, pageCache, scheduler, PageCacheTracer.NULL );
+        try ( PagedFile ignore = pageCache.map( file, pageCache.pageSize() ) )
+        {
+            warmer.stop();
+            assertThat( warmer.reheat( storeFiles ), is( 0L ) );
+            warmer.start();
+            assertThat( warmer.reheat( storeFiles ), is( 2L ) );
+        }
+    }
+
+    private static void touch( PagedFile pagedFile, long... pageIds ) throws IOException
+    {
+        for ( long pageId : pageIds )
+        {
+            try ( PageCursor cursor = pagedFile.io( pageId, PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( cursor.next() );
+            }
+        }
+    }
+}
@@ -53,6 +53,18 @@ public class CoreMetrics extends LifecycleAdapter
     public static final String DROPPED_MESSAGES = name( CAUSAL_CLUSTERING_PREFIX, "dropped_messages" );
     @Documented( "How many RAFT messages are queued up?" )
     public static final String QUEUE_SIZE = name( CAUSAL_CLUSTERING_PREFIX, "queue_sizes" );
+    @Documented( "In-flight cache total bytes" )
+    public static final String TOTAL_BYTES = name( CAUSAL_CLUSTERING_PREFIX, "in_flight_cache", "total_bytes" );
+    @Documented( "In-flight cache max bytes" )
+    public static final String MAX_BYTES = name( CAUSAL_CLUSTERING_PREFIX, "in_flight_cache", "max_bytes" );
+    @Documented( "In-flight cache element count" )
+    public static final String ELEMENT_COUNT = name( CAUSAL_CLUSTERING_PREFIX, "in_flight_cache", "element_count" );
+    @Documented( "In-flight cache maximum elements" )
+    public static final String MAX_ELEMENTS = name( CAUSAL_CLUSTERING_PREFIX, "in_flight_cache", "max_elements" );
+    @Documented( "In-flight cache hits" )
+    public static final String HITS = name( CAUSAL_CLUSTERING_PREFIX, "in_flight_cache", "hits" );
+    @Documented( "In-flight cache misses" )
+    public static final String MISSES = name( CAUSAL_CLUSTERING_PREFIX, "in_flight_cache", "misses" );
 
     private Monitors monitors;
     private MetricRegistry registry;
@@ -65,6 +77,7 @@ public class CoreMetrics extends LifecycleAdapter
     private final TxPullRequestsMetric txPullRequestsMetric = new TxPullRequestsMetric();
     private final TxRetryMetric txRetryMetric = new TxRetryMetric();
     private final MessageQueueMonitorMetric messageQueueMetric = new MessageQueueMonitorMetric();
+    private final InFlightCacheMetric inFlightCacheMetric = new InFlightCacheMetric();
 
     public CoreMetrics( Monitors monitors, MetricRegistry registry, Supplier<CoreMetaData> coreMetaData )
     {
@@ -83,6 +96,7 @@ public class CoreMetrics extends LifecycleAdapter
         monitors.addMonitorListener( txPullRequestsMetric );
         monitors.addMonitorListener( txRetryMetric );
         monitors.addMonitorListener( messageQueueMetric );
+        monitors.addMonitorListener( inFlightCacheMetric );
 
         registry.register( COMMIT_INDEX, (Gauge<Long>) raftLogCommitIndexMetric::commitIndex );
         registry.register( APPEND_INDEX, (Gauge<Long>) raftLogAppendIndexMetric::appendIndex );
@@ -92,6 +106,12 @@ public class CoreMetrics extends LifecycleAdapter
         registry.register( IS_LEADER, new LeaderGauge() );
         registry.register( DROPPED_MESSAGES, (Gauge<Long>) messageQueueMetric::droppedMessages );
         registry.register( QUEUE_SIZE, (Gauge<Long>) messageQueueMetric::queueSizes );
+        registry.register( TOTAL_BYTES, (Gauge<Long>) inFlightCacheMetric::getTotalBytes );
+        registry.register( MAX_BYTES, (Gauge<Long>) inFlightCacheMetric::getMaxBytes );
+        registry.register( ELEMENT_COUNT, (Gauge<Long>) inFlightCacheMetric::getElementCount );
+        registry.register( MAX_ELEMENTS, (Gauge<Long>) inFlightCacheMetric::getMaxElements );
+        registry.register( HITS, (Gauge<Long>) inFlightCacheMetric::getHits );
+        registry.register( MISSES, (Gauge<Long>) inFlightCacheMetric::getMisses );
     }
 
     @Override
@@ -105,6 +125,12 @@ public class CoreMetrics extends LifecycleAdapter
         registry.remove( IS_LEADER );
         registry.remove( DROPPED_MESSAGES );
         registry.remove( QUEUE_SIZE );
+        registry.remove( TOTAL_BYTES );
+        registry.remove( MAX_BYTES );
+        registry.remove( ELEMENT_COUNT );
+        registry.remove( MAX_ELEMENTS );
+        registry.remove( HITS );
+        registry.remove( MISSES );
 
         monitors.removeMonitorListener( raftLogCommitIndexMetric );
         monitors.removeMonitorListener( raftLogAppendIndexMetric );
@@ -113,6 +139,7 @@ public class CoreMetrics extends LifecycleAdapter
         monitors.removeMonitorListener( txPullRequestsMetric );
         monitors.removeMonitorListener( txRetryMetric );
         monitors.removeMonitorListener( messageQueueMetric );
+        monitors.removeMonitorListener( inFlightCacheMetric );
     }
 
     private class LeaderGauge implements Gauge<Integer>
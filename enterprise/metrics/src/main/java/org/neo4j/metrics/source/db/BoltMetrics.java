@@ -25,6 +25,7 @@ import com.codahale.metrics.MetricRegistry;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.bolt.v1.runtime.MonitoredWorkerFactory;
+import org.neo4j.bolt.v1.runtime.concurrent.PooledWorkerFactory;
 import org.neo4j.kernel.impl.annotations.Documented;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.kernel.monitoring.Monitors;
@@ -54,6 +55,18 @@ public class BoltMetrics extends LifecycleAdapter
     @Documented( "The accumulated time worker threads have spent processing messages." )
     public static final String TOTAL_PROCESSING_TIME = name( NAME_PREFIX, "accumulated_processing_time" );
 
+    @Documented( "The number of messages received via Bolt that are waiting to be taken on by a worker thread." )
+    public static final String QUEUE_DEPTH = name( NAME_PREFIX, "queue_depth" );
+    @Documented( "The total number of times a session with pending messages has been handed to the shared worker " +
+                 "pool since this instance started. Only tracked when the Bolt worker pool is enabled." )
+    public static final String WORKERS_SCHEDULED = name( NAME_PREFIX, "workers_scheduled" );
+    @Documented( "The accumulated time sessions with pending messages have spent waiting for a thread from the " +
+                 "shared worker pool. Only tracked when the Bolt worker pool is enabled." )
+    public static final String TOTAL_SCHEDULING_LATENCY = name( NAME_PREFIX, "accumulated_scheduling_latency" );
+    @Documented( "The total number of times a session with pending messages has been handed to the shared worker " +
+                 "pool while all of its threads were busy. Only tracked when the Bolt worker pool is enabled." )
+    public static final String WORKER_POOL_SATURATED = name( NAME_PREFIX, "worker_pool_saturated" );
+
     private final MetricRegistry registry;
     private final Monitors monitors;
     private final BoltMetricsMonitor boltMonitor = new BoltMetricsMonitor();
@@ -74,6 +87,11 @@ public class BoltMetrics extends LifecycleAdapter
         registry.register( MESSAGES_DONE, (Gauge<Long>) boltMonitor.messagesDone::get );
         registry.register( TOTAL_QUEUE_TIME, (Gauge<Long>) boltMonitor.queueTime::get );
         registry.register( TOTAL_PROCESSING_TIME, (Gauge<Long>) boltMonitor.processingTime::get );
+        registry.register( QUEUE_DEPTH,
+                (Gauge<Long>) () -> boltMonitor.messagesReceived.get() - boltMonitor.messagesStarted.get() );
+        registry.register( WORKERS_SCHEDULED, (Gauge<Long>) boltMonitor.workersScheduled::get );
+        registry.register( TOTAL_SCHEDULING_LATENCY, (Gauge<Long>) boltMonitor.schedulingLatency::get );
+        registry.register( WORKER_POOL_SATURATED, (Gauge<Long>) boltMonitor.poolSaturated::get );
     }
 
     @Override
@@ -84,10 +102,14 @@ public class BoltMetrics extends LifecycleAdapter
         registry.remove( MESSAGES_DONE );
         registry.remove( TOTAL_QUEUE_TIME );
         registry.remove( TOTAL_PROCESSING_TIME );
+        registry.remove( QUEUE_DEPTH );
+        registry.remove( WORKERS_SCHEDULED );
+        registry.remove( TOTAL_SCHEDULING_LATENCY );
+        registry.remove( WORKER_POOL_SATURATED );
         monitors.removeMonitorListener( boltMonitor );
     }
 
-    private class BoltMetricsMonitor implements MonitoredWorkerFactory.SessionMonitor
+    private class BoltMetricsMonitor implements MonitoredWorkerFactory.SessionMonitor, PooledWorkerFactory.Monitor
     {
         final AtomicLong sessionsStarted = new AtomicLong();
 
@@ -101,6 +123,10 @@ public class BoltMetrics extends LifecycleAdapter
         final AtomicLong queueTime = new AtomicLong();
         final AtomicLong processingTime = new AtomicLong();
 
+        final AtomicLong workersScheduled = new AtomicLong();
+        final AtomicLong schedulingLatency = new AtomicLong();
+        final AtomicLong poolSaturated = new AtomicLong();
+
         @Override
         public void sessionStarted()
         {
@@ -126,5 +152,23 @@ public class BoltMetrics extends LifecycleAdapter
             this.processingTime.addAndGet( processingTime );
             messagesDone.incrementAndGet();
         }
+
+        @Override
+        public void workerScheduled()
+        {
+            workersScheduled.incrementAndGet();
+        }
+
+        @Override
+        public void workerStarted( long schedulingLatency )
+        {
+            this.schedulingLatency.addAndGet( schedulingLatency );
+        }
+
+        @Override
+        public void poolSaturated()
+        {
+            poolSaturated.incrementAndGet();
+        }
     }
 }
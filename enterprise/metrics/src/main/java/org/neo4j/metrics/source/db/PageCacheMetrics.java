@@ -47,6 +47,20 @@ public class PageCacheMetrics extends LifecycleAdapter
     public static final String PC_PAGE_FAULTS = name( PAGE_CACHE_PREFIX, "page_faults" );
     @Documented( "The total number of page hits happened in the page cache" )
     public static final String PC_HITS = name( PAGE_CACHE_PREFIX, "hits" );
+    @Documented( "The total number of pages loaded by read-ahead in the page cache" )
+    public static final String PC_READ_AHEAD_PAGES = name( PAGE_CACHE_PREFIX, "read_ahead_pages" );
+    @Documented( "The total number of read-ahead pages that were pinned before being evicted" )
+    public static final String PC_READ_AHEAD_HITS = name( PAGE_CACHE_PREFIX, "read_ahead_hits" );
+    @Documented( "The total number of read-ahead pages that were evicted without ever being pinned" )
+    public static final String PC_READ_AHEAD_MISSES = name( PAGE_CACHE_PREFIX, "read_ahead_misses" );
+    @Documented( "The total number of pages loaded by page cache warmup" )
+    public static final String PC_WARMUP_PAGES_LOADED = name( PAGE_CACHE_PREFIX, "warmup_pages_loaded" );
+    @Documented( "The total number of milliseconds spent on page cache warmup" )
+    public static final String PC_WARMUP_MILLIS = name( PAGE_CACHE_PREFIX, "warmup_millis" );
+    @Documented( "The total number of pages loaded into memory, that had recently been evicted" )
+    public static final String PC_GHOST_HITS = name( PAGE_CACHE_PREFIX, "ghost_hits" );
+    @Documented( "The ratio of page pins that found their page already in memory, to all page pins" )
+    public static final String PC_HIT_RATIO = name( PAGE_CACHE_PREFIX, "hit_ratio" );
 
     private final MetricRegistry registry;
     private final PageCacheCounters pageCacheCounters;
@@ -67,6 +81,13 @@ public class PageCacheMetrics extends LifecycleAdapter
         registry.register( PC_HITS, (Gauge<Long>) pageCacheCounters::hits );
         registry.register( PC_FLUSHES, (Gauge<Long>) pageCacheCounters::flushes );
         registry.register( PC_EVICTION_EXCEPTIONS, (Gauge<Long>) pageCacheCounters::evictionExceptions );
+        registry.register( PC_READ_AHEAD_PAGES, (Gauge<Long>) pageCacheCounters::readAheadPages );
+        registry.register( PC_READ_AHEAD_HITS, (Gauge<Long>) pageCacheCounters::readAheadHits );
+        registry.register( PC_READ_AHEAD_MISSES, (Gauge<Long>) pageCacheCounters::readAheadMisses );
+        registry.register( PC_WARMUP_PAGES_LOADED, (Gauge<Long>) pageCacheCounters::warmupPagesLoaded );
+        registry.register( PC_WARMUP_MILLIS, (Gauge<Long>) pageCacheCounters::warmupMillis );
+        registry.register( PC_GHOST_HITS, (Gauge<Long>) pageCacheCounters::ghostHits );
+        registry.register( PC_HIT_RATIO, (Gauge<Double>) pageCacheCounters::hitRatio );
     }
 
     @Override
@@ -79,5 +100,12 @@ public class PageCacheMetrics extends LifecycleAdapter
         registry.remove( PC_HITS );
         registry.remove( PC_FLUSHES );
         registry.remove( PC_EVICTION_EXCEPTIONS );
+        registry.remove( PC_READ_AHEAD_PAGES );
+        registry.remove( PC_READ_AHEAD_HITS );
+        registry.remove( PC_READ_AHEAD_MISSES );
+        registry.remove( PC_WARMUP_PAGES_LOADED );
+        registry.remove( PC_WARMUP_MILLIS );
+        registry.remove( PC_GHOST_HITS );
+        registry.remove( PC_HIT_RATIO );
     }
 }
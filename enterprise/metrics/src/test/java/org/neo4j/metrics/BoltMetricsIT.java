@@ -26,6 +26,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import org.neo4j.bolt.BoltKernelExtension;
 import org.neo4j.bolt.v1.messaging.message.InitMessage;
 import org.neo4j.bolt.v1.transport.socket.client.SocketConnection;
 import org.neo4j.bolt.v1.transport.socket.client.TransportConnection;
@@ -46,9 +47,12 @@ import static org.neo4j.metrics.MetricsTestHelper.readLongValue;
 import static org.neo4j.metrics.source.db.BoltMetrics.MESSAGES_DONE;
 import static org.neo4j.metrics.source.db.BoltMetrics.MESSAGES_RECIEVED;
 import static org.neo4j.metrics.source.db.BoltMetrics.MESSAGES_STARTED;
+import static org.neo4j.metrics.source.db.BoltMetrics.QUEUE_DEPTH;
 import static org.neo4j.metrics.source.db.BoltMetrics.SESSIONS_STARTED;
 import static org.neo4j.metrics.source.db.BoltMetrics.TOTAL_PROCESSING_TIME;
 import static org.neo4j.metrics.source.db.BoltMetrics.TOTAL_QUEUE_TIME;
+import static org.neo4j.metrics.source.db.BoltMetrics.TOTAL_SCHEDULING_LATENCY;
+import static org.neo4j.metrics.source.db.BoltMetrics.WORKERS_SCHEDULED;
 import static org.neo4j.test.assertion.Assert.assertEventually;
 
 public class BoltMetricsIT
@@ -100,6 +104,43 @@ public class BoltMetricsIT
                 greaterThanOrEqualTo( 0L ), 5, SECONDS );
     }
 
+    @Test
+    public void shouldMonitorBoltWorkerPool() throws Throwable
+    {
+        // Given
+        File metricsFolder = tmpDir.newFolder( "metrics" );
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+                .newImpermanentDatabaseBuilder()
+                .setConfig( new BoltConnector( "bolt" ).type, "BOLT" )
+                .setConfig( new BoltConnector( "bolt" ).enabled, "true" )
+                .setConfig( GraphDatabaseSettings.auth_enabled, "false" )
+                .setConfig( BoltKernelExtension.Settings.worker_pool_enabled, "true" )
+                .setConfig( MetricsSettings.boltMessagesEnabled, "true" )
+                .setConfig( MetricsSettings.csvEnabled, "true" )
+                .setConfig( MetricsSettings.csvInterval, "100ms" )
+                .setConfig( MetricsSettings.csvPath, metricsFolder.getAbsolutePath() )
+                .newGraphDatabase();
+
+        // When
+        conn = new SocketConnection()
+                .connect( new HostnamePort( "localhost", 7687 ) )
+                .send( acceptedVersions( 1, 0, 0, 0 ) )
+                .send( chunk( InitMessage.init( "TestClient",
+                        map("scheme", "basic", "principal", "neo4j", "credentials", "neo4j") ) ) );
+
+        // Then
+        assertEventually( "init request shows up as done",
+                () -> readLongValue( metricsCsv( metricsFolder, MESSAGES_DONE ) ), equalTo( 1L ), 5, SECONDS );
+        assertEventually( "session shows up as scheduled on the pool",
+                () -> readLongValue( metricsCsv( metricsFolder, WORKERS_SCHEDULED ) ),
+                greaterThanOrEqualTo( 1L ), 5, SECONDS );
+        assertEventually( "scheduling latency shows up",
+                () -> readLongValue( metricsCsv( metricsFolder, TOTAL_SCHEDULING_LATENCY ) ),
+                greaterThanOrEqualTo( 0L ), 5, SECONDS );
+        assertEventually( "queue is drained",
+                () -> readLongValue( metricsCsv( metricsFolder, QUEUE_DEPTH ) ), equalTo( 0L ), 5, SECONDS );
+    }
+
     @After
     public void cleanup() throws Exception
     {
@@ -40,6 +40,7 @@ import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.io.IOUtils;
 import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.test.rule.TestDirectory;
 
@@ -261,7 +262,7 @@ public class BoltFailuresIT
 
         @Override
         protected WorkerFactory createWorkerFactory( BoltFactory boltFactory, JobScheduler scheduler,
-                Dependencies dependencies, LogService logService, Clock clock )
+                Dependencies dependencies, LogService logService, Clock clock, LifeSupport life )
         {
             return workerFactory;
         }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2002-2017 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.stresstests;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.config.Configuration;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracerSupplier;
+
+import static java.lang.Integer.parseInt;
+import static java.lang.System.getProperty;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.helper.StressTestingHelper.ensureExistsAndEmpty;
+import static org.neo4j.helper.StressTestingHelper.fromEnv;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+
+/**
+ * Notice the class name: this is _not_ going to be run as part of the main build.
+ * <p>
+ * Benchmarks how page fault throughput and latency scale with the number of eviction partitions in the
+ * {@link MuninnPageCache}. Every thread writes to uniformly random pages of a file that is much larger than the cache,
+ * so nearly every access is a page fault that needs a free page, and eviction is the bottleneck. The same workload is
+ * run once with a single eviction partition, and once with the configured number of partitions.
+ */
+public class PageCacheEvictionScalingTesting
+{
+    private static final int PAGE_SIZE = 8192;
+    private static final int MAX_LATENCY_SAMPLES_PER_THREAD = 1_000_000;
+
+    @Test
+    public void evictionThroughputMustScaleWithEvictionPartitions() throws Exception
+    {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int durationInSeconds = parseInt( fromEnv( "PAGE_CACHE_EVICTION_DURATION_SECONDS", "30" ) );
+        int numberOfThreads = parseInt( fromEnv( "PAGE_CACHE_EVICTION_NUMBER_OF_THREADS", String.valueOf( cores ) ) );
+        int numberOfCachePages = parseInt( fromEnv( "PAGE_CACHE_EVICTION_NUMBER_OF_CACHE_PAGES", "65536" ) );
+        int numberOfPages = parseInt( fromEnv( "PAGE_CACHE_EVICTION_NUMBER_OF_PAGES",
+                String.valueOf( numberOfCachePages * 10 ) ) );
+        int numberOfPartitions = parseInt( fromEnv( "PAGE_CACHE_EVICTION_NUMBER_OF_PARTITIONS",
+                String.valueOf( Math.max( 2, cores / 4 ) ) ) );
+        File baseDir = new File( fromEnv( "PAGE_CACHE_EVICTION_WORKING_DIRECTORY", getProperty( "java.io.tmpdir" ) ) );
+
+        File workingDirectory = ensureExistsAndEmpty( new File( baseDir, "eviction-scaling" ) );
+        File file = new File( workingDirectory, "pagefile" );
+        try ( FileSystemAbstraction fs = new DefaultFileSystemAbstraction() )
+        {
+            try ( StoreChannel channel = fs.create( file ) )
+            {
+                channel.writeAll( ByteBuffer.allocate( 1 ), ((long) numberOfPages) * PAGE_SIZE - 1 );
+            }
+
+            Result single = run( fs, file, 1, numberOfCachePages, numberOfPages, numberOfThreads,
+                    durationInSeconds );
+            Result partitioned = run( fs, file, numberOfPartitions, numberOfCachePages, numberOfPages,
+                    numberOfThreads, durationInSeconds );
+
+            System.out.printf( "Eviction scaling with %d threads, %d cache pages, %d file pages:%n",
+                    numberOfThreads, numberOfCachePages, numberOfPages );
+            System.out.println( single );
+            System.out.println( partitioned );
+            System.out.printf( " - throughput speed-up: %.2fx%n", partitioned.opsPerSecond() / single.opsPerSecond() );
+
+            assertTrue( single.operations > 0 && partitioned.operations > 0 );
+        }
+
+        // let's cleanup disk space when everything went well
+        FileUtils.deleteRecursively( workingDirectory );
+    }
+
+    private Result run( FileSystemAbstraction fs, File file, int partitions, int cachePages, int filePages,
+            int threads, int durationInSeconds ) throws Exception
+    {
+        PageSwapperFactory swapperFactory = new SingleFilePageSwapperFactory();
+        swapperFactory.open( fs, Configuration.EMPTY );
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try ( MuninnPageCache pageCache = new MuninnPageCache( swapperFactory, cachePages, PAGE_SIZE, tracer,
+                      DefaultPageCursorTracerSupplier.INSTANCE, partitions );
+              PagedFile pagedFile = pageCache.map( file, PAGE_SIZE ) )
+        {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( durationInSeconds );
+            List<Future<long[]>> futures = new ArrayList<>();
+            for ( int i = 0; i < threads; i++ )
+            {
+                futures.add( executor.submit( () -> writeRandomPages( pagedFile, filePages, deadline ) ) );
+            }
+
+            long operations = 0;
+            long[] latencies = new long[0];
+            for ( Future<long[]> future : futures )
+            {
+                long[] threadLatencies = future.get();
+                operations += threadLatencies[0];
+                int samples = (int) Math.min( threadLatencies[0], MAX_LATENCY_SAMPLES_PER_THREAD );
+                int offset = latencies.length;
+                latencies = Arrays.copyOf( latencies, offset + samples );
+                System.arraycopy( threadLatencies, 1, latencies, offset, samples );
+            }
+            Arrays.sort( latencies );
+            long p99 = latencies.length == 0 ? 0 : latencies[(int) (latencies.length * 0.99)];
+            return new Result( partitions, operations, durationInSeconds, tracer.evictions(), p99 );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * @return An array where the first element is the number of writes done, followed by the latency in nanoseconds
+     * of as many of those writes as there is room for.
+     */
+    private static long[] writeRandomPages( PagedFile pagedFile, int filePages, long deadline ) throws Exception
+    {
+        ThreadLocalRandom rng = ThreadLocalRandom.current();
+        long[] latencies = new long[MAX_LATENCY_SAMPLES_PER_THREAD + 1];
+        long operations = 0;
+        long now;
+        while ( (now = System.nanoTime()) < deadline )
+        {
+            try ( PageCursor cursor = pagedFile.io( rng.nextInt( filePages ), PF_SHARED_WRITE_LOCK ) )
+            {
+                if ( cursor.next() )
+                {
+                    cursor.putLong( operations );
+                }
+            }
+            if ( operations < MAX_LATENCY_SAMPLES_PER_THREAD )
+            {
+                latencies[(int) operations + 1] = System.nanoTime() - now;
+            }
+            operations++;
+        }
+        latencies[0] = operations;
+        return latencies;
+    }
+
+    private static class Result
+    {
+        private final int partitions;
+        private final long operations;
+        private final int durationInSeconds;
+        private final long evictions;
+        private final long p99LatencyNanos;
+
+        Result( int partitions, long operations, int durationInSeconds, long evictions, long p99LatencyNanos )
+        {
+            this.partitions = partitions;
+            this.operations = operations;
+            this.durationInSeconds = durationInSeconds;
+            this.evictions = evictions;
+            this.p99LatencyNanos = p99LatencyNanos;
+        }
+
+        double opsPerSecond()
+        {
+            return operations / (double) durationInSeconds;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format( " - %d eviction partition(s): %.0f writes/s, %d evictions, " +
+                                  "p99 write latency %d us",
+                    partitions, opsPerSecond(), evictions, TimeUnit.NANOSECONDS.toMicros( p99LatencyNanos ) );
+        }
+    }
+}